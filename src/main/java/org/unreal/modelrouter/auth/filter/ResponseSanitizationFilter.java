@@ -16,6 +16,7 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import org.unreal.modelrouter.common.exception.SanitizationException;
+import org.unreal.modelrouter.auth.sanitization.IncrementalSanitizer;
 import org.unreal.modelrouter.auth.sanitization.SanitizationService;
 import org.unreal.modelrouter.auth.security.audit.SecurityAuditService;
 import org.unreal.modelrouter.auth.security.config.ExcludedPathsConfig;
@@ -24,6 +25,10 @@ import org.unreal.modelrouter.auth.security.model.SecurityAuditEvent;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
@@ -78,6 +83,9 @@ public class ResponseSanitizationFilter implements WebFilter {
                 
                 // 检查是否需要处理响应内容
                 String contentType = getResponseContentType();
+                if (isStreamingContentType(contentType)) {
+                    return super.writeWith(sanitizeStream(Flux.from(body), contentType));
+                }
                 if (!shouldSanitizeContentType(contentType)) {
                     return super.writeWith(body);
                 }
@@ -181,6 +189,46 @@ public class ResponseSanitizationFilter implements WebFilter {
                         .switchIfEmpty(Mono.defer(() -> super.writeWith(body)));
             }
             
+            @Override
+            public Mono<Void> writeAndFlushWith(
+                    final org.reactivestreams.Publisher<? extends org.reactivestreams.Publisher<? extends DataBuffer>> body) {
+                String contentType = getResponseContentType();
+                if (getDelegate().isCommitted() || !isStreamingContentType(contentType)) {
+                    return super.writeAndFlushWith(body);
+                }
+                StreamingBody stream = createStreamingBody(contentType);
+                if (stream == null) {
+                    return super.writeAndFlushWith(body);
+                }
+                // 每个刷新批次在到达时立即脱敏输出，流结束时再输出保留窗口中的剩余内容
+                Flux<Flux<DataBuffer>> batches = Flux.from(body)
+                        .map(batch -> Flux.from(batch).map(buffer -> stream.process(buffer)));
+                return super.writeAndFlushWith(batches
+                        .concatWith(Mono.fromCallable(() -> Flux.from(stream.complete())))
+                        .doFinally(signal -> recordSanitizationEvent(request, contentType, stream.isModified(),
+                                stream.getErrorMessage())));
+            }
+
+            /**
+             * 对分块传输的响应体逐块脱敏，不等待响应结束
+             */
+            private Flux<DataBuffer> sanitizeStream(final Flux<? extends DataBuffer> body, final String contentType) {
+                StreamingBody stream = createStreamingBody(contentType);
+                if (stream == null) {
+                    return Flux.from(body);
+                }
+                return body.map(stream::process)
+                        .concatWith(stream.complete())
+                        .doFinally(signal -> recordSanitizationEvent(request, contentType, stream.isModified(),
+                                stream.getErrorMessage()));
+            }
+
+            private StreamingBody createStreamingBody(final String contentType) {
+                IncrementalSanitizer sanitizer = sanitizationService.createResponseSanitizer(contentType);
+                return sanitizer == null ? null : new StreamingBody(sanitizer, originalResponse.bufferFactory(),
+                        securityProperties.getSanitization().getResponse().isFailOnError());
+            }
+
             /**
              * 获取响应内容类型
              */
@@ -207,6 +255,18 @@ public class ResponseSanitizationFilter implements WebFilter {
         return ExcludedPathsConfig.isDataMaskExcluded(path);
     }
 
+    /**
+     * 检查是否为需要增量脱敏的流式内容类型
+     */
+    private boolean isStreamingContentType(final String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        return contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)
+                || contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE)
+                || contentType.startsWith("application/stream+json");
+    }
+
     /**
      * 检查是否应该对该内容类型进行脱敏
      */
@@ -299,6 +359,98 @@ public class ResponseSanitizationFilter implements WebFilter {
         return request.getHeaders().getFirst("User-Agent");
     }
     
+    /**
+     * 单个流式响应的脱敏状态
+     *
+     * 按 UTF-8 增量解码，跨数据块的不完整多字节字符留到下一块；脱敏失败且不中断响应时，
+     * 输出已保留的内容并对剩余数据直接放行。
+     */
+    private static final class StreamingBody {
+        private final IncrementalSanitizer sanitizer;
+        private final DataBufferFactory bufferFactory;
+        private final boolean failOnError;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer pendingBytes = ByteBuffer.allocate(0);
+        private boolean passThrough;
+        private String errorMessage;
+
+        StreamingBody(final IncrementalSanitizer sanitizer, final DataBufferFactory bufferFactory,
+                      final boolean failOnError) {
+            this.sanitizer = sanitizer;
+            this.bufferFactory = bufferFactory;
+            this.failOnError = failOnError;
+        }
+
+        DataBuffer process(final DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            if (passThrough) {
+                return bufferFactory.wrap(bytes);
+            }
+            String text = decode(bytes, false);
+            try {
+                return wrap(sanitizer.feed(text));
+            } catch (RuntimeException e) {
+                return fail(e, text);
+            }
+        }
+
+        Mono<DataBuffer> complete() {
+            return Mono.fromCallable(() -> {
+                if (passThrough) {
+                    return bufferFactory.wrap(new byte[0]);
+                }
+                String text = decode(new byte[0], true);
+                try {
+                    return wrap(sanitizer.feed(text) + sanitizer.finish());
+                } catch (RuntimeException e) {
+                    return fail(e, text);
+                }
+            }).filter(buffer -> buffer.readableByteCount() > 0);
+        }
+
+        boolean isModified() {
+            return sanitizer.isModified();
+        }
+
+        String getErrorMessage() {
+            return errorMessage;
+        }
+
+        private DataBuffer fail(final RuntimeException e, final String text) {
+            log.error("流式响应脱敏失败: {}", e.getMessage(), e);
+            errorMessage = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            if (failOnError) {
+                throw new SanitizationException("流式响应脱敏失败", e, SanitizationException.SANITIZATION_FAILED);
+            }
+            passThrough = true;
+            // 失败的输入不会改变保留窗口，先输出窗口中尚未输出的内容，再输出本次数据
+            return wrap(sanitizer.abandon() + text);
+        }
+
+        private String decode(final byte[] bytes, final boolean endOfInput) {
+            ByteBuffer input = pendingBytes;
+            if (bytes.length > 0) {
+                input = ByteBuffer.allocate(pendingBytes.remaining() + bytes.length);
+                input.put(pendingBytes).put(bytes).flip();
+            }
+            CharBuffer output = CharBuffer.allocate((int) (input.remaining() * decoder.maxCharsPerByte()) + 2);
+            decoder.decode(input, output, endOfInput);
+            if (endOfInput) {
+                decoder.flush(output);
+            }
+            pendingBytes = input;
+            return output.flip().toString();
+        }
+
+        private DataBuffer wrap(final String text) {
+            return bufferFactory.wrap(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
     /**
      * 处理脱敏失败
      */
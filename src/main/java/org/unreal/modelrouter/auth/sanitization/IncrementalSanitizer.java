@@ -0,0 +1,38 @@
+package org.unreal.modelrouter.auth.sanitization;
+
+/**
+ * 增量脱敏器
+ *
+ * 用于 SSE 和分块传输的响应：数据块到达时立即脱敏并输出，只在内部保留一个有界的尾部窗口，
+ * 以便捕获跨越数据块边界的命中。每个实例只服务一个流，不可在多个流之间共享。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public interface IncrementalSanitizer {
+
+    /**
+     * 输入一段数据
+     * @param chunk 新到达的数据
+     * @return 已可以安全输出的脱敏内容，可能为空字符串
+     */
+    String feed(String chunk);
+
+    /**
+     * 流结束，输出保留窗口中剩余内容的脱敏结果
+     * @return 剩余的脱敏内容，可能为空字符串
+     */
+    String finish();
+
+    /**
+     * 放弃脱敏，取出保留窗口中尚未输出的原始内容；之后不应再调用 feed
+     * @return 尚未输出的原始内容，可能为空字符串
+     */
+    String abandon();
+
+    /**
+     * 是否已有内容被脱敏
+     * @return 有任一规则命中时返回 true
+     */
+    boolean isModified();
+}
@@ -40,4 +40,16 @@ public interface SanitizationRuleEngine {
      * @return 匹配次数
      */
     Mono<Long> getRuleMatchCount(String ruleId);
+    
+    /**
+     * 创建流式响应使用的增量脱敏器
+     * @param rules 脱敏规则列表
+     * @param contentType 内容类型
+     * @param regexWindow 正则命中的最大长度，决定保留的尾部窗口
+     * @return 增量脱敏器；引擎不支持增量处理时返回 null
+     */
+    default IncrementalSanitizer createIncrementalSanitizer(List<SanitizationRule> rules, String contentType,
+                                                            int regexWindow) {
+        return null;
+    }
 }
\ No newline at end of file
@@ -28,6 +28,15 @@ public interface SanitizationService {
      */
     Mono<String> sanitizeResponse(String content, String contentType);
     
+    /**
+     * 为一个流式响应创建增量脱敏器
+     * @param contentType 内容类型
+     * @return 增量脱敏器；没有适用规则或引擎不支持增量处理时返回 null
+     */
+    default IncrementalSanitizer createResponseSanitizer(String contentType) {
+        return null;
+    }
+    
     /**
      * 检查用户是否在白名单中
      * @param userId 用户ID
@@ -0,0 +1,448 @@
+package org.unreal.modelrouter.auth.sanitization.automaton;
+
+import lombok.extern.slf4j.Slf4j;
+import org.unreal.modelrouter.auth.security.model.RuleType;
+import org.unreal.modelrouter.auth.security.model.SanitizationRule;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 编译后的脱敏执行计划
+ *
+ * 一组规则编译为：
+ * - SENSITIVE_WORD 规则合并为一个 {@link WordAutomaton}，命中后按 \b 语义校验词边界
+ * - 可融合的正则规则（不含反向引用和命名分组）合并为一个按优先级排列的分支表达式，一次扫描
+ * - 其余正则规则单独扫描
+ *
+ * 所有候选命中都在原始内容上产生，按（优先级，起始位置）依次选取互不重叠的命中，最后一次性重写内容。
+ * 与逐条规则串行替换相比，区别只在于替换结果不会再被后续规则匹配，以及融合表达式中
+ * 起始位置更靠前的低优先级命中会先于与之重叠的高优先级命中被选中。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+public final class SanitizationPlan {
+
+    private static final String DEFAULT_MASK_CHAR = "*";
+    private static final String DEFAULT_REPLACEMENT = "[REDACTED]";
+    private static final String DEFAULT_HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * 反向引用和命名分组在融合后会改变分组编号或名称冲突，这类表达式单独扫描
+     */
+    private static final Pattern NON_FUSABLE = Pattern.compile("\\\\[1-9]|\\\\k<|\\(\\?<[a-zA-Z]");
+
+    /**
+     * 运行时 \b 是否按 Unicode 字母数字判断词字符（JDK 19 起改为 ASCII \w）
+     */
+    private static final boolean UNICODE_WORD_BOUNDARY = Pattern.compile("\\b").matcher("\u00e9").find();
+
+    private final Set<SanitizationRule> sourceRules;
+    private final int sourceCount;
+
+    /**
+     * 按优先级排序后的生效规则，下标即优先级序号
+     */
+    private final SanitizationRule[] ranked;
+
+    private final WordAutomaton words;
+    private final int[] wordRanks;
+
+    private final Pattern fused;
+    private final int[] fusedGroups;
+    private final int[] fusedRanks;
+
+    private final Pattern[] standalone;
+    private final int[] standaloneRanks;
+
+    /**
+     * 最长敏感词长度
+     */
+    private final int longestWord;
+
+    private SanitizationPlan(final Set<SanitizationRule> sourceRules, final int sourceCount,
+                             final SanitizationRule[] ranked, final WordAutomaton words, final int[] wordRanks,
+                             final Pattern fused, final int[] fusedGroups, final int[] fusedRanks,
+                             final Pattern[] standalone, final int[] standaloneRanks, final int longestWord) {
+        this.sourceRules = sourceRules;
+        this.sourceCount = sourceCount;
+        this.ranked = ranked;
+        this.words = words;
+        this.wordRanks = wordRanks;
+        this.fused = fused;
+        this.fusedGroups = fusedGroups;
+        this.fusedRanks = fusedRanks;
+        this.standalone = standalone;
+        this.standaloneRanks = standaloneRanks;
+        this.longestWord = longestWord;
+    }
+
+    /**
+     * 编译规则列表；未启用、不适用于内容类型或表达式无效的规则被跳过
+     */
+    public static SanitizationPlan compile(final List<SanitizationRule> rules, final String contentType) {
+        Set<SanitizationRule> sourceRules = Collections.newSetFromMap(new IdentityHashMap<>());
+        sourceRules.addAll(rules);
+
+        List<SanitizationRule> applicable = rules.stream()
+                .filter(SanitizationRule::isEnabled)
+                .filter(rule -> rule.isApplicableToContentType(contentType))
+                .filter(rule -> rule.getType() != null && rule.getStrategy() != null)
+                .filter(rule -> rule.getPattern() != null && !rule.getPattern().isEmpty())
+                .sorted(Comparator.comparingInt(SanitizationRule::getPriority))
+                .toList();
+
+        WordAutomaton.Builder wordBuilder = WordAutomaton.builder();
+        List<Integer> wordRanks = new ArrayList<>();
+        StringBuilder fusedPattern = new StringBuilder();
+        List<Integer> fusedGroups = new ArrayList<>();
+        List<Integer> fusedRanks = new ArrayList<>();
+        int nextGroup = 1;
+        int longestWord = 0;
+        List<Pattern> standalone = new ArrayList<>();
+        List<Integer> standaloneRanks = new ArrayList<>();
+
+        for (int rank = 0; rank < applicable.size(); rank++) {
+            SanitizationRule rule = applicable.get(rank);
+            if (rule.getType() == RuleType.SENSITIVE_WORD) {
+                wordBuilder.add(rule.getPattern());
+                wordRanks.add(rank);
+                longestWord = Math.max(longestWord, rule.getPattern().length());
+                continue;
+            }
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(rule.getPattern(), Pattern.CASE_INSENSITIVE);
+            } catch (PatternSyntaxException e) {
+                log.error("编译正则表达式失败: ruleId={}, pattern={}, error={}",
+                        rule.getRuleId(), rule.getPattern(), e.getMessage());
+                continue;
+            }
+            if (NON_FUSABLE.matcher(rule.getPattern()).find()) {
+                standalone.add(pattern);
+                standaloneRanks.add(rank);
+                continue;
+            }
+            if (fusedPattern.length() > 0) {
+                fusedPattern.append('|');
+            }
+            fusedPattern.append('(').append(rule.getPattern()).append(')');
+            fusedGroups.add(nextGroup);
+            fusedRanks.add(rank);
+            nextGroup += 1 + pattern.matcher("").groupCount();
+        }
+
+        Pattern fused = null;
+        if (!fusedGroups.isEmpty()) {
+            try {
+                fused = Pattern.compile(fusedPattern.toString(), Pattern.CASE_INSENSITIVE);
+            } catch (PatternSyntaxException e) {
+                // 单独编译成功但合并失败时退回逐条扫描
+                log.warn("融合正则表达式失败，改为逐条扫描: {}", e.getMessage());
+                for (int rank : fusedRanks) {
+                    standalone.add(Pattern.compile(applicable.get(rank).getPattern(), Pattern.CASE_INSENSITIVE));
+                    standaloneRanks.add(rank);
+                }
+                fusedGroups.clear();
+                fusedRanks.clear();
+            }
+        }
+
+        WordAutomaton words = wordRanks.isEmpty() ? null : wordBuilder.build();
+        return new SanitizationPlan(sourceRules, rules.size(), applicable.toArray(new SanitizationRule[0]),
+                words, toArray(wordRanks), fused, toArray(fusedGroups), toArray(fusedRanks),
+                standalone.toArray(new Pattern[0]), toArray(standaloneRanks), longestWord);
+    }
+
+    /**
+     * 判断计划是否由同一组规则对象编译而来
+     */
+    public boolean isCompiledFrom(final List<SanitizationRule> rules) {
+        if (rules.size() != sourceCount) {
+            return false;
+        }
+        for (SanitizationRule rule : rules) {
+            if (!sourceRules.contains(rule)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 生效的规则数量
+     */
+    public int ruleCount() {
+        return ranked.length;
+    }
+
+    /**
+     * 流式处理需要保留的尾部窗口长度
+     *
+     * 敏感词的最长命中长度是确定的；正则命中长度无法静态推断，由调用方给出上限。
+     * 窗口比最长命中多一个字符，用于判断命中末尾的词边界。
+     *
+     * @param regexWindow 正则命中的长度上限
+     */
+    public int carryWindow(final int regexWindow) {
+        boolean hasRegex = fused != null || standalone.length > 0;
+        return Math.max(longestWord, hasRegex ? regexWindow : 0) + 1;
+    }
+
+    /**
+     * 执行脱敏
+     *
+     * @param content        原始内容
+     * @param matchedRuleSink 每个命中的规则回调一次
+     * @return 脱敏后的内容，无命中时返回原对象
+     */
+    public String apply(final String content, final Consumer<SanitizationRule> matchedRuleSink) {
+        if (ranked.length == 0 || content.isEmpty()) {
+            return content;
+        }
+        Candidates candidates = collect(content, 0);
+        if (candidates.size == 0) {
+            return content;
+        }
+        return rewrite(content, 0, content.length(), candidates, matchedRuleSink).output();
+    }
+
+    /**
+     * 对内容的一个区间执行脱敏，用于流式处理
+     *
+     * from 之前的内容是上一次已输出的上下文，只参与词边界等判断，不会再次输出，起始于其中的命中被忽略。
+     * 命中仍在整段内容上查找，但只输出 limit 之前的部分；跨越 limit 的命中不会被截断，
+     * 输出在该命中的起始位置之前停止，剩余内容由调用方保留到下一段数据到达后再处理。
+     *
+     * @param content         原始内容
+     * @param from            输出起始位置
+     * @param limit           期望的输出结束位置
+     * @param matchedRuleSink 每个命中的规则回调一次（只统计已输出部分）
+     * @return 脱敏后的内容以及实际输出到的原始位置（不大于 limit）
+     */
+    public Segment applyRange(final String content, final int from, final int limit,
+                              final Consumer<SanitizationRule> matchedRuleSink) {
+        if (limit <= from) {
+            return new Segment("", from);
+        }
+        if (ranked.length == 0) {
+            return new Segment(content.substring(from, limit), limit);
+        }
+        Candidates candidates = collect(content, from);
+        if (candidates.size == 0) {
+            return new Segment(content.substring(from, limit), limit);
+        }
+        return rewrite(content, from, limit, candidates, matchedRuleSink);
+    }
+
+    /**
+     * 在原始内容上收集起始于 from 之后的候选命中；from 之前的内容对词边界和环视可见
+     */
+    private Candidates collect(final String content, final int from) {
+        Candidates candidates = new Candidates();
+
+        if (words != null) {
+            words.search(content, (word, start, end) -> {
+                if (start >= from && isBoundary(content, start) && isBoundary(content, end)) {
+                    candidates.add(wordRanks[word], start, end);
+                }
+            });
+        }
+        if (fused != null) {
+            Matcher matcher = region(fused.matcher(content), from);
+            while (matcher.find()) {
+                if (matcher.end() == matcher.start()) {
+                    continue;
+                }
+                for (int i = 0; i < fusedGroups.length; i++) {
+                    if (matcher.start(fusedGroups[i]) >= 0) {
+                        candidates.add(fusedRanks[i], matcher.start(), matcher.end());
+                        break;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < standalone.length; i++) {
+            Matcher matcher = region(standalone[i].matcher(content), from);
+            while (matcher.find()) {
+                if (matcher.end() > matcher.start()) {
+                    candidates.add(standaloneRanks[i], matcher.start(), matcher.end());
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * 按（优先级，起始位置）选取互不重叠的命中，重写 [from, limit) 区间的内容
+     */
+    private Segment rewrite(final String content, final int from, final int limit, final Candidates candidates,
+                            final Consumer<SanitizationRule> matchedRuleSink) {
+        // 同一优先级的候选来自同一条规则，按产生顺序即按起始位置递增，因此按（优先级，下标）排序即可
+        long[] order = new long[candidates.size];
+        for (int i = 0; i < candidates.size; i++) {
+            order[i] = ((long) candidates.ranks[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        BitSet covered = new BitSet(content.length());
+        long[] accepted = new long[candidates.size];
+        int acceptedCount = 0;
+        int consumed = limit;
+        for (long key : order) {
+            int index = (int) key;
+            int start = candidates.starts[index];
+            int end = candidates.ends[index];
+            if (start < from) {
+                continue;
+            }
+            int next = covered.nextSetBit(start);
+            if (next >= 0 && next < end) {
+                continue;
+            }
+            covered.set(start, end);
+            accepted[acceptedCount++] = ((long) start << 32) | index;
+            if (start < limit && end > limit) {
+                consumed = Math.min(consumed, start);
+            }
+        }
+        Arrays.sort(accepted, 0, acceptedCount);
+
+        StringBuilder result = new StringBuilder(consumed - from);
+        boolean[] matchedRanks = new boolean[ranked.length];
+        int position = from;
+        for (int i = 0; i < acceptedCount; i++) {
+            int index = (int) accepted[i];
+            int start = candidates.starts[index];
+            int end = candidates.ends[index];
+            if (end > consumed) {
+                break;
+            }
+            result.append(content, position, start);
+            appendReplacement(result, content, start, end, ranked[candidates.ranks[index]]);
+            matchedRanks[candidates.ranks[index]] = true;
+            position = end;
+        }
+        result.append(content, position, consumed);
+
+        for (int rank = 0; rank < matchedRanks.length; rank++) {
+            if (matchedRanks[rank]) {
+                matchedRuleSink.accept(ranked[rank]);
+            }
+        }
+        return new Segment(result.toString(), consumed);
+    }
+
+    private static Matcher region(final Matcher matcher, final int from) {
+        if (from > 0) {
+            matcher.region(from, matcher.regionEnd()).useTransparentBounds(true).useAnchoringBounds(false);
+        }
+        return matcher;
+    }
+
+    private static void appendReplacement(final StringBuilder result, final String content, final int start,
+                                          final int end, final SanitizationRule rule) {
+        switch (rule.getStrategy()) {
+            case MASK -> {
+                String maskChar = rule.getReplacementChar() != null ? rule.getReplacementChar() : DEFAULT_MASK_CHAR;
+                for (int i = start; i < end; i++) {
+                    result.append(maskChar);
+                }
+            }
+            case REPLACE -> result.append(rule.getReplacementText() != null
+                    ? rule.getReplacementText() : DEFAULT_REPLACEMENT);
+            case REMOVE -> {
+                // 直接丢弃命中内容
+            }
+            case HASH -> result.append(hash(content.substring(start, end)));
+        }
+    }
+
+    /**
+     * 生成短哈希，格式与正则引擎一致
+     */
+    static String hash(final String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DEFAULT_HASH_ALGORITHM);
+            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(8);
+            for (int i = 0; i < 4; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return "[HASH:" + hex.toString().toUpperCase() + "]";
+        } catch (NoSuchAlgorithmException e) {
+            log.error("哈希算法不可用: {}", DEFAULT_HASH_ALGORITHM, e);
+            return "[HASH:ERROR]";
+        }
+    }
+
+    /**
+     * 与 \b 相同的词边界判断：两侧一个是词字符、一个不是
+     */
+    private static boolean isBoundary(final String content, final int position) {
+        boolean before = position > 0 && isWordChar(content.charAt(position - 1));
+        boolean after = position < content.length() && isWordChar(content.charAt(position));
+        return before != after;
+    }
+
+    private static boolean isWordChar(final char c) {
+        if (c < 128) {
+            return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+        return UNICODE_WORD_BOUNDARY && Character.isLetterOrDigit(c);
+    }
+
+    private static int[] toArray(final List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * 区间脱敏结果
+     *
+     * @param output   脱敏后的输出
+     * @param consumed 实际输出到的原始位置
+     */
+    public record Segment(String output, int consumed) {
+    }
+
+    /**
+     * 候选命中，按产生顺序追加
+     */
+    private static final class Candidates {
+        private int[] ranks = new int[16];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int size;
+
+        void add(final int rank, final int start, final int end) {
+            if (size == ranks.length) {
+                ranks = Arrays.copyOf(ranks, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            ranks[size] = rank;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+    }
+}
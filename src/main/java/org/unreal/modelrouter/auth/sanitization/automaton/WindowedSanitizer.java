@@ -0,0 +1,131 @@
+package org.unreal.modelrouter.auth.sanitization.automaton;
+
+import org.unreal.modelrouter.auth.sanitization.IncrementalSanitizer;
+import org.unreal.modelrouter.auth.security.model.SanitizationRule;
+
+import java.util.function.Consumer;
+
+/**
+ * 基于执行计划的滑动窗口增量脱敏器
+ *
+ * 每次输入把保留窗口与新数据拼接后执行前缀脱敏：最后 window 个字符以及跨越输出位置的命中留到下一次，
+ * 其余内容立即输出，因此每个流的内存占用不超过窗口加单个数据块。上一次输出的最后一个字符作为上下文保留，
+ * 使下一段开头的词边界判断与整段处理一致。
+ *
+ * 指定了记录分隔符（SSE 为空行，NDJSON 为换行）时，最后一个分隔符之前的完整记录直接整体脱敏输出，
+ * 不再等待窗口填满，保证逐事件推送的首字延迟；跨越分隔符的命中（如允许空白的卡号模式）与其它跨越输出位置的命中一样留到下一次。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class WindowedSanitizer implements IncrementalSanitizer {
+
+    /**
+     * 保留内容上限（窗口倍数）
+     */
+    private static final int MAX_CARRY_WINDOWS = 4;
+
+    /**
+     * 保留的已输出字符数，用于在下一段内容开头判断词边界
+     */
+    private static final int CONTEXT_LENGTH = 1;
+
+    private final SanitizationPlan plan;
+    private final int window;
+    private final String recordSeparator;
+    private final Consumer<SanitizationRule> matchedRuleSink;
+
+    /**
+     * 尚未输出的原始内容，开头 context 个字符是已输出的上下文
+     */
+    private String carry = "";
+
+    private int context;
+
+    private boolean modified;
+
+    /**
+     * @param plan            执行计划
+     * @param window          保留窗口长度，见 {@link SanitizationPlan#carryWindow(int)}
+     * @param recordSeparator 记录分隔符，为 null 时只按窗口输出
+     * @param matchedRuleSink 每个命中的规则回调
+     */
+    public WindowedSanitizer(final SanitizationPlan plan, final int window, final String recordSeparator,
+                             final Consumer<SanitizationRule> matchedRuleSink) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        this.plan = plan;
+        this.window = window;
+        this.recordSeparator = recordSeparator == null || recordSeparator.isEmpty() ? null : recordSeparator;
+        this.matchedRuleSink = rule -> {
+            modified = true;
+            matchedRuleSink.accept(rule);
+        };
+    }
+
+    @Override
+    public String feed(final String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return "";
+        }
+        String pending = carry + chunk;
+        int from = context;
+        StringBuilder output = new StringBuilder(pending.length());
+
+        if (recordSeparator != null) {
+            int boundary = pending.lastIndexOf(recordSeparator);
+            if (boundary >= from) {
+                SanitizationPlan.Segment records = plan.applyRange(pending, from,
+                        boundary + recordSeparator.length(), matchedRuleSink);
+                output.append(records.output());
+                from = records.consumed();
+            }
+        }
+
+        int unprocessed = pending.length() - from;
+        if (unprocessed > window) {
+            SanitizationPlan.Segment segment = plan.applyRange(pending, from, pending.length() - window,
+                    matchedRuleSink);
+            output.append(segment.output());
+            from = segment.consumed();
+        }
+        if (pending.length() - from > window * MAX_CARRY_WINDOWS) {
+            // 命中持续跨越输出位置（如超长数字串）时强制输出，保证内存有界；该命中按已到达部分脱敏
+            output.append(plan.applyRange(pending, from, pending.length(), matchedRuleSink).output());
+            from = pending.length();
+        }
+        context = Math.min(from, CONTEXT_LENGTH);
+        carry = pending.substring(from - context);
+        return output.toString();
+    }
+
+    @Override
+    public String finish() {
+        String rest = carry;
+        int from = context;
+        carry = "";
+        context = 0;
+        return rest.length() <= from ? "" : plan.applyRange(rest, from, rest.length(), matchedRuleSink).output();
+    }
+
+    @Override
+    public String abandon() {
+        String rest = carry.substring(context);
+        carry = "";
+        context = 0;
+        return rest;
+    }
+
+    @Override
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * 当前保留的字符数
+     */
+    int carried() {
+        return carry.length() - context;
+    }
+}
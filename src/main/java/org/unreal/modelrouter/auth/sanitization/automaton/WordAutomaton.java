@@ -0,0 +1,226 @@
+package org.unreal.modelrouter.auth.sanitization.automaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick 多模式词匹配自动机
+ *
+ * 所有词在一次线性扫描中匹配，耗时与文本长度和命中数相关，与词数量无关。
+ * 匹配按 ASCII 忽略大小写，与 Pattern.CASE_INSENSITIVE（未开启 UNICODE_CASE）一致；词边界由调用方判断。
+ * 构建完成后只读，可在多线程间共享。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class WordAutomaton {
+
+    private static final int ROOT = 0;
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * 根节点的 ASCII 直接跳转表，其余节点按标签有序数组二分查找
+     */
+    private final int[] rootTable;
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+
+    /**
+     * 沿失败链最近的有输出节点，0 表示没有
+     */
+    private final int[] dictLink;
+
+    /**
+     * 节点上结束的第一个词序号，-1 表示没有；同一节点结束的多个词通过 nextWord 串联
+     */
+    private final int[] firstWord;
+    private final int[] nextWord;
+    private final int[] wordLength;
+
+    private WordAutomaton(final List<TreeMap<Character, Integer>> children, final int[] firstWord,
+                          final int[] nextWord, final int[] wordLength) {
+        int nodeCount = children.size();
+        this.labels = new char[nodeCount][];
+        this.targets = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            Map<Character, Integer> edges = children.get(node);
+            char[] nodeLabels = new char[edges.size()];
+            int[] nodeTargets = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                nodeLabels[i] = edge.getKey();
+                nodeTargets[i] = edge.getValue();
+                i++;
+            }
+            labels[node] = nodeLabels;
+            targets[node] = nodeTargets;
+        }
+        this.rootTable = new int[ASCII_SIZE];
+        Arrays.fill(rootTable, -1);
+        for (int i = 0; i < labels[ROOT].length; i++) {
+            if (labels[ROOT][i] < ASCII_SIZE) {
+                rootTable[labels[ROOT][i]] = targets[ROOT][i];
+            }
+        }
+        this.firstWord = firstWord;
+        this.nextWord = nextWord;
+        this.wordLength = wordLength;
+        this.fail = new int[nodeCount];
+        this.dictLink = new int[nodeCount];
+        buildFailureLinks();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 词数量
+     */
+    public int size() {
+        return wordLength.length;
+    }
+
+    /**
+     * 扫描文本，按结束位置顺序回调每个命中（包括相互重叠的命中）
+     */
+    public void search(final CharSequence text, final MatchListener listener) {
+        int state = ROOT;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = fold(text.charAt(i));
+            while (true) {
+                int next = transition(state, c);
+                if (next >= 0) {
+                    state = next;
+                    break;
+                }
+                if (state == ROOT) {
+                    break;
+                }
+                state = fail[state];
+            }
+            int out = firstWord[state] >= 0 ? state : dictLink[state];
+            while (out != ROOT) {
+                for (int word = firstWord[out]; word >= 0; word = nextWord[word]) {
+                    listener.onMatch(word, i + 1 - wordLength[word], i + 1);
+                }
+                out = dictLink[out];
+            }
+        }
+    }
+
+    private int transition(final int state, final char c) {
+        if (state == ROOT) {
+            if (c < ASCII_SIZE) {
+                return rootTable[c];
+            }
+        }
+        char[] nodeLabels = labels[state];
+        int index = Arrays.binarySearch(nodeLabels, c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private void buildFailureLinks() {
+        int[] queue = new int[labels.length];
+        int head = 0;
+        int tail = 0;
+        for (int child : targets[ROOT]) {
+            fail[child] = ROOT;
+            dictLink[child] = ROOT;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            char[] nodeLabels = labels[node];
+            for (int i = 0; i < nodeLabels.length; i++) {
+                char c = nodeLabels[i];
+                int child = targets[node][i];
+                int f = fail[node];
+                int next = transition(f, c);
+                while (next < 0 && f != ROOT) {
+                    f = fail[f];
+                    next = transition(f, c);
+                }
+                fail[child] = next >= 0 && next != child ? next : ROOT;
+                dictLink[child] = firstWord[fail[child]] >= 0 ? fail[child] : dictLink[fail[child]];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * ASCII 大小写折叠
+     */
+    static char fold(final char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * 命中回调
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param word  词序号（按加入顺序）
+         * @param start 命中起始位置（包含）
+         * @param end   命中结束位置（不包含）
+         */
+        void onMatch(int word, int start, int end);
+    }
+
+    /**
+     * 自动机构建器
+     */
+    public static final class Builder {
+        private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        private final List<Integer> terminalNodes = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private Builder() {
+            children.add(new TreeMap<>());
+        }
+
+        /**
+         * 加入一个词，返回词序号；空词不允许
+         */
+        public int add(final String word) {
+            if (word == null || word.isEmpty()) {
+                throw new IllegalArgumentException("word must not be empty");
+            }
+            int node = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                char c = fold(word.charAt(i));
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            terminalNodes.add(node);
+            lengths.add(word.length());
+            return lengths.size() - 1;
+        }
+
+        public WordAutomaton build() {
+            int[] firstWord = new int[children.size()];
+            Arrays.fill(firstWord, -1);
+            int[] nextWord = new int[terminalNodes.size()];
+            int[] wordLength = new int[terminalNodes.size()];
+            // 倒序串联，保证同一节点的词按加入顺序回调
+            for (int word = terminalNodes.size() - 1; word >= 0; word--) {
+                int node = terminalNodes.get(word);
+                nextWord[word] = firstWord[node];
+                firstWord[node] = word;
+                wordLength[word] = lengths.get(word);
+            }
+            return new WordAutomaton(children, firstWord, nextWord, wordLength);
+        }
+    }
+}
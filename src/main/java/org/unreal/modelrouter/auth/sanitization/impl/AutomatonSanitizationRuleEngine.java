@@ -0,0 +1,194 @@
+package org.unreal.modelrouter.auth.sanitization.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.auth.sanitization.IncrementalSanitizer;
+import org.unreal.modelrouter.auth.sanitization.SanitizationRuleEngine;
+import org.unreal.modelrouter.auth.sanitization.automaton.SanitizationPlan;
+import org.unreal.modelrouter.auth.sanitization.automaton.WindowedSanitizer;
+import org.unreal.modelrouter.auth.security.model.RuleType;
+import org.unreal.modelrouter.auth.security.model.SanitizationRule;
+import org.unreal.modelrouter.common.exception.SanitizationException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 多模式脱敏规则引擎
+ *
+ * 与逐条规则扫描全文的正则引擎不同，一组规则编译为一个 {@link SanitizationPlan}：
+ * 敏感词合并为 Aho-Corasick 自动机，可融合的正则合并为一个分支表达式，内容只需线性扫描一次，
+ * 耗时基本不随敏感词数量增长。编译结果按规则对象和内容类型缓存，规则更新时由 compileRules 清空。
+ *
+ * 通过 jairouter.security.sanitization.engine=regex 可切换回逐条正则引擎。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+@Primary
+@ConditionalOnProperty(name = "jairouter.security.sanitization.engine", havingValue = "automaton", matchIfMissing = true)
+public class AutomatonSanitizationRuleEngine implements SanitizationRuleEngine {
+
+    /**
+     * 执行计划缓存上限，超出时整体清空
+     */
+    private static final int MAX_CACHED_PLANS = 64;
+
+    /**
+     * 小于该长度的内容直接在调用线程处理，避免线程切换开销
+     */
+    private static final int INLINE_CONTENT_THRESHOLD = 16 * 1024;
+
+    private final Map<PlanKey, SanitizationPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * 规则匹配统计
+     */
+    private final Map<String, Long> ruleMatchCounts = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<String> applySanitizationRules(final String content,
+                                               final List<SanitizationRule> rules,
+                                               final String contentType) {
+        if (content == null || content.isEmpty()) {
+            return Mono.justOrEmpty(content);
+        }
+        if (rules == null || rules.isEmpty()) {
+            return Mono.just(content);
+        }
+
+        Mono<String> sanitized = Mono.fromCallable(() -> sanitize(content, rules, contentType));
+        if (content.length() > INLINE_CONTENT_THRESHOLD) {
+            sanitized = sanitized.subscribeOn(Schedulers.boundedElastic());
+        }
+        return sanitized.onErrorMap(throwable -> new SanitizationException("脱敏处理失败",
+                throwable, SanitizationException.SANITIZATION_FAILED));
+    }
+
+    /**
+     * 同步执行脱敏
+     */
+    public String sanitize(final String content, final List<SanitizationRule> rules, final String contentType) {
+        return getPlan(rules, contentType).apply(content, this::incrementMatchCount);
+    }
+
+    /**
+     * 创建增量脱敏器；SSE 以空行、NDJSON 以换行作为记录分隔符，完整记录到达即输出
+     */
+    @Override
+    public IncrementalSanitizer createIncrementalSanitizer(final List<SanitizationRule> rules,
+                                                           final String contentType,
+                                                           final int regexWindow) {
+        SanitizationPlan plan = getPlan(rules, contentType);
+        return new WindowedSanitizer(plan, plan.carryWindow(regexWindow), recordSeparator(contentType),
+                this::incrementMatchCount);
+    }
+
+    private static String recordSeparator(final String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        if (contentType.startsWith("text/event-stream")) {
+            return "\n\n";
+        }
+        if (contentType.startsWith("application/x-ndjson") || contentType.startsWith("application/stream+json")) {
+            return "\n";
+        }
+        return null;
+    }
+
+    /**
+     * 获取执行计划；同一组规则对象（与顺序无关）复用已编译的计划
+     */
+    SanitizationPlan getPlan(final List<SanitizationRule> rules, final String contentType) {
+        long fingerprint = 0;
+        for (SanitizationRule rule : rules) {
+            fingerprint += mix(System.identityHashCode(rule));
+        }
+        PlanKey key = new PlanKey(contentType, fingerprint);
+        SanitizationPlan plan = plans.get(key);
+        if (plan != null && plan.isCompiledFrom(rules)) {
+            return plan;
+        }
+        plan = SanitizationPlan.compile(rules, contentType);
+        if (plans.size() >= MAX_CACHED_PLANS) {
+            plans.clear();
+        }
+        plans.put(key, plan);
+        return plan;
+    }
+
+    private static long mix(final long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private void incrementMatchCount(final SanitizationRule rule) {
+        ruleMatchCounts.merge(rule.getRuleId(), 1L, Long::sum);
+    }
+
+    @Override
+    public Mono<Boolean> validateRule(final SanitizationRule rule) {
+        return Mono.fromCallable(() -> {
+            if (rule == null) {
+                return false;
+            }
+            if (rule.getRuleId() == null || rule.getRuleId().trim().isEmpty()) {
+                return false;
+            }
+            if (rule.getPattern() == null || rule.getPattern().trim().isEmpty()) {
+                return false;
+            }
+            if (rule.getStrategy() == null) {
+                return false;
+            }
+            if (rule.getType() == RuleType.SENSITIVE_WORD) {
+                return true;
+            }
+            try {
+                Pattern.compile(rule.getPattern());
+                return true;
+            } catch (PatternSyntaxException e) {
+                log.warn("规则验证失败，正则表达式语法错误: ruleId={}, pattern={}, error={}",
+                        rule.getRuleId(), rule.getPattern(), e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> compileRules(final List<SanitizationRule> rules) {
+        return Mono.fromRunnable(() -> {
+            // 规则对象可能被原地修改，丢弃全部计划，下次使用时按内容类型重新编译
+            plans.clear();
+            SanitizationPlan plan = SanitizationPlan.compile(rules, null);
+            log.info("脱敏规则编译完成，成功编译 {} 个规则", plan.ruleCount());
+        });
+    }
+
+    @Override
+    public Mono<Long> getRuleMatchCount(final String ruleId) {
+        return Mono.fromCallable(() -> ruleMatchCounts.getOrDefault(ruleId, 0L));
+    }
+
+    /**
+     * 清除所有缓存
+     */
+    public void clearAllCaches() {
+        plans.clear();
+        ruleMatchCounts.clear();
+        log.info("已清除所有脱敏规则缓存");
+    }
+
+    private record PlanKey(String contentType, long fingerprint) {
+    }
+}
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.unreal.modelrouter.common.exception.SanitizationException;
+import org.unreal.modelrouter.auth.sanitization.IncrementalSanitizer;
 import org.unreal.modelrouter.auth.sanitization.SanitizationRuleEngine;
 import org.unreal.modelrouter.auth.sanitization.SanitizationService;
 import org.unreal.modelrouter.auth.security.config.properties.SanitizationConfig;
@@ -28,6 +29,18 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Service
 public class DefaultSanitizationService implements SanitizationService {
     
+    /**
+     * 内置请求规则适用的内容类型
+     */
+    private static final List<String> REQUEST_CONTENT_TYPES =
+            List.of("application/json", "application/xml", "text/plain");
+    
+    /**
+     * 内置响应规则适用的内容类型，包含按数据块增量脱敏的流式类型
+     */
+    private static final List<String> RESPONSE_CONTENT_TYPES = List.of("application/json", "application/xml",
+            "text/plain", "text/event-stream", "application/x-ndjson", "application/stream+json");
+    
     private final SanitizationRuleEngine ruleEngine;
     private final SecurityProperties securityProperties;
     
@@ -84,7 +97,7 @@ public class DefaultSanitizationService implements SanitizationService {
                     .strategy(SanitizationStrategy.MASK)
                     .enabled(true)
                     .priority(1)
-                    .applicableContentTypes(List.of("application/json", "application/xml", "text/plain"))
+                    .applicableContentTypes(REQUEST_CONTENT_TYPES)
                     .replacementChar(requestConfig.getMaskingChar())
                     .build();
             
@@ -102,7 +115,7 @@ public class DefaultSanitizationService implements SanitizationService {
                     .strategy(SanitizationStrategy.MASK)
                     .enabled(true)
                     .priority(2)
-                    .applicableContentTypes(List.of("application/json", "application/xml", "text/plain"))
+                    .applicableContentTypes(REQUEST_CONTENT_TYPES)
                     .replacementChar(requestConfig.getMaskingChar())
                     .build();
             
@@ -128,7 +141,7 @@ public class DefaultSanitizationService implements SanitizationService {
                     .strategy(SanitizationStrategy.MASK)
                     .enabled(true)
                     .priority(1)
-                    .applicableContentTypes(List.of("application/json", "application/xml", "text/plain"))
+                    .applicableContentTypes(RESPONSE_CONTENT_TYPES)
                     .replacementChar(responseConfig.getMaskingChar())
                     .build();
             
@@ -146,7 +159,7 @@ public class DefaultSanitizationService implements SanitizationService {
                     .strategy(SanitizationStrategy.MASK)
                     .enabled(true)
                     .priority(2)
-                    .applicableContentTypes(List.of("application/json", "application/xml", "text/plain"))
+                    .applicableContentTypes(RESPONSE_CONTENT_TYPES)
                     .replacementChar(responseConfig.getMaskingChar())
                     .build();
             
@@ -184,16 +197,21 @@ public class DefaultSanitizationService implements SanitizationService {
         return performSanitization(content, contentType, "response");
     }
     
+    @Override
+    public IncrementalSanitizer createResponseSanitizer(final String contentType) {
+        List<SanitizationRule> applicableRules = getApplicableRules(contentType, "response");
+        if (applicableRules.isEmpty()) {
+            return null;
+        }
+        return ruleEngine.createIncrementalSanitizer(applicableRules, contentType,
+                securityProperties.getSanitization().getResponse().getStreamWindow());
+    }
+    
     /**
      * 执行脱敏处理
      */
     private Mono<String> performSanitization(final String content, final String contentType, final String type) {
-        // 获取适用的规则
-        List<SanitizationRule> applicableRules = rules.values().stream()
-                .filter(rule -> rule.getRuleId().startsWith(type))
-                .filter(SanitizationRule::isEnabled)
-                .filter(rule -> rule.isApplicableToContentType(contentType))
-                .toList();
+        List<SanitizationRule> applicableRules = getApplicableRules(contentType, type);
         
         if (applicableRules.isEmpty()) {
             return Mono.just(content);
@@ -206,6 +224,17 @@ public class DefaultSanitizationService implements SanitizationService {
                         SanitizationException.SANITIZATION_FAILED));
     }
     
+    /**
+     * 获取适用的规则
+     */
+    private List<SanitizationRule> getApplicableRules(final String contentType, final String type) {
+        return rules.values().stream()
+                .filter(rule -> rule.getRuleId().startsWith(type))
+                .filter(SanitizationRule::isEnabled)
+                .filter(rule -> rule.isApplicableToContentType(contentType))
+                .toList();
+    }
+    
     @Override
     public Mono<Boolean> isUserWhitelisted(final String userId) {
         if (userId == null || userId.trim().isEmpty()) {
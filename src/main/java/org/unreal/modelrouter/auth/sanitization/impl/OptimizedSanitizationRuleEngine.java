@@ -32,10 +32,14 @@ import java.util.stream.Collectors;
  * 2. 脱敏规则的优先级排序
  * 3. 大文件的流式脱敏处理
  * 4. 并行处理支持
+ *
+ * 每条规则单独扫描全文，仅在 jairouter.security.sanitization.engine=regex 时启用，
+ * 默认使用 {@link AutomatonSanitizationRuleEngine}
  */
 @Slf4j
 @Component
 @Primary
+@ConditionalOnProperty(name = "jairouter.security.sanitization.engine", havingValue = "regex")
 @ConditionalOnProperty(name = "jairouter.security.sanitization.optimized", havingValue = "true", matchIfMissing = true)
 public class OptimizedSanitizationRuleEngine implements SanitizationRuleEngine {
     
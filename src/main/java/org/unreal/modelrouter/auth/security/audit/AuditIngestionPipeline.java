@@ -0,0 +1,581 @@
+package org.unreal.modelrouter.auth.security.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.auth.security.config.properties.AuditConfig;
+import org.unreal.modelrouter.common.dto.AuditEventType;
+import org.unreal.modelrouter.persistence.jpa.entity.SecurityAuditEventEntity;
+import org.unreal.modelrouter.persistence.jpa.entity.SecurityAuditEventEntity.RiskLevel;
+import org.unreal.modelrouter.persistence.jpa.repository.SecurityAuditEventRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 安全审计事件写入管道
+ *
+ * 审计事件先按事件类型策略分流：
+ * <ul>
+ *   <li>PERSIST：进入有界环形缓冲区，由单个写线程攒批后 saveAll</li>
+ *   <li>AGGREGATE：按 (事件类型, 用户, 资源 ID, 资源) 累加计数，定期写入一条汇总事件</li>
+ *   <li>SAMPLE：按采样率写入</li>
+ * </ul>
+ * 失败事件和中风险及以上的事件（撤销、认证失败、可疑活动等）始终逐条写入。
+ *
+ * 提交方只做一次非阻塞入队，不做文件或数据库 I/O。缓冲区满时事件转入同样有界的溢出队列，
+ * 由写线程溢写到本地 JSON Lines 文件，写库失败的批次也由写线程溢写，空闲时回放；
+ * 溢出队列也满、未开启溢写或管道已停止时丢弃并计数。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+public class AuditIngestionPipeline {
+
+    private static final String METRIC_PREFIX = "jairouter.security.audit.ingestion";
+
+    private final SecurityAuditEventRepository auditRepository;
+    private final AuditConfig.IngestionConfig config;
+    private final ObjectMapper objectMapper;
+
+    private final ArrayBlockingQueue<SecurityAuditEventEntity> ring;
+    private final ArrayBlockingQueue<SecurityAuditEventEntity> overflow;
+    private final ConcurrentHashMap<AggregateKey, AggregateCounter> aggregates = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private final int batchSize;
+    private final Path spillPath;
+    private final Object spillLock = new Object();
+
+    private final Counter acceptedCounter;
+    private final Counter aggregatedCounter;
+    private final Counter sampledOutCounter;
+    private final Counter spilledCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter replayedCounter;
+    private final Timer flushTimer;
+
+    private volatile Thread writerThread;
+    private BufferedWriter spillWriter;
+
+    public AuditIngestionPipeline(final SecurityAuditEventRepository auditRepository,
+                                  final AuditConfig auditConfig,
+                                  final ObjectMapper objectMapper,
+                                  final MeterRegistry meterRegistry) {
+        this.auditRepository = auditRepository;
+        this.config = auditConfig.getIngestion();
+        this.objectMapper = objectMapper;
+        this.ring = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.overflow = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.spillPath = Paths.get(config.getSpillPath());
+
+        this.acceptedCounter = eventsCounter(meterRegistry, "accepted");
+        this.aggregatedCounter = eventsCounter(meterRegistry, "aggregated");
+        this.sampledOutCounter = eventsCounter(meterRegistry, "sampled_out");
+        this.spilledCounter = eventsCounter(meterRegistry, "spilled");
+        this.droppedCounter = eventsCounter(meterRegistry, "dropped");
+        this.writtenCounter = eventsCounter(meterRegistry, "written");
+        this.failedCounter = eventsCounter(meterRegistry, "failed");
+        this.replayedCounter = eventsCounter(meterRegistry, "replayed");
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush.duration")
+                .description("审计事件批量写入耗时")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", ring, ArrayBlockingQueue::size)
+                .description("审计事件待写入缓冲区长度")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".aggregate.keys", aggregates, ConcurrentHashMap::size)
+                .description("审计事件聚合计数键数量")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Security audit ingestion pipeline is disabled, events are written one by one");
+            return;
+        }
+        if (running.compareAndSet(false, true)) {
+            // 回放上次运行遗留的溢写文件
+            replaySpill();
+            Thread thread = new Thread(this::runWriter, "security-audit-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            thread.start();
+            log.info("Security audit ingestion pipeline started: capacity={}, batchSize={}, policies={}",
+                    config.getQueueCapacity(), batchSize, config.getEventPolicies());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        stopped.set(true);
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(config.getShutdownTimeoutMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 写线程未能在超时内退出时由关闭线程兜底
+        flushAggregates();
+        drainRing(new ArrayList<>(batchSize));
+        spillOverflow();
+        closeSpillWriter();
+        log.info("Security audit ingestion pipeline stopped: written={}, spilled={}, dropped={}, failed={}",
+                (long) writtenCounter.count(), (long) spilledCounter.count(),
+                (long) droppedCounter.count(), (long) failedCounter.count());
+    }
+
+    /**
+     * 是否启用了管道；启用时调用方应始终经 {@link #submit} 提交，停止后的事件由管道计为丢弃
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 管道是否在运行，未运行时调用方应直接写库
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 提交一个审计事件，管道运行时不会阻塞调用线程
+     *
+     * 未启用管道时直接写库（调用方此时在 boundedElastic 上执行）；
+     * 与关闭竞争、在管道停止后才到达的事件丢弃并计数，不在调用线程上写库。
+     *
+     * @param entity 审计事件
+     */
+    public void submit(final SecurityAuditEventEntity entity) {
+        if (entity == null) {
+            return;
+        }
+        if (!running.get()) {
+            if (stopped.get()) {
+                droppedCounter.increment();
+            } else {
+                auditRepository.save(entity);
+            }
+            return;
+        }
+        if (!isSecurityRelevant(entity.getSuccess(), entity.getRiskLevel())) {
+            AuditConfig.EventPolicy policy = policyOf(entity.getEventType());
+            if (policy == AuditConfig.EventPolicy.AGGREGATE
+                    && aggregate(entity.getEventType(), entity.getUserId(), entity.getResourceId(),
+                            entity.getResource(), entity.getClientIp())) {
+                return;
+            }
+            if (policy == AuditConfig.EventPolicy.SAMPLE
+                    && ThreadLocalRandom.current().nextDouble() >= config.getSampleRate()) {
+                sampledOutCounter.increment();
+                return;
+            }
+        }
+        enqueue(entity);
+    }
+
+    /**
+     * 在构造审计实体之前尝试按聚合策略计数，避免为高频事件生成 UUID 和元数据 JSON
+     *
+     * @return 已计入聚合计数时返回 true，调用方无需再提交事件
+     */
+    public boolean tryAggregate(final AuditEventType eventType, final boolean success, final String userId,
+                                final String resourceId, final String resource, final String clientIp) {
+        if (!running.get() || !success || policyOf(eventType) != AuditConfig.EventPolicy.AGGREGATE) {
+            return false;
+        }
+        return aggregate(eventType, userId, resourceId, resource, clientIp);
+    }
+
+    /**
+     * 当前缓冲区中的事件数
+     */
+    public int getQueueSize() {
+        return ring.size();
+    }
+
+    /**
+     * 当前聚合计数键数量
+     */
+    public int getAggregateKeyCount() {
+        return aggregates.size();
+    }
+
+    private AuditConfig.EventPolicy policyOf(final AuditEventType eventType) {
+        AuditConfig.EventPolicy policy = eventType != null ? config.getEventPolicies().get(eventType) : null;
+        return policy != null ? policy : AuditConfig.EventPolicy.PERSIST;
+    }
+
+    private static boolean isSecurityRelevant(final Boolean success, final RiskLevel riskLevel) {
+        return Boolean.FALSE.equals(success) || (riskLevel != null && riskLevel != RiskLevel.LOW);
+    }
+
+    private boolean aggregate(final AuditEventType eventType, final String userId, final String resourceId,
+                              final String resource, final String clientIp) {
+        AggregateKey key = new AggregateKey(eventType, userId, resourceId, resource);
+        if (!aggregates.containsKey(key) && aggregates.size() >= config.getMaxAggregationKeys()) {
+            return false;
+        }
+        // compute 对同一个键串行执行，保证与刷新时的移除不会丢失计数
+        aggregates.compute(key, (k, counter) -> {
+            AggregateCounter c = counter != null ? counter : new AggregateCounter(LocalDateTime.now());
+            c.count++;
+            c.lastSeen = LocalDateTime.now();
+            if (clientIp != null) {
+                c.lastClientIp = clientIp;
+            }
+            return c;
+        });
+        aggregatedCounter.increment();
+        return true;
+    }
+
+    private void enqueue(final SecurityAuditEventEntity entity) {
+        if (ring.offer(entity)) {
+            acceptedCounter.increment();
+            if (ring.size() >= batchSize) {
+                wakeWriter();
+            }
+        } else if (config.isSpillEnabled() && overflow.offer(entity)) {
+            // 溢写涉及文件 I/O，交给写线程，提交方可能在事件循环线程上
+            wakeWriter();
+        } else {
+            droppedCounter.increment();
+            return;
+        }
+        // 关闭时的最终排空可能已经结束，事件仍在队列中则由本线程计为丢弃
+        if (!running.get() && (ring.remove(entity) || overflow.remove(entity))) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void runWriter() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getFlushIntervalMs()));
+        long aggregationIntervalNanos = TimeUnit.SECONDS.toNanos(Math.max(1, config.getAggregationFlushSeconds()));
+        long lastAggregationFlush = System.nanoTime();
+        List<SecurityAuditEventEntity> batch = new ArrayList<>(batchSize);
+        while (running.get()) {
+            try {
+                if (ring.size() < batchSize && overflow.isEmpty()) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+                spillOverflow();
+                drainRing(batch);
+                if (System.nanoTime() - lastAggregationFlush >= aggregationIntervalNanos) {
+                    lastAggregationFlush = System.nanoTime();
+                    flushAggregates();
+                    if (ring.isEmpty()) {
+                        replaySpill();
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Error in security audit writer thread: {}", e.getMessage());
+            }
+        }
+        flushAggregates();
+        drainRing(batch);
+        spillOverflow();
+    }
+
+    /**
+     * 持续取出并写入，直到缓冲区为空
+     */
+    private void drainRing(final List<SecurityAuditEventEntity> batch) {
+        while (ring.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 把当前所有聚合计数转换为汇总事件写入
+     */
+    void flushAggregates() {
+        if (aggregates.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<SecurityAuditEventEntity> batch = new ArrayList<>(batchSize);
+        for (AggregateKey key : aggregates.keySet()) {
+            AggregateCounter[] removed = new AggregateCounter[1];
+            aggregates.computeIfPresent(key, (k, counter) -> {
+                removed[0] = counter;
+                return null;
+            });
+            if (removed[0] == null) {
+                continue;
+            }
+            batch.add(toSummaryEntity(key, removed[0], now));
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private SecurityAuditEventEntity toSummaryEntity(final AggregateKey key, final AggregateCounter counter,
+                                                     final LocalDateTime now) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("aggregated", true);
+        metadata.put("count", counter.count);
+        metadata.put("windowStart", counter.firstSeen.toString());
+        metadata.put("windowEnd", counter.lastSeen.toString());
+        if (key.resource() != null) {
+            metadata.put("endpoint", key.resource());
+        }
+        String json = null;
+        try {
+            json = objectMapper.writeValueAsString(metadata);
+        } catch (Exception e) {
+            log.debug("Failed to serialize audit aggregate metadata: {}", e.getMessage());
+        }
+        return SecurityAuditEventEntity.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(key.eventType())
+                .userId(key.userId())
+                .resourceId(key.resourceId())
+                .resource(key.resource())
+                .clientIp(counter.lastClientIp)
+                .action("AGGREGATE")
+                .details(key.eventType() + " x" + counter.count)
+                .success(true)
+                .metadata(json)
+                .timestamp(now)
+                .build();
+    }
+
+    private void write(final List<SecurityAuditEventEntity> batch) {
+        long start = System.nanoTime();
+        try {
+            auditRepository.saveAll(batch);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.warn("Failed to write {} security audit events: {}", batch.size(), e.getMessage());
+            spillOrDrop(new ArrayList<>(batch));
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // ========== 溢写 ==========
+
+    /**
+     * 把缓冲区满时转入溢出队列的事件溢写到文件，只在写线程或关闭线程上执行
+     */
+    private void spillOverflow() {
+        List<SecurityAuditEventEntity> events = new ArrayList<>();
+        while (overflow.drainTo(events, batchSize) > 0) {
+            spillOrDrop(events);
+            events.clear();
+        }
+    }
+
+    private void spillOrDrop(final List<SecurityAuditEventEntity> events) {
+        if (!config.isSpillEnabled()) {
+            droppedCounter.increment(events.size());
+            return;
+        }
+        synchronized (spillLock) {
+            try {
+                if (Files.exists(spillPath)
+                        && Files.size(spillPath) >= config.getMaxSpillSizeMb() * 1024 * 1024) {
+                    droppedCounter.increment(events.size());
+                    return;
+                }
+                if (spillWriter == null) {
+                    Path parent = spillPath.getParent();
+                    if (parent != null) {
+                        Files.createDirectories(parent);
+                    }
+                    spillWriter = Files.newBufferedWriter(spillPath, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                for (SecurityAuditEventEntity event : events) {
+                    event.setId(null);
+                    spillWriter.write(objectMapper.writeValueAsString(event));
+                    spillWriter.newLine();
+                }
+                spillWriter.flush();
+                spilledCounter.increment(events.size());
+            } catch (IOException e) {
+                droppedCounter.increment(events.size());
+                log.warn("Failed to spill {} security audit events: {}", events.size(), e.getMessage());
+                closeSpillWriter();
+            }
+        }
+    }
+
+    /**
+     * 回放溢写文件：先改名再读取，回放期间的新溢写写入新文件
+     */
+    void replaySpill() {
+        Path replayPath = spillPath.resolveSibling(spillPath.getFileName() + ".replay");
+        synchronized (spillLock) {
+            try {
+                if (!Files.exists(replayPath)) {
+                    if (!Files.exists(spillPath) || Files.size(spillPath) == 0) {
+                        return;
+                    }
+                    closeSpillWriter();
+                    Files.move(spillPath, replayPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to prepare security audit spill replay: {}", e.getMessage());
+                return;
+            }
+        }
+
+        List<String> lines = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    lines.add(line);
+                }
+                if (lines.size() >= batchSize && !replayBatch(lines, reader, replayPath)) {
+                    return;
+                }
+            }
+            if (!lines.isEmpty() && !replayBatch(lines, reader, replayPath)) {
+                return;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read security audit spill file {}: {}", replayPath, e.getMessage());
+            return;
+        }
+        try {
+            Files.deleteIfExists(replayPath);
+            log.info("Replayed security audit spill file: {}", replayPath);
+        } catch (IOException e) {
+            log.warn("Failed to delete security audit spill file {}: {}", replayPath, e.getMessage());
+        }
+    }
+
+    /**
+     * 回放一批溢写事件；写库失败时把未回放的部分写回回放文件，下次继续
+     *
+     * @return 是否回放成功
+     */
+    private boolean replayBatch(final List<String> lines, final BufferedReader reader, final Path replayPath)
+            throws IOException {
+        try {
+            List<SecurityAuditEventEntity> batch = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                batch.add(objectMapper.readValue(line, SecurityAuditEventEntity.class));
+            }
+            auditRepository.saveAll(batch);
+            replayedCounter.increment(batch.size());
+            lines.clear();
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to replay security audit spill file {}: {}", replayPath, e.getMessage());
+            Path remaining = replayPath.resolveSibling(replayPath.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(remaining, StandardCharsets.UTF_8)) {
+                for (String pending : lines) {
+                    writer.write(pending);
+                    writer.newLine();
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            Files.move(remaining, replayPath, StandardCopyOption.REPLACE_EXISTING);
+            return false;
+        }
+    }
+
+    private void closeSpillWriter() {
+        synchronized (spillLock) {
+            if (spillWriter != null) {
+                try {
+                    spillWriter.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close security audit spill writer: {}", e.getMessage());
+                }
+                spillWriter = null;
+            }
+        }
+    }
+
+    private static Counter eventsCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder(METRIC_PREFIX + ".events")
+                .description("安全审计事件写入管道事件数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 聚合键
+     */
+    private record AggregateKey(AuditEventType eventType, String userId, String resourceId, String resource) {
+        AggregateKey {
+            Objects.requireNonNull(eventType, "eventType");
+        }
+    }
+
+    /**
+     * 聚合计数，只在 ConcurrentHashMap.compute 内修改
+     */
+    private static final class AggregateCounter {
+        private final LocalDateTime firstSeen;
+        private LocalDateTime lastSeen;
+        private String lastClientIp;
+        private long count;
+
+        private AggregateCounter(final LocalDateTime firstSeen) {
+            this.firstSeen = firstSeen;
+            this.lastSeen = firstSeen;
+        }
+    }
+}
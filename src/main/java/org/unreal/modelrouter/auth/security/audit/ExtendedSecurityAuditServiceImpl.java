@@ -2,6 +2,7 @@ package org.unreal.modelrouter.auth.security.audit;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -18,6 +19,7 @@ import org.unreal.modelrouter.persistence.jpa.repository.SecurityAuditEventRepos
 import org.unreal.modelrouter.auth.security.model.SecurityAuditEvent;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
@@ -32,6 +34,9 @@ import java.util.stream.Collectors;
 /**
  * 扩展安全审计服务实现（JPA版本）
  * 实现真实的审计日志存储和查询功能
+ *
+ * 写入方法优先交给 {@link AuditIngestionPipeline} 批量写入，此时不再切换到 boundedElastic；
+ * 管道未启用时保持逐条同步写库。
  */
 @Slf4j
 @Service
@@ -41,6 +46,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
     private final SecurityAuditEventRepository auditRepository;
     private final AuditEntityMapper entityMapper;
 
+    @Autowired(required = false)
+    private AuditIngestionPipeline ingestionPipeline;
+
     // JWT令牌相关事件类型
     private static final List<AuditEventType> JWT_EVENT_TYPES = Arrays.asList(
             AuditEventType.JWT_TOKEN_ISSUED,
@@ -86,9 +94,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .success(true)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.info("JWT令牌颁发审计记录: userId={}, tokenId={}", userId, tokenId);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -112,9 +120,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .metadata(entityMapper.toJson(metadata))
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.info("JWT令牌刷新审计记录: userId={}", userId);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -138,9 +146,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .riskLevel(RiskLevel.MEDIUM)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.info("JWT令牌撤销审计记录: userId={}, tokenId={}, reason={}", userId, tokenId, reason);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -160,9 +168,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .failureReason(isValid ? null : "令牌无效或已过期")
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.debug("JWT令牌验证审计记录: userId={}, valid={}", userId, isValid);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     // ========== API Key审计方法 ==========
@@ -182,9 +190,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .success(true)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.info("API Key创建审计记录: keyId={}, createdBy={}", keyId, createdBy);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -192,6 +200,11 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
     public Mono<Void> auditApiKeyUsed(final String keyId, final String endpoint,
             final String ipAddress, final boolean success) {
         return Mono.fromRunnable(() -> {
+            // 高频的成功调用直接计入聚合计数，跳过实体构造
+            if (ingestionPipeline != null && ingestionPipeline.tryAggregate(
+                    AuditEventType.API_KEY_USED, success, null, keyId, endpoint, ipAddress)) {
+                return;
+            }
             Map<String, Object> metadata = new HashMap<>();
             metadata.put("endpoint", endpoint);
 
@@ -208,9 +221,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .metadata(entityMapper.toJson(metadata))
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.debug("API Key使用审计记录: keyId={}, endpoint={}, success={}", keyId, endpoint, success);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -233,9 +246,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .riskLevel(RiskLevel.MEDIUM)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.info("API Key撤销审计记录: keyId={}, reason={}", keyId, reason);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -251,9 +264,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .success(true)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.info("API Key过期审计记录: keyId={}", keyId);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     // ========== 安全事件审计方法 ==========
@@ -277,9 +290,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .riskLevel(riskLevel)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.warn("安全事件审计记录: type={}, userId={}, details={}", eventType, userId, details);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -303,9 +316,30 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .riskLevel(RiskLevel.HIGH)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
+            persist(entity);
             log.warn("可疑活动审计记录: activity={}, userId={}, ip={}", activity, userId, ipAddress);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
+    }
+
+    // ========== 写入辅助方法 ==========
+
+    /**
+     * 写入审计实体，启用管道时非阻塞入队
+     */
+    private void persist(final SecurityAuditEventEntity entity) {
+        if (ingestionPipeline != null && ingestionPipeline.isEnabled()) {
+            ingestionPipeline.submit(entity);
+        } else {
+            auditRepository.save(entity);
+        }
+    }
+
+    /**
+     * 写入方法的执行线程：管道运行时入队不会阻塞，直接在调用线程执行
+     */
+    private Scheduler writeScheduler() {
+        return ingestionPipeline != null && ingestionPipeline.isRunning()
+                ? Schedulers.immediate() : Schedulers.boundedElastic();
     }
 
     // ========== 查询方法 ==========
@@ -434,9 +468,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
     public Mono<Void> recordAuditEvent(final AuditEvent auditEvent) {
         return Mono.fromRunnable(() -> {
             SecurityAuditEventEntity entity = entityMapper.dtoToEntity(auditEvent);
-            auditRepository.save(entity);
+            persist(entity);
             log.debug("审计事件记录: type={}, userId={}", auditEvent.getType(), auditEvent.getUserId());
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -446,9 +480,13 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
             List<SecurityAuditEventEntity> entities = auditEvents.stream()
                     .map(entityMapper::dtoToEntity)
                     .collect(Collectors.toList());
-            auditRepository.saveAll(entities);
+            if (ingestionPipeline != null && ingestionPipeline.isEnabled()) {
+                entities.forEach(ingestionPipeline::submit);
+            } else {
+                auditRepository.saveAll(entities);
+            }
             log.info("批量审计事件记录: count={}", auditEvents.size());
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -488,9 +526,9 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
     public Mono<Void> recordEvent(final SecurityAuditEvent event) {
         return Mono.fromRunnable(() -> {
             SecurityAuditEventEntity entity = entityMapper.securityEventToEntity(event);
-            auditRepository.save(entity);
+            persist(entity);
             log.debug("安全审计事件记录: eventType={}", event.getEventType());
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -514,8 +552,8 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .riskLevel(success ? RiskLevel.LOW : RiskLevel.MEDIUM)
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+            persist(entity);
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
@@ -538,8 +576,8 @@ public class ExtendedSecurityAuditServiceImpl implements ExtendedSecurityAuditSe
                     .metadata(entityMapper.toJson(metadata))
                     .timestamp(LocalDateTime.now())
                     .build();
-            auditRepository.save(entity);
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+            persist(entity);
+        }).subscribeOn(writeScheduler()).then();
     }
 
     @Override
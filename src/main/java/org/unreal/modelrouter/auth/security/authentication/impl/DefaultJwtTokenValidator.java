@@ -1,8 +1,12 @@
 package org.unreal.modelrouter.auth.security.authentication.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +18,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import org.unreal.modelrouter.common.exception.AuthenticationException;
 import org.unreal.modelrouter.auth.security.authentication.JwtTokenValidator;
+import org.unreal.modelrouter.auth.security.cache.JwtRevocationFilter;
 import org.unreal.modelrouter.auth.security.config.properties.SecurityProperties;
 import org.unreal.modelrouter.auth.security.model.JwtAuthentication;
 import org.unreal.modelrouter.auth.security.model.JwtPrincipal;
@@ -29,15 +34,22 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT令牌验证器默认实现
  * 提供JWT令牌的验证、解析、刷新和黑名单管理功能
+ *
+ * 签名密钥和解析器按当前密钥缓存，密钥变更时重建；每个请求只解析、验签一次，
+ * 验证结果按令牌摘要缓存到令牌过期为止。黑名单先查本地撤销表和最近确认结果，再访问 Redis。
  */
 @Slf4j
 @Component
@@ -52,61 +64,50 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
     private final SecurityProperties securityProperties;
     private final ReactiveStringRedisTemplate redisTemplate;
 
+    private static final int MAX_LOCAL_REVOKED_SIZE = 10000;
+
     // 使用增强的黑名单服务（可选依赖）
     @Autowired(required = false)
     private EnhancedJwtBlacklistService enhancedBlacklistService;
 
+    // 撤销过滤器（可选依赖），就绪后替代复查间隔
+    @Autowired(required = false)
+    private JwtRevocationFilter revocationFilter;
+
+    /**
+     * 当前密钥对应的签名上下文，密钥变更时整体替换
+     */
+    private volatile SigningContext signingContext;
+
+    /**
+     * 本实例撤销的令牌ID → 令牌过期时间（毫秒），命中时无需访问 Redis
+     */
+    private final ConcurrentMap<String, Long> locallyRevoked = new ConcurrentHashMap<>();
+
     @Override
     public Mono<Authentication> validateToken(final String token) {
+        VerifiedToken verified;
+        try {
+            // 解析和验证JWT令牌（同一令牌在有效期内只验签一次）
+            verified = verify(token);
+        } catch (AuthenticationException e) {
+            return Mono.error(e);
+        } catch (JwtException e) {
+            log.warn("JWT令牌验证失败: {}", e.getMessage());
+            return Mono.error(new AuthenticationException("JWT令牌验证失败: " + e.getMessage(), "JWT_INVALID"));
+        } catch (Exception e) {
+            log.error("JWT令牌验证过程中发生错误", e);
+            return Mono.error(new AuthenticationException("JWT令牌验证过程中发生错误", "JWT_VALIDATION_ERROR"));
+        }
+
         // 检查令牌是否在黑名单中
-        return isTokenBlacklisted(token)
+        return isBlacklisted(verified)
             .flatMap(isBlacklisted -> {
                 if (isBlacklisted) {
                     return Mono.error(new AuthenticationException("JWT令牌已被列入黑名单", "JWT_BLACKLISTED"));
                 }
-
-                try {
-                    // 解析和验证JWT令牌
-                    Claims claims = parseToken(token);
-
-                    // 检查令牌是否过期
-                    if (claims.getExpiration().before(new Date())) {
-                        return Mono.error(new AuthenticationException("JWT令牌已过期", "JWT_EXPIRED"));
-                    }
-
-                    // 提取用户信息
-                    String subject = claims.getSubject();
-                    String issuer = claims.getIssuer();
-                    List<String> roles = extractRoles(claims);
-
-                    LocalDateTime issuedAt = convertToLocalDateTime(claims.getIssuedAt());
-                    LocalDateTime expiresAt = convertToLocalDateTime(claims.getExpiration());
-
-                    // 创建JWT主体对象
-                    JwtPrincipal principal = new JwtPrincipal(
-                        subject,
-                        issuer,
-                        roles,
-                        issuedAt,
-                        expiresAt,
-                        new HashMap<>(claims)
-                    );
-
-                    // 创建认证对象
-                    JwtAuthentication authentication = new JwtAuthentication(subject, token, roles);
-                    authentication.setAuthenticated(true);
-                    authentication.setDetails(principal);
-
-                    log.debug("JWT令牌验证成功: subject={}, roles={}", subject, roles);
-                    return Mono.just((Authentication) authentication);
-
-                } catch (JwtException e) {
-                    log.warn("JWT令牌验证失败: {}", e.getMessage());
-                    return Mono.error(new AuthenticationException("JWT令牌验证失败: " + e.getMessage(), "JWT_INVALID"));
-                } catch (Exception e) {
-                    log.error("JWT令牌验证过程中发生错误", e);
-                    return Mono.error(new AuthenticationException("JWT令牌验证过程中发生错误", "JWT_VALIDATION_ERROR"));
-                }
+                log.debug("JWT令牌验证成功: subject={}, roles={}", verified.subject, verified.roles);
+                return Mono.just(verified.toAuthentication(token));
             });
     }
 
@@ -160,47 +161,19 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
             return Mono.just(false);
         }
 
+        VerifiedToken verified;
         try {
-            // 优先使用增强的黑名单服务
-            if (enhancedBlacklistService != null) {
-                String tokenId = extractTokenId(token);
-                return enhancedBlacklistService.isBlacklisted(tokenId)
-                    .doOnNext(isBlacklisted -> {
-                        if (isBlacklisted) {
-                            log.warn("令牌在增强黑名单中被发现: tokenId={}", tokenId);
-                        }
-                    });
-            }
-
-            // 降级到原有的Redis检查
-            Claims claims = parseToken(token);
-            String jti = claims.getId();
-
-            if (jti == null) {
-                // 如果没有JTI，使用令牌的哈希值
-                jti = calculateTokenHash(token);
-            }
-
-            final String finalJti = jti; // 创建final变量供lambda使用
-            String blacklistKey = BLACKLIST_KEY_PREFIX + finalJti;
-            return redisTemplate.hasKey(blacklistKey)
-                .doOnNext(isBlacklisted -> {
-                    if (isBlacklisted) {
-                        log.warn("令牌在Redis黑名单中被发现: jti={}", finalJti);
-                    }
-                })
-                .onErrorResume(ex -> {
-                    log.error("检查Redis黑名单时发生错误: {}", ex.getMessage());
-                    // Redis连接失败时，为了安全起见，应该拒绝令牌
-                    // 但这可能影响正常用户，所以记录严重警告
-                    log.error("Redis黑名单检查失败，令牌状态未知，存在安全风险: jti={}", finalJti);
-                    return Mono.just(false); // 默认允许，但记录错误
-                });
-
+            verified = verify(token);
         } catch (Exception e) {
-            log.error("检查JWT令牌黑名单状态时发生严重错误: {}", e.getMessage(), e);
-            return Mono.just(false); // 出错时默认不在黑名单中，但记录错误
+            // 无法验证的令牌只有增强服务能按哈希值查询
+            if (enhancedBlacklistService == null) {
+                log.warn("检查JWT令牌黑名单状态时解析失败: {}", e.getMessage());
+                return Mono.just(false);
+            }
+            return lookupBlacklist(calculateTokenHash(token))
+                .onErrorResume(ex -> Mono.just(false));
         }
+        return isBlacklisted(verified);
     }
 
     @Override
@@ -222,9 +195,16 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
                     return Mono.<Void>empty();
                 }
 
+                // 本实例立即生效，不依赖 Redis 写入结果
+                String tokenId = resolveTokenId(claims, token);
+                revokeLocally(tokenId, expiration.getTime());
+                SigningContext context = signingContext;
+                if (context != null && context.verifiedTokens() != null) {
+                    context.verifiedTokens().invalidate(calculateTokenHash(token));
+                }
+
                 // 优先使用增强的黑名单服务
                 if (enhancedBlacklistService != null) {
-                    String tokenId = extractTokenId(token);
                     return enhancedBlacklistService.addToBlacklist(tokenId, ttlSeconds)
                         .doOnNext(success -> {
                             if (success) {
@@ -237,12 +217,7 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
                 }
 
                 // 降级到原有的Redis方式
-                String jti = claims.getId();
-                if (jti == null) {
-                    jti = calculateTokenHash(token);
-                }
-
-                final String finalJti = jti; // 创建final变量供lambda使用
+                final String finalJti = tokenId;
                 String blacklistKey = BLACKLIST_KEY_PREFIX + finalJti;
 
                 return redisTemplate.opsForValue()
@@ -301,7 +276,7 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
             .expiration(expiration)
             .id(UUID.randomUUID().toString()) // 设置JTI用于黑名单管理
             .claim(ROLES_CLAIM, roles)
-            .signWith(getSigningKey());
+            .signWith(signingContext().key());
 
         // 添加额外的声明
         if (additionalClaims != null) {
@@ -315,18 +290,163 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
      * 解析JWT令牌
      */
     private Claims parseToken(final String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
+        return signingContext().parser()
             .parseSignedClaims(token)
             .getPayload();
     }
 
     /**
-     * 获取签名密钥
+     * 验证令牌并返回验证结果，命中缓存时不再验签
+     */
+    private VerifiedToken verify(final String token) {
+        SigningContext context = signingContext();
+        Cache<String, VerifiedToken> cache = context.verifiedTokens();
+        String digest = cache != null ? calculateTokenHash(token) : null;
+
+        if (cache != null) {
+            VerifiedToken cached = cache.getIfPresent(digest);
+            if (cached != null) {
+                if (cached.expiresAtMillis > System.currentTimeMillis()) {
+                    return cached;
+                }
+                cache.invalidate(digest);
+                throw new AuthenticationException("JWT令牌已过期", "JWT_EXPIRED");
+            }
+        }
+
+        Claims claims = context.parser().parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new AuthenticationException("JWT令牌缺少过期时间", "JWT_INVALID");
+        }
+        // 检查令牌是否过期
+        if (expiration.before(new Date())) {
+            throw new AuthenticationException("JWT令牌已过期", "JWT_EXPIRED");
+        }
+
+        // 缓存对象会被多个请求共享，角色和声明使用只读副本
+        List<String> roles = Collections.unmodifiableList(new ArrayList<>(extractRoles(claims)));
+        JwtPrincipal principal = new JwtPrincipal(
+            claims.getSubject(),
+            claims.getIssuer(),
+            roles,
+            convertToLocalDateTime(claims.getIssuedAt()),
+            convertToLocalDateTime(expiration),
+            Collections.unmodifiableMap(new HashMap<>(claims))
+        );
+        VerifiedToken verified = new VerifiedToken(resolveTokenId(claims, token), claims.getSubject(), roles,
+            principal, expiration.getTime());
+        if (cache != null) {
+            cache.put(digest, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * 检查已验证令牌的黑名单状态：本地撤销表 → 撤销过滤器或最近确认结果 → 增强服务 / Redis
      */
-    private SecretKey getSigningKey() {
+    private Mono<Boolean> isBlacklisted(final VerifiedToken verified) {
+        if (!securityProperties.getJwt().isBlacklistEnabled()) {
+            return Mono.just(false);
+        }
+
+        long now = System.currentTimeMillis();
+        Long revokedUntil = locallyRevoked.get(verified.tokenId);
+        if (revokedUntil != null) {
+            if (revokedUntil > now) {
+                return Mono.just(true);
+            }
+            locallyRevoked.remove(verified.tokenId, revokedUntil);
+        }
+
+        // 撤销过滤器就绪时，其他节点的撤销亚秒级可见，判定未撤销即可放行；否则使用复查间隔
+        if (revocationFilter != null && revocationFilter.isReady()) {
+            if (!revocationFilter.mightBeRevoked(verified.tokenId)) {
+                return Mono.just(false);
+            }
+        } else {
+            long recheckMillis = TimeUnit.SECONDS.toMillis(securityProperties.getJwt().getBlacklistRecheckSeconds());
+            if (recheckMillis > 0 && now - verified.blacklistCheckedAt < recheckMillis) {
+                return Mono.just(false);
+            }
+        }
+
+        return lookupBlacklist(verified.tokenId)
+            .doOnNext(isBlacklisted -> {
+                if (!isBlacklisted) {
+                    verified.blacklistCheckedAt = now;
+                }
+            })
+            .onErrorResume(ex -> {
+                log.error("检查Redis黑名单时发生错误: {}", ex.getMessage());
+                // Redis连接失败时，为了安全起见，应该拒绝令牌
+                // 但这可能影响正常用户，所以记录严重警告
+                log.error("Redis黑名单检查失败，令牌状态未知，存在安全风险: jti={}", verified.tokenId);
+                return Mono.just(false); // 默认允许，但记录错误
+            });
+    }
+
+    /**
+     * 按令牌ID查询远端黑名单，优先使用增强的黑名单服务
+     */
+    private Mono<Boolean> lookupBlacklist(final String tokenId) {
+        if (enhancedBlacklistService != null) {
+            return enhancedBlacklistService.isBlacklisted(tokenId)
+                .doOnNext(isBlacklisted -> {
+                    if (isBlacklisted) {
+                        log.warn("令牌在增强黑名单中被发现: tokenId={}", tokenId);
+                    }
+                });
+        }
+
+        // 降级到原有的Redis检查
+        return redisTemplate.hasKey(BLACKLIST_KEY_PREFIX + tokenId)
+            .doOnNext(isBlacklisted -> {
+                if (isBlacklisted) {
+                    log.warn("令牌在Redis黑名单中被发现: jti={}", tokenId);
+                }
+            });
+    }
+
+    /**
+     * 记录本实例撤销的令牌，超出容量时清理已过期的记录
+     */
+    private void revokeLocally(final String tokenId, final long expiresAtMillis) {
+        if (locallyRevoked.size() >= MAX_LOCAL_REVOKED_SIZE) {
+            long now = System.currentTimeMillis();
+            locallyRevoked.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+        if (locallyRevoked.size() < MAX_LOCAL_REVOKED_SIZE) {
+            locallyRevoked.put(tokenId, expiresAtMillis);
+        }
+    }
+
+    /**
+     * 获取当前密钥对应的签名上下文，密钥变更后重建并丢弃已验证令牌缓存
+     */
+    private SigningContext signingContext() {
         String secret = securityProperties.getJwt().getSecret();
+        SigningContext context = signingContext;
+        if (context != null && context.secret().equals(secret)) {
+            return context;
+        }
+        synchronized (this) {
+            context = signingContext;
+            if (context == null || !context.secret().equals(secret)) {
+                SecretKey key = getSigningKey(secret);
+                context = new SigningContext(secret, key, Jwts.parser().verifyWith(key).build(),
+                    createVerifiedCache(securityProperties.getJwt().getVerifiedCacheSize()));
+                signingContext = context;
+                log.debug("JWT签名上下文已重建");
+            }
+            return context;
+        }
+    }
+
+    /**
+     * 获取签名密钥
+     */
+    private SecretKey getSigningKey(final String secret) {
         if (secret == null || secret.trim().isEmpty()) {
             throw new IllegalStateException("JWT签名密钥未配置");
         }
@@ -335,6 +455,37 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    /**
+     * 创建已验证令牌缓存，条目在令牌过期时失效
+     */
+    private static Cache<String, VerifiedToken> createVerifiedCache(final int maximumSize) {
+        if (maximumSize <= 0) {
+            return null;
+        }
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(final String key, final VerifiedToken value, final long currentTime) {
+                    long remaining = value.expiresAtMillis - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                }
+
+                @Override
+                public long expireAfterUpdate(final String key, final VerifiedToken value, final long currentTime,
+                                              final long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(final String key, final VerifiedToken value, final long currentTime,
+                                            final long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
     /**
      * 从Claims中提取角色列表
      */
@@ -364,22 +515,15 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
     /**
      * 提取令牌ID（用于黑名单）
      */
-    private String extractTokenId(final String token) {
-        try {
-            Claims claims = parseToken(token);
-            String jti = claims.getId();
+    private String resolveTokenId(final Claims claims, final String token) {
+        String jti = claims.getId();
 
-            if (jti != null && !jti.trim().isEmpty()) {
-                return jti.trim();
-            }
-
-            // 如果没有JTI，使用令牌的哈希值
-            return calculateTokenHash(token);
-
-        } catch (Exception e) {
-            log.warn("提取令牌ID失败，使用哈希值: {}", e.getMessage());
-            return calculateTokenHash(token);
+        if (jti != null && !jti.trim().isEmpty()) {
+            return jti.trim();
         }
+
+        // 如果没有JTI，使用令牌的哈希值
+        return calculateTokenHash(token);
     }
 
     /**
@@ -395,4 +539,43 @@ public class DefaultJwtTokenValidator implements JwtTokenValidator {
             return String.valueOf(token.hashCode());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 签名上下文：密钥、解析器和该密钥下的已验证令牌缓存
+     */
+    private record SigningContext(String secret, SecretKey key, JwtParser parser,
+                                  Cache<String, VerifiedToken> verifiedTokens) {
+    }
+
+    /**
+     * 已验证令牌，缓存验签结果和最近一次黑名单确认时间
+     */
+    private static final class VerifiedToken {
+        private final String tokenId;
+        private final String subject;
+        private final List<String> roles;
+        private final JwtPrincipal principal;
+        private final long expiresAtMillis;
+        private volatile long blacklistCheckedAt;
+
+        VerifiedToken(final String tokenId, final String subject, final List<String> roles,
+                      final JwtPrincipal principal, final long expiresAtMillis) {
+            this.tokenId = tokenId;
+            this.subject = subject;
+            this.roles = roles;
+            this.principal = principal;
+            this.expiresAtMillis = expiresAtMillis;
+            this.blacklistCheckedAt = Long.MIN_VALUE / 2;
+        }
+
+        /**
+         * 认证对象是可变的，每个请求单独创建
+         */
+        Authentication toAuthentication(final String token) {
+            JwtAuthentication authentication = new JwtAuthentication(subject, token, roles);
+            authentication.setAuthenticated(true);
+            authentication.setDetails(principal);
+            return authentication;
+        }
+    }
+}
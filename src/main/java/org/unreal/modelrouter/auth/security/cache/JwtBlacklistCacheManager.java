@@ -1,7 +1,9 @@
 package org.unreal.modelrouter.auth.security.cache;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -20,6 +22,7 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * JWT黑名单缓存管理器
  * 提供增强的TTL管理和自动清理功能
+ * 启用撤销过滤器时，新增和移除通过发布订阅即时同步到其他节点，定时同步只作为兜底
  */
 @Slf4j
 @Component
@@ -37,12 +40,23 @@ public class JwtBlacklistCacheManager {
     
     // 用于定时任务互斥的锁，防止cleanup和sync任务并发执行
     private final ReentrantLock cacheOperationLock = new ReentrantLock();
+
+    // 撤销过滤器（可选依赖）
+    @Autowired(required = false)
+    private JwtRevocationFilter revocationFilter;
     
     // Redis键前缀
     private static final String BLACKLIST_PREFIX = "jwt:blacklist:";
     private static final String EXPIRY_INDEX_PREFIX = "jwt:blacklist_expiry:";
     private static final String STATS_KEY = "jwt:blacklist_cache_stats";
     
+    @PostConstruct
+    void registerRemovalListener() {
+        if (revocationFilter != null) {
+            revocationFilter.addRemovalListener(localCache::remove);
+        }
+    }
+
     /**
      * 添加令牌到黑名单缓存，带TTL管理
      */
@@ -64,6 +78,7 @@ public class JwtBlacklistCacheManager {
         entry.setExpiresAt(expiresAt);
         
         return addEntryToCache(entry)
+            .then(revocationFilter != null ? revocationFilter.publishRevoked(tokenHash) : Mono.empty())
             .doOnSuccess(unused -> {
                 // 更新本地缓存
                 localCache.put(tokenHash, entry);
@@ -90,6 +105,11 @@ public class JwtBlacklistCacheManager {
             return Mono.just(true);
         }
         
+        // 撤销过滤器判定未撤销时无需访问Redis
+        if (revocationFilter != null && !revocationFilter.mightBeRevoked(tokenHash)) {
+            return Mono.just(false);
+        }
+
         // 检查Redis缓存
         return checkRedisCache(tokenHash)
             .doOnNext(isBlacklisted -> {
@@ -114,6 +134,7 @@ public class JwtBlacklistCacheManager {
         }
         
         return removeEntryFromCache(tokenHash)
+            .then(revocationFilter != null ? revocationFilter.publishRemoved(tokenHash) : Mono.empty())
             .doOnSuccess(unused -> {
                 localCache.remove(tokenHash);
                 log.debug("Removed token from blacklist cache: {}", tokenHash);
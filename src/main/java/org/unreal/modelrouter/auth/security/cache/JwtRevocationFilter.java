@@ -0,0 +1,231 @@
+package org.unreal.modelrouter.auth.security.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * JWT撤销过滤器
+ *
+ * 每个节点维护一个已撤销令牌ID的布隆过滤器，放在 Redis 黑名单之前：
+ * - 过滤器判定不存在时直接放行，不访问 Redis；判定可能存在时仍由 Redis 确认
+ * - 撤销和移除通过 Redis 发布订阅广播，其他节点亚秒级生效
+ * - 订阅建立后从 Redis 扫描黑名单键全量重建，之后定期重建以淘汰已过期的令牌，容量按撤销数量确定
+ *
+ * 订阅未建立或重建未完成时过滤器视为未就绪，所有查询都回落到 Redis，不会漏判。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jairouter.security.jwt.blacklist.redis.enabled", havingValue = "true")
+public class JwtRevocationFilter {
+
+    /**
+     * 撤销事件广播频道，消息格式为 "+tokenId"（撤销）或 "-tokenId"（移除）
+     */
+    public static final String CHANNEL = "jwt:blacklist:events";
+
+    private static final String BLACKLIST_KEY_PREFIX = "jwt:blacklist:";
+    private static final String BLACKLIST_BACKUP_KEY_PREFIX = "jwt:blacklist:backup:";
+    private static final int MIN_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final Duration MIN_RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final List<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>();
+
+    private volatile ScalableBloomFilter filter;
+    private volatile boolean listening;
+    private volatile boolean ready;
+
+    /**
+     * 重建期间收到的撤销事件，重建完成后补入新过滤器
+     */
+    private List<String> pendingRevocations;
+
+    private Disposable subscription;
+
+    public JwtRevocationFilter(final ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Mono.defer(() -> redisTemplate.listenToChannelLater(CHANNEL))
+                .flatMap(messages -> {
+                    listening = true;
+                    log.debug("JWT撤销广播订阅已建立，开始重建撤销过滤器");
+                    return Mono.when(messages.doOnNext(this::onMessage).then(), rebuild())
+                            .then(Mono.<Void>error(new IllegalStateException("JWT撤销广播订阅已断开")));
+                })
+                .doOnError(e -> {
+                    listening = false;
+                    ready = false;
+                    log.warn("JWT撤销广播订阅异常，过滤器暂停使用: {}", e.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_RETRY_BACKOFF).maxBackoff(MAX_RETRY_BACKOFF))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        listening = false;
+        ready = false;
+    }
+
+    /**
+     * 令牌是否可能已撤销；返回 false 时可以跳过 Redis 查询
+     */
+    public boolean mightBeRevoked(final String tokenId) {
+        ScalableBloomFilter current = filter;
+        if (!ready || current == null) {
+            return true;
+        }
+        return current.mightContain(tokenId);
+    }
+
+    /**
+     * 广播令牌撤销，调用方需在写入 Redis 黑名单之后调用，保证其他节点能在 Redis 中确认
+     */
+    public Mono<Void> publishRevoked(final String tokenId) {
+        return publish("+" + tokenId);
+    }
+
+    /**
+     * 广播令牌移除；过滤器不支持删除，移除的令牌在下次重建时淘汰
+     */
+    public Mono<Void> publishRemoved(final String tokenId) {
+        return publish("-" + tokenId);
+    }
+
+    /**
+     * 注册移除事件监听，用于其他节点清理各自的本地黑名单缓存
+     */
+    public void addRemovalListener(final Consumer<String> listener) {
+        removalListeners.add(listener);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 过滤器中的令牌数量
+     */
+    public long size() {
+        ScalableBloomFilter current = filter;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * 定期重建，淘汰已在 Redis 中过期的令牌
+     */
+    @Scheduled(fixedDelayString = "${jairouter.security.jwt.blacklist.redis.filter-rebuild-interval:300000}")
+    public void scheduledRebuild() {
+        if (listening) {
+            rebuild().subscribe();
+        }
+    }
+
+    /**
+     * 从 Redis 扫描黑名单键重建过滤器，重建期间收到的撤销事件会补入新过滤器
+     */
+    Mono<Void> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        synchronized (lock) {
+            pendingRevocations = new ArrayList<>();
+        }
+        return redisTemplate.scan(ScanOptions.scanOptions().match(BLACKLIST_KEY_PREFIX + "*").count(1000).build())
+                .map(JwtRevocationFilter::toTokenId)
+                .collectList()
+                .doOnNext(tokenIds -> {
+                    ScalableBloomFilter rebuilt = new ScalableBloomFilter(
+                            Math.max(MIN_CAPACITY, tokenIds.size() * 2), FALSE_POSITIVE_RATE);
+                    tokenIds.forEach(rebuilt::put);
+                    synchronized (lock) {
+                        pendingRevocations.forEach(rebuilt::put);
+                        pendingRevocations = null;
+                        filter = rebuilt;
+                        ready = listening;
+                    }
+                    log.debug("JWT撤销过滤器已重建: size={}, bits={}", rebuilt.size(), rebuilt.bitSize());
+                })
+                .doOnError(e -> log.warn("JWT撤销过滤器重建失败: {}", e.getMessage()))
+                .doFinally(signal -> {
+                    synchronized (lock) {
+                        pendingRevocations = null;
+                    }
+                    rebuilding.set(false);
+                })
+                .then();
+    }
+
+    private void onMessage(final ReactiveSubscription.Message<String, String> message) {
+        String payload = message.getMessage();
+        if (payload == null || payload.length() < 2) {
+            return;
+        }
+        String tokenId = payload.substring(1);
+        if (payload.charAt(0) == '+') {
+            synchronized (lock) {
+                ScalableBloomFilter current = filter;
+                if (current != null) {
+                    current.put(tokenId);
+                }
+                if (pendingRevocations != null) {
+                    pendingRevocations.add(tokenId);
+                }
+            }
+        } else if (payload.charAt(0) == '-') {
+            for (Consumer<String> listener : removalListeners) {
+                try {
+                    listener.accept(tokenId);
+                } catch (Exception e) {
+                    log.warn("处理JWT黑名单移除事件失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Mono<Void> publish(final String payload) {
+        return redisTemplate.convertAndSend(CHANNEL, payload)
+                .doOnError(e -> log.warn("广播JWT撤销事件失败: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static String toTokenId(final String key) {
+        if (key.startsWith(BLACKLIST_BACKUP_KEY_PREFIX)) {
+            return key.substring(BLACKLIST_BACKUP_KEY_PREFIX.length());
+        }
+        return key.substring(BLACKLIST_KEY_PREFIX.length());
+    }
+}
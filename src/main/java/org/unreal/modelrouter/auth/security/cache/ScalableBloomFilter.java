@@ -0,0 +1,160 @@
+package org.unreal.modelrouter.auth.security.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 可扩展布隆过滤器
+ *
+ * 按预期元素数量和误判率确定位数组大小和哈希函数个数；元素数超过当前层容量时追加一层，
+ * 新层容量翻倍、误判率减半，总误判率不超过初始设定值。
+ * 查询无锁，写入串行化；不支持删除，过期元素通过整体重建淘汰。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class ScalableBloomFilter {
+
+    /**
+     * 每追加一层，误判率乘以该系数
+     */
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+
+    private volatile Layer[] layers;
+
+    public ScalableBloomFilter(final int expectedInsertions, final double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.layers = new Layer[] {new Layer(expectedInsertions, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * 判断元素是否可能存在；返回 false 时元素一定不存在
+     */
+    public boolean mightContain(final String value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+        for (Layer layer : layers) {
+            if (layer.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 加入元素，已存在（或误判为已存在）时不占用容量
+     */
+    public synchronized void put(final String value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+        Layer[] current = layers;
+        for (Layer layer : current) {
+            if (layer.mightContain(hash1, hash2)) {
+                return;
+            }
+        }
+        Layer last = current[current.length - 1];
+        if (last.count >= last.capacity) {
+            double layerRate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, current.length);
+            last = new Layer(last.capacity * 2, layerRate);
+            Layer[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = last;
+            layers = grown;
+        }
+        last.put(hash1, hash2);
+    }
+
+    /**
+     * 已加入的元素数量
+     */
+    public long size() {
+        long size = 0;
+        for (Layer layer : layers) {
+            size += layer.count;
+        }
+        return size;
+    }
+
+    public int layerCount() {
+        return layers.length;
+    }
+
+    /**
+     * 位数组总大小（位）
+     */
+    public long bitSize() {
+        long bits = 0;
+        for (Layer layer : layers) {
+            bits += layer.bitSize;
+        }
+        return bits;
+    }
+
+    /**
+     * 64 位 FNV-1a 加 murmur3 终结混合，两个种子得到两个独立哈希用于双重哈希
+     */
+    private static long hash(final String value, final long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 单层标准布隆过滤器
+     */
+    private static final class Layer {
+        private final int capacity;
+        private final long bitSize;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private volatile int count;
+
+        Layer(final int capacity, final double falsePositiveRate) {
+            this.capacity = capacity;
+            double ln2 = Math.log(2);
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.bitSize = Math.max(64, (optimalBits + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * ln2));
+            this.bits = new AtomicLongArray((int) (bitSize / 64));
+        }
+
+        boolean mightContain(final long hash1, final long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(combined, bitSize);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += hash2;
+            }
+            return true;
+        }
+
+        void put(final long hash1, final long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(combined, bitSize);
+                long mask = 1L << index;
+                bits.getAndAccumulate((int) (index >>> 6), mask, (current, bit) -> current | bit);
+                combined += hash2;
+            }
+            count++;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package org.unreal.modelrouter.auth.security.config.properties;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.unreal.modelrouter.common.dto.AuditEventType;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -105,6 +107,11 @@ public class AuditConfig {
      */
     private AlertThresholds alertThresholds = new AlertThresholds();
 
+    /**
+     * 审计事件写入管道配置
+     */
+    private IngestionConfig ingestion = new IngestionConfig();
+
     /**
      * 告警阈值配置
      */
@@ -198,6 +205,92 @@ public class AuditConfig {
         private int fileRetentionHours = 24;
     }
 
+    /**
+     * 审计事件写入管道配置
+     */
+    @Data
+    public static class IngestionConfig {
+        /**
+         * 是否启用批量写入管道，关闭后每个事件单独写库
+         */
+        private boolean enabled = true;
+
+        /**
+         * 环形缓冲区容量
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * 每批写入的最大事件数
+         */
+        private int batchSize = 200;
+
+        /**
+         * 未攒满一批时的最长等待时间（毫秒）
+         */
+        private long flushIntervalMs = 500;
+
+        /**
+         * 关闭时等待写线程排空的最长时间（毫秒）
+         */
+        private long shutdownTimeoutMs = 5000;
+
+        /**
+         * 聚合计数的刷新间隔（秒）
+         */
+        private int aggregationFlushSeconds = 60;
+
+        /**
+         * 同时存在的聚合键上限，超出后新键按逐条写入处理
+         */
+        private int maxAggregationKeys = 10000;
+
+        /**
+         * SAMPLE 策略的采样率 (0.0-1.0)
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * 按事件类型的写入策略，未配置的类型逐条写入
+         * 失败事件和中风险及以上的事件始终逐条写入
+         */
+        private Map<AuditEventType, EventPolicy> eventPolicies = new EnumMap<>(Map.of(
+                AuditEventType.API_KEY_USED, EventPolicy.AGGREGATE));
+
+        /**
+         * 缓冲区满或写库失败时是否溢写到本地文件，恢复后自动回放
+         */
+        private boolean spillEnabled = true;
+
+        /**
+         * 溢写文件路径
+         */
+        private String spillPath = "logs/audit/spill/security-audit-spill.jsonl";
+
+        /**
+         * 溢写文件最大大小（MB），超出后丢弃并计数
+         */
+        private long maxSpillSizeMb = 100;
+    }
+
+    /**
+     * 审计事件写入策略
+     */
+    public enum EventPolicy {
+        /**
+         * 逐条写入
+         */
+        PERSIST,
+        /**
+         * 按用户/资源/端点聚合为计数，定期写入一条汇总事件
+         */
+        AGGREGATE,
+        /**
+         * 按采样率写入
+         */
+        SAMPLE
+    }
+
     /**
      * 根据风险等级获取保留天数
      */
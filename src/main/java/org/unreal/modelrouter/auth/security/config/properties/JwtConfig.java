@@ -66,6 +66,19 @@ public class JwtConfig {
      */
     private boolean blacklistEnabled = true;
 
+    /**
+     * 已验证令牌缓存容量，同一令牌在有效期内只做一次签名校验；0 表示不缓存
+     */
+    @Min(0)
+    private int verifiedCacheSize = 10000;
+
+    /**
+     * 黑名单复查间隔（秒），令牌确认不在黑名单后，间隔内的请求不再访问 Redis；0 表示每次都查询
+     */
+    @Min(0)
+    @Max(300)
+    private long blacklistRecheckSeconds = 5;
+
     /**
      * 预配置的JWT账户列表
      */
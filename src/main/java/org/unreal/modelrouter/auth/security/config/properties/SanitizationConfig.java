@@ -1,6 +1,7 @@
 package org.unreal.modelrouter.auth.security.config.properties;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -107,5 +108,11 @@ public class SanitizationConfig {
          * 脱敏失败时是否中断响应处理
          */
         private boolean failOnError = false;
+
+        /**
+         * 流式响应增量脱敏时正则命中的最大长度（字符），决定每个流保留的尾部窗口
+         */
+        @Min(1)
+        private int streamWindow = 256;
     }
 }
@@ -69,12 +69,24 @@ public class SanitizationRule {
     
     /**
      * 检查规则是否适用于指定内容类型
+     * 只比较媒体类型本身，忽略大小写和 charset 等参数（如 application/json;charset=UTF-8）
      * @param contentType 内容类型
      * @return 是否适用
      */
     public boolean isApplicableToContentType(final String contentType) {
-        return applicableContentTypes == null 
-        || applicableContentTypes.isEmpty()
-        || applicableContentTypes.contains(contentType);
+        if (applicableContentTypes == null || applicableContentTypes.isEmpty()) {
+            return true;
+        }
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim();
+        for (String applicable : applicableContentTypes) {
+            if (applicable != null && applicable.trim().equalsIgnoreCase(mediaType)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
@@ -343,6 +343,17 @@ public class ApiKeyService {
     }
 
     public Map<String, ApiKey> getApiKeyCache() { return apiKeyCache; }
+
+    /**
+     * 按 Key ID 从缓存中查找 API Key
+     *
+     * @param kid API Key ID
+     * @return API Key，不存在时返回 null
+     */
+    public ApiKey findCachedApiKey(String kid) {
+        String kh = kid != null ? keyIdIndex.get(kid) : null;
+        return kh != null ? apiKeyCache.get(kh) : null;
+    }
     public Map<String, String> getKeyIdIndex() { return keyIdIndex; }
 
     /**
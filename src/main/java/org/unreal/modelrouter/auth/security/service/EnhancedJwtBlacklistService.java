@@ -1,10 +1,13 @@
 package org.unreal.modelrouter.auth.security.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.unreal.modelrouter.auth.security.cache.JwtRevocationFilter;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -14,6 +17,7 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * 增强的JWT黑名单服务
  * 提供双重保障：Redis + 本地缓存，确保撤销的令牌真正被阻止
+ * 启用撤销过滤器时，过滤器判定未撤销的令牌不再访问 Redis，撤销和移除通过发布订阅广播到其他节点
  */
 @Slf4j
 @Service("redisJwtBlacklistService")
@@ -32,6 +36,18 @@ public class EnhancedJwtBlacklistService {
     // 最大本地缓存大小
     private static final int MAX_LOCAL_CACHE_SIZE = 10000;
 
+    // 撤销过滤器（可选依赖）
+    @Autowired(required = false)
+    private JwtRevocationFilter revocationFilter;
+
+    @PostConstruct
+    void registerRemovalListener() {
+        if (revocationFilter != null) {
+            // 其他节点移除的令牌同步清理本地缓存
+            revocationFilter.addRemovalListener(localBlacklistCache::remove);
+        }
+    }
+
     /**
      * 将令牌加入黑名单
      *
@@ -71,7 +87,10 @@ public class EnhancedJwtBlacklistService {
                                         log.warn("令牌黑名单备份创建失败: tokenId={}", trimmedTokenId);
                                     }
                                 })
-                                .map(backupSuccess -> true); // 主要操作成功即可
+                                .map(backupSuccess -> true) // 主要操作成功即可
+                                .flatMap(result -> revocationFilter != null
+                                        ? revocationFilter.publishRevoked(trimmedTokenId).thenReturn(result)
+                                        : Mono.just(result));
                     } else {
                         log.error("令牌加入Redis黑名单失败: tokenId={}", trimmedTokenId);
                         return Mono.just(false);
@@ -110,7 +129,12 @@ public class EnhancedJwtBlacklistService {
             }
         }
 
-        // 2. 检查Redis主键
+        // 2. 撤销过滤器判定未撤销时无需访问Redis
+        if (revocationFilter != null && !revocationFilter.mightBeRevoked(trimmedTokenId)) {
+            return Mono.just(false);
+        }
+
+        // 3. 检查Redis主键
         String blacklistKey = BLACKLIST_KEY_PREFIX + trimmedTokenId;
         return redisTemplate.hasKey(blacklistKey)
                 .flatMap(exists -> {
@@ -120,7 +144,7 @@ public class EnhancedJwtBlacklistService {
                         localBlacklistCache.put(trimmedTokenId, System.currentTimeMillis() + 3600000); // 1小时
                         return Mono.just(true);
                     } else {
-                        // 3. 检查Redis备份键
+                        // 4. 检查Redis备份键
                         String backupKey = BLACKLIST_BACKUP_KEY_PREFIX + trimmedTokenId;
                         return redisTemplate.hasKey(backupKey)
                                 .map(backupExists -> {
@@ -171,10 +195,13 @@ public class EnhancedJwtBlacklistService {
 
         return redisTemplate.delete(blacklistKey)
                 .flatMap(deleted -> redisTemplate.delete(backupKey))
-                .map(backupDeleted -> {
+                .flatMap(backupDeleted -> revocationFilter != null
+                        ? revocationFilter.publishRemoved(trimmedTokenId)
+                        : Mono.<Void>empty())
+                .then(Mono.fromCallable(() -> {
                     log.debug("令牌已从黑名单移除: tokenId={}", trimmedTokenId);
                     return true;
-                })
+                }))
                 .onErrorResume(ex -> {
                     log.warn("从黑名单移除令牌时发生异常: tokenId={}, error={}", trimmedTokenId, ex.getMessage());
                     return Mono.just(false);
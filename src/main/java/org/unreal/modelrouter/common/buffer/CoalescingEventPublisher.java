@@ -0,0 +1,224 @@
+package org.unreal.modelrouter.common.buffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 合并推送的事件发布器
+ *
+ * 业务线程只把事件写入预分配的无锁环形缓冲区，没有订阅者时直接返回；
+ * 由单个发布线程按固定间隔或积攒到批大小时取出事件，序列化为一帧 JSON 后推送给所有订阅者。
+ * 每个订阅者持有独立的有界队列，消费过慢时丢弃最旧的帧，不影响其他订阅者和业务线程。
+ *
+ * 帧格式：{"type":"events","events":[...]}
+ *
+ * @param <T> 事件类型
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class CoalescingEventPublisher<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingEventPublisher.class);
+
+    /**
+     * 帧类型标识
+     */
+    public static final String FRAME_TYPE = "events";
+
+    private final String name;
+    private final ObjectMapper objectMapper;
+    private final EventRingBuffer<T> pending;
+    private final int batchSize;
+    private final long intervalNanos;
+    private final int sessionQueueSize;
+
+    private final List<FluxSink<String>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 发布线程下一次消费的序号
+     */
+    private volatile long readSeq;
+
+    private volatile boolean running;
+    private volatile Thread publisherThread;
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong publishedFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    /**
+     * @param name             发布器名称，用于线程名和日志
+     * @param objectMapper     JSON 序列化器
+     * @param pendingCapacity  待发布事件缓冲区容量
+     * @param batchSize        每帧最多包含的事件数
+     * @param intervalMs       合并推送间隔（毫秒）
+     * @param sessionQueueSize 每个订阅者最多缓存的帧数
+     */
+    public CoalescingEventPublisher(final String name, final ObjectMapper objectMapper, final int pendingCapacity,
+                                    final int batchSize, final long intervalMs, final int sessionQueueSize) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.pending = new EventRingBuffer<>(Math.max(pendingCapacity, batchSize));
+        this.batchSize = Math.max(1, batchSize);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMs));
+        this.sessionQueueSize = Math.max(1, sessionQueueSize);
+    }
+
+    /**
+     * 启动发布线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runLoop, name + "-publisher");
+        thread.setDaemon(true);
+        publisherThread = thread;
+        thread.start();
+    }
+
+    /**
+     * 停止发布线程并推送剩余事件
+     */
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = publisherThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.NANOSECONDS.toMillis(intervalNanos) + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        subscribers.forEach(FluxSink::complete);
+        subscribers.clear();
+    }
+
+    /**
+     * 提交事件，没有订阅者时直接丢弃
+     *
+     * @param event 事件
+     */
+    public void publish(final T event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long seq = pending.offer(event);
+        // 只在刚好积攒满一批时唤醒，避免每个事件都触发 unpark
+        if (seq - readSeq == batchSize - 1) {
+            Thread thread = publisherThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * 订阅事件帧流
+     * 每个订阅者使用独立的有界队列，队列满时丢弃最旧的帧
+     *
+     * @return JSON 帧流
+     */
+    public Flux<String> subscribe() {
+        return Flux.<String>create(sink -> {
+                    subscribers.add(sink);
+                    sink.onDispose(() -> subscribers.remove(sink));
+                    Thread thread = publisherThread;
+                    if (thread != null) {
+                        LockSupport.unpark(thread);
+                    }
+                })
+                .onBackpressureBuffer(sessionQueueSize, dropped -> droppedFrames.incrementAndGet(),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublishedEvents() {
+        return publishedEvents.get();
+    }
+
+    public long getPublishedFrames() {
+        return publishedFrames.get();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runLoop() {
+        while (running) {
+            if (subscribers.isEmpty()) {
+                // 没有订阅者时不会有新事件写入，等待订阅唤醒
+                LockSupport.park(this);
+                continue;
+            }
+            LockSupport.parkNanos(this, intervalNanos);
+            flush();
+        }
+        flush();
+    }
+
+    /**
+     * 取出待发布事件并按批推送
+     */
+    void flush() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        while (true) {
+            List<T> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            long next = pending.drain(readSeq, batchSize, batch::add);
+            readSeq = next;
+            if (batch.isEmpty()) {
+                return;
+            }
+            emit(batch);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void emit(final List<T> batch) {
+        String frame;
+        try {
+            frame = objectMapper.writeValueAsString(new EventFrame<>(FRAME_TYPE, batch));
+        } catch (Exception e) {
+            logger.warn("Failed to serialize {} event frame: {}", name, e.getMessage());
+            return;
+        }
+        for (FluxSink<String> sink : subscribers) {
+            sink.next(frame);
+        }
+        publishedEvents.addAndGet(batch.size());
+        publishedFrames.incrementAndGet();
+    }
+
+    /**
+     * 推送帧结构
+     */
+    public record EventFrame<T>(String type, List<T> events) {}
+}
@@ -0,0 +1,174 @@
+package org.unreal.modelrouter.common.buffer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 预分配的无锁多生产者环形缓冲区
+ *
+ * 写入只需一次 getAndIncrement 领取序号，再以 CAS 占用对应槽位写入，不加锁、不复制数组。
+ * 槽位数取不小于容量的 2 的幂，用位掩码定位；每个槽位同时记录写入序号，
+ * 读取方据此区分尚未写完的槽位和已被新一轮覆盖的槽位。
+ *
+ * 适用于监控类数据：写入线程被挂起超过一整圈时，它的旧事件会被直接丢弃，
+ * 读取方可能跳过个别事件，但不会读到错位的数据。
+ *
+ * @param <T> 元素类型
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class EventRingBuffer<T> {
+
+    /**
+     * 槽位尚未写入时的序号标记
+     */
+    private static final long EMPTY = -1L;
+
+    /**
+     * 槽位正在被写入时的序号标记
+     */
+    private static final long WRITING = -2L;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong cursor = new AtomicLong(0);
+
+    /**
+     * @param capacity 保留的最近元素数量
+     */
+    public EventRingBuffer(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        int slots = Integer.highestOneBit(capacity);
+        if (slots < capacity) {
+            slots <<= 1;
+        }
+        this.mask = slots - 1;
+        this.items = new AtomicReferenceArray<>(slots);
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * 写入元素，超出容量时覆盖最旧的元素
+     *
+     * @param item 元素
+     * @return 该元素的序号
+     */
+    public long offer(final T item) {
+        long seq = cursor.getAndIncrement();
+        int index = (int) (seq & mask);
+        // 占用槽位后再写入元素，读取方在前后两次序号校验之间看到的元素一定属于同一序号
+        while (true) {
+            long current = sequences.get(index);
+            if (current == WRITING) {
+                // 上一圈的写入方尚未写完，只会在其被挂起时短暂出现
+                Thread.onSpinWait();
+                continue;
+            }
+            if (current > seq) {
+                // 槽位已被更新一圈的元素占用，丢弃过期元素
+                return seq;
+            }
+            if (sequences.compareAndSet(index, current, WRITING)) {
+                break;
+            }
+        }
+        items.set(index, item);
+        sequences.set(index, seq);
+        return seq;
+    }
+
+    /**
+     * 下一个待分配的序号，即累计写入数量
+     */
+    public long cursor() {
+        return cursor.get();
+    }
+
+    /**
+     * 当前保留的元素数量
+     */
+    public int size() {
+        return (int) Math.min(cursor.get(), capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取最近的元素（最新在前）
+     *
+     * @param limit 最大数量
+     * @return 元素快照
+     */
+    public List<T> snapshot(final int limit) {
+        long end = cursor.get();
+        int count = (int) Math.min(Math.min(end, capacity), Math.max(limit, 0));
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>(count);
+        for (long seq = end - 1; seq >= end - count; seq--) {
+            T item = read(seq);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从指定序号开始顺序消费已写入的元素
+     * 落后超过一整圈的部分直接跳过；遇到已领取但尚未写完的槽位时停止，等待下次消费
+     *
+     * @param fromSeq  起始序号
+     * @param maxItems 最多消费数量
+     * @param consumer 元素消费者
+     * @return 下一次消费的起始序号
+     */
+    public long drain(final long fromSeq, final int maxItems, final Consumer<? super T> consumer) {
+        long end = cursor.get();
+        long seq = Math.max(fromSeq, end - capacity);
+        int consumed = 0;
+        while (seq < end && consumed < maxItems) {
+            int index = (int) (seq & mask);
+            long published = sequences.get(index);
+            if (published < seq) {
+                // 写入方已领取序号但尚未写完
+                break;
+            }
+            T item = read(seq);
+            if (item != null) {
+                consumer.accept(item);
+                consumed++;
+            }
+            seq++;
+        }
+        return seq;
+    }
+
+    /**
+     * 读取指定序号的元素，槽位未写完或已被覆盖时返回 null
+     */
+    private T read(final long seq) {
+        int index = (int) (seq & mask);
+        if (sequences.get(index) != seq) {
+            return null;
+        }
+        T item = items.get(index);
+        return sequences.get(index) == seq ? item : null;
+    }
+}
@@ -25,6 +25,7 @@ public class GlobalControllerExceptionHandler {
                 String.valueOf(ex.getStatusCode().value())
         );
 
-        return new ResponseEntity<>(errorResponse, ex.getStatusCode());
+        // 保留异常携带的响应头（如并发限制拒绝时的 Retry-After）
+        return new ResponseEntity<>(errorResponse, ex.getHeaders(), ex.getStatusCode());
     }
 }
\ No newline at end of file
@@ -89,6 +89,8 @@ public class ReactiveGlobalExceptionHandler implements ErrorWebExceptionHandler
                     if (status == null) {
                         status = HttpStatus.INTERNAL_SERVER_ERROR;
                     }
+                    // 保留异常携带的响应头（如并发限制拒绝时的 Retry-After）
+                    response.getHeaders().addAll(rse.getHeaders());
                 } else if (ex instanceof IllegalArgumentException) {
                     logger.warn("参数验证异常：message={}", ex.getMessage());
                     errorResponse = RouterResponse.error("参数验证失败：" + ex.getMessage(), "400");
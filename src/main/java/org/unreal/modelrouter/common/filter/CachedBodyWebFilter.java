@@ -31,6 +31,12 @@ public class CachedBodyWebFilter implements WebFilter, Ordered {
 
     private static final int MAX_CACHE_SIZE = 10 * 1024 * 1024; // 10MB
 
+    /**
+     * 缓存的原始请求体（byte[]）在 exchange 属性中的键
+     * 适配器据此在原始请求体上直接改写转发，修改请求体的过滤器需同步更新该属性
+     */
+    public static final String CACHED_BODY_ATTRIBUTE = CachedBodyWebFilter.class.getName() + ".body";
+
     /**
      * 设置比 HIGHEST_PRECEDENCE 更高的优先级，确保在所有过滤器之前执行
      */
@@ -123,6 +129,7 @@ public class CachedBodyWebFilter implements WebFilter, Ordered {
                         }
                         byte[] bytes = new byte[size];
                         dataBuffer.read(bytes);
+                        exchange.getAttributes().put(CACHED_BODY_ATTRIBUTE, bytes);
                         ServerHttpRequest cachedRequest = new ServerHttpRequestDecorator(request) {
                             @Override
                             public Flux<DataBuffer> getBody() {
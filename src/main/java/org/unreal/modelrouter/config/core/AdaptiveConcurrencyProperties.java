@@ -0,0 +1,89 @@
+package org.unreal.modelrouter.config.core;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 实例级自适应并发限制配置属性
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@ConfigurationProperties(prefix = "jairouter.adaptive-concurrency")
+public class AdaptiveConcurrencyProperties {
+
+    /**
+     * 是否启用实例级自适应并发限制
+     */
+    private boolean enabled = false;
+
+    /**
+     * 限制算法
+     */
+    private Algorithm algorithm = Algorithm.GRADIENT;
+
+    /**
+     * 初始并发上限
+     */
+    private int initialLimit = 20;
+
+    /**
+     * 并发上限的下界
+     */
+    private int minLimit = 1;
+
+    /**
+     * 并发上限的上界
+     */
+    private int maxLimit = 200;
+
+    /**
+     * 实例饱和时请求的最长排队时间（毫秒），0 表示不排队直接拒绝
+     */
+    private long queueTimeoutMs = 50;
+
+    /**
+     * 每个实例的最大排队请求数，超出后直接拒绝
+     */
+    private int maxQueueSize = 100;
+
+    /**
+     * AIMD：出错或超时时上限的乘性缩减比例
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * AIMD：响应时间超过该值（毫秒）视为过载
+     */
+    private long timeoutMs = 30000;
+
+    /**
+     * Gradient：短期响应时间超过长期基线的容忍倍数，超出后开始缩减上限
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Gradient：新上限的平滑系数（0-1）
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Gradient：基线响应时间在轻载时向新样本上移的样本窗口
+     */
+    private int longWindow = 600;
+
+    /**
+     * 限制算法
+     */
+    public enum Algorithm {
+        /**
+         * 加性增、乘性减：成功时上限加一，出错或超时时按比例缩减
+         */
+        AIMD,
+        /**
+         * 梯度（Vegas 风格）：按无排队基线与短期响应时间之比调整上限，排队导致延迟上升时提前收缩
+         */
+        GRADIENT
+    }
+}
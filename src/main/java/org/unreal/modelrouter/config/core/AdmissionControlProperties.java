@@ -0,0 +1,77 @@
+package org.unreal.modelrouter.config.core;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 服务级准入排队（优先级通道 + 加权公平排队）配置属性
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@ConfigurationProperties(prefix = "jairouter.admission-control")
+public class AdmissionControlProperties {
+
+    /**
+     * 是否启用服务级准入排队
+     */
+    private boolean enabled = false;
+
+    /**
+     * 每个服务类型同时放行到下游的最大请求数
+     */
+    private int maxConcurrent = 64;
+
+    /**
+     * 按服务类型覆盖最大放行数，键为服务类型名（如 chat、embedding）
+     */
+    private Map<String, Integer> serviceMaxConcurrent = new HashMap<>();
+
+    /**
+     * 每个服务类型的最大排队请求数（所有通道合计）
+     */
+    private int maxQueueLength = 256;
+
+    /**
+     * 最长排队时间（毫秒），超时的请求直接返回 503，不再占用下游
+     */
+    private long maxQueueWaitMs = 3000;
+
+    /**
+     * 优先级通道，按优先级从高到低排列
+     */
+    private List<String> lanes = new ArrayList<>(List.of("interactive", "standard", "batch"));
+
+    /**
+     * 未能从 API Key、路径或请求头确定通道时使用的默认通道
+     */
+    private String defaultLane = "standard";
+
+    /**
+     * 按请求路径前缀指定通道，API Key 未指定通道时生效
+     */
+    private Map<String, String> pathLanes = new LinkedHashMap<>();
+
+    /**
+     * 客户端指定通道的请求头，只能把请求降到更低优先级的通道
+     */
+    private String laneHeader = "X-Priority-Lane";
+
+    /**
+     * 服务类型的最大放行数
+     *
+     * @param serviceType 服务类型名
+     * @return 最大放行数
+     */
+    public int maxConcurrentFor(final String serviceType) {
+        Integer override = serviceMaxConcurrent.get(serviceType);
+        return Math.max(1, override != null ? override : maxConcurrent);
+    }
+}
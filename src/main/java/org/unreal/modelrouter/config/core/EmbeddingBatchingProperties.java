@@ -0,0 +1,50 @@
+package org.unreal.modelrouter.config.core;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedding 请求合并配置属性
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@ConfigurationProperties(prefix = "jairouter.embedding-batching")
+public class EmbeddingBatchingProperties {
+
+    /**
+     * 是否启用 Embedding 请求合并
+     */
+    private boolean enabled = false;
+
+    /**
+     * 启用合并的模型名称，未列出的模型不合并
+     */
+    private List<String> models = new ArrayList<>();
+
+    /**
+     * 第一个请求进入批次后的最长等待时间（毫秒）
+     */
+    private long maxWaitMs = 5;
+
+    /**
+     * 单批最多合并的输入条数，达到后立即发送
+     */
+    private int maxBatchSize = 32;
+
+    /**
+     * 单批输入的估算 token 上限，加入下一个请求会超出时先发送当前批次
+     */
+    private long maxBatchTokens = 8192;
+
+    /**
+     * 指定模型是否启用合并
+     */
+    public boolean isEnabledFor(final String model) {
+        return enabled && model != null && models.contains(model);
+    }
+}
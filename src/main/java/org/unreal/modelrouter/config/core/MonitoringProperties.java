@@ -88,6 +88,10 @@ public class MonitoringProperties {
         private boolean asyncProcessing = true;
         private int batchSize = 100;
         private int bufferSize = 1000;
+        private int maxMeterHandles = 2000;
+        private int latencyWindowSeconds = 300;
+        private int latencyWindowSlots = 5;
+        private int maxLatencyStatsKeys = 500;
 
         // Getters and setters
         public boolean isAsyncProcessing() {
@@ -113,6 +117,38 @@ public class MonitoringProperties {
         public void setBufferSize(final int bufferSize) {
             this.bufferSize = bufferSize;
         }
+
+        public int getMaxMeterHandles() {
+            return maxMeterHandles;
+        }
+
+        public void setMaxMeterHandles(final int maxMeterHandles) {
+            this.maxMeterHandles = maxMeterHandles;
+        }
+
+        public int getLatencyWindowSeconds() {
+            return latencyWindowSeconds;
+        }
+
+        public void setLatencyWindowSeconds(final int latencyWindowSeconds) {
+            this.latencyWindowSeconds = latencyWindowSeconds;
+        }
+
+        public int getLatencyWindowSlots() {
+            return latencyWindowSlots;
+        }
+
+        public void setLatencyWindowSlots(final int latencyWindowSlots) {
+            this.latencyWindowSlots = latencyWindowSlots;
+        }
+
+        public int getMaxLatencyStatsKeys() {
+            return maxLatencyStatsKeys;
+        }
+
+        public void setMaxLatencyStatsKeys(final int maxLatencyStatsKeys) {
+            this.maxLatencyStatsKeys = maxLatencyStatsKeys;
+        }
     }
 
     public static class Thresholds {
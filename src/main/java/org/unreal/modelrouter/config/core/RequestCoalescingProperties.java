@@ -0,0 +1,33 @@
+package org.unreal.modelrouter.config.core;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 相同请求合并（single-flight）配置属性
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@ConfigurationProperties(prefix = "jairouter.request-coalescing")
+public class RequestCoalescingProperties {
+
+    /**
+     * 是否合并并发的相同请求
+     */
+    private boolean enabled = true;
+
+    /**
+     * 参与合并的服务类型，chat 只合并 temperature 为 0 的请求
+     */
+    private List<String> serviceTypes = new ArrayList<>(List.of("chat", "embedding", "rerank"));
+
+    /**
+     * 参与合并的请求体最大字节数，更大的请求不计算摘要直接转发
+     */
+    private int maxBodyBytes = 1024 * 1024;
+}
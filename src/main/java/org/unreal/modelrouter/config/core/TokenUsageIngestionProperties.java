@@ -0,0 +1,59 @@
+package org.unreal.modelrouter.config.core;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Token 使用量异步写入配置属性
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@ConfigurationProperties(prefix = "jairouter.token-usage.ingestion")
+public class TokenUsageIngestionProperties {
+
+    /**
+     * 是否启用异步批量写入，关闭时退化为调用线程同步写入
+     */
+    private boolean enabled = true;
+
+    /**
+     * 队列容量，超出后按溢出策略丢弃
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 单批写入的最大记录数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 未攒满一批时的最长等待时间（毫秒）
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * 关闭时等待队列排空的最长时间（毫秒）
+     */
+    private long shutdownTimeoutMs = 5000;
+
+    /**
+     * 队列满时的溢出策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+    /**
+     * 溢出策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃新到达的记录
+         */
+        DROP_NEWEST,
+        /**
+         * 丢弃队列中最旧的记录，为新记录腾出空间
+         */
+        DROP_OLDEST
+    }
+}
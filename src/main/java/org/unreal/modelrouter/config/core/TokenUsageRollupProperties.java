@@ -0,0 +1,46 @@
+package org.unreal.modelrouter.config.core;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Token 使用量预聚合配置属性
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@ConfigurationProperties(prefix = "jairouter.token-usage.rollup")
+public class TokenUsageRollupProperties {
+
+    /**
+     * 是否启用预聚合，关闭后统计接口直接查询原始表
+     */
+    private boolean enabled = true;
+
+    /**
+     * 原始记录保留天数，0 表示不自动清理
+     * 统计接口只在查询区间首尾不足一分钟的部分读取原始表，原始记录可以比聚合数据保留得更短
+     */
+    private int rawRetentionDays = 0;
+
+    /**
+     * 分钟粒度聚合保留天数，应覆盖常用统计区间（默认 7 天）
+     */
+    private int minuteRetentionDays = 8;
+
+    /**
+     * 小时粒度聚合保留天数
+     */
+    private int hourRetentionDays = 400;
+
+    /**
+     * 天粒度聚合保留天数，0 表示永久保留
+     */
+    private int dayRetentionDays = 0;
+
+    /**
+     * 过期数据清理的 cron 表达式
+     */
+    private String cleanupCron = "0 20 3 * * *";
+}
@@ -0,0 +1,132 @@
+package org.unreal.modelrouter.monitor.callhistory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryEntity;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * API 调用历史批量写入器
+ *
+ * ApiCallHistoryEntity 使用 IDENTITY 主键，Hibernate 需要逐条执行 INSERT 取回主键，无法合并为 JDBC batch。
+ * 调用历史写入后不需要在内存中引用主键，这里绕过持久化上下文，用一条不含 id 列的预编译语句做 JDBC 批量插入，
+ * 主键仍由数据库自增列分配，与已有数据和 JPA 单条写入路径兼容。
+ * 在调用方的事务内执行时与 JPA 共用同一个连接。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiCallHistoryBulkWriter {
+
+    /**
+     * 插入列，顺序与 {@link #bind(PreparedStatement, ApiCallHistoryEntity)} 一致
+     */
+    static final List<String> COLUMNS = List.of(
+            "trace_id", "request_id", "request_method", "request_path", "request_body_summary", "content_type",
+            "service_type", "model_name", "provider", "instance_name", "instance_url",
+            "http_status_code", "response_body_summary",
+            "prompt_tokens", "completion_tokens", "total_tokens",
+            "response_time_ms", "is_success", "error_code", "error_message",
+            "api_key_id", "user_id", "client_ip", "user_agent",
+            "rate_limited", "circuit_broken",
+            "created_at", "request_date", "request_hour");
+
+    static final String INSERT_SQL = "INSERT INTO api_call_history (" + String.join(", ", COLUMNS)
+            + ") VALUES (" + String.join(", ", COLUMNS.stream().map(column -> "?").toList()) + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入调用历史
+     *
+     * @param entities 待插入的实体，id 会被忽略
+     * @return 插入的记录数
+     */
+    public int write(final List<ApiCallHistoryEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return 0;
+        }
+        // 与 JPA 写入路径一致，补齐创建时间和按日/按小时统计字段
+        entities.forEach(ApiCallHistoryEntity::prePersist);
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                bind(ps, entities.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entities.size();
+            }
+        });
+        log.debug("Bulk inserted {} API call history entries", entities.size());
+        return entities.size();
+    }
+
+    private static void bind(final PreparedStatement ps, final ApiCallHistoryEntity entity) throws SQLException {
+        int i = 1;
+        ps.setString(i++, entity.getTraceId());
+        ps.setString(i++, entity.getRequestId());
+        ps.setString(i++, entity.getRequestMethod());
+        ps.setString(i++, entity.getRequestPath());
+        ps.setString(i++, entity.getRequestBodySummary());
+        ps.setString(i++, entity.getContentType());
+        ps.setString(i++, entity.getServiceType());
+        ps.setString(i++, entity.getModelName());
+        ps.setString(i++, entity.getProvider());
+        ps.setString(i++, entity.getInstanceName());
+        ps.setString(i++, entity.getInstanceUrl());
+        setInteger(ps, i++, entity.getHttpStatusCode());
+        ps.setString(i++, entity.getResponseBodySummary());
+        ps.setLong(i++, valueOrZero(entity.getPromptTokens()));
+        ps.setLong(i++, valueOrZero(entity.getCompletionTokens()));
+        ps.setLong(i++, valueOrZero(entity.getTotalTokens()));
+        setLong(ps, i++, entity.getResponseTimeMs());
+        ps.setBoolean(i++, !Boolean.FALSE.equals(entity.getIsSuccess()));
+        ps.setString(i++, entity.getErrorCode());
+        ps.setString(i++, entity.getErrorMessage());
+        ps.setString(i++, entity.getApiKeyId());
+        ps.setString(i++, entity.getUserId());
+        ps.setString(i++, entity.getClientIp());
+        ps.setString(i++, entity.getUserAgent());
+        ps.setBoolean(i++, Boolean.TRUE.equals(entity.getRateLimited()));
+        ps.setBoolean(i++, Boolean.TRUE.equals(entity.getCircuitBroken()));
+        ps.setTimestamp(i++, Timestamp.valueOf(entity.getCreatedAt()));
+        ps.setString(i++, entity.getRequestDate());
+        ps.setInt(i, entity.getRequestHour());
+    }
+
+    private static long valueOrZero(final Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static void setInteger(final PreparedStatement ps, final int index, final Integer value)
+            throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setLong(final PreparedStatement ps, final int index, final Long value)
+            throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
@@ -190,6 +190,7 @@ public class ApiCallHistoryController {
         dashboard.put("recorderStats", Map.of(
                 "bufferSize", callHistoryRecorder.getBufferSize(),
                 "totalRecords", callHistoryRecorder.getTotalRecords(),
+                "sampledRecords", callHistoryRecorder.getSampledRecords(),
                 "droppedRecords", callHistoryRecorder.getDroppedRecords()
         ));
 
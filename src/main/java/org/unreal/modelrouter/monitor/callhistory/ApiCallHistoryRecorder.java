@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -21,6 +22,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * API 调用历史异步记录器
  * 使用有界队列和批量写入，避免阻塞请求处理线程
  *
+ * 写入线程跟不上时：批次大小随队列积压从 batchSize 增大到 maxBatchSize，摊薄每次写库的开销；
+ * 缓冲区占用超过 samplingThreshold 后成功调用按 successSampleRate 采样保留，失败调用全部保留，
+ * 只有缓冲区完全写满时才丢弃失败调用。
+ *
  * @author JAiRouter Team
  * @since 2.7.8
  */
@@ -38,6 +43,8 @@ public class ApiCallHistoryRecorder {
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicLong droppedRecords = new AtomicLong(0);
     private final AtomicLong totalRecords = new AtomicLong(0);
+    private final AtomicLong sampledRecords = new AtomicLong(0);
+    private int samplingWatermark;
 
     @PostConstruct
     public void init() {
@@ -47,14 +54,17 @@ public class ApiCallHistoryRecorder {
         }
 
         buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        samplingWatermark = (int) Math.ceil(properties.getBufferSize() * properties.getSamplingThreshold());
         running.set(true);
 
         consumerThread = new Thread(this::consumeRecords, "call-history-writer");
         consumerThread.setDaemon(true);
         consumerThread.start();
 
-        log.info("API call history recorder initialized: bufferSize={}, batchSize={}, batchWaitMs={}",
-                properties.getBufferSize(), properties.getBatchSize(), properties.getBatchWaitMs());
+        log.info("API call history recorder initialized: bufferSize={}, batchSize={}, maxBatchSize={}, "
+                        + "batchWaitMs={}, samplingWatermark={}",
+                properties.getBufferSize(), properties.getBatchSize(), properties.getMaxBatchSize(),
+                properties.getBatchWaitMs(), samplingWatermark);
     }
 
     @PreDestroy
@@ -70,13 +80,13 @@ public class ApiCallHistoryRecorder {
         }
         // 刷新剩余数据
         flushBuffer();
-        log.info("API call history recorder stopped: totalRecords={}, droppedRecords={}",
-                totalRecords.get(), droppedRecords.get());
+        log.info("API call history recorder stopped: totalRecords={}, sampledRecords={}, droppedRecords={}",
+                totalRecords.get(), sampledRecords.get(), droppedRecords.get());
     }
 
     /**
      * 异步记录调用历史
-     * 如果缓冲区满，会丢弃记录（debug日志）
+     * 缓冲区高水位时成功调用按采样率保留，缓冲区满时丢弃记录（debug日志）
      *
      * @param record 调用记录
      */
@@ -86,6 +96,11 @@ public class ApiCallHistoryRecorder {
         }
 
         totalRecords.incrementAndGet();
+        if (!isFailure(record) && buffer.size() >= samplingWatermark
+                && ThreadLocalRandom.current().nextDouble() >= properties.getSuccessSampleRate()) {
+            sampledRecords.incrementAndGet();
+            return;
+        }
         if (!buffer.offer(record)) {
             droppedRecords.incrementAndGet();
             if (log.isDebugEnabled()) {
@@ -136,6 +151,35 @@ public class ApiCallHistoryRecorder {
         return totalRecords.get();
     }
 
+    /**
+     * 获取高水位时被采样丢弃的成功调用数
+     */
+    public long getSampledRecords() {
+        return sampledRecords.get();
+    }
+
+    /**
+     * 失败、被限流或熔断的调用不参与采样
+     */
+    static boolean isFailure(CallHistoryRecordDTO record) {
+        return Boolean.FALSE.equals(record.getIsSuccess())
+                || Boolean.TRUE.equals(record.getRateLimited())
+                || Boolean.TRUE.equals(record.getCircuitBroken())
+                || (record.getHttpStatusCode() != null && record.getHttpStatusCode() >= 400);
+    }
+
+    /**
+     * 按积压深度计算本批次的目标大小：积压不超过 batchSize 时按 batchSize 攒批，
+     * 积压更深时一次取走全部积压，最多 maxBatchSize 条
+     *
+     * @param backlog 已取出和仍在队列中的记录数
+     * @return 目标批次大小
+     */
+    int targetBatchSize(int backlog) {
+        int batchSize = properties.getBatchSize();
+        return Math.max(batchSize, Math.min(backlog, Math.max(batchSize, properties.getMaxBatchSize())));
+    }
+
     /**
      * 消费记录的线程逻辑
      */
@@ -149,6 +193,9 @@ public class ApiCallHistoryRecorder {
                 CallHistoryRecordDTO record = buffer.poll(1, TimeUnit.SECONDS);
                 if (record != null) {
                     batch.add(record);
+                    // 一次取走已积压的记录，避免逐条出队
+                    int target = targetBatchSize(batch.size() + buffer.size());
+                    buffer.drainTo(batch, target - batch.size());
                 }
 
                 // 批量写入条件：批次满 或 等待超时且有数据
@@ -2,11 +2,14 @@ package org.unreal.modelrouter.monitor.callhistory;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.unreal.modelrouter.monitor.callhistory.config.CallHistoryProperties;
 import org.unreal.modelrouter.monitor.callhistory.dto.CallHistoryQueryDTO;
 import org.unreal.modelrouter.monitor.callhistory.dto.CallHistoryRecordDTO;
@@ -35,8 +38,12 @@ public class ApiCallHistoryService {
 
     private final ApiCallHistoryRepository repository;
     private final CallHistoryProperties properties;
+    private final ApiCallHistoryBulkWriter bulkWriter;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    @Autowired(required = false)
+    private CallHistoryRollupService rollupService;
+
     /**
      * 记录 API 调用
      *
@@ -46,8 +53,11 @@ public class ApiCallHistoryService {
     @Transactional
     public ApiCallHistoryEntity record(CallHistoryRecordDTO dto) {
         try {
-            ApiCallHistoryEntity entity = buildEntity(dto);
-            return repository.save(entity);
+            ApiCallHistoryEntity entity = repository.save(buildEntity(dto));
+            if (entity != null) {
+                accumulateAfterCommit(List.of(entity));
+            }
+            return entity;
         } catch (Exception e) {
             log.warn("Failed to record API call history: {}", e.getMessage());
             return null;
@@ -69,13 +79,48 @@ public class ApiCallHistoryService {
             List<ApiCallHistoryEntity> entities = records.stream()
                     .map(this::buildEntity)
                     .collect(Collectors.toList());
-            repository.saveAll(entities);
+            if (bulkWriter != null && properties.isBulkInsertEnabled()) {
+                // IDENTITY 主键下 saveAll 会逐条 INSERT，批量写入走 JDBC batch
+                bulkWriter.write(entities);
+            } else {
+                repository.saveAll(entities);
+            }
+            accumulateAfterCommit(entities);
             log.debug("Batch recorded {} API call history entries", entities.size());
         } catch (Exception e) {
             log.warn("Failed to batch record API call history: {}", e.getMessage());
         }
     }
 
+    /**
+     * 原始记录提交后在独立事务中累加预聚合
+     * 预聚合失败不能让写入原始记录的事务回滚；失败时暂停预聚合，统计回退到原始查询，
+     * 缺失的部分在下次启动时从聚合高水位补齐
+     */
+    private void accumulateAfterCommit(final List<ApiCallHistoryEntity> entities) {
+        if (rollupService == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(entities);
+                }
+            });
+        } else {
+            accumulate(entities);
+        }
+    }
+
+    private void accumulate(final List<ApiCallHistoryEntity> entities) {
+        try {
+            rollupService.accumulate(entities);
+        } catch (Exception e) {
+            rollupService.suspend(e);
+        }
+    }
+
     /**
      * 分页查询调用历史
      *
@@ -193,27 +238,23 @@ public class ApiCallHistoryService {
                 .endTime(effectiveEndTime.format(FORMATTER))
                 .build();
 
+        // 预聚合可用时只读取聚合桶，失败时回退到原始查询
+        if (rollupService != null && rollupService.isReady()) {
+            try {
+                fillFromRollup(dto, effectiveStartTime, effectiveEndTime);
+                return dto;
+            } catch (Exception e) {
+                log.warn("Failed to get statistics from rollup, falling back to raw records: {}", e.getMessage());
+            }
+        }
+
         // 汇总统计 - 使用独立查询避免 H2 Object[] 映射问题
         try {
-            long totalReqs = repository.countAllInRange(effectiveStartTime, effectiveEndTime);
-            long totalToks = repository.sumTokensInRange(effectiveStartTime, effectiveEndTime);
-            double avgResp = repository.avgResponseTimeInRange(effectiveStartTime, effectiveEndTime);
-            long successReqs = repository.countSuccessInRange(effectiveStartTime, effectiveEndTime);
-
-            dto.setTotalRequests(totalReqs);
-            dto.setTotalTokens(totalToks);
-            dto.setAvgResponseTimeMs(avgResp);
-            dto.setSuccessfulRequests(successReqs);
-
-            if (totalReqs > 0) {
-                dto.setSuccessRate((double) successReqs / totalReqs * 100);
-                dto.setFailedRequests(totalReqs - successReqs);
-                dto.setAvgTokensPerRequest((double) totalToks / totalReqs);
-            } else {
-                dto.setSuccessRate(0.0);
-                dto.setFailedRequests(0L);
-                dto.setAvgTokensPerRequest(0.0);
-            }
+            setSummary(dto,
+                    repository.countAllInRange(effectiveStartTime, effectiveEndTime),
+                    repository.sumTokensInRange(effectiveStartTime, effectiveEndTime),
+                    repository.avgResponseTimeInRange(effectiveStartTime, effectiveEndTime),
+                    repository.countSuccessInRange(effectiveStartTime, effectiveEndTime));
         } catch (Exception e) {
             log.warn("Failed to get summary statistics: {}", e.getMessage());
         }
@@ -275,6 +316,42 @@ public class ApiCallHistoryService {
         return dto;
     }
 
+    /**
+     * 从预聚合数据填充统计结果，各分组与原始查询的结果结构一致
+     */
+    private void fillFromRollup(CallHistoryStatisticsDTO dto, LocalDateTime startTime, LocalDateTime endTime) {
+        CallHistoryAggregate aggregate = rollupService.aggregate(startTime, endTime);
+        setSummary(dto, aggregate.getRequestCount(), aggregate.getTotalTokens(),
+                aggregate.getAvgResponseTimeMs(), aggregate.getSuccessCount());
+        dto.setByModel(safeMapByModel(aggregate.countByModel()));
+        dto.setByServiceType(safeMapByServiceType(aggregate.countByServiceType()));
+        dto.setByDay(safeMapByDay(aggregate.countByDay()));
+        dto.setByStatusCode(safeMapByStatusCode(aggregate.countByStatusCode()));
+        dto.setByErrorCode(safeMapByErrorCode(aggregate.countByErrorCode()));
+
+        // 按小时统计与原始查询一致，取结束时间所在的整天
+        LocalDateTime day = endTime.toLocalDate().atStartOfDay();
+        dto.setByHour(safeMapByHour(rollupService.aggregate(day, day.plusDays(1)).countByHour()));
+    }
+
+    private void setSummary(CallHistoryStatisticsDTO dto, long totalReqs, long totalToks,
+                            double avgResp, long successReqs) {
+        dto.setTotalRequests(totalReqs);
+        dto.setTotalTokens(totalToks);
+        dto.setAvgResponseTimeMs(avgResp);
+        dto.setSuccessfulRequests(successReqs);
+
+        if (totalReqs > 0) {
+            dto.setSuccessRate((double) successReqs / totalReqs * 100);
+            dto.setFailedRequests(totalReqs - successReqs);
+            dto.setAvgTokensPerRequest((double) totalToks / totalReqs);
+        } else {
+            dto.setSuccessRate(0.0);
+            dto.setFailedRequests(0L);
+            dto.setAvgTokensPerRequest(0.0);
+        }
+    }
+
     /**
      * 清理过期数据
      *
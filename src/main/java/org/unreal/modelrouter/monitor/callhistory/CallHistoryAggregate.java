@@ -0,0 +1,169 @@
+package org.unreal.modelrouter.monitor.callhistory;
+
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryRollupEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * API 调用历史区间汇总结果
+ *
+ * 由 {@link CallHistoryRollupService} 把各查询段的聚合桶合并而成，
+ * 各分组方法返回的行结构与 ApiCallHistoryRepository 对应的统计查询一致，
+ * 便于 {@link ApiCallHistoryService} 复用同一套结果转换逻辑。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class CallHistoryAggregate {
+
+    private static final int COUNT = 0;
+    private static final int SUCCESS = 1;
+    private static final int TOKENS = 2;
+    private static final int RESPONSE_TIME_SUM = 3;
+    private static final int RESPONSE_TIME_COUNT = 4;
+
+    /**
+     * 汇总及各分组的度量，值为 [count, success, tokens, responseTimeSum, responseTimeCount]
+     */
+    private final long[] summary = new long[5];
+    private final Map<String, long[]> byModel = new HashMap<>();
+    private final Map<String, long[]> byServiceType = new HashMap<>();
+    private final TreeMap<Integer, long[]> byStatusCode = new TreeMap<>();
+    private final Map<String, long[]> byErrorCode = new HashMap<>();
+    private final TreeMap<LocalDate, long[]> byDay = new TreeMap<>();
+    private final TreeMap<Integer, long[]> byHour = new TreeMap<>();
+
+    /**
+     * 合并一个聚合桶
+     *
+     * @param bucket 聚合桶，维度缺失时为空字符串或 0
+     */
+    void add(final ApiCallHistoryRollupEntity bucket) {
+        long[] values = {
+            value(bucket.getRequestCount()),
+            value(bucket.getSuccessCount()),
+            value(bucket.getTotalTokens()),
+            value(bucket.getResponseTimeSum()),
+            value(bucket.getResponseTimeCount())
+        };
+        merge(summary, values);
+        merge(byModel, bucket.getModelName(), values);
+        merge(byServiceType, bucket.getServiceType(), values);
+        merge(byStatusCode, bucket.getHttpStatusCode() != null ? bucket.getHttpStatusCode() : 0, values);
+        merge(byErrorCode, bucket.getErrorCode(), values);
+        merge(byDay, bucket.getBucketStart().toLocalDate(), values);
+        merge(byHour, bucket.getBucketStart().getHour(), values);
+    }
+
+    public long getRequestCount() {
+        return summary[COUNT];
+    }
+
+    public long getSuccessCount() {
+        return summary[SUCCESS];
+    }
+
+    public long getTotalTokens() {
+        return summary[TOKENS];
+    }
+
+    /**
+     * 平均响应时间（毫秒），无数据时为 0
+     */
+    public double getAvgResponseTimeMs() {
+        return avgResponseTime(summary);
+    }
+
+    /**
+     * 按模型统计：[modelName, count, tokens, avgResponseTimeMs, successCount]，按调用次数降序
+     */
+    public List<Object[]> countByModel() {
+        List<Object[]> rows = new ArrayList<>(byModel.size());
+        byModel.forEach((model, v) -> rows.add(
+                new Object[]{model, v[COUNT], v[TOKENS], avgResponseTime(v), v[SUCCESS]}));
+        rows.sort(byCountDesc());
+        return rows;
+    }
+
+    /**
+     * 按服务类型统计：[serviceType, count, tokens, avgResponseTimeMs]，按调用次数降序
+     */
+    public List<Object[]> countByServiceType() {
+        List<Object[]> rows = new ArrayList<>(byServiceType.size());
+        byServiceType.forEach((type, v) -> rows.add(
+                new Object[]{type, v[COUNT], v[TOKENS], avgResponseTime(v)}));
+        rows.sort(byCountDesc());
+        return rows;
+    }
+
+    /**
+     * 按日期统计：[yyyy-MM-dd, count, tokens]
+     */
+    public List<Object[]> countByDay() {
+        List<Object[]> rows = new ArrayList<>(byDay.size());
+        byDay.forEach((date, v) -> rows.add(new Object[]{date.toString(), v[COUNT], v[TOKENS]}));
+        return rows;
+    }
+
+    /**
+     * 按一天中的小时统计：[hour, count]
+     */
+    public List<Object[]> countByHour() {
+        List<Object[]> rows = new ArrayList<>(byHour.size());
+        byHour.forEach((hour, v) -> rows.add(new Object[]{hour, v[COUNT]}));
+        return rows;
+    }
+
+    /**
+     * HTTP 状态码分布：[statusCode, count]，状态码缺失时为 0
+     */
+    public List<Object[]> countByStatusCode() {
+        List<Object[]> rows = new ArrayList<>(byStatusCode.size());
+        byStatusCode.forEach((code, v) -> rows.add(new Object[]{code, v[COUNT]}));
+        return rows;
+    }
+
+    /**
+     * 失败调用的错误码分布：[errorCode, count]，按次数降序
+     * 空字符串代表错误码缺失，与原始查询的 IS NOT NULL 条件保持一致
+     */
+    public List<Object[]> countByErrorCode() {
+        List<Object[]> rows = new ArrayList<>(byErrorCode.size());
+        byErrorCode.forEach((code, v) -> {
+            long failures = v[COUNT] - v[SUCCESS];
+            if (!code.isEmpty() && failures > 0) {
+                rows.add(new Object[]{code, failures});
+            }
+        });
+        rows.sort(byCountDesc());
+        return rows;
+    }
+
+    private static double avgResponseTime(final long[] v) {
+        return v[RESPONSE_TIME_COUNT] > 0 ? (double) v[RESPONSE_TIME_SUM] / v[RESPONSE_TIME_COUNT] : 0.0;
+    }
+
+    private static Comparator<Object[]> byCountDesc() {
+        return Comparator.comparingLong((Object[] row) -> (Long) row[1]).reversed();
+    }
+
+    private static <K> void merge(final Map<K, long[]> groups, final K key, final long[] values) {
+        merge(groups.computeIfAbsent(key, k -> new long[values.length]), values);
+    }
+
+    private static void merge(final long[] target, final long[] values) {
+        for (int i = 0; i < values.length; i++) {
+            target[i] += values[i];
+        }
+    }
+
+    private static long value(final Long value) {
+        return value != null ? value : 0L;
+    }
+}
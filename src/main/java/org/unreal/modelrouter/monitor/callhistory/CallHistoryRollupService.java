@@ -0,0 +1,282 @@
+package org.unreal.modelrouter.monitor.callhistory;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.unreal.modelrouter.monitor.callhistory.config.CallHistoryProperties;
+import org.unreal.modelrouter.monitor.service.TokenUsageRollupPlanner;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryEntity;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryRollupEntity;
+import org.unreal.modelrouter.persistence.jpa.repository.ApiCallHistoryRepository;
+import org.unreal.modelrouter.persistence.jpa.repository.ApiCallHistoryRollupRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API 调用历史预聚合服务
+ *
+ * 记录器每次刷新批次、原始记录提交后，在独立事务中把这批记录累加到分钟/小时聚合桶，
+ * 按模型、服务类型、状态码和错误码分组。累加失败不影响原始记录：预聚合随即暂停，统计回退到原始查询。统计查询按 {@link TokenUsageRollupPlanner} 的规划读取聚合桶，
+ * 天粒度的段改读小时桶；只有首尾不足一分钟的部分（包括仍在写入的当前分钟）读取原始表，
+ * 一周的统计只读取几百行聚合数据。
+ *
+ * 最新聚合桶所在的分钟里可能还有没累加的记录（累加失败的批次、提交后未及累加就退出的进程），
+ * 因此启动时不信任聚合表的末尾：从最新聚合桶前一分钟所在的整点起，删除此后的分钟桶和小时桶，
+ * 应用就绪后由原始记录重新计算这段时间到本次启动之间的聚合桶。预聚合关闭、进程异常退出或累加失败暂停期间
+ * 漏掉的记录都在这一步补齐，聚合表为空时即为全量回填。补齐完成前统计仍走原始查询。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CallHistoryRollupService implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final ApiCallHistoryRollupRepository rollupRepository;
+    private final ApiCallHistoryRepository callHistoryRepository;
+    private final CallHistoryProperties properties;
+
+    /**
+     * 没有任何聚合行时的回填起点
+     */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * 服务启动时间，此前写入的原始记录由回填统计
+     */
+    private volatile LocalDateTime startedAt;
+    /**
+     * 重新计算的起点，此后的聚合桶已在启动时删除，由回填按原始记录重建
+     */
+    private volatile LocalDateTime recomputeFrom;
+    private volatile boolean ready;
+    private volatile boolean suspended;
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isRollupEnabled()) {
+            log.info("Call history rollup is disabled, statistics are computed from raw records");
+            return;
+        }
+        startedAt = LocalDateTime.now();
+        recomputeFrom = recomputeFrom();
+        if (recomputeFrom.isAfter(BEGINNING)) {
+            // 在服务开始处理请求之前删除，本次启动后的累加不会被删掉
+            int deleted = rollupRepository.deleteBucketsFrom(recomputeFrom);
+            log.info("Call history rollup buckets from {} will be recomputed from raw records: deleted={}",
+                    recomputeFrom, deleted);
+        }
+    }
+
+    /**
+     * 应用就绪后回填重新计算起点之后、本次启动之前写入的原始记录
+     */
+    @Override
+    @Transactional
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        if (!properties.isRollupEnabled()) {
+            return;
+        }
+        if (recomputeFrom.isBefore(startedAt)) {
+            long start = System.currentTimeMillis();
+            int minutes = rollupRepository.backfillMinutes(recomputeFrom, startedAt);
+            int hours = rollupRepository.backfillHours(recomputeFrom, startedAt);
+            log.info("Call history rollup backfilled from {}: minuteBuckets={}, hourBuckets={}, elapsedMs={}",
+                    recomputeFrom, minutes, hours, System.currentTimeMillis() - start);
+        }
+        ready = !suspended;
+    }
+
+    /**
+     * 重新计算的起点：最新分钟桶（没有分钟桶时为最新小时桶）前一分钟所在的整点
+     * 同时提交的批次跨分钟时，较早的一批可能已累加失败，多退一分钟把它也包含进来；
+     * 取整点使分钟桶和小时桶从同一起点重建
+     */
+    private LocalDateTime recomputeFrom() {
+        LocalDateTime latest = rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.MINUTE);
+        if (latest == null) {
+            latest = rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.HOUR);
+        }
+        return latest != null ? latest.minusMinutes(1).truncatedTo(ChronoUnit.HOURS) : BEGINNING;
+    }
+
+    /**
+     * 聚合数据是否可用于统计查询
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 暂停预聚合：某批记录累加失败后聚合表不再完整，统计改走原始查询，后续批次也不再累加
+     *
+     * @param cause 累加失败的原因
+     */
+    public void suspend(final Exception cause) {
+        if (!suspended) {
+            suspended = true;
+            ready = false;
+            log.warn("Call history rollup suspended, statistics fall back to raw records until restart: {}",
+                    cause.getMessage());
+        }
+    }
+
+    /**
+     * 把一批已提交的原始记录累加到各粒度聚合桶
+     * 由写入方在原始记录提交后调用，使用独立事务；批内先在内存合并，每个桶只执行一次 MERGE
+     *
+     * @param entities 已保存的原始记录，createdAt 已填充
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void accumulate(final List<ApiCallHistoryEntity> entities) {
+        if (!properties.isRollupEnabled() || suspended || entities == null || entities.isEmpty()) {
+            return;
+        }
+        Map<ApiCallHistoryRollupEntity, ApiCallHistoryRollupEntity> buckets = new LinkedHashMap<>();
+        for (ApiCallHistoryEntity entity : entities) {
+            LocalDateTime createdAt = entity.getCreatedAt() != null ? entity.getCreatedAt() : LocalDateTime.now();
+            addToBucket(buckets, entity, ApiCallHistoryRollupEntity.MINUTE, createdAt.truncatedTo(ChronoUnit.MINUTES));
+            addToBucket(buckets, entity, ApiCallHistoryRollupEntity.HOUR, createdAt.truncatedTo(ChronoUnit.HOURS));
+        }
+        for (ApiCallHistoryRollupEntity b : buckets.values()) {
+            rollupRepository.upsert(b.getGranularity(), b.getBucketStart(), b.getModelName(), b.getServiceType(),
+                    b.getHttpStatusCode(), b.getErrorCode(), b.getRequestCount(), b.getSuccessCount(),
+                    b.getTotalTokens(), b.getResponseTimeSum(), b.getResponseTimeCount());
+        }
+    }
+
+    /**
+     * 汇总 [startTime, endTime) 内的调用历史
+     *
+     * @param startTime 开始时间
+     * @param endTime   结束时间
+     * @return 区间汇总结果
+     */
+    @Transactional(readOnly = true)
+    public CallHistoryAggregate aggregate(final LocalDateTime startTime, final LocalDateTime endTime) {
+        CallHistoryAggregate aggregate = new CallHistoryAggregate();
+        LocalDateTime now = LocalDateTime.now();
+        // 没有天粒度聚合，小时桶保留期之外不再向更粗的粒度扩展
+        List<TokenUsageRollupPlanner.Segment> segments = TokenUsageRollupPlanner.plan(startTime, endTime,
+                horizon(now, properties.getRetentionDays()),
+                horizon(now, properties.getMinuteRollupRetentionDays()),
+                null);
+
+        for (TokenUsageRollupPlanner.Segment segment : segments) {
+            switch (segment.source()) {
+                case RAW -> addRawSegment(aggregate, segment);
+                case MINUTE -> addBuckets(aggregate, ApiCallHistoryRollupEntity.MINUTE, segment);
+                case HOUR, DAY -> addBuckets(aggregate, ApiCallHistoryRollupEntity.HOUR, segment);
+            }
+        }
+        return aggregate;
+    }
+
+    /**
+     * 按保留期清理过期的聚合数据
+     */
+    @Scheduled(cron = "${jairouter.call-history.rollup-cleanup-cron:0 30 2 * * *}")
+    @Transactional
+    public void cleanupExpired() {
+        if (!properties.isRollupEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int minutes = deleteBefore(ApiCallHistoryRollupEntity.MINUTE, now, properties.getMinuteRollupRetentionDays());
+        int hours = deleteBefore(ApiCallHistoryRollupEntity.HOUR, now, properties.getHourRollupRetentionDays());
+        log.info("Call history rollup cleanup: minuteBuckets={}, hourBuckets={}", minutes, hours);
+    }
+
+    private int deleteBefore(final String granularity, final LocalDateTime now, final int retentionDays) {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        return rollupRepository.deleteByGranularityBefore(granularity, now.minusDays(retentionDays));
+    }
+
+    private void addBuckets(final CallHistoryAggregate aggregate, final String granularity,
+                            final TokenUsageRollupPlanner.Segment segment) {
+        for (ApiCallHistoryRollupEntity bucket
+                : rollupRepository.findBuckets(granularity, segment.from(), segment.to())) {
+            aggregate.add(bucket);
+        }
+    }
+
+    /**
+     * 原始段都在同一分钟内，聚合结果按该分钟计入
+     */
+    private void addRawSegment(final CallHistoryAggregate aggregate, final TokenUsageRollupPlanner.Segment segment) {
+        LocalDateTime minute = segment.from().truncatedTo(ChronoUnit.MINUTES);
+        for (Object[] row : callHistoryRepository.aggregateByDimensions(segment.from(), segment.to())) {
+            aggregate.add(ApiCallHistoryRollupEntity.builder()
+                    .granularity(ApiCallHistoryRollupEntity.MINUTE)
+                    .bucketStart(minute)
+                    .modelName(dimension(row[0]))
+                    .serviceType(dimension(row[1]))
+                    .httpStatusCode((int) number(row[2]))
+                    .errorCode(dimension(row[3]))
+                    .requestCount(number(row[4]))
+                    .successCount(number(row[5]))
+                    .totalTokens(number(row[6]))
+                    .responseTimeSum(number(row[7]))
+                    .responseTimeCount(number(row[8]))
+                    .build());
+        }
+    }
+
+    private static void addToBucket(final Map<ApiCallHistoryRollupEntity, ApiCallHistoryRollupEntity> buckets,
+                                    final ApiCallHistoryEntity entity, final String granularity,
+                                    final LocalDateTime bucketStart) {
+        ApiCallHistoryRollupEntity key = ApiCallHistoryRollupEntity.builder()
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .modelName(dimension(entity.getModelName()))
+                .serviceType(dimension(entity.getServiceType()))
+                .httpStatusCode((int) number(entity.getHttpStatusCode()))
+                .errorCode(dimension(entity.getErrorCode()))
+                .build();
+        ApiCallHistoryRollupEntity bucket = buckets.computeIfAbsent(key, k -> ApiCallHistoryRollupEntity.builder()
+                .granularity(k.getGranularity())
+                .bucketStart(k.getBucketStart())
+                .modelName(k.getModelName())
+                .serviceType(k.getServiceType())
+                .httpStatusCode(k.getHttpStatusCode())
+                .errorCode(k.getErrorCode())
+                .requestCount(0L).successCount(0L).totalTokens(0L)
+                .responseTimeSum(0L).responseTimeCount(0L)
+                .build());
+
+        bucket.setRequestCount(bucket.getRequestCount() + 1);
+        if (Boolean.TRUE.equals(entity.getIsSuccess())) {
+            bucket.setSuccessCount(bucket.getSuccessCount() + 1);
+        }
+        bucket.setTotalTokens(bucket.getTotalTokens() + number(entity.getTotalTokens()));
+        if (entity.getResponseTimeMs() != null) {
+            bucket.setResponseTimeSum(bucket.getResponseTimeSum() + entity.getResponseTimeMs());
+            bucket.setResponseTimeCount(bucket.getResponseTimeCount() + 1);
+        }
+    }
+
+    private static LocalDateTime horizon(final LocalDateTime now, final int retentionDays) {
+        return retentionDays > 0 ? now.minusDays(retentionDays) : null;
+    }
+
+    private static String dimension(final Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static long number(final Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
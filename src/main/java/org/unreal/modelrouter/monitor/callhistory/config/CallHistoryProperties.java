@@ -48,6 +48,46 @@ public class CallHistoryProperties {
      */
     private int batchWaitMs = 1000;
 
+    /**
+     * 积压时单批最大写入数量，队列积压超过 batchSize 时批次随积压深度增大，直到该上限
+     */
+    private int maxBatchSize = 1000;
+
+    /**
+     * 是否使用 JDBC 批量插入写入调用历史（关闭时回退为 JPA saveAll）
+     */
+    private boolean bulkInsertEnabled = true;
+
+    /**
+     * 开始对成功调用采样的缓冲区占用比例（0-1），达到后成功调用按采样率保留，失败调用全部保留
+     */
+    private double samplingThreshold = 0.8;
+
+    /**
+     * 缓冲区高水位时成功调用的保留比例（0-1）
+     */
+    private double successSampleRate = 0.1;
+
+    /**
+     * 是否启用分钟/小时预聚合，关闭后统计接口直接查询原始表
+     */
+    private boolean rollupEnabled = true;
+
+    /**
+     * 分钟粒度聚合保留天数，应覆盖常用统计区间（默认 7 天）
+     */
+    private int minuteRollupRetentionDays = 8;
+
+    /**
+     * 小时粒度聚合保留天数，0 表示永久保留
+     */
+    private int hourRollupRetentionDays = 400;
+
+    /**
+     * 过期聚合数据清理的 cron 表达式
+     */
+    private String rollupCleanupCron = "0 30 2 * * *";
+
     /**
      * 是否保存请求体摘要
      */
@@ -346,6 +346,30 @@ public class AsyncMetricsCollector implements MetricsCollector {
         }
     }
 
+    /**
+     * 预绑定句柄直接写入无锁的 Micrometer Meter，不经过异步队列和采样，
+     * 记录成本低于入队本身
+     */
+    @Override
+    public RequestMeterHandle requestHandle(final String service, final String method, final String status) {
+        return fallbackCollector.requestHandle(service, method, status);
+    }
+
+    @Override
+    public BackendCallMeterHandle backendCallHandle(final String adapter, final String instance) {
+        return fallbackCollector.backendCallHandle(adapter, instance);
+    }
+
+    @Override
+    public RateLimitMeterHandle rateLimitHandle(final String service, final String algorithm) {
+        return fallbackCollector.rateLimitHandle(service, algorithm);
+    }
+
+    @Override
+    public CircuitBreakerMeterHandle circuitBreakerHandle(final String service) {
+        return fallbackCollector.circuitBreakerHandle(service);
+    }
+
     /**
      * 判断是否应该使用异步处理
      */
@@ -0,0 +1,22 @@
+package org.unreal.modelrouter.monitor.monitoring.collector;
+
+/**
+ * 预绑定的后端调用指标句柄
+ * 在 (adapter, instance) 维度上预先解析好成功/失败两组 Counter 以及 Timer
+ */
+@FunctionalInterface
+public interface BackendCallMeterHandle {
+
+    /**
+     * 不记录任何指标的空句柄
+     */
+    BackendCallMeterHandle NOOP = (durationMillis, success) -> { };
+
+    /**
+     * 记录一次后端调用
+     *
+     * @param durationMillis 调用时长(毫秒)
+     * @param success 是否成功
+     */
+    void record(long durationMillis, boolean success);
+}
@@ -0,0 +1,22 @@
+package org.unreal.modelrouter.monitor.monitoring.collector;
+
+/**
+ * 预绑定的熔断器指标句柄
+ * 状态 Gauge 在解析句柄时注册，事件 Counter 按事件类型缓存在句柄内部
+ */
+@FunctionalInterface
+public interface CircuitBreakerMeterHandle {
+
+    /**
+     * 不记录任何指标的空句柄
+     */
+    CircuitBreakerMeterHandle NOOP = (state, event) -> { };
+
+    /**
+     * 记录一次熔断器事件
+     *
+     * @param state 熔断器当前状态
+     * @param event 事件类型
+     */
+    void record(String state, String event);
+}
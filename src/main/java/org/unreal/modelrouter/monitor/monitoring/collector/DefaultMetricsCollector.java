@@ -2,6 +2,7 @@ package org.unreal.modelrouter.monitor.monitoring.collector;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -14,6 +15,7 @@ import org.unreal.modelrouter.monitor.monitoring.config.MonitoringEnabledConditi
 
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -37,43 +39,27 @@ public class DefaultMetricsCollector implements MetricsCollector {
     private final ConcurrentHashMap<String, AtomicLong> gaugeValues = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, AtomicReference<Double>> usageGauges = new ConcurrentHashMap<>();
 
+    // 预绑定句柄缓存（有界，防止标签基数爆炸）
+    private final MeterHandleCache<RequestMeterHandle> requestHandles;
+    private final MeterHandleCache<BackendCallMeterHandle> backendCallHandles;
+    private final MeterHandleCache<RateLimitMeterHandle> rateLimitHandles;
+    private final MeterHandleCache<CircuitBreakerMeterHandle> circuitBreakerHandles;
+
     public DefaultMetricsCollector(final MeterRegistry meterRegistry, final MonitoringProperties monitoringProperties) {
         this.meterRegistry = meterRegistry;
         this.monitoringProperties = monitoringProperties;
+        int maxHandles = monitoringProperties.getPerformance().getMaxMeterHandles();
+        this.requestHandles = registerHandleCache("request", maxHandles);
+        this.backendCallHandles = registerHandleCache("backend_call", maxHandles);
+        this.rateLimitHandles = registerHandleCache("rate_limit", maxHandles);
+        this.circuitBreakerHandles = registerHandleCache("circuit_breaker", maxHandles);
         logger.info("DefaultMetricsCollector initialized with prefix: {}", monitoringProperties.getPrefix());
     }
 
     @Override
     public void recordRequest(final String service, final String method, final long duration, final String status) {
         try {
-            String prefix = monitoringProperties.getPrefix();
-            String metricPrefix = (prefix != null && !prefix.isEmpty()) ? prefix + "_" : "";
-
-            // 记录请求总数
-            String counterKey = "requests.total." + service + "." + method + "." + status;
-            Counter counter = counters.computeIfAbsent(counterKey, key -> 
-                Counter.builder(metricPrefix + "requests_total")
-                    .tag("service", service)
-                    .tag("method", method)
-                    .tag("status", status)
-                    .description("Total number of requests")
-                    .register(meterRegistry)
-            );
-            counter.increment();
-
-            // 记录响应时间
-            String timerKey = "request.duration." + service + "." + method;
-            Timer timer = timers.computeIfAbsent(timerKey, key ->
-                Timer.builder(metricPrefix + "request_duration_seconds")
-                    .tag("service", service)
-                    .tag("method", method)
-                    .description("Request duration in seconds")
-                    .register(meterRegistry)
-            );
-            timer.record(Duration.ofMillis(duration));
-
-            logger.debug("Recorded request metric: service={}, method={}, duration={}ms, status={}", 
-                        service, method, duration, status);
+            requestHandle(service, method, status).record(duration);
         } catch (Exception e) {
             logger.warn("Failed to record request metric: {}", e.getMessage());
         }
@@ -83,35 +69,7 @@ public class DefaultMetricsCollector implements MetricsCollector {
     public void recordBackendCall(final String adapter, final String instance,
                                    final long duration, final boolean success) {
         try {
-            String prefix = monitoringProperties.getPrefix();
-            String metricPrefix = (prefix != null && !prefix.isEmpty()) ? prefix + "_" : "";
-            String status = success ? "success" : "failure";
-            
-            // 记录后端调用总数
-            String counterKey = "backend.calls.total." + adapter + "." + instance + "." + status;
-            Counter counter = counters.computeIfAbsent(counterKey, key ->
-                Counter.builder(metricPrefix + "backend_calls_total")
-                    .tag("adapter", adapter)
-                    .tag("instance", instance)
-                    .tag("status", status)
-                    .description("Total number of backend calls")
-                    .register(meterRegistry)
-            );
-            counter.increment();
-
-            // 记录后端调用时间
-            String timerKey = "backend.call.duration." + adapter + "." + instance;
-            Timer timer = timers.computeIfAbsent(timerKey, key ->
-                Timer.builder(metricPrefix + "backend_call_duration_seconds")
-                    .tag("adapter", adapter)
-                    .tag("instance", instance)
-                    .description("Backend call duration in seconds")
-                    .register(meterRegistry)
-            );
-            timer.record(Duration.ofMillis(duration));
-
-            logger.debug("Recorded backend call metric: adapter={}, instance={}, duration={}ms, success={}", 
-                        adapter, instance, duration, success);
+            backendCallHandle(adapter, instance).record(duration, success);
         } catch (Exception e) {
             logger.warn("Failed to record backend call metric: {}", e.getMessage());
         }
@@ -120,23 +78,7 @@ public class DefaultMetricsCollector implements MetricsCollector {
     @Override
     public void recordRateLimit(final String service, final String algorithm, final boolean allowed) {
         try {
-            String prefix = monitoringProperties.getPrefix();
-            String metricPrefix = (prefix != null && !prefix.isEmpty()) ? prefix + "_" : "";
-            String result = allowed ? "allowed" : "rejected";
-            
-            String counterKey = "rate.limit.events.total." + service + "." + algorithm + "." + result;
-            Counter counter = counters.computeIfAbsent(counterKey, key ->
-                Counter.builder(metricPrefix + "rate_limit_events_total")
-                    .tag("service", service)
-                    .tag("algorithm", algorithm)
-                    .tag("result", result)
-                    .description("Total number of rate limit events")
-                    .register(meterRegistry)
-            );
-            counter.increment();
-
-            logger.debug("Recorded rate limit metric: service={}, algorithm={}, allowed={}", 
-                        service, algorithm, allowed);
+            rateLimitHandle(service, algorithm).record(allowed);
         } catch (Exception e) {
             logger.warn("Failed to record rate limit metric: {}", e.getMessage());
         }
@@ -145,37 +87,72 @@ public class DefaultMetricsCollector implements MetricsCollector {
     @Override
     public void recordCircuitBreaker(final String service, final String state, final String event) {
         try {
-            String prefix = monitoringProperties.getPrefix();
-            String metricPrefix = (prefix != null && !prefix.isEmpty()) ? prefix + "_" : "";
-            
-            // 记录熔断器事件
-            String counterKey = "circuit.breaker.events.total." + service + "." + event;
-            Counter counter = counters.computeIfAbsent(counterKey, key ->
-                Counter.builder(metricPrefix + "circuit_breaker_events_total")
-                    .tag("service", service)
-                    .tag("event", event)
-                    .description("Total number of circuit breaker events")
-                    .register(meterRegistry)
-            );
-            counter.increment();
+            circuitBreakerHandle(service).record(state, event);
+        } catch (Exception e) {
+            logger.warn("Failed to record circuit breaker metric: {}", e.getMessage());
+        }
+    }
 
-            // 记录熔断器状态 (使用Gauge)
-            String gaugeKey = "circuit.breaker.state." + service;
-            AtomicLong stateValue = gaugeValues.computeIfAbsent(gaugeKey, key -> {
-                AtomicLong value = new AtomicLong(getStateValue(state));
+    @Override
+    public RequestMeterHandle requestHandle(final String service, final String method, final String status) {
+        return requestHandles.resolve(service, method, status == null ? "unknown" : status, key -> {
+            String metricPrefix = metricPrefix();
+            Counter counter = Counter.builder(metricPrefix + "requests_total")
+                    .tag("service", key.first())
+                    .tag("method", key.second())
+                    .tag("status", key.third())
+                    .description("Total number of requests")
+                    .register(meterRegistry);
+            Timer timer = Timer.builder(metricPrefix + "request_duration_seconds")
+                    .tag("service", key.first())
+                    .tag("method", key.second())
+                    .description("Request duration in seconds")
+                    .register(meterRegistry);
+            return new BoundRequestHandle(counter, timer);
+        });
+    }
+
+    @Override
+    public BackendCallMeterHandle backendCallHandle(final String adapter, final String instance) {
+        return backendCallHandles.resolve(adapter, instance, null, key -> {
+            String metricPrefix = metricPrefix();
+            Timer timer = Timer.builder(metricPrefix + "backend_call_duration_seconds")
+                    .tag("adapter", key.first())
+                    .tag("instance", key.second())
+                    .description("Backend call duration in seconds")
+                    .register(meterRegistry);
+            return new BoundBackendCallHandle(
+                    backendCallCounter(metricPrefix, key, "success"),
+                    backendCallCounter(metricPrefix, key, "failure"),
+                    timer);
+        });
+    }
+
+    @Override
+    public RateLimitMeterHandle rateLimitHandle(final String service, final String algorithm) {
+        return rateLimitHandles.resolve(service, algorithm, null, key -> {
+            String metricPrefix = metricPrefix();
+            return new BoundRateLimitHandle(
+                    rateLimitCounter(metricPrefix, key, "allowed"),
+                    rateLimitCounter(metricPrefix, key, "rejected"));
+        });
+    }
+
+    @Override
+    public CircuitBreakerMeterHandle circuitBreakerHandle(final String service) {
+        return circuitBreakerHandles.resolve(service, "", null, key -> {
+            String metricPrefix = metricPrefix();
+            String gaugeKey = "circuit.breaker.state." + key.first();
+            AtomicLong stateValue = gaugeValues.computeIfAbsent(gaugeKey, k -> {
+                AtomicLong value = new AtomicLong(getStateValue("CLOSED"));
                 Gauge.builder(metricPrefix + "circuit_breaker_state", value, AtomicLong::doubleValue)
-                    .tag("service", service)
+                    .tag("service", key.first())
                     .description("Circuit breaker state (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
                     .register(meterRegistry);
                 return value;
             });
-            stateValue.set(getStateValue(state));
-
-            logger.debug("Recorded circuit breaker metric: service={}, state={}, event={}", 
-                        service, state, event);
-        } catch (Exception e) {
-            logger.warn("Failed to record circuit breaker metric: {}", e.getMessage());
-        }
+            return new BoundCircuitBreakerHandle(metricPrefix, key.first(), stateValue);
+        });
     }
 
     @Override
@@ -546,10 +523,45 @@ public class DefaultMetricsCollector implements MetricsCollector {
         }
     }
 
+    private <H> MeterHandleCache<H> registerHandleCache(final String name, final int maxSize) {
+        MeterHandleCache<H> cache = new MeterHandleCache<>(name, maxSize);
+        FunctionCounter.builder(metricPrefix() + "meter_handle_overflow_total", cache,
+                        MeterHandleCache::getOverflowCount)
+                .tag("cache", name)
+                .description("Number of meter handle resolutions redirected to the overflow handle")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    private String metricPrefix() {
+        String prefix = monitoringProperties.getPrefix();
+        return (prefix != null && !prefix.isEmpty()) ? prefix + "_" : "";
+    }
+
+    private Counter backendCallCounter(final String metricPrefix, final MeterHandleCache.Key key,
+                                       final String status) {
+        return Counter.builder(metricPrefix + "backend_calls_total")
+                .tag("adapter", key.first())
+                .tag("instance", key.second())
+                .tag("status", status)
+                .description("Total number of backend calls")
+                .register(meterRegistry);
+    }
+
+    private Counter rateLimitCounter(final String metricPrefix, final MeterHandleCache.Key key,
+                                     final String result) {
+        return Counter.builder(metricPrefix + "rate_limit_events_total")
+                .tag("service", key.first())
+                .tag("algorithm", key.second())
+                .tag("result", result)
+                .description("Total number of rate limit events")
+                .register(meterRegistry);
+    }
+
     /**
      * 将熔断器状态转换为数值
      */
-    private long getStateValue(final String state) {
+    private static long getStateValue(final String state) {
         switch (state.toUpperCase()) {
             case "CLOSED":
                 return 0;
@@ -561,4 +573,70 @@ public class DefaultMetricsCollector implements MetricsCollector {
                 return -1;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 请求指标句柄
+     */
+    private record BoundRequestHandle(Counter counter, Timer timer) implements RequestMeterHandle {
+        @Override
+        public void record(final long durationMillis) {
+            counter.increment();
+            timer.record(durationMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 后端调用指标句柄
+     */
+    private record BoundBackendCallHandle(Counter successCounter, Counter failureCounter, Timer timer)
+            implements BackendCallMeterHandle {
+        @Override
+        public void record(final long durationMillis, final boolean success) {
+            (success ? successCounter : failureCounter).increment();
+            timer.record(durationMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 限流指标句柄
+     */
+    private record BoundRateLimitHandle(Counter allowedCounter, Counter rejectedCounter)
+            implements RateLimitMeterHandle {
+        @Override
+        public void record(final boolean allowed) {
+            (allowed ? allowedCounter : rejectedCounter).increment();
+        }
+    }
+
+    /**
+     * 熔断器指标句柄
+     * 事件类型是少量固定字面量，按事件缓存 Counter
+     */
+    private final class BoundCircuitBreakerHandle implements CircuitBreakerMeterHandle {
+        private final String metricPrefix;
+        private final String service;
+        private final AtomicLong stateValue;
+        private final ConcurrentHashMap<String, Counter> eventCounters = new ConcurrentHashMap<>();
+
+        BoundCircuitBreakerHandle(final String metricPrefix, final String service, final AtomicLong stateValue) {
+            this.metricPrefix = metricPrefix;
+            this.service = service;
+            this.stateValue = stateValue;
+        }
+
+        @Override
+        public void record(final String state, final String event) {
+            Counter counter = eventCounters.get(event);
+            if (counter == null) {
+                counter = eventCounters.computeIfAbsent(event, e ->
+                    Counter.builder(metricPrefix + "circuit_breaker_events_total")
+                        .tag("service", service)
+                        .tag("event", e)
+                        .description("Total number of circuit breaker events")
+                        .register(meterRegistry));
+            }
+            counter.increment();
+            stateValue.set(getStateValue(state));
+        }
+    }
+}
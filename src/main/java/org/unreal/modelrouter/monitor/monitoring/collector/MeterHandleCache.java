@@ -0,0 +1,98 @@
+package org.unreal.modelrouter.monitor.monitoring.collector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 有界的指标句柄缓存
+ * 按标签组合缓存预绑定句柄，超过上限后所有新的标签组合共用一个溢出句柄，
+ * 防止异常的标签基数（例如实例名或状态码爆炸）无限注册 Meter
+ *
+ * @param <H> 句柄类型
+ */
+final class MeterHandleCache<H> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MeterHandleCache.class);
+
+    /**
+     * 溢出句柄使用的标签值
+     */
+    static final String OVERFLOW_TAG = "_other";
+
+    private final String name;
+    private final int maxSize;
+    private final ConcurrentHashMap<Key, H> handles = new ConcurrentHashMap<>();
+    private final AtomicLong overflowCount = new AtomicLong();
+    private volatile H overflowHandle;
+
+    MeterHandleCache(final String name, final int maxSize) {
+        this.name = name;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * 获取或创建句柄
+     *
+     * @param first 第一个标签值
+     * @param second 第二个标签值
+     * @param third 第三个标签值，可为 null
+     * @param factory 句柄工厂
+     * @return 预绑定句柄
+     */
+    H resolve(final String first, final String second, final String third, final Function<Key, H> factory) {
+        Key key = new Key(normalize(first), normalize(second), third == null ? "" : third);
+        H handle = handles.get(key);
+        if (handle != null) {
+            return handle;
+        }
+        if (handles.size() >= maxSize) {
+            return overflow(factory);
+        }
+        return handles.computeIfAbsent(key, factory);
+    }
+
+    private H overflow(final Function<Key, H> factory) {
+        if (overflowCount.getAndIncrement() == 0) {
+            logger.warn("Meter handle cache '{}' reached its limit of {} tag combinations, "
+                    + "further combinations are recorded under tag value '{}'", name, maxSize, OVERFLOW_TAG);
+        }
+        H handle = overflowHandle;
+        if (handle == null) {
+            synchronized (this) {
+                handle = overflowHandle;
+                if (handle == null) {
+                    handle = factory.apply(new Key(OVERFLOW_TAG, OVERFLOW_TAG, OVERFLOW_TAG));
+                    overflowHandle = handle;
+                }
+            }
+        }
+        return handle;
+    }
+
+    int size() {
+        return handles.size();
+    }
+
+    long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    void clear() {
+        handles.clear();
+        overflowHandle = null;
+    }
+
+    private static String normalize(final String value) {
+        return value == null ? "unknown" : value;
+    }
+
+    /**
+     * 句柄缓存键
+     */
+    record Key(String first, String second, String third) {
+    }
+}
@@ -141,4 +141,51 @@ public interface MetricsCollector {
      */
     void recordRateLimitStatus(String service, String scope, String algorithm,
                                long remainingCapacity, double usageRatio);
-}
\ No newline at end of file
+
+    // ==================== 预绑定指标句柄 ====================
+
+    /**
+     * 解析预绑定的请求指标句柄
+     * 调用方应在标签组合确定后解析一次并复用，默认实现委托给 {@link #recordRequest}
+     *
+     * @param service 服务名称
+     * @param method HTTP方法
+     * @param status 状态码或状态描述
+     * @return 请求指标句柄
+     */
+    default RequestMeterHandle requestHandle(final String service, final String method, final String status) {
+        return durationMillis -> recordRequest(service, method, durationMillis, status);
+    }
+
+    /**
+     * 解析预绑定的后端调用指标句柄
+     *
+     * @param adapter 适配器类型
+     * @param instance 实例名称
+     * @return 后端调用指标句柄
+     */
+    default BackendCallMeterHandle backendCallHandle(final String adapter, final String instance) {
+        return (durationMillis, success) -> recordBackendCall(adapter, instance, durationMillis, success);
+    }
+
+    /**
+     * 解析预绑定的限流指标句柄
+     *
+     * @param service 服务名称
+     * @param algorithm 限流算法
+     * @return 限流指标句柄
+     */
+    default RateLimitMeterHandle rateLimitHandle(final String service, final String algorithm) {
+        return allowed -> recordRateLimit(service, algorithm, allowed);
+    }
+
+    /**
+     * 解析预绑定的熔断器指标句柄
+     *
+     * @param service 服务名称（通常为实例ID）
+     * @return 熔断器指标句柄
+     */
+    default CircuitBreakerMeterHandle circuitBreakerHandle(final String service) {
+        return (state, event) -> recordCircuitBreaker(service, state, event);
+    }
+}
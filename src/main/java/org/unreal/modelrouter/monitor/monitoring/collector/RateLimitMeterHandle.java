@@ -0,0 +1,21 @@
+package org.unreal.modelrouter.monitor.monitoring.collector;
+
+/**
+ * 预绑定的限流指标句柄
+ * 在 (service, algorithm) 维度上预先解析好 allowed/rejected 两个 Counter
+ */
+@FunctionalInterface
+public interface RateLimitMeterHandle {
+
+    /**
+     * 不记录任何指标的空句柄
+     */
+    RateLimitMeterHandle NOOP = allowed -> { };
+
+    /**
+     * 记录一次限流判定
+     *
+     * @param allowed 是否允许通过
+     */
+    void record(boolean allowed);
+}
@@ -0,0 +1,22 @@
+package org.unreal.modelrouter.monitor.monitoring.collector;
+
+/**
+ * 预绑定的请求指标句柄
+ * 在 (service, method, status) 维度上预先解析好 Counter 和 Timer，
+ * 记录时无需拼接字符串或查找缓存
+ */
+@FunctionalInterface
+public interface RequestMeterHandle {
+
+    /**
+     * 不记录任何指标的空句柄
+     */
+    RequestMeterHandle NOOP = durationMillis -> { };
+
+    /**
+     * 记录一次请求
+     *
+     * @param durationMillis 响应时间(毫秒)
+     */
+    void record(long durationMillis);
+}
@@ -0,0 +1,210 @@
+package org.unreal.modelrouter.monitor.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.common.util.JacksonHelper;
+import org.unreal.modelrouter.router.checker.ServiceStateManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 实例健康状态快照发布器
+ *
+ * 所有 SSE 订阅者共享同一份由 {@link ServiceStateManager} 计算的快照：健康状态变化时经短暂合并后
+ * 计算一次与上次发布快照的差异，通过只保留最新一条的重放 Sink 广播。
+ * 新订阅者和发现版本号不连续的订阅者收到完整快照，其余只收到变化的实例；定期发送一次完整快照用于校正。
+ * 推送路径不访问数据库，订阅者数量只影响事件写出，不影响快照计算。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+public class HealthSnapshotPublisher {
+
+    static final String EVENT_NAME = "health-update";
+
+    private final ServiceStateManager serviceStateManager;
+    private final long debounceMillis;
+    private final Sinks.Many<Update> sink = Sinks.many().replay().latest();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+    private final Object lock = new Object();
+
+    private Map<String, Boolean> published = Collections.emptyMap();
+    private long version;
+
+    public HealthSnapshotPublisher(final ServiceStateManager serviceStateManager,
+                                   @Value("${jairouter.monitor.health-stream.debounce:200}") final long debounceMillis) {
+        this.serviceStateManager = serviceStateManager;
+        this.debounceMillis = debounceMillis;
+        refresh();
+    }
+
+    /**
+     * 订阅健康状态事件流：首个事件为完整快照，之后为增量
+     */
+    public Flux<ServerSentEvent<String>> stream() {
+        return Flux.defer(() -> {
+            long[] lastVersion = {-1};
+            return sink.asFlux().map(update -> {
+                boolean full = update.resync || update.version != lastVersion[0] + 1;
+                lastVersion[0] = update.version;
+                return full ? update.fullEvent() : update.deltaEvent();
+            });
+        });
+    }
+
+    /**
+     * 健康状态发生变化；短时间内的多次变化合并为一次快照计算
+     */
+    public void markChanged() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            Schedulers.parallel().schedule(() -> {
+                refreshScheduled.set(false);
+                refresh();
+            }, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 定期向所有订阅者发送完整快照，同时兜底未通知到的状态变化
+     */
+    @Scheduled(fixedDelayString = "${jairouter.monitor.health-stream.resync-interval:30000}")
+    public void resync() {
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        synchronized (lock) {
+            if (!refresh()) {
+                emit(new Update(++version, published, null, true));
+            }
+        }
+    }
+
+    /**
+     * 重新读取健康状态并发布与上次快照的差异
+     *
+     * @return 是否有变化
+     */
+    boolean refresh() {
+        synchronized (lock) {
+            Map<String, Boolean> current = Map.copyOf(serviceStateManager.getAllInstanceHealthStatus());
+            Map<String, Boolean> changed = new HashMap<>();
+            for (Map.Entry<String, Boolean> entry : current.entrySet()) {
+                if (!entry.getValue().equals(published.get(entry.getKey()))) {
+                    changed.put(entry.getKey(), entry.getValue());
+                }
+            }
+            List<String> removed = new ArrayList<>();
+            for (String key : published.keySet()) {
+                if (!current.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+            if (version > 0 && changed.isEmpty() && removed.isEmpty()) {
+                return false;
+            }
+            published = current;
+            emit(new Update(++version, current, new Delta(changed, removed), false));
+            log.debug("健康状态快照已更新: version={}, 变化 {} 个, 移除 {} 个", version, changed.size(),
+                    removed.size());
+            return true;
+        }
+    }
+
+    int subscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+
+    private void emit(final Update update) {
+        Sinks.EmitResult result = sink.tryEmitNext(update);
+        if (result.isFailure()) {
+            log.warn("健康状态快照发布失败: {}", result);
+        }
+    }
+
+    private record Delta(Map<String, Boolean> changed, List<String> removed) {
+    }
+
+    /**
+     * 一次发布：快照和相对上一版本的差异，事件内容按需序列化一次后由所有订阅者共享
+     */
+    private static final class Update {
+        private final long version;
+        private final Map<String, Boolean> snapshot;
+        private final Delta delta;
+        private final boolean resync;
+        private final String timestamp = LocalDateTime.now().toString();
+        private volatile ServerSentEvent<String> fullEvent;
+        private volatile ServerSentEvent<String> deltaEvent;
+
+        Update(final long version, final Map<String, Boolean> snapshot, final Delta delta, final boolean resync) {
+            this.version = version;
+            this.snapshot = snapshot;
+            this.delta = delta;
+            this.resync = resync;
+        }
+
+        ServerSentEvent<String> fullEvent() {
+            ServerSentEvent<String> event = fullEvent;
+            if (event == null) {
+                event = build("full", snapshot, null);
+                fullEvent = event;
+            }
+            return event;
+        }
+
+        ServerSentEvent<String> deltaEvent() {
+            ServerSentEvent<String> event = deltaEvent;
+            if (event == null) {
+                event = build("delta", delta.changed(), delta.removed());
+                deltaEvent = event;
+            }
+            return event;
+        }
+
+        private ServerSentEvent<String> build(final String mode, final Map<String, Boolean> instanceHealth,
+                                              final List<String> removed) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("type", EVENT_NAME);
+            data.put("mode", mode);
+            data.put("version", version);
+            data.put("timestamp", timestamp);
+            data.put("instanceHealth", instanceHealth);
+            if (removed != null) {
+                data.put("removed", removed);
+            }
+            String json;
+            try {
+                json = JacksonHelper.getObjectMapper().writeValueAsString(data);
+            } catch (JsonProcessingException e) {
+                log.error("序列化健康状态数据失败", e);
+                return ServerSentEvent.<String>builder()
+                        .event("error")
+                        .id(String.valueOf(version))
+                        .data("{\"error\":\"序列化数据失败\", \"eventType\":\"" + mode + "\"}")
+                        .build();
+            }
+            return ServerSentEvent.<String>builder()
+                    .event(EVENT_NAME)
+                    .id(String.valueOf(version))
+                    .data(json)
+                    .build();
+        }
+    }
+}
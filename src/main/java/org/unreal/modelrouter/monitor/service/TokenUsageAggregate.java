@@ -0,0 +1,240 @@
+package org.unreal.modelrouter.monitor.service;
+
+import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageRollupEntity;
+
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Token 使用量区间汇总结果
+ *
+ * 由 {@link TokenUsageRollupService} 把各查询段的聚合桶合并而成，
+ * 各分组方法返回的行结构与 TokenUsageRepository 对应的统计查询一致，
+ * 便于 {@link TokenUsageService} 复用同一套结果转换逻辑。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class TokenUsageAggregate {
+
+    private static final WeekFields WEEK_FIELDS = WeekFields.of(Locale.CHINA);
+
+    private long requestCount;
+    private long successCount;
+    private long failureCount;
+    private long promptTokens;
+    private long completionTokens;
+    private long totalTokens;
+    private long responseTimeSum;
+    private long responseTimeCount;
+
+    /**
+     * 维度分组，值为 [total, prompt, completion, count]
+     */
+    private final Map<String, long[]> byModel = new HashMap<>();
+    private final Map<String, long[]> byServiceType = new HashMap<>();
+    private final Map<String, long[]> byProvider = new HashMap<>();
+    private final Map<String, long[]> byApiKey = new HashMap<>();
+    private final Map<String, long[]> byUser = new HashMap<>();
+
+    /**
+     * 时间分组，周和月的键为 year * 100 + week/month
+     */
+    private final TreeMap<LocalDate, long[]> byDay = new TreeMap<>();
+    private final TreeMap<Integer, long[]> byWeek = new TreeMap<>();
+    private final TreeMap<Integer, long[]> byMonth = new TreeMap<>();
+    private final TreeMap<Integer, long[]> byHour = new TreeMap<>();
+
+    /**
+     * 合并一个聚合桶
+     *
+     * @param bucket         聚合桶，维度缺失时为空字符串
+     * @param countHourOfDay 是否计入按小时分组，天粒度的桶无法拆分到小时，需另行补充
+     */
+    void add(final TokenUsageRollupEntity bucket, final boolean countHourOfDay) {
+        long count = value(bucket.getRequestCount());
+        long prompt = value(bucket.getPromptTokens());
+        long completion = value(bucket.getCompletionTokens());
+        long total = value(bucket.getTotalTokens());
+
+        requestCount += count;
+        successCount += value(bucket.getSuccessCount());
+        failureCount += value(bucket.getFailureCount());
+        promptTokens += prompt;
+        completionTokens += completion;
+        totalTokens += total;
+        responseTimeSum += value(bucket.getResponseTimeSum());
+        responseTimeCount += value(bucket.getResponseTimeCount());
+
+        merge(byModel, bucket.getModelName(), total, prompt, completion, count);
+        merge(byServiceType, bucket.getServiceType(), total, prompt, completion, count);
+        merge(byProvider, bucket.getProvider(), total, prompt, completion, count);
+        merge(byApiKey, bucket.getApiKeyId(), total, prompt, completion, count);
+        merge(byUser, bucket.getUserId(), total, prompt, completion, count);
+
+        LocalDate date = bucket.getBucketStart().toLocalDate();
+        merge(byDay, date, total, prompt, completion, count);
+        merge(byWeek, date.getYear() * 100 + date.get(WEEK_FIELDS.weekOfWeekBasedYear()),
+                total, prompt, completion, count);
+        merge(byMonth, date.getYear() * 100 + date.getMonthValue(), total, prompt, completion, count);
+        if (countHourOfDay) {
+            addHourOfDay(bucket.getBucketStart().getHour(), total, count);
+        }
+    }
+
+    /**
+     * 补充按一天中的小时分组的数据
+     */
+    void addHourOfDay(final int hour, final long total, final long count) {
+        merge(byHour, hour, total, 0L, 0L, count);
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public long getPromptTokens() {
+        return promptTokens;
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public long getTotalTokens() {
+        return totalTokens;
+    }
+
+    /**
+     * 平均响应时间（毫秒），无数据时为 0
+     */
+    public double getAvgResponseTimeMs() {
+        return responseTimeCount > 0 ? (double) responseTimeSum / responseTimeCount : 0.0;
+    }
+
+    /**
+     * 按模型统计：[modelName, total, prompt, completion, count]，按 token 总量降序
+     */
+    public List<Object[]> countTokensByModel() {
+        return detailRows(byModel);
+    }
+
+    /**
+     * 按服务类型统计：[serviceType, total, prompt, completion, count]，按 token 总量降序
+     */
+    public List<Object[]> countTokensByServiceType() {
+        return detailRows(byServiceType);
+    }
+
+    /**
+     * 按提供商统计：[provider, total, count]，按 token 总量降序
+     */
+    public List<Object[]> countTokensByProvider() {
+        return summaryRows(byProvider);
+    }
+
+    /**
+     * 按 API Key 统计：[apiKeyId, total, count]，按 token 总量降序
+     */
+    public List<Object[]> countTokensByApiKey() {
+        return summaryRows(byApiKey);
+    }
+
+    /**
+     * 按用户统计：[userId, total, count]，按 token 总量降序
+     */
+    public List<Object[]> countTokensByUser() {
+        return summaryRows(byUser);
+    }
+
+    /**
+     * 按日期统计：[yyyy-MM-dd, total, prompt, completion, count]
+     */
+    public List<Object[]> countTokensByDay() {
+        List<Object[]> rows = new ArrayList<>(byDay.size());
+        byDay.forEach((date, v) -> rows.add(new Object[]{date.toString(), v[0], v[1], v[2], v[3]}));
+        return rows;
+    }
+
+    /**
+     * 按周统计：[year, week, total, prompt, completion, count]
+     */
+    public List<Object[]> countTokensByWeek() {
+        return periodRows(byWeek);
+    }
+
+    /**
+     * 按月统计：[year, month, total, prompt, completion, count]
+     */
+    public List<Object[]> countTokensByMonth() {
+        return periodRows(byMonth);
+    }
+
+    /**
+     * 按一天中的小时统计：[hour, total, count]
+     */
+    public List<Object[]> countTokensByHour() {
+        List<Object[]> rows = new ArrayList<>(byHour.size());
+        byHour.forEach((hour, v) -> rows.add(new Object[]{hour, v[0], v[3]}));
+        return rows;
+    }
+
+    private static List<Object[]> detailRows(final Map<String, long[]> groups) {
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, v) -> rows.add(new Object[]{key, v[0], v[1], v[2], v[3]}));
+        rows.sort(byTotalDesc());
+        return rows;
+    }
+
+    /**
+     * 空字符串代表维度缺失，与原始查询的 IS NOT NULL 条件保持一致
+     */
+    private static List<Object[]> summaryRows(final Map<String, long[]> groups) {
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, v) -> {
+            if (!key.isEmpty()) {
+                rows.add(new Object[]{key, v[0], v[3]});
+            }
+        });
+        rows.sort(byTotalDesc());
+        return rows;
+    }
+
+    private static List<Object[]> periodRows(final TreeMap<Integer, long[]> groups) {
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, v) -> rows.add(new Object[]{key / 100, key % 100, v[0], v[1], v[2], v[3]}));
+        return rows;
+    }
+
+    private static Comparator<Object[]> byTotalDesc() {
+        return Comparator.comparingLong((Object[] row) -> (Long) row[1]).reversed();
+    }
+
+    private static <K> void merge(final Map<K, long[]> groups, final K key, final long total,
+                                  final long prompt, final long completion, final long count) {
+        long[] v = groups.computeIfAbsent(key, k -> new long[4]);
+        v[0] += total;
+        v[1] += prompt;
+        v[2] += completion;
+        v[3] += count;
+    }
+
+    private static long value(final Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,291 @@
+package org.unreal.modelrouter.monitor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.config.core.TokenUsageIngestionProperties;
+import org.unreal.modelrouter.monitor.dto.TokenUsageRecordDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token 使用量异步写入队列
+ *
+ * 请求线程（包括 Netty 事件循环）只做一次无锁入队，由单个后台写线程批量取出后
+ * 通过 {@link TokenUsageService#saveBatch} 在一个事务内 saveAll，实现组提交。
+ * 队列有界，满时按 {@link TokenUsageIngestionProperties.OverflowPolicy} 丢弃并计数；
+ * 应用关闭时先停止接收新记录，再在超时时间内排空队列。关闭之后提交的记录计为丢弃，不会在调用线程上同步写库。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+public class TokenUsageIngestionQueue {
+
+    private static final String METRIC_PREFIX = "jairouter.token.usage.ingestion";
+
+    /**
+     * DROP_OLDEST 策略下为一条新记录腾出容量的最多尝试次数
+     * 写线程刚取走一批、容量尚未归还时队列可能暂时为空，超过次数后按丢弃新记录处理，不在调用线程上自旋
+     */
+    private static final int MAX_RESERVE_ATTEMPTS = 8;
+
+    private final TokenUsageService tokenUsageService;
+    private final TokenUsageIngestionProperties properties;
+
+    private final ConcurrentLinkedQueue<TokenUsageRecordDTO> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private final int capacity;
+    private final int batchSize;
+
+    private final Counter acceptedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile Thread writerThread;
+
+    public TokenUsageIngestionQueue(final TokenUsageService tokenUsageService,
+                                    final TokenUsageIngestionProperties properties,
+                                    final MeterRegistry meterRegistry) {
+        this.tokenUsageService = tokenUsageService;
+        this.properties = properties;
+        this.capacity = Math.max(1, properties.getQueueCapacity());
+        this.batchSize = Math.max(1, properties.getBatchSize());
+
+        this.acceptedCounter = recordsCounter(meterRegistry, "accepted");
+        this.droppedCounter = recordsCounter(meterRegistry, "dropped");
+        this.writtenCounter = recordsCounter(meterRegistry, "written");
+        this.failedCounter = recordsCounter(meterRegistry, "failed");
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush.duration")
+                .description("Token 使用量批量写入耗时")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", size, AtomicInteger::get)
+                .description("Token 使用量待写入队列长度")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Token usage async ingestion is disabled, records are written synchronously");
+            return;
+        }
+        if (running.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::runWriter, "token-usage-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            thread.start();
+            log.info("Token usage ingestion queue started: capacity={}, batchSize={}, flushIntervalMs={}",
+                    capacity, batchSize, properties.getFlushIntervalMs());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running.get() || !stopped.compareAndSet(false, true)) {
+            return;
+        }
+        // 先停止接收新记录，再通知写线程退出，保证最后一次排空之后不会再有记录入队
+        running.set(false);
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(properties.getShutdownTimeoutMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 写线程未能在超时内退出时由关闭线程兜底排空
+        drainAll();
+        log.info("Token usage ingestion queue stopped: written={}, dropped={}, failed={}",
+                (long) writtenCounter.count(), (long) droppedCounter.count(), (long) failedCounter.count());
+    }
+
+    /**
+     * 提交一条记录，不会阻塞调用线程
+     * 未启用异步写入时直接同步写入；队列已关闭时丢弃并计数
+     *
+     * @param record Token 使用量记录
+     * @return 是否被接受，队列满且无法腾出容量或队列已关闭时返回 false
+     */
+    public boolean submit(final TokenUsageRecordDTO record) {
+        if (record == null) {
+            return false;
+        }
+        if (!running.get()) {
+            // 关闭时先置 stopped 再清 running，这里读到未运行且已关闭就是关闭之后的提交
+            if (stopped.get()) {
+                droppedCounter.increment();
+                return false;
+            }
+            tokenUsageService.recordTokenUsage(record);
+            return true;
+        }
+        if (!reserveSlot()) {
+            droppedCounter.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("Token usage queue full, dropping record: model={}", record.getModelName());
+            }
+            return false;
+        }
+        queue.offer(record);
+        // 与关闭并发时记录可能在最后一次排空之后才入队；仍在队列中就撤回并计为丢弃，已被排空则照常计入
+        if (stopped.get() && queue.remove(record)) {
+            size.decrementAndGet();
+            droppedCounter.increment();
+            return false;
+        }
+        acceptedCounter.increment();
+        if (size.get() >= batchSize) {
+            Thread thread = writerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 批量提交记录
+     *
+     * @param records Token 使用量记录列表
+     * @return 被接受的记录数
+     */
+    public int submitAll(final List<TokenUsageRecordDTO> records) {
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        if (!running.get() && !stopped.get()) {
+            tokenUsageService.recordTokenUsageBatch(records);
+            return records.size();
+        }
+        int accepted = 0;
+        for (TokenUsageRecordDTO record : records) {
+            if (submit(record)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 当前排队中的记录数
+     */
+    public int getQueueSize() {
+        return size.get();
+    }
+
+    /**
+     * 累计丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return (long) droppedCounter.count();
+    }
+
+    /**
+     * 累计写入成功的记录数
+     */
+    public long getWrittenCount() {
+        return (long) writtenCounter.count();
+    }
+
+    /**
+     * 为新记录预留容量；DROP_OLDEST 策略下会淘汰队首记录，最多尝试 {@link #MAX_RESERVE_ATTEMPTS} 次
+     */
+    private boolean reserveSlot() {
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                continue;
+            }
+            if (properties.getOverflowPolicy() != TokenUsageIngestionProperties.OverflowPolicy.DROP_OLDEST) {
+                return false;
+            }
+            // 淘汰一条旧记录后复用其容量，size 不变
+            if (queue.poll() != null) {
+                droppedCounter.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runWriter() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.getFlushIntervalMs()));
+        List<TokenUsageRecordDTO> batch = new ArrayList<>(batchSize);
+        while (running.get()) {
+            try {
+                if (size.get() < batchSize) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+                drainBatches(batch);
+            } catch (Exception e) {
+                log.warn("Error in token usage writer thread: {}", e.getMessage());
+            }
+        }
+        drainBatches(batch);
+    }
+
+    private void drainAll() {
+        drainBatches(new ArrayList<>(batchSize));
+    }
+
+    /**
+     * 持续取出并写入，直到队列为空
+     */
+    private void drainBatches(final List<TokenUsageRecordDTO> batch) {
+        while (true) {
+            TokenUsageRecordDTO record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            size.addAndGet(-batch.size());
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(final List<TokenUsageRecordDTO> batch) {
+        long start = System.nanoTime();
+        try {
+            tokenUsageService.saveBatch(batch);
+            writtenCounter.increment(batch.size());
+            log.debug("Flushed {} token usage records", batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.warn("Failed to flush {} token usage records: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Counter recordsCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder(METRIC_PREFIX + ".records")
+                .description("Token 使用量异步写入记录数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
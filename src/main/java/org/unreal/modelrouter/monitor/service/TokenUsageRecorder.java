@@ -2,6 +2,7 @@ package org.unreal.modelrouter.monitor.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.unreal.modelrouter.monitor.dto.TokenUsageRecordDTO;
 import org.unreal.modelrouter.auth.security.model.JwtAuthentication;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 /**
  * Token 使用量记录服务
  * 用于在请求处理完成后异步记录 Token 使用量
+ * 记录统一提交到 {@link TokenUsageIngestionQueue}，由后台写线程批量落库，调用线程不会阻塞在数据库上
  *
  * @author JAiRouter Team
  * @since 1.9.5
@@ -25,6 +27,9 @@ public class TokenUsageRecorder {
 
     private final TokenUsageService tokenUsageService;
 
+    @Autowired(required = false)
+    private TokenUsageIngestionQueue ingestionQueue;
+
     /**
      * 异步记录 Token 使用量
      */
@@ -126,7 +131,7 @@ public class TokenUsageRecorder {
                     .occurredAt(LocalDateTime.now())
                     .build();
 
-            tokenUsageService.recordTokenUsage(record);
+            submit(record);
             log.debug("Token usage recorded: model={}, totalTokens={}, serviceType={}, userId={}",
                     modelName, totalTokens, serviceType, userId);
         } catch (Exception e) {
@@ -174,11 +179,22 @@ public class TokenUsageRecorder {
                     .occurredAt(LocalDateTime.now())
                     .build();
 
-            tokenUsageService.recordTokenUsage(record);
+            submit(record);
             log.debug("Token usage recorded: model={}, totalTokens={}, serviceType={}, clientIp={}",
                     modelName, totalTokens, serviceType, clientIp);
         } catch (Exception e) {
             log.error("Failed to record token usage for model: {}", modelName, e);
         }
     }
+
+    /**
+     * 提交到异步写入队列，队列不可用时同步写入
+     */
+    private void submit(final TokenUsageRecordDTO record) {
+        if (ingestionQueue != null) {
+            ingestionQueue.submit(record);
+        } else {
+            tokenUsageService.recordTokenUsage(record);
+        }
+    }
 }
@@ -0,0 +1,147 @@
+package org.unreal.modelrouter.monitor.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token 使用量统计查询规划器
+ *
+ * 把查询区间拆成若干段，中间部分使用能整段覆盖的最粗粒度聚合，
+ * 首尾不足一分钟的部分读取原始表：
+ * <pre>
+ * RAW [s, m0) | MINUTE [m0, h0) | HOUR [h0, d0) | DAY [d0, d1) | HOUR [d1, h1) | MINUTE [h1, m1) | RAW [m1, e)
+ * </pre>
+ * 每个 RAW 段都落在同一分钟内，因此可以把整段视为一个分钟桶参与按小时/按天的分组。
+ *
+ * 某一粒度超出保留期时，对应边界向外扩展到更粗的粒度，结果在该边界处为近似值。
+ * 调用历史统计（{@link org.unreal.modelrouter.monitor.callhistory.CallHistoryRollupService}）复用同一规划。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class TokenUsageRollupPlanner {
+
+    /**
+     * 数据来源
+     */
+    public enum Source {
+        RAW, MINUTE, HOUR, DAY
+    }
+
+    /**
+     * 查询段，区间为 [from, to)
+     */
+    public record Segment(Source source, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private TokenUsageRollupPlanner() {
+    }
+
+    /**
+     * 规划查询段
+     *
+     * @param from          区间开始（包含）
+     * @param to            区间结束（不包含）
+     * @param rawHorizon    原始记录最早完整时间，null 表示不限
+     * @param minuteHorizon 分钟聚合最早完整时间，null 表示不限
+     * @param hourHorizon   小时聚合最早完整时间，null 表示不限
+     * @return 按时间排序、互不重叠的查询段
+     */
+    public static List<Segment> plan(final LocalDateTime from, final LocalDateTime to,
+                                     final LocalDateTime rawHorizon,
+                                     final LocalDateTime minuteHorizon,
+                                     final LocalDateTime hourHorizon) {
+        List<Segment> segments = new ArrayList<>();
+        if (from == null || to == null || !from.isBefore(to)) {
+            return segments;
+        }
+        LocalDateTime s = alignStart(from, rawHorizon, minuteHorizon, hourHorizon);
+        LocalDateTime e = alignEnd(to, rawHorizon, minuteHorizon, hourHorizon);
+
+        LocalDateTime m0 = ceil(s, ChronoUnit.MINUTES);
+        LocalDateTime m1 = floor(e, ChronoUnit.MINUTES);
+        if (m0.isAfter(m1)) {
+            // 首尾位于同一分钟内
+            add(segments, Source.RAW, s, e);
+            return segments;
+        }
+        add(segments, Source.RAW, s, m0);
+
+        LocalDateTime h0 = ceil(s, ChronoUnit.HOURS);
+        LocalDateTime h1 = floor(e, ChronoUnit.HOURS);
+        if (!h0.isBefore(h1)) {
+            add(segments, Source.MINUTE, m0, m1);
+        } else {
+            add(segments, Source.MINUTE, m0, h0);
+            LocalDateTime d0 = ceil(s, ChronoUnit.DAYS);
+            LocalDateTime d1 = floor(e, ChronoUnit.DAYS);
+            if (!d0.isBefore(d1)) {
+                add(segments, Source.HOUR, h0, h1);
+            } else {
+                add(segments, Source.HOUR, h0, d0);
+                add(segments, Source.DAY, d0, d1);
+                add(segments, Source.HOUR, d1, h1);
+            }
+            add(segments, Source.MINUTE, h1, m1);
+        }
+
+        add(segments, Source.RAW, m1, e);
+        return segments;
+    }
+
+    /**
+     * 区间开始落在某粒度保留期之外时，向前对齐到仍然完整的更粗粒度
+     */
+    private static LocalDateTime alignStart(final LocalDateTime from, final LocalDateTime rawHorizon,
+                                            final LocalDateTime minuteHorizon, final LocalDateTime hourHorizon) {
+        if (covers(rawHorizon, from)) {
+            return from;
+        }
+        if (covers(minuteHorizon, from)) {
+            return floor(from, ChronoUnit.MINUTES);
+        }
+        if (covers(hourHorizon, from)) {
+            return floor(from, ChronoUnit.HOURS);
+        }
+        return floor(from, ChronoUnit.DAYS);
+    }
+
+    /**
+     * 区间结束一侧的原始/分钟/小时段落在保留期之外时，向后对齐到更粗粒度
+     */
+    private static LocalDateTime alignEnd(final LocalDateTime to, final LocalDateTime rawHorizon,
+                                          final LocalDateTime minuteHorizon, final LocalDateTime hourHorizon) {
+        if (covers(rawHorizon, floor(to, ChronoUnit.MINUTES))) {
+            return to;
+        }
+        if (covers(minuteHorizon, floor(to, ChronoUnit.HOURS))) {
+            return ceil(to, ChronoUnit.MINUTES);
+        }
+        if (covers(hourHorizon, floor(to, ChronoUnit.DAYS))) {
+            return ceil(to, ChronoUnit.HOURS);
+        }
+        return ceil(to, ChronoUnit.DAYS);
+    }
+
+    private static boolean covers(final LocalDateTime horizon, final LocalDateTime time) {
+        return horizon == null || !time.isBefore(horizon);
+    }
+
+    private static void add(final List<Segment> segments, final Source source,
+                            final LocalDateTime from, final LocalDateTime to) {
+        if (from.isBefore(to)) {
+            segments.add(new Segment(source, from, to));
+        }
+    }
+
+    static LocalDateTime floor(final LocalDateTime time, final ChronoUnit unit) {
+        return time.truncatedTo(unit);
+    }
+
+    static LocalDateTime ceil(final LocalDateTime time, final ChronoUnit unit) {
+        LocalDateTime floor = time.truncatedTo(unit);
+        return floor.equals(time) ? time : floor.plus(1, unit);
+    }
+}
@@ -0,0 +1,314 @@
+package org.unreal.modelrouter.monitor.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.unreal.modelrouter.config.core.TokenUsageRollupProperties;
+import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageEntity;
+import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageRollupEntity;
+import org.unreal.modelrouter.persistence.jpa.repository.TokenUsageRepository;
+import org.unreal.modelrouter.persistence.jpa.repository.TokenUsageRollupRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token 使用量预聚合服务
+ *
+ * 原始记录提交后，在独立事务中把每批记录累加到分钟/小时/天三种粒度的聚合表，另按小时累加一份
+ * 不分维度的合计供天粒度段统计小时分布。统计查询按 {@link TokenUsageRollupPlanner} 的规划读取聚合桶，
+ * 只有首尾不足一分钟的部分读取原始表，查询耗时与原始记录总数无关。累加失败时暂停预聚合，统计改走原始查询。
+ *
+ * 聚合桶按发生时间 occurred_at 划分。每次启动以最新的分钟桶（依次退到小时桶、天桶）确定已覆盖到的发生时间，
+ * 应用就绪后只回填发生在此之后、启动前写入的原始记录，因此停机、关闭预聚合或暂停期间的缺口都能补上，
+ * 空表则相当于全量回填；补齐前统计仍走原始查询。发生时间早于该时刻但迟到写入的记录不在补齐范围内。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenUsageRollupService implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final TokenUsageRollupRepository rollupRepository;
+    private final TokenUsageRepository tokenUsageRepository;
+    private final TokenUsageRollupProperties properties;
+
+    /**
+     * 聚合表为空时的回填起点
+     */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * 服务启动时间，此前写入的原始记录由回填统计
+     */
+    private volatile LocalDateTime startedAt;
+    /**
+     * 启动时聚合桶覆盖到的发生时间，回填从这里开始
+     */
+    private volatile LocalDateTime coveredUntil;
+    private volatile boolean ready;
+    private volatile boolean suspended;
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            log.info("Token usage rollup is disabled, statistics are computed from raw records");
+            return;
+        }
+        startedAt = LocalDateTime.now();
+        coveredUntil = coveredUntil();
+    }
+
+    /**
+     * 应用就绪后回填聚合桶尚未覆盖的原始记录
+     */
+    @Override
+    @Transactional
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int minutes = rollupRepository.backfillMinutes(coveredUntil, startedAt);
+        int hours = rollupRepository.backfillHours(coveredUntil, startedAt);
+        int days = rollupRepository.backfillDays(coveredUntil, startedAt);
+        int hourTotals = rollupRepository.backfillHourTotals(coveredUntil, startedAt);
+        if (minutes + hours + days + hourTotals > 0) {
+            log.info("Token usage rollup backfilled from {}: minuteBuckets={}, hourBuckets={}, dayBuckets={}, "
+                            + "hourTotals={}, elapsedMs={}", coveredUntil, minutes, hours, days, hourTotals,
+                    System.currentTimeMillis() - start);
+        }
+        ready = !suspended;
+    }
+
+    /**
+     * 最新一个桶的结束时间：优先取分钟桶，分钟桶已清理时依次取小时桶、天桶
+     */
+    private LocalDateTime coveredUntil() {
+        LocalDateTime minute = rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.MINUTE);
+        if (minute != null) {
+            return minute.plusMinutes(1);
+        }
+        LocalDateTime hour = rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.HOUR);
+        if (hour != null) {
+            return hour.plusHours(1);
+        }
+        LocalDateTime day = rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.DAY);
+        return day != null ? day.plusDays(1) : BEGINNING;
+    }
+
+    /**
+     * 聚合数据是否可用于统计查询
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 暂停预聚合，此后的批次不再累加，统计查询回到原始表
+     *
+     * @param cause 累加失败的异常
+     */
+    public void suspend(final Exception cause) {
+        if (!suspended) {
+            suspended = true;
+            ready = false;
+            log.warn("Token usage rollup suspended after a failed accumulation, missing buckets are "
+                    + "backfilled on next startup: {}", cause.getMessage());
+        }
+    }
+
+    /**
+     * 把一批原始记录累加到各粒度聚合桶
+     * 由写入方在原始记录提交后调用，在独立事务中执行；批内先在内存合并，每个桶只执行一次 MERGE
+     *
+     * @param entities 已提交的原始记录
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void accumulate(final List<TokenUsageEntity> entities) {
+        if (!properties.isEnabled() || suspended || entities == null || entities.isEmpty()) {
+            return;
+        }
+        Map<TokenUsageRollupEntity, TokenUsageRollupEntity> buckets = new LinkedHashMap<>();
+        for (TokenUsageEntity entity : entities) {
+            LocalDateTime occurredAt = entity.getOccurredAt() != null ? entity.getOccurredAt() : LocalDateTime.now();
+            LocalDateTime hour = occurredAt.truncatedTo(ChronoUnit.HOURS);
+            addToBucket(buckets, entity, TokenUsageRollupEntity.MINUTE, occurredAt.truncatedTo(ChronoUnit.MINUTES), true);
+            addToBucket(buckets, entity, TokenUsageRollupEntity.HOUR, hour, true);
+            addToBucket(buckets, entity, TokenUsageRollupEntity.DAY, occurredAt.truncatedTo(ChronoUnit.DAYS), true);
+            addToBucket(buckets, entity, TokenUsageRollupEntity.HOUR_TOTAL, hour, false);
+        }
+        for (TokenUsageRollupEntity b : buckets.values()) {
+            rollupRepository.upsert(b.getGranularity(), b.getBucketStart(), b.getModelName(), b.getServiceType(),
+                    b.getProvider(), b.getApiKeyId(), b.getUserId(), b.getInstanceName(),
+                    b.getRequestCount(), b.getSuccessCount(), b.getFailureCount(),
+                    b.getPromptTokens(), b.getCompletionTokens(), b.getTotalTokens(),
+                    b.getResponseTimeSum(), b.getResponseTimeCount());
+        }
+    }
+
+    /**
+     * 汇总 [startTime, endTime) 内的 Token 使用量
+     *
+     * @param startTime 开始时间
+     * @param endTime   结束时间
+     * @return 区间汇总结果
+     */
+    @Transactional(readOnly = true)
+    public TokenUsageAggregate aggregate(final LocalDateTime startTime, final LocalDateTime endTime) {
+        TokenUsageAggregate aggregate = new TokenUsageAggregate();
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenUsageRollupPlanner.Segment> segments = TokenUsageRollupPlanner.plan(startTime, endTime,
+                horizon(now, properties.getRawRetentionDays()),
+                horizon(now, properties.getMinuteRetentionDays()),
+                horizon(now, properties.getHourRetentionDays()));
+
+        for (TokenUsageRollupPlanner.Segment segment : segments) {
+            switch (segment.source()) {
+                case RAW -> addRawSegment(aggregate, segment);
+                case MINUTE -> addBuckets(aggregate, TokenUsageRollupEntity.MINUTE, segment, true);
+                case HOUR -> addBuckets(aggregate, TokenUsageRollupEntity.HOUR, segment, true);
+                case DAY -> {
+                    addBuckets(aggregate, TokenUsageRollupEntity.DAY, segment, false);
+                    // 天粒度的段可能早于小时桶的保留期，小时分布从保留期与天桶相同的小时合计读取
+                    for (Object[] row : rollupRepository.sumByHourOfDay(
+                            TokenUsageRollupEntity.HOUR_TOTAL, segment.from(), segment.to())) {
+                        aggregate.addHourOfDay(((Number) row[0]).intValue(), number(row[1]), number(row[2]));
+                    }
+                }
+            }
+        }
+        return aggregate;
+    }
+
+    /**
+     * 按保留期清理过期的聚合数据和原始记录
+     */
+    @Scheduled(cron = "${jairouter.token-usage.rollup.cleanup-cron:0 20 3 * * *}")
+    @Transactional
+    public void cleanupExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int minutes = deleteBefore(TokenUsageRollupEntity.MINUTE, now, properties.getMinuteRetentionDays());
+        int hours = deleteBefore(TokenUsageRollupEntity.HOUR, now, properties.getHourRetentionDays());
+        int days = deleteBefore(TokenUsageRollupEntity.DAY, now, properties.getDayRetentionDays());
+        deleteBefore(TokenUsageRollupEntity.HOUR_TOTAL, now, properties.getDayRetentionDays());
+        int raw = 0;
+        if (properties.getRawRetentionDays() > 0) {
+            raw = tokenUsageRepository.deleteByOccurredAtBefore(now.minusDays(properties.getRawRetentionDays()));
+        }
+        log.info("Token usage rollup cleanup: minuteBuckets={}, hourBuckets={}, dayBuckets={}, rawRecords={}",
+                minutes, hours, days, raw);
+    }
+
+    private int deleteBefore(final String granularity, final LocalDateTime now, final int retentionDays) {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        return rollupRepository.deleteByGranularityBefore(granularity, now.minusDays(retentionDays));
+    }
+
+    private void addBuckets(final TokenUsageAggregate aggregate, final String granularity,
+                            final TokenUsageRollupPlanner.Segment segment, final boolean countHourOfDay) {
+        for (TokenUsageRollupEntity bucket : rollupRepository.findBuckets(granularity, segment.from(), segment.to())) {
+            aggregate.add(bucket, countHourOfDay);
+        }
+    }
+
+    /**
+     * 原始段都在同一分钟内，聚合结果按该分钟计入
+     */
+    private void addRawSegment(final TokenUsageAggregate aggregate, final TokenUsageRollupPlanner.Segment segment) {
+        LocalDateTime minute = segment.from().truncatedTo(ChronoUnit.MINUTES);
+        for (Object[] row : tokenUsageRepository.aggregateByDimensions(segment.from(), segment.to())) {
+            aggregate.add(TokenUsageRollupEntity.builder()
+                    .granularity(TokenUsageRollupEntity.MINUTE)
+                    .bucketStart(minute)
+                    .modelName(dimension(row[0]))
+                    .serviceType(dimension(row[1]))
+                    .provider(dimension(row[2]))
+                    .apiKeyId(dimension(row[3]))
+                    .userId(dimension(row[4]))
+                    .instanceName(dimension(row[5]))
+                    .requestCount(number(row[6]))
+                    .successCount(number(row[7]))
+                    .failureCount(number(row[8]))
+                    .promptTokens(number(row[9]))
+                    .completionTokens(number(row[10]))
+                    .totalTokens(number(row[11]))
+                    .responseTimeSum(number(row[12]))
+                    .responseTimeCount(number(row[13]))
+                    .build(), true);
+        }
+    }
+
+    /**
+     * @param dimensional 是否按维度区分，为 false 时各维度记为空字符串
+     */
+    private static void addToBucket(final Map<TokenUsageRollupEntity, TokenUsageRollupEntity> buckets,
+                                    final TokenUsageEntity entity, final String granularity,
+                                    final LocalDateTime bucketStart, final boolean dimensional) {
+        TokenUsageRollupEntity key = TokenUsageRollupEntity.builder()
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .modelName(dimensional ? dimension(entity.getModelName()) : "")
+                .serviceType(dimensional ? dimension(entity.getServiceType()) : "")
+                .provider(dimensional ? dimension(entity.getProvider()) : "")
+                .apiKeyId(dimensional ? dimension(entity.getApiKeyId()) : "")
+                .userId(dimensional ? dimension(entity.getUserId()) : "")
+                .instanceName(dimensional ? dimension(entity.getInstanceName()) : "")
+                .build();
+        TokenUsageRollupEntity bucket = buckets.computeIfAbsent(key, k -> TokenUsageRollupEntity.builder()
+                .granularity(k.getGranularity())
+                .bucketStart(k.getBucketStart())
+                .modelName(k.getModelName())
+                .serviceType(k.getServiceType())
+                .provider(k.getProvider())
+                .apiKeyId(k.getApiKeyId())
+                .userId(k.getUserId())
+                .instanceName(k.getInstanceName())
+                .requestCount(0L).successCount(0L).failureCount(0L)
+                .promptTokens(0L).completionTokens(0L).totalTokens(0L)
+                .responseTimeSum(0L).responseTimeCount(0L)
+                .build());
+
+        bucket.setRequestCount(bucket.getRequestCount() + 1);
+        if (Boolean.TRUE.equals(entity.getIsSuccess())) {
+            bucket.setSuccessCount(bucket.getSuccessCount() + 1);
+        } else if (Boolean.FALSE.equals(entity.getIsSuccess())) {
+            bucket.setFailureCount(bucket.getFailureCount() + 1);
+        }
+        bucket.setPromptTokens(bucket.getPromptTokens() + number(entity.getPromptTokens()));
+        bucket.setCompletionTokens(bucket.getCompletionTokens() + number(entity.getCompletionTokens()));
+        bucket.setTotalTokens(bucket.getTotalTokens() + number(entity.getTotalTokens()));
+        if (entity.getResponseTimeMs() != null) {
+            bucket.setResponseTimeSum(bucket.getResponseTimeSum() + entity.getResponseTimeMs());
+            bucket.setResponseTimeCount(bucket.getResponseTimeCount() + 1);
+        }
+    }
+
+    private static LocalDateTime horizon(final LocalDateTime now, final int retentionDays) {
+        return retentionDays > 0 ? now.minusDays(retentionDays) : null;
+    }
+
+    private static String dimension(final Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static long number(final Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -2,8 +2,11 @@ package org.unreal.modelrouter.monitor.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.unreal.modelrouter.monitor.dto.TokenUsageRecordDTO;
 import org.unreal.modelrouter.monitor.dto.TokenUsageStatisticsDTO;
 import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageEntity;
@@ -29,6 +32,9 @@ public class TokenUsageService {
 
     private final TokenUsageRepository tokenUsageRepository;
 
+    @Autowired(required = false)
+    private TokenUsageRollupService rollupService;
+
     /**
      * 记录 Token 使用量
      *
@@ -37,28 +43,9 @@ public class TokenUsageService {
     @Transactional
     public void recordTokenUsage(TokenUsageRecordDTO record) {
         try {
-            TokenUsageEntity entity = TokenUsageEntity.builder()
-                    .traceId(record.getTraceId())
-                    .serviceType(record.getServiceType())
-                    .modelName(record.getModelName())
-                    .provider(record.getProvider())
-                    .instanceName(record.getInstanceName())
-                    .instanceUrl(record.getInstanceUrl())
-                    .promptTokens(record.getPromptTokens() != null ? record.getPromptTokens() : 0L)
-                    .completionTokens(record.getCompletionTokens() != null ? record.getCompletionTokens() : 0L)
-                    .totalTokens(record.getTotalTokens() != null ? record.getTotalTokens() : 0L)
-                    .apiKeyId(record.getApiKeyId())
-                    .userId(record.getUserId())
-                    .clientIp(record.getClientIp())
-                    .isSuccess(record.getIsSuccess())
-                    .errorCode(record.getErrorCode())
-                    .errorMessage(record.getErrorMessage())
-                    .responseTimeMs(record.getResponseTimeMs())
-                    .occurredAt(record.getOccurredAt() != null ? record.getOccurredAt() : LocalDateTime.now())
-                    .metadata(record.getMetadata())
-                    .build();
-
+            TokenUsageEntity entity = toEntity(record);
             tokenUsageRepository.save(entity);
+            accumulateAfterCommit(List.of(entity));
             log.debug("Token usage recorded: model={}, totalTokens={}, serviceType={}",
                     record.getModelName(), record.getTotalTokens(), record.getServiceType());
         } catch (Exception e) {
@@ -68,18 +55,93 @@ public class TokenUsageService {
 
     /**
      * 批量记录 Token 使用量
+     * 所有记录在同一个事务内 saveAll，失败时只记录日志
      *
      * @param records Token 使用量记录列表
      */
     @Transactional
     public void recordTokenUsageBatch(List<TokenUsageRecordDTO> records) {
+        try {
+            saveBatch(records);
+        } catch (Exception e) {
+            log.error("Failed to record token usage batch: size={}", records.size(), e);
+        }
+    }
+
+    /**
+     * 在单个事务内批量保存 Token 使用量，异常向调用方抛出
+     * 供 {@link TokenUsageIngestionQueue} 的写线程统计失败数
+     *
+     * @param records Token 使用量记录列表
+     */
+    @Transactional
+    public void saveBatch(List<TokenUsageRecordDTO> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        List<TokenUsageEntity> entities = new ArrayList<>(records.size());
         for (TokenUsageRecordDTO record : records) {
-            recordTokenUsage(record);
+            entities.add(toEntity(record));
         }
+        tokenUsageRepository.saveAll(entities);
+        accumulateAfterCommit(entities);
+        log.debug("Token usage batch recorded: size={}", entities.size());
+    }
+
+    /**
+     * 等原始记录提交后再累加预聚合，累加异常不会让这批原始记录回滚
+     * 累加失败即暂停预聚合，聚合表的缺口由下次启动时的回填补齐
+     */
+    private void accumulateAfterCommit(final List<TokenUsageEntity> entities) {
+        if (rollupService == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(entities);
+                }
+            });
+        } else {
+            accumulate(entities);
+        }
+    }
+
+    private void accumulate(final List<TokenUsageEntity> entities) {
+        try {
+            rollupService.accumulate(entities);
+        } catch (Exception e) {
+            rollupService.suspend(e);
+        }
+    }
+
+    private TokenUsageEntity toEntity(TokenUsageRecordDTO record) {
+        return TokenUsageEntity.builder()
+                .traceId(record.getTraceId())
+                .serviceType(record.getServiceType())
+                .modelName(record.getModelName())
+                .provider(record.getProvider())
+                .instanceName(record.getInstanceName())
+                .instanceUrl(record.getInstanceUrl())
+                .promptTokens(record.getPromptTokens() != null ? record.getPromptTokens() : 0L)
+                .completionTokens(record.getCompletionTokens() != null ? record.getCompletionTokens() : 0L)
+                .totalTokens(record.getTotalTokens() != null ? record.getTotalTokens() : 0L)
+                .apiKeyId(record.getApiKeyId())
+                .userId(record.getUserId())
+                .clientIp(record.getClientIp())
+                .isSuccess(record.getIsSuccess())
+                .errorCode(record.getErrorCode())
+                .errorMessage(record.getErrorMessage())
+                .responseTimeMs(record.getResponseTimeMs())
+                .occurredAt(record.getOccurredAt() != null ? record.getOccurredAt() : LocalDateTime.now())
+                .metadata(record.getMetadata())
+                .build();
     }
 
     /**
      * 获取 Token 使用量统计信息
+     * 预聚合数据可用时从聚合表汇总，否则直接查询原始表
      *
      * @param startTime 开始时间
      * @param endTime   结束时间
@@ -97,24 +159,39 @@ public class TokenUsageService {
                 .endTime(effectiveEndTime)
                 .build();
 
+        TokenUsageAggregate aggregate = rollupAggregate(effectiveStartTime, effectiveEndTime);
+
         // 基本统计
-        dto.setTotalRequests(tokenUsageRepository.countAllUsage());
-        dto.setTotalTokens(tokenUsageRepository.countTotalTokensByTimeRange(effectiveStartTime, effectiveEndTime));
-        dto.setSuccessfulRequests(tokenUsageRepository.countSuccessByTimeRange(effectiveStartTime, effectiveEndTime));
-        dto.setFailedRequests(tokenUsageRepository.countFailedByTimeRange(effectiveStartTime, effectiveEndTime));
-        dto.setAvgResponseTimeMs(tokenUsageRepository.avgResponseTimeByTimeRange(effectiveStartTime, effectiveEndTime));
-
-        // 计算输入输出 token（需要单独查询）
-        List<Object[]> tokenDetails =
-                tokenUsageRepository.countTokensByServiceType(effectiveStartTime, effectiveEndTime);
-        long totalPrompt = 0L;
-        long totalCompletion = 0L;
-        for (Object[] row : tokenDetails) {
-            totalPrompt += (Long) row[2];
-            totalCompletion += (Long) row[3];
+        if (aggregate != null) {
+            dto.setTotalRequests(aggregate.getRequestCount());
+            dto.setTotalTokens(aggregate.getTotalTokens());
+            dto.setSuccessfulRequests(aggregate.getSuccessCount());
+            dto.setFailedRequests(aggregate.getFailureCount());
+            dto.setAvgResponseTimeMs(aggregate.getAvgResponseTimeMs());
+            dto.setTotalPromptTokens(aggregate.getPromptTokens());
+            dto.setTotalCompletionTokens(aggregate.getCompletionTokens());
+        } else {
+            dto.setTotalRequests(tokenUsageRepository.countByTimeRange(effectiveStartTime, effectiveEndTime));
+            dto.setTotalTokens(
+                    tokenUsageRepository.countTotalTokensByTimeRange(effectiveStartTime, effectiveEndTime));
+            dto.setSuccessfulRequests(
+                    tokenUsageRepository.countSuccessByTimeRange(effectiveStartTime, effectiveEndTime));
+            dto.setFailedRequests(tokenUsageRepository.countFailedByTimeRange(effectiveStartTime, effectiveEndTime));
+            dto.setAvgResponseTimeMs(
+                    tokenUsageRepository.avgResponseTimeByTimeRange(effectiveStartTime, effectiveEndTime));
+
+            // 计算输入输出 token（需要单独查询）
+            List<Object[]> tokenDetails =
+                    tokenUsageRepository.countTokensByServiceType(effectiveStartTime, effectiveEndTime);
+            long totalPrompt = 0L;
+            long totalCompletion = 0L;
+            for (Object[] row : tokenDetails) {
+                totalPrompt += (Long) row[2];
+                totalCompletion += (Long) row[3];
+            }
+            dto.setTotalPromptTokens(totalPrompt);
+            dto.setTotalCompletionTokens(totalCompletion);
         }
-        dto.setTotalPromptTokens(totalPrompt);
-        dto.setTotalCompletionTokens(totalCompletion);
 
         // 计算成功率
         if (dto.getTotalRequests() > 0) {
@@ -124,7 +201,8 @@ public class TokenUsageService {
         }
 
         // 按模型统计
-        List<Object[]> byModel = tokenUsageRepository.countTokensByModel(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byModel = aggregate != null ? aggregate.countTokensByModel()
+                : tokenUsageRepository.countTokensByModel(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.ModelTokenStats> modelStats = new ArrayList<>();
         for (Object[] row : byModel) {
             String modelName = (String) row[0];
@@ -141,7 +219,8 @@ public class TokenUsageService {
 
         // 按服务类型统计
         List<Object[]> byServiceType =
-                tokenUsageRepository.countTokensByServiceType(effectiveStartTime, effectiveEndTime);
+                aggregate != null ? aggregate.countTokensByServiceType()
+                : tokenUsageRepository.countTokensByServiceType(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.ServiceTypeStats> serviceTypeStats = new ArrayList<>();
         for (Object[] row : byServiceType) {
             String serviceType = (String) row[0];
@@ -156,7 +235,8 @@ public class TokenUsageService {
         dto.setByServiceType(serviceTypeStats);
 
         // 按提供商统计
-        List<Object[]> byProvider = tokenUsageRepository.countTokensByProvider(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byProvider = aggregate != null ? aggregate.countTokensByProvider()
+                : tokenUsageRepository.countTokensByProvider(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.ProviderStats> providerStats = new ArrayList<>();
         for (Object[] row : byProvider) {
             String provider = (String) row[0];
@@ -168,7 +248,8 @@ public class TokenUsageService {
         dto.setByProvider(providerStats);
 
         // 按日期统计
-        List<Object[]> byDay = tokenUsageRepository.countTokensByDay(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byDay = aggregate != null ? aggregate.countTokensByDay()
+                : tokenUsageRepository.countTokensByDay(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.DailyStats> dailyStats = new ArrayList<>();
         for (Object[] row : byDay) {
             String date = (String) row[0];
@@ -183,7 +264,8 @@ public class TokenUsageService {
         dto.setByDay(dailyStats);
 
         // 按周统计
-        List<Object[]> byWeek = tokenUsageRepository.countTokensByWeek(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byWeek = aggregate != null ? aggregate.countTokensByWeek()
+                : tokenUsageRepository.countTokensByWeek(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.WeeklyStats> weeklyStats = new ArrayList<>();
         for (Object[] row : byWeek) {
             Integer year = (Integer) row[0];
@@ -200,7 +282,8 @@ public class TokenUsageService {
         dto.setByWeek(weeklyStats);
 
         // 按月统计
-        List<Object[]> byMonth = tokenUsageRepository.countTokensByMonth(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byMonth = aggregate != null ? aggregate.countTokensByMonth()
+                : tokenUsageRepository.countTokensByMonth(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.MonthlyStats> monthlyStats = new ArrayList<>();
         for (Object[] row : byMonth) {
             Integer year = (Integer) row[0];
@@ -217,7 +300,8 @@ public class TokenUsageService {
         dto.setByMonth(monthlyStats);
 
         // 按小时统计
-        List<Object[]> byHour = tokenUsageRepository.countTokensByHour(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byHour = aggregate != null ? aggregate.countTokensByHour()
+                : tokenUsageRepository.countTokensByHour(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.HourlyStats> hourlyStats = new ArrayList<>();
         for (Object[] row : byHour) {
             Integer hour = (Integer) row[0];
@@ -230,7 +314,8 @@ public class TokenUsageService {
         dto.setByHour(hourlyStats);
 
         // 按 API Key 统计（可选）
-        List<Object[]> byApiKey = tokenUsageRepository.countTokensByApiKey(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byApiKey = aggregate != null ? aggregate.countTokensByApiKey()
+                : tokenUsageRepository.countTokensByApiKey(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.ApiKeyStats> apiKeyStats = new ArrayList<>();
         for (Object[] row : byApiKey) {
             String apiKeyId = (String) row[0];
@@ -242,7 +327,8 @@ public class TokenUsageService {
         dto.setByApiKey(apiKeyStats);
 
         // 按用户统计（可选）
-        List<Object[]> byUser = tokenUsageRepository.countTokensByUser(effectiveStartTime, effectiveEndTime);
+        List<Object[]> byUser = aggregate != null ? aggregate.countTokensByUser()
+                : tokenUsageRepository.countTokensByUser(effectiveStartTime, effectiveEndTime);
         List<TokenUsageStatisticsDTO.UserStats> userStats = new ArrayList<>();
         for (Object[] row : byUser) {
             String userId = (String) row[0];
@@ -301,7 +387,9 @@ public class TokenUsageService {
      */
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getTopModels(LocalDateTime startTime, LocalDateTime endTime, int limit) {
-        List<Object[]> results = tokenUsageRepository.countTokensByModel(startTime, endTime);
+        TokenUsageAggregate aggregate = rollupAggregate(startTime, endTime);
+        List<Object[]> results = aggregate != null ? aggregate.countTokensByModel()
+                : tokenUsageRepository.countTokensByModel(startTime, endTime);
         List<Map<String, Object>> topModels = new ArrayList<>();
 
         for (int i = 0; i < Math.min(limit, results.size()); i++) {
@@ -329,7 +417,9 @@ public class TokenUsageService {
      */
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getTopServiceTypes(LocalDateTime startTime, LocalDateTime endTime, int limit) {
-        List<Object[]> results = tokenUsageRepository.countTokensByServiceType(startTime, endTime);
+        TokenUsageAggregate aggregate = rollupAggregate(startTime, endTime);
+        List<Object[]> results = aggregate != null ? aggregate.countTokensByServiceType()
+                : tokenUsageRepository.countTokensByServiceType(startTime, endTime);
         List<Map<String, Object>> topServiceTypes = new ArrayList<>();
 
         for (int i = 0; i < Math.min(limit, results.size()); i++) {
@@ -346,4 +436,14 @@ public class TokenUsageService {
 
         return topServiceTypes;
     }
+
+    /**
+     * 预聚合数据可用时返回区间汇总结果，否则返回 null 由调用方回退到原始查询
+     */
+    private TokenUsageAggregate rollupAggregate(LocalDateTime startTime, LocalDateTime endTime) {
+        if (rollupService == null || !rollupService.isReady() || startTime == null || endTime == null) {
+            return null;
+        }
+        return rollupService.aggregate(startTime, endTime);
+    }
 }
@@ -0,0 +1,159 @@
+package org.unreal.modelrouter.monitor.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁定长对数-线性直方图
+ *
+ * 桶布局与 HdrHistogram 类似：小于 16 的值逐一计数，之后每个 2 的幂区间再线性切分为 16 个子桶，
+ * 相对误差不超过 1/16。所有桶在构造时一次性分配（544 个 long，约 4.3KB），
+ * 记录操作只有一次数组下标计算和一次原子自增，不分配对象、不加锁。
+ *
+ * 可记录的最大值为 2^37 - 1，超出部分按最大值计入（以微秒计约 38 小时）。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    private static final int MAX_EXPONENT = 36;
+
+    /**
+     * 可精确区分的最大值
+     */
+    public static final long MAX_TRACKABLE_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * 记录一个值，负值按 0 处理
+     *
+     * @param value 观测值
+     */
+    public void record(final long value) {
+        long v = value < 0 ? 0 : Math.min(value, MAX_TRACKABLE_VALUE);
+        counts.incrementAndGet(bucketIndex(v));
+        totalCount.increment();
+        totalSum.add(v);
+        long currentMax = maxValue.get();
+        while (v > currentMax && !maxValue.compareAndSet(currentMax, v)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * 将另一个直方图的计数累加到当前直方图
+     *
+     * @param other 源直方图
+     */
+    public void add(final LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalSum.add(other.totalSum.sum());
+        long otherMax = other.maxValue.get();
+        long currentMax = maxValue.get();
+        while (otherMax > currentMax && !maxValue.compareAndSet(currentMax, otherMax)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * 清空所有计数
+     * 与并发记录之间不做同步，重置瞬间落入的少量样本可能丢失，对统计窗口而言可以接受
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        maxValue.set(0);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * 获取指定百分位的值
+     * 返回所在桶的中点，并且不超过已记录的最大值
+     *
+     * @param percentile 百分位，取值 0-100
+     * @return 百分位值，无样本时返回 0
+     */
+    public long getValueAtPercentile(final double percentile) {
+        long count = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        if (percentile >= 100.0) {
+            return maxValue.get();
+        }
+        double p = Math.max(0.0, percentile);
+        long target = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= target) {
+                return Math.min(bucketMidpoint(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & SUB_BUCKET_MASK;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketLowerBound(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        int subBucket = index & SUB_BUCKET_MASK;
+        return (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+
+    private static long bucketMidpoint(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return bucketLowerBound(index) + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,231 @@
+package org.unreal.modelrouter.monitor.stats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.config.core.MonitoringProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 模型延迟分布注册表
+ *
+ * 按 (服务类型, 模型, 实例) 维护 {@link ModelLatencyStats}，记录端到端延迟、
+ * 首 token 延迟、token 间延迟和输出吞吐的滑动窗口百分位，并导出为 Prometheus 直方图。
+ * 组合数量有上限，超出后新的组合统一计入 "_other"，防止模型名基数失控。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Component
+public class ModelLatencyRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelLatencyRegistry.class);
+
+    static final String OVERFLOW_TAG = "_other";
+
+    private final MeterRegistry meterRegistry;
+    private final String metricPrefix;
+    private final long windowMillis;
+    private final int slotCount;
+    private final int maxKeys;
+
+    private final ConcurrentHashMap<String, ModelLatencyStats> statsMap = new ConcurrentHashMap<>();
+    private final AtomicBoolean overflowWarned = new AtomicBoolean();
+
+    public ModelLatencyRegistry(final MeterRegistry meterRegistry,
+                                final MonitoringProperties monitoringProperties) {
+        this.meterRegistry = meterRegistry;
+        String prefix = monitoringProperties.getPrefix();
+        this.metricPrefix = (prefix != null && !prefix.isEmpty()) ? prefix + "_" : "";
+        MonitoringProperties.Performance performance = monitoringProperties.getPerformance();
+        this.windowMillis = TimeUnit.SECONDS.toMillis(Math.max(1, performance.getLatencyWindowSeconds()));
+        this.slotCount = Math.max(1, performance.getLatencyWindowSlots());
+        this.maxKeys = Math.max(1, performance.getMaxLatencyStatsKeys());
+    }
+
+    /**
+     * 记录非流式请求的端到端延迟
+     *
+     * @param serviceType 服务类型
+     * @param modelName 模型名称
+     * @param instanceName 实例名称
+     * @param durationNanos 请求耗时（纳秒）
+     */
+    public void recordRequest(final String serviceType,
+                              final String modelName,
+                              final String instanceName,
+                              final long durationNanos) {
+        getOrCreate(serviceType, modelName, instanceName).recordLatency(durationNanos);
+    }
+
+    /**
+     * 记录一次完成的流式请求
+     * 吞吐按解码阶段计算：输出 token 数 / (总耗时 - 首 token 延迟)，
+     * token 间延迟为解码阶段耗时在相邻 token 之间的平均值
+     *
+     * @param serviceType 服务类型
+     * @param modelName 模型名称
+     * @param instanceName 实例名称
+     * @param durationNanos 请求总耗时（纳秒）
+     * @param ttftNanos 首个 SSE 数据块到达耗时（纳秒），小于 0 表示未收到数据块
+     * @param outputTokens 输出 token 数
+     */
+    public void recordStreaming(final String serviceType,
+                                final String modelName,
+                                final String instanceName,
+                                final long durationNanos,
+                                final long ttftNanos,
+                                final long outputTokens) {
+        ModelLatencyStats stats = getOrCreate(serviceType, modelName, instanceName);
+        stats.recordLatency(durationNanos);
+        if (ttftNanos < 0) {
+            return;
+        }
+        stats.recordTimeToFirstToken(ttftNanos);
+        long decodeNanos = durationNanos - ttftNanos;
+        if (outputTokens > 1 && decodeNanos > 0) {
+            stats.recordInterTokenLatency(decodeNanos / (outputTokens - 1));
+            stats.recordTokensPerSecond(outputTokens * 1_000_000_000.0 / decodeNanos);
+        }
+    }
+
+    /**
+     * 获取指定组合的统计，不存在时返回 null
+     */
+    public ModelLatencyStats getStats(final String serviceType, final String modelName, final String instanceName) {
+        return statsMap.get(key(normalize(serviceType), normalize(modelName), normalize(instanceName)));
+    }
+
+    /**
+     * 获取所有组合的百分位快照
+     *
+     * @param serviceType 服务类型过滤，为 null 时返回全部
+     * @return 快照列表，按服务类型、模型、实例排序
+     */
+    public List<Map<String, Object>> getSnapshots(final String serviceType) {
+        return collect(serviceType, null);
+    }
+
+    /**
+     * 获取指定模型在所有实例上的百分位快照
+     */
+    public List<Map<String, Object>> getSnapshots(final String serviceType, final String modelName) {
+        return collect(serviceType, modelName);
+    }
+
+    /**
+     * 清空所有统计，已注册的 Prometheus 仪表保持不变
+     */
+    public void clear() {
+        statsMap.clear();
+    }
+
+    public int size() {
+        return statsMap.size();
+    }
+
+    private List<Map<String, Object>> collect(final String serviceType, final String modelName) {
+        List<ModelLatencyStats> matched = new ArrayList<>();
+        for (ModelLatencyStats stats : statsMap.values()) {
+            if (serviceType != null && !serviceType.equalsIgnoreCase(stats.getServiceType())) {
+                continue;
+            }
+            if (modelName != null && !modelName.equals(stats.getModelName())) {
+                continue;
+            }
+            matched.add(stats);
+        }
+        matched.sort(Comparator.comparing(ModelLatencyStats::getServiceType)
+                .thenComparing(ModelLatencyStats::getModelName)
+                .thenComparing(ModelLatencyStats::getInstanceName));
+        List<Map<String, Object>> result = new ArrayList<>(matched.size());
+        for (ModelLatencyStats stats : matched) {
+            result.add(stats.snapshot());
+        }
+        return result;
+    }
+
+    private ModelLatencyStats getOrCreate(final String serviceType, final String modelName, final String instanceName) {
+        String service = normalize(serviceType);
+        String model = normalize(modelName);
+        String instance = normalize(instanceName);
+        String key = key(service, model, instance);
+        ModelLatencyStats stats = statsMap.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (statsMap.size() >= maxKeys) {
+            if (overflowWarned.compareAndSet(false, true)) {
+                logger.warn("Model latency stats reached its limit of {} combinations, "
+                        + "further combinations are recorded under '{}'", maxKeys, OVERFLOW_TAG);
+            }
+            return statsMap.computeIfAbsent(key(OVERFLOW_TAG, OVERFLOW_TAG, OVERFLOW_TAG),
+                    k -> create(OVERFLOW_TAG, OVERFLOW_TAG, OVERFLOW_TAG));
+        }
+        return statsMap.computeIfAbsent(key, k -> create(service, model, instance));
+    }
+
+    private ModelLatencyStats create(final String service, final String model, final String instance) {
+        ModelLatencyStats.Meters meters = null;
+        if (meterRegistry != null) {
+            try {
+                meters = new ModelLatencyStats.Meters(
+                        timer("model_request_duration_seconds", "模型请求端到端延迟",
+                                service, model, instance, Duration.ofMillis(5), Duration.ofMinutes(5)),
+                        timer("model_time_to_first_token_seconds", "流式请求首 token 延迟",
+                                service, model, instance, Duration.ofMillis(5), Duration.ofMinutes(2)),
+                        timer("model_inter_token_latency_seconds", "流式请求 token 间延迟",
+                                service, model, instance, Duration.ofNanos(100_000), Duration.ofSeconds(5)),
+                        DistributionSummary.builder(metricPrefix + "model_output_tokens_per_second")
+                                .description("流式请求输出吞吐（tokens/s）")
+                                .tag("service", service)
+                                .tag("model", model)
+                                .tag("instance", instance)
+                                .publishPercentileHistogram()
+                                .minimumExpectedValue(1.0)
+                                .maximumExpectedValue(10_000.0)
+                                .register(meterRegistry));
+            } catch (Exception e) {
+                logger.warn("Failed to register model latency meters: {}", e.getMessage());
+            }
+        }
+        return new ModelLatencyStats(service, model, instance, windowMillis, slotCount, meters);
+    }
+
+    private Timer timer(final String name,
+                        final String description,
+                        final String service,
+                        final String model,
+                        final String instance,
+                        final Duration min,
+                        final Duration max) {
+        return Timer.builder(metricPrefix + name)
+                .description(description)
+                .tag("service", service)
+                .tag("model", model)
+                .tag("instance", instance)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(min)
+                .maximumExpectedValue(max)
+                .register(meterRegistry);
+    }
+
+    private static String key(final String service, final String model, final String instance) {
+        return service + ':' + model + ':' + instance;
+    }
+
+    private static String normalize(final String value) {
+        return value == null || value.isEmpty() ? "unknown" : value;
+    }
+}
@@ -0,0 +1,204 @@
+package org.unreal.modelrouter.monitor.stats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个 (服务类型, 模型, 实例) 的延迟分布统计
+ *
+ * 维护四个滑动窗口直方图：
+ * - 端到端延迟（微秒）
+ * - 首 token 延迟 TTFT（微秒，仅流式请求）
+ * - token 间延迟 ITL（微秒，仅流式请求）
+ * - 输出吞吐 tokens/s（以 1/100 精度存储）
+ *
+ * 同时可选地持有对应的 Micrometer 仪表，用于导出 Prometheus 直方图。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class ModelLatencyStats {
+
+    private static final double TOKENS_PER_SECOND_SCALE = 100.0;
+    private static final double[] PERCENTILES = {50.0, 90.0, 95.0, 99.0};
+
+    private final String serviceType;
+    private final String modelName;
+    private final String instanceName;
+
+    private final SlidingWindowHistogram latency;
+    private final SlidingWindowHistogram timeToFirstToken;
+    private final SlidingWindowHistogram interTokenLatency;
+    private final SlidingWindowHistogram tokensPerSecond;
+
+    private final Meters meters;
+
+    private volatile long lastRecordTime;
+
+    /**
+     * @param serviceType 服务类型
+     * @param modelName 模型名称
+     * @param instanceName 实例名称
+     * @param windowMillis 滑动窗口长度（毫秒）
+     * @param slotCount 窗口分片数
+     * @param meters Micrometer 仪表，可为 null
+     */
+    public ModelLatencyStats(final String serviceType,
+                             final String modelName,
+                             final String instanceName,
+                             final long windowMillis,
+                             final int slotCount,
+                             final Meters meters) {
+        this.serviceType = serviceType;
+        this.modelName = modelName;
+        this.instanceName = instanceName;
+        this.latency = new SlidingWindowHistogram(windowMillis, slotCount);
+        this.timeToFirstToken = new SlidingWindowHistogram(windowMillis, slotCount);
+        this.interTokenLatency = new SlidingWindowHistogram(windowMillis, slotCount);
+        this.tokensPerSecond = new SlidingWindowHistogram(windowMillis, slotCount);
+        this.meters = meters;
+    }
+
+    /**
+     * 记录一次请求的端到端延迟
+     *
+     * @param durationNanos 请求耗时（纳秒）
+     */
+    public void recordLatency(final long durationNanos) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        if (meters != null && meters.latency() != null) {
+            meters.latency().record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+        lastRecordTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 记录流式请求的首 token 延迟
+     *
+     * @param ttftNanos 从发出请求到收到首个 SSE 数据块的耗时（纳秒）
+     */
+    public void recordTimeToFirstToken(final long ttftNanos) {
+        timeToFirstToken.record(TimeUnit.NANOSECONDS.toMicros(ttftNanos));
+        if (meters != null && meters.timeToFirstToken() != null) {
+            meters.timeToFirstToken().record(ttftNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录流式请求的平均 token 间延迟
+     *
+     * @param itlNanos token 间延迟（纳秒）
+     */
+    public void recordInterTokenLatency(final long itlNanos) {
+        interTokenLatency.record(TimeUnit.NANOSECONDS.toMicros(itlNanos));
+        if (meters != null && meters.interTokenLatency() != null) {
+            meters.interTokenLatency().record(itlNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录输出吞吐
+     *
+     * @param value 每秒输出 token 数
+     */
+    public void recordTokensPerSecond(final double value) {
+        if (value < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        tokensPerSecond.record(Math.round(value * TOKENS_PER_SECOND_SCALE));
+        if (meters != null && meters.tokensPerSecond() != null) {
+            meters.tokensPerSecond().record(value);
+        }
+    }
+
+    /**
+     * 获取窗口内的百分位快照
+     *
+     * @return 包含 latency/ttft/itl 毫秒分位和 tokens/s 分位的 Map
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("serviceType", serviceType);
+        result.put("modelName", modelName);
+        result.put("instanceName", instanceName);
+        result.put("windowSeconds", latency.getWindowMillis() / 1000);
+        result.put("lastRecordTime", lastRecordTime);
+        result.put("latencyMs", describe(latency.snapshot(), 1000.0));
+        result.put("timeToFirstTokenMs", describe(timeToFirstToken.snapshot(), 1000.0));
+        result.put("interTokenLatencyMs", describe(interTokenLatency.snapshot(), 1000.0));
+        result.put("tokensPerSecond", describe(tokensPerSecond.snapshot(), TOKENS_PER_SECOND_SCALE));
+        return result;
+    }
+
+    /**
+     * 获取窗口内首 token 延迟的百分位值（毫秒）
+     * 供路由决策等场景直接读取，无样本时返回 -1
+     *
+     * @param percentile 百分位，取值 0-100
+     * @return 首 token 延迟（毫秒）
+     */
+    public double getTimeToFirstTokenMillis(final double percentile) {
+        LatencyHistogram histogram = timeToFirstToken.snapshot();
+        return histogram.getCount() == 0 ? -1 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * 获取窗口内端到端延迟的百分位值（毫秒），无样本时返回 -1
+     *
+     * @param percentile 百分位，取值 0-100
+     * @return 延迟（毫秒）
+     */
+    public double getLatencyMillis(final double percentile) {
+        LatencyHistogram histogram = latency.snapshot();
+        return histogram.getCount() == 0 ? -1 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public String getInstanceName() {
+        return instanceName;
+    }
+
+    public long getLastRecordTime() {
+        return lastRecordTime;
+    }
+
+    private static Map<String, Object> describe(final LatencyHistogram histogram, final double divisor) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getCount());
+        result.put("mean", round(histogram.getMean() / divisor));
+        result.put("max", round(histogram.getMax() / divisor));
+        for (double p : PERCENTILES) {
+            result.put("p" + (int) p, round(histogram.getValueAtPercentile(p) / divisor));
+        }
+        return result;
+    }
+
+    private static double round(final double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * 导出到 Prometheus 的 Micrometer 仪表
+     *
+     * @param latency 端到端延迟
+     * @param timeToFirstToken 首 token 延迟
+     * @param interTokenLatency token 间延迟
+     * @param tokensPerSecond 输出吞吐
+     */
+    public record Meters(Timer latency,
+                         Timer timeToFirstToken,
+                         Timer interTokenLatency,
+                         DistributionSummary tokensPerSecond) {
+    }
+}
@@ -0,0 +1,82 @@
+package org.unreal.modelrouter.monitor.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 滑动窗口直方图
+ *
+ * 将窗口切分为固定数量的分片，每个分片是一个 {@link LatencyHistogram}。
+ * 记录时按当前时间计算分片纪元，纪元过期的分片由第一个到达的线程通过 CAS 认领并清空，
+ * 整个过程无锁；查询时合并仍在窗口内的分片。内存占用固定为 分片数 × 单个直方图大小。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class SlidingWindowHistogram {
+
+    private final long slotMillis;
+    private final Slot[] slots;
+    private final LongSupplier clock;
+
+    /**
+     * @param windowMillis 窗口长度（毫秒）
+     * @param slotCount 分片数量
+     */
+    public SlidingWindowHistogram(final long windowMillis, final int slotCount) {
+        this(windowMillis, slotCount, System::currentTimeMillis);
+    }
+
+    SlidingWindowHistogram(final long windowMillis, final int slotCount, final LongSupplier clock) {
+        int count = Math.max(1, slotCount);
+        this.slotMillis = Math.max(1, windowMillis / count);
+        this.slots = new Slot[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = new Slot();
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * 记录一个值
+     *
+     * @param value 观测值
+     */
+    public void record(final long value) {
+        long epoch = clock.getAsLong() / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        long slotEpoch = slot.epoch.get();
+        if (slotEpoch < epoch && slot.epoch.compareAndSet(slotEpoch, epoch)) {
+            slot.histogram.reset();
+        }
+        slot.histogram.record(value);
+    }
+
+    /**
+     * 合并窗口内所有分片
+     *
+     * @return 新的直方图快照
+     */
+    public LatencyHistogram snapshot() {
+        long oldestEpoch = clock.getAsLong() / slotMillis - slots.length + 1;
+        LatencyHistogram merged = new LatencyHistogram();
+        for (Slot slot : slots) {
+            if (slot.epoch.get() >= oldestEpoch) {
+                merged.add(slot.histogram);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 窗口长度（毫秒）
+     */
+    public long getWindowMillis() {
+        return slotMillis * slots.length;
+    }
+
+    private static final class Slot {
+        private final AtomicLong epoch = new AtomicLong(-1);
+        private final LatencyHistogram histogram = new LatencyHistogram();
+    }
+}
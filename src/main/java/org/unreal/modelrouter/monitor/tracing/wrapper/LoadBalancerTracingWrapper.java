@@ -198,6 +198,11 @@ public class LoadBalancerTracingWrapper implements LoadBalancer {
         logData.put("success_rate", calculateSuccessRate(instance.getName()));
         structuredLogger.logBusinessEvent("load_balancer_call_failure", logData, context);
     }
+
+    @Override
+    public void onInstanceRemoved(final ModelRouterProperties.ModelInstance instance) {
+        delegate.onInstanceRemoved(instance);
+    }
     
     /**
      * 记录候选实例信息
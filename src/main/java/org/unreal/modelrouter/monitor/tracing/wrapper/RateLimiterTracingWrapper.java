@@ -5,6 +5,7 @@ import io.opentelemetry.api.trace.SpanKind;
 import lombok.extern.slf4j.Slf4j;
 import org.unreal.modelrouter.router.ratelimit.RateLimitConfig;
 import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import org.unreal.modelrouter.router.ratelimit.RateLimitReservation;
 import org.unreal.modelrouter.router.ratelimit.RateLimiter;
 import org.unreal.modelrouter.monitor.tracing.TracingContext;
 import org.unreal.modelrouter.monitor.tracing.TracingContextHolder;
@@ -14,6 +15,7 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 /**
  * 限流器追踪包装器
@@ -51,6 +53,23 @@ public class RateLimiterTracingWrapper implements RateLimiter {
     
     @Override
     public boolean tryAcquire(final RateLimitContext context) {
+        return traceCheck(context, () -> delegate.tryAcquire(context));
+    }
+
+    @Override
+    public RateLimitReservation reserve(final RateLimitContext context) {
+        RateLimitReservation[] reservation = new RateLimitReservation[1];
+        traceCheck(context, () -> {
+            reservation[0] = delegate.reserve(context);
+            return reservation[0].isGranted();
+        });
+        return reservation[0];
+    }
+
+    /**
+     * 在追踪 Span 内执行一次限流判定并记录统计
+     */
+    private boolean traceCheck(final RateLimitContext context, final BooleanSupplier check) {
         TracingContext tracingContext = TracingContextHolder.getCurrentContext();
         Span span = null;
         Instant startTime = Instant.now();
@@ -83,7 +102,7 @@ public class RateLimiterTracingWrapper implements RateLimiter {
             recordRateLimitCheckStart(tracingContext, context);
             
             // 执行限流检查
-            boolean allowed = delegate.tryAcquire(context);
+            boolean allowed = check.getAsBoolean();
             
             // 计算检查时间
             long checkTimeMs = java.time.Duration.between(startTime, Instant.now()).toMillis();
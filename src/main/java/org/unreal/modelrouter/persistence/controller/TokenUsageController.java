@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,6 +20,7 @@ import org.unreal.modelrouter.common.controller.response.RouterResponse;
 import org.unreal.modelrouter.monitor.dto.TokenUsageRecordDTO;
 import org.unreal.modelrouter.monitor.dto.TokenUsageStatisticsDTO;
 import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageEntity;
+import org.unreal.modelrouter.monitor.service.TokenUsageIngestionQueue;
 import org.unreal.modelrouter.monitor.service.TokenUsageService;
 
 import java.time.LocalDateTime;
@@ -42,6 +44,9 @@ public class TokenUsageController {
 
     private final TokenUsageService tokenUsageService;
 
+    @Autowired(required = false)
+    private TokenUsageIngestionQueue ingestionQueue;
+
     /**
      * 记录 Token 使用量
      */
@@ -56,13 +61,21 @@ public class TokenUsageController {
 
     /**
      * 批量记录 Token 使用量
+     * 与请求链路共用异步写入队列，接口返回时记录已入队但不保证已落库
      */
     @PostMapping("/record/batch")
     @Operation(summary = "批量记录 Token 使用量", description = "批量记录 AI 模型调用的 Token 使用量")
     public ResponseEntity<RouterResponse<Void>> recordTokenUsageBatch(
             @RequestBody final List<TokenUsageRecordDTO> records) {
 
-        tokenUsageService.recordTokenUsageBatch(records);
+        if (ingestionQueue != null) {
+            int accepted = ingestionQueue.submitAll(records);
+            if (accepted < records.size()) {
+                log.warn("Token usage batch partially dropped: accepted={}, total={}", accepted, records.size());
+            }
+        } else {
+            tokenUsageService.recordTokenUsageBatch(records);
+        }
         return ResponseEntity.ok(RouterResponse.success(null, "批量记录成功"));
     }
 
@@ -6,15 +6,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.unreal.modelrouter.persistence.jpa.entity.ConfigEntity;
 import org.unreal.modelrouter.persistence.jpa.repository.ConfigRepository;
 import org.unreal.modelrouter.persistence.store.StoreManager;
 import org.unreal.modelrouter.common.util.JacksonHelper;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JPA 存储管理器
@@ -27,12 +32,18 @@ public class JpaStoreManager implements StoreManager {
 
     private final ConfigRepository configRepository;
 
+    /**
+     * 每个配置键在本进程内的写入次数，事务提交后递增，作为缓存的版本戳
+     */
+    private final Map<String, Long> writeStamps = new ConcurrentHashMap<>();
+
     @Override
     @Transactional
     public void saveConfig(final String key, final Map<String, Object> config) {
         if (config == null || config.isEmpty()) {
             return;
         }
+        bumpStampAfterCommit(key);
         try {
             String configValue = JacksonHelper.getObjectMapper().writeValueAsString(config);
 
@@ -73,6 +84,7 @@ public class JpaStoreManager implements StoreManager {
     @Override
     @Transactional
     public void deleteConfig(final String key) {
+        bumpStampAfterCommit(key);
         configRepository.deleteAllByConfigKey(key);
         log.info("Deleted all versions of config for key: {}", key);
     }
@@ -99,6 +111,7 @@ public class JpaStoreManager implements StoreManager {
         if (config == null || config.isEmpty()) {
             return;
         }
+        bumpStampAfterCommit(key);
         try {
             String configValue = JacksonHelper.getObjectMapper().writeValueAsString(config);
             
@@ -136,6 +149,7 @@ public class JpaStoreManager implements StoreManager {
     @Override
     @Transactional
     public void deleteConfigVersion(final String key, final int version) {
+        bumpStampAfterCommit(key);
         configRepository.deleteByConfigKeyAndVersion(key, version);
         log.info("Deleted config version for key: {}, version: {}", key, version);
     }
@@ -163,6 +177,49 @@ public class JpaStoreManager implements StoreManager {
         return getConfig(configKey);
     }
 
+    /**
+     * 一次查询获取多个配置键的最新版本
+     */
+    @Override
+    public Map<String, Map<String, Object>> getConfigs(final Collection<String> keys) {
+        Map<String, ConfigEntity> latest = new LinkedHashMap<>();
+        for (ConfigEntity entity : configRepository.findAllByConfigKeyInAndIsLatestTrue(keys)) {
+            latest.putIfAbsent(entity.getConfigKey(), entity);
+        }
+        Map<String, Map<String, Object>> configs = new LinkedHashMap<>();
+        for (String key : keys) {
+            ConfigEntity entity = latest.get(key);
+            if (entity != null) {
+                configs.put(key, deserializeConfig(entity));
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * 版本戳只反映经本实例的写入；其他节点对共享数据库的写入由缓存过期时间兜底
+     */
+    @Override
+    public Object getVersionStamp(final String key) {
+        return writeStamps.getOrDefault(key, 0L);
+    }
+
+    /**
+     * 在事务结束后递增版本戳，避免并发读取在提交前把旧数据以新版本戳缓存；没有事务同步时（如直接构造）立即递增
+     */
+    private void bumpStampAfterCommit(final String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    writeStamps.merge(key, 1L, Long::sum);
+                }
+            });
+        } else {
+            writeStamps.merge(key, 1L, Long::sum);
+        }
+    }
+
     private Map<String, Object> deserializeConfig(final ConfigEntity entity) {
         try {
             return JacksonHelper.getObjectMapper().readValue(
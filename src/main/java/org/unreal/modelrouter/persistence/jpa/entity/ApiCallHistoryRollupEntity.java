@@ -0,0 +1,101 @@
+package org.unreal.modelrouter.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * API 调用历史预聚合表实体类
+ * 按分钟/小时两种粒度聚合 api_call_history，调用历史统计只读取聚合行，耗时与原始记录数无关
+ *
+ * 维度缺失时错误码存储空字符串、状态码存储 0，保证唯一约束对缺失维度同样生效
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "api_call_history_rollup", indexes = {
+    @Index(name = "idx_call_history_rollup_bucket", columnList = "granularity, bucket_start")
+}, uniqueConstraints = {
+    @UniqueConstraint(
+        name = "uk_call_history_rollup",
+        columnNames = {"granularity", "bucket_start", "model_name", "service_type",
+                       "http_status_code", "error_code"}
+    )
+})
+public class ApiCallHistoryRollupEntity {
+
+    /**
+     * 分钟粒度
+     */
+    public static final String MINUTE = "MINUTE";
+
+    /**
+     * 小时粒度
+     */
+    public static final String HOUR = "HOUR";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 聚合粒度 (MINUTE, HOUR)
+     */
+    @Column(name = "granularity", nullable = false, length = 10)
+    private String granularity;
+
+    /**
+     * 桶起始时间（按粒度截断 created_at）
+     */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "model_name", nullable = false, length = 255)
+    private String modelName;
+
+    @Column(name = "service_type", nullable = false, length = 50)
+    private String serviceType;
+
+    /**
+     * HTTP 响应状态码，缺失时为 0
+     */
+    @Column(name = "http_status_code", nullable = false)
+    private Integer httpStatusCode;
+
+    @Column(name = "error_code", nullable = false, length = 100)
+    private String errorCode;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    @Column(name = "success_count", nullable = false)
+    private Long successCount;
+
+    @Column(name = "total_tokens", nullable = false)
+    private Long totalTokens;
+
+    /**
+     * 响应时间总和（毫秒），与 responseTimeCount 一起计算平均值
+     */
+    @Column(name = "response_time_sum", nullable = false)
+    private Long responseTimeSum;
+
+    @Column(name = "response_time_count", nullable = false)
+    private Long responseTimeCount;
+}
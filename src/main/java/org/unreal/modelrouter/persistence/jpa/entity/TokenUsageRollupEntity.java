@@ -0,0 +1,124 @@
+package org.unreal.modelrouter.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token 使用量预聚合表实体类
+ * 按分钟/小时/天三种粒度聚合 token_usage，统计查询只读取聚合行，耗时与原始记录数无关
+ *
+ * 维度字段为空时存储空字符串，保证唯一约束对缺失维度同样生效
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "token_usage_rollup", indexes = {
+    @Index(name = "idx_token_usage_rollup_bucket", columnList = "granularity, bucket_start")
+}, uniqueConstraints = {
+    @UniqueConstraint(
+        name = "uk_token_usage_rollup",
+        columnNames = {"granularity", "bucket_start", "model_name", "service_type",
+                       "provider", "api_key_id", "user_id", "instance_name"}
+    )
+})
+public class TokenUsageRollupEntity {
+
+    /**
+     * 分钟粒度
+     */
+    public static final String MINUTE = "MINUTE";
+
+    /**
+     * 小时粒度
+     */
+    public static final String HOUR = "HOUR";
+
+    /**
+     * 天粒度
+     */
+    public static final String DAY = "DAY";
+
+    /**
+     * 不分维度的小时合计，按天粒度保留期清理
+     * 天粒度的桶无法拆到一天中的小时，小时桶又可能已过保留期，按小时分布统计时从这里读取
+     */
+    public static final String HOUR_TOTAL = "HOUR_TOTAL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 聚合粒度 (MINUTE, HOUR, DAY, HOUR_TOTAL)
+     */
+    @Column(name = "granularity", nullable = false, length = 10)
+    private String granularity;
+
+    /**
+     * 桶起始时间（按粒度截断）
+     */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "model_name", nullable = false, length = 255)
+    private String modelName;
+
+    @Column(name = "service_type", nullable = false, length = 50)
+    private String serviceType;
+
+    @Column(name = "provider", nullable = false, length = 100)
+    private String provider;
+
+    @Column(name = "api_key_id", nullable = false, length = 255)
+    private String apiKeyId;
+
+    @Column(name = "user_id", nullable = false, length = 255)
+    private String userId;
+
+    @Column(name = "instance_name", nullable = false, length = 255)
+    private String instanceName;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    @Column(name = "success_count", nullable = false)
+    private Long successCount;
+
+    @Column(name = "failure_count", nullable = false)
+    private Long failureCount;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private Long promptTokens;
+
+    @Column(name = "completion_tokens", nullable = false)
+    private Long completionTokens;
+
+    @Column(name = "total_tokens", nullable = false)
+    private Long totalTokens;
+
+    /**
+     * 响应时间总和（毫秒），与 responseTimeCount 一起计算平均值
+     */
+    @Column(name = "response_time_sum", nullable = false)
+    private Long responseTimeSum;
+
+    @Column(name = "response_time_count", nullable = false)
+    private Long responseTimeCount;
+}
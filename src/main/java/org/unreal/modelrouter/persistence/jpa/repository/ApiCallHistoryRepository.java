@@ -242,6 +242,21 @@ public interface ApiCallHistoryRepository extends JpaRepository<ApiCallHistoryEn
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * 按预聚合维度汇总 [from, to) 内的原始记录
+     * 行结构：[modelName, serviceType, httpStatusCode, errorCode, count, successCount,
+     * totalTokens, responseTimeSum, responseTimeCount]
+     */
+    @Query("SELECT c.modelName, c.serviceType, c.httpStatusCode, c.errorCode, COUNT(c), "
+           + "SUM(CASE WHEN c.isSuccess = true THEN 1 ELSE 0 END), "
+           + "SUM(c.totalTokens), SUM(c.responseTimeMs), COUNT(c.responseTimeMs) "
+           + "FROM ApiCallHistoryEntity c "
+           + "WHERE c.createdAt >= :from AND c.createdAt < :to "
+           + "GROUP BY c.modelName, c.serviceType, c.httpStatusCode, c.errorCode")
+    List<Object[]> aggregateByDimensions(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
     // ========== 数据清理 ==========
 
     /**
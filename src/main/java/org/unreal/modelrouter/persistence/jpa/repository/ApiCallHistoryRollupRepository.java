@@ -0,0 +1,146 @@
+package org.unreal.modelrouter.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryRollupEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * API 调用历史预聚合仓库接口
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Repository
+public interface ApiCallHistoryRollupRepository extends JpaRepository<ApiCallHistoryRollupEntity, Long> {
+
+    /**
+     * MERGE 语句的匹配与累加部分，源表别名为 s
+     */
+    String MERGE_TAIL = "ON r.granularity = s.granularity AND r.bucket_start = s.bucket_start "
+            + "AND r.model_name = s.model_name AND r.service_type = s.service_type "
+            + "AND r.http_status_code = s.http_status_code AND r.error_code = s.error_code "
+            + "WHEN MATCHED THEN UPDATE SET "
+            + "request_count = r.request_count + s.request_count, "
+            + "success_count = r.success_count + s.success_count, "
+            + "total_tokens = r.total_tokens + s.total_tokens, "
+            + "response_time_sum = r.response_time_sum + s.response_time_sum, "
+            + "response_time_count = r.response_time_count + s.response_time_count "
+            + "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, model_name, service_type, "
+            + "http_status_code, error_code, request_count, success_count, total_tokens, "
+            + "response_time_sum, response_time_count) "
+            + "VALUES (s.granularity, s.bucket_start, s.model_name, s.service_type, "
+            + "s.http_status_code, s.error_code, s.request_count, s.success_count, s.total_tokens, "
+            + "s.response_time_sum, s.response_time_count)";
+
+    /**
+     * 回填查询的维度与度量列，原始表别名为 t
+     * 只取 [from, cutoff) 内写入的记录：from 之前的已在聚合表中，cutoff 之后的由启动后的写入累加；
+     * from 之后的聚合桶已在启动时删除，MERGE 即为重新计算
+     */
+    String BACKFILL_SELECT = "COALESCE(t.model_name, '') AS model_name, "
+            + "COALESCE(t.service_type, '') AS service_type, "
+            + "COALESCE(t.http_status_code, 0) AS http_status_code, "
+            + "COALESCE(t.error_code, '') AS error_code, "
+            + "COUNT(*) AS request_count, "
+            + "SUM(CASE WHEN t.is_success = TRUE THEN 1 ELSE 0 END) AS success_count, "
+            + "SUM(COALESCE(t.total_tokens, 0)) AS total_tokens, "
+            + "SUM(COALESCE(t.response_time_ms, 0)) AS response_time_sum, "
+            + "COUNT(t.response_time_ms) AS response_time_count "
+            + "FROM api_call_history t WHERE t.created_at >= :from AND t.created_at < :cutoff ";
+
+    /**
+     * 回填查询的维度分组列
+     */
+    String BACKFILL_GROUP = "COALESCE(t.model_name, ''), COALESCE(t.service_type, ''), "
+            + "COALESCE(t.http_status_code, 0), COALESCE(t.error_code, '')";
+
+    /**
+     * 累加一个聚合桶，不存在时插入
+     * 使用标准 MERGE 语句，单条语句内完成读改写，并发写入同一个桶时不会丢失增量
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO api_call_history_rollup r USING (SELECT "
+           + "CAST(:granularity AS VARCHAR(10)) AS granularity, "
+           + "CAST(:bucketStart AS TIMESTAMP) AS bucket_start, "
+           + "CAST(:modelName AS VARCHAR(255)) AS model_name, "
+           + "CAST(:serviceType AS VARCHAR(50)) AS service_type, "
+           + "CAST(:httpStatusCode AS INTEGER) AS http_status_code, "
+           + "CAST(:errorCode AS VARCHAR(100)) AS error_code, "
+           + "CAST(:requestCount AS BIGINT) AS request_count, "
+           + "CAST(:successCount AS BIGINT) AS success_count, "
+           + "CAST(:totalTokens AS BIGINT) AS total_tokens, "
+           + "CAST(:responseTimeSum AS BIGINT) AS response_time_sum, "
+           + "CAST(:responseTimeCount AS BIGINT) AS response_time_count) s "
+           + MERGE_TAIL)
+    int upsert(@Param("granularity") String granularity,
+               @Param("bucketStart") LocalDateTime bucketStart,
+               @Param("modelName") String modelName,
+               @Param("serviceType") String serviceType,
+               @Param("httpStatusCode") int httpStatusCode,
+               @Param("errorCode") String errorCode,
+               @Param("requestCount") long requestCount,
+               @Param("successCount") long successCount,
+               @Param("totalTokens") long totalTokens,
+               @Param("responseTimeSum") long responseTimeSum,
+               @Param("responseTimeCount") long responseTimeCount);
+
+    /**
+     * 从原始表回填分钟粒度聚合（仅统计 [from, cutoff) 内写入的记录）
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO api_call_history_rollup r USING ("
+           + "SELECT 'MINUTE' AS granularity, DATE_TRUNC('MINUTE', t.created_at) AS bucket_start, "
+           + BACKFILL_SELECT + "GROUP BY DATE_TRUNC('MINUTE', t.created_at), " + BACKFILL_GROUP + ") s "
+           + MERGE_TAIL)
+    int backfillMinutes(@Param("from") LocalDateTime from, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 从原始表回填小时粒度聚合（仅统计 [from, cutoff) 内写入的记录）
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO api_call_history_rollup r USING ("
+           + "SELECT 'HOUR' AS granularity, DATE_TRUNC('HOUR', t.created_at) AS bucket_start, "
+           + BACKFILL_SELECT + "GROUP BY DATE_TRUNC('HOUR', t.created_at), " + BACKFILL_GROUP + ") s "
+           + MERGE_TAIL)
+    int backfillHours(@Param("from") LocalDateTime from, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 指定粒度最新一个聚合桶的开始时间，没有聚合行时为 null
+     */
+    @Query("SELECT MAX(r.bucketStart) FROM ApiCallHistoryRollupEntity r WHERE r.granularity = :granularity")
+    LocalDateTime findLatestBucketStart(@Param("granularity") String granularity);
+
+    /**
+     * 查询指定粒度在 [from, to) 内的聚合行
+     */
+    @Query("SELECT r FROM ApiCallHistoryRollupEntity r "
+           + "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to")
+    List<ApiCallHistoryRollupEntity> findBuckets(
+            @Param("granularity") String granularity,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * 删除 from 及之后的全部聚合行，在启动阶段调用，自带事务
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ApiCallHistoryRollupEntity r WHERE r.bucketStart >= :from")
+    int deleteBucketsFrom(@Param("from") LocalDateTime from);
+
+    /**
+     * 删除指定粒度在 cutoff 之前的聚合行
+     */
+    @Modifying
+    @Query("DELETE FROM ApiCallHistoryRollupEntity r WHERE r.granularity = :granularity AND r.bucketStart < :cutoff")
+    int deleteByGranularityBefore(
+            @Param("granularity") String granularity,
+            @Param("cutoff") LocalDateTime cutoff);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.unreal.modelrouter.persistence.jpa.entity.ConfigEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,11 @@ public interface ConfigRepository extends JpaRepository<ConfigEntity, Long> {
      */
     Optional<ConfigEntity> findFirstByConfigKeyAndIsLatestTrue(String configKey);
 
+    /**
+     * 批量查找多个配置键的最新版本
+     */
+    List<ConfigEntity> findAllByConfigKeyInAndIsLatestTrue(Collection<String> configKeys);
+
     /**
      * 根据配置键和版本号查找
      */
@@ -183,6 +183,15 @@ public interface TokenUsageRepository extends JpaRepository<TokenUsageEntity, Lo
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * 统计时间范围内的记录数
+     */
+    @Query("SELECT COUNT(t) FROM TokenUsageEntity t "
+           + "WHERE t.occurredAt BETWEEN :startTime AND :endTime")
+    long countByTimeRange(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
     /**
      * 统计成功率
      */
@@ -213,6 +222,22 @@ public interface TokenUsageRepository extends JpaRepository<TokenUsageEntity, Lo
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * 按聚合维度统计 [from, to) 内的原始记录
+     * 用于预聚合查询中未被整分钟桶覆盖的首尾区间
+     */
+    @Query("SELECT t.modelName, t.serviceType, t.provider, t.apiKeyId, t.userId, t.instanceName, COUNT(t), "
+           + "SUM(CASE WHEN t.isSuccess = true THEN 1 ELSE 0 END), "
+           + "SUM(CASE WHEN t.isSuccess = false THEN 1 ELSE 0 END), "
+           + "SUM(t.promptTokens), SUM(t.completionTokens), SUM(t.totalTokens), "
+           + "SUM(t.responseTimeMs), COUNT(t.responseTimeMs) "
+           + "FROM TokenUsageEntity t "
+           + "WHERE t.occurredAt >= :from AND t.occurredAt < :to "
+           + "GROUP BY t.modelName, t.serviceType, t.provider, t.apiKeyId, t.userId, t.instanceName")
+    List<Object[]> aggregateByDimensions(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
     // ========== 最近使用记录查询 ==========
 
     /**
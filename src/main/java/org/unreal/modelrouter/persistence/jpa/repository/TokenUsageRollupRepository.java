@@ -0,0 +1,195 @@
+package org.unreal.modelrouter.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageRollupEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Token 使用量预聚合仓库接口
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Repository
+public interface TokenUsageRollupRepository extends JpaRepository<TokenUsageRollupEntity, Long> {
+
+    /**
+     * MERGE 语句的匹配与累加部分，源表别名为 s
+     */
+    String MERGE_TAIL = "ON r.granularity = s.granularity AND r.bucket_start = s.bucket_start "
+            + "AND r.model_name = s.model_name AND r.service_type = s.service_type "
+            + "AND r.provider = s.provider AND r.api_key_id = s.api_key_id "
+            + "AND r.user_id = s.user_id AND r.instance_name = s.instance_name "
+            + "WHEN MATCHED THEN UPDATE SET "
+            + "request_count = r.request_count + s.request_count, "
+            + "success_count = r.success_count + s.success_count, "
+            + "failure_count = r.failure_count + s.failure_count, "
+            + "prompt_tokens = r.prompt_tokens + s.prompt_tokens, "
+            + "completion_tokens = r.completion_tokens + s.completion_tokens, "
+            + "total_tokens = r.total_tokens + s.total_tokens, "
+            + "response_time_sum = r.response_time_sum + s.response_time_sum, "
+            + "response_time_count = r.response_time_count + s.response_time_count "
+            + "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, model_name, service_type, provider, "
+            + "api_key_id, user_id, instance_name, request_count, success_count, failure_count, prompt_tokens, "
+            + "completion_tokens, total_tokens, response_time_sum, response_time_count) "
+            + "VALUES (s.granularity, s.bucket_start, s.model_name, s.service_type, s.provider, "
+            + "s.api_key_id, s.user_id, s.instance_name, s.request_count, s.success_count, s.failure_count, "
+            + "s.prompt_tokens, s.completion_tokens, s.total_tokens, s.response_time_sum, s.response_time_count)";
+
+    /**
+     * 回填查询的度量列和过滤条件，原始表别名为 t
+     * 只回填发生时间不早于 :from、且在 :cutoff 之前写入的记录：前者跳过聚合表已覆盖的部分，
+     * 后者避免与启动后写入时已累加的记录重复计数
+     */
+    String BACKFILL_MEASURES = "COUNT(*) AS request_count, "
+            + "SUM(CASE WHEN t.is_success = TRUE THEN 1 ELSE 0 END) AS success_count, "
+            + "SUM(CASE WHEN t.is_success = FALSE THEN 1 ELSE 0 END) AS failure_count, "
+            + "SUM(COALESCE(t.prompt_tokens, 0)) AS prompt_tokens, "
+            + "SUM(COALESCE(t.completion_tokens, 0)) AS completion_tokens, "
+            + "SUM(COALESCE(t.total_tokens, 0)) AS total_tokens, "
+            + "SUM(COALESCE(t.response_time_ms, 0)) AS response_time_sum, "
+            + "COUNT(t.response_time_ms) AS response_time_count "
+            + "FROM token_usage t WHERE t.occurred_at >= :from "
+            + "AND (t.created_at IS NULL OR t.created_at < :cutoff) ";
+
+    /**
+     * 回填查询的维度与度量列
+     */
+    String BACKFILL_SELECT = "COALESCE(t.model_name, '') AS model_name, "
+            + "COALESCE(t.service_type, '') AS service_type, "
+            + "COALESCE(t.provider, '') AS provider, "
+            + "COALESCE(t.api_key_id, '') AS api_key_id, "
+            + "COALESCE(t.user_id, '') AS user_id, "
+            + "COALESCE(t.instance_name, '') AS instance_name, "
+            + BACKFILL_MEASURES;
+
+    /**
+     * 回填查询的维度分组列
+     */
+    String BACKFILL_GROUP = "COALESCE(t.model_name, ''), COALESCE(t.service_type, ''), COALESCE(t.provider, ''), "
+            + "COALESCE(t.api_key_id, ''), COALESCE(t.user_id, ''), COALESCE(t.instance_name, '')";
+
+    /**
+     * 累加一个聚合桶，不存在时插入
+     * 使用标准 MERGE 语句，单条语句内完成读改写，并发写入同一个桶时不会丢失增量
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO token_usage_rollup r USING (SELECT "
+           + "CAST(:granularity AS VARCHAR(10)) AS granularity, "
+           + "CAST(:bucketStart AS TIMESTAMP) AS bucket_start, "
+           + "CAST(:modelName AS VARCHAR(255)) AS model_name, "
+           + "CAST(:serviceType AS VARCHAR(50)) AS service_type, "
+           + "CAST(:provider AS VARCHAR(100)) AS provider, "
+           + "CAST(:apiKeyId AS VARCHAR(255)) AS api_key_id, "
+           + "CAST(:userId AS VARCHAR(255)) AS user_id, "
+           + "CAST(:instanceName AS VARCHAR(255)) AS instance_name, "
+           + "CAST(:requestCount AS BIGINT) AS request_count, "
+           + "CAST(:successCount AS BIGINT) AS success_count, "
+           + "CAST(:failureCount AS BIGINT) AS failure_count, "
+           + "CAST(:promptTokens AS BIGINT) AS prompt_tokens, "
+           + "CAST(:completionTokens AS BIGINT) AS completion_tokens, "
+           + "CAST(:totalTokens AS BIGINT) AS total_tokens, "
+           + "CAST(:responseTimeSum AS BIGINT) AS response_time_sum, "
+           + "CAST(:responseTimeCount AS BIGINT) AS response_time_count) s "
+           + MERGE_TAIL)
+    int upsert(@Param("granularity") String granularity,
+               @Param("bucketStart") LocalDateTime bucketStart,
+               @Param("modelName") String modelName,
+               @Param("serviceType") String serviceType,
+               @Param("provider") String provider,
+               @Param("apiKeyId") String apiKeyId,
+               @Param("userId") String userId,
+               @Param("instanceName") String instanceName,
+               @Param("requestCount") long requestCount,
+               @Param("successCount") long successCount,
+               @Param("failureCount") long failureCount,
+               @Param("promptTokens") long promptTokens,
+               @Param("completionTokens") long completionTokens,
+               @Param("totalTokens") long totalTokens,
+               @Param("responseTimeSum") long responseTimeSum,
+               @Param("responseTimeCount") long responseTimeCount);
+
+    /**
+     * 从原始表回填分钟粒度聚合（发生于 from 之后、cutoff 之前写入的记录）
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO token_usage_rollup r USING ("
+           + "SELECT 'MINUTE' AS granularity, DATE_TRUNC('MINUTE', t.occurred_at) AS bucket_start, "
+           + BACKFILL_SELECT + "GROUP BY DATE_TRUNC('MINUTE', t.occurred_at), " + BACKFILL_GROUP + ") s "
+           + MERGE_TAIL)
+    int backfillMinutes(@Param("from") LocalDateTime from, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 从原始表回填小时粒度聚合（发生于 from 之后、cutoff 之前写入的记录）
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO token_usage_rollup r USING ("
+           + "SELECT 'HOUR' AS granularity, DATE_TRUNC('HOUR', t.occurred_at) AS bucket_start, "
+           + BACKFILL_SELECT + "GROUP BY DATE_TRUNC('HOUR', t.occurred_at), " + BACKFILL_GROUP + ") s "
+           + MERGE_TAIL)
+    int backfillHours(@Param("from") LocalDateTime from, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 从原始表回填天粒度聚合（发生于 from 之后、cutoff 之前写入的记录）
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO token_usage_rollup r USING ("
+           + "SELECT 'DAY' AS granularity, DATE_TRUNC('DAY', t.occurred_at) AS bucket_start, "
+           + BACKFILL_SELECT + "GROUP BY DATE_TRUNC('DAY', t.occurred_at), " + BACKFILL_GROUP + ") s "
+           + MERGE_TAIL)
+    int backfillDays(@Param("from") LocalDateTime from, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 从原始表回填不分维度的小时合计（发生于 from 之后、cutoff 之前写入的记录）
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO token_usage_rollup r USING ("
+           + "SELECT 'HOUR_TOTAL' AS granularity, DATE_TRUNC('HOUR', t.occurred_at) AS bucket_start, "
+           + "'' AS model_name, '' AS service_type, '' AS provider, '' AS api_key_id, '' AS user_id, "
+           + "'' AS instance_name, " + BACKFILL_MEASURES + "GROUP BY DATE_TRUNC('HOUR', t.occurred_at)) s "
+           + MERGE_TAIL)
+    int backfillHourTotals(@Param("from") LocalDateTime from, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 查询指定粒度最新一个桶的起始时间，没有聚合行时返回 null
+     */
+    @Query("SELECT MAX(r.bucketStart) FROM TokenUsageRollupEntity r WHERE r.granularity = :granularity")
+    LocalDateTime findLatestBucketStart(@Param("granularity") String granularity);
+
+    /**
+     * 查询指定粒度在 [from, to) 内的聚合行
+     */
+    @Query("SELECT r FROM TokenUsageRollupEntity r "
+           + "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to")
+    List<TokenUsageRollupEntity> findBuckets(
+            @Param("granularity") String granularity,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * 按一天中的小时汇总指定粒度在 [from, to) 内的 token 用量和请求数
+     */
+    @Query("SELECT HOUR(r.bucketStart), SUM(r.totalTokens), SUM(r.requestCount) "
+           + "FROM TokenUsageRollupEntity r "
+           + "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to "
+           + "GROUP BY HOUR(r.bucketStart)")
+    List<Object[]> sumByHourOfDay(
+            @Param("granularity") String granularity,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * 删除指定粒度在 cutoff 之前的聚合行
+     */
+    @Modifying
+    @Query("DELETE FROM TokenUsageRollupEntity r WHERE r.granularity = :granularity AND r.bucketStart < :cutoff")
+    int deleteByGranularityBefore(
+            @Param("granularity") String granularity,
+            @Param("cutoff") LocalDateTime cutoff);
+}
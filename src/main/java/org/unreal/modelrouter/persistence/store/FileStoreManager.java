@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FileStoreManager extends BaseStoreManager {
 
@@ -28,6 +29,16 @@ public class FileStoreManager extends BaseStoreManager {
 
     private final String storagePath;
 
+    /**
+     * 每个配置键在本进程内的写入次数，与配置文件的修改时间和大小一起作为缓存的版本戳
+     */
+    private final Map<String, Long> writeStamps = new ConcurrentHashMap<>();
+
+    /**
+     * 版本戳查询用的配置文件路径，避免每次读取都重新清理文件名
+     */
+    private final Map<String, Path> stampPaths = new ConcurrentHashMap<>();
+
     public FileStoreManager(final String storagePath) {
         this.storagePath = storagePath;
         initializeStorage();
@@ -60,6 +71,8 @@ public class FileStoreManager extends BaseStoreManager {
         } catch (IOException e) {
             LOGGER.error("Failed to save config for key: " + key, e);
             throw new RuntimeException("Failed to save config", e);
+        } finally {
+            bumpStamp(key);
         }
     }
 
@@ -102,6 +115,8 @@ public class FileStoreManager extends BaseStoreManager {
         } catch (IOException e) {
             LOGGER.error("Failed to delete config for key: " + key, e);
             throw new RuntimeException("Failed to delete config", e);
+        } finally {
+            bumpStamp(key);
         }
     }
 
@@ -176,6 +191,8 @@ public class FileStoreManager extends BaseStoreManager {
                 JacksonHelper.getObjectMapper().writeValue(versionFile, config);
             } catch (IOException e) {
                 LOGGER.error("Failed to save config version for key: " + key + ", version: " + version, e);
+            } finally {
+                bumpStamp(key);
             }
         }
     }
@@ -270,6 +287,8 @@ public class FileStoreManager extends BaseStoreManager {
             }
         } catch (IOException e) {
             LOGGER.error("Failed to delete config version for key: " + key + ", version: " + version, e);
+        } finally {
+            bumpStamp(key);
         }
     }
 
@@ -408,9 +427,32 @@ public class FileStoreManager extends BaseStoreManager {
         }
     }
 
+    /**
+     * 版本戳由本进程写入次数和配置文件的修改时间、大小组成，外部直接修改配置文件也能被识别
+     */
+    @Override
+    public Object getVersionStamp(final String key) {
+        long writes = writeStamps.getOrDefault(key, 0L);
+        try {
+            Path configPath = stampPaths.computeIfAbsent(key, k -> PathSanitizer.sanitizePath(storagePath)
+                    .resolve(PathSanitizer.sanitizeFileName(k) + ".json"));
+            BasicFileAttributes attrs = Files.readAttributes(configPath, BasicFileAttributes.class);
+            return new FileStamp(writes, attrs.lastModifiedTime().toMillis(), attrs.size());
+        } catch (IOException e) {
+            return new FileStamp(writes, -1, -1);
+        }
+    }
+
+    private void bumpStamp(final String key) {
+        writeStamps.merge(key, 1L, Long::sum);
+    }
+
     @Override
     public Map<String, Object> getLatestConfig(final String configKey) {
         int latestVersion = getConfigVersions(configKey).stream().max(Integer::compareTo).orElse(0);
         return getConfigByVersion(configKey, latestVersion);
     }
-}
\ No newline at end of file
+
+    private record FileStamp(long writes, long lastModified, long size) {
+    }
+}
@@ -0,0 +1,225 @@
+package org.unreal.modelrouter.persistence.store;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.unreal.modelrouter.common.util.JacksonHelper;
+import org.unreal.modelrouter.common.util.PathSanitizer;
+import org.unreal.modelrouter.persistence.store.log.LogStructuredStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 基于日志结构键值引擎的配置存储实现
+ *
+ * 与 FileStoreManager 每个键一个 JSON 文件、每个版本一份快照文件不同，配置和版本都作为记录追加到
+ * {@link LogStructuredStore} 的段文件中，读取经内存索引一次定位；各配置的版本号在内存中维护，
+ * getConfigVersions 不再遍历存储目录。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class LogStructuredStoreManager extends BaseStoreManager implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredStoreManager.class);
+
+    private static final String CONFIG_PREFIX = "config:";
+    private static final String VERSION_PREFIX = "version:";
+    private static final TypeReference<Map<String, Object>> CONFIG_TYPE = new TypeReference<>() {
+    };
+
+    private final LogStructuredStore store;
+    private final Map<String, NavigableSet<Integer>> versions = new ConcurrentHashMap<>();
+
+    public LogStructuredStoreManager(final String storagePath) {
+        this(storagePath, LogStructuredStore.Options.builder().build());
+    }
+
+    public LogStructuredStoreManager(final String storagePath, final LogStructuredStore.Options options) {
+        try {
+            Path path = PathSanitizer.sanitizePath(storagePath);
+            this.store = new LogStructuredStore(path, options);
+        } catch (IOException e) {
+            LOGGER.error("Failed to initialize log-structured storage: " + storagePath, e);
+            throw new RuntimeException("Failed to initialize log-structured storage", e);
+        }
+        for (String storeKey : store.keys()) {
+            if (storeKey.startsWith(VERSION_PREFIX)) {
+                int separator = storeKey.lastIndexOf('@');
+                try {
+                    int version = Integer.parseInt(storeKey.substring(separator + 1));
+                    versions.computeIfAbsent(storeKey.substring(VERSION_PREFIX.length(), separator),
+                            k -> new ConcurrentSkipListSet<>()).add(version);
+                } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                    LOGGER.debug("无法解析版本键: {}", storeKey);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doSaveConfig(final String key, final Map<String, Object> config) {
+        try {
+            store.put(CONFIG_PREFIX + key, JacksonHelper.getObjectMapper().writeValueAsBytes(config));
+        } catch (IOException e) {
+            LOGGER.error("Failed to save config for key: " + key, e);
+            throw new RuntimeException("Failed to save config", e);
+        }
+    }
+
+    @Override
+    protected Map<String, Object> doGetConfig(final String key) {
+        return read(CONFIG_PREFIX + key);
+    }
+
+    @Override
+    protected void doDeleteConfig(final String key) {
+        try {
+            store.delete(CONFIG_PREFIX + key);
+        } catch (IOException e) {
+            LOGGER.error("Failed to delete config for key: " + key, e);
+            throw new RuntimeException("Failed to delete config", e);
+        }
+    }
+
+    @Override
+    protected boolean doExists(final String key) {
+        return store.contains(CONFIG_PREFIX + key);
+    }
+
+    @Override
+    protected void doUpdateConfig(final String key, final Map<String, Object> config) {
+        doSaveConfig(key, config);
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        Set<String> keys = new HashSet<>();
+        for (String storeKey : store.keys()) {
+            if (storeKey.startsWith(CONFIG_PREFIX)) {
+                keys.add(storeKey.substring(CONFIG_PREFIX.length()));
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public void saveConfigVersion(final String key, final Map<String, Object> config, final int version) {
+        // 与文件存储一致，空配置不保存版本
+        if (config != null && !config.isEmpty()) {
+            try {
+                store.put(versionKey(key, version), JacksonHelper.getObjectMapper().writeValueAsBytes(config));
+                versions.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(version);
+            } catch (IOException e) {
+                LOGGER.error("Failed to save config version for key: " + key + ", version: " + version, e);
+            }
+        }
+    }
+
+    @Override
+    public List<Integer> getConfigVersions(final String key) {
+        NavigableSet<Integer> keyVersions = versions.get(key);
+        return keyVersions == null ? new ArrayList<>() : new ArrayList<>(keyVersions);
+    }
+
+    @Override
+    public Map<String, Object> getConfigByVersion(final String key, final int version) {
+        try {
+            return read(versionKey(key, version));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to read config version for key: " + key + ", version: " + version, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void deleteConfigVersion(final String key, final int version) {
+        try {
+            store.delete(versionKey(key, version));
+            versions.computeIfPresent(key, (k, keyVersions) -> {
+                keyVersions.remove(version);
+                return keyVersions.isEmpty() ? null : keyVersions;
+            });
+        } catch (IOException e) {
+            LOGGER.error("Failed to delete config version for key: " + key + ", version: " + version, e);
+        }
+    }
+
+    @Override
+    public boolean versionExists(final String key, final int version) {
+        return store.contains(versionKey(key, version));
+    }
+
+    /**
+     * 返回保存该版本记录的段文件路径
+     */
+    @Override
+    public String getVersionFilePath(final String key, final int version) {
+        Path path = store.segmentPath(versionKey(key, version));
+        return path == null ? null : path.toAbsolutePath().toString();
+    }
+
+    @Override
+    public LocalDateTime getVersionCreatedTime(final String key, final int version) {
+        long timestamp = store.timestamp(versionKey(key, version));
+        return timestamp < 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+    }
+
+    @Override
+    public Map<String, Object> getLatestConfig(final String configKey) {
+        NavigableSet<Integer> keyVersions = versions.get(configKey);
+        int latestVersion = keyVersions == null || keyVersions.isEmpty() ? 0 : keyVersions.last();
+        return getConfigByVersion(configKey, latestVersion);
+    }
+
+    /**
+     * 压缩存储，回收被覆盖和删除的记录
+     */
+    public void compact() {
+        try {
+            store.compact();
+        } catch (IOException e) {
+            LOGGER.error("Failed to compact log-structured storage", e);
+            throw new RuntimeException("Failed to compact log-structured storage", e);
+        }
+    }
+
+    /**
+     * 底层存储统计
+     */
+    public LogStructuredStore.Stats getStats() {
+        return store.stats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+    private Map<String, Object> read(final String storeKey) {
+        try {
+            byte[] value = store.get(storeKey);
+            return value == null ? null : JacksonHelper.getObjectMapper().readValue(value, CONFIG_TYPE);
+        } catch (IOException e) {
+            LOGGER.error("Failed to read config for key: " + storeKey, e);
+            throw new RuntimeException("Failed to read config for key: " + storeKey, e);
+        }
+    }
+
+    private static String versionKey(final String key, final int version) {
+        return VERSION_PREFIX + key + "@" + version;
+    }
+}
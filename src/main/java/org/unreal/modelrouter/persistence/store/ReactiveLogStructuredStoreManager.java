@@ -0,0 +1,132 @@
+package org.unreal.modelrouter.persistence.store;
+
+import org.unreal.modelrouter.persistence.store.log.LogStructuredStore;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 日志结构存储响应式管理器
+ * 读写段文件的操作在 boundedElastic 调度器上执行，只访问内存索引的操作直接在调用线程完成
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class ReactiveLogStructuredStoreManager implements ReactiveVersionedStoreManager, Closeable {
+
+    private final LogStructuredStoreManager delegate;
+
+    public ReactiveLogStructuredStoreManager(final String storagePath) {
+        this(new LogStructuredStoreManager(storagePath));
+    }
+
+    public ReactiveLogStructuredStoreManager(final String storagePath, final LogStructuredStore.Options options) {
+        this(new LogStructuredStoreManager(storagePath, options));
+    }
+
+    public ReactiveLogStructuredStoreManager(final LogStructuredStoreManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<Void> saveConfig(final String key, final Map<String, Object> config) {
+        return Mono.fromRunnable(() -> delegate.saveConfig(key, config))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getConfig(final String key) {
+        return Mono.fromCallable(() -> delegate.getConfig(key))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> deleteConfig(final String key) {
+        return Mono.fromRunnable(() -> delegate.deleteConfig(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Flux<String> getAllKeys() {
+        return Flux.defer(() -> Flux.fromIterable(delegate.getAllKeys()));
+    }
+
+    @Override
+    public Mono<Boolean> exists(final String key) {
+        return Mono.fromCallable(() -> delegate.exists(key));
+    }
+
+    @Override
+    public Mono<Void> updateConfig(final String key, final Map<String, Object> config) {
+        return Mono.fromRunnable(() -> delegate.updateConfig(key, config))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getLatestConfig(final String configKey) {
+        return Mono.fromCallable(() -> delegate.getLatestConfig(configKey))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> saveConfigVersion(final String key, final Map<String, Object> config, final int version) {
+        return Mono.fromRunnable(() -> delegate.saveConfigVersion(key, config, version))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Flux<Integer> getConfigVersions(final String key) {
+        return Flux.defer(() -> Flux.fromIterable(delegate.getConfigVersions(key)));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getConfigByVersion(final String key, final int version) {
+        return Mono.fromCallable(() -> delegate.getConfigByVersion(key, version))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> deleteConfigVersion(final String key, final int version) {
+        return Mono.fromRunnable(() -> delegate.deleteConfigVersion(key, version))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> versionExists(final String key, final int version) {
+        return Mono.fromCallable(() -> delegate.versionExists(key, version));
+    }
+
+    @Override
+    public Mono<String> getVersionFilePath(final String key, final int version) {
+        return Mono.fromCallable(() -> delegate.getVersionFilePath(key, version));
+    }
+
+    @Override
+    public Mono<LocalDateTime> getVersionCreatedTime(final String key, final int version) {
+        return Mono.fromCallable(() -> delegate.getVersionCreatedTime(key, version));
+    }
+
+    /**
+     * 压缩存储，回收被覆盖和删除的记录
+     */
+    public Mono<Void> compact() {
+        return Mono.fromRunnable(delegate::compact)
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
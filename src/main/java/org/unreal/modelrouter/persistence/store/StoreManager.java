@@ -2,6 +2,8 @@ package org.unreal.modelrouter.persistence.store;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -125,4 +127,29 @@ public interface StoreManager {
      * @return 最新配置
      */
     Map<String, Object> getLatestConfig(String configKey);
+
+    /**
+     * 批量获取配置，结果只包含存在的键，按传入顺序排列；默认逐个调用 getConfig
+     * @param keys 配置键
+     * @return 配置键到配置内容的映射
+     */
+    default Map<String, Map<String, Object>> getConfigs(final Collection<String> keys) {
+        Map<String, Map<String, Object>> configs = new LinkedHashMap<>();
+        for (String key : keys) {
+            Map<String, Object> config = getConfig(key);
+            if (config != null) {
+                configs.put(key, config);
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * 获取配置键的写入版本戳，键的任何写入都会使版本戳变化（按 equals 比较），供缓存判断快照是否过期
+     * @param key 配置键
+     * @return 版本戳，不支持时返回 null
+     */
+    default Object getVersionStamp(final String key) {
+        return null;
+    }
 }
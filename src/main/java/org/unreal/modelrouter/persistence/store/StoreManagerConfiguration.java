@@ -1,10 +1,15 @@
 package org.unreal.modelrouter.persistence.store;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.unreal.modelrouter.persistence.jpa.JpaStoreManager;
+import org.unreal.modelrouter.persistence.store.cache.CachingStoreManager;
+
+import java.time.Duration;
 
 /**
  * StoreManager配置类 (v1.5.1: 使用 JPA)
@@ -17,16 +22,34 @@ public class StoreManagerConfiguration {
 
     private String type = "jpa";
     private String path = "./config";
+    private Cache cache = new Cache();
 
     /**
      * 创建StoreManager Bean (v1.5.1: 使用 JPA)
+     * store.type=log 时使用日志结构键值存储，段文件位于 store.path 目录；
+     * store.cache.enabled=true（默认）时在 JPA 后端之前加一层读穿透快照缓存
      * @param jpaStoreManager JPA 存储管理器
+     * @param meterRegistry 指标注册表
      * @return StoreManager实例
      */
     @Bean
-    public StoreManager storeManager(final JpaStoreManager jpaStoreManager) {
+    public StoreManager storeManager(final JpaStoreManager jpaStoreManager,
+                                     final ObjectProvider<MeterRegistry> meterRegistry) {
+        if ("log".equalsIgnoreCase(type)) {
+            // 日志结构存储的读取只访问内存索引和一次段文件读取，不需要再加快照缓存
+            log.info("Initializing StoreManager with log-structured storage at {}", path);
+            return StoreManagerFactory.createLogStoreManager(path);
+        }
         log.info("Initializing StoreManager with JPA (v1.5.1)");
-        return jpaStoreManager;
+        if (!cache.isEnabled()) {
+            return jpaStoreManager;
+        }
+        log.info("StoreManager read-through cache enabled: maximumSize={}, expireAfterWrite={}",
+                cache.getMaximumSize(), cache.getExpireAfterWrite());
+        CachingStoreManager caching = new CachingStoreManager(jpaStoreManager, cache.getMaximumSize(),
+                cache.getExpireAfterWrite());
+        meterRegistry.ifAvailable(registry -> caching.bindMetrics(registry, "jpa"));
+        return caching;
     }
 
     // Getters and Setters
@@ -45,4 +68,45 @@ public class StoreManagerConfiguration {
     public void setPath(final String path) {
         this.path = path;
     }
-}
\ No newline at end of file
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(final Cache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 读穿透缓存配置
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(final long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(final Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+}
@@ -28,16 +28,35 @@ public final class StoreManagerFactory {
         return new MemoryStoreManager();
     }
 
+    /**
+     * 创建基于日志结构键值引擎的存储管理器
+     * @param storagePath 段文件存储目录
+     * @return LogStructuredStoreManager实例
+     */
+    public static StoreManager createLogStoreManager(final String storagePath) {
+        return new LogStructuredStoreManager(storagePath);
+    }
+
+    /**
+     * 创建基于日志结构键值引擎的响应式存储管理器
+     * @param storagePath 段文件存储目录
+     * @return ReactiveLogStructuredStoreManager实例
+     */
+    public static ReactiveVersionedStoreManager createReactiveLogStoreManager(final String storagePath) {
+        return new ReactiveLogStructuredStoreManager(storagePath);
+    }
+
     /**
      * 根据类型创建存储管理器
-     * @param type 存储类型 (file, memory, jpa)
-     * @param storagePath 存储路径（仅对文件存储有效）
+     * @param type 存储类型 (file, memory, log, jpa)
+     * @param storagePath 存储路径（对文件存储和日志结构存储有效）
      * @return StoreManager实例
      */
     public static StoreManager createStoreManager(final String type, final String storagePath) {
         return switch (type.toLowerCase()) {
             case "file" -> new FileStoreManager(storagePath);
             case "memory" -> new MemoryStoreManager();
+            case "log" -> new LogStructuredStoreManager(storagePath);
             case "h2", "jpa" -> throw new IllegalArgumentException(
                     "JPA store manager should be created via Spring Bean, not this factory");
             default -> throw new IllegalArgumentException("Unsupported store type: " + type);
@@ -0,0 +1,159 @@
+package org.unreal.modelrouter.persistence.store.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.unreal.modelrouter.persistence.store.ReactiveStoreManager;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.CacheKey;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.Kind;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.Snapshot;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.Stamp;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 读穿透缓存的 ReactiveStoreManager 装饰器
+ *
+ * 与 {@link CachingStoreManager} 相同的快照缓存；响应式后端不提供版本戳，
+ * 快照只因经本装饰器的写入和过期时间失效。命中时直接返回，不切换线程。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class CachingReactiveStoreManager implements ReactiveStoreManager {
+
+    private static final Object MISSING = new Object();
+
+    private final ReactiveStoreManager delegate;
+    private final ConfigSnapshotCache cache;
+
+    public CachingReactiveStoreManager(final ReactiveStoreManager delegate, final long maximumSize,
+                                       final Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = new ConfigSnapshotCache(maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * 注册命中、未命中、过期重载、失效次数和缓存大小指标
+     */
+    public CachingReactiveStoreManager bindMetrics(final MeterRegistry registry, final String backend) {
+        cache.bindTo(registry, backend);
+        return this;
+    }
+
+    public CachingStoreManager.Stats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getConfig(final String key) {
+        return cached(new CacheKey(Kind.CONFIG, key, 0), () -> delegate.getConfig(key));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getLatestConfig(final String configKey) {
+        return cached(new CacheKey(Kind.LATEST, configKey, 0), () -> delegate.getLatestConfig(configKey));
+    }
+
+    /**
+     * 批量获取配置，结果只包含存在的键，按传入顺序排列；未命中的键并发加载
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<Map<String, Map<String, Object>>> getConfigs(final Collection<String> keys) {
+        return Mono.defer(() -> {
+            Map<String, Object> found = new HashMap<>();
+            Map<String, Stamp> missing = new LinkedHashMap<>();
+            for (String key : keys) {
+                if (found.containsKey(key) || missing.containsKey(key)) {
+                    continue;
+                }
+                Stamp stamp = cache.stamp(key, null);
+                Snapshot snapshot = cache.lookup(new CacheKey(Kind.CONFIG, key, 0), stamp);
+                if (snapshot != null) {
+                    found.put(key, snapshot.value());
+                } else {
+                    missing.put(key, stamp);
+                }
+            }
+            return Flux.fromIterable(missing.entrySet())
+                    .flatMap(entry -> delegate.getConfig(entry.getKey())
+                            .map(config -> (Object) config)
+                            .defaultIfEmpty(MISSING)
+                            .map(config -> {
+                                Object frozen = cache.store(new CacheKey(Kind.CONFIG, entry.getKey(), 0),
+                                        entry.getValue(), config == MISSING ? null : config);
+                                return Map.entry(entry.getKey(), frozen == null ? MISSING : frozen);
+                            }))
+                    .doOnNext(entry -> found.put(entry.getKey(), entry.getValue()))
+                    .then(Mono.fromCallable(() -> {
+                        Map<String, Map<String, Object>> configs = new LinkedHashMap<>();
+                        for (String key : keys) {
+                            Object value = found.get(key);
+                            if (value != null && value != MISSING) {
+                                configs.put(key, (Map<String, Object>) ConfigSnapshotCache.thaw(value));
+                            }
+                        }
+                        return configs;
+                    }));
+        });
+    }
+
+    @Override
+    public Mono<Boolean> exists(final String key) {
+        return Mono.defer(() -> {
+            Snapshot snapshot = cache.peek(new CacheKey(Kind.CONFIG, key, 0), cache.stamp(key, null));
+            return snapshot != null ? Mono.just(snapshot.value() != null) : delegate.exists(key);
+        });
+    }
+
+    @Override
+    public Mono<Void> saveConfig(final String key, final Map<String, Object> config) {
+        return invalidating(key, delegate.saveConfig(key, config));
+    }
+
+    @Override
+    public Mono<Void> updateConfig(final String key, final Map<String, Object> config) {
+        return invalidating(key, delegate.updateConfig(key, config));
+    }
+
+    @Override
+    public Mono<Void> deleteConfig(final String key) {
+        return invalidating(key, delegate.deleteConfig(key));
+    }
+
+    @Override
+    public Flux<String> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+
+    /**
+     * 写操作结束时使缓存失效；在完成信号传给下游之前执行，保证下游紧接着的读取能看到新值
+     */
+    private Mono<Void> invalidating(final String key, final Mono<Void> write) {
+        return write.doOnTerminate(() -> cache.invalidate(key))
+                .doOnCancel(() -> cache.invalidate(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> cached(final CacheKey cacheKey, final Supplier<Mono<Map<String, Object>>> loader) {
+        return Mono.defer(() -> {
+            Stamp stamp = cache.stamp(cacheKey.key(), null);
+            Snapshot snapshot = cache.lookup(cacheKey, stamp);
+            if (snapshot != null) {
+                return Mono.justOrEmpty((Map<String, Object>) ConfigSnapshotCache.thaw(snapshot.value()));
+            }
+            return loader.get()
+                    .map(config -> (Object) config)
+                    .defaultIfEmpty(MISSING)
+                    .flatMap(config -> {
+                        Object frozen = cache.store(cacheKey, stamp, config == MISSING ? null : config);
+                        return Mono.justOrEmpty((Map<String, Object>) ConfigSnapshotCache.thaw(frozen));
+                    });
+        });
+    }
+}
@@ -0,0 +1,287 @@
+package org.unreal.modelrouter.persistence.store.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.unreal.modelrouter.persistence.store.StoreManager;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.CacheKey;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.Kind;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.Snapshot;
+import org.unreal.modelrouter.persistence.store.cache.ConfigSnapshotCache.Stamp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 读穿透缓存的 StoreManager 装饰器
+ *
+ * 缓存解析后的不可变配置快照（包括不存在的结果），避免每次读取都查询数据库或读取文件并反序列化 JSON。
+ * 每次命中都会与后端的 {@link StoreManager#getVersionStamp} 和本装饰器的按键写入计数比较，
+ * 经本装饰器或直接经后端实例的写入都会使快照失效；后端不提供版本戳时只能识别经本装饰器的写入，
+ * 其他写入由过期时间兜底。
+ *
+ * getConfig 等方法返回快照的可变深拷贝，与未缓存时的语义一致；只读调用方可用 {@link #getConfigSnapshot}
+ * 直接获取共享的不可变快照。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class CachingStoreManager implements StoreManager, Closeable {
+
+    private final StoreManager delegate;
+    private final ConfigSnapshotCache cache;
+
+    public CachingStoreManager(final StoreManager delegate, final long maximumSize, final Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = new ConfigSnapshotCache(maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * 注册命中、未命中、过期重载、失效次数和缓存大小指标
+     */
+    public CachingStoreManager bindMetrics(final MeterRegistry registry, final String backend) {
+        cache.bindTo(registry, backend);
+        return this;
+    }
+
+    public StoreManager getDelegate() {
+        return delegate;
+    }
+
+    public Stats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public Map<String, Object> getConfig(final String key) {
+        return thawMap(getConfigSnapshot(key));
+    }
+
+    /**
+     * 获取共享的不可变配置快照，调用方不得修改
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getConfigSnapshot(final String key) {
+        if (isInvalidKey(key)) {
+            return delegate.getConfig(key);
+        }
+        return (Map<String, Object>) cached(new CacheKey(Kind.CONFIG, key, 0), () -> delegate.getConfig(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Map<String, Object>> getConfigs(final Collection<String> keys) {
+        Map<String, Object> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        Map<String, Stamp> stamps = new HashMap<>();
+        for (String key : keys) {
+            if (isInvalidKey(key) || found.containsKey(key) || stamps.containsKey(key)) {
+                continue;
+            }
+            Stamp stamp = stamp(key);
+            Snapshot snapshot = cache.lookup(new CacheKey(Kind.CONFIG, key, 0), stamp);
+            if (snapshot != null) {
+                found.put(key, snapshot.value());
+            } else {
+                missing.add(key);
+                stamps.put(key, stamp);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Map<String, Object>> loaded = delegate.getConfigs(missing);
+            for (String key : missing) {
+                found.put(key, cache.store(new CacheKey(Kind.CONFIG, key, 0), stamps.get(key), loaded.get(key)));
+            }
+        }
+        Map<String, Map<String, Object>> configs = new LinkedHashMap<>();
+        for (String key : keys) {
+            Object value = found.get(key);
+            if (value != null) {
+                configs.put(key, thawMap((Map<String, Object>) value));
+            }
+        }
+        return configs;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getLatestConfig(final String configKey) {
+        if (isInvalidKey(configKey)) {
+            return delegate.getLatestConfig(configKey);
+        }
+        return thawMap((Map<String, Object>) cached(new CacheKey(Kind.LATEST, configKey, 0),
+                () -> delegate.getLatestConfig(configKey)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getConfigByVersion(final String key, final int version) {
+        if (isInvalidKey(key)) {
+            return delegate.getConfigByVersion(key, version);
+        }
+        return thawMap((Map<String, Object>) cached(new CacheKey(Kind.VERSION, key, version),
+                () -> delegate.getConfigByVersion(key, version)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Integer> getConfigVersions(final String key) {
+        if (isInvalidKey(key)) {
+            return delegate.getConfigVersions(key);
+        }
+        List<Integer> versions = (List<Integer>) cached(new CacheKey(Kind.VERSIONS, key, 0),
+                () -> delegate.getConfigVersions(key));
+        return versions == null ? new ArrayList<>() : new ArrayList<>(versions);
+    }
+
+    @Override
+    public boolean exists(final String key) {
+        if (!isInvalidKey(key)) {
+            Snapshot snapshot = cache.peek(new CacheKey(Kind.CONFIG, key, 0), stamp(key));
+            if (snapshot != null) {
+                return snapshot.value() != null;
+            }
+        }
+        return delegate.exists(key);
+    }
+
+    @Override
+    public void saveConfig(final String key, final Map<String, Object> config) {
+        try {
+            delegate.saveConfig(key, config);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void updateConfig(final String key, final Map<String, Object> config) {
+        try {
+            delegate.updateConfig(key, config);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void deleteConfig(final String key) {
+        try {
+            delegate.deleteConfig(key);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void saveConfigVersion(final String key, final Map<String, Object> config, final int version) {
+        try {
+            delegate.saveConfigVersion(key, config, version);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void deleteConfigVersion(final String key, final int version) {
+        try {
+            delegate.deleteConfigVersion(key, version);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+
+    @Override
+    public boolean versionExists(final String key, final int version) {
+        return delegate.versionExists(key, version);
+    }
+
+    @Override
+    public String getVersionFilePath(final String key, final int version) {
+        return delegate.getVersionFilePath(key, version);
+    }
+
+    @Override
+    public LocalDateTime getVersionCreatedTime(final String key, final int version) {
+        return delegate.getVersionCreatedTime(key, version);
+    }
+
+    @Override
+    public Object getVersionStamp(final String key) {
+        return stamp(key);
+    }
+
+    /**
+     * 关闭可关闭的后端（如日志结构存储）
+     */
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Object cached(final CacheKey cacheKey, final Supplier<Object> loader) {
+        // 先取版本戳再加载，加载期间的写入会在下次读取时被识别
+        Stamp stamp = stamp(cacheKey.key());
+        Snapshot snapshot = cache.lookup(cacheKey, stamp);
+        if (snapshot != null) {
+            return snapshot.value();
+        }
+        return cache.store(cacheKey, stamp, loader.get());
+    }
+
+    private Stamp stamp(final String key) {
+        return cache.stamp(key, delegate.getVersionStamp(key));
+    }
+
+    private void invalidate(final String key) {
+        if (!isInvalidKey(key)) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static boolean isInvalidKey(final String key) {
+        return key == null || key.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> thawMap(final Map<String, Object> snapshot) {
+        return (Map<String, Object>) ConfigSnapshotCache.thaw(snapshot);
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param hits          命中次数
+     * @param misses        未命中次数（包括过期重载）
+     * @param stale         因版本戳变化而重新加载的次数
+     * @param invalidations 写入导致的失效次数
+     * @param size          当前条目数
+     */
+    public record Stats(long hits, long misses, long stale, long invalidations, long size) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.unreal.modelrouter.persistence.store.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 配置快照缓存
+ *
+ * 缓存项记录加载前读取的版本戳，命中时与当前版本戳比较，不一致即视为过期。版本戳由本缓存自身的按键写入计数
+ * 和后端提供的版本戳组成；读取前先取版本戳再加载，加载期间发生的写入会使下一次读取重新加载。
+ * 快照为深度不可变结构，可在线程间共享。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+final class ConfigSnapshotCache {
+
+    private static final String METRIC_PREFIX = "jairouter.store.cache";
+
+    private final Cache<CacheKey, Snapshot> cache;
+    private final Map<String, Long> localStamps = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    ConfigSnapshotCache(final long maximumSize, final Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 当前版本戳
+     */
+    Stamp stamp(final String key, final Object backendStamp) {
+        return new Stamp(localStamps.getOrDefault(key, 0L), backendStamp);
+    }
+
+    /**
+     * 查找与版本戳一致的快照，未命中返回 null；快照的值可以为 null，表示配置不存在
+     */
+    Snapshot lookup(final CacheKey key, final Stamp stamp) {
+        Snapshot snapshot = cache.getIfPresent(key);
+        if (snapshot != null && snapshot.stamp().equals(stamp)) {
+            hits.increment();
+            return snapshot;
+        }
+        if (snapshot != null) {
+            stale.increment();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 不计入统计的查找，用于 exists 等只在已缓存时才能回答的查询
+     */
+    Snapshot peek(final CacheKey key, final Stamp stamp) {
+        Snapshot snapshot = cache.getIfPresent(key);
+        return snapshot != null && snapshot.stamp().equals(stamp) ? snapshot : null;
+    }
+
+    Object store(final CacheKey key, final Stamp stamp, final Object value) {
+        Object frozen = freeze(value);
+        cache.put(key, new Snapshot(stamp, frozen));
+        return frozen;
+    }
+
+    /**
+     * 写入后使键的全部快照失效；按版本缓存的快照由版本戳变化淘汰
+     */
+    void invalidate(final String key) {
+        localStamps.merge(key, 1L, Long::sum);
+        cache.invalidate(new CacheKey(Kind.CONFIG, key, 0));
+        cache.invalidate(new CacheKey(Kind.LATEST, key, 0));
+        cache.invalidate(new CacheKey(Kind.VERSIONS, key, 0));
+        invalidations.increment();
+    }
+
+    void clear() {
+        cache.invalidateAll();
+    }
+
+    CachingStoreManager.Stats stats() {
+        return new CachingStoreManager.Stats(hits.sum(), misses.sum(), stale.sum(), invalidations.sum(),
+                cache.estimatedSize());
+    }
+
+    void bindTo(final MeterRegistry registry, final String backend) {
+        FunctionCounter.builder(METRIC_PREFIX + ".requests", hits, LongAdder::sum)
+                .description("配置缓存读取次数")
+                .tag("backend", backend)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".requests", misses, LongAdder::sum)
+                .description("配置缓存读取次数")
+                .tag("backend", backend)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".stale", stale, LongAdder::sum)
+                .description("因版本戳变化而重新加载的次数")
+                .tag("backend", backend)
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".invalidations", invalidations, LongAdder::sum)
+                .description("写入导致的缓存失效次数")
+                .tag("backend", backend)
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", cache, Cache::estimatedSize)
+                .description("配置缓存条目数")
+                .tag("backend", backend)
+                .register(registry);
+    }
+
+    /**
+     * 深度冻结：Map 和 List 复制为不可变结构，其余值（JSON 反序列化得到的字符串、数字、布尔）原样保留
+     */
+    @SuppressWarnings("unchecked")
+    static Object freeze(final Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>(map.size() * 2);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put((String) entry.getKey(), freeze(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(freeze(item));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    /**
+     * 深度复制为可变结构，与 Jackson 反序列化结果的类型一致，调用方可以自由修改
+     */
+    static Object thaw(final Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>(map.size() * 2);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put((String) entry.getKey(), thaw(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(thaw(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    enum Kind {
+        CONFIG, LATEST, VERSIONS, VERSION
+    }
+
+    record CacheKey(Kind kind, String key, int version) {
+    }
+
+    record Stamp(long local, Object backend) {
+    }
+
+    record Snapshot(Stamp stamp, Object value) {
+    }
+}
@@ -0,0 +1,583 @@
+package org.unreal.modelrouter.persistence.store.log;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * 日志结构键值存储引擎
+ *
+ * 写入和删除都以带 CRC32 校验的记录追加到活动段末尾，内存哈希索引记录每个键最新值所在的段和偏移，
+ * 读取只需一次定位读。活动段达到大小上限后封存并滚动到新段，封存段只读，可内存映射读取。
+ * 被覆盖或删除的记录由 {@link #compact()} 回收：全部封存段的存活记录重写为一个新段后删除旧段，
+ * 封存段中的垃圾比例超过阈值时在段滚动后自动触发。
+ *
+ * 启动时按段序号顺序重放记录重建索引；最后一个段尾部不完整或校验失败的记录（写入中途崩溃）被截断。
+ *
+ * 记录格式：crc32(4) | type(1) | timestamp(8) | keyLength(4) | valueLength(4) | key | value，
+ * CRC 覆盖 type 之后的全部字节，删除记录的 valueLength 为 -1。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+public final class LogStructuredStore implements Closeable {
+
+    static final int HEADER_SIZE = 21;
+
+    static final byte TYPE_PUT = 0;
+    static final byte TYPE_DELETE = 1;
+
+    /**
+     * 压缩段的首条记录，值为被合并的最小段序号；崩溃恢复时据此删除压缩后未来得及删除的旧段
+     */
+    static final byte TYPE_COMPACTED = 2;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Path directory;
+    private final Options options;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * 读操作持有读锁，压缩替换段时持有写锁，保证读取期间段文件不被关闭
+     */
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final Object writeMonitor = new Object();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile Segment active;
+    private volatile boolean closed;
+
+    public LogStructuredStore(final Path directory) throws IOException {
+        this(directory, Options.builder().build());
+    }
+
+    public LogStructuredStore(final Path directory, final Options options) throws IOException {
+        if (options.getMaxSegmentBytes() <= HEADER_SIZE || options.getMaxSegmentBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maxSegmentBytes must be between " + HEADER_SIZE
+                    + " and " + Integer.MAX_VALUE);
+        }
+        this.directory = directory;
+        this.options = options;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * 写入键值
+     */
+    public void put(final String key, final byte[] value) throws IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        append(TYPE_PUT, key, value);
+    }
+
+    /**
+     * 删除键，键不存在时不写入记录
+     *
+     * @return 键是否存在
+     */
+    public boolean delete(final String key) throws IOException {
+        if (!index.containsKey(key)) {
+            return false;
+        }
+        append(TYPE_DELETE, key, null);
+        return true;
+    }
+
+    /**
+     * 读取键的最新值，不存在时返回 null
+     */
+    public byte[] get(final String key) throws IOException {
+        segmentLock.readLock().lock();
+        try {
+            ensureOpen();
+            Entry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            return segments.get(entry.segment()).read(entry.valueOffset(), entry.valueLength());
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(final String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * 当前所有键的只读视图
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * 键最新值的写入时间（毫秒），不存在时返回 -1
+     */
+    public long timestamp(final String key) {
+        Entry entry = index.get(key);
+        return entry == null ? -1 : entry.timestamp();
+    }
+
+    /**
+     * 键最新值所在的段文件，不存在时返回 null
+     */
+    public Path segmentPath(final String key) {
+        segmentLock.readLock().lock();
+        try {
+            Entry entry = index.get(key);
+            return entry == null ? null : segments.get(entry.segment()).path();
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 存储统计
+     */
+    public Stats stats() {
+        segmentLock.readLock().lock();
+        try {
+            long total = 0;
+            long live = 0;
+            for (Segment segment : segments.values()) {
+                total += segment.size();
+                live += segment.liveBytes();
+            }
+            return new Stats(index.size(), segments.size(), total, live);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 将活动段强制落盘
+     */
+    public void sync() throws IOException {
+        synchronized (writeMonitor) {
+            ensureOpen();
+            active.force();
+        }
+    }
+
+    /**
+     * 将活动段封存并滚动到新段，此后全部已有记录都可参与压缩
+     */
+    public void rollover() throws IOException {
+        synchronized (writeMonitor) {
+            ensureOpen();
+            if (active.size() > 0) {
+                roll();
+            }
+        }
+    }
+
+    /**
+     * 压缩全部封存段：存活记录按原时间戳重写为一个新段，删除记录和被覆盖的记录被丢弃
+     *
+     * 新段沿用被合并段中最大的序号，以保持与活动段之间的重放顺序；压缩期间读写不受阻塞，
+     * 压缩过程中被更新的键保留更新后的值。
+     */
+    public void compact() throws IOException {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            doCompact();
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeMonitor) {
+            segmentLock.writeLock().lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                active.force();
+                for (Segment segment : segments.values()) {
+                    segment.close();
+                }
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void append(final byte type, final String key, final byte[] value) throws IOException {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long timestamp = System.currentTimeMillis();
+        ByteBuffer record = encode(type, timestamp, keyBytes, value);
+        int recordSize = record.remaining();
+        boolean rolled = false;
+        synchronized (writeMonitor) {
+            ensureOpen();
+            if (active.size() > 0 && active.size() + recordSize > options.getMaxSegmentBytes()) {
+                roll();
+                rolled = true;
+            }
+            long offset = active.append(record, options.isSyncOnWrite());
+            apply(type, key, active, offset, keyBytes.length, value == null ? -1 : value.length, recordSize,
+                    timestamp);
+        }
+        if (rolled && needsCompaction()) {
+            try {
+                compact();
+            } catch (IOException e) {
+                log.warn("Log segment compaction failed in {}: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 应用一条记录到索引，并维护各段的存活字节数
+     */
+    private void apply(final byte type, final String key, final Segment segment, final long offset,
+                       final int keyLength, final int valueLength, final int recordSize, final long timestamp) {
+        if (type == TYPE_PUT) {
+            segment.addLive(recordSize);
+            retire(index.put(key, new Entry(segment.id(), offset + HEADER_SIZE + keyLength, valueLength,
+                    recordSize, timestamp)));
+        } else if (type == TYPE_DELETE) {
+            retire(index.remove(key));
+        }
+    }
+
+    private void retire(final Entry previous) {
+        if (previous != null) {
+            Segment segment = segments.get(previous.segment());
+            if (segment != null) {
+                segment.addLive(-previous.recordSize());
+            }
+        }
+    }
+
+    private boolean needsCompaction() {
+        long total = 0;
+        long live = 0;
+        for (Segment segment : segments.headMap(active.id()).values()) {
+            total += segment.size();
+            live += segment.liveBytes();
+        }
+        return total > 0 && (double) (total - live) / total >= options.getCompactionThreshold();
+    }
+
+    private void roll() throws IOException {
+        active.seal(options.isMmapReads());
+        long id = active.id() + 1;
+        Segment next = Segment.open(id, segmentFile(id));
+        segments.put(id, next);
+        active = next;
+    }
+
+    private void doCompact() throws IOException {
+        List<Segment> inputs;
+        synchronized (writeMonitor) {
+            ensureOpen();
+            inputs = new ArrayList<>(segments.headMap(active.id()).values());
+        }
+        if (inputs.isEmpty()) {
+            return;
+        }
+        long fromId = inputs.get(0).id();
+        long targetId = inputs.get(inputs.size() - 1).id();
+        Path temp = directory.resolve(segmentName(targetId) + COMPACT_SUFFIX);
+        Files.deleteIfExists(temp);
+
+        Segment output = Segment.open(targetId, temp);
+        Map<String, Entry> originals = new HashMap<>();
+        Map<String, Entry> rewritten = new HashMap<>();
+        try {
+            output.append(encode(TYPE_COMPACTED, System.currentTimeMillis(), EMPTY,
+                    ByteBuffer.allocate(Long.BYTES).putLong(0, fromId).array()), false);
+            for (Map.Entry<String, Entry> item : index.entrySet()) {
+                Entry entry = item.getValue();
+                if (entry.segment() < fromId || entry.segment() > targetId) {
+                    continue;
+                }
+                // 封存段不会变化，也只有压缩会删除它们，这里无需持有段锁
+                byte[] value = segments.get(entry.segment()).read(entry.valueOffset(), entry.valueLength());
+                byte[] keyBytes = item.getKey().getBytes(StandardCharsets.UTF_8);
+                ByteBuffer record = encode(TYPE_PUT, entry.timestamp(), keyBytes, value);
+                int recordSize = record.remaining();
+                long offset = output.append(record, false);
+                originals.put(item.getKey(), entry);
+                rewritten.put(item.getKey(), new Entry(targetId, offset + HEADER_SIZE + keyBytes.length,
+                        value.length, recordSize, entry.timestamp()));
+            }
+            output.force();
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Path target = segmentFile(targetId);
+        synchronized (writeMonitor) {
+            segmentLock.writeLock().lock();
+            try {
+                if (closed) {
+                    output.close();
+                    Files.deleteIfExists(temp);
+                    return;
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                output.moved(target);
+                for (Map.Entry<String, Entry> item : rewritten.entrySet()) {
+                    // 压缩期间被覆盖或删除的键保持现状，重写的副本成为垃圾
+                    if (originals.get(item.getKey()).equals(index.get(item.getKey()))) {
+                        index.put(item.getKey(), item.getValue());
+                        output.addLive(item.getValue().recordSize());
+                    }
+                }
+                for (Segment input : inputs) {
+                    segments.remove(input.id());
+                    input.close();
+                }
+                output.seal(options.isMmapReads());
+                segments.put(targetId, output);
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+        }
+        for (Segment input : inputs) {
+            if (input.id() != targetId) {
+                Files.deleteIfExists(input.path());
+            }
+        }
+        log.debug("Compacted {} log segments into {}, {} live records", inputs.size(), target, rewritten.size());
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACT_SUFFIX)) {
+                    // 未完成的压缩输出，原段仍然完整
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    Long id = parseSegmentId(name);
+                    if (id != null) {
+                        segments.put(id, Segment.open(id, file));
+                    }
+                }
+            }
+        }
+
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            long coveredFrom = compactedFrom(segment);
+            if (coveredFrom >= 0 && segments.containsKey(segment.id())) {
+                for (Segment leftover : new ArrayList<>(segments.subMap(coveredFrom, segment.id()).values())) {
+                    log.info("Removing log segment {} already merged into {}", leftover.path(), segment.path());
+                    segments.remove(leftover.id());
+                    leftover.close();
+                    Files.deleteIfExists(leftover.path());
+                }
+            }
+        }
+
+        Long lastId = segments.isEmpty() ? null : segments.lastKey();
+        for (Segment segment : segments.values()) {
+            long valid = replay(segment);
+            if (valid < segment.size()) {
+                if (segment.id() == lastId) {
+                    log.warn("Truncating torn tail of log segment {} at offset {} (size {})",
+                            segment.path(), valid, segment.size());
+                    segment.truncate(valid);
+                } else {
+                    log.error("Corrupted record in sealed log segment {} at offset {}, remaining {} bytes ignored",
+                            segment.path(), valid, segment.size() - valid);
+                }
+            }
+            if (segment.id() != lastId) {
+                segment.seal(options.isMmapReads());
+            }
+        }
+
+        if (lastId == null) {
+            active = Segment.open(1, segmentFile(1));
+            segments.put(1L, active);
+        } else {
+            active = segments.get(lastId);
+            if (active.size() >= options.getMaxSegmentBytes()) {
+                roll();
+            }
+        }
+        log.debug("Recovered log-structured store {}: {} keys in {} segments", directory, index.size(),
+                segments.size());
+    }
+
+    /**
+     * 按顺序重放段内记录，返回最后一条完整有效记录的结束偏移
+     */
+    private long replay(final Segment segment) throws IOException {
+        long end = segment.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        CRC32 checksum = new CRC32();
+        while (position + HEADER_SIZE <= end) {
+            header.clear();
+            segment.readFully(header, position);
+            int crc = header.getInt(0);
+            byte type = header.get(4);
+            long timestamp = header.getLong(5);
+            int keyLength = header.getInt(13);
+            int valueLength = header.getInt(17);
+            if (type < TYPE_PUT || type > TYPE_COMPACTED || keyLength < 0 || valueLength < -1) {
+                break;
+            }
+            long recordSize = (long) HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+            if (position + recordSize > end) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate((int) (recordSize - HEADER_SIZE));
+            segment.readFully(body, position + HEADER_SIZE);
+            checksum.reset();
+            checksum.update(header.array(), 4, HEADER_SIZE - 4);
+            checksum.update(body.array());
+            if ((int) checksum.getValue() != crc) {
+                break;
+            }
+            String key = new String(body.array(), 0, keyLength, StandardCharsets.UTF_8);
+            apply(type, key, segment, position, keyLength, valueLength, (int) recordSize, timestamp);
+            position += recordSize;
+        }
+        return position;
+    }
+
+    /**
+     * 读取段首的压缩标记，返回被合并的最小段序号；不是压缩段时返回 -1
+     */
+    private static long compactedFrom(final Segment segment) throws IOException {
+        int markerSize = HEADER_SIZE + Long.BYTES;
+        if (segment.size() < markerSize) {
+            return -1;
+        }
+        ByteBuffer marker = ByteBuffer.allocate(markerSize);
+        segment.readFully(marker, 0);
+        if (marker.get(4) != TYPE_COMPACTED || marker.getInt(13) != 0 || marker.getInt(17) != Long.BYTES) {
+            return -1;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(marker.array(), 4, markerSize - 4);
+        return (int) checksum.getValue() == marker.getInt(0) ? marker.getLong(HEADER_SIZE) : -1;
+    }
+
+    static ByteBuffer encode(final byte type, final long timestamp, final byte[] key, final byte[] value) {
+        int valueLength = value == null ? -1 : value.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + key.length + Math.max(valueLength, 0));
+        record.position(4);
+        record.put(type).putLong(timestamp).putInt(key.length).putInt(valueLength).put(key);
+        if (value != null) {
+            record.put(value);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(record.array(), 4, record.capacity() - 4);
+        record.putInt(0, (int) checksum.getValue());
+        return record.flip();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Log-structured store is closed: " + directory);
+        }
+    }
+
+    private Path segmentFile(final long id) {
+        return directory.resolve(segmentName(id) + SEGMENT_SUFFIX);
+    }
+
+    private static String segmentName(final long id) {
+        return String.format("%020d", id);
+    }
+
+    private static Long parseSegmentId(final String fileName) {
+        String name = fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length());
+        if (name.length() != 20 || !name.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return Long.parseLong(name);
+    }
+
+    /**
+     * 索引项：键最新值所在段、值偏移与长度、整条记录长度和写入时间
+     */
+    record Entry(long segment, long valueOffset, int valueLength, int recordSize, long timestamp) {
+    }
+
+    /**
+     * 存储统计
+     *
+     * @param keys         键数量
+     * @param segments     段数量
+     * @param totalBytes   段文件总字节数
+     * @param liveBytes    存活记录字节数
+     */
+    public record Stats(int keys, int segments, long totalBytes, long liveBytes) {
+    }
+
+    /**
+     * 引擎选项
+     */
+    @Getter
+    @Builder
+    public static final class Options {
+
+        /**
+         * 单个段文件的大小上限，超过后滚动到新段
+         */
+        @Builder.Default
+        private final long maxSegmentBytes = 64L * 1024 * 1024;
+
+        /**
+         * 每次写入后是否 fsync；关闭时依赖操作系统回写，崩溃可能丢失最近的写入，但不会破坏已有数据
+         */
+        @Builder.Default
+        private final boolean syncOnWrite = false;
+
+        /**
+         * 封存段是否内存映射读取
+         */
+        @Builder.Default
+        private final boolean mmapReads = true;
+
+        /**
+         * 封存段中垃圾记录所占比例达到该值时，段滚动后自动压缩
+         */
+        @Builder.Default
+        private final double compactionThreshold = 0.5;
+    }
+}
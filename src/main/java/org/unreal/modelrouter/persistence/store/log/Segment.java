@@ -0,0 +1,126 @@
+package org.unreal.modelrouter.persistence.store.log;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 日志段文件
+ *
+ * 活动段只由持有写锁的线程追加，读取使用定位读；封存后内容不再变化，可选择整体内存映射后直接拷贝读取。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+final class Segment implements Closeable {
+
+    private final long id;
+    private final FileChannel channel;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private volatile Path path;
+    private volatile long size;
+    private volatile MappedByteBuffer mapped;
+
+    private Segment(final long id, final Path path, final FileChannel channel) throws IOException {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    static Segment open(final long id, final Path path) throws IOException {
+        return new Segment(id, path, FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    long id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long liveBytes() {
+        return liveBytes.get();
+    }
+
+    void addLive(final long bytes) {
+        liveBytes.addAndGet(bytes);
+    }
+
+    /**
+     * 追加一条记录，返回记录起始偏移
+     */
+    long append(final ByteBuffer record, final boolean sync) throws IOException {
+        long offset = size;
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        size = position;
+        if (sync) {
+            channel.force(false);
+        }
+        return offset;
+    }
+
+    byte[] read(final long offset, final int length) throws IOException {
+        byte[] data = new byte[length];
+        MappedByteBuffer buffer = mapped;
+        if (buffer != null) {
+            buffer.get((int) offset, data);
+            return data;
+        }
+        readFully(ByteBuffer.wrap(data), offset);
+        return data;
+    }
+
+    void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of segment " + path);
+            }
+        }
+    }
+
+    /**
+     * 封存段：落盘，并按需映射为只读内存
+     */
+    void seal(final boolean mmap) throws IOException {
+        channel.force(false);
+        if (mmap && size > 0 && size <= Integer.MAX_VALUE) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    void truncate(final long length) throws IOException {
+        channel.truncate(length);
+        channel.force(true);
+        size = length;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    void moved(final Path target) {
+        this.path = target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -15,6 +15,7 @@ import org.unreal.modelrouter.router.adapter.impl.NormalOpenAiAdapter;
 import org.unreal.modelrouter.router.adapter.impl.OllamaAdapter;
 import org.unreal.modelrouter.router.adapter.impl.VllmAdapter;
 import org.unreal.modelrouter.router.adapter.impl.XinferenceAdapter;
+import org.unreal.modelrouter.router.adapter.mapping.MappingCompiler;
 import org.unreal.modelrouter.router.adapter.persistence.AdapterDefinitionPersistenceService;
 import org.unreal.modelrouter.router.adapter.support.AdapterContext;
 import org.unreal.modelrouter.router.adapter.support.RequestProcessingSupport;
@@ -184,7 +185,8 @@ public class AdapterRegistry {
                 definition.getAuth().getHeaderName(),
                 definition.getAuth().getHeaderPrefix(),
                 definition.getAdditionalHeaders(),
-                openAiRequestTransformer, openAiResponseTransformer
+                openAiRequestTransformer, openAiResponseTransformer,
+                MappingCompiler.compile(definition.getMapping())
         );
     }
 
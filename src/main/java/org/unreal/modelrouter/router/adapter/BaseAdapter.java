@@ -5,12 +5,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.unreal.modelrouter.common.filter.CachedBodyWebFilter;
 import org.unreal.modelrouter.router.adapter.handler.MultipartRequestHandler;
 import org.unreal.modelrouter.router.adapter.metrics.AdapterMetricsRecorder;
 import org.unreal.modelrouter.router.adapter.processor.FallbackRequestProcessor;
 import org.unreal.modelrouter.monitor.monitoring.error.ErrorTracker;
 import org.unreal.modelrouter.router.adapter.processor.StreamingRequestProcessor;
 import org.unreal.modelrouter.router.adapter.retry.RetryPolicy;
+import org.unreal.modelrouter.router.adapter.stream.StreamTranslator;
 import org.unreal.modelrouter.router.adapter.support.AdapterContext;
 import org.unreal.modelrouter.router.adapter.support.RequestProcessingSupport;
 import org.unreal.modelrouter.router.adapter.support.ResilienceSupport;
@@ -24,6 +26,7 @@ import org.unreal.modelrouter.common.dto.SttDTO;
 import org.unreal.modelrouter.common.dto.TtsDTO;
 import org.unreal.modelrouter.router.model.ModelServiceRegistry;
 import org.unreal.modelrouter.router.model.ModelRouterProperties;
+import org.unreal.modelrouter.router.ratelimit.concurrency.AdaptiveConcurrencyLimiter;
 import org.unreal.modelrouter.common.util.IpUtils;
 import org.unreal.modelrouter.router.fallback.FallbackStrategy;
 import org.unreal.modelrouter.router.fallback.impl.CacheFallbackStrategy;
@@ -86,17 +89,14 @@ public abstract class BaseAdapter implements ServiceCapability {
 
     protected RetryPolicy getRetryPolicy() { return resilienceSupport.getRetryPolicy(); }
 
-    protected WebClient getWebClient(final ModelServiceRegistry.ServiceType serviceType,
-                                     final String modelName, final ServerHttpRequest httpRequest) {
-        String clientIp = IpUtils.getClientIp(httpRequest);
-        ModelRouterProperties.ModelInstance selectedInstance = selectInstance(serviceType, modelName, clientIp);
+    protected WebClient getWebClient(final ModelRouterProperties.ModelInstance selectedInstance) {
         String baseUrl = selectedInstance.getBaseUrl();
         try {
             var tracingFactory = org.unreal.modelrouter.common.util.ApplicationContextProvider.getBean(
                     org.unreal.modelrouter.monitor.tracing.client.TracingWebClientFactory.class);
             return tracingFactory.createTracingWebClient(baseUrl);
         } catch (Exception e) {
-            return getRegistry().getClient(serviceType, modelName, clientIp);
+            return getRegistry().getClient(selectedInstance);
         }
     }
 
@@ -112,15 +112,23 @@ public abstract class BaseAdapter implements ServiceCapability {
             final String modelName, final RequestProcessor<T> processor) {
         ModelRouterProperties.ModelInstance selectedInstance =
                 selectInstance(serviceType, modelName, IpUtils.getClientIp(httpRequest));
-        WebClient client = getWebClient(serviceType, modelName, httpRequest);
+        WebClient client = getWebClient(selectedInstance);
         String path = getModelPath(serviceType, modelName);
         long startTime = System.currentTimeMillis();
         String adapterType = getAdapterType();
         String modelNameFromRequest = ModelUtils.getModelNameFromRequest(request);
         resilienceSupport.getTracingManager()
                 .recordCallStart(adapterType, selectedInstance, serviceType, modelNameFromRequest);
-        return processRequestWithRetry(request, authorization, client, path, selectedInstance,
-                serviceType, modelNameFromRequest, processor, startTime, 0);
+        AdaptiveConcurrencyLimiter concurrencyLimiter = resilienceSupport.getConcurrencyLimiter();
+        if (concurrencyLimiter == null || !concurrencyLimiter.isEnabled()) {
+            return processRequestWithRetry(request, authorization, client, path, selectedInstance,
+                    serviceType, modelNameFromRequest, processor, startTime, 0);
+        }
+        // 名额在实际调用处获取，流式响应在流结束时释放
+        return concurrencyLimiter.acquire(serviceType, selectedInstance)
+                .flatMap(permit -> concurrencyLimiter.track(permit, processRequestWithRetry(request, authorization,
+                        client, path, selectedInstance, serviceType, modelNameFromRequest, processor,
+                        System.currentTimeMillis(), 0)));
     }
 
     @SuppressWarnings("all")
@@ -232,7 +240,7 @@ public abstract class BaseAdapter implements ServiceCapability {
         String adapterType = getAdapterType();
         String finalPath = adaptModelName(path);
         String finalAuth = getAuthorizationHeader(adaptModelName(authorization), adapterType);
-        Function<Object, Object> transformRequestFn = req -> transformRequest(req, adapterType);
+        Function<Object, Object> transformRequestFn = req -> transformRequest(req, adapterType, httpRequest);
         Function<Object, Object> transformResponseFn = data -> transformResponse(data, adapterType);
 
         // 延迟获取 multipartRequestHandler（如果尚未注入）
@@ -269,9 +277,27 @@ public abstract class BaseAdapter implements ServiceCapability {
         String adapterType = getAdapterType();
         String finalPath = adaptModelName(path);
         String finalAuth = getAuthorizationHeader(adaptModelName(authorization), adapterType);
-        Object transformedRequest = transformRequest(request, adapterType);
+        Object transformedRequest = transformRequest(request, adapterType, httpRequest);
         return processor.processStreamingRequest(transformedRequest, finalAuth, client,
-                finalPath, selectedInstance, serviceType, adapterType, httpRequest);
+                finalPath, selectedInstance, serviceType, adapterType, getStreamChunkTransformer(),
+                createStreamTranslator(request), httpRequest);
+    }
+
+    /**
+     * 为单个流式请求创建有状态翻译器，默认返回 null
+     * 后端 SSE 事件格式与 OpenAI 不同的适配器重写此方法
+     *
+     * @param request 原始请求
+     */
+    protected StreamTranslator createStreamTranslator(final Object request) {
+        return null;
+    }
+
+    /**
+     * 流式数据块转换函数，默认返回 null，由流式处理器使用通用转换器
+     */
+    protected Function<String, String> getStreamChunkTransformer() {
+        return null;
     }
 
     // ==================== 抽象方法 ====================
@@ -408,6 +434,33 @@ public abstract class BaseAdapter implements ServiceCapability {
         return requestSupport.getResponseTransformer().transformRequest(request, adapterType);
     }
 
+    /**
+     * 转换请求，Chat 请求优先在客户端原始请求体上直接改写
+     * 原始请求体由 {@link CachedBodyWebFilter} 缓存，子类未支持改写或改写失败时回退到 DTO 转换
+     */
+    protected Object transformRequest(final Object request, final String adapterType,
+            final ServerHttpRequest httpRequest) {
+        if (request instanceof ChatDTO.Request && httpRequest != null
+                && httpRequest.getAttributes().get(CachedBodyWebFilter.CACHED_BODY_ATTRIBUTE) instanceof byte[] rawBody) {
+            byte[] rewritten = rewriteRawChatBody(rawBody);
+            if (rewritten != null) {
+                return rewritten;
+            }
+        }
+        return transformRequest(request, adapterType);
+    }
+
+    /**
+     * 在原始请求体上改写 Chat 请求，默认不支持
+     * OpenAI 兼容的适配器可重写此方法，只替换模型名等必要字段，其余字段原样透传
+     *
+     * @param rawBody 客户端原始请求体
+     * @return 改写后的请求体，返回 null 表示回退到 DTO 转换
+     */
+    protected byte[] rewriteRawChatBody(final byte[] rawBody) {
+        return null;
+    }
+
     protected String adaptModelName(final String originalModelName) {
         return requestSupport.getResponseTransformer().adaptModelName(originalModelName);
     }
@@ -3,7 +3,9 @@ package org.unreal.modelrouter.router.adapter.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,6 +32,7 @@ public class AdapterDefinitionProperties {
         private CapabilitiesConfig capabilities = new CapabilitiesConfig();
         private AuthConfig auth = new AuthConfig();
         private Map<String, String> additionalHeaders = new HashMap<>();
+        private MappingConfig mapping;  // 声明式请求/响应映射，未配置时按OpenAI兼容格式透传
 
         public String getType() {
             return type;
@@ -70,6 +73,14 @@ public class AdapterDefinitionProperties {
         public void setAdditionalHeaders(final Map<String, String> additionalHeaders) {
             this.additionalHeaders = additionalHeaders;
         }
+
+        public MappingConfig getMapping() {
+            return mapping;
+        }
+
+        public void setMapping(final MappingConfig mapping) {
+            this.mapping = mapping;
+        }
     }
 
     public static class CapabilitiesConfig {
@@ -167,4 +178,130 @@ public class AdapterDefinitionProperties {
             this.headerPrefix = headerPrefix;
         }
     }
+
+    /**
+     * 声明式映射配置
+     * request 作用于发往后端的请求体，response 作用于非流式响应体，stream 作用于每个 SSE 事件的数据
+     */
+    public static class MappingConfig {
+        private List<MappingRuleConfig> request = new ArrayList<>();
+        private List<MappingRuleConfig> response = new ArrayList<>();
+        private StreamMappingConfig stream;
+
+        public List<MappingRuleConfig> getRequest() {
+            return request;
+        }
+
+        public void setRequest(final List<MappingRuleConfig> request) {
+            this.request = request;
+        }
+
+        public List<MappingRuleConfig> getResponse() {
+            return response;
+        }
+
+        public void setResponse(final List<MappingRuleConfig> response) {
+            this.response = response;
+        }
+
+        public StreamMappingConfig getStream() {
+            return stream;
+        }
+
+        public void setStream(final StreamMappingConfig stream) {
+            this.stream = stream;
+        }
+    }
+
+    /**
+     * 单条映射规则
+     *
+     * op 取值：
+     * rename   - 同一对象内改名，to 为新字段名
+     * move     - 移动到任意位置，to 为以 "." 分隔的完整路径
+     * constant - 写入常量，value 为 JSON 字面量，无法解析时按字符串处理
+     * remove   - 删除字段
+     * project  - 数组投影，对 from 数组的每个对象元素执行 rules，结果写到 to（默认原位置）
+     */
+    public static class MappingRuleConfig {
+        private String op;
+        private String from;
+        private String to;
+        private Object value;
+        private List<MappingRuleConfig> rules = new ArrayList<>();
+
+        public String getOp() {
+            return op;
+        }
+
+        public void setOp(final String op) {
+            this.op = op;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public void setFrom(final String from) {
+            this.from = from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public void setTo(final String to) {
+            this.to = to;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(final Object value) {
+            this.value = value;
+        }
+
+        public List<MappingRuleConfig> getRules() {
+            return rules;
+        }
+
+        public void setRules(final List<MappingRuleConfig> rules) {
+            this.rules = rules;
+        }
+    }
+
+    /**
+     * SSE 事件映射配置
+     * 配置 eventField 时按事件数据中该顶层字段的值选择 events 中的规则，未匹配的事件使用 rules
+     */
+    public static class StreamMappingConfig {
+        private String eventField;
+        private List<MappingRuleConfig> rules = new ArrayList<>();
+        private Map<String, List<MappingRuleConfig>> events = new HashMap<>();
+
+        public String getEventField() {
+            return eventField;
+        }
+
+        public void setEventField(final String eventField) {
+            this.eventField = eventField;
+        }
+
+        public List<MappingRuleConfig> getRules() {
+            return rules;
+        }
+
+        public void setRules(final List<MappingRuleConfig> rules) {
+            this.rules = rules;
+        }
+
+        public Map<String, List<MappingRuleConfig>> getEvents() {
+            return events;
+        }
+
+        public void setEvents(final Map<String, List<MappingRuleConfig>> events) {
+            this.events = events;
+        }
+    }
 }
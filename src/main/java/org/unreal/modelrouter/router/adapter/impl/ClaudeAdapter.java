@@ -9,6 +9,8 @@ import org.unreal.modelrouter.router.adapter.AdapterCapabilities;
 import org.unreal.modelrouter.router.adapter.BaseAdapter;
 import org.unreal.modelrouter.router.adapter.support.AdapterContext;
 import org.unreal.modelrouter.router.adapter.support.RequestProcessingSupport;
+import org.unreal.modelrouter.router.adapter.stream.ClaudeStreamTranslator;
+import org.unreal.modelrouter.router.adapter.stream.StreamTranslator;
 import org.unreal.modelrouter.router.adapter.support.ResilienceSupport;
 import org.unreal.modelrouter.router.adapter.transformer.OpenAiRequestTransformer;
 import org.unreal.modelrouter.router.adapter.transformer.OpenAiResponseTransformer;
@@ -281,18 +283,19 @@ public class ClaudeAdapter extends BaseAdapter {
      * 映射 Claude 的 stop_reason 到 OpenAI 的 finish_reason
      */
     private String mapClaudeStopReason(String claudeStopReason) {
-        return switch (claudeStopReason) {
-            case "end_turn" -> "stop";
-            case "max_tokens" -> "length";
-            case "stop_sequence" -> "stop";
-            default -> "stop";
-        };
+        return ClaudeStreamTranslator.mapStopReason(claudeStopReason);
     }
 
     @Override
     protected String transformStreamChunk(final String chunk) {
-        // Claude 流式响应格式与 OpenAI 不同，需要转换
-        // 暂时返回原始格式，后续可以增强
+        // 流式事件由 ClaudeStreamTranslator 逐个翻译，不经过单块转换
         return chunk;
     }
+
+    @Override
+    protected StreamTranslator createStreamTranslator(final Object request) {
+        String model = request instanceof ChatDTO.Request chatRequest && chatRequest.model() != null
+                ? adaptModelName(chatRequest.model()) : "claude";
+        return new ClaudeStreamTranslator(objectMapper, model);
+    }
 }
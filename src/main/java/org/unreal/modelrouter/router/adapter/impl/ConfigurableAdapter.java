@@ -1,5 +1,6 @@
 package org.unreal.modelrouter.router.adapter.impl;
 
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.unreal.modelrouter.common.dto.ChatDTO;
 import org.unreal.modelrouter.common.dto.EmbeddingDTO;
 import org.unreal.modelrouter.common.dto.ImageEditDTO;
@@ -8,6 +9,7 @@ import org.unreal.modelrouter.common.dto.SttDTO;
 import org.unreal.modelrouter.common.dto.TtsDTO;
 import org.unreal.modelrouter.router.adapter.AdapterCapabilities;
 import org.unreal.modelrouter.router.adapter.BaseAdapter;
+import org.unreal.modelrouter.router.adapter.mapping.AdapterMapping;
 import org.unreal.modelrouter.router.adapter.support.AdapterContext;
 import org.unreal.modelrouter.router.adapter.support.RequestProcessingSupport;
 import org.unreal.modelrouter.router.adapter.support.ResilienceSupport;
@@ -16,10 +18,12 @@ import org.unreal.modelrouter.router.adapter.transformer.OpenAiResponseTransform
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 可配置的OpenAI兼容Adapter
  * 通过配置文件定义adapter参数，无需编写代码即可添加新的OpenAI兼容adapter
+ * 配置了声明式映射时，请求体、响应和流式数据块先经编译后的映射计划转换为后端/OpenAI格式
  */
 public class ConfigurableAdapter extends BaseAdapter {
 
@@ -30,6 +34,7 @@ public class ConfigurableAdapter extends BaseAdapter {
     private final Map<String, String> additionalHeaders;
     private final OpenAiRequestTransformer requestTransformer;
     private final OpenAiResponseTransformer responseTransformer;
+    private final AdapterMapping mapping;
 
     public ConfigurableAdapter(final AdapterContext context,
                                final RequestProcessingSupport requestSupport,
@@ -41,6 +46,21 @@ public class ConfigurableAdapter extends BaseAdapter {
                                final Map<String, String> additionalHeaders,
                                final OpenAiRequestTransformer requestTransformer,
                                final OpenAiResponseTransformer responseTransformer) {
+        this(context, requestSupport, resilienceSupport, adapterType, capabilities, authHeaderName,
+                authHeaderPrefix, additionalHeaders, requestTransformer, responseTransformer, null);
+    }
+
+    public ConfigurableAdapter(final AdapterContext context,
+                               final RequestProcessingSupport requestSupport,
+                               final ResilienceSupport resilienceSupport,
+                               final String adapterType,
+                               final AdapterCapabilities capabilities,
+                               final String authHeaderName,
+                               final String authHeaderPrefix,
+                               final Map<String, String> additionalHeaders,
+                               final OpenAiRequestTransformer requestTransformer,
+                               final OpenAiResponseTransformer responseTransformer,
+                               final AdapterMapping mapping) {
         super(context, requestSupport, resilienceSupport);
         this.adapterType = adapterType;
         this.capabilities = capabilities;
@@ -49,6 +69,11 @@ public class ConfigurableAdapter extends BaseAdapter {
         this.additionalHeaders = additionalHeaders != null ? additionalHeaders : Collections.emptyMap();
         this.requestTransformer = requestTransformer;
         this.responseTransformer = responseTransformer;
+        this.mapping = mapping;
+    }
+
+    public AdapterMapping getMapping() {
+        return mapping;
     }
 
     @Override
@@ -94,13 +119,51 @@ public class ConfigurableAdapter extends BaseAdapter {
         return request;
     }
 
+    /**
+     * 先完成模型名改写等OpenAI兼容转换，再按映射计划转换为后端请求格式
+     * multipart 请求（语音识别、图片编辑）不做映射
+     */
+    @Override
+    protected Object transformRequest(final Object request, final String adapterType,
+                                      final ServerHttpRequest httpRequest) {
+        Object transformed = super.transformRequest(request, adapterType, httpRequest);
+        if (mapping == null || !mapping.hasRequestMapping()
+                || request instanceof SttDTO.Request || request instanceof ImageEditDTO.Request) {
+            return transformed;
+        }
+        try {
+            byte[] body = transformed instanceof byte[] raw ? raw : objectMapper.writeValueAsBytes(transformed);
+            byte[] mapped = mapping.mapRequest(body);
+            return mapped != null ? mapped : transformed;
+        } catch (Exception e) {
+            logAdapterTransformError(adapterType, e);
+            return transformed;
+        }
+    }
+
+    @Override
+    protected byte[] rewriteRawChatBody(final byte[] rawBody) {
+        return requestTransformer.rewriteChatBody(rawBody, this::adaptModelName);
+    }
+
     @Override
     protected Object transformResponse(final Object response, final String adapterType) {
+        if (mapping != null && mapping.hasResponseMapping()) {
+            return mapping.mapResponse(response);
+        }
         return responseTransformer.transformResponse(response);
     }
 
     @Override
     protected String transformStreamChunk(final String chunk) {
+        if (mapping != null && mapping.hasStreamMapping()) {
+            return mapping.mapStreamChunk(chunk);
+        }
         return responseTransformer.transformStreamChunk(chunk);
     }
+
+    @Override
+    protected Function<String, String> getStreamChunkTransformer() {
+        return mapping != null && mapping.hasStreamMapping() ? mapping::mapStreamChunk : null;
+    }
 }
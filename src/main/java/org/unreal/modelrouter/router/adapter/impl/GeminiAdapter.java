@@ -9,6 +9,8 @@ import org.unreal.modelrouter.router.adapter.AdapterCapabilities;
 import org.unreal.modelrouter.router.adapter.BaseAdapter;
 import org.unreal.modelrouter.router.adapter.support.AdapterContext;
 import org.unreal.modelrouter.router.adapter.support.RequestProcessingSupport;
+import org.unreal.modelrouter.router.adapter.stream.GeminiStreamTranslator;
+import org.unreal.modelrouter.router.adapter.stream.StreamTranslator;
 import org.unreal.modelrouter.router.adapter.support.ResilienceSupport;
 import org.unreal.modelrouter.router.adapter.transformer.OpenAiRequestTransformer;
 import org.unreal.modelrouter.router.adapter.transformer.OpenAiResponseTransformer;
@@ -26,7 +28,7 @@ import java.util.Map;
  *
  * Gemini API 端点:
  * - 生成内容: POST /v1beta/models/{model}:generateContent
- * - 流式生成: POST /v1beta/models/{model}:streamGenerateContent
+ * - 流式生成: POST /v1beta/models/{model}:streamGenerateContent?alt=sse（需返回 SSE 格式，由 GeminiStreamTranslator 翻译）
  *
  * @since v2.8.3
  */
@@ -367,19 +369,19 @@ public class GeminiAdapter extends BaseAdapter {
      * 映射 Gemini 的 finishReason 到 OpenAI 的 finish_reason
      */
     private String mapGeminiFinishReason(String geminiFinishReason) {
-        return switch (geminiFinishReason) {
-            case "STOP" -> "stop";
-            case "MAX_TOKENS" -> "length";
-            case "SAFETY" -> "content_filter";
-            case "RECITATION" -> "content_filter";
-            default -> "stop";
-        };
+        return GeminiStreamTranslator.mapFinishReason(geminiFinishReason);
     }
 
     @Override
     protected String transformStreamChunk(final String chunk) {
-        // Gemini 流式响应格式与 OpenAI 不同，需要转换
-        // 暂时返回原始格式，后续可以增强
+        // 流式事件由 GeminiStreamTranslator 逐个翻译，不经过单块转换
         return chunk;
     }
+
+    @Override
+    protected StreamTranslator createStreamTranslator(final Object request) {
+        String model = request instanceof ChatDTO.Request chatRequest && chatRequest.model() != null
+                ? adaptModelName(chatRequest.model()) : "gemini";
+        return new GeminiStreamTranslator(objectMapper, model);
+    }
 }
@@ -68,6 +68,15 @@ public class NormalOpenAiAdapter extends BaseAdapter {
         return request;
     }
 
+    @Override
+    protected byte[] rewriteRawChatBody(final byte[] rawBody) {
+        byte[] rewritten = requestTransformer.rewriteChatBody(rawBody, this::adaptModelName);
+        if (rewritten != null) {
+            addTracingAttributes(rewritten, getAdapterType());
+        }
+        return rewritten;
+    }
+
     /**
      * 添加追踪属性
      */
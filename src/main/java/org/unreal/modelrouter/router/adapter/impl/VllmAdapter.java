@@ -10,6 +10,8 @@ import org.unreal.modelrouter.router.adapter.BaseAdapter;
 import org.unreal.modelrouter.router.adapter.support.AdapterContext;
 import org.unreal.modelrouter.router.adapter.support.RequestProcessingSupport;
 import org.unreal.modelrouter.router.adapter.support.ResilienceSupport;
+import org.unreal.modelrouter.router.adapter.transformer.JsonBodyRewriter;
+import org.unreal.modelrouter.router.adapter.transformer.OpenAiRequestTransformerImpl;
 
 import org.unreal.modelrouter.common.dto.ChatDTO;
 import org.unreal.modelrouter.common.dto.EmbeddingDTO;
@@ -17,6 +19,8 @@ import org.unreal.modelrouter.common.dto.RerankDTO;
 import org.unreal.modelrouter.common.dto.SttDTO;
 import org.unreal.modelrouter.common.dto.TtsDTO;
 
+import java.util.Map;
+
 /**
  * VLLM Adapter - 适配VLLM API格式
  * VLLM (Very Large Language Model) 推理服务器适配器
@@ -114,6 +118,16 @@ public class VllmAdapter extends BaseAdapter {
         }
     }
 
+    /**
+     * vLLM 原生支持 OpenAI 参数和扩展参数，原始请求体只需替换模型名即可转发
+     * options 中的扩展参数需要拆分到顶层，仍走 DTO 转换
+     */
+    @Override
+    protected byte[] rewriteRawChatBody(final byte[] rawBody) {
+        return JsonBodyRewriter.rewrite(rawBody, this::adaptModelName, Map.of(),
+                OpenAiRequestTransformerImpl.CHAT_DTO_ONLY_FIELDS);
+    }
+
     /**
      * 转换Chat请求格式以适配VLLM
      * 支持最新的vLLM OpenAI兼容API参数
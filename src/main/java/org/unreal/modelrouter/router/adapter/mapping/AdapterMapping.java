@@ -0,0 +1,100 @@
+package org.unreal.modelrouter.router.adapter.mapping;
+
+import java.util.Map;
+
+/**
+ * 配置驱动适配器的编译后映射
+ *
+ * 包含请求体、非流式响应和 SSE 事件三组执行计划，由 {@link MappingCompiler} 生成，不可变且线程安全。
+ * 任一计划执行失败时返回原始数据，由后续转换器按 OpenAI 兼容格式继续处理。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class AdapterMapping {
+
+    private static final String SSE_DATA_PREFIX = "data: ";
+
+    private final MappingPlan request;
+    private final MappingPlan response;
+    private final String eventField;
+    private final Map<String, MappingPlan> events;
+    private final MappingPlan stream;
+
+    AdapterMapping(final MappingPlan request, final MappingPlan response, final String eventField,
+                   final Map<String, MappingPlan> events, final MappingPlan stream) {
+        this.request = request;
+        this.response = response;
+        this.eventField = eventField;
+        this.events = Map.copyOf(events);
+        this.stream = stream;
+    }
+
+    public boolean hasRequestMapping() {
+        return request != null;
+    }
+
+    public boolean hasResponseMapping() {
+        return response != null;
+    }
+
+    public boolean hasStreamMapping() {
+        return stream != null || !events.isEmpty();
+    }
+
+    /**
+     * 映射请求体
+     *
+     * @param body JSON 请求体
+     * @return 映射后的请求体，未配置或无法映射时返回 null
+     */
+    public byte[] mapRequest(final byte[] body) {
+        return request != null ? request.apply(body) : null;
+    }
+
+    /**
+     * 映射非流式响应
+     *
+     * @param responseData 已反序列化的响应或 JSON 字符串
+     * @return 映射后的响应，未配置或无法映射时返回原响应
+     */
+    public Object mapResponse(final Object responseData) {
+        if (response == null || responseData == null) {
+            return responseData;
+        }
+        Object mapped = responseData instanceof String json ? response.apply(json) : response.applyToValue(responseData);
+        return mapped != null ? mapped : responseData;
+    }
+
+    /**
+     * 映射单个 SSE 事件的数据，非 JSON 对象（如 [DONE]）原样返回
+     *
+     * @param chunk 事件数据，可带 "data: " 前缀
+     * @return 映射后的事件数据
+     */
+    public String mapStreamChunk(final String chunk) {
+        if (!hasStreamMapping() || chunk == null) {
+            return chunk;
+        }
+        boolean prefixed = chunk.startsWith(SSE_DATA_PREFIX);
+        String data = prefixed ? chunk.substring(SSE_DATA_PREFIX.length()).trim() : chunk;
+        if (data.isEmpty() || data.charAt(0) != '{') {
+            return chunk;
+        }
+        MappingPlan plan = stream;
+        if (!events.isEmpty()) {
+            String eventType = MappingPlan.readTopLevelText(data, eventField);
+            if (eventType != null) {
+                plan = events.getOrDefault(eventType, stream);
+            }
+        }
+        if (plan == null) {
+            return chunk;
+        }
+        String mapped = plan.apply(data);
+        if (mapped == null) {
+            return chunk;
+        }
+        return prefixed ? SSE_DATA_PREFIX + mapped : mapped;
+    }
+}
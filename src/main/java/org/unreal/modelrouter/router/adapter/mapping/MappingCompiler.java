@@ -0,0 +1,315 @@
+package org.unreal.modelrouter.router.adapter.mapping;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.unreal.modelrouter.common.util.JacksonHelper;
+import org.unreal.modelrouter.router.adapter.config.AdapterDefinitionProperties;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 声明式映射编译器
+ *
+ * 在加载适配器定义时把 {@link AdapterDefinitionProperties.MappingConfig} 编译为 {@link AdapterMapping}：
+ * 路径预先拆分、rename 转换为绝对路径的 move、常量预先序列化为 Token，并检查路径冲突，
+ * 请求处理时不再解析规则。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class MappingCompiler {
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonHelper.getObjectMapper();
+
+    private MappingCompiler() {
+    }
+
+    /**
+     * 编译映射配置
+     *
+     * @param config 映射配置
+     * @return 编译结果，未配置任何规则时返回 null
+     * @throws IllegalArgumentException 配置无效
+     */
+    public static AdapterMapping compile(final AdapterDefinitionProperties.MappingConfig config) {
+        List<String> errors = new ArrayList<>();
+        AdapterMapping mapping = compile(config, errors);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid adapter mapping: " + String.join("; ", errors));
+        }
+        return mapping;
+    }
+
+    /**
+     * 校验映射配置
+     *
+     * @param config 映射配置
+     * @return 错误列表，为空表示配置有效
+     */
+    public static List<String> validate(final AdapterDefinitionProperties.MappingConfig config) {
+        List<String> errors = new ArrayList<>();
+        compile(config, errors);
+        return errors;
+    }
+
+    private static AdapterMapping compile(final AdapterDefinitionProperties.MappingConfig config,
+                                          final List<String> errors) {
+        if (config == null) {
+            return null;
+        }
+        MappingPlan request = compilePlan(config.getRequest(), "request", errors);
+        MappingPlan response = compilePlan(config.getResponse(), "response", errors);
+
+        MappingPlan stream = null;
+        String eventField = null;
+        Map<String, MappingPlan> events = Collections.emptyMap();
+        AdapterDefinitionProperties.StreamMappingConfig streamConfig = config.getStream();
+        if (streamConfig != null) {
+            stream = compilePlan(streamConfig.getRules(), "stream.rules", errors);
+            if (streamConfig.getEvents() != null && !streamConfig.getEvents().isEmpty()) {
+                eventField = streamConfig.getEventField();
+                if (eventField == null || eventField.isBlank()) {
+                    errors.add("stream.eventField: required when stream.events is configured");
+                }
+                events = new HashMap<>();
+                for (Map.Entry<String, List<AdapterDefinitionProperties.MappingRuleConfig>> entry
+                        : streamConfig.getEvents().entrySet()) {
+                    MappingPlan plan = compilePlan(entry.getValue(), "stream.events." + entry.getKey(), errors);
+                    if (plan != null) {
+                        events.put(entry.getKey(), plan);
+                    }
+                }
+            }
+        }
+
+        if (request == null && response == null && stream == null && events.isEmpty()) {
+            return null;
+        }
+        return new AdapterMapping(request, response, eventField, events, stream);
+    }
+
+    /**
+     * 编译一组规则，规则为空时返回 null
+     */
+    static MappingPlan compilePlan(final List<AdapterDefinitionProperties.MappingRuleConfig> rules,
+                                   final String scope, final List<String> errors) {
+        if (rules == null || rules.isEmpty()) {
+            return null;
+        }
+        MappingPlan.SourceNode source = new MappingPlan.SourceNode();
+        MappingPlan.TargetNode target = new MappingPlan.TargetNode();
+        // 含原位规则在内的全部目标路径，只用于冲突检查
+        Map<String, Boolean> targetPaths = new HashMap<>();
+        List<MappingPlan.Constant> constants = new ArrayList<>();
+
+        for (int i = 0; i < rules.size(); i++) {
+            AdapterDefinitionProperties.MappingRuleConfig rule = rules.get(i);
+            String at = scope + "[" + i + "]";
+            if (rule == null || rule.getOp() == null || rule.getOp().isBlank()) {
+                errors.add(at + ": op is required");
+                continue;
+            }
+            String op = rule.getOp().trim().toLowerCase(Locale.ROOT);
+            switch (op) {
+                case "remove" -> {
+                    String[] from = path(rule.getFrom(), at, "from", errors);
+                    if (from != null) {
+                        addSource(source, from, new MappingPlan.CompiledRule(MappingPlan.Op.REMOVE, null, false, null),
+                                at, errors);
+                    }
+                }
+                case "rename", "move" -> {
+                    String[] from = path(rule.getFrom(), at, "from", errors);
+                    String[] to = "rename".equals(op) ? renameTarget(from, rule.getTo(), at, errors)
+                            : path(rule.getTo(), at, "to", errors);
+                    if (from == null || to == null || Arrays.equals(from, to)) {
+                        continue;
+                    }
+                    if (addTarget(targetPaths, to, at, errors)) {
+                        addSource(source, from, new MappingPlan.CompiledRule(MappingPlan.Op.MOVE, to, false, null),
+                                at, errors);
+                        addTargetNode(target, to);
+                    }
+                }
+                case "constant" -> {
+                    String[] to = path(rule.getTo(), at, "to", errors);
+                    if (rule.getValue() == null) {
+                        errors.add(at + ": value is required");
+                        continue;
+                    }
+                    if (to != null && addTarget(targetPaths, to, at, errors)) {
+                        constants.add(new MappingPlan.Constant(to, constant(rule.getValue(), at, errors)));
+                        addTargetNode(target, to);
+                    }
+                }
+                case "project" -> {
+                    String[] from = path(rule.getFrom(), at, "from", errors);
+                    String[] to = rule.getTo() == null || rule.getTo().isBlank()
+                            ? from : path(rule.getTo(), at, "to", errors);
+                    MappingPlan elementPlan = compilePlan(rule.getRules(), at + ".rules", errors);
+                    if (elementPlan == null) {
+                        elementPlan = new MappingPlan(new MappingPlan.SourceNode(), new MappingPlan.TargetNode(),
+                                Collections.emptyList());
+                    }
+                    if (from == null || to == null) {
+                        continue;
+                    }
+                    boolean inline = Arrays.equals(from, to);
+                    if (addTarget(targetPaths, to, at, errors)) {
+                        addSource(source, from,
+                                new MappingPlan.CompiledRule(MappingPlan.Op.PROJECT, to, inline, elementPlan),
+                                at, errors);
+                        if (!inline) {
+                            addTargetNode(target, to);
+                        }
+                    }
+                }
+                default -> errors.add(at + ": unsupported op '" + rule.getOp() + "'");
+            }
+        }
+        return new MappingPlan(source, target, constants);
+    }
+
+    private static String[] path(final String value, final String at, final String name, final List<String> errors) {
+        if (value == null || value.isBlank()) {
+            errors.add(at + ": " + name + " is required");
+            return null;
+        }
+        String[] segments = value.trim().split("\\.", -1);
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                errors.add(at + ": invalid " + name + " path '" + value + "'");
+                return null;
+            }
+        }
+        return segments;
+    }
+
+    private static String[] renameTarget(final String[] from, final String to, final String at,
+                                         final List<String> errors) {
+        if (to == null || to.isBlank()) {
+            errors.add(at + ": to is required");
+            return null;
+        }
+        if (to.contains(".")) {
+            errors.add(at + ": rename target must be a field name, use move for '" + to + "'");
+            return null;
+        }
+        if (from == null) {
+            return null;
+        }
+        String[] target = Arrays.copyOf(from, from.length);
+        target[target.length - 1] = to.trim();
+        return target;
+    }
+
+    /**
+     * 登记源路径，同一路径或互为前缀的路径只能有一条规则
+     */
+    private static void addSource(final MappingPlan.SourceNode root, final String[] path,
+                                  final MappingPlan.CompiledRule rule, final String at, final List<String> errors) {
+        MappingPlan.SourceNode node = root;
+        for (String segment : path) {
+            if (node.rule != null) {
+                errors.add(at + ": source '" + String.join(".", path) + "' is inside another rule's source");
+                return;
+            }
+            node = node.children.computeIfAbsent(segment, k -> new MappingPlan.SourceNode());
+        }
+        if (node.rule != null || !node.children.isEmpty()) {
+            errors.add(at + ": source '" + String.join(".", path) + "' conflicts with another rule");
+            return;
+        }
+        node.rule = rule;
+    }
+
+    /**
+     * 登记目标路径，同一路径或互为前缀的路径不能被多条规则写入
+     *
+     * @return 是否登记成功
+     */
+    private static boolean addTarget(final Map<String, Boolean> targets, final String[] path, final String at,
+                                     final List<String> errors) {
+        String full = String.join(".", path);
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < path.length - 1; i++) {
+            if (i > 0) {
+                prefix.append('.');
+            }
+            prefix.append(path[i]);
+            if (Boolean.TRUE.equals(targets.get(prefix.toString()))) {
+                errors.add(at + ": target '" + full + "' is inside another rule's target '" + prefix + "'");
+                return false;
+            }
+        }
+        if (targets.containsKey(full)) {
+            errors.add(at + ": target '" + full + "' conflicts with another rule");
+            return false;
+        }
+        targets.put(full, Boolean.TRUE);
+        // 记录中间路径，使后续写入该前缀的叶子规则能被发现
+        prefix.setLength(0);
+        for (int i = 0; i < path.length - 1; i++) {
+            if (i > 0) {
+                prefix.append('.');
+            }
+            prefix.append(path[i]);
+            targets.putIfAbsent(prefix.toString(), Boolean.FALSE);
+        }
+        return true;
+    }
+
+    private static void addTargetNode(final MappingPlan.TargetNode root, final String[] path) {
+        MappingPlan.TargetNode node = root;
+        for (String segment : path) {
+            node = node.children.computeIfAbsent(segment, k -> new MappingPlan.TargetNode());
+        }
+    }
+
+    /**
+     * 预先序列化常量，字符串按 JSON 字面量解析，解析失败时作为普通字符串
+     */
+    private static TokenBuffer constant(final Object value, final String at, final List<String> errors) {
+        TokenBuffer buffer = new TokenBuffer(OBJECT_MAPPER, false);
+        try {
+            if (value instanceof String text) {
+                if (!copyJsonLiteral(text, buffer)) {
+                    buffer = new TokenBuffer(OBJECT_MAPPER, false);
+                    buffer.writeString(text);
+                }
+            } else {
+                OBJECT_MAPPER.writeValue(buffer, value);
+            }
+        } catch (IOException | RuntimeException e) {
+            errors.add(at + ": invalid constant value: " + e.getMessage());
+        }
+        return buffer;
+    }
+
+    private static boolean copyJsonLiteral(final String text, final TokenBuffer buffer) {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(text)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return false;
+            }
+            TokenBuffer candidate = new TokenBuffer(OBJECT_MAPPER, false);
+            candidate.copyCurrentStructure(parser);
+            if (parser.nextToken() != null) {
+                return false;
+            }
+            candidate.serialize(buffer);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
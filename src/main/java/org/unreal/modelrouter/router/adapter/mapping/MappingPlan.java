@@ -0,0 +1,363 @@
+package org.unreal.modelrouter.router.adapter.mapping;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.unreal.modelrouter.common.util.JacksonHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的 JSON 映射执行计划
+ *
+ * 由 {@link MappingCompiler} 在加载适配器定义时一次性生成，执行时只在 Jackson 的 Token 流上工作：
+ * 未命中规则的字段逐 Token 复制到输出，改名/移动/投影的字段先写入 {@link TokenBuffer}，
+ * 在所属对象结束时按目标路径统一输出，整个过程不构建 JsonNode 或 Map 对象树。
+ *
+ * 映射目标字段会覆盖输入中的同名字段；执行计划不可变，可被多个线程共享。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class MappingPlan {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappingPlan.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonHelper.getObjectMapper();
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+
+    /**
+     * 规则类型，rename 在编译时已转换为 move
+     */
+    enum Op {
+        MOVE, CONSTANT, REMOVE, PROJECT
+    }
+
+    private final SourceNode source;
+    private final TargetNode target;
+    private final List<Constant> constants;
+
+    MappingPlan(final SourceNode source, final TargetNode target, final List<Constant> constants) {
+        this.source = source;
+        this.target = target;
+        this.constants = List.copyOf(constants);
+    }
+
+    /**
+     * 映射 JSON 请求体
+     *
+     * @param body JSON 字节
+     * @return 映射后的字节，输入不是 JSON 对象或格式错误时返回 null
+     */
+    public byte[] apply(final byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + 64);
+        try (JsonParser parser = JSON_FACTORY.createParser(body);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            if (!transform(parser, generator)) {
+                return null;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Failed to apply mapping plan: {}", e.getMessage());
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 映射 JSON 字符串
+     *
+     * @param json JSON 字符串
+     * @return 映射后的字符串，输入不是 JSON 对象或格式错误时返回 null
+     */
+    public String apply(final String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        StringWriter out = new StringWriter(json.length() + 64);
+        try (JsonParser parser = JSON_FACTORY.createParser(json);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            if (!transform(parser, generator)) {
+                return null;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Failed to apply mapping plan: {}", e.getMessage());
+            return null;
+        }
+        return out.toString();
+    }
+
+    /**
+     * 映射已反序列化的对象（如 Map），经 TokenBuffer 转为 Token 流执行，不经过字符串
+     *
+     * @param value 输入对象
+     * @return 映射后的对象，输入不是 JSON 对象时返回 null
+     */
+    public Object applyToValue(final Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        try {
+            TokenBuffer input = new TokenBuffer(OBJECT_MAPPER, false);
+            OBJECT_MAPPER.writeValue(input, value);
+            TokenBuffer output = new TokenBuffer(OBJECT_MAPPER, false);
+            try (JsonParser parser = input.asParser()) {
+                if (!transform(parser, output)) {
+                    return null;
+                }
+            }
+            try (JsonParser parser = output.asParser()) {
+                return OBJECT_MAPPER.readValue(parser, Object.class);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Failed to apply mapping plan: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean transform(final JsonParser parser, final JsonGenerator generator) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        writeObject(parser, generator);
+        return parser.nextToken() == null;
+    }
+
+    /**
+     * 映射当前对象，parser 位于 START_OBJECT
+     */
+    void writeObject(final JsonParser parser, final JsonGenerator generator) throws IOException {
+        OutNode deferred = new OutNode();
+        for (Constant constant : constants) {
+            deferred.put(constant.path(), constant.value());
+        }
+        generator.writeStartObject();
+        copyFields(parser, generator, null, source, target, deferred);
+        deferred.writeFields(generator);
+        generator.writeEndObject();
+    }
+
+    /**
+     * 逐字段处理对象内容
+     *
+     * @param generator 直接输出的位置，为 null 时写入 out
+     * @param out       延迟输出的位置，与 generator 同时为 null 时只提取其中的规则字段，其余丢弃
+     * @param src       当前对象对应的源规则节点
+     * @param dst       当前对象对应的延迟目标节点
+     * @param root      计划根对象的延迟输出
+     */
+    private void copyFields(final JsonParser parser, final JsonGenerator generator, final OutNode out,
+                            final SourceNode src, final TargetNode dst, final OutNode root) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            SourceNode srcChild = src != null ? src.children.get(name) : null;
+            if (srcChild != null && srcChild.rule != null) {
+                applyRule(srcChild.rule, name, parser, valueToken, generator, out, root);
+                continue;
+            }
+            boolean nested = srcChild != null && valueToken == JsonToken.START_OBJECT;
+            TargetNode dstChild = dst != null ? dst.children.get(name) : null;
+            if (dstChild != null) {
+                if (dstChild.children.isEmpty() || valueToken != JsonToken.START_OBJECT) {
+                    // 目标位置由映射规则写入，只提取其中的嵌套规则字段
+                    skipOrExtract(parser, nested ? srcChild : null, root);
+                } else {
+                    OutNode merged = (out != null ? out : root).object(name);
+                    copyFields(parser, null, merged, srcChild, dstChild, root);
+                }
+                continue;
+            }
+            if (generator == null && out == null) {
+                skipOrExtract(parser, nested ? srcChild : null, root);
+                continue;
+            }
+            JsonGenerator writer = generator;
+            TokenBuffer buffer = null;
+            if (writer == null) {
+                buffer = new TokenBuffer(parser.getCodec(), false);
+                writer = buffer;
+            } else {
+                writer.writeFieldName(name);
+            }
+            if (nested) {
+                writer.writeStartObject();
+                copyFields(parser, writer, null, srcChild, null, root);
+                writer.writeEndObject();
+            } else {
+                writer.copyCurrentStructure(parser);
+            }
+            if (buffer != null) {
+                out.putIfAbsent(name, buffer);
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unexpected token: " + token);
+        }
+    }
+
+    private void skipOrExtract(final JsonParser parser, final SourceNode src, final OutNode root) throws IOException {
+        if (src != null) {
+            copyFields(parser, null, null, src, null, root);
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private void applyRule(final CompiledRule rule, final String name, final JsonParser parser,
+                           final JsonToken valueToken, final JsonGenerator generator, final OutNode out,
+                           final OutNode root) throws IOException {
+        if (rule.op() == Op.REMOVE) {
+            parser.skipChildren();
+            return;
+        }
+        if (rule.inline() && generator != null) {
+            // 原位投影直接写入输出，无需缓冲
+            generator.writeFieldName(name);
+            writeValue(rule, parser, valueToken, generator);
+            return;
+        }
+        TokenBuffer buffer = new TokenBuffer(parser.getCodec(), false);
+        writeValue(rule, parser, valueToken, buffer);
+        if (!rule.inline()) {
+            root.put(rule.target(), buffer);
+        } else if (out != null) {
+            out.putIfAbsent(name, buffer);
+        }
+    }
+
+    private void writeValue(final CompiledRule rule, final JsonParser parser, final JsonToken valueToken,
+                            final JsonGenerator writer) throws IOException {
+        if (rule.op() != Op.PROJECT || valueToken != JsonToken.START_ARRAY) {
+            writer.copyCurrentStructure(parser);
+            return;
+        }
+        writer.writeStartArray();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of array");
+            }
+            if (token == JsonToken.START_OBJECT) {
+                rule.elementPlan().writeObject(parser, writer);
+            } else {
+                writer.copyCurrentStructure(parser);
+            }
+        }
+        writer.writeEndArray();
+    }
+
+    /**
+     * 读取顶层字段的标量值，用于 SSE 事件类型判断，不构建对象树
+     *
+     * @param json  JSON 字符串
+     * @param field 顶层字段名
+     * @return 字段值文本，不存在或不是标量时返回 null
+     */
+    static String readTopLevelText(final String json, final String field) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if (field.equals(name)) {
+                    return valueToken.isScalarValue() ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Failed to read event field {}: {}", field, e.getMessage());
+        }
+        return null;
+    }
+
+    // ==================== 编译产物 ====================
+
+    /**
+     * 编译后的单条规则
+     *
+     * @param op          规则类型
+     * @param target      目标路径，remove 为 null
+     * @param inline      目标路径与源路径相同，原位输出
+     * @param elementPlan 数组元素的映射计划，仅 project 使用
+     */
+    record CompiledRule(Op op, String[] target, boolean inline, MappingPlan elementPlan) {}
+
+    /**
+     * 常量规则
+     */
+    record Constant(String[] path, TokenBuffer value) {}
+
+    /**
+     * 按源路径组织的规则前缀树
+     */
+    static final class SourceNode {
+        final Map<String, SourceNode> children = new HashMap<>();
+        CompiledRule rule;
+    }
+
+    /**
+     * 按目标路径组织的前缀树，没有子节点的是规则写入的叶子字段
+     */
+    static final class TargetNode {
+        final Map<String, TargetNode> children = new HashMap<>();
+    }
+
+    /**
+     * 单次执行中延迟输出的字段，值为 TokenBuffer 或嵌套的 OutNode
+     */
+    private static final class OutNode {
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+
+        OutNode object(final String name) {
+            if (fields.get(name) instanceof OutNode node) {
+                return node;
+            }
+            OutNode node = new OutNode();
+            fields.put(name, node);
+            return node;
+        }
+
+        void put(final String[] path, final TokenBuffer value) {
+            OutNode node = this;
+            for (int i = 0; i < path.length - 1; i++) {
+                node = node.object(path[i]);
+            }
+            node.fields.put(path[path.length - 1], value);
+        }
+
+        void putIfAbsent(final String name, final TokenBuffer value) {
+            fields.putIfAbsent(name, value);
+        }
+
+        void writeFields(final JsonGenerator generator) throws IOException {
+            for (Map.Entry<String, Object> entry : fields.entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                if (entry.getValue() instanceof OutNode node) {
+                    generator.writeStartObject();
+                    node.writeFields(generator);
+                    generator.writeEndObject();
+                } else {
+                    ((TokenBuffer) entry.getValue()).serialize(generator);
+                }
+            }
+        }
+    }
+}
@@ -11,17 +11,25 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import org.unreal.modelrouter.monitor.monitoring.collector.BackendCallMeterHandle;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
+import org.unreal.modelrouter.monitor.monitoring.collector.RequestMeterHandle;
 import org.unreal.modelrouter.monitor.service.TokenUsageRecorder;
+import org.unreal.modelrouter.monitor.stats.ModelLatencyRegistry;
 import org.unreal.modelrouter.monitor.tracing.TracingContextHolder;
+import org.unreal.modelrouter.router.adapter.stream.StreamTranslator;
 import org.unreal.modelrouter.router.adapter.transformer.ResponseTransformer;
+import org.unreal.modelrouter.router.adapter.util.ModelUtils;
 import org.unreal.modelrouter.router.model.ModelRouterProperties;
 import org.unreal.modelrouter.router.model.ModelServiceRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 /**
@@ -39,6 +47,11 @@ public class StreamingRequestProcessor {
     private static final double ENGLISH_CHARS_PER_TOKEN = 4.0;
     private static final double CHINESE_CHARS_PER_TOKEN = 2.0;
 
+    /**
+     * 每个适配器最多持有的实例句柄数，超出后直接向指标收集器解析
+     */
+    private static final int MAX_HELD_INSTANCES = 256;
+
     private final ResponseTransformer responseTransformer;
 
     @Autowired(required = false)
@@ -49,9 +62,23 @@ public class StreamingRequestProcessor {
 
     @Autowired(required = false)
     private ApiKeyService apiKeyService;
+
+    @Autowired(required = false)
+    private ModelLatencyRegistry modelLatencyRegistry;
     
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * 流式请求完成句柄，按服务类型序号持有，每个服务类型只解析一次
+     */
+    private final AtomicReferenceArray<RequestMeterHandle> streamRequestHandles =
+            new AtomicReferenceArray<>(ModelServiceRegistry.ServiceType.values().length);
+
+    /**
+     * 后端调用句柄，按适配器、实例名两级持有；命中时不分配缓存键
+     */
+    private final Map<String, Map<String, BackendCallMeterHandle>> backendCallHandles = new ConcurrentHashMap<>();
+
     public StreamingRequestProcessor(final ResponseTransformer responseTransformer) {
         this.responseTransformer = responseTransformer;
     }
@@ -79,11 +106,36 @@ public class StreamingRequestProcessor {
             final String adapterType,
             final Function<String, String> transformChunkFn,
             final ServerHttpRequest httpRequest) {
+        return processStreamingRequest(request, authorization, client, path, selectedInstance, serviceType,
+                adapterType, transformChunkFn, null, httpRequest);
+    }
+
+    /**
+     * 处理流式请求，后端事件先经有状态翻译器转换为 OpenAI 数据块
+     *
+     * @param translator 流式翻译器，为 null 时使用数据块转换函数；非 null 时忽略 transformChunkFn
+     */
+    public <T> Mono<? extends org.springframework.http.ResponseEntity<?>> processStreamingRequest(
+            final T request,
+            final String authorization,
+            final WebClient client,
+            final String path,
+            final ModelRouterProperties.ModelInstance selectedInstance,
+            final ModelServiceRegistry.ServiceType serviceType,
+            final String adapterType,
+            final Function<String, String> transformChunkFn,
+            final StreamTranslator translator,
+            final ServerHttpRequest httpRequest) {
 
         final String capturedKeyId = captureApiKeyId(httpRequest);
 
         String instanceName = selectedInstance.getName();
+        // 延迟统计与非流式一致按请求的模型名归类，不随后端数据块中的模型名变化
+        String modelName = ModelUtils.getModelNameFromRequest(request);
         long requestStartTime = System.currentTimeMillis();
+        long requestStartNanos = System.nanoTime();
+        // 首个 SSE 数据块到达时间，用于计算 TTFT；Flux 的 map 串行执行，无需 CAS
+        AtomicLong firstChunkNanos = new AtomicLong(0);
 
         logger.debug("开始流式请求: adapter={}, instance={}, path={}", adapterType, instanceName, path);
 
@@ -95,7 +147,7 @@ public class StreamingRequestProcessor {
         AtomicReference<String> modelRef = new AtomicReference<>("unknown");
 
         // 使用 ServerSentEvent 包装每个数据块，确保 SSE 格式正确
-        Flux<ServerSentEvent<String>> streamResponse = client.post()
+        Flux<String> upstream = client.post()
                 .uri(path)
                 .header("Authorization", authorization)
                 .header("Content-Type", "application/json")
@@ -111,15 +163,31 @@ public class StreamingRequestProcessor {
                     return Mono.error(new org.springframework.web.server.ResponseStatusException(
                             clientResponse.statusCode(), "请求错误"));
                 })
-                .bodyToFlux(String.class)
+                .bodyToFlux(String.class);
+
+        // 有翻译器时先转换为 OpenAI 数据块，用量统计和 TTFT 都基于翻译后的数据块
+        Function<String, String> chunkFn = transformChunkFn;
+        if (translator != null) {
+            upstream = upstream.concatMapIterable(translator::onEvent)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(translator.onComplete())));
+            chunkFn = Function.identity();
+        }
+        final Function<String, String> finalChunkFn = chunkFn;
+
+        Flux<ServerSentEvent<String>> streamResponse = upstream
                 .map(chunk -> {
+                    if (firstChunkNanos.get() == 0) {
+                        firstChunkNanos.set(System.nanoTime());
+                    }
                     // 提取 usage 信息和累积内容
                     extractUsageAndContent(chunk, promptTokens, completionTokens, totalTokens,
                             contentBuilder, modelRef);
-                    return transformAndWrapChunk(chunk, transformChunkFn);
+                    return transformAndWrapChunk(chunk, finalChunkFn);
                 })
                 .doOnComplete(() -> {
                     recordStreamingComplete(serviceType, adapterType, instanceName, requestStartTime);
+                    recordStreamingLatency(serviceType, instanceName, modelName, requestStartNanos,
+                            firstChunkNanos.get(), completionTokens.get(), contentBuilder);
                     // 记录 token 使用量
                     recordTokenUsage(adapterType, instanceName, modelRef.get(),
                             promptTokens.get(), completionTokens.get(), totalTokens.get(),
@@ -160,13 +228,38 @@ public class StreamingRequestProcessor {
                                           final long startTime) {
         if (metricsCollector != null) {
             long responseTime = System.currentTimeMillis() - startTime;
-            metricsCollector.recordRequest(serviceType.name(), "STREAM", responseTime, "200");
-            metricsCollector.recordBackendCall(adapterType, instanceName, responseTime, true);
+            streamRequestHandle(serviceType).record(responseTime);
+            backendCallHandle(adapterType, instanceName).record(responseTime, true);
             logger.debug("流式请求完成: adapter={}, instance={}, duration={}ms",
                     adapterType, instanceName, responseTime);
         }
     }
 
+    /**
+     * 记录流式请求的延迟分布：端到端延迟、首 token 延迟、token 间延迟和输出吞吐
+     * 后端未返回 completion_tokens 时按累积内容估算输出 token 数
+     */
+    private void recordStreamingLatency(final ModelServiceRegistry.ServiceType serviceType,
+                                        final String instanceName,
+                                        final String model,
+                                        final long startNanos,
+                                        final long firstChunkNanos,
+                                        final long completionTokens,
+                                        final StringBuilder contentBuilder) {
+        if (modelLatencyRegistry == null) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            long ttft = firstChunkNanos > 0 ? firstChunkNanos - startNanos : -1;
+            long outputTokens = completionTokens > 0 ? completionTokens : estimateTokens(contentBuilder.toString());
+            modelLatencyRegistry.recordStreaming(serviceType.name().toLowerCase(), model, instanceName,
+                    now - startNanos, ttft, outputTokens);
+        } catch (Exception e) {
+            logger.debug("Failed to record streaming latency: {}", e.getMessage());
+        }
+    }
+
     /**
      * 记录流式请求错误指标
      */
@@ -177,12 +270,38 @@ public class StreamingRequestProcessor {
                                         final Throwable throwable) {
         if (metricsCollector != null) {
             long responseTime = System.currentTimeMillis() - startTime;
-            metricsCollector.recordBackendCall(adapterType, instanceName, responseTime, false);
+            backendCallHandle(adapterType, instanceName).record(responseTime, false);
             logger.error("流式请求错误: adapter={}, instance={}, error={}",
                     adapterType, instanceName, throwable.getMessage());
         }
     }
 
+    private RequestMeterHandle streamRequestHandle(final ModelServiceRegistry.ServiceType serviceType) {
+        RequestMeterHandle handle = streamRequestHandles.get(serviceType.ordinal());
+        if (handle == null) {
+            // 并发首次解析拿到的是收集器缓存里的同一个句柄，重复写入无害
+            handle = metricsCollector.requestHandle(serviceType.name(), "STREAM", "200");
+            streamRequestHandles.set(serviceType.ordinal(), handle);
+        }
+        return handle;
+    }
+
+    private BackendCallMeterHandle backendCallHandle(final String adapterType, final String instanceName) {
+        if (adapterType == null || instanceName == null) {
+            return metricsCollector.backendCallHandle(adapterType, instanceName);
+        }
+        Map<String, BackendCallMeterHandle> byInstance =
+                backendCallHandles.computeIfAbsent(adapterType, k -> new ConcurrentHashMap<>());
+        BackendCallMeterHandle handle = byInstance.get(instanceName);
+        if (handle == null) {
+            handle = metricsCollector.backendCallHandle(adapterType, instanceName);
+            if (byInstance.size() < MAX_HELD_INSTANCES) {
+                byInstance.put(instanceName, handle);
+            }
+        }
+        return handle;
+    }
+
     /**
      * 获取默认的数据块转换器
      */
@@ -21,12 +21,14 @@ import reactor.core.publisher.Mono;
 
 import org.unreal.modelrouter.auth.security.service.ApiKeyService;
 import org.unreal.modelrouter.monitor.service.TokenUsageRecorder;
+import org.unreal.modelrouter.monitor.stats.ModelLatencyRegistry;
 import org.unreal.modelrouter.monitor.tracing.TracingContextHolder;
 import org.unreal.modelrouter.router.model.ModelRouterProperties.ModelInstance;
 import org.unreal.modelrouter.router.model.ModelServiceRegistry.ServiceType;
 import org.unreal.modelrouter.router.adapter.builder.RequestBuilder;
 import org.unreal.modelrouter.router.adapter.handler.MultipartRequestHandler;
 import org.unreal.modelrouter.router.adapter.metrics.AdapterMetricsRecorder;
+import org.unreal.modelrouter.router.adapter.util.ModelUtils;
 import org.unreal.modelrouter.common.controller.response.RouterResponse;
 import org.unreal.modelrouter.common.exception.DownstreamServiceException;
 
@@ -62,6 +64,9 @@ public class NonStreamingRequestProcessor {
     @Autowired(required = false)
     private ApiKeyService apiKeyService;
 
+    @Autowired(required = false)
+    private ModelLatencyRegistry modelLatencyRegistry;
+
     public NonStreamingRequestProcessor(
             final ObjectMapper objectMapper,
             final RequestBuilder requestBuilder,
@@ -109,6 +114,8 @@ public class NonStreamingRequestProcessor {
         Object transformedRequest = transformRequestFn.apply(request);
         String instanceName = selectedInstance.getName();
         long requestStartTime = System.currentTimeMillis();
+        long requestStartNanos = System.nanoTime();
+        String modelName = ModelUtils.getModelNameFromRequest(request);
 
         logger.debug("发送请求到下游服务: instance={}, path={}, auth={}",
                 instanceName, path, authorization != null ? "***" : "null");
@@ -154,11 +161,15 @@ public class NonStreamingRequestProcessor {
         // 4. 根据响应类型处理
         if (responseType == byte[].class) {
             return processBinaryResponse(requestSpec, transformedRequest, path,
-                    instanceName, adapterType, serviceType, requestStartTime, multipartHandler);
+                    instanceName, adapterType, serviceType, requestStartTime, multipartHandler)
+                    .doOnSuccess(responseEntity -> recordLatency(serviceType, modelName, instanceName,
+                            requestStartNanos));
         } else {
             return processJsonResponse(requestSpec, transformedRequest, instanceName,
                     adapterType, serviceType, requestStartTime, path, transformResponseFn, multipartHandler,
-                    capturedKeyId);
+                    capturedKeyId)
+                    .doOnSuccess(responseEntity -> recordLatency(serviceType, modelName, instanceName,
+                            requestStartNanos));
         }
     }
 
@@ -296,8 +307,9 @@ public class NonStreamingRequestProcessor {
                     if (metricsRecorder != null && responseEntity != null) {
                         String bodyStr = responseEntity.getBody() != null
                                 ? responseEntity.getBody().toString() : "";
-                        metricsRecorder.recordRequestSize(serviceType,
-                                transformedRequest.toString().getBytes().length, bodyStr.getBytes().length);
+                        long requestSize = transformedRequest instanceof byte[] rawBody
+                                ? rawBody.length : transformedRequest.toString().getBytes().length;
+                        metricsRecorder.recordRequestSize(serviceType, requestSize, bodyStr.getBytes().length);
                         metricsRecorder.recordResponseTime(serviceType, "POST",
                                 System.currentTimeMillis() - requestStartTime,
                                 responseEntity.getStatusCode().toString());
@@ -312,6 +324,24 @@ public class NonStreamingRequestProcessor {
                 });
     }
 
+    /**
+     * 记录成功请求的端到端延迟分布
+     */
+    private void recordLatency(final ServiceType serviceType,
+                               final String modelName,
+                               final String instanceName,
+                               final long startNanos) {
+        if (modelLatencyRegistry == null || serviceType == null) {
+            return;
+        }
+        try {
+            modelLatencyRegistry.recordRequest(serviceType.name().toLowerCase(), modelName, instanceName,
+                    System.nanoTime() - startNanos);
+        } catch (Exception e) {
+            logger.debug("Failed to record request latency: {}", e.getMessage());
+        }
+    }
+
     /**
      * 处理 4xx 错误
      */
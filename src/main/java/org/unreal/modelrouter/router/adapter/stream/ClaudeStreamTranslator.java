@@ -0,0 +1,174 @@
+package org.unreal.modelrouter.router.adapter.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Anthropic Messages API 流式事件翻译器
+ *
+ * 事件对应关系：
+ * - message_start        → 角色块，记录消息 id、模型和输入 token
+ * - content_block_start  → tool_use 块转为 tool_calls 开始块，文本块不输出
+ * - content_block_delta  → text_delta / thinking_delta / input_json_delta 转为对应的增量块
+ * - message_delta        → 记录输出 token，输出 finish_reason 块
+ * - message_stop         → 用量块 + [DONE]
+ * - ping / content_block_stop 丢弃，error 原样透传
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class ClaudeStreamTranslator implements StreamTranslator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaudeStreamTranslator.class);
+
+    private final ObjectMapper objectMapper;
+    private final String fallbackModel;
+
+    private OpenAiChunkWriter writer;
+    private long inputTokens;
+    private long outputTokens;
+    private boolean finishSent;
+    private boolean done;
+
+    /**
+     * Claude 内容块序号 → OpenAI tool_calls 序号
+     */
+    private final Map<Integer, Integer> toolCallIndexes = new HashMap<>();
+
+    public ClaudeStreamTranslator(final ObjectMapper objectMapper, final String fallbackModel) {
+        this.objectMapper = objectMapper;
+        this.fallbackModel = fallbackModel;
+    }
+
+    @Override
+    public List<String> onEvent(final String data) {
+        if (done || data == null || data.isBlank()) {
+            return List.of();
+        }
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(data);
+        } catch (Exception e) {
+            logger.debug("Skipping unparseable Claude stream event: {}", e.getMessage());
+            return List.of();
+        }
+        String type = event.path("type").asText();
+        List<String> out = new ArrayList<>(2);
+        switch (type) {
+            case "message_start" -> {
+                JsonNode message = event.path("message");
+                writer = new OpenAiChunkWriter("chatcmpl-" + message.path("id").asText("claude"),
+                        message.path("model").asText(fallbackModel), System.currentTimeMillis() / 1000);
+                readUsage(message.path("usage"));
+                out.add(writer.role());
+            }
+            case "content_block_start" -> {
+                JsonNode block = event.path("content_block");
+                if ("tool_use".equals(block.path("type").asText())) {
+                    int toolIndex = toolCallIndexes.size();
+                    toolCallIndexes.put(event.path("index").asInt(), toolIndex);
+                    out.add(writer().toolCallStart(toolIndex, block.path("id").asText(),
+                            block.path("name").asText(), ""));
+                } else if ("text".equals(block.path("type").asText()) && !block.path("text").asText().isEmpty()) {
+                    out.add(writer().content(block.path("text").asText()));
+                }
+            }
+            case "content_block_delta" -> {
+                JsonNode delta = event.path("delta");
+                switch (delta.path("type").asText()) {
+                    case "text_delta" -> out.add(writer().content(delta.path("text").asText()));
+                    case "thinking_delta" -> out.add(writer().reasoning(delta.path("thinking").asText()));
+                    case "input_json_delta" -> {
+                        Integer toolIndex = toolCallIndexes.get(event.path("index").asInt());
+                        if (toolIndex != null) {
+                            out.add(writer().toolCallArguments(toolIndex, delta.path("partial_json").asText()));
+                        }
+                    }
+                    default -> {
+                        // signature_delta 等无 OpenAI 对应字段的增量
+                    }
+                }
+            }
+            case "message_delta" -> {
+                readUsage(event.path("usage"));
+                String stopReason = event.path("delta").path("stop_reason").asText(null);
+                if (stopReason != null) {
+                    out.add(writer().finish(mapStopReason(stopReason)));
+                    finishSent = true;
+                }
+            }
+            case "message_stop" -> out.addAll(finish());
+            case "error" -> out.add(data);
+            default -> {
+                // ping、content_block_stop 等不需要输出
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public List<String> onComplete() {
+        if (done || writer == null) {
+            return List.of();
+        }
+        return finish();
+    }
+
+    private List<String> finish() {
+        done = true;
+        List<String> out = new ArrayList<>(3);
+        if (!finishSent) {
+            out.add(writer().finish("stop"));
+        }
+        out.add(writer().usage(inputTokens, outputTokens));
+        out.add(DONE);
+        return out;
+    }
+
+    /**
+     * 读取用量，输入 token 包含缓存命中和缓存写入部分；message_delta 中的用量为累计值
+     */
+    private void readUsage(final JsonNode usage) {
+        if (usage.isMissingNode()) {
+            return;
+        }
+        if (usage.has("input_tokens")) {
+            inputTokens = usage.path("input_tokens").asLong()
+                    + usage.path("cache_creation_input_tokens").asLong()
+                    + usage.path("cache_read_input_tokens").asLong();
+        }
+        if (usage.has("output_tokens")) {
+            outputTokens = usage.path("output_tokens").asLong();
+        }
+    }
+
+    private OpenAiChunkWriter writer() {
+        if (writer == null) {
+            writer = new OpenAiChunkWriter("chatcmpl-" + System.currentTimeMillis(), fallbackModel,
+                    System.currentTimeMillis() / 1000);
+        }
+        return writer;
+    }
+
+    /**
+     * 映射 Claude 的 stop_reason 到 OpenAI 的 finish_reason
+     */
+    public static String mapStopReason(final String stopReason) {
+        if (stopReason == null) {
+            return "stop";
+        }
+        return switch (stopReason) {
+            case "max_tokens" -> "length";
+            case "tool_use" -> "tool_calls";
+            case "refusal" -> "content_filter";
+            default -> "stop";
+        };
+    }
+}
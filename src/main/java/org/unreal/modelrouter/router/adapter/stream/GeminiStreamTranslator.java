@@ -0,0 +1,116 @@
+package org.unreal.modelrouter.router.adapter.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gemini streamGenerateContent（alt=sse）流式事件翻译器
+ *
+ * Gemini 的每个事件都是一个完整的 GenerateContentResponse 片段，没有独立的开始/结束事件：
+ * 首个事件前补发角色块，candidates[0].content.parts 中的 text / functionCall 转为增量块，
+ * finishReason 转为 finish_reason 块，usageMetadata 只保留最新值，在流结束时输出用量块和 [DONE]。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class GeminiStreamTranslator implements StreamTranslator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiStreamTranslator.class);
+
+    private final ObjectMapper objectMapper;
+    private final String fallbackModel;
+
+    private OpenAiChunkWriter writer;
+    private int toolCallCount;
+    private long promptTokens;
+    private long completionTokens;
+    private boolean done;
+
+    public GeminiStreamTranslator(final ObjectMapper objectMapper, final String fallbackModel) {
+        this.objectMapper = objectMapper;
+        this.fallbackModel = fallbackModel;
+    }
+
+    @Override
+    public List<String> onEvent(final String data) {
+        if (done || data == null || data.isBlank()) {
+            return List.of();
+        }
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(data);
+        } catch (Exception e) {
+            logger.debug("Skipping unparseable Gemini stream event: {}", e.getMessage());
+            return List.of();
+        }
+        if (event.has("error")) {
+            return List.of(data);
+        }
+
+        List<String> out = new ArrayList<>(3);
+        if (writer == null) {
+            String responseId = event.path("responseId").asText(null);
+            writer = new OpenAiChunkWriter(
+                    "chatcmpl-" + (responseId != null ? responseId : String.valueOf(System.currentTimeMillis())),
+                    event.path("modelVersion").asText(fallbackModel), System.currentTimeMillis() / 1000);
+            out.add(writer.role());
+        }
+
+        JsonNode candidate = event.path("candidates").path(0);
+        for (JsonNode part : candidate.path("content").path("parts")) {
+            if (part.has("functionCall")) {
+                JsonNode call = part.get("functionCall");
+                int index = toolCallCount++;
+                String callId = call.has("id") ? call.get("id").asText() : "call_" + writer.getId() + "_" + index;
+                out.add(writer.toolCallStart(index, callId, call.path("name").asText(),
+                        call.has("args") ? call.get("args").toString() : "{}"));
+            } else if (part.has("text")) {
+                String text = part.get("text").asText();
+                if (!text.isEmpty()) {
+                    out.add(part.path("thought").asBoolean(false) ? writer.reasoning(text) : writer.content(text));
+                }
+            }
+        }
+
+        String finishReason = candidate.path("finishReason").asText(null);
+        if (finishReason != null && !"FINISH_REASON_UNSPECIFIED".equals(finishReason)) {
+            out.add(writer.finish(toolCallCount > 0 && "STOP".equals(finishReason)
+                    ? "tool_calls" : mapFinishReason(finishReason)));
+        }
+
+        JsonNode usage = event.path("usageMetadata");
+        if (!usage.isMissingNode()) {
+            promptTokens = usage.path("promptTokenCount").asLong(promptTokens);
+            completionTokens = usage.path("candidatesTokenCount").asLong(0) + usage.path("thoughtsTokenCount").asLong(0);
+        }
+        return out;
+    }
+
+    @Override
+    public List<String> onComplete() {
+        if (done || writer == null) {
+            return List.of();
+        }
+        done = true;
+        return List.of(writer.usage(promptTokens, completionTokens), DONE);
+    }
+
+    /**
+     * 映射 Gemini 的 finishReason 到 OpenAI 的 finish_reason
+     */
+    public static String mapFinishReason(final String finishReason) {
+        if (finishReason == null) {
+            return "stop";
+        }
+        return switch (finishReason) {
+            case "MAX_TOKENS" -> "length";
+            case "SAFETY", "RECITATION", "BLOCKLIST", "PROHIBITED_CONTENT", "SPII" -> "content_filter";
+            default -> "stop";
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package org.unreal.modelrouter.router.adapter.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.unreal.modelrouter.common.util.JacksonHelper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * OpenAI chat.completion.chunk 数据块生成器
+ *
+ * 直接用 JsonGenerator 输出，不构建 ObjectNode；同一个流的所有数据块共享 id、model 和 created。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class OpenAiChunkWriter {
+
+    private static final JsonFactory JSON_FACTORY = JacksonHelper.getObjectMapper().getFactory();
+
+    private final String id;
+    private final String model;
+    private final long created;
+
+    public OpenAiChunkWriter(final String id, final String model, final long created) {
+        this.id = id;
+        this.model = model;
+        this.created = created;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * 首个数据块，声明 assistant 角色
+     */
+    public String role() {
+        return choice(generator -> {
+            generator.writeStringField("role", "assistant");
+            generator.writeStringField("content", "");
+        }, null);
+    }
+
+    public String content(final String text) {
+        return choice(generator -> generator.writeStringField("content", text), null);
+    }
+
+    /**
+     * 推理内容，沿用 OpenAI 兼容生态中的 reasoning_content 字段
+     */
+    public String reasoning(final String text) {
+        return choice(generator -> generator.writeStringField("reasoning_content", text), null);
+    }
+
+    /**
+     * 工具调用开始，携带调用 id 和函数名
+     */
+    public String toolCallStart(final int index, final String callId, final String name, final String arguments) {
+        return choice(generator -> {
+            generator.writeArrayFieldStart("tool_calls");
+            generator.writeStartObject();
+            generator.writeNumberField("index", index);
+            generator.writeStringField("id", callId);
+            generator.writeStringField("type", "function");
+            generator.writeObjectFieldStart("function");
+            generator.writeStringField("name", name);
+            generator.writeStringField("arguments", arguments != null ? arguments : "");
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndArray();
+        }, null);
+    }
+
+    /**
+     * 工具调用参数增量
+     */
+    public String toolCallArguments(final int index, final String arguments) {
+        return choice(generator -> {
+            generator.writeArrayFieldStart("tool_calls");
+            generator.writeStartObject();
+            generator.writeNumberField("index", index);
+            generator.writeObjectFieldStart("function");
+            generator.writeStringField("arguments", arguments);
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndArray();
+        }, null);
+    }
+
+    public String finish(final String finishReason) {
+        return choice(generator -> { }, finishReason);
+    }
+
+    /**
+     * 用量数据块，与 OpenAI stream_options.include_usage 的最后一帧格式一致：choices 为空数组
+     */
+    public String usage(final long promptTokens, final long completionTokens) {
+        return write(generator -> {
+            generator.writeArrayFieldStart("choices");
+            generator.writeEndArray();
+            generator.writeObjectFieldStart("usage");
+            generator.writeNumberField("prompt_tokens", promptTokens);
+            generator.writeNumberField("completion_tokens", completionTokens);
+            generator.writeNumberField("total_tokens", promptTokens + completionTokens);
+            generator.writeEndObject();
+        });
+    }
+
+    private String choice(final FieldWriter delta, final String finishReason) {
+        return write(generator -> {
+            generator.writeArrayFieldStart("choices");
+            generator.writeStartObject();
+            generator.writeNumberField("index", 0);
+            generator.writeObjectFieldStart("delta");
+            delta.write(generator);
+            generator.writeEndObject();
+            if (finishReason != null) {
+                generator.writeStringField("finish_reason", finishReason);
+            } else {
+                generator.writeNullField("finish_reason");
+            }
+            generator.writeEndObject();
+            generator.writeEndArray();
+        });
+    }
+
+    private String write(final FieldWriter body) {
+        StringWriter out = new StringWriter(192);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("id", id);
+            generator.writeStringField("object", "chat.completion.chunk");
+            generator.writeNumberField("created", created);
+            generator.writeStringField("model", model);
+            body.write(generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    @FunctionalInterface
+    private interface FieldWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
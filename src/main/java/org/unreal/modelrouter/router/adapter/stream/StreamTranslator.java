@@ -0,0 +1,38 @@
+package org.unreal.modelrouter.router.adapter.stream;
+
+import java.util.List;
+
+/**
+ * 有状态的流式响应翻译器
+ *
+ * 把后端私有的 SSE 事件逐个翻译为 OpenAI chat.completion.chunk 数据块。
+ * 一个后端事件可能对应零个或多个输出块（如心跳事件被丢弃、结束事件展开为用量块和 [DONE]），
+ * 因此不同于一对一的数据块转换函数。每个流式请求使用独立实例，事件按到达顺序串行调用，无需同步。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public interface StreamTranslator {
+
+    /**
+     * OpenAI 流结束标记
+     */
+    String DONE = "[DONE]";
+
+    /**
+     * 翻译一个后端事件
+     *
+     * @param data SSE 事件的 data 内容
+     * @return 输出的数据块，可以为空
+     */
+    List<String> onEvent(String data);
+
+    /**
+     * 后端流正常结束时补发的数据块，如未收到结束事件时的用量块和 [DONE]
+     *
+     * @return 输出的数据块，可以为空
+     */
+    default List<String> onComplete() {
+        return List.of();
+    }
+}
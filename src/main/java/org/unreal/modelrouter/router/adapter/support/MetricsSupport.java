@@ -8,11 +8,14 @@ import org.unreal.modelrouter.common.dto.ImageGenerateDTO;
 import org.unreal.modelrouter.common.dto.RerankDTO;
 import org.unreal.modelrouter.common.dto.SttDTO;
 import org.unreal.modelrouter.common.dto.TtsDTO;
+import org.unreal.modelrouter.monitor.monitoring.collector.BackendCallMeterHandle;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
 
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 适配器指标和工具支持类
@@ -21,9 +24,19 @@ import java.lang.reflect.Method;
 @Slf4j
 public class MetricsSupport {
 
+    /**
+     * 最多持有的实例句柄数，超出后直接向指标收集器解析
+     */
+    private static final int MAX_HELD_INSTANCES = 256;
+
     private final MetricsCollector metricsCollector;
     private final String adapterType;
 
+    /**
+     * 本适配器各实例的后端调用句柄，按实例名持有
+     */
+    private final Map<String, BackendCallMeterHandle> backendCallHandles = new ConcurrentHashMap<>();
+
     public MetricsSupport(final MetricsCollector metricsCollector, final String adapterType) {
         this.metricsCollector = metricsCollector;
         this.adapterType = adapterType;
@@ -109,7 +122,7 @@ public class MetricsSupport {
             final String serviceType, final String method,
             final long responseTime, final String status) {
         if (metricsCollector != null) {
-            metricsCollector.recordRequest(serviceType, method, responseTime, status);
+            metricsCollector.requestHandle(serviceType, method, status).record(responseTime);
         }
     }
 
@@ -118,7 +131,7 @@ public class MetricsSupport {
      */
     public void recordBackendCall(final String instanceName, final long duration, final boolean success) {
         if (metricsCollector != null) {
-            metricsCollector.recordBackendCall(adapterType, instanceName, duration, success);
+            backendCallHandle(instanceName).record(duration, success);
         }
     }
 
@@ -127,7 +140,21 @@ public class MetricsSupport {
      */
     public void recordErrorMetrics(final String instanceName, final long responseTime, final String errorType) {
         if (metricsCollector != null) {
-            metricsCollector.recordBackendCall(adapterType, instanceName, responseTime, false);
+            backendCallHandle(instanceName).record(responseTime, false);
         }
     }
+
+    private BackendCallMeterHandle backendCallHandle(final String instanceName) {
+        if (instanceName == null) {
+            return metricsCollector.backendCallHandle(adapterType, null);
+        }
+        BackendCallMeterHandle handle = backendCallHandles.get(instanceName);
+        if (handle == null) {
+            handle = metricsCollector.backendCallHandle(adapterType, instanceName);
+            if (backendCallHandles.size() < MAX_HELD_INSTANCES) {
+                backendCallHandles.put(instanceName, handle);
+            }
+        }
+        return handle;
+    }
 }
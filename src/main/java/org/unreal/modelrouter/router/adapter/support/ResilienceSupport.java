@@ -1,5 +1,6 @@
 package org.unreal.modelrouter.router.adapter.support;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.unreal.modelrouter.router.adapter.checker.CapabilityChecker;
 import org.unreal.modelrouter.router.adapter.error.AdapterErrorHandler;
@@ -7,6 +8,7 @@ import org.unreal.modelrouter.router.adapter.error.ErrorResponseBuilder;
 import org.unreal.modelrouter.router.adapter.metrics.AdapterMetricsRecorder;
 import org.unreal.modelrouter.router.adapter.retry.RetryPolicy;
 import org.unreal.modelrouter.router.adapter.tracing.AdapterTracingManager;
+import org.unreal.modelrouter.router.ratelimit.concurrency.AdaptiveConcurrencyLimiter;
 
 /**
  * ResilienceSupport - 弹性支持组件
@@ -23,6 +25,8 @@ public final class ResilienceSupport {
     private final AdapterMetricsRecorder metricsRecorder;
     private final AdapterTracingManager tracingManager;
     private final ErrorResponseBuilder errorResponseBuilder;
+    @Autowired(required = false)
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     public ResilienceSupport(final CapabilityChecker capabilityChecker,
                              final AdapterErrorHandler errorHandler,
@@ -61,4 +65,8 @@ public final class ResilienceSupport {
     public ErrorResponseBuilder getErrorResponseBuilder() {
         return errorResponseBuilder;
     }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
 }
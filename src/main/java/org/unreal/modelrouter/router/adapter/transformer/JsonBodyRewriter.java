@@ -0,0 +1,103 @@
+package org.unreal.modelrouter.router.adapter.transformer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.unreal.modelrouter.common.util.JacksonHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于 Token 流的 JSON 请求体改写器
+ *
+ * 直接在客户端原始请求体上逐个 Token 复制到输出，只替换顶层的 model 字段和适配器强制指定的字段，
+ * 其余内容（包括 DTO 未建模的新参数、工具定义、response_format 等）原样透传，
+ * 避免 "反序列化为 DTO → 重建 Map → 再序列化" 的两次完整对象图转换。
+ *
+ * 请求体不是 JSON 对象、格式错误或包含需要 DTO 转换的字段时返回 null，由调用方回退到 DTO 转换。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class JsonBodyRewriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonBodyRewriter.class);
+
+    /**
+     * 模型字段名
+     */
+    public static final String MODEL_FIELD = "model";
+
+    private static final JsonFactory JSON_FACTORY = JacksonHelper.getObjectMapper().getFactory();
+
+    private JsonBodyRewriter() {
+    }
+
+    /**
+     * 改写请求体
+     *
+     * @param body             原始请求体
+     * @param modelNameAdapter 模型名称适配函数
+     * @param overrides        适配器强制指定的顶层字段，已存在时替换，不存在时追加
+     * @param fallbackFields   出现时必须走 DTO 转换的顶层字段
+     * @return 改写后的请求体，无法改写时返回 null
+     */
+    public static byte[] rewrite(final byte[] body,
+                                 final OpenAiRequestTransformer.ModelNameAdapter modelNameAdapter,
+                                 final Map<String, Object> overrides,
+                                 final Set<String> fallbackFields) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        Map<String, Object> fieldOverrides = overrides != null ? overrides : Collections.emptyMap();
+        Set<String> pendingOverrides = fieldOverrides.isEmpty()
+                ? Collections.emptySet() : new HashSet<>(fieldOverrides.keySet());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + 64);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(body);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            generator.writeStartObject();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (fallbackFields != null && fallbackFields.contains(field)) {
+                    return null;
+                }
+                JsonToken valueToken = parser.nextToken();
+                if (fieldOverrides.containsKey(field)) {
+                    generator.writeFieldName(field);
+                    generator.writeObject(fieldOverrides.get(field));
+                    pendingOverrides.remove(field);
+                    parser.skipChildren();
+                } else if (MODEL_FIELD.equals(field) && valueToken == JsonToken.VALUE_STRING) {
+                    generator.writeStringField(field, modelNameAdapter.adaptModelName(parser.getText()));
+                } else {
+                    generator.writeFieldName(field);
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+            for (String field : pendingOverrides) {
+                generator.writeFieldName(field);
+                generator.writeObject(fieldOverrides.get(field));
+            }
+            generator.writeEndObject();
+        } catch (Exception e) {
+            logger.debug("Failed to rewrite request body, falling back to DTO transformation: {}", e.getMessage());
+            return null;
+        }
+        return out.toByteArray();
+    }
+}
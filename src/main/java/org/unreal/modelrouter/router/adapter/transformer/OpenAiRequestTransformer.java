@@ -24,6 +24,18 @@ public interface OpenAiRequestTransformer {
      */
     Object transformChatRequest(ChatDTO.Request request, ModelNameAdapter modelNameAdapter);
 
+    /**
+     * 在客户端原始请求体上直接改写Chat请求
+     * 只替换模型名等必要字段，其余字段原样透传
+     *
+     * @param rawBody 客户端原始请求体
+     * @param modelNameAdapter 模型名称适配函数
+     * @return 改写后的请求体，无法原样转发时返回 null，由调用方回退到 {@link #transformChatRequest}
+     */
+    default byte[] rewriteChatBody(byte[] rawBody, ModelNameAdapter modelNameAdapter) {
+        return null;
+    }
+
     /**
      * 转换Embedding请求
      *
@@ -13,6 +13,8 @@ import org.unreal.modelrouter.common.dto.SttDTO;
 import org.unreal.modelrouter.common.dto.TtsDTO;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * OpenAI请求转换器实现
@@ -27,6 +29,11 @@ public class OpenAiRequestTransformerImpl implements OpenAiRequestTransformer {
 
     private final ObjectMapper objectMapper;
 
+    /**
+     * 只能由 DTO 转换处理的字段：options 中的扩展参数需要拆分到顶层和 extra_body
+     */
+    public static final Set<String> CHAT_DTO_ONLY_FIELDS = Set.of("options");
+
     @Override
     public Object transformChatRequest(ChatDTO.Request request, ModelNameAdapter modelNameAdapter) {
         try {
@@ -83,6 +90,11 @@ public class OpenAiRequestTransformerImpl implements OpenAiRequestTransformer {
         }
     }
 
+    @Override
+    public byte[] rewriteChatBody(byte[] rawBody, ModelNameAdapter modelNameAdapter) {
+        return JsonBodyRewriter.rewrite(rawBody, modelNameAdapter, Map.of(), CHAT_DTO_ONLY_FIELDS);
+    }
+
     private ObjectNode buildChatExtraBody(ChatDTO.Request request) {
         ObjectNode extraBody = objectMapper.createObjectNode();
 
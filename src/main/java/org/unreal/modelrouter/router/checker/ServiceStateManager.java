@@ -5,7 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
-import org.unreal.modelrouter.monitor.controller.HealthStatusSseController;
+import org.unreal.modelrouter.monitor.service.HealthSnapshotPublisher;
 import org.unreal.modelrouter.router.model.ModelRouterProperties;
 
 import java.util.Map;
@@ -23,10 +23,10 @@ public class ServiceStateManager {
 
     private static final Logger log = LoggerFactory.getLogger(ServiceStateManager.class);
 
-    // 注入SSE控制器
+    // 健康状态快照发布器，状态变化时通知其重新计算并推送
     @Lazy
     @Autowired(required = false)
-    private HealthStatusSseController healthStatusSseController;
+    private HealthSnapshotPublisher healthSnapshotPublisher;
 
     // 存储每个服务类型的健康状态
     private final Map<String, Boolean> serviceHealthStatus = new ConcurrentHashMap<>();
@@ -118,17 +118,7 @@ public class ServiceStateManager {
             instanceHealthStatus.put(instanceKey, isHealthy);
             log.debug("实例健康状态更新: {} -> {}", instanceKey, isHealthy);
             
-            // 通知SSE控制器推送更新
-            if (healthStatusSseController != null) {
-                try {
-                    healthStatusSseController.notifyHealthStatusChange();
-                    log.debug("已通知SSE控制器推送健康状态更新");
-                } catch (Exception e) {
-                    log.warn("通知SSE控制器推送健康状态更新时发生错误: {}", e.getMessage());
-                }
-            } else {
-                log.debug("SSE控制器未注入，跳过推送更新");
-            }
+            notifyHealthSnapshotPublisher();
         } else {
             log.debug("实例健康状态未发生变化: {}", instanceKey);
         }
@@ -157,6 +147,17 @@ public class ServiceStateManager {
         instanceHealthBits.clear();
         instanceHealthStatus.clear();
         log.info("实例健康状态缓存清理完成");
+        notifyHealthSnapshotPublisher();
+    }
+
+    private void notifyHealthSnapshotPublisher() {
+        if (healthSnapshotPublisher != null) {
+            try {
+                healthSnapshotPublisher.markChanged();
+            } catch (Exception e) {
+                log.warn("通知健康状态快照发布器时发生错误: {}", e.getMessage());
+            }
+        }
     }
 
     /**
@@ -3,6 +3,7 @@ package org.unreal.modelrouter.router.circuitbreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.unreal.modelrouter.monitor.monitoring.collector.CircuitBreakerMeterHandle;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
 
 import java.util.HashMap;
@@ -37,6 +38,9 @@ public class LockFreeCircuitBreaker implements CircuitBreaker {
     @Autowired(required = false)
     private MetricsCollector metricsCollector;
 
+    // 预绑定的指标句柄，首次记录时解析
+    private volatile CircuitBreakerMeterHandle meterHandle;
+
     public LockFreeCircuitBreaker(final String instanceId, final int failureThreshold,
                                    final long timeout, final int successThreshold) {
         this.instanceId = instanceId;
@@ -199,7 +203,14 @@ public class LockFreeCircuitBreaker implements CircuitBreaker {
     private void recordCircuitBreakerEvent(final String event, final String currentState) {
         if (metricsCollector != null) {
             try {
-                metricsCollector.recordCircuitBreaker(instanceId, currentState, event);
+                CircuitBreakerMeterHandle handle = meterHandle;
+                if (handle == null) {
+                    handle = metricsCollector.circuitBreakerHandle(instanceId);
+                    meterHandle = handle;
+                }
+                if (handle != null) {
+                    handle.record(currentState, event);
+                }
             } catch (Exception e) {
                 logger.warn("Failed to record circuit breaker metrics: {}", e.getMessage());
             }
@@ -1,26 +1,29 @@
 package org.unreal.modelrouter.router.circuitbreaker.monitor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.common.buffer.CoalescingEventPublisher;
+import org.unreal.modelrouter.common.buffer.EventRingBuffer;
+import reactor.core.publisher.Flux;
 
 import java.io.StringWriter;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Consumer;
 
 /**
  * 熔断器事件记录器
- * 使用环形缓冲区存储最近的采样记录
+ * 使用预分配的无锁环形缓冲区存储最近的采样记录
  * 支持暂停/恢复监控和历史记录导出
+ * WebSocket 推送由 {@link CoalescingEventPublisher} 在独立线程中合并序列化
  *
  * @author JAiRouter Team
  * @since 2.7.0
@@ -34,7 +37,7 @@ public final class CircuitBreakerEventRecorder {
     /**
      * 按实例ID分组的事件缓冲区
      */
-    private final Map<String, RingBuffer<CircuitBreakerEvent>> eventBuffers = new ConcurrentHashMap<>();
+    private final Map<String, EventRingBuffer<CircuitBreakerEvent>> eventBuffers = new ConcurrentHashMap<>();
 
     /**
      * 采样计数器
@@ -42,9 +45,9 @@ public final class CircuitBreakerEventRecorder {
     private final AtomicLong samplingCounter = new AtomicLong(0);
 
     /**
-     * WebSocket 推送回调
+     * WebSocket 合并推送发布器
      */
-    private volatile Consumer<CircuitBreakerEvent> eventCallback;
+    private final CoalescingEventPublisher<CircuitBreakerEvent> publisher;
 
     /**
      * 监控暂停状态
@@ -54,14 +57,30 @@ public final class CircuitBreakerEventRecorder {
     /**
      * JSON 序列化器
      */
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
-    public CircuitBreakerEventRecorder(CircuitBreakerMonitorConfig config) {
+    public CircuitBreakerEventRecorder(CircuitBreakerMonitorConfig config, ObjectMapper objectMapper) {
         this.config = config;
+        this.objectMapper = objectMapper;
+        this.publisher = new CoalescingEventPublisher<>("circuit-breaker-monitor", objectMapper,
+            config.getPublishBufferSize(), config.getPublishBatchSize(),
+            config.getPublishIntervalMs(), config.getSessionQueueSize());
         log.info("CircuitBreakerEventRecorder initialized: enabled={}, sampleRate={}, historySize={}",
             config.isEnabled(), config.getSampleRate(), config.getHistorySize());
     }
 
+    @PostConstruct
+    public void start() {
+        if (config.isEnabled() && config.isWebsocketEnabled()) {
+            publisher.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdown();
+    }
+
     /**
      * 记录熔断器事件（带采样判断）
      *
@@ -88,24 +107,22 @@ public final class CircuitBreakerEventRecorder {
         String instanceId = event.instanceId();
 
         // 获取或创建该实例的环形缓冲区
-        RingBuffer<CircuitBreakerEvent> buffer = eventBuffers.computeIfAbsent(
-            instanceId,
-            k -> new RingBuffer<>(config.getHistorySize())
-        );
+        EventRingBuffer<CircuitBreakerEvent> buffer = eventBuffers.get(instanceId);
+        if (buffer == null) {
+            buffer = eventBuffers.computeIfAbsent(instanceId, k -> new EventRingBuffer<>(config.getHistorySize()));
+        }
 
         // 添加到缓冲区
-        buffer.add(event);
-
-        // 触发 WebSocket 推送
-        if (config.isWebsocketEnabled() && eventCallback != null) {
-            try {
-                eventCallback.accept(event);
-            } catch (Exception e) {
-                log.debug("Failed to push event via WebSocket: {}", e.getMessage());
-            }
+        buffer.offer(event);
+
+        // 交给发布线程合并推送，没有 WebSocket 连接时直接返回
+        if (config.isWebsocketEnabled()) {
+            publisher.publish(event);
         }
 
-        log.debug("Recorded circuit breaker event: {}", event.toCompactString());
+        if (log.isDebugEnabled()) {
+            log.debug("Recorded circuit breaker event: {}", event.toCompactString());
+        }
         return true;
     }
 
@@ -133,16 +150,11 @@ public final class CircuitBreakerEventRecorder {
      * 获取指定实例的历史记录
      */
     public List<CircuitBreakerEvent> getHistory(String instanceId, int limit) {
-        RingBuffer<CircuitBreakerEvent> buffer = eventBuffers.get(instanceId);
+        EventRingBuffer<CircuitBreakerEvent> buffer = eventBuffers.get(instanceId);
         if (buffer == null) {
             return Collections.emptyList();
         }
-
-        List<CircuitBreakerEvent> all = buffer.getAll();
-        int size = Math.min(limit, all.size());
-        List<CircuitBreakerEvent> result = new ArrayList<>(all.subList(0, size));
-        Collections.reverse(result);
-        return result;
+        return buffer.snapshot(limit);
     }
 
     /**
@@ -161,7 +173,7 @@ public final class CircuitBreakerEventRecorder {
      */
     public long getTotalSampledCount() {
         return eventBuffers.values().stream()
-            .mapToLong(RingBuffer::size)
+            .mapToLong(EventRingBuffer::size)
             .sum();
     }
 
@@ -175,10 +187,12 @@ public final class CircuitBreakerEventRecorder {
     }
 
     /**
-     * 设置 WebSocket 事件回调
+     * 订阅合并推送的事件帧
+     *
+     * @return JSON 帧流
      */
-    public void setEventCallback(Consumer<CircuitBreakerEvent> callback) {
-        this.eventCallback = callback;
+    public Flux<String> subscribeEvents() {
+        return publisher.subscribe();
     }
 
     /**
@@ -186,9 +200,10 @@ public final class CircuitBreakerEventRecorder {
      */
     public void updateHistorySize(int newSize) {
         eventBuffers.forEach((instanceId, oldBuffer) -> {
-            RingBuffer<CircuitBreakerEvent> newBuffer = new RingBuffer<>(newSize);
-            for (CircuitBreakerEvent event : oldBuffer.getAll()) {
-                newBuffer.add(event);
+            EventRingBuffer<CircuitBreakerEvent> newBuffer = new EventRingBuffer<>(newSize);
+            List<CircuitBreakerEvent> events = oldBuffer.snapshot(newSize);
+            for (int i = events.size() - 1; i >= 0; i--) {
+                newBuffer.offer(events.get(i));
             }
             eventBuffers.put(instanceId, newBuffer);
         });
@@ -276,37 +291,4 @@ public final class CircuitBreakerEventRecorder {
         double sampleRate,
         Map<String, List<CircuitBreakerEvent>> history
     ) {}
-
-    private static class RingBuffer<T> {
-        private final CopyOnWriteArrayList<T> buffer;
-        private final int maxSize;
-        private volatile int head = 0;
-
-        RingBuffer(int maxSize) {
-            this.maxSize = maxSize;
-            this.buffer = new CopyOnWriteArrayList<>();
-        }
-
-        synchronized void add(T item) {
-            if (buffer.size() < maxSize) {
-                buffer.add(item);
-            } else {
-                buffer.set(head, item);
-                head = (head + 1) % maxSize;
-            }
-        }
-
-        public List<T> getAll() {
-            return new ArrayList<>(buffer);
-        }
-
-        public int size() {
-            return buffer.size();
-        }
-
-        public void clear() {
-            buffer.clear();
-            head = 0;
-        }
-    }
 }
@@ -8,7 +8,6 @@ import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.reactive.socket.WebSocketSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 import java.time.Duration;
 
@@ -27,28 +26,10 @@ public class CircuitBreakerMonitorWebSocketHandler implements WebSocketHandler {
     private final CircuitBreakerMonitorService monitorService;
     private final ObjectMapper objectMapper;
 
-    private final Sinks.Many<String> eventSink = Sinks.many().multicast().onBackpressureBuffer();
-
-    public void registerEventCallback() {
-        monitorService.getEventRecorder().setEventCallback(event -> {
-            try {
-                String json = objectMapper.writeValueAsString(event);
-                Sinks.EmitResult result = eventSink.tryEmitNext(json);
-                if (result.isFailure()) {
-                    log.debug("Failed to emit circuit breaker event: {}", result);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to serialize circuit breaker event: {}", e.getMessage());
-            }
-        });
-    }
-
     @Override
     public Mono<Void> handle(WebSocketSession session) {
         log.info("WebSocket client connected to circuit breaker monitor: {}", session.getId());
 
-        registerEventCallback();
-
         Mono<String> initialState = Mono.fromCallable(() -> {
             try {
                 InitialState state = new InitialState(
@@ -64,8 +45,7 @@ public class CircuitBreakerMonitorWebSocketHandler implements WebSocketHandler {
         Flux<String> heartbeat = Flux.interval(Duration.ofSeconds(30))
                 .map(seq -> "{\"type\":\"heartbeat\",\"seq\":" + seq + "}");
 
-        Flux<String> eventStream = eventSink.asFlux()
-                .onBackpressureLatest();
+        Flux<String> eventStream = monitorService.getEventRecorder().subscribeEvents();
 
         Flux<String> output = Flux.concat(
                 initialState.flux(),
@@ -3,6 +3,7 @@ package org.unreal.modelrouter.router.circuitbreaker.state;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.unreal.modelrouter.router.circuitbreaker.CircuitBreaker.State;
+import org.unreal.modelrouter.monitor.monitoring.collector.CircuitBreakerMeterHandle;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +24,7 @@ public class CircuitStateContext {
     private final int failureThreshold;
     private final long timeout;
     private final int successThreshold;
-    private final MetricsCollector metricsCollector;
+    private final CircuitBreakerMeterHandle meterHandle;
 
     // 状态数据
     private CircuitState currentState;
@@ -42,7 +43,8 @@ public class CircuitStateContext {
         this.failureThreshold = aFailureThreshold;
         this.timeout = aTimeout;
         this.successThreshold = aSuccessThreshold;
-        this.metricsCollector = aMetricsCollector;
+        this.meterHandle = aMetricsCollector != null
+                ? aMetricsCollector.circuitBreakerHandle(aInstanceId) : null;
         this.currentState = aInitialState;
     }
 
@@ -121,9 +123,9 @@ public class CircuitStateContext {
      * 记录熔断器事件
      */
     public void recordEvent(final String eventType, final String state) {
-        if (metricsCollector != null) {
+        if (meterHandle != null) {
             try {
-                metricsCollector.recordCircuitBreaker(instanceId, state, eventType);
+                meterHandle.record(state, eventType);
             } catch (Exception e) {
                 logger.warn("记录熔断器指标失败：{}", e.getMessage());
             }
@@ -20,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.unreal.modelrouter.common.controller.response.RouterResponse;
+import org.unreal.modelrouter.common.util.JacksonHelper;
 import org.unreal.modelrouter.router.adapter.AdapterCapabilities;
 import org.unreal.modelrouter.router.adapter.AdapterRegistry;
 import org.unreal.modelrouter.router.adapter.ServiceCapability;
@@ -27,6 +28,8 @@ import org.unreal.modelrouter.router.adapter.config.AdapterDefinitionProperties;
 import org.unreal.modelrouter.router.adapter.impl.ConfigurableAdapter;
 import org.unreal.modelrouter.router.adapter.impl.ExtendedAdapter;
 import org.unreal.modelrouter.router.adapter.impl.OllamaConfigurableAdapter;
+import org.unreal.modelrouter.router.adapter.mapping.AdapterMapping;
+import org.unreal.modelrouter.router.adapter.mapping.MappingCompiler;
 import org.unreal.modelrouter.router.adapter.persistence.AdapterDefinitionPersistenceService;
 import org.unreal.modelrouter.router.adapter.support.AdapterContext;
 import org.unreal.modelrouter.router.adapter.support.RequestProcessingSupport;
@@ -162,6 +165,7 @@ public class AdapterConfigController {
             info.put("capabilities", definition.getCapabilities());
             info.put("auth", definition.getAuth());
             info.put("additionalHeaders", definition.getAdditionalHeaders());
+            info.put("mapping", definition.getMapping());
 
             return ResponseEntity.ok(RouterResponse.success(info, "获取adapter详情成功"));
         } catch (Exception e) {
@@ -225,6 +229,16 @@ public class AdapterConfigController {
                 definition.setAdditionalHeaders(request.getAdditionalHeaders());
             }
 
+            if (request.getMapping() != null) {
+                List<String> mappingErrors = MappingCompiler.validate(request.getMapping());
+                if (!mappingErrors.isEmpty()) {
+                    return ResponseEntity.badRequest()
+                            .body(RouterResponse.error("映射配置无效: " + String.join("; ", mappingErrors),
+                                    "INVALID_MAPPING"));
+                }
+                definition.setMapping(request.getMapping());
+            }
+
             // 保存到配置
             adapterDefinitionProperties.getAdapterDefinitions().put(request.getName(), definition);
 
@@ -302,6 +316,16 @@ public class AdapterConfigController {
                 definition.setAdditionalHeaders(request.getAdditionalHeaders());
             }
 
+            if (request.getMapping() != null) {
+                List<String> mappingErrors = MappingCompiler.validate(request.getMapping());
+                if (!mappingErrors.isEmpty()) {
+                    return ResponseEntity.badRequest()
+                            .body(RouterResponse.error("映射配置无效: " + String.join("; ", mappingErrors),
+                                    "INVALID_MAPPING"));
+                }
+                definition.setMapping(request.getMapping());
+            }
+
             // 更新配置
             definitions.put(name, definition);
 
@@ -367,6 +391,47 @@ public class AdapterConfigController {
         }
     }
 
+    /**
+     * 校验声明式映射配置，可附带样例数据预览映射结果
+     */
+    @PostMapping("/mapping/validate")
+    @Operation(summary = "校验映射配置", description = "编译声明式请求/响应映射，返回错误列表和样例映射结果")
+    @ApiResponse(responseCode = "200", description = "校验完成")
+    @ApiResponse(responseCode = "400", description = "映射配置为空")
+    public ResponseEntity<RouterResponse<Map<String, Object>>> validateMapping(
+            @RequestBody final MappingValidationRequest request) {
+        if (request == null || request.getMapping() == null) {
+            return ResponseEntity.badRequest()
+                    .body(RouterResponse.error("映射配置不能为空", "INVALID_MAPPING"));
+        }
+        List<String> errors = MappingCompiler.validate(request.getMapping());
+        Map<String, Object> result = new HashMap<>();
+        result.put("valid", errors.isEmpty());
+        result.put("errors", errors);
+
+        if (errors.isEmpty()) {
+            try {
+                AdapterMapping mapping = MappingCompiler.compile(request.getMapping());
+                if (mapping != null && request.getSampleRequest() != null) {
+                    byte[] body = JacksonHelper.getObjectMapper().writeValueAsBytes(request.getSampleRequest());
+                    byte[] mapped = mapping.mapRequest(body);
+                    result.put("mappedRequest", mapped != null
+                            ? JacksonHelper.getObjectMapper().readValue(mapped, Object.class) : request.getSampleRequest());
+                }
+                if (mapping != null && request.getSampleResponse() != null) {
+                    result.put("mappedResponse", mapping.mapResponse(request.getSampleResponse()));
+                }
+                if (mapping != null && request.getSampleStreamChunk() != null) {
+                    result.put("mappedStreamChunk", mapping.mapStreamChunk(request.getSampleStreamChunk()));
+                }
+            } catch (Exception e) {
+                logger.warn("映射样例预览失败: {}", e.getMessage());
+                result.put("previewError", e.getMessage());
+            }
+        }
+        return ResponseEntity.ok(RouterResponse.success(result, errors.isEmpty() ? "映射配置有效" : "映射配置无效"));
+    }
+
     /**
      * 获取可用于继承的父adapter列表
      */
@@ -487,7 +552,8 @@ public class AdapterConfigController {
                 definition.getAuth().getHeaderName(),
                 definition.getAuth().getHeaderPrefix(),
                 definition.getAdditionalHeaders(),
-                openAiRequestTransformer, openAiResponseTransformer
+                openAiRequestTransformer, openAiResponseTransformer,
+                MappingCompiler.compile(definition.getMapping())
         );
     }
 
@@ -501,6 +567,7 @@ public class AdapterConfigController {
         private Map<String, Boolean> capabilities;
         private Map<String, String> auth;
         private Map<String, String> additionalHeaders;
+        private AdapterDefinitionProperties.MappingConfig mapping;
 
         public String getName() {
             return name;
@@ -549,5 +616,55 @@ public class AdapterConfigController {
         public void setAdditionalHeaders(final Map<String, String> additionalHeaders) {
             this.additionalHeaders = additionalHeaders;
         }
+
+        public AdapterDefinitionProperties.MappingConfig getMapping() {
+            return mapping;
+        }
+
+        public void setMapping(final AdapterDefinitionProperties.MappingConfig mapping) {
+            this.mapping = mapping;
+        }
+    }
+
+    /**
+     * 映射校验请求体
+     */
+    public static class MappingValidationRequest {
+        private AdapterDefinitionProperties.MappingConfig mapping;
+        private Object sampleRequest;
+        private Object sampleResponse;
+        private String sampleStreamChunk;
+
+        public AdapterDefinitionProperties.MappingConfig getMapping() {
+            return mapping;
+        }
+
+        public void setMapping(final AdapterDefinitionProperties.MappingConfig mapping) {
+            this.mapping = mapping;
+        }
+
+        public Object getSampleRequest() {
+            return sampleRequest;
+        }
+
+        public void setSampleRequest(final Object sampleRequest) {
+            this.sampleRequest = sampleRequest;
+        }
+
+        public Object getSampleResponse() {
+            return sampleResponse;
+        }
+
+        public void setSampleResponse(final Object sampleResponse) {
+            this.sampleResponse = sampleResponse;
+        }
+
+        public String getSampleStreamChunk() {
+            return sampleStreamChunk;
+        }
+
+        public void setSampleStreamChunk(final String sampleStreamChunk) {
+            this.sampleStreamChunk = sampleStreamChunk;
+        }
     }
 }
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.unreal.modelrouter.common.controller.response.RouterResponse;
 import org.unreal.modelrouter.monitor.dto.ModelCallStats;
 import org.unreal.modelrouter.monitor.service.ModelCallAnalyzer;
+import org.unreal.modelrouter.monitor.stats.ModelLatencyRegistry;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
@@ -46,9 +47,12 @@ public class ModelCallStatsController {
     private static final Logger logger = LoggerFactory.getLogger(ModelCallStatsController.class);
 
     private final ModelCallAnalyzer modelCallAnalyzer;
+    private final ModelLatencyRegistry modelLatencyRegistry;
 
-    public ModelCallStatsController(final ModelCallAnalyzer modelCallAnalyzer) {
+    public ModelCallStatsController(final ModelCallAnalyzer modelCallAnalyzer,
+                                    final ModelLatencyRegistry modelLatencyRegistry) {
         this.modelCallAnalyzer = modelCallAnalyzer;
+        this.modelLatencyRegistry = modelLatencyRegistry;
     }
 
     /**
@@ -208,6 +212,52 @@ public class ModelCallStatsController {
         }
     }
 
+    /**
+     * 获取延迟分布（滑动窗口百分位）
+     */
+    @GetMapping("/latency")
+    @Operation(summary = "获取延迟分布",
+            description = "获取各模型/实例在滑动窗口内的延迟、首 token 延迟、token 间延迟和输出吞吐百分位")
+    @ApiResponse(responseCode = "200", description = "成功获取延迟分布")
+    @ApiResponse(responseCode = "500", description = "服务器内部错误")
+    public Mono<ResponseEntity<RouterResponse<List<Map<String, Object>>>>> getLatencyDistribution(
+            @RequestParam(required = false) final String serviceType) {
+        try {
+            List<Map<String, Object>> snapshots = modelLatencyRegistry != null
+                    ? modelLatencyRegistry.getSnapshots(serviceType) : List.of();
+            return Mono.just(ResponseEntity.ok(RouterResponse.success(snapshots, "获取延迟分布成功")));
+        } catch (Exception e) {
+            logger.error("获取延迟分布失败", e);
+            return Mono.just(ResponseEntity.internalServerError()
+                    .body(RouterResponse.error("获取延迟分布失败：" + e.getMessage())));
+        }
+    }
+
+    /**
+     * 获取指定模型的延迟分布
+     */
+    @GetMapping("/latency/{serviceType}/{modelName}")
+    @Operation(summary = "获取指定模型延迟分布", description = "获取指定模型在各实例上的延迟百分位")
+    @ApiResponse(responseCode = "200", description = "成功获取延迟分布")
+    @ApiResponse(responseCode = "404", description = "模型暂无延迟数据")
+    @ApiResponse(responseCode = "500", description = "服务器内部错误")
+    public Mono<ResponseEntity<RouterResponse<List<Map<String, Object>>>>> getModelLatencyDistribution(
+            @PathVariable final String serviceType,
+            @PathVariable final String modelName) {
+        try {
+            List<Map<String, Object>> snapshots = modelLatencyRegistry != null
+                    ? modelLatencyRegistry.getSnapshots(serviceType, modelName) : List.of();
+            if (snapshots.isEmpty()) {
+                return Mono.just(ResponseEntity.notFound().build());
+            }
+            return Mono.just(ResponseEntity.ok(RouterResponse.success(snapshots, "获取模型延迟分布成功")));
+        } catch (Exception e) {
+            logger.error("获取模型延迟分布失败", e);
+            return Mono.just(ResponseEntity.internalServerError()
+                    .body(RouterResponse.error("获取模型延迟分布失败：" + e.getMessage())));
+        }
+    }
+
     /**
      * 刷新统计（手动触发）
      */
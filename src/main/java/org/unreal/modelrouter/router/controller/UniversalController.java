@@ -35,6 +35,7 @@ import org.unreal.modelrouter.common.dto.ImageGenerateDTO;
 import org.unreal.modelrouter.common.dto.RerankDTO;
 import org.unreal.modelrouter.common.dto.SttDTO;
 import org.unreal.modelrouter.common.dto.TtsDTO;
+import org.unreal.modelrouter.router.handler.EmbeddingBatcher;
 import org.unreal.modelrouter.router.handler.ServiceEndpoint;
 import org.unreal.modelrouter.router.handler.ServiceRequestHandler;
 import reactor.core.publisher.Mono;
@@ -53,9 +54,12 @@ import reactor.core.publisher.Mono;
 public class UniversalController {
 
     private final ServiceRequestHandler requestHandler;
+    private final EmbeddingBatcher embeddingBatcher;
 
-    public UniversalController(final ServiceRequestHandler requestHandler) {
+    public UniversalController(final ServiceRequestHandler requestHandler,
+                               final EmbeddingBatcher embeddingBatcher) {
         this.requestHandler = requestHandler;
+        this.embeddingBatcher = embeddingBatcher;
     }
 
     @PostMapping("/chat/completions")
@@ -88,7 +92,10 @@ public class UniversalController {
             request.model(),
             authorization,
             exchange,
-            (adapter, auth, httpRequest) -> adapter.embedding(request, auth, httpRequest)
+            (adapter, auth, httpRequest) -> embeddingBatcher != null && embeddingBatcher.isBatchable(request)
+                ? embeddingBatcher.submit(request, auth, httpRequest,
+                    (batch, batchRequest) -> adapter.embedding(batch, auth, batchRequest))
+                : adapter.embedding(request, auth, httpRequest)
         );
     }
 
@@ -0,0 +1,414 @@
+package org.unreal.modelrouter.router.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import org.unreal.modelrouter.common.controller.response.RouterResponse;
+import org.unreal.modelrouter.common.dto.EmbeddingDTO;
+import org.unreal.modelrouter.common.util.IpUtils;
+import org.unreal.modelrouter.config.core.EmbeddingBatchingProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Embedding 请求合并器
+ *
+ * 对启用合并的模型，同一模型、同一调用方（Authorization 与 API Key ID 或客户端 IP）且参数相同的并发小请求在最多 maxWaitMs 内攒成一批，
+ * 达到条数或估算 token 上限时立即发送。整批输入合并为一个 input 数组，通过第一个请求的适配器发送，
+ * 由负载均衡选择实例；响应的 data[] 按顺序切分回各请求并重新编号，usage 按各请求输入的估算 token 比例分摊。
+ *
+ * 合并调用不带 API Key ID 属性发送，不会把整批用量记到第一个请求的 API Key 上；
+ * 切分后由合并器按分摊的 total_tokens 逐个计入各请求的 API Key。
+ *
+ * 合并请求返回 400/413/422 时通常是其中某个输入不合法或整批过大，此时各请求改为单独发送，错误只影响对应的请求；
+ * 其它错误（429、401、下游 5xx、超时等）与输入无关，直接返回给整批请求。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+public class EmbeddingBatcher {
+
+    private static final double CHINESE_CHARS_PER_TOKEN = 2.0;
+    private static final double ENGLISH_CHARS_PER_TOKEN = 4.0;
+
+    private final EmbeddingBatchingProperties properties;
+    private final ApiKeyService apiKeyService;
+
+    private final Map<BatchKey, Batch> openBatches = new ConcurrentHashMap<>();
+    private final AtomicLong batchedRequests = new AtomicLong();
+    private final AtomicLong batchCalls = new AtomicLong();
+
+    public EmbeddingBatcher(final EmbeddingBatchingProperties properties,
+                            @Autowired(required = false) final ApiKeyService apiKeyService) {
+        this.properties = properties;
+        this.apiKeyService = apiKeyService;
+    }
+
+    /**
+     * 请求是否可以合并：模型已启用合并、没有扩展选项，且输入为字符串或字符串数组
+     */
+    public boolean isBatchable(final EmbeddingDTO.Request request) {
+        return request != null
+                && properties.isEnabledFor(request.model())
+                && request.options() == null
+                && inputs(request) != null;
+    }
+
+    /**
+     * 提交一个 Embedding 请求
+     *
+     * @param request       原始请求
+     * @param authorization 认证头，只有认证相同的请求才会合并
+     * @param httpRequest   HTTP 请求，其 API Key ID 或客户端 IP 也参与合并键
+     * @param call          发送请求的函数，合并时以合并后的请求和去掉 API Key ID 的 HTTP 请求调用第一个请求的函数
+     * @return 该请求自己的响应
+     */
+    public Mono<ResponseEntity<?>> submit(final EmbeddingDTO.Request request, final String authorization,
+                                          final ServerHttpRequest httpRequest,
+                                          final BiFunction<EmbeddingDTO.Request, ServerHttpRequest,
+                                                  Mono<ResponseEntity<?>>> call) {
+        List<String> inputs = inputs(request);
+        if (!isBatchable(request) || inputs.isEmpty() || inputs.size() >= properties.getMaxBatchSize()) {
+            return Mono.defer(() -> call.apply(request, httpRequest));
+        }
+        Object keyId = httpRequest.getAttributes().get(ServiceRequestHandler.API_KEY_ID_ATTRIBUTE);
+        String apiKeyId = keyId instanceof String id ? id : null;
+        String caller = apiKeyId != null ? "key:" + apiKeyId : "ip:" + IpUtils.getClientIp(httpRequest);
+        BatchKey key = new BatchKey(request.model(), authorization, caller, request.encodingFormat(),
+                request.dimensions(), request.user());
+        return Mono.deferContextual(context -> {
+            Pending pending = new Pending(request, inputs, estimateTokens(inputs), apiKeyId, httpRequest,
+                    call, context);
+            enqueue(key, pending);
+            return pending.sink.asMono();
+        });
+    }
+
+    /**
+     * 经合并发送的请求数
+     */
+    public long getBatchedRequests() {
+        return batchedRequests.get();
+    }
+
+    /**
+     * 合并后实际发出的下游调用数
+     */
+    public long getBatchCalls() {
+        return batchCalls.get();
+    }
+
+    private void enqueue(final BatchKey key, final Pending pending) {
+        Batch[] flushNow = new Batch[2];
+        Batch[] created = new Batch[1];
+        openBatches.compute(key, (k, batch) -> {
+            if (batch != null && !batch.fits(pending)) {
+                flushNow[0] = batch;
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch();
+                created[0] = batch;
+            }
+            batch.add(pending);
+            if (batch.isFull()) {
+                flushNow[1] = batch;
+                return null;
+            }
+            return batch;
+        });
+        for (Batch batch : flushNow) {
+            if (batch != null) {
+                flush(batch);
+            }
+        }
+        if (created[0] != null && flushNow[1] != created[0]) {
+            Batch batch = created[0];
+            Schedulers.parallel().schedule(() -> {
+                if (openBatches.remove(key, batch)) {
+                    flush(batch);
+                }
+            }, properties.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(final Batch batch) {
+        List<Pending> entries = batch.entries;
+        if (entries.size() == 1) {
+            sendIndividually(entries.get(0));
+            return;
+        }
+        batchedRequests.addAndGet(entries.size());
+        batchCalls.incrementAndGet();
+
+        Pending leader = entries.get(0);
+        List<String> inputs = new ArrayList<>(batch.inputCount);
+        entries.forEach(entry -> inputs.addAll(entry.inputs));
+        EmbeddingDTO.Request merged = new EmbeddingDTO.Request(leader.request.model(), inputs,
+                leader.request.encodingFormat(), leader.request.dimensions(), leader.request.user(), null);
+
+        ServerHttpRequest mergedRequest = withoutApiKey(leader.httpRequest);
+        Mono.defer(() -> leader.call.apply(merged, mergedRequest))
+                .<Optional<ResponseEntity<?>>>map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .contextWrite(leader.context)
+                .subscribe(response -> distribute(entries, response.orElse(null)),
+                        error -> onBatchError(entries, error));
+    }
+
+    private void distribute(final List<Pending> entries, final ResponseEntity<?> response) {
+        List<ResponseEntity<?>> parts = split(response, entries);
+        if (parts == null) {
+            log.debug("Merged embedding response cannot be split, sending {} requests individually", entries.size());
+            entries.forEach(this::sendIndividually);
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Pending entry = entries.get(i);
+            chargeTokens(entry.apiKeyId, totalTokens(parts.get(i)));
+            entry.sink.tryEmitValue(parts.get(i));
+        }
+    }
+
+    private void onBatchError(final List<Pending> entries, final Throwable error) {
+        if (isInputRejected(error)) {
+            log.debug("Merged embedding request rejected ({}), sending {} requests individually",
+                    error.getMessage(), entries.size());
+            entries.forEach(this::sendIndividually);
+            return;
+        }
+        entries.forEach(entry -> entry.sink.tryEmitError(error));
+    }
+
+    private void sendIndividually(final Pending entry) {
+        Mono.defer(() -> entry.call.apply(entry.request, entry.httpRequest))
+                .contextWrite(entry.context)
+                .subscribe(entry.sink::tryEmitValue, entry.sink::tryEmitError, entry.sink::tryEmitEmpty);
+    }
+
+    /**
+     * 按各请求的输入条数切分合并响应，无法切分时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    static List<ResponseEntity<?>> split(final ResponseEntity<?> response, final List<Pending> entries) {
+        if (response == null || !response.getStatusCode().is2xxSuccessful()) {
+            return null;
+        }
+        Object body = response.getBody();
+        RouterResponse<Object> wrapper = body instanceof RouterResponse<?> r ? (RouterResponse<Object>) r : null;
+        Object payload = wrapper != null ? wrapper.getData() : body;
+        if (!(payload instanceof Map<?, ?> map) || !(map.get("data") instanceof List<?> data)) {
+            return null;
+        }
+        int total = entries.stream().mapToInt(entry -> entry.inputs.size()).sum();
+        if (data.size() != total || !data.stream().allMatch(item -> item instanceof Map<?, ?>)) {
+            return null;
+        }
+        List<Map<String, Object>> items = new ArrayList<>((List<Map<String, Object>>) data);
+        if (items.stream().allMatch(item -> item.get("index") instanceof Number)) {
+            items.sort(Comparator.comparingInt(item -> ((Number) item.get("index")).intValue()));
+        }
+        Map<String, Object> usage = map.get("usage") instanceof Map<?, ?> u ? (Map<String, Object>) u : null;
+        long totalWeight = entries.stream().mapToLong(Pending::weight).sum();
+
+        List<ResponseEntity<?>> parts = new ArrayList<>(entries.size());
+        int offset = 0;
+        long weightBefore = 0;
+        for (Pending entry : entries) {
+            List<Map<String, Object>> own = new ArrayList<>(entry.inputs.size());
+            for (int i = 0; i < entry.inputs.size(); i++) {
+                Map<String, Object> item = new LinkedHashMap<>(items.get(offset + i));
+                item.put("index", i);
+                own.add(item);
+            }
+            Map<String, Object> part = new LinkedHashMap<>((Map<String, Object>) map);
+            part.put("data", own);
+            if (usage != null) {
+                part.put("usage", apportion(usage, weightBefore, entry.weight(), totalWeight));
+            }
+            offset += entry.inputs.size();
+            weightBefore += entry.weight();
+
+            Object partBody = wrapper != null ? RouterResponse.success(part, wrapper.getMessage()) : part;
+            parts.add(ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(partBody));
+        }
+        return parts;
+    }
+
+    /**
+     * 按累计权重切分计数，各请求分摊值之和等于原值
+     */
+    private static Map<String, Object> apportion(final Map<String, Object> usage, final long weightBefore,
+                                                 final long weight, final long totalWeight) {
+        Map<String, Object> result = new LinkedHashMap<>(usage);
+        usage.forEach((name, value) -> {
+            if (value instanceof Number number) {
+                long amount = number.longValue();
+                result.put(name, amount * (weightBefore + weight) / totalWeight - amount * weightBefore / totalWeight);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 合并调用的 HTTP 请求去掉 API Key ID，整批用量由 distribute 按分摊值计入各请求的 API Key
+     */
+    private static ServerHttpRequest withoutApiKey(final ServerHttpRequest request) {
+        Map<String, Object> attributes = new HashMap<>(request.getAttributes());
+        attributes.remove(ServiceRequestHandler.API_KEY_ID_ATTRIBUTE);
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Map<String, Object> getAttributes() {
+                return attributes;
+            }
+        };
+    }
+
+    private void chargeTokens(final String apiKeyId, final long totalTokens) {
+        if (apiKeyService == null || apiKeyId == null || totalTokens <= 0) {
+            return;
+        }
+        try {
+            apiKeyService.updateTokenUsage(apiKeyId, totalTokens);
+        } catch (Exception e) {
+            log.debug("Failed to update API Key token usage: keyId={}, error={}", apiKeyId, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long totalTokens(final ResponseEntity<?> part) {
+        Object body = part.getBody();
+        Object payload = body instanceof RouterResponse<?> r ? r.getData() : body;
+        if (payload instanceof Map<?, ?> map && map.get("usage") instanceof Map<?, ?> usage
+                && ((Map<String, Object>) usage).get("total_tokens") instanceof Number tokens) {
+            return tokens.longValue();
+        }
+        return 0;
+    }
+
+    /**
+     * 只有与输入内容相关的拒绝（400/413/422）才值得逐个重发，其它 4xx 对每个请求的结果都一样
+     */
+    private static boolean isInputRejected(final Throwable error) {
+        HttpStatusCode status = null;
+        if (error instanceof ResponseStatusException e) {
+            status = e.getStatusCode();
+        } else if (error instanceof WebClientResponseException e) {
+            status = e.getStatusCode();
+        }
+        return status != null && (status.value() == HttpStatus.BAD_REQUEST.value()
+                || status.value() == HttpStatus.PAYLOAD_TOO_LARGE.value()
+                || status.value() == HttpStatus.UNPROCESSABLE_ENTITY.value());
+    }
+
+    /**
+     * 输入为字符串或字符串数组时返回输入列表，其它形式（如 token 数组）返回 null
+     */
+    private static List<String> inputs(final EmbeddingDTO.Request request) {
+        Object input = request.input();
+        if (input instanceof String text) {
+            return List.of(text);
+        }
+        if (input instanceof List<?> list && list.stream().allMatch(item -> item instanceof String)) {
+            return list.stream().map(String.class::cast).toList();
+        }
+        return null;
+    }
+
+    /**
+     * 估算输入 token 数，中文约 2 字符/token，其它约 4 字符/token
+     */
+    static long estimateTokens(final List<String> inputs) {
+        int chineseChars = 0;
+        int otherChars = 0;
+        for (String input : inputs) {
+            for (int i = 0; i < input.length(); i++) {
+                char c = input.charAt(i);
+                if (Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+                    chineseChars++;
+                } else if (!Character.isWhitespace(c)) {
+                    otherChars++;
+                }
+            }
+        }
+        return (long) Math.ceil(chineseChars / CHINESE_CHARS_PER_TOKEN + otherChars / ENGLISH_CHARS_PER_TOKEN);
+    }
+
+    /**
+     * 只有这些参数都相同的请求才能合并到同一个下游调用
+     */
+    private record BatchKey(String model, String authorization, String caller, String encodingFormat,
+                            Integer dimensions, String user) {
+    }
+
+    /**
+     * 等待合并发送的请求
+     */
+    record Pending(EmbeddingDTO.Request request, List<String> inputs, long tokens, String apiKeyId,
+                   ServerHttpRequest httpRequest,
+                   BiFunction<EmbeddingDTO.Request, ServerHttpRequest, Mono<ResponseEntity<?>>> call,
+                   ContextView context, Sinks.One<ResponseEntity<?>> sink) {
+
+        Pending(final EmbeddingDTO.Request request, final List<String> inputs, final long tokens,
+                final String apiKeyId, final ServerHttpRequest httpRequest,
+                final BiFunction<EmbeddingDTO.Request, ServerHttpRequest, Mono<ResponseEntity<?>>> call,
+                final ContextView context) {
+            this(request, inputs, tokens, apiKeyId, httpRequest, call, context, Sinks.one());
+        }
+
+        /**
+         * 分摊 usage 的权重，空输入也至少占 1
+         */
+        long weight() {
+            return Math.max(tokens, 1);
+        }
+    }
+
+    /**
+     * 尚未发送的批次，只在 openBatches.compute 内修改
+     */
+    private final class Batch {
+        private final List<Pending> entries = new ArrayList<>();
+        private int inputCount;
+        private long tokens;
+
+        boolean fits(final Pending pending) {
+            return inputCount + pending.inputs.size() <= properties.getMaxBatchSize()
+                    && tokens + pending.tokens <= properties.getMaxBatchTokens();
+        }
+
+        void add(final Pending pending) {
+            entries.add(pending);
+            inputCount += pending.inputs.size();
+            tokens += pending.tokens;
+        }
+
+        boolean isFull() {
+            return inputCount >= properties.getMaxBatchSize() || tokens >= properties.getMaxBatchTokens();
+        }
+    }
+}
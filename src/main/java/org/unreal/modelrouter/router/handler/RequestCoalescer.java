@@ -0,0 +1,229 @@
+package org.unreal.modelrouter.router.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import org.unreal.modelrouter.common.controller.response.RouterResponse;
+import org.unreal.modelrouter.common.filter.CachedBodyWebFilter;
+import org.unreal.modelrouter.config.core.RequestCoalescingProperties;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry.ServiceType;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 相同请求合并器（single-flight）
+ *
+ * 服务类型、模型、调用方和规范化请求体摘要都相同的并发请求共享同一个下游调用：第一个请求（leader）
+ * 正常选择实例并调用适配器，调用结束前到达的相同请求（follower）直接订阅这次调用的结果，
+ * 不再选择实例、占用实例限流名额和下游连接。流式响应在 leader 拿到响应头后立即开始消费上游并缓存，
+ * 每个订阅者都从第一个事件开始重放，流结束后释放。
+ *
+ * 只合并确定性的请求：embedding、rerank，以及 temperature 为 0 的 chat。
+ * 调用方标识（转发给下游的 Authorization、API Key ID 或客户端 IP、准入通道）参与摘要，
+ * 凭证不同的调用方不会拿到彼此的响应，leader 的准入和实例限流结果也只由同一调用方的请求共享。
+ * 下游 usage 由 leader 的处理器记录，follower 按共享响应中的 usage 累加自己 API Key 的 Token 配额。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private final RequestCoalescingProperties properties;
+    private final ApiKeyService apiKeyService;
+    private final ObjectMapper canonicalMapper = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final Map<String, Mono<ResponseEntity<?>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+
+    public RequestCoalescer(final RequestCoalescingProperties properties,
+                            @Autowired(required = false) final ApiKeyService apiKeyService) {
+        this.properties = properties;
+        this.apiKeyService = apiKeyService;
+    }
+
+    /**
+     * 计算请求的合并键，不参与合并时返回 null
+     *
+     * @param serviceType 服务类型
+     * @param modelName   模型名称
+     * @param caller      调用方标识，只有标识相同的请求才会合并；只参与摘要，不以明文保存
+     * @param httpRequest 带有缓存请求体的 HTTP 请求
+     * @return 合并键
+     */
+    public String keyFor(final ServiceType serviceType, final String modelName, final String caller,
+                         final ServerHttpRequest httpRequest) {
+        if (!properties.isEnabled() || serviceType == null
+                || !properties.getServiceTypes().contains(serviceType.name())
+                || !(httpRequest.getAttributes().get(CachedBodyWebFilter.CACHED_BODY_ATTRIBUTE) instanceof byte[] body)
+                || body.length == 0 || body.length > properties.getMaxBodyBytes()) {
+            return null;
+        }
+        try {
+            Object parsed = canonicalMapper.readValue(body, Object.class);
+            if (!(parsed instanceof Map<?, ?> json)
+                    || serviceType == ServiceType.chat && !isDeterministic(json)) {
+                return null;
+            }
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            if (caller != null) {
+                sha256.update(caller.getBytes(StandardCharsets.UTF_8));
+            }
+            sha256.update((byte) 0);
+            byte[] digest = sha256.digest(canonicalMapper.writeValueAsBytes(json));
+            return serviceType.name() + ':' + modelName + ':' + HexFormat.of().formatHex(digest);
+        } catch (java.io.IOException | NoSuchAlgorithmException e) {
+            log.debug("Request body is not coalescable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 执行请求，相同键已有进行中的调用时共享其结果
+     *
+     * @param key      {@link #keyFor} 计算的合并键
+     * @param apiKeyId 调用方的 API Key ID，follower 据此累加 Token 配额
+     * @param call     实际的选择实例与调用逻辑
+     * @return 响应
+     */
+    public Mono<ResponseEntity<?>> execute(final String key, final String apiKeyId,
+                                           final Supplier<Mono<ResponseEntity<?>>> call) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<ResponseEntity<?>> shared = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return share(k, call);
+            });
+            if (leader.get()) {
+                return shared;
+            }
+            coalescedRequests.incrementAndGet();
+            return shared.map(response -> chargeFollower(response, apiKeyId));
+        });
+    }
+
+    /**
+     * 共享已有调用结果的请求数
+     */
+    public long getCoalescedRequests() {
+        return coalescedRequests.get();
+    }
+
+    /**
+     * 当前进行中的合并调用数
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 构造可被多个订阅者共享的调用：非流式响应在调用结束时释放，流式响应在上游流结束时释放
+     */
+    private Mono<ResponseEntity<?>> share(final String key, final Supplier<Mono<ResponseEntity<?>>> call) {
+        AtomicReference<Mono<ResponseEntity<?>>> self = new AtomicReference<>();
+        AtomicBoolean streaming = new AtomicBoolean();
+        Runnable release = () -> inFlight.remove(key, self.get());
+
+        Mono<ResponseEntity<?>> shared = Mono.defer(call)
+                .<ResponseEntity<?>>map(response -> {
+                    if (!(response.getBody() instanceof Publisher<?> body)) {
+                        return response;
+                    }
+                    streaming.set(true);
+                    // 立即开始消费上游，没有订阅者时也能在流结束后释放
+                    ConnectableFlux<?> replay = Flux.from(body).doFinally(signal -> release.run()).replay();
+                    replay.connect();
+                    return ResponseEntity.status(response.getStatusCode())
+                            .headers(response.getHeaders())
+                            .body(replay);
+                })
+                .doFinally(signal -> {
+                    if (!streaming.get()) {
+                        release.run();
+                    }
+                })
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    private ResponseEntity<?> chargeFollower(final ResponseEntity<?> response, final String apiKeyId) {
+        if (apiKeyService == null || apiKeyId == null) {
+            return response;
+        }
+        Object body = response.getBody();
+        if (body instanceof Publisher<?> stream) {
+            AtomicLong totalTokens = new AtomicLong();
+            Flux<?> charged = Flux.from(stream)
+                    .doOnNext(event -> {
+                        long tokens = streamUsage(event);
+                        if (tokens > 0) {
+                            totalTokens.set(tokens);
+                        }
+                    })
+                    .doOnComplete(() -> chargeTokens(apiKeyId, totalTokens.get()));
+            return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(charged);
+        }
+        Object payload = body instanceof RouterResponse<?> wrapper ? wrapper.getData() : body;
+        if (payload instanceof Map<?, ?> json && json.get("usage") instanceof Map<?, ?> usage
+                && usage.get("total_tokens") instanceof Number tokens) {
+            chargeTokens(apiKeyId, tokens.longValue());
+        }
+        return response;
+    }
+
+    private long streamUsage(final Object event) {
+        Object data = event instanceof ServerSentEvent<?> sse ? sse.data() : event;
+        if (!(data instanceof String chunk) || !chunk.contains("\"usage\"")) {
+            return 0;
+        }
+        try {
+            JsonNode node = canonicalMapper.readTree(chunk);
+            return node.path("usage").path("total_tokens").asLong(0);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private void chargeTokens(final String apiKeyId, final long totalTokens) {
+        if (totalTokens <= 0) {
+            return;
+        }
+        try {
+            apiKeyService.updateTokenUsage(apiKeyId, totalTokens);
+        } catch (Exception e) {
+            log.debug("Failed to update API Key token usage: keyId={}, error={}", apiKeyId, e.getMessage());
+        }
+    }
+
+    /**
+     * chat 请求只有 temperature 显式为 0 时输出才可复用
+     */
+    private static boolean isDeterministic(final Map<?, ?> json) {
+        return json.get("temperature") instanceof Number temperature && temperature.doubleValue() == 0;
+    }
+}
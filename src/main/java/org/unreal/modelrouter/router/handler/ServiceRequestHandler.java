@@ -28,8 +28,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import org.unreal.modelrouter.auth.security.model.ApiKeyAuthentication;
+import org.unreal.modelrouter.common.filter.CachedBodyWebFilter;
 import org.unreal.modelrouter.common.util.IpUtils;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
+import org.unreal.modelrouter.monitor.monitoring.collector.RequestMeterHandle;
 import org.unreal.modelrouter.monitor.tracing.TracingConstants;
 import org.unreal.modelrouter.monitor.tracing.TracingContext;
 import org.unreal.modelrouter.monitor.tracing.interceptor.ControllerTracingInterceptor;
@@ -39,8 +41,13 @@ import org.unreal.modelrouter.router.checker.ServiceStateManager;
 import org.unreal.modelrouter.router.model.ModelRouterProperties;
 import org.unreal.modelrouter.router.model.ModelServiceRegistry;
 import org.unreal.modelrouter.router.model.ModelServiceRegistry.ServiceType;
+import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import org.unreal.modelrouter.router.ratelimit.admission.AdmissionController;
+import org.unreal.modelrouter.router.ratelimit.admission.PriorityLaneClassifier;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * 通用服务请求处理器.
  *
@@ -66,12 +73,33 @@ public class ServiceRequestHandler {
      */
     public static final String API_KEY_ID_ATTRIBUTE = "API_KEY_ID";
 
+    /**
+     * 持有请求指标句柄的 HTTP 状态码范围 [100, 600)
+     */
+    private static final int MIN_STATUS = 100;
+    private static final int STATUS_SLOTS = 500;
+
     private final AdapterRegistry adapterRegistry;
     private final ModelServiceRegistry registry;
     private final ServiceStateManager serviceStateManager;
     private final MetricsCollector metricsCollector;
     private final ControllerTracingInterceptor tracingInterceptor;
 
+    /**
+     * POST 请求的指标句柄，按 (服务类型, 状态码) 持有，每个组合只向指标收集器解析一次
+     */
+    private final AtomicReferenceArray<RequestMeterHandle> postRequestHandles =
+            new AtomicReferenceArray<>(ServiceType.values().length * STATUS_SLOTS);
+
+    @Autowired(required = false)
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired(required = false)
+    private AdmissionController admissionController;
+
+    @Autowired(required = false)
+    private PriorityLaneClassifier priorityLaneClassifier;
+
     /**
      * 构造函数.
      *
@@ -139,6 +167,12 @@ public class ServiceRequestHandler {
                 exchange.getAttributes().put(API_KEY_ID_ATTRIBUTE, keyId);
                 httpRequest.getAttributes().put(API_KEY_ID_ATTRIBUTE, keyId);
 
+                // 原始请求体供适配器直接改写转发，避免 DTO 往返
+                Object cachedBody = exchange.getAttribute(CachedBodyWebFilter.CACHED_BODY_ATTRIBUTE);
+                if (cachedBody != null) {
+                    httpRequest.getAttributes().put(CachedBodyWebFilter.CACHED_BODY_ATTRIBUTE, cachedBody);
+                }
+
                 return handleWithInstanceAdapter(
                     endpoint,
                     modelName,
@@ -179,6 +213,9 @@ public class ServiceRequestHandler {
 
     /**
      * 支持实例级适配器选择的服务请求处理器.
+     *
+     * <p>确定性的相同请求并发到达时由 {@link RequestCoalescer} 合并，只有第一个请求选择实例并调用下游；
+     * 服务饱和时由 {@link AdmissionController} 按优先级通道排队，获得准入后才选择实例。
      */
     private Mono<ResponseEntity<?>> handleWithInstanceAdapter(
             final ServiceEndpoint endpoint,
@@ -188,6 +225,77 @@ public class ServiceRequestHandler {
             final TracingContext tracingContext,
             final ServiceRequestExecutor executor) {
 
+        String coalescingKey = requestCoalescer != null
+            ? requestCoalescer.keyFor(endpoint.getServiceType(), modelName,
+                coalescingCaller(authorization, httpRequest), httpRequest)
+            : null;
+        if (coalescingKey == null) {
+            return admitAndExecute(endpoint, modelName, authorization, httpRequest, tracingContext, executor);
+        }
+        Object apiKeyId = httpRequest.getAttributes().get(API_KEY_ID_ATTRIBUTE);
+        return requestCoalescer.execute(
+            coalescingKey,
+            apiKeyId instanceof String id ? id : null,
+            () -> admitAndExecute(endpoint, modelName, authorization, httpRequest, tracingContext, executor)
+        );
+    }
+
+    /**
+     * 请求合并的调用方标识：转发给下游的 Authorization、限流与准入所依据的 API Key ID 或客户端 IP，
+     * 启用准入控制时还包括准入通道，保证共享同一调用的请求在这些方面完全一致.
+     */
+    private String coalescingCaller(final String authorization, final ServerHttpRequest httpRequest) {
+        Object apiKeyId = httpRequest.getAttributes().get(API_KEY_ID_ATTRIBUTE);
+        String clientIp = IpUtils.getClientIp(httpRequest);
+        StringBuilder caller = new StringBuilder()
+            .append(authorization != null ? authorization : "")
+            .append('\n')
+            .append(apiKeyId instanceof String id ? "key:" + id : "ip:" + clientIp);
+        if (admissionController != null && priorityLaneClassifier != null && admissionController.isEnabled()) {
+            caller.append('\n').append(priorityLaneClassifier.classify(
+                httpRequest, apiKeyId instanceof String id ? id : null, clientIp).laneName());
+        }
+        return caller.toString();
+    }
+
+    /**
+     * 获得服务级准入后选择实例并执行请求，未启用准入控制时直接执行.
+     */
+    private Mono<ResponseEntity<?>> admitAndExecute(
+            final ServiceEndpoint endpoint,
+            final String modelName,
+            final String authorization,
+            final ServerHttpRequest httpRequest,
+            final TracingContext tracingContext,
+            final ServiceRequestExecutor executor) {
+
+        if (admissionController == null || priorityLaneClassifier == null || !admissionController.isEnabled()) {
+            return selectAndExecute(endpoint, modelName, authorization, httpRequest, tracingContext, executor);
+        }
+        String clientIp = IpUtils.getClientIp(httpRequest);
+        Object apiKeyId = httpRequest.getAttributes().get(API_KEY_ID_ATTRIBUTE);
+        PriorityLaneClassifier.AdmissionClass admissionClass = priorityLaneClassifier.classify(
+            httpRequest, apiKeyId instanceof String id ? id : null, clientIp);
+        RateLimitContext context = new RateLimitContext(
+            endpoint.getServiceType(), modelName, clientIp, 1, null, null);
+        return admissionController.admit(
+            context,
+            admissionClass,
+            () -> selectAndExecute(endpoint, modelName, authorization, httpRequest, tracingContext, executor)
+        );
+    }
+
+    /**
+     * 选择实例与适配器并执行请求.
+     */
+    private Mono<ResponseEntity<?>> selectAndExecute(
+            final ServiceEndpoint endpoint,
+            final String modelName,
+            final String authorization,
+            final ServerHttpRequest httpRequest,
+            final TracingContext tracingContext,
+            final ServiceRequestExecutor executor) {
+
         String clientIp = IpUtils.getClientIp(httpRequest);
         ServiceType serviceType = endpoint.getServiceType();
 
@@ -268,7 +376,7 @@ public class ServiceRequestHandler {
         // 检查服务健康状态
         if (!serviceStateManager.isServiceHealthy(serviceName)) {
             long duration = System.currentTimeMillis() - startTime;
-            recordRequestMetrics(serviceName, method, duration, "503", 0, 0);
+            recordRequestMetrics(serviceType, method, duration, HttpStatus.SERVICE_UNAVAILABLE.value(), 0, 0);
             return Mono.error(new ResponseStatusException(
                 HttpStatus.SERVICE_UNAVAILABLE,
                 serviceName + " service is currently unavailable"
@@ -280,16 +388,16 @@ public class ServiceRequestHandler {
                 tracingContext, adapterName, serviceType, instance, requestExecutor)
             .doOnSuccess(response -> {
                 long duration = System.currentTimeMillis() - startTime;
-                String status = getResponseStatus(response);
+                int status = getResponseStatus(response);
                 long requestSize = estimateRequestSize(httpRequest);
                 long responseSize = estimateResponseSize(response);
-                recordRequestMetrics(serviceName, method, duration, status, requestSize, responseSize);
+                recordRequestMetrics(serviceType, method, duration, status, requestSize, responseSize);
             })
             .doOnError(error -> {
                 long duration = System.currentTimeMillis() - startTime;
-                String status = getErrorStatus(error);
+                int status = getErrorStatus(error);
                 long requestSize = estimateRequestSize(httpRequest);
-                recordRequestMetrics(serviceName, method, duration, status, requestSize, 0);
+                recordRequestMetrics(serviceType, method, duration, status, requestSize, 0);
             })
             .onErrorMap(UnsupportedOperationException.class, e ->
                 new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
@@ -382,19 +490,19 @@ public class ServiceRequestHandler {
      * 记录请求指标.
      */
     private void recordRequestMetrics(
-            final String service,
+            final ServiceType serviceType,
             final String method,
             final long duration,
-            final String status,
+            final int status,
             final long requestSize,
             final long responseSize) {
         if (metricsCollector == null) {
             return;
         }
         try {
-            metricsCollector.recordRequest(service, method, duration, status);
+            requestHandle(serviceType, method, status).record(duration);
             if (requestSize > 0 || responseSize > 0) {
-                metricsCollector.recordRequestSize(service, requestSize, responseSize);
+                metricsCollector.recordRequestSize(serviceType.name(), requestSize, responseSize);
             }
         } catch (Exception e) {
             logger.debug("Failed to record metrics: {}", e.getMessage());
@@ -402,29 +510,49 @@ public class ServiceRequestHandler {
     }
 
     /**
-     * 获取响应状态码.
+     * 获取请求指标句柄.
+     *
+     * <p>POST 请求的句柄按 (服务类型, 状态码) 持有，命中时不拼接标签也不查找缓存；
+     * 其他方法和无法识别的状态码直接向指标收集器解析。
      */
-    private String getResponseStatus(final ResponseEntity<?> response) {
+    private RequestMeterHandle requestHandle(final ServiceType serviceType, final String method, final int status) {
+        if (!"POST".equals(method) || status < MIN_STATUS || status >= MIN_STATUS + STATUS_SLOTS) {
+            return metricsCollector.requestHandle(serviceType.name(), method,
+                    status > 0 ? String.valueOf(status) : "unknown");
+        }
+        int slot = serviceType.ordinal() * STATUS_SLOTS + status - MIN_STATUS;
+        RequestMeterHandle handle = postRequestHandles.get(slot);
+        if (handle == null) {
+            handle = metricsCollector.requestHandle(serviceType.name(), method, String.valueOf(status));
+            postRequestHandles.set(slot, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * 获取响应状态码，响应为空时返回 0.
+     */
+    private int getResponseStatus(final ResponseEntity<?> response) {
         if (response == null) {
-            return "unknown";
+            return 0;
         }
-        return String.valueOf(response.getStatusCode().value());
+        return response.getStatusCode().value();
     }
 
     /**
      * 获取错误状态码.
      */
-    private String getErrorStatus(final Throwable error) {
+    private int getErrorStatus(final Throwable error) {
         if (error instanceof ResponseStatusException) {
-            return String.valueOf(((ResponseStatusException) error).getStatusCode().value());
+            return ((ResponseStatusException) error).getStatusCode().value();
         }
         if (error instanceof org.springframework.web.reactive.function.client.WebClientResponseException webEx) {
-            return String.valueOf(webEx.getStatusCode().value());
+            return webEx.getStatusCode().value();
         }
         if (error instanceof org.unreal.modelrouter.common.exception.DownstreamServiceException dsEx) {
-            return String.valueOf(dsEx.getStatusCode().value());
+            return dsEx.getStatusCode().value();
         }
-        return "500";
+        return HttpStatus.INTERNAL_SERVER_ERROR.value();
     }
 
     /**
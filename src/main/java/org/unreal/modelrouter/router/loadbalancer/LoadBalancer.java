@@ -58,5 +58,13 @@ public interface LoadBalancer {
      */
     default void recordCallFailure(final ModelRouterProperties.ModelInstance instance) { }
 
+    /**
+     * 实例已从路由表删除，释放该实例的统计状态
+     * @param instance 被删除的实例
+     */
+    default void onInstanceRemoved(final ModelRouterProperties.ModelInstance instance) {
+        // 默认空实现
+    }
+
 
 }
\ No newline at end of file
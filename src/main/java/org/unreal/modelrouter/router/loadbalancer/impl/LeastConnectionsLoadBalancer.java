@@ -84,6 +84,11 @@ public class LeastConnectionsLoadBalancer implements LoadBalancer {
         }
     }
 
+    @Override
+    public void onInstanceRemoved(final ModelRouterProperties.ModelInstance instance) {
+        connectionCounts.remove(getInstanceKey(instance));
+    }
+
     private String getInstanceKey(final ModelRouterProperties.ModelInstance instance) {
         return instance.getBaseUrl() + ":" + instance.getPath();
     }
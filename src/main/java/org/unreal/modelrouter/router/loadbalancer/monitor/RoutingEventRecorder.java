@@ -1,8 +1,13 @@
 package org.unreal.modelrouter.router.loadbalancer.monitor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.common.buffer.CoalescingEventPublisher;
+import org.unreal.modelrouter.common.buffer.EventRingBuffer;
+import reactor.core.publisher.Flux;
 
 import java.io.StringWriter;
 import java.time.Instant;
@@ -12,16 +17,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Consumer;
 
 /**
  * 路由事件记录器
- * 使用环形缓冲区存储最近的采样记录
+ * 使用预分配的无锁环形缓冲区存储最近的采样记录
  * 支持暂停/恢复监控和历史记录导出
  *
+ * 记录路径在请求线程上执行，只做采样判断和环形缓冲区写入；
+ * WebSocket 推送由 {@link CoalescingEventPublisher} 在独立线程中合并序列化，没有连接时不产生任何开销。
+ *
  * @author JAiRouter Team
  * @since 2.7.0
  */
@@ -34,7 +40,7 @@ public class RoutingEventRecorder {
     /**
      * 按服务类型分组的环形缓冲区
      */
-    private final Map<String, RingBuffer<RoutingEvent>> eventBuffers = new ConcurrentHashMap<>();
+    private final Map<String, EventRingBuffer<RoutingEvent>> eventBuffers = new ConcurrentHashMap<>();
 
     /**
      * 各服务类型的采样计数器
@@ -42,9 +48,9 @@ public class RoutingEventRecorder {
     private final Map<String, AtomicLong> samplingCounters = new ConcurrentHashMap<>();
 
     /**
-     * WebSocket 推送回调
+     * WebSocket 合并推送发布器
      */
-    private volatile Consumer<RoutingEvent> eventCallback;
+    private final CoalescingEventPublisher<RoutingEvent> publisher;
 
     /**
      * 监控暂停状态（全局）
@@ -59,14 +65,30 @@ public class RoutingEventRecorder {
     /**
      * JSON 序列化器
      */
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
-    public RoutingEventRecorder(RoutingMonitorConfig config) {
+    public RoutingEventRecorder(RoutingMonitorConfig config, ObjectMapper objectMapper) {
         this.config = config;
+        this.objectMapper = objectMapper;
+        this.publisher = new CoalescingEventPublisher<>("routing-monitor", objectMapper,
+            config.getPublishBufferSize(), config.getPublishBatchSize(),
+            config.getPublishIntervalMs(), config.getSessionQueueSize());
         log.info("RoutingEventRecorder initialized: enabled={}, sampleRate={}, historySize={}",
             config.isEnabled(), config.getSampleRate(), config.getHistorySize());
     }
 
+    @PostConstruct
+    public void start() {
+        if (config.isEnabled() && config.isWebsocketEnabled()) {
+            publisher.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdown();
+    }
+
     /**
      * 记录路由事件（带采样判断）
      *
@@ -97,24 +119,22 @@ public class RoutingEventRecorder {
         String serviceType = event.serviceType();
 
         // 获取或创建该服务类型的环形缓冲区
-        RingBuffer<RoutingEvent> buffer = eventBuffers.computeIfAbsent(
-            serviceType,
-            k -> new RingBuffer<>(config.getHistorySize())
-        );
+        EventRingBuffer<RoutingEvent> buffer = eventBuffers.get(serviceType);
+        if (buffer == null) {
+            buffer = eventBuffers.computeIfAbsent(serviceType, k -> new EventRingBuffer<>(config.getHistorySize()));
+        }
 
         // 添加到缓冲区
-        buffer.add(event);
-
-        // 触发 WebSocket 推送
-        if (config.isWebsocketEnabled() && eventCallback != null) {
-            try {
-                eventCallback.accept(event);
-            } catch (Exception e) {
-                log.debug("Failed to push event via WebSocket: {}", e.getMessage());
-            }
+        buffer.offer(event);
+
+        // 交给发布线程合并推送，没有 WebSocket 连接时直接返回
+        if (config.isWebsocketEnabled()) {
+            publisher.publish(event);
         }
 
-        log.debug("Recorded routing event: {}", event.toCompactString());
+        if (log.isDebugEnabled()) {
+            log.debug("Recorded routing event: {}", event.toCompactString());
+        }
         return true;
     }
 
@@ -135,10 +155,10 @@ public class RoutingEventRecorder {
         }
 
         // 使用计数器实现均匀采样
-        AtomicLong counter = samplingCounters.computeIfAbsent(
-            serviceType,
-            k -> new AtomicLong(0)
-        );
+        AtomicLong counter = samplingCounters.get(serviceType);
+        if (counter == null) {
+            counter = samplingCounters.computeIfAbsent(serviceType, k -> new AtomicLong(0));
+        }
 
         long count = counter.incrementAndGet();
         long interval = Math.max(1, Math.round(1.0 / sampleRate));
@@ -154,16 +174,11 @@ public class RoutingEventRecorder {
      * @return 历史记录列表（按时间倒序）
      */
     public List<RoutingEvent> getHistory(String serviceType, int limit) {
-        RingBuffer<RoutingEvent> buffer = eventBuffers.get(serviceType);
+        EventRingBuffer<RoutingEvent> buffer = eventBuffers.get(serviceType);
         if (buffer == null) {
             return Collections.emptyList();
         }
-
-        List<RoutingEvent> all = buffer.getAll();
-        int size = Math.min(limit, all.size());
-        List<RoutingEvent> result = new ArrayList<>(all.subList(0, size));
-        Collections.reverse(result); // 最新在前
-        return result;
+        return buffer.snapshot(limit);
     }
 
     /**
@@ -184,7 +199,7 @@ public class RoutingEventRecorder {
      * 获取指定服务类型的采样数量
      */
     public long getSampledCount(String serviceType) {
-        RingBuffer<RoutingEvent> buffer = eventBuffers.get(serviceType);
+        EventRingBuffer<RoutingEvent> buffer = eventBuffers.get(serviceType);
         return buffer != null ? buffer.size() : 0;
     }
 
@@ -193,7 +208,7 @@ public class RoutingEventRecorder {
      */
     public long getTotalSampledCount() {
         return eventBuffers.values().stream()
-            .mapToLong(RingBuffer::size)
+            .mapToLong(EventRingBuffer::size)
             .sum();
     }
 
@@ -201,10 +216,7 @@ public class RoutingEventRecorder {
      * 清空指定服务类型的历史记录
      */
     public void clearHistory(String serviceType) {
-        RingBuffer<RoutingEvent> buffer = eventBuffers.get(serviceType);
-        if (buffer != null) {
-            buffer.clear();
-        }
+        eventBuffers.computeIfPresent(serviceType, (k, buffer) -> new EventRingBuffer<>(buffer.capacity()));
         samplingCounters.getOrDefault(serviceType, new AtomicLong(0)).set(0);
         log.info("Cleared routing history for service: {}", serviceType);
     }
@@ -219,10 +231,20 @@ public class RoutingEventRecorder {
     }
 
     /**
-     * 设置 WebSocket 事件回调
+     * 订阅合并推送的事件帧
+     * 每个订阅者使用独立的有界队列，消费过慢时丢弃最旧的帧
+     *
+     * @return JSON 帧流
      */
-    public void setEventCallback(Consumer<RoutingEvent> callback) {
-        this.eventCallback = callback;
+    public Flux<String> subscribeEvents() {
+        return publisher.subscribe();
+    }
+
+    /**
+     * 获取 WebSocket 推送发布器
+     */
+    public CoalescingEventPublisher<RoutingEvent> getPublisher() {
+        return publisher;
     }
 
     /**
@@ -230,9 +252,10 @@ public class RoutingEventRecorder {
      */
     public void updateHistorySize(int newSize) {
         eventBuffers.forEach((serviceType, oldBuffer) -> {
-            RingBuffer<RoutingEvent> newBuffer = new RingBuffer<>(newSize);
-            for (RoutingEvent event : oldBuffer.getAll()) {
-                newBuffer.add(event);
+            EventRingBuffer<RoutingEvent> newBuffer = new EventRingBuffer<>(newSize);
+            List<RoutingEvent> events = oldBuffer.snapshot(newSize);
+            for (int i = events.size() - 1; i >= 0; i--) {
+                newBuffer.offer(events.get(i));
             }
             eventBuffers.put(serviceType, newBuffer);
         });
@@ -397,40 +420,4 @@ public class RoutingEventRecorder {
         double sampleRate,
         Map<String, List<RoutingEvent>> history
     ) {}
-
-    /**
-     * 环形缓冲区实现
-     */
-    private static class RingBuffer<T> {
-        private final CopyOnWriteArrayList<T> buffer;
-        private final int maxSize;
-        private volatile int head = 0;
-
-        RingBuffer(int maxSize) {
-            this.maxSize = maxSize;
-            this.buffer = new CopyOnWriteArrayList<>();
-        }
-
-        synchronized void add(T item) {
-            if (buffer.size() < maxSize) {
-                buffer.add(item);
-            } else {
-                buffer.set(head, item);
-                head = (head + 1) % maxSize;
-            }
-        }
-
-        public List<T> getAll() {
-            return new ArrayList<>(buffer);
-        }
-
-        public int size() {
-            return buffer.size();
-        }
-
-        public void clear() {
-            buffer.clear();
-            head = 0;
-        }
-    }
 }
@@ -42,6 +42,27 @@ public class RoutingMonitorConfig {
      */
     private long statsRefreshIntervalMs = 1000;
 
+    /**
+     * WebSocket 合并推送间隔(毫秒)
+     * 发布线程按此间隔把积攒的事件合并为一帧推送
+     */
+    private long publishIntervalMs = 250;
+
+    /**
+     * 每帧最多包含的事件数，积攒满一批时立即推送
+     */
+    private int publishBatchSize = 100;
+
+    /**
+     * 待推送事件缓冲区大小，超出时覆盖最旧的事件
+     */
+    private int publishBufferSize = 4096;
+
+    /**
+     * 每个 WebSocket 连接最多缓存的帧数，客户端消费过慢时丢弃最旧的帧
+     */
+    private int sessionQueueSize = 64;
+
     // Getters and Setters
 
     public boolean isEnabled() {
@@ -96,6 +117,38 @@ public class RoutingMonitorConfig {
         this.statsRefreshIntervalMs = statsRefreshIntervalMs;
     }
 
+    public long getPublishIntervalMs() {
+        return publishIntervalMs;
+    }
+
+    public void setPublishIntervalMs(long publishIntervalMs) {
+        this.publishIntervalMs = publishIntervalMs;
+    }
+
+    public int getPublishBatchSize() {
+        return publishBatchSize;
+    }
+
+    public void setPublishBatchSize(int publishBatchSize) {
+        this.publishBatchSize = publishBatchSize;
+    }
+
+    public int getPublishBufferSize() {
+        return publishBufferSize;
+    }
+
+    public void setPublishBufferSize(int publishBufferSize) {
+        this.publishBufferSize = publishBufferSize;
+    }
+
+    public int getSessionQueueSize() {
+        return sessionQueueSize;
+    }
+
+    public void setSessionQueueSize(int sessionQueueSize) {
+        this.sessionQueueSize = sessionQueueSize;
+    }
+
     /**
      * 获取配置摘要
      */
@@ -8,7 +8,6 @@ import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.reactive.socket.WebSocketSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 import java.time.Duration;
 import java.util.Map;
@@ -28,35 +27,10 @@ public class RoutingMonitorWebSocketHandler implements WebSocketHandler {
     private final RoutingMonitorService monitorService;
     private final ObjectMapper objectMapper;
 
-    /**
-     * 事件广播器 - 使用 Sinks.Many 实现多播
-     */
-    private final Sinks.Many<String> eventSink = Sinks.many().multicast().onBackpressureBuffer();
-
-    /**
-     * 注册事件回调到 EventRecorder
-     */
-    public void registerEventCallback() {
-        monitorService.getEventRecorder().setEventCallback(event -> {
-            try {
-                String json = objectMapper.writeValueAsString(event);
-                Sinks.EmitResult result = eventSink.tryEmitNext(json);
-                if (result.isFailure()) {
-                    log.debug("Failed to emit routing event: {}", result);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to serialize routing event: {}", e.getMessage());
-            }
-        });
-    }
-
     @Override
     public Mono<Void> handle(WebSocketSession session) {
         log.info("WebSocket client connected: {}", session.getId());
 
-        // 注册事件回调（首次连接时）
-        registerEventCallback();
-
         // 发送初始状态
         Mono<String> initialState = Mono.fromCallable(() -> {
             try {
@@ -76,8 +50,7 @@ public class RoutingMonitorWebSocketHandler implements WebSocketHandler {
                 .map(seq -> "{\"type\":\"heartbeat\",\"seq\":" + seq + "}");
 
         // 事件流
-        Flux<String> eventStream = eventSink.asFlux()
-                .onBackpressureLatest();
+        Flux<String> eventStream = monitorService.getEventRecorder().subscribeEvents();
 
         // 合并初始状态、心跳和事件流
         Flux<String> output = Flux.concat(
@@ -3,6 +3,7 @@ package org.unreal.modelrouter.router.model;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -19,18 +20,21 @@ import org.unreal.modelrouter.router.loadbalancer.LoadBalancer;
 import org.unreal.modelrouter.router.loadbalancer.LoadBalancerManager;
 import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingMonitorService;
 import org.unreal.modelrouter.router.ratelimit.RateLimitManager;
+import org.unreal.modelrouter.router.ratelimit.concurrency.AdaptiveConcurrencyLimiter;
 import org.unreal.modelrouter.monitor.tracing.wrapper.LoadBalancerTracingWrapper;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -85,6 +89,12 @@ public class ModelServiceRegistry {
     private volatile Map<String, Object> currentConfig;
     private volatile Map<String, ServiceRuntimeConfig> serviceConfigCache;
 
+    /**
+     * 上一次生效的 services 配置快照及按其实例顺序构建的实例对象，用于增量更新
+     */
+    private volatile Map<String, Map<String, Object>> serviceSources;
+    private volatile Map<String, List<ModelRouterProperties.ModelInstance>> builtInstances = Map.of();
+
     public ModelServiceRegistry(final ModelRouterProperties properties,
                                 final ServiceStateManager serviceStateManager,
                                 final RateLimitManager rateLimitManager,
@@ -107,7 +117,7 @@ public class ModelServiceRegistry {
         this.configConverterHelper = configConverterHelper;
         this.webClientCacheManager = webClientCacheManager;
         this.routingMonitorService = routingMonitorService;
-        this.serviceConfigCache = new ConcurrentHashMap<>();
+        this.serviceConfigCache = Map.of();
         this.selectInstanceOptimizer = new SelectInstanceOptimizer(serviceStateManager, circuitBreakerManager);
         this.instanceSelector = new ServiceInstanceSelector(
                 serviceStateManager, rateLimitManager, circuitBreakerManager, routingMonitorService);
@@ -136,7 +146,14 @@ public class ModelServiceRegistry {
         }
     }
 
-    public void refreshFromMergedConfig() {
+    /**
+     * 从合并配置刷新路由表
+     *
+     * 与上一次生效的配置做结构化对比，只重建变化的服务：未变化的服务和实例对象原样复用，
+     * 负载均衡器只在其配置变化或服务首次出现时重建，删除的实例释放限流器和熔断器。
+     * 新的路由表构建完成后一次性发布，读取方不会看到中间状态。
+     */
+    public synchronized void refreshFromMergedConfig() {
         LOGGER.info("正在刷新运行时配置...");
 
         try {
@@ -153,16 +170,161 @@ public class ModelServiceRegistry {
             }
 
             this.currentConfig = mergedConfig;
+            Map<String, Map<String, Object>> services = RoutingTableDiff.snapshot(servicesOf(mergedConfig));
+            RoutingTableDiff diff = RoutingTableDiff.compute(serviceSources, services);
+            if (diff.isEmpty() && serviceSources != null) {
+                LOGGER.info("服务配置未变化，保留当前路由表，共 {} 个服务", serviceConfigCache.size());
+                return;
+            }
+
             updateOriginalPropertiesFromConfig(mergedConfig);
-            this.serviceConfigCache = configBuilder.rebuildServiceConfigCache(mergedConfig);
-            reinitializeLoadBalancers();
+            applyRoutingDiff(services, diff);
 
-            LOGGER.info("运行时配置刷新完成，当前包含 {} 个服务", serviceConfigCache.size());
+            LOGGER.info("运行时配置刷新完成，当前包含 {} 个服务，变化实例 {} 个",
+                    serviceConfigCache.size(), diff.changedInstanceCount());
         } catch (Exception e) {
             LOGGER.error("刷新运行时配置失败", e);
         }
     }
 
+    /**
+     * 按差异构建新路由表并发布
+     */
+    private void applyRoutingDiff(final Map<String, Map<String, Object>> services, final RoutingTableDiff diff) {
+        Map<String, ServiceRuntimeConfig> previousCache = serviceConfigCache;
+        Map<String, List<ModelRouterProperties.ModelInstance>> previousBuilt = builtInstances;
+        Map<String, ServiceRuntimeConfig> nextCache = new HashMap<>();
+        Map<String, List<ModelRouterProperties.ModelInstance>> nextBuilt = new HashMap<>();
+        List<Runnable> sideEffects = new ArrayList<>();
+
+        for (Map.Entry<String, Map<String, Object>> entry : services.entrySet()) {
+            String serviceKey = entry.getKey();
+            RoutingTableDiff.ServiceChange change = diff.getChange(serviceKey);
+            ServiceRuntimeConfig previous = previousCache.get(serviceKey);
+            List<ModelRouterProperties.ModelInstance> previousInstances = previousBuilt.get(serviceKey);
+
+            if (change.status() == RoutingTableDiff.Status.UNCHANGED && previous != null
+                    && previousInstances != null) {
+                nextCache.put(serviceKey, previous);
+                nextBuilt.put(serviceKey, previousInstances);
+                continue;
+            }
+
+            // 以配置内容为键索引旧实例，内容相同的实例直接复用
+            Map<Map<String, Object>, Deque<ModelRouterProperties.ModelInstance>> reusable = new HashMap<>();
+            Map<String, Object> previousSource = serviceSources != null ? serviceSources.get(serviceKey) : null;
+            if (previousSource != null && previousInstances != null) {
+                List<Map<String, Object>> sources = RoutingTableDiff.instancesOf(previousSource);
+                for (int i = 0; i < sources.size() && i < previousInstances.size(); i++) {
+                    reusable.computeIfAbsent(sources.get(i), key -> new ArrayDeque<>()).add(previousInstances.get(i));
+                }
+            }
+
+            ServiceRuntimeConfig runtimeConfig;
+            try {
+                runtimeConfig = configBuilder.buildServiceRuntimeConfig(entry.getValue(), instanceMap -> {
+                    Deque<ModelRouterProperties.ModelInstance> candidates = reusable.get(instanceMap);
+                    return candidates != null && !candidates.isEmpty()
+                            ? candidates.poll() : configConverterHelper.convertMapToInstance(instanceMap);
+                });
+            } catch (Exception e) {
+                LOGGER.warn("构建服务 {} 的运行时配置失败: {}", serviceKey, e.getMessage());
+                continue;
+            }
+            nextCache.put(serviceKey, runtimeConfig);
+            nextBuilt.put(serviceKey, Collections.unmodifiableList(new ArrayList<>(runtimeConfig.getInstances())));
+
+            ServiceType serviceType = serviceTypeResolver.parseServiceType(serviceKey);
+            if (serviceType == null) {
+                continue;
+            }
+            boolean reinitialize = !runtimeConfig.getInstances().isEmpty() && (change.loadBalanceChanged()
+                    || previous == null || previous.getInstances().isEmpty());
+            if (reinitialize) {
+                sideEffects.add(() -> loadBalancerManager.reinitializeLoadBalancer(
+                        serviceType, runtimeConfig.getLoadBalanceConfig()));
+            }
+            sideEffects.add(() -> syncInstanceState(serviceType, change, entry.getValue(),
+                    runtimeConfig.getInstances(), reusable));
+        }
+
+        for (Map.Entry<String, RoutingTableDiff.ServiceChange> entry : diff.getChanges().entrySet()) {
+            ServiceType serviceType = serviceTypeResolver.parseServiceType(entry.getKey());
+            List<ModelRouterProperties.ModelInstance> previousInstances = previousBuilt.get(entry.getKey());
+            if (entry.getValue().status() == RoutingTableDiff.Status.REMOVED && serviceType != null
+                    && previousInstances != null) {
+                sideEffects.add(() -> previousInstances.forEach(instance -> releaseInstanceState(serviceType, instance)));
+            }
+        }
+
+        this.serviceConfigCache = Collections.unmodifiableMap(nextCache);
+        this.builtInstances = nextBuilt;
+        this.serviceSources = services;
+
+        for (Runnable sideEffect : sideEffects) {
+            try {
+                sideEffect.run();
+            } catch (Exception e) {
+                LOGGER.warn("同步实例运行时状态时发生错误: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 同步变化实例的运行时状态：新增和限流配置变化的实例更新限流器，删除的实例释放状态
+     */
+    private void syncInstanceState(final ServiceType serviceType,
+                                   final RoutingTableDiff.ServiceChange change,
+                                   final Map<String, Object> serviceSource,
+                                   final List<ModelRouterProperties.ModelInstance> instances,
+                                   final Map<Map<String, Object>, Deque<ModelRouterProperties.ModelInstance>> leftovers) {
+        Set<Map<String, Object>> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        added.addAll(change.added());
+        Set<Map<String, Object>> rateLimitChanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (RoutingTableDiff.InstanceUpdate update : change.updated()) {
+            if (!Objects.equals(update.previous().get("rateLimit"), update.current().get("rateLimit"))) {
+                rateLimitChanged.add(update.current());
+            }
+        }
+
+        List<Map<String, Object>> sources = RoutingTableDiff.instancesOf(serviceSource);
+        for (int i = 0; i < sources.size() && i < instances.size(); i++) {
+            ModelRouterProperties.ModelInstance instance = instances.get(i);
+            if ((added.contains(sources.get(i)) && instance.getRateLimit() != null)
+                    || rateLimitChanged.contains(sources.get(i))) {
+                rateLimitManager.setInstanceRateLimiter(serviceType, instance, instance.getRateLimit());
+            }
+        }
+
+        for (Map<String, Object> removed : change.removed()) {
+            Deque<ModelRouterProperties.ModelInstance> candidates = leftovers.get(removed);
+            if (candidates != null && !candidates.isEmpty()) {
+                releaseInstanceState(serviceType, candidates.poll());
+            }
+        }
+    }
+
+    /**
+     * 释放已删除实例的限流器、熔断器和负载均衡状态
+     */
+    private void releaseInstanceState(final ServiceType serviceType,
+                                      final ModelRouterProperties.ModelInstance instance) {
+        rateLimitManager.removeInstanceRateLimiter(serviceType, instance);
+        if (instance.getInstanceId() != null || instance.getBaseUrl() != null) {
+            circuitBreakerManager.resetCircuitBreaker(instance.getInstanceId(), instance.getBaseUrl());
+        }
+        LoadBalancer loadBalancer = loadBalancerManager.getLoadBalancer(serviceType);
+        if (loadBalancer != null) {
+            loadBalancer.onInstanceRemoved(instance);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> servicesOf(final Map<String, Object> config) {
+        Object services = config.get("services");
+        return services instanceof Map ? (Map<String, Object>) services : Collections.emptyMap();
+    }
+
     /**
      * 选择服务实例
      */
@@ -231,6 +393,26 @@ public class ModelServiceRegistry {
         return getClient(serviceType, modelName, null);
     }
 
+    /**
+     * 获取已选中实例的 WebClient，不再重新选择实例
+     *
+     * @param instance 已选中的实例
+     * @return 实例对应的 WebClient
+     */
+    public WebClient getClient(final ModelRouterProperties.ModelInstance instance) {
+        return webClientCacheManager.getOrCreate(instance.getBaseUrl());
+    }
+
+    /**
+     * 注入实例级自适应并发限制器，供实例选择时跳过已饱和的实例
+     *
+     * @param concurrencyLimiter 自适应并发限制器
+     */
+    @Autowired(required = false)
+    public void setConcurrencyLimiter(final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        instanceSelector.setConcurrencyLimiter(concurrencyLimiter);
+    }
+
     public String getModelPath(final ServiceType serviceType, final String modelName) {
         String serviceKey = serviceTypeResolver.getServiceConfigKey(serviceType);
         ServiceRuntimeConfig runtimeConfig = serviceConfigCache.get(serviceKey);
@@ -368,20 +550,6 @@ public class ModelServiceRegistry {
         LOGGER.debug("所有管理器初始化完成");
     }
 
-    private void reinitializeLoadBalancers() {
-        try {
-            for (Map.Entry<String, ServiceRuntimeConfig> entry : serviceConfigCache.entrySet()) {
-                ServiceType serviceType = serviceTypeResolver.parseServiceType(entry.getKey());
-                if (serviceType != null && !entry.getValue().getInstances().isEmpty()) {
-                    loadBalancerManager.reinitializeLoadBalancer(serviceType, entry.getValue().getLoadBalanceConfig());
-                }
-            }
-            LOGGER.debug("负载均衡器重新初始化完成");
-        } catch (Exception e) {
-            LOGGER.warn("重新初始化负载均衡器时发生错误: {}", e.getMessage());
-        }
-    }
-
     @SuppressWarnings("unchecked")
     private void updateOriginalPropertiesFromConfig(final Map<String, Object> mergedConfig) {
         if (mergedConfig == null || !mergedConfig.containsKey("services")) {
@@ -0,0 +1,252 @@
+package org.unreal.modelrouter.router.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 路由表结构化差异
+ *
+ * 对比前后两份 services 配置（原始 Map 形式），按服务给出变化：新增、删除、未变化或修改；
+ * 修改的服务再按实例细分为未变化、更新（标识相同、内容不同）、新增和删除。
+ * 实例先按完整内容匹配，剩余的再按标识（instanceId，缺失时为 name@baseUrl+path）匹配。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class RoutingTableDiff {
+
+    private static final String INSTANCES = "instances";
+    private static final String LOAD_BALANCE = "loadBalance";
+
+    private final Map<String, ServiceChange> changes;
+
+    private RoutingTableDiff(final Map<String, ServiceChange> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * 计算差异
+     *
+     * @param previous 上一次生效的 services 配置，可为空
+     * @param next     新的 services 配置
+     */
+    public static RoutingTableDiff compute(final Map<String, Map<String, Object>> previous,
+                                           final Map<String, Map<String, Object>> next) {
+        Map<String, Map<String, Object>> before = previous != null ? previous : Collections.emptyMap();
+        Map<String, ServiceChange> changes = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Map<String, Object>> entry : next.entrySet()) {
+            Map<String, Object> oldService = before.get(entry.getKey());
+            Map<String, Object> newService = entry.getValue();
+            if (oldService == null) {
+                changes.put(entry.getKey(), ServiceChange.added(instancesOf(newService)));
+            } else if (oldService.equals(newService)) {
+                changes.put(entry.getKey(), ServiceChange.UNCHANGED);
+            } else {
+                changes.put(entry.getKey(), compareService(oldService, newService));
+            }
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : before.entrySet()) {
+            if (!next.containsKey(entry.getKey())) {
+                changes.put(entry.getKey(), ServiceChange.removed(instancesOf(entry.getValue())));
+            }
+        }
+        return new RoutingTableDiff(changes);
+    }
+
+    private static ServiceChange compareService(final Map<String, Object> oldService,
+                                                final Map<String, Object> newService) {
+        boolean loadBalanceChanged = !Objects.equals(oldService.get(LOAD_BALANCE), newService.get(LOAD_BALANCE));
+        boolean settingsChanged = !withoutInstances(oldService).equals(withoutInstances(newService));
+
+        // 先按完整内容匹配未变化的实例
+        Map<Map<String, Object>, Integer> remainingOld = new HashMap<>();
+        for (Map<String, Object> instance : instancesOf(oldService)) {
+            remainingOld.merge(instance, 1, Integer::sum);
+        }
+        List<Map<String, Object>> unmatchedNew = new ArrayList<>();
+        int unchanged = 0;
+        for (Map<String, Object> instance : instancesOf(newService)) {
+            Integer count = remainingOld.get(instance);
+            if (count != null) {
+                unchanged++;
+                if (count == 1) {
+                    remainingOld.remove(instance);
+                } else {
+                    remainingOld.put(instance, count - 1);
+                }
+            } else {
+                unmatchedNew.add(instance);
+            }
+        }
+
+        // 剩余实例按标识配对，配对成功视为更新
+        Map<String, Deque<Map<String, Object>>> oldByIdentity = new HashMap<>();
+        for (Map<String, Object> instance : instancesOf(oldService)) {
+            Integer count = remainingOld.get(instance);
+            if (count == null) {
+                continue;
+            }
+            oldByIdentity.computeIfAbsent(identityOf(instance), key -> new ArrayDeque<>()).add(instance);
+            if (count == 1) {
+                remainingOld.remove(instance);
+            } else {
+                remainingOld.put(instance, count - 1);
+            }
+        }
+        List<Map<String, Object>> added = new ArrayList<>();
+        List<InstanceUpdate> updated = new ArrayList<>();
+        for (Map<String, Object> instance : unmatchedNew) {
+            Deque<Map<String, Object>> candidates = oldByIdentity.get(identityOf(instance));
+            if (candidates != null && !candidates.isEmpty()) {
+                updated.add(new InstanceUpdate(candidates.poll(), instance));
+            } else {
+                added.add(instance);
+            }
+        }
+        List<Map<String, Object>> removed = new ArrayList<>();
+        oldByIdentity.values().forEach(removed::addAll);
+
+        return new ServiceChange(Status.MODIFIED, settingsChanged, loadBalanceChanged, unchanged,
+                added, removed, updated);
+    }
+
+    private static Map<String, Object> withoutInstances(final Map<String, Object> service) {
+        Map<String, Object> copy = new HashMap<>(service);
+        copy.remove(INSTANCES);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> instancesOf(final Map<String, Object> service) {
+        Object instances = service.get(INSTANCES);
+        if (!(instances instanceof List<?> list)) {
+            return Collections.emptyList();
+        }
+        List<Map<String, Object>> result = new ArrayList<>(list.size());
+        for (Object instance : list) {
+            if (instance instanceof Map) {
+                result.add((Map<String, Object>) instance);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 实例标识：instanceId，缺失时为 name@baseUrl+path
+     */
+    static String identityOf(final Map<String, Object> instance) {
+        Object instanceId = instance.get("instanceId");
+        if (instanceId instanceof String id && !id.isBlank()) {
+            return id;
+        }
+        return instance.get("name") + "@" + instance.get("baseUrl") + Objects.toString(instance.get("path"), "");
+    }
+
+    /**
+     * 生成不可变的深拷贝，作为下一次对比的基准，避免配置 Map 被原地修改后对比失真
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Map<String, Object>> snapshot(final Map<String, Object> services) {
+        Map<String, Map<String, Object>> copy = new LinkedHashMap<>();
+        if (services != null) {
+            for (Map.Entry<String, Object> entry : services.entrySet()) {
+                if (entry.getValue() instanceof Map) {
+                    copy.put(entry.getKey(), (Map<String, Object>) deepCopy(entry.getValue()));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static Object deepCopy(final Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, item) -> copy.put(key, deepCopy(item)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(item -> copy.add(deepCopy(item)));
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    /**
+     * 各服务的变化，包括已删除的服务
+     */
+    public Map<String, ServiceChange> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * 获取指定服务的变化，服务在前后配置中都不存在时返回 null
+     */
+    public ServiceChange getChange(final String serviceKey) {
+        return changes.get(serviceKey);
+    }
+
+    /**
+     * 是否没有任何变化
+     */
+    public boolean isEmpty() {
+        return changes.values().stream().allMatch(change -> change.status() == Status.UNCHANGED);
+    }
+
+    /**
+     * 变化的实例总数（新增 + 删除 + 更新）
+     */
+    public int changedInstanceCount() {
+        return changes.values().stream()
+                .mapToInt(change -> change.added().size() + change.removed().size() + change.updated().size())
+                .sum();
+    }
+
+    /**
+     * 服务变化类型
+     */
+    public enum Status {
+        ADDED, REMOVED, UNCHANGED, MODIFIED
+    }
+
+    /**
+     * 实例更新：标识相同、内容不同
+     */
+    public record InstanceUpdate(Map<String, Object> previous, Map<String, Object> current) {
+    }
+
+    /**
+     * 单个服务的变化
+     *
+     * @param status             变化类型
+     * @param settingsChanged    实例以外的配置（适配器、限流、熔断、降级、负载均衡）是否变化
+     * @param loadBalanceChanged 负载均衡配置是否变化
+     * @param unchangedInstances 内容未变化的实例数
+     * @param added              新增的实例
+     * @param removed            删除的实例
+     * @param updated            更新的实例
+     */
+    public record ServiceChange(Status status, boolean settingsChanged, boolean loadBalanceChanged,
+                                int unchangedInstances, List<Map<String, Object>> added,
+                                List<Map<String, Object>> removed, List<InstanceUpdate> updated) {
+
+        static final ServiceChange UNCHANGED = new ServiceChange(Status.UNCHANGED, false, false, 0,
+                List.of(), List.of(), List.of());
+
+        static ServiceChange added(final List<Map<String, Object>> instances) {
+            return new ServiceChange(Status.ADDED, true, true, 0, instances, List.of(), List.of());
+        }
+
+        static ServiceChange removed(final List<Map<String, Object>> instances) {
+            return new ServiceChange(Status.REMOVED, true, true, 0, List.of(), instances, List.of());
+        }
+    }
+}
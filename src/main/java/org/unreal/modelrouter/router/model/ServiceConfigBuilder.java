@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -74,15 +75,28 @@ public class ServiceConfigBuilder {
      * @param serviceConfigMap 服务配置Map
      * @return 运行时配置对象
      */
-    @SuppressWarnings("unchecked")
     public ServiceRuntimeConfig buildServiceRuntimeConfig(final Map<String, Object> serviceConfigMap) {
+        return buildServiceRuntimeConfig(serviceConfigMap, configConverterHelper::convertMapToInstance);
+    }
+
+    /**
+     * 构建服务运行时配置，实例对象由调用方解析（用于增量更新时复用未变化的实例）
+     *
+     * @param serviceConfigMap 服务配置Map
+     * @param instanceResolver 实例配置Map到实例对象的解析函数
+     * @return 运行时配置对象
+     */
+    @SuppressWarnings("unchecked")
+    public ServiceRuntimeConfig buildServiceRuntimeConfig(
+            final Map<String, Object> serviceConfigMap,
+            final Function<Map<String, Object>, ModelRouterProperties.ModelInstance> instanceResolver) {
         ServiceRuntimeConfig runtimeConfig = new ServiceRuntimeConfig();
 
         // 解析实例列表
         if (serviceConfigMap.containsKey("instances")) {
             List<Map<String, Object>> instanceList = (List<Map<String, Object>>) serviceConfigMap.get("instances");
             List<ModelRouterProperties.ModelInstance> instances = instanceList.stream()
-                    .map(configConverterHelper::convertMapToInstance)
+                    .map(instanceResolver)
                     .collect(Collectors.toList());
             runtimeConfig.setInstances(instances);
         } else {
@@ -9,7 +9,10 @@ import org.unreal.modelrouter.router.circuitbreaker.CircuitBreakerManager;
 import org.unreal.modelrouter.router.loadbalancer.LoadBalancer;
 import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingMonitorService;
 import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import org.unreal.modelrouter.router.ratelimit.RateLimitDecision;
+import org.unreal.modelrouter.router.ratelimit.RateLimitExceededException;
 import org.unreal.modelrouter.router.ratelimit.RateLimitManager;
+import org.unreal.modelrouter.router.ratelimit.concurrency.AdaptiveConcurrencyLimiter;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +30,7 @@ public class ServiceInstanceSelector {
     private final RateLimitManager rateLimitManager;
     private final CircuitBreakerManager circuitBreakerManager;
     private final RoutingMonitorService routingMonitorService;
+    private volatile AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     public ServiceInstanceSelector(final ServiceStateManager serviceStateManager,
                                    final RateLimitManager rateLimitManager,
@@ -39,7 +43,18 @@ public class ServiceInstanceSelector {
     }
 
     /**
-     * 选择实例并进行实例级限流检查
+     * 设置实例级自适应并发限制器，选择实例时优先跳过已饱和的实例
+     *
+     * @param concurrencyLimiter 自适应并发限制器
+     */
+    public void setConcurrencyLimiter(final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * 选择实例并执行多级限流（实例 > 服务 > 全局 > 客户端IP）
+     * 实例级拒绝时换下一个实例；服务、全局或客户端IP级拒绝与实例无关，直接以 429 拒绝请求，
+     * 尝试过的实例都被实例级拒绝时同样返回 429，Retry-After 取其中最短的等待时间
      *
      * @param availableInstances 可用实例列表
      * @param loadBalancer 负载均衡器
@@ -47,6 +62,7 @@ public class ServiceInstanceSelector {
      * @param serviceType 服务类型
      * @param modelName 模型名称
      * @return 选中的实例，如果无可用实例则返回null
+     * @throws RateLimitExceededException 被限流拒绝时抛出
      */
     public ModelRouterProperties.ModelInstance selectWithRateLimit(
             final List<ModelRouterProperties.ModelInstance> availableInstances,
@@ -55,8 +71,10 @@ public class ServiceInstanceSelector {
             final ModelServiceRegistry.ServiceType serviceType,
             final String modelName) {
 
-        List<ModelRouterProperties.ModelInstance> candidateInstances = new ArrayList<>(availableInstances);
+        List<ModelRouterProperties.ModelInstance> candidateInstances = withConcurrencyCapacity(
+                availableInstances, serviceType);
         int maxAttempts = Math.min(candidateInstances.size(), 3);
+        long instanceRetryAfter = -1;
 
         for (int attempt = 0; attempt < maxAttempts; attempt++) {
             if (candidateInstances.isEmpty()) {
@@ -66,22 +84,65 @@ public class ServiceInstanceSelector {
             ModelRouterProperties.ModelInstance candidate = loadBalancer.selectInstance(
                     candidateInstances, clientIp, serviceType.name().toLowerCase());
 
-            // 实例级限流检查
             RateLimitContext instanceContext = new RateLimitContext(
                     serviceType, modelName, clientIp, 1,
                     candidate.getInstanceId(), candidate.getBaseUrl());
+            RateLimitDecision decision = rateLimitManager.acquire(instanceContext);
 
-            if (!rateLimitManager.tryAcquireInstance(instanceContext)) {
-                LOGGER.warn("Instance rate limit exceeded for instance: {}, trying next instance",
-                        candidate.getInstanceId());
-                candidateInstances.remove(candidate);
-                continue;
+            if (decision.allowed()) {
+                return candidate;
+            }
+            if (decision.deniedLevel() != RateLimitDecision.Level.INSTANCE) {
+                throw new RateLimitExceededException(decision.deniedLevel(),
+                        decision.deniedLevel() + " rate limit exceeded for model '" + modelName + "'",
+                        decision.retryAfterSeconds());
             }
+            // 限流拒绝由限流管理器计数并限频输出，这里不逐次输出 WARN，避免过载时放大日志 I/O
+            LOGGER.debug("Instance rate limit exceeded for instance: {}, trying next instance",
+                    candidate.getInstanceId());
+            instanceRetryAfter = shorterRetryAfter(instanceRetryAfter, decision.retryAfterSeconds());
+            candidateInstances.remove(candidate);
+        }
+
+        if (maxAttempts > 0) {
+            throw new RateLimitExceededException(RateLimitDecision.Level.INSTANCE,
+                    "All instances rate limited for model '" + modelName + "'", instanceRetryAfter);
+        }
+        return null;
+    }
 
+    /**
+     * 取两个重试等待时间中较短的一个，-1 表示无法估计
+     */
+    private static long shorterRetryAfter(final long current, final long candidate) {
+        if (current < 0) {
             return candidate;
         }
+        return candidate < 0 ? current : Math.min(current, candidate);
+    }
 
-        return null;
+    /**
+     * 过滤掉已达自适应并发上限的实例；全部饱和时保留所有实例，由调用处排队或拒绝
+     */
+    private List<ModelRouterProperties.ModelInstance> withConcurrencyCapacity(
+            final List<ModelRouterProperties.ModelInstance> availableInstances,
+            final ModelServiceRegistry.ServiceType serviceType) {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter == null || !limiter.isEnabled()) {
+            return new ArrayList<>(availableInstances);
+        }
+        List<ModelRouterProperties.ModelInstance> unsaturated = new ArrayList<>(availableInstances.size());
+        for (ModelRouterProperties.ModelInstance instance : availableInstances) {
+            if (limiter.hasCapacity(serviceType, instance)) {
+                unsaturated.add(instance);
+            }
+        }
+        if (unsaturated.isEmpty()) {
+            LOGGER.debug("All {} instances of {} are at their concurrency limit",
+                    availableInstances.size(), serviceType);
+            return new ArrayList<>(availableInstances);
+        }
+        return unsaturated;
     }
 
     /**
@@ -0,0 +1,44 @@
+package org.unreal.modelrouter.router.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * 多级限流判定结果
+ *
+ * @param allowed 是否允许通过
+ * @param deniedLevel 拒绝请求的限流级别，允许时为 null
+ * @param retryAfter 拒绝级别估计的重试等待时间，允许或无法估计时为 null
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public record RateLimitDecision(boolean allowed, Level deniedLevel, Duration retryAfter) {
+
+    private static final RateLimitDecision ALLOWED = new RateLimitDecision(true, null, null);
+
+    /**
+     * 限流级别，按判定顺序排列
+     */
+    public enum Level {
+        INSTANCE, SERVICE, GLOBAL, CLIENT_IP
+    }
+
+    public static RateLimitDecision allow() {
+        return ALLOWED;
+    }
+
+    public static RateLimitDecision deny(final Level level, final Duration retryAfter) {
+        return new RateLimitDecision(false, level, retryAfter);
+    }
+
+    /**
+     * 以秒为单位的重试等待时间（向上取整，至少 1 秒），可直接用作 Retry-After 响应头
+     * @return 秒数，无法估计时为 -1
+     */
+    public long retryAfterSeconds() {
+        if (retryAfter == null) {
+            return -1;
+        }
+        long seconds = retryAfter.toSeconds();
+        return Math.max(1, retryAfter.toNanosPart() > 0 ? seconds + 1 : seconds);
+    }
+}
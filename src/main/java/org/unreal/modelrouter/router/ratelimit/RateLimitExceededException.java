@@ -0,0 +1,41 @@
+package org.unreal.modelrouter.router.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 多级限流拒绝请求时抛出，响应 429；能估计重试等待时间时带 Retry-After 头
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class RateLimitExceededException extends ResponseStatusException {
+
+    private final RateLimitDecision.Level deniedLevel;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(final RateLimitDecision.Level deniedLevel, final String reason,
+                                      final long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, reason);
+        this.deniedLevel = deniedLevel;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public RateLimitDecision.Level getDeniedLevel() {
+        return deniedLevel;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfterSeconds > 0) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return headers;
+    }
+}
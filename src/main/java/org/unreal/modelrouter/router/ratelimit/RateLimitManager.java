@@ -9,14 +9,19 @@ import org.unreal.modelrouter.router.factory.ComponentFactory;
 import org.unreal.modelrouter.router.model.ModelRouterProperties;
 import org.unreal.modelrouter.router.model.ModelServiceRegistry;
 
+import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 统一限流管理器
  * 支持：实例级 > 服务级 > 全局级 三层限流
+ * 多级判定采用预留/确认/撤销，任一级拒绝时归还之前各级已扣除的令牌
  * 使用 ComponentFactory 创建限流器，彻底消除递归问题
  *
  * v2.7.10 优化：使用 Caffeine 缓存替代 ConcurrentHashMap 存储客户端 IP 限流器
@@ -24,6 +29,8 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class RateLimitManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitManager.class);
+    private static final RateLimitDecision.Level[] LEVELS = RateLimitDecision.Level.values();
+    private static final long DENIAL_LOG_INTERVAL_NANOS = 10_000_000_000L;
 
     private final ComponentFactory componentFactory;
     private final ServiceTypeResolver serviceTypeResolver;
@@ -40,6 +47,11 @@ public class RateLimitManager {
     // v2.7.10: 使用 Caffeine 缓存替代 ConcurrentHashMap，解决内存泄漏风险
     private final ClientIpRateLimiterCache clientIpRateLimiterCache = new ClientIpRateLimiterCache();
 
+    /* ---------------- 拒绝计数 ---------------- */
+    private final LongAdder[] denialCounts = newAdders();
+    private final LongAdder[] pendingDenials = newAdders();
+    private final AtomicLongArray lastDenialLog = new AtomicLongArray(initialDenialLogTimes());
+
     public RateLimitManager(final ComponentFactory componentFactory,
                             final ServiceTypeResolver serviceTypeResolver,
                             final ConfigConverterHelper configConverterHelper,
@@ -113,32 +125,75 @@ public class RateLimitManager {
      * @return 是否通过限流检查
      */
     public boolean tryAcquireWithPriority(final RateLimitContext context) {
-        /* 1. 实例级 */
-        if (!tryAcquireInstance(context)) {
-            LOGGER.warn("Instance limit denied");
-            return false;
-        }
+        return acquire(context).allowed();
+    }
 
-        /* 2. 服务级 */
-        if (!tryAcquire(context)) {
-            LOGGER.warn("Service limit denied");
-            return false;
+    /**
+     * 原子地执行多级限流：依次在实例、服务、全局、客户端IP各级预留令牌，
+     * 任一级拒绝时撤销之前各级的预留，被拒绝的请求不消耗任何一级的名额；全部通过后确认预留。
+     * @param context 限流上下文
+     * @return 判定结果，拒绝时包含拒绝级别和估计的重试等待时间
+     */
+    public RateLimitDecision acquire(final RateLimitContext context) {
+        if (context == null) {
+            return RateLimitDecision.allow();
         }
-
-        /* 3. 全局级 */
-        if (globalLimiter != null && !globalLimiter.tryAcquire(context)) {
-            LOGGER.warn("Global limit denied");
-            return false;
+        RateLimiter[] limiters = {
+                resolveInstanceLimiter(context),
+                serviceLimiters.get(context.getServiceType()),
+                globalLimiter,
+                resolveClientIpLimiter(context)
+        };
+        RateLimitReservation[] reservations = new RateLimitReservation[LEVELS.length];
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (limiters[i] == null) {
+                continue;
+            }
+            RateLimitReservation reservation = limiters[i].reserve(context);
+            if (!reservation.isGranted()) {
+                for (int j = i - 1; j >= 0; j--) {
+                    if (reservations[j] != null) {
+                        reservations[j].rollback();
+                    }
+                }
+                recordDenial(LEVELS[i]);
+                return RateLimitDecision.deny(LEVELS[i], reservation.getRetryAfter());
+            }
+            reservations[i] = reservation;
+        }
+        for (RateLimitReservation reservation : reservations) {
+            if (reservation != null) {
+                reservation.commit();
+            }
         }
+        return RateLimitDecision.allow();
+    }
 
-        /* 4. 客户端IP级 */
-        if (!tryAcquireClientIp(context)) {
-            LOGGER.warn("Client IP limit denied for IP: {}", context.getClientIp());
-            return false;
+    /**
+     * 各级限流累计拒绝次数
+     * @return 级别名到拒绝次数的映射
+     */
+    public Map<String, Long> getDenialCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (RateLimitDecision.Level level : LEVELS) {
+            counts.put(level.name().toLowerCase(), denialCounts[level.ordinal()].sum());
         }
+        return counts;
+    }
 
-        LOGGER.debug("All levels passed");
-        return true;
+    /**
+     * 记录一次拒绝；拒绝日志按级别限频，每个间隔最多输出一条汇总，避免过载时产生大量日志 I/O
+     */
+    private void recordDenial(final RateLimitDecision.Level level) {
+        int index = level.ordinal();
+        denialCounts[index].increment();
+        pendingDenials[index].increment();
+        long now = System.nanoTime();
+        long last = lastDenialLog.get(index);
+        if (now - last >= DENIAL_LOG_INTERVAL_NANOS && lastDenialLog.compareAndSet(index, last, now)) {
+            LOGGER.warn("{} rate limit denied {} request(s) in the last {}s", level,
+                    pendingDenials[index].sumThenReset(), DENIAL_LOG_INTERVAL_NANOS / 1_000_000_000L);
+        }
     }
 
     /* ---------------- 单一级别限流 ---------------- */
@@ -162,11 +217,7 @@ public class RateLimitManager {
      * @return 是否获取成功
      */
     public boolean tryAcquireInstance(final RateLimitContext context) {
-        if (context == null || !context.hasInstanceInfo()) {
-            return true;
-        }
-        String key = generateInstanceKey(context.getServiceType(), context.getInstanceId(), context.getInstanceUrl());
-        RateLimiter limiter = instanceLimiters.get(key);
+        RateLimiter limiter = resolveInstanceLimiter(context);
         return limiter == null || limiter.tryAcquire(context);
     }
 
@@ -178,8 +229,24 @@ public class RateLimitManager {
      * @return 是否通过限流检查
      */
     public boolean tryAcquireClientIp(final RateLimitContext context) {
+        RateLimiter limiter = resolveClientIpLimiter(context);
+        return limiter == null || limiter.tryAcquire(context);
+    }
+
+    private RateLimiter resolveInstanceLimiter(final RateLimitContext context) {
+        if (context == null || !context.hasInstanceInfo()) {
+            return null;
+        }
+        String key = generateInstanceKey(context.getServiceType(), context.getInstanceId(), context.getInstanceUrl());
+        return instanceLimiters.get(key);
+    }
+
+    /**
+     * 获取客户端IP限流器，未启用客户端IP限流时返回 null
+     */
+    private RateLimiter resolveClientIpLimiter(final RateLimitContext context) {
         if (context == null || context.getClientIp() == null) {
-            return true;
+            return null;
         }
 
         ModelServiceRegistry.ServiceType serviceType = context.getServiceType();
@@ -191,25 +258,23 @@ public class RateLimitManager {
                 && serviceConfig.getRateLimit() != null
                 && Boolean.TRUE.equals(serviceConfig.getRateLimit().getClientIpEnable())) {
             // v2.7.10: 使用 Caffeine 缓存获取限流器
-            RateLimiter ipLimiter = clientIpRateLimiterCache.get(serviceType, clientIp, () -> {
+            return clientIpRateLimiterCache.get(serviceType, clientIp, () -> {
                 RateLimitConfig config = configConverterHelper.convertRateLimitConfig(serviceConfig.getRateLimit());
                 return componentFactory.createScopedRateLimiter(config);
             });
-            return ipLimiter != null && ipLimiter.tryAcquire(context);
         }
 
         // 检查全局配置是否启用了客户端IP限流
         ModelRouterProperties.RateLimitConfig globalRateLimit = properties.getRateLimit();
         if (globalRateLimit != null && Boolean.TRUE.equals(globalRateLimit.getClientIpEnable())) {
             // v2.7.10: 使用 Caffeine 缓存获取限流器
-            RateLimiter ipLimiter = clientIpRateLimiterCache.get(serviceType, clientIp, () -> {
+            return clientIpRateLimiterCache.get(serviceType, clientIp, () -> {
                 RateLimitConfig config = configConverterHelper.convertRateLimitConfig(globalRateLimit);
                 return componentFactory.createScopedRateLimiter(config);
             });
-            return ipLimiter != null && ipLimiter.tryAcquire(context);
         }
 
-        return true; // 未启用客户端IP限流
+        return null; // 未启用客户端IP限流
     }
 
     /**
@@ -363,6 +428,7 @@ public class RateLimitManager {
                 "serviceRateLimiters", serviceLimiters.size(),
                 "instanceRateLimiters", instanceLimiters.size()
         ));
+        status.put("denials", getDenialCounts());
         return status;
     }
 
@@ -483,6 +549,21 @@ public class RateLimitManager {
         return type.name() + ":" + id;
     }
 
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[LEVELS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] initialDenialLogTimes() {
+        long[] times = new long[LEVELS.length];
+        // 保证第一次拒绝立即输出日志
+        Arrays.fill(times, System.nanoTime() - DENIAL_LOG_INTERVAL_NANOS);
+        return times;
+    }
+
     /**
      * 获取默认限流配置
      * @return 默认限流配置
@@ -0,0 +1,69 @@
+package org.unreal.modelrouter.router.ratelimit;
+
+import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
+import org.unreal.modelrouter.monitor.monitoring.collector.RateLimitMeterHandle;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry;
+
+/**
+ * 限流器的预绑定指标句柄
+ * 每个限流器按服务类型懒加载一次句柄并缓存在数组中，热路径上只做一次数组读取，
+ * 不再拼接服务名或查找指标缓存
+ */
+public final class RateLimitMeterBinding {
+
+    private static final ModelServiceRegistry.ServiceType[] SERVICE_TYPES =
+            ModelServiceRegistry.ServiceType.values();
+
+    private final String algorithm;
+    private final boolean lowerCaseService;
+    private final RateLimitMeterHandle[] handles = new RateLimitMeterHandle[SERVICE_TYPES.length];
+    private volatile RateLimitMeterHandle unknownHandle;
+
+    /**
+     * @param algorithm 限流算法标签
+     * @param lowerCaseService 服务标签是否使用小写服务类型名
+     */
+    public RateLimitMeterBinding(final String algorithm, final boolean lowerCaseService) {
+        this.algorithm = algorithm != null ? algorithm : "unknown";
+        this.lowerCaseService = lowerCaseService;
+    }
+
+    /**
+     * 记录一次限流判定
+     *
+     * @param collector 指标收集器，为 null 时不记录
+     * @param serviceType 服务类型，可为 null
+     * @param allowed 是否允许通过
+     */
+    public void record(final MetricsCollector collector,
+                       final ModelServiceRegistry.ServiceType serviceType,
+                       final boolean allowed) {
+        if (collector == null) {
+            return;
+        }
+        RateLimitMeterHandle handle = resolve(collector, serviceType);
+        if (handle != null) {
+            handle.record(allowed);
+        }
+    }
+
+    private RateLimitMeterHandle resolve(final MetricsCollector collector,
+                                         final ModelServiceRegistry.ServiceType serviceType) {
+        if (serviceType == null) {
+            RateLimitMeterHandle handle = unknownHandle;
+            if (handle == null) {
+                handle = collector.rateLimitHandle("unknown", algorithm);
+                unknownHandle = handle;
+            }
+            return handle;
+        }
+        // 并发下可能重复解析，但收集器返回的是同一个缓存句柄，竞争是良性的
+        RateLimitMeterHandle handle = handles[serviceType.ordinal()];
+        if (handle == null) {
+            String serviceName = lowerCaseService ? serviceType.name().toLowerCase() : serviceType.name();
+            handle = collector.rateLimitHandle(serviceName, algorithm);
+            handles[serviceType.ordinal()] = handle;
+        }
+        return handle;
+    }
+}
@@ -0,0 +1,100 @@
+package org.unreal.modelrouter.router.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 限流预留结果
+ *
+ * 预留成功时令牌（或请求名额）已从限流器中扣除，调用方必须在确定最终结果后调用 {@link #commit()} 或
+ * {@link #rollback()}：commit 保留扣除，rollback 把扣除的名额归还给限流器。两者只有第一次调用生效。
+ * 预留失败时不扣除任何名额，{@link #getRetryAfter()} 给出限流器估计的最短重试等待时间。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class RateLimitReservation {
+
+    private static final RateLimitReservation DENIED_UNKNOWN = new RateLimitReservation(false, -1, null);
+
+    private final boolean granted;
+    private final long retryAfterNanos;
+    private final Runnable refund;
+    private final AtomicBoolean settled = new AtomicBoolean(false);
+
+    private RateLimitReservation(final boolean granted, final long retryAfterNanos, final Runnable refund) {
+        this.granted = granted;
+        this.retryAfterNanos = retryAfterNanos;
+        this.refund = refund;
+    }
+
+    /**
+     * 预留成功
+     *
+     * @param refund 回滚时归还名额的操作，为 null 表示名额不可归还
+     * @return 预留结果
+     */
+    public static RateLimitReservation granted(final Runnable refund) {
+        return new RateLimitReservation(true, 0, refund);
+    }
+
+    /**
+     * 预留失败
+     *
+     * @param retryAfterNanos 估计的重试等待时间（纳秒），小于 0 表示未知
+     * @return 预留结果
+     */
+    public static RateLimitReservation denied(final long retryAfterNanos) {
+        return retryAfterNanos < 0 ? DENIED_UNKNOWN : new RateLimitReservation(false, retryAfterNanos, null);
+    }
+
+    /**
+     * 是否预留成功
+     * @return true 表示名额已扣除
+     */
+    public boolean isGranted() {
+        return granted;
+    }
+
+    /**
+     * 估计的重试等待时间
+     * @return 等待时间，预留成功或无法估计时为 null
+     */
+    public Duration getRetryAfter() {
+        return granted || retryAfterNanos < 0 ? null : Duration.ofNanos(retryAfterNanos);
+    }
+
+    /**
+     * 确认预留，扣除的名额不再归还
+     */
+    public void commit() {
+        settled.set(true);
+    }
+
+    /**
+     * 撤销预留，把扣除的名额归还给限流器；已确认或已撤销的预留调用无效
+     */
+    public void rollback() {
+        if (granted && refund != null && settled.compareAndSet(false, true)) {
+            refund.run();
+        }
+    }
+
+    /**
+     * 按速率估算补足缺口所需的时间
+     *
+     * @param deficit 缺少的名额数
+     * @param ratePerSecond 每秒恢复的名额数
+     * @return 纳秒数，速率不大于 0 时返回 -1
+     */
+    public static long nanosToRecover(final long deficit, final long ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            return -1;
+        }
+        if (deficit <= 0) {
+            return 0;
+        }
+        // 向上取整，保证等待这么久之后名额确实足够
+        return (deficit * 1_000_000_000L + ratePerSecond - 1) / ratePerSecond;
+    }
+}
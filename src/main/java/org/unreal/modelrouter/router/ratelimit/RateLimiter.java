@@ -11,6 +11,17 @@ public interface RateLimiter {
      */
     boolean tryAcquire(RateLimitContext context);
 
+    /**
+     * 预留令牌：成功时令牌已扣除，调用方随后确认或撤销
+     * 用于多级限流，某一级拒绝时撤销之前各级的预留，避免被拒绝的请求消耗上级名额。
+     * 默认实现基于 {@link #tryAcquire}，扣除的令牌不可归还
+     * @param context 限流上下文
+     * @return 预留结果
+     */
+    default RateLimitReservation reserve(final RateLimitContext context) {
+        return tryAcquire(context) ? RateLimitReservation.granted(null) : RateLimitReservation.denied(-1);
+    }
+
     /**
      * 获取限流配置
      * @return 限流配置
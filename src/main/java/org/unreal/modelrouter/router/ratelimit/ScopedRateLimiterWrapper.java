@@ -15,11 +15,13 @@ public class ScopedRateLimiterWrapper implements RateLimiter {
     
     @Autowired(required = false)
     private MetricsCollector metricsCollector;
+    private final RateLimitMeterBinding meterBinding;
 
     public ScopedRateLimiterWrapper(final RateLimitConfig config,
                                     final java.util.function.Function<RateLimitConfig, RateLimiter> factory) {
         this.config = config;
         this.factory = factory;
+        this.meterBinding = new RateLimitMeterBinding(config.getAlgorithm(), false);
     }
 
     /**
@@ -29,12 +31,20 @@ public class ScopedRateLimiterWrapper implements RateLimiter {
      */
     @Override
     public boolean tryAcquire(final RateLimitContext ctx) {
-        boolean allowed;
-        String serviceName = ctx.getServiceType() != null ? ctx.getServiceType().name() : "unknown";
-        String algorithm = config.getAlgorithm() != null ? config.getAlgorithm() : "unknown";
-        
+        return reserve(ctx).isGranted();
+    }
+
+    /**
+     * 在上下文对应作用域的限流器上预留令牌
+     * @param ctx 限流上下文
+     * @return 预留结果
+     */
+    @Override
+    public RateLimitReservation reserve(final RateLimitContext ctx) {
+        RateLimitReservation reservation;
+
         if (config.getScope() == null) {
-            allowed = factory.apply(config).tryAcquire(ctx);
+            reservation = factory.apply(config).reserve(ctx);
         } else {
             String key = switch (config.getScope().toLowerCase()) {
                 case "service" -> ctx.getServiceType().name();
@@ -44,13 +54,13 @@ public class ScopedRateLimiterWrapper implements RateLimiter {
                 default -> "default";
             };
             RateLimiter l = map.computeIfAbsent(key, k -> factory.apply(config));
-            allowed = l.tryAcquire(ctx);
+            reservation = l.reserve(ctx);
         }
         
         // 记录限流指标
-        recordRateLimitMetrics(serviceName, algorithm, allowed);
+        recordRateLimitMetrics(ctx, reservation.isGranted());
         
-        return allowed;
+        return reservation;
     }
 
     /**
@@ -65,10 +75,10 @@ public class ScopedRateLimiterWrapper implements RateLimiter {
     /**
      * 记录限流指标
      */
-    private void recordRateLimitMetrics(final String service, final String algorithm, final boolean allowed) {
+    private void recordRateLimitMetrics(final RateLimitContext ctx, final boolean allowed) {
         if (metricsCollector != null) {
             try {
-                metricsCollector.recordRateLimit(service, algorithm, allowed);
+                meterBinding.record(metricsCollector, ctx.getServiceType(), allowed);
             } catch (Exception e) {
                 logger.warn("Failed to record rate limit metrics: {}", e.getMessage());
             }
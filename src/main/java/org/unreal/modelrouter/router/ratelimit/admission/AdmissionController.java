@@ -0,0 +1,382 @@
+package org.unreal.modelrouter.router.ratelimit.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.config.core.AdmissionControlProperties;
+import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 服务级准入控制器
+ *
+ * 每个服务类型最多同时放行 {@code max-concurrent} 个请求到实例选择和下游调用，超出的请求按
+ * {@link PriorityLaneClassifier} 的分类进入优先级通道排队：
+ * <ul>
+ *   <li>通道之间严格按优先级出队，高优先级通道为空时才放行低优先级通道；</li>
+ *   <li>通道内按分组（API Key）做开始时间公平排队（SFQ）：入队时标记 max(通道虚拟时间, 分组上一个标记) + 1/权重，
+ *       出队取标记最小者，权重高的分组按比例获得更多放行，突发的分组不会饿死其它分组；</li>
+ *   <li>队列已满时，高优先级请求挤掉最低优先级通道中最后入队的请求，否则直接拒绝；</li>
+ *   <li>超过最长排队时间或客户端已断开的请求在出队前移除，不会再占用实例和下游。</li>
+ * </ul>
+ * 被拒绝的请求返回 503 和 Retry-After。放行名额在调用结束（流式响应为流结束）时归还。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Component
+public class AdmissionController {
+
+    private static final String METRIC_PREFIX = "jairouter.admission";
+
+    private final AdmissionControlProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ServiceQueue> queues = new ConcurrentHashMap<>();
+
+    public AdmissionController(final AdmissionControlProperties properties,
+                               @Autowired(required = false) final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 获得准入后执行调用
+     *
+     * @param context        限流上下文，提供服务类型
+     * @param admissionClass 请求分类
+     * @param call           实际的选择实例与调用逻辑，只有获得准入后才会执行
+     * @return 调用结果，未获得准入时以 {@link AdmissionRejectedException} 失败
+     */
+    public Mono<ResponseEntity<?>> admit(final RateLimitContext context,
+                                         final PriorityLaneClassifier.AdmissionClass admissionClass,
+                                         final Supplier<Mono<ResponseEntity<?>>> call) {
+        String service = context.getServiceType() != null ? context.getServiceType().name() : "unknown";
+        ServiceQueue queue = queues.computeIfAbsent(service, this::createQueue);
+        return Mono.<Slot>create(sink -> queue.enqueue(sink, admissionClass))
+                .doOnDiscard(Slot.class, Slot::release)
+                .flatMap(slot -> track(slot, Mono.defer(call)));
+    }
+
+    /**
+     * 各服务类型的准入状态快照
+     */
+    public Map<String, Map<String, Object>> getSnapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        queues.forEach((service, queue) -> {
+            Map<String, Object> state = new LinkedHashMap<>();
+            synchronized (queue) {
+                state.put("inFlight", queue.inFlight);
+                state.put("maxConcurrent", properties.maxConcurrentFor(service));
+                Map<String, Integer> depths = new LinkedHashMap<>();
+                for (int i = 0; i < queue.lanes.length; i++) {
+                    depths.put(queue.laneNames.get(i), queue.lanes[i].depth);
+                }
+                state.put("queued", depths);
+            }
+            snapshot.put(service, state);
+        });
+        return snapshot;
+    }
+
+    private Mono<ResponseEntity<?>> track(final Slot slot, final Mono<ResponseEntity<?>> call) {
+        AtomicBoolean streaming = new AtomicBoolean();
+        return call.<ResponseEntity<?>>map(response -> {
+                    if (!(response.getBody() instanceof Publisher<?> body)) {
+                        return response;
+                    }
+                    streaming.set(true);
+                    Flux<?> tracked = Flux.from(body).doFinally(signal -> slot.release());
+                    return ResponseEntity.status(response.getStatusCode())
+                            .headers(response.getHeaders())
+                            .body(tracked);
+                })
+                .doFinally(signal -> {
+                    if (!streaming.get()) {
+                        slot.release();
+                    }
+                });
+    }
+
+    private ServiceQueue createQueue(final String service) {
+        List<String> laneNames = properties.getLanes().isEmpty()
+                ? List.of("default") : List.copyOf(properties.getLanes());
+        ServiceQueue queue = new ServiceQueue(service, laneNames);
+        if (meterRegistry != null) {
+            Gauge.builder(METRIC_PREFIX + ".inflight", queue, q -> q.inFlight)
+                    .description("Requests admitted to instance selection and backend calls")
+                    .tag("service", service)
+                    .register(meterRegistry);
+            for (int i = 0; i < laneNames.size(); i++) {
+                Lane lane = queue.lanes[i];
+                Gauge.builder(METRIC_PREFIX + ".queue.depth", lane, l -> l.depth)
+                        .description("Requests waiting for admission")
+                        .tags("service", service, "lane", laneNames.get(i))
+                        .register(meterRegistry);
+                for (WaitOutcome outcome : WaitOutcome.values()) {
+                    lane.waitTimers[outcome.ordinal()] = Timer.builder(METRIC_PREFIX + ".queue.wait")
+                            .description("Time spent waiting for admission")
+                            .tags("service", service, "lane", laneNames.get(i), "outcome", outcome.tag)
+                            .register(meterRegistry);
+                }
+            }
+        }
+        return queue;
+    }
+
+    private static void recordWait(final Lane lane, final WaitOutcome outcome, final long waitNanos) {
+        Timer timer = lane.waitTimers[outcome.ordinal()];
+        if (timer != null) {
+            timer.record(waitNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, (properties.getMaxQueueWaitMs() + 999) / 1000);
+    }
+
+    /**
+     * 准入名额，至多归还一次
+     */
+    private static final class Slot {
+        private final ServiceQueue queue;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Slot(final ServiceQueue queue) {
+            this.queue = queue;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                queue.release();
+            }
+        }
+    }
+
+    /**
+     * 等待准入的结果，对应等待时长计时器的 outcome 标签
+     */
+    private enum WaitOutcome {
+        ADMITTED, TIMEOUT, CANCELLED, REJECTED, EVICTED;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    /**
+     * 单个通道：按公平排队标记排序的等待队列；等待时长计时器在创建队列时按结果注册，未启用指标时为 null
+     */
+    private static final class Lane {
+        private final Timer[] waitTimers = new Timer[WaitOutcome.values().length];
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+                Comparator.comparingDouble((Waiter w) -> w.tag).thenComparingLong(w -> w.seq));
+        private final Map<String, Flow> flows = new HashMap<>();
+        private double virtualTime;
+        private volatile int depth;
+    }
+
+    /**
+     * 通道内的一个公平排队分组
+     */
+    private static final class Flow {
+        private double lastTag;
+        private int pending;
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Slot> sink;
+        private final PriorityLaneClassifier.AdmissionClass admissionClass;
+        private final int lane;
+        private final double tag;
+        private final long seq;
+        private final long enqueuedNanos = System.nanoTime();
+        private boolean done;
+
+        Waiter(final MonoSink<Slot> sink, final PriorityLaneClassifier.AdmissionClass admissionClass,
+               final int lane, final double tag, final long seq) {
+            this.sink = sink;
+            this.admissionClass = admissionClass;
+            this.lane = lane;
+            this.tag = tag;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * 单个服务类型的放行计数和各通道队列，所有状态变更都在本对象的锁内进行；
+     * 完成或拒绝等待者的回调在锁外执行，避免在锁内触发下游调用
+     */
+    private final class ServiceQueue {
+        private final String service;
+        private final List<String> laneNames;
+        private final Lane[] lanes;
+        private volatile int inFlight;
+        private int queued;
+        private long seq;
+
+        ServiceQueue(final String service, final List<String> laneNames) {
+            this.service = service;
+            this.laneNames = laneNames;
+            this.lanes = new Lane[laneNames.size()];
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new Lane();
+            }
+        }
+
+        void enqueue(final MonoSink<Slot> sink, final PriorityLaneClassifier.AdmissionClass admissionClass) {
+            int laneIndex = Math.min(Math.max(admissionClass.lane(), 0), lanes.length - 1);
+            Waiter waiter = null;
+            Waiter evicted = null;
+            boolean rejected = false;
+            synchronized (this) {
+                if (queued == 0 && inFlight < properties.maxConcurrentFor(service)) {
+                    inFlight++;
+                } else if (queued >= properties.getMaxQueueLength()
+                        && (evicted = evictLowerThan(laneIndex)) == null) {
+                    rejected = true;
+                } else {
+                    Lane lane = lanes[laneIndex];
+                    Flow flow = lane.flows.computeIfAbsent(admissionClass.flow(), key -> new Flow());
+                    double tag = Math.max(lane.virtualTime, flow.lastTag) + 1.0 / admissionClass.weight();
+                    flow.lastTag = tag;
+                    flow.pending++;
+                    waiter = new Waiter(sink, admissionClass, laneIndex, tag, seq++);
+                    lane.waiters.offer(waiter);
+                    lane.depth++;
+                    queued++;
+                }
+            }
+            if (evicted != null) {
+                recordWait(lanes[evicted.lane], WaitOutcome.EVICTED,
+                        System.nanoTime() - evicted.enqueuedNanos);
+                evicted.sink.error(new AdmissionRejectedException(
+                        "Service '" + service + "' is overloaded, request shed for higher priority traffic",
+                        retryAfterSeconds()));
+            }
+            if (rejected) {
+                recordWait(lanes[laneIndex], WaitOutcome.REJECTED, 0);
+                sink.error(new AdmissionRejectedException(
+                        "Service '" + service + "' is overloaded, admission queue is full", retryAfterSeconds()));
+                return;
+            }
+            if (waiter == null) {
+                sink.success(new Slot(this));
+                return;
+            }
+            Waiter queuedWaiter = waiter;
+            sink.onCancel(() -> {
+                if (remove(queuedWaiter)) {
+                    recordWait(lanes[laneIndex], WaitOutcome.CANCELLED,
+                            System.nanoTime() - queuedWaiter.enqueuedNanos);
+                }
+            });
+            Schedulers.parallel().schedule(() -> {
+                if (remove(queuedWaiter)) {
+                    recordWait(lanes[laneIndex], WaitOutcome.TIMEOUT,
+                            System.nanoTime() - queuedWaiter.enqueuedNanos);
+                    queuedWaiter.sink.error(new AdmissionRejectedException(
+                            "Service '" + service + "' is overloaded, request timed out in queue",
+                            retryAfterSeconds()));
+                }
+            }, properties.getMaxQueueWaitMs(), TimeUnit.MILLISECONDS);
+            dispatch();
+        }
+
+        void release() {
+            synchronized (this) {
+                inFlight--;
+            }
+            dispatch();
+        }
+
+        /**
+         * 在放行数允许的范围内按优先级和公平排队标记依次放行
+         */
+        private void dispatch() {
+            List<Waiter> admitted = new ArrayList<>();
+            synchronized (this) {
+                int max = properties.maxConcurrentFor(service);
+                for (int i = 0; i < lanes.length && inFlight < max; i++) {
+                    Lane lane = lanes[i];
+                    while (inFlight < max && !lane.waiters.isEmpty()) {
+                        Waiter waiter = lane.waiters.poll();
+                        lane.virtualTime = Math.max(lane.virtualTime, waiter.tag);
+                        detach(lane, waiter);
+                        inFlight++;
+                        admitted.add(waiter);
+                    }
+                }
+            }
+            for (Waiter waiter : admitted) {
+                recordWait(lanes[waiter.lane], WaitOutcome.ADMITTED,
+                        System.nanoTime() - waiter.enqueuedNanos);
+                waiter.sink.success(new Slot(this));
+            }
+        }
+
+        /**
+         * 移除仍在排队的等待者，返回 false 表示已被放行或已移除
+         */
+        private synchronized boolean remove(final Waiter waiter) {
+            if (waiter.done) {
+                return false;
+            }
+            Lane lane = lanes[waiter.lane];
+            lane.waiters.remove(waiter);
+            detach(lane, waiter);
+            return true;
+        }
+
+        /**
+         * 队列已满时挤掉优先级低于 laneIndex 的最低通道中标记最大的等待者
+         */
+        private Waiter evictLowerThan(final int laneIndex) {
+            for (int i = lanes.length - 1; i > laneIndex; i--) {
+                Lane lane = lanes[i];
+                Waiter last = null;
+                for (Waiter waiter : lane.waiters) {
+                    if (last == null || waiter.tag > last.tag || waiter.tag == last.tag && waiter.seq > last.seq) {
+                        last = waiter;
+                    }
+                }
+                if (last != null) {
+                    lane.waiters.remove(last);
+                    detach(lane, last);
+                    return last;
+                }
+            }
+            return null;
+        }
+
+        private void detach(final Lane lane, final Waiter waiter) {
+            waiter.done = true;
+            lane.depth--;
+            queued--;
+            Flow flow = lane.flows.get(waiter.admissionClass.flow());
+            if (flow != null && --flow.pending <= 0) {
+                lane.flows.remove(waiter.admissionClass.flow());
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.unreal.modelrouter.router.ratelimit.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.unreal.modelrouter.auth.security.config.properties.ApiKey;
+import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import org.unreal.modelrouter.config.core.AdmissionControlProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 优先级通道分类器
+ *
+ * 通道按以下顺序确定：API Key 元数据 {@value #LANE_METADATA_KEY}，其次是匹配请求路径前缀的
+ * {@code path-lanes} 规则，最后是默认通道。客户端可以通过请求头选择通道，但只能选择不高于上述结果的通道，
+ * 防止批处理调用方把自己提升为交互流量。
+ *
+ * 同一通道内按 API Key 加权公平排队，权重取 API Key 元数据 {@value #WEIGHT_METADATA_KEY}，默认为 1；
+ * 没有 API Key 的请求按客户端 IP 分组。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Component
+public class PriorityLaneClassifier {
+
+    /**
+     * API Key 元数据中的通道名
+     */
+    public static final String LANE_METADATA_KEY = "priorityLane";
+
+    /**
+     * API Key 元数据中的通道内排队权重
+     */
+    public static final String WEIGHT_METADATA_KEY = "queueWeight";
+
+    private final AdmissionControlProperties properties;
+    private final ApiKeyService apiKeyService;
+
+    public PriorityLaneClassifier(final AdmissionControlProperties properties,
+                                  @Autowired(required = false) final ApiKeyService apiKeyService) {
+        this.properties = properties;
+        this.apiKeyService = apiKeyService;
+    }
+
+    /**
+     * 对请求分类
+     *
+     * @param httpRequest HTTP 请求
+     * @param apiKeyId    已认证的 API Key ID，可为 null
+     * @param clientIp    客户端 IP，没有 API Key 时作为公平排队的分组
+     * @return 分类结果
+     */
+    public AdmissionClass classify(final ServerHttpRequest httpRequest, final String apiKeyId, final String clientIp) {
+        List<String> lanes = properties.getLanes();
+        ApiKey apiKey = apiKeyService != null && apiKeyId != null ? apiKeyService.findCachedApiKey(apiKeyId) : null;
+        Map<String, Object> metadata = apiKey != null ? apiKey.getMetadata() : null;
+
+        int lane = laneIndex(metadata != null ? metadata.get(LANE_METADATA_KEY) : null);
+        if (lane < 0) {
+            lane = pathLane(httpRequest.getPath().value());
+        }
+        if (lane < 0) {
+            lane = Math.max(0, laneIndex(properties.getDefaultLane()));
+        }
+        int requested = laneIndex(httpRequest.getHeaders().getFirst(properties.getLaneHeader()));
+        if (requested > lane) {
+            lane = requested;
+        }
+
+        double weight = 1.0;
+        if (metadata != null && metadata.get(WEIGHT_METADATA_KEY) != null) {
+            try {
+                weight = Double.parseDouble(String.valueOf(metadata.get(WEIGHT_METADATA_KEY)));
+            } catch (NumberFormatException e) {
+                weight = 1.0;
+            }
+        }
+        String flow = apiKeyId != null ? "key:" + apiKeyId : "ip:" + clientIp;
+        return new AdmissionClass(lane, lanes.isEmpty() ? "default" : lanes.get(lane), flow,
+                weight > 0 ? weight : 1.0);
+    }
+
+    private int pathLane(final String path) {
+        for (Map.Entry<String, String> rule : properties.getPathLanes().entrySet()) {
+            if (path.startsWith(rule.getKey())) {
+                int lane = laneIndex(rule.getValue());
+                if (lane >= 0) {
+                    return lane;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int laneIndex(final Object lane) {
+        if (lane == null) {
+            return -1;
+        }
+        List<String> lanes = properties.getLanes();
+        for (int i = 0; i < lanes.size(); i++) {
+            if (lanes.get(i).equalsIgnoreCase(lane.toString().trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 请求的准入分类
+     *
+     * @param lane     通道序号，越小优先级越高
+     * @param laneName 通道名
+     * @param flow     通道内公平排队的分组（API Key 或客户端 IP）
+     * @param weight   分组权重
+     */
+    public record AdmissionClass(int lane, String laneName, String flow, double weight) {
+    }
+}
@@ -0,0 +1,364 @@
+package org.unreal.modelrouter.router.ratelimit.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import org.unreal.modelrouter.config.core.AdaptiveConcurrencyProperties;
+import org.unreal.modelrouter.router.model.ModelRouterProperties;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry.ServiceType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 实例级自适应并发限制器
+ *
+ * 为每个实例维护在途请求数和由 {@link ConcurrencyLimit} 学习到的并发上限（AIMD 或梯度算法），
+ * 样本来自每次下游调用的响应时间和是否过载（5xx、429、超时、连接失败）。
+ * 实例选择时跳过已饱和的实例；所有候选都饱和时，请求在选中的实例上短暂排队，
+ * 超过排队时间或队列已满时快速失败，返回 503 和 Retry-After。
+ *
+ * 流式响应在第一个事件到达时记录响应时间样本，流结束时才释放并发名额。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final String METRIC_PREFIX = "jairouter.instance.concurrency";
+
+    private final AdaptiveConcurrencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Map<String, InstanceLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(final AdaptiveConcurrencyProperties properties,
+                                      @Autowired(required = false) final MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * 指定计时来源，测试中用虚拟时钟驱动响应时间样本
+     */
+    AdaptiveConcurrencyLimiter(final AdaptiveConcurrencyProperties properties, final MeterRegistry meterRegistry,
+                               final LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 实例当前是否还有并发余量，未启用时总是返回 true
+     */
+    public boolean hasCapacity(final ServiceType serviceType, final ModelRouterProperties.ModelInstance instance) {
+        return !isEnabled() || instance == null || limiterFor(serviceType, instance).hasCapacity();
+    }
+
+    /**
+     * 获取实例的并发名额，饱和时按配置排队，超时或队列已满时以 {@link ConcurrencyLimitExceededException} 失败
+     *
+     * @param serviceType 服务类型
+     * @param instance    选中的实例
+     * @return 并发名额，调用结束后经 {@link #track} 释放
+     */
+    public Mono<Permit> acquire(final ServiceType serviceType, final ModelRouterProperties.ModelInstance instance) {
+        InstanceLimiter limiter = limiterFor(serviceType, instance);
+        return Mono.defer(() -> {
+            Permit permit = limiter.tryAcquire();
+            if (permit != null) {
+                return Mono.just(permit);
+            }
+            if (properties.getQueueTimeoutMs() <= 0 || limiter.queued.get() >= properties.getMaxQueueSize()) {
+                return Mono.error(limiter.reject());
+            }
+            return Mono.<Permit>create(sink -> limiter.enqueue(sink, properties.getQueueTimeoutMs()))
+                    .doOnDiscard(Permit.class, Permit::release);
+        });
+    }
+
+    /**
+     * 跟踪一次下游调用：记录响应时间样本并在调用（流式响应为整个流）结束时释放名额
+     *
+     * @param permit 并发名额
+     * @param call   下游调用
+     * @return 原调用结果
+     */
+    public Mono<ResponseEntity<?>> track(final Permit permit, final Mono<? extends ResponseEntity<?>> call) {
+        AtomicBoolean streaming = new AtomicBoolean();
+        return call.<ResponseEntity<?>>map(response -> {
+                    if (!(response.getBody() instanceof Publisher<?> body)) {
+                        permit.record(response.getStatusCode().is5xxServerError());
+                        return response;
+                    }
+                    streaming.set(true);
+                    Flux<?> tracked = Flux.from(body)
+                            .doOnNext(event -> permit.record(false))
+                            .doOnError(error -> permit.record(isOverload(error)))
+                            .doFinally(signal -> permit.release());
+                    return ResponseEntity.status(response.getStatusCode())
+                            .headers(response.getHeaders())
+                            .body(tracked);
+                })
+                .doOnError(error -> permit.record(isOverload(error)))
+                .doFinally(signal -> {
+                    if (!streaming.get()) {
+                        permit.release();
+                    }
+                });
+    }
+
+    /**
+     * 各实例的并发状态快照，键为 服务类型:实例
+     */
+    public Map<String, Map<String, Object>> getSnapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        limiters.forEach((key, limiter) -> {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("limit", limiter.currentLimit);
+            state.put("inFlight", limiter.inFlight.get());
+            state.put("queued", limiter.queued.get());
+            state.put("rttMs", TimeUnit.NANOSECONDS.toMillis(limiter.rttNanos));
+            state.put("rejected", limiter.rejected.get());
+            snapshot.put(key, state);
+        });
+        return snapshot;
+    }
+
+    /**
+     * 出错是否说明下游过载；其它 4xx 等与负载无关的错误不计入样本
+     *
+     * @return 过载返回 true，不计入样本返回 null
+     */
+    static Boolean isOverload(final Throwable error) {
+        if (error instanceof ConcurrencyLimitExceededException) {
+            return null;
+        }
+        if (error instanceof ResponseStatusException e) {
+            return e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429 ? Boolean.TRUE : null;
+        }
+        if (error instanceof WebClientResponseException e) {
+            return e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429 ? Boolean.TRUE : null;
+        }
+        return error instanceof TimeoutException || error instanceof WebClientRequestException ? Boolean.TRUE : null;
+    }
+
+    private InstanceLimiter limiterFor(final ServiceType serviceType,
+                                       final ModelRouterProperties.ModelInstance instance) {
+        String instanceName = instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getName() + "@" + instance.getBaseUrl();
+        String service = serviceType != null ? serviceType.name() : "unknown";
+        return limiters.computeIfAbsent(service + ":" + instanceName,
+                key -> createLimiter(service, instanceName));
+    }
+
+    private InstanceLimiter createLimiter(final String service, final String instanceName) {
+        ConcurrencyLimit limit = properties.getAlgorithm() == AdaptiveConcurrencyProperties.Algorithm.AIMD
+                ? new AimdConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                        properties.getMaxLimit(), properties.getBackoffRatio(), properties.getTimeoutMs())
+                : new GradientConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                        properties.getMaxLimit(), properties.getRttTolerance(), properties.getSmoothing(),
+                        properties.getLongWindow());
+        InstanceLimiter limiter = new InstanceLimiter(instanceName, limit, nanoClock);
+        if (meterRegistry != null) {
+            Gauge.builder(METRIC_PREFIX + ".limit", limiter, l -> l.currentLimit)
+                    .description("Adaptive concurrency limit of the instance")
+                    .tags("service", service, "instance", instanceName)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".inflight", limiter, l -> l.inFlight.get())
+                    .description("In-flight requests of the instance")
+                    .tags("service", service, "instance", instanceName)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".queued", limiter, l -> l.queued.get())
+                    .description("Requests waiting for a concurrency slot of the instance")
+                    .tags("service", service, "instance", instanceName)
+                    .register(meterRegistry);
+            limiter.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                    .description("Requests rejected by the adaptive concurrency limit")
+                    .tags("service", service, "instance", instanceName)
+                    .register(meterRegistry);
+        }
+        return limiter;
+    }
+
+    /**
+     * 并发名额：记录至多一个响应时间样本，释放至多一次
+     */
+    public static final class Permit {
+        private final InstanceLimiter limiter;
+        private final int inFlight;
+        private final long startNanos;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(final InstanceLimiter limiter, final int inFlight) {
+            this.limiter = limiter;
+            this.inFlight = inFlight;
+            this.startNanos = limiter.nanoClock.getAsLong();
+        }
+
+        /**
+         * 记录响应时间样本
+         * @param dropped 是否过载，null 表示不计入样本
+         */
+        void record(final Boolean dropped) {
+            if (dropped != null && recorded.compareAndSet(false, true)) {
+                limiter.onSample(limiter.nanoClock.getAsLong() - startNanos, inFlight, dropped);
+            }
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * 单个实例的并发状态
+     */
+    private static final class InstanceLimiter {
+        private final String instanceName;
+        private final ConcurrencyLimit limit;
+        private final LongSupplier nanoClock;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        private volatile int currentLimit;
+        private volatile long rttNanos;
+        private volatile Counter rejectedCounter;
+
+        InstanceLimiter(final String instanceName, final ConcurrencyLimit limit, final LongSupplier nanoClock) {
+            this.instanceName = instanceName;
+            this.limit = limit;
+            this.nanoClock = nanoClock;
+            this.currentLimit = limit.getLimit();
+        }
+
+        boolean hasCapacity() {
+            return inFlight.get() < currentLimit;
+        }
+
+        Permit tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= currentLimit) {
+                    return null;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return new Permit(this, current + 1);
+                }
+            }
+        }
+
+        synchronized void onSample(final long sampleNanos, final int sampleInFlight, final boolean dropped) {
+            limit.onSample(sampleNanos, sampleInFlight, dropped);
+            currentLimit = limit.getLimit();
+            rttNanos = limit.getRttNanos();
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+            drain();
+        }
+
+        void enqueue(final MonoSink<Permit> sink, final long timeoutMs) {
+            Waiter waiter = new Waiter(sink);
+            queued.incrementAndGet();
+            waiters.offer(waiter);
+            sink.onCancel(() -> abandon(waiter));
+            Schedulers.parallel().schedule(() -> {
+                if (abandon(waiter)) {
+                    sink.error(reject());
+                }
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+            drain();
+        }
+
+        /**
+         * 把空出的名额依次交给排队的请求
+         */
+        private void drain() {
+            while (!waiters.isEmpty()) {
+                Permit permit = tryAcquire();
+                if (permit == null) {
+                    return;
+                }
+                Waiter waiter = waiters.poll();
+                if (waiter == null || !waiter.complete(permit)) {
+                    inFlight.decrementAndGet();
+                    if (waiter == null) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 放弃排队，返回 false 表示已经拿到名额
+         */
+        private boolean abandon(final Waiter waiter) {
+            if (!waiter.done.compareAndSet(false, true)) {
+                return false;
+            }
+            waiters.remove(waiter);
+            queued.decrementAndGet();
+            return true;
+        }
+
+        ConcurrencyLimitExceededException reject() {
+            rejected.incrementAndGet();
+            Counter counter = rejectedCounter;
+            if (counter != null) {
+                counter.increment();
+            }
+            long retryAfter = Math.max(1, (TimeUnit.NANOSECONDS.toMillis(rttNanos) + 999) / 1000);
+            return new ConcurrencyLimitExceededException(instanceName, retryAfter);
+        }
+
+        private final class Waiter {
+            private final MonoSink<Permit> sink;
+            private final AtomicBoolean done = new AtomicBoolean();
+
+            Waiter(final MonoSink<Permit> sink) {
+                this.sink = sink;
+            }
+
+            boolean complete(final Permit permit) {
+                if (!done.compareAndSet(false, true)) {
+                    return false;
+                }
+                queued.decrementAndGet();
+                sink.success(permit);
+                return true;
+            }
+        }
+    }
+}
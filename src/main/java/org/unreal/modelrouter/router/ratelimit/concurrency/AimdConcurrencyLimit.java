@@ -0,0 +1,54 @@
+package org.unreal.modelrouter.router.ratelimit.concurrency;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD 并发上限
+ * 在途请求接近上限且调用成功时上限加一；出错或响应时间超过超时阈值时按比例缩减。
+ * 只根据过载信号调整，适合下游过载时会明确返回错误或超时的实例
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class AimdConcurrencyLimit implements ConcurrencyLimit {
+
+    private static final double RTT_SMOOTHING = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+
+    private double limit;
+    private double rttNanos;
+
+    public AimdConcurrencyLimit(final int initialLimit, final int minLimit, final int maxLimit,
+                                final double backoffRatio, final long timeoutMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(final long rttNanos, final int inFlight, final boolean dropped) {
+        this.rttNanos = this.rttNanos == 0 ? rttNanos : this.rttNanos * (1 - RTT_SMOOTHING) + rttNanos * RTT_SMOOTHING;
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            // 在途请求不足上限一半时说明负载没有用满上限，成功不代表可以承受更高并发
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    @Override
+    public long getRttNanos() {
+        return (long) rttNanos;
+    }
+}
@@ -0,0 +1,31 @@
+package org.unreal.modelrouter.router.ratelimit.concurrency;
+
+/**
+ * 自适应并发上限算法
+ * 根据每次调用完成时观测到的响应时间和是否过载调整并发上限，实现不要求线程安全，由调用方串行化
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * 当前并发上限
+     * @return 上限
+     */
+    int getLimit();
+
+    /**
+     * 记录一次调用样本
+     * @param rttNanos 响应时间（纳秒）
+     * @param inFlight 调用开始时的在途请求数（含本次）
+     * @param dropped 是否出错、超时或被下游拒绝
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+
+    /**
+     * 平滑后的响应时间估计，没有样本时为 0
+     * @return 纳秒
+     */
+    long getRttNanos();
+}
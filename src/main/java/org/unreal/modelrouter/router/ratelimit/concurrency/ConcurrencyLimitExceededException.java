@@ -0,0 +1,32 @@
+package org.unreal.modelrouter.router.ratelimit.concurrency;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 实例并发已达自适应上限且排队超时时抛出，响应 503 并带 Retry-After 头
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class ConcurrencyLimitExceededException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(final String instanceName, final long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Instance '" + instanceName + "' is at its concurrency limit");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,81 @@
+package org.unreal.modelrouter.router.ratelimit.concurrency;
+
+/**
+ * 梯度（Vegas 风格）并发上限
+ *
+ * 比较两个响应时间：无排队时的基线和短期指数移动平均（约 10 个样本）。
+ * 梯度 = 容忍倍数 × 基线 / 短期值，限制在 [0.5, 1]；新上限 = 上限 × 梯度 + √上限，再按平滑系数并入当前上限。
+ * 下游开始排队时短期响应时间先于错误上升，上限随之收缩；响应时间回到基线时按 √上限 的余量缓慢增长。
+ * 出错时按 0.9 缩减。在途请求不足上限一半时不再增长，避免空闲期把上限推到无意义的高度。
+ *
+ * 基线取观察到的最小响应时间，只在轻载（在途请求不足上限一半）或上限已降到下界时
+ * 按约 longWindow 个样本的速度向新样本上移：持续饱和时的样本都包含排队时间，
+ * 让基线跟随它们会使上限随延迟一起无限上涨。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class GradientConcurrencyLimit implements ConcurrencyLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double DROP_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final double longFactor;
+
+    private double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    public GradientConcurrencyLimit(final int initialLimit, final int minLimit, final int maxLimit,
+                                    final double rttTolerance, final double smoothing, final int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.longFactor = 2.0 / (Math.max(longWindow, 1) + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(final long rttNanos, final int inFlight, final boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * DROP_RATIO);
+            return;
+        }
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+            return;
+        }
+        shortRtt = shortRtt + (rttNanos - shortRtt) * (2.0 / (SHORT_WINDOW + 1));
+        boolean lightlyLoaded = inFlight * 2 < limit;
+        if (rttNanos < longRtt) {
+            longRtt = rttNanos;
+        } else if (lightlyLoaded || limit <= minLimit) {
+            longRtt = longRtt + (rttNanos - longRtt) * longFactor;
+        }
+        if (lightlyLoaded) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    @Override
+    public long getRttNanos() {
+        return (long) shortRtt;
+    }
+}
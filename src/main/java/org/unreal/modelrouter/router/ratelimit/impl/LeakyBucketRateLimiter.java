@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
 import org.unreal.modelrouter.router.ratelimit.RateLimitConfig;
 import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import org.unreal.modelrouter.router.ratelimit.RateLimitMeterBinding;
+import org.unreal.modelrouter.router.ratelimit.RateLimitReservation;
 import org.unreal.modelrouter.router.ratelimit.RateLimiter;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -18,6 +20,7 @@ public class LeakyBucketRateLimiter implements RateLimiter {
     
     @Autowired(required = false)
     private MetricsCollector metricsCollector;
+    private final RateLimitMeterBinding meterBinding = new RateLimitMeterBinding("leaky_bucket", true);
 
     public LeakyBucketRateLimiter(final RateLimitConfig config) {
         this.config = config;
@@ -32,18 +35,30 @@ public class LeakyBucketRateLimiter implements RateLimiter {
      */
     @Override
     public boolean tryAcquire(final RateLimitContext context) {
+        return reserve(context).isGranted();
+    }
+
+    /**
+     * 预留容量，撤销时把加入的水量放掉
+     * @param context 限流上下文
+     * @return 预留结果
+     */
+    @Override
+    public RateLimitReservation reserve(final RateLimitContext context) {
         leak();
-        long current = water.get();
-        boolean allowed;
-        if (current + context.getTokens() > config.getCapacity()) {
-            allowed = false;
-        } else {
-            allowed = water.compareAndSet(current, current + context.getTokens());
+        int requested = context.getTokens();
+        while (true) {
+            long current = water.get();
+            if (current + requested > config.getCapacity()) {
+                recordRateLimitMetrics(context, false);
+                return RateLimitReservation.denied(RateLimitReservation.nanosToRecover(
+                        current + requested - config.getCapacity(), config.getRate()));
+            }
+            if (water.compareAndSet(current, current + requested)) {
+                recordRateLimitMetrics(context, true);
+                return RateLimitReservation.granted(() -> water.updateAndGet(v -> Math.max(0, v - requested)));
+            }
         }
-        
-        // 记录限流指标
-        recordRateLimitMetrics(context, allowed);
-        return allowed;
     }
 
     private void leak() {
@@ -71,9 +86,7 @@ public class LeakyBucketRateLimiter implements RateLimiter {
     private void recordRateLimitMetrics(final RateLimitContext context, final boolean allowed) {
         if (metricsCollector != null) {
             try {
-                String serviceName = context.getServiceType() != null
-                    ? context.getServiceType().name().toLowerCase() : "unknown";
-                metricsCollector.recordRateLimit(serviceName, "leaky_bucket", allowed);
+                meterBinding.record(metricsCollector, context.getServiceType(), allowed);
             } catch (Exception e) {
                 // 静默处理指标记录异常，不影响业务逻辑
             }
@@ -4,20 +4,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
 import org.unreal.modelrouter.router.ratelimit.RateLimitConfig;
 import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import org.unreal.modelrouter.router.ratelimit.RateLimitMeterBinding;
+import org.unreal.modelrouter.router.ratelimit.RateLimitReservation;
 import org.unreal.modelrouter.router.ratelimit.RateLimiter;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * 滑动窗口限流器实现
+ * 窗口内的请求时间戳由同一把锁保护，淘汰、计数和追加是一个原子步骤
  */
 public class SlidingWindowRateLimiter implements RateLimiter {
+    private static final long WINDOW_MILLIS = 1000L;
+
     private final RateLimitConfig config;
-    private final Queue<Long> q = new ConcurrentLinkedQueue<>();
+    private final Deque<Long> q = new ArrayDeque<>();
     
     @Autowired(required = false)
     private MetricsCollector metricsCollector;
+    private final RateLimitMeterBinding meterBinding = new RateLimitMeterBinding("sliding_window", true);
 
     public SlidingWindowRateLimiter(final RateLimitConfig config) {
         this.config = config;
@@ -30,22 +36,44 @@ public class SlidingWindowRateLimiter implements RateLimiter {
      */
     @Override
     public boolean tryAcquire(final RateLimitContext context) {
-        long now = System.currentTimeMillis();
-        long window = 1000L;
-        while (!q.isEmpty() && q.peek() < now - window) {
-            q.poll();
-        }
-        boolean allowed;
-        if (q.size() >= config.getRate()) {
-            allowed = false;
-        } else {
-            q.offer(now);
-            allowed = true;
+        return reserve(context).isGranted();
+    }
+
+    /**
+     * 预留窗口名额，撤销时移除本次记录的时间戳
+     * @param context 限流上下文
+     * @return 预留结果
+     */
+    @Override
+    public RateLimitReservation reserve(final RateLimitContext context) {
+        RateLimitReservation reservation;
+        synchronized (q) {
+            long now = System.currentTimeMillis();
+            evictExpired(now);
+            if (q.size() >= config.getRate()) {
+                Long oldest = q.peekFirst();
+                long waitMillis = oldest == null ? -1 : Math.max(0, oldest + WINDOW_MILLIS - now);
+                reservation = RateLimitReservation.denied(waitMillis < 0 ? -1 : waitMillis * 1_000_000L);
+            } else {
+                Long stamp = now;
+                q.offerLast(stamp);
+                reservation = RateLimitReservation.granted(() -> {
+                    synchronized (q) {
+                        q.removeLastOccurrence(stamp);
+                    }
+                });
+            }
         }
-        
+
         // 记录限流指标
-        recordRateLimitMetrics(context, allowed);
-        return allowed;
+        recordRateLimitMetrics(context, reservation.isGranted());
+        return reservation;
+    }
+
+    private void evictExpired(final long now) {
+        while (!q.isEmpty() && q.peekFirst() < now - WINDOW_MILLIS) {
+            q.pollFirst();
+        }
     }
 
     /**
@@ -63,9 +91,7 @@ public class SlidingWindowRateLimiter implements RateLimiter {
     private void recordRateLimitMetrics(final RateLimitContext context, final boolean allowed) {
         if (metricsCollector != null) {
             try {
-                String serviceName = context.getServiceType() != null
-                    ? context.getServiceType().name().toLowerCase() : "unknown";
-                metricsCollector.recordRateLimit(serviceName, "sliding_window", allowed);
+                meterBinding.record(metricsCollector, context.getServiceType(), allowed);
             } catch (Exception e) {
                 // 静默处理指标记录异常，不影响业务逻辑
             }
@@ -77,14 +103,11 @@ public class SlidingWindowRateLimiter implements RateLimiter {
      */
     @Override
     public long getRemainingCapacity() {
-        long now = System.currentTimeMillis();
-        long window = 1000L;
-        // 清理过期请求
-        while (!q.isEmpty() && q.peek() < now - window) {
-            q.poll();
+        synchronized (q) {
+            // 清理过期请求
+            evictExpired(System.currentTimeMillis());
+            return Math.max(0, config.getRate() - q.size());
         }
-        long maxRequests = config.getRate();
-        return Math.max(0, maxRequests - q.size());
     }
 
     /**
@@ -92,16 +115,14 @@ public class SlidingWindowRateLimiter implements RateLimiter {
      */
     @Override
     public double getUsageRatio() {
-        long now = System.currentTimeMillis();
-        long window = 1000L;
-        // 清理过期请求
-        while (!q.isEmpty() && q.peek() < now - window) {
-            q.poll();
-        }
         long maxRequests = config.getRate();
         if (maxRequests <= 0) {
             return 0;
         }
-        return (double) q.size() / maxRequests;
+        synchronized (q) {
+            // 清理过期请求
+            evictExpired(System.currentTimeMillis());
+            return (double) q.size() / maxRequests;
+        }
     }
 }
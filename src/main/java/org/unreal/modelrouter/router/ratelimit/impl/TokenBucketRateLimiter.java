@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
 import org.unreal.modelrouter.router.ratelimit.RateLimitConfig;
 import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import org.unreal.modelrouter.router.ratelimit.RateLimitMeterBinding;
+import org.unreal.modelrouter.router.ratelimit.RateLimitReservation;
 import org.unreal.modelrouter.router.ratelimit.RateLimiter;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -15,6 +17,7 @@ public class TokenBucketRateLimiter implements RateLimiter {
     
     @Autowired(required = false)
     private MetricsCollector metricsCollector;
+    private final RateLimitMeterBinding meterBinding = new RateLimitMeterBinding("token_bucket", true);
 
     public TokenBucketRateLimiter(final RateLimitConfig config) {
         this.config = config;
@@ -29,28 +32,37 @@ public class TokenBucketRateLimiter implements RateLimiter {
      */
     @Override
     public boolean tryAcquire(final RateLimitContext context) {
+        return reserve(context).isGranted();
+    }
+
+    /**
+     * 预留令牌，撤销时归还到桶中（不超过容量）
+     * @param context 限流上下文
+     * @return 预留结果
+     */
+    @Override
+    public RateLimitReservation reserve(final RateLimitContext context) {
         refill();
-        
+        int requested = context.getTokens();
+
         // 使用循环CAS来避免竞争条件
-        boolean allowed = false;
         while (true) {
             long current = tokens.get();
-            if (current < context.getTokens()) {
-                allowed = false;
-                break;
+            if (current < requested) {
+                recordRateLimitMetrics(context, false);
+                return RateLimitReservation.denied(
+                        RateLimitReservation.nanosToRecover(requested - current, config.getRate()));
             }
-            
-            long newValue = current - context.getTokens();
-            if (tokens.compareAndSet(current, newValue)) {
-                allowed = true;
-                break;
+            if (tokens.compareAndSet(current, current - requested)) {
+                recordRateLimitMetrics(context, true);
+                return RateLimitReservation.granted(() -> refund(requested));
             }
             // CAS失败，重试
         }
-        
-        // 记录限流指标
-        recordRateLimitMetrics(context, allowed);
-        return allowed;
+    }
+
+    private void refund(final int requested) {
+        tokens.updateAndGet(v -> Math.min(config.getCapacity(), v + requested));
     }
 
     private void refill() {
@@ -78,9 +90,7 @@ public class TokenBucketRateLimiter implements RateLimiter {
     private void recordRateLimitMetrics(final RateLimitContext context, final boolean allowed) {
         if (metricsCollector != null) {
             try {
-                String serviceName = context.getServiceType() != null
-                    ? context.getServiceType().name().toLowerCase() : "unknown";
-                metricsCollector.recordRateLimit(serviceName, "token_bucket", allowed);
+                meterBinding.record(metricsCollector, context.getServiceType(), allowed);
             } catch (Exception e) {
                 // 静默处理指标记录异常，不影响业务逻辑
             }
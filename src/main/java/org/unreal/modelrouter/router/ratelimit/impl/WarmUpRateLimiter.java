@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
 import org.unreal.modelrouter.router.ratelimit.RateLimitConfig;
 import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import org.unreal.modelrouter.router.ratelimit.RateLimitMeterBinding;
+import org.unreal.modelrouter.router.ratelimit.RateLimitReservation;
 import org.unreal.modelrouter.router.ratelimit.RateLimiter;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -21,6 +23,7 @@ public class WarmUpRateLimiter implements RateLimiter {
     
     @Autowired(required = false)
     private MetricsCollector metricsCollector;
+    private final RateLimitMeterBinding meterBinding = new RateLimitMeterBinding("warm_up", true);
 
     public WarmUpRateLimiter(final RateLimitConfig config) {
         this.config = config;
@@ -38,18 +41,31 @@ public class WarmUpRateLimiter implements RateLimiter {
      */
     @Override
     public boolean tryAcquire(final RateLimitContext context) {
+        return reserve(context).isGranted();
+    }
+
+    /**
+     * 预留令牌，撤销时归还到桶中（不超过容量）；重试等待时间按当前预热速率估算
+     * @param context 限流上下文
+     * @return 预留结果
+     */
+    @Override
+    public RateLimitReservation reserve(final RateLimitContext context) {
         refill();
-        long current = tokens.get();
-        boolean allowed;
-        if (current < context.getTokens()) {
-            allowed = false;
-        } else {
-            allowed = tokens.compareAndSet(current, current - context.getTokens());
+        int requested = context.getTokens();
+        while (true) {
+            long current = tokens.get();
+            if (current < requested) {
+                recordRateLimitMetrics(context, false);
+                return RateLimitReservation.denied(RateLimitReservation.nanosToRecover(
+                        requested - current, calculateCurrentRate(System.nanoTime())));
+            }
+            if (tokens.compareAndSet(current, current - requested)) {
+                recordRateLimitMetrics(context, true);
+                return RateLimitReservation.granted(
+                        () -> tokens.updateAndGet(v -> Math.min(config.getCapacity(), v + requested)));
+            }
         }
-        
-        // 记录限流指标
-        recordRateLimitMetrics(context, allowed);
-        return allowed;
     }
 
     private void refill() {
@@ -106,9 +122,7 @@ public class WarmUpRateLimiter implements RateLimiter {
     private void recordRateLimitMetrics(final RateLimitContext context, final boolean allowed) {
         if (metricsCollector != null) {
             try {
-                String serviceName = context.getServiceType() != null
-                    ? context.getServiceType().name().toLowerCase() : "unknown";
-                metricsCollector.recordRateLimit(serviceName, "warm_up", allowed);
+                meterBinding.record(metricsCollector, context.getServiceType(), allowed);
             } catch (Exception e) {
                 // 静默处理指标记录异常，不影响业务逻辑
             }
@@ -13,6 +13,7 @@ import org.unreal.modelrouter.router.model.ModelServiceRegistry;
 import org.unreal.modelrouter.router.ratelimit.RateLimitConfig;
 import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
 import org.unreal.modelrouter.router.ratelimit.RateLimitManager;
+import org.unreal.modelrouter.router.ratelimit.RateLimitReservation;
 import org.unreal.modelrouter.router.ratelimit.RateLimiter;
 
 import java.util.HashMap;
@@ -64,9 +65,9 @@ class RateLimiterTest {
         RateLimiter serviceLimiter = mock(RateLimiter.class);
         RateLimiter globalLimiter = mock(RateLimiter.class);
         
-        when(instanceLimiter.tryAcquire(context)).thenReturn(true);
-        when(serviceLimiter.tryAcquire(context)).thenReturn(true);
-        when(globalLimiter.tryAcquire(context)).thenReturn(true);
+        when(instanceLimiter.reserve(context)).thenReturn(RateLimitReservation.granted(null));
+        when(serviceLimiter.reserve(context)).thenReturn(RateLimitReservation.granted(null));
+        when(globalLimiter.reserve(context)).thenReturn(RateLimitReservation.granted(null));
 
         // Use reflection to set the limiters in the manager
         setInternalState(rateLimitManager, "globalLimiter", globalLimiter);
@@ -84,9 +85,9 @@ class RateLimiterTest {
 
         // Assert
         assertTrue(result);
-        verify(instanceLimiter).tryAcquire(context);
-        verify(serviceLimiter).tryAcquire(context);
-        verify(globalLimiter).tryAcquire(context);
+        verify(instanceLimiter).reserve(context);
+        verify(serviceLimiter).reserve(context);
+        verify(globalLimiter).reserve(context);
     }
 
     @Test
@@ -101,7 +102,7 @@ class RateLimiterTest {
 
         // Mock instance limiter to deny request
         RateLimiter instanceLimiter = mock(RateLimiter.class);
-        when(instanceLimiter.tryAcquire(context)).thenReturn(false);
+        when(instanceLimiter.reserve(context)).thenReturn(RateLimitReservation.denied(-1));
 
         // Set up service and global limiters (should not be called)
         RateLimiter serviceLimiter = mock(RateLimiter.class);
@@ -123,9 +124,9 @@ class RateLimiterTest {
 
         // Assert
         assertFalse(result);
-        verify(instanceLimiter).tryAcquire(context);
-        verify(serviceLimiter, never()).tryAcquire(any());
-        verify(globalLimiter, never()).tryAcquire(any());
+        verify(instanceLimiter).reserve(context);
+        verify(serviceLimiter, never()).reserve(any());
+        verify(globalLimiter, never()).reserve(any());
     }
 
     @Test
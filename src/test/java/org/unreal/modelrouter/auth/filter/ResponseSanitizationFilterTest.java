@@ -4,19 +4,33 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilterChain;
+import org.unreal.modelrouter.auth.sanitization.IncrementalSanitizer;
 import org.unreal.modelrouter.auth.sanitization.SanitizationService;
+import org.unreal.modelrouter.auth.sanitization.impl.AutomatonSanitizationRuleEngine;
+import org.unreal.modelrouter.auth.sanitization.impl.DefaultSanitizationService;
 import org.unreal.modelrouter.auth.security.audit.SecurityAuditService;
 import org.unreal.modelrouter.auth.security.config.properties.SanitizationConfig;
 import org.unreal.modelrouter.auth.security.config.properties.SecurityProperties;
+import org.unreal.modelrouter.auth.security.model.RuleType;
+import org.unreal.modelrouter.auth.security.model.SanitizationRule;
+import org.unreal.modelrouter.auth.security.model.SanitizationStrategy;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -205,4 +219,164 @@ class ResponseSanitizationFilterTest {
             StepVerifier.create(result).verifyComplete();
         }
     }
+
+    @Nested
+    @DisplayName("流式响应测试")
+    class StreamingTests {
+
+        private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+        private MockServerWebExchange streamThroughFilter(final MediaType mediaType, final boolean flushEach,
+                                                          final byte[]... chunks) {
+            SanitizationRule secret = SanitizationRule.builder()
+                    .ruleId("response-secret")
+                    .type(RuleType.SENSITIVE_WORD)
+                    .pattern("secret")
+                    .strategy(SanitizationStrategy.MASK)
+                    .enabled(true)
+                    .priority(1)
+                    .build();
+            AutomatonSanitizationRuleEngine engine = new AutomatonSanitizationRuleEngine();
+            when(sanitizationService.createResponseSanitizer(anyString()))
+                    .thenAnswer(invocation -> engine.createIncrementalSanitizer(List.of(secret),
+                            invocation.getArgument(0), 64));
+
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/chat/completions"));
+            WebFilterChain chain = mock(WebFilterChain.class);
+            when(chain.filter(any())).thenAnswer(invocation -> {
+                ServerHttpResponse response = ((ServerWebExchange) invocation.getArgument(0)).getResponse();
+                response.getHeaders().setContentType(mediaType);
+                Flux<DataBuffer> buffers = Flux.fromArray(chunks).map(bufferFactory::wrap);
+                return flushEach
+                        ? response.writeAndFlushWith(buffers.map(Flux::just))
+                        : response.writeWith(buffers);
+            });
+
+            StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+            return exchange;
+        }
+
+        @Test
+        @DisplayName("FILT-008: SSE - 跨数据块的敏感词和多字节字符被正确处理")
+        void testSseSanitizedAcrossChunks() {
+            byte[] event = "data: 中文 sec".getBytes(StandardCharsets.UTF_8);
+            byte[] rest = "ret\n\n".getBytes(StandardCharsets.UTF_8);
+            // 在“中”字的 UTF-8 编码中间切开
+            byte[] first = Arrays.copyOfRange(event, 0, 7);
+            byte[] second = Arrays.copyOfRange(event, 7, event.length);
+
+            MockServerWebExchange exchange = streamThroughFilter(MediaType.TEXT_EVENT_STREAM, true,
+                    first, second, rest, "data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+
+            StepVerifier.create(exchange.getResponse().getBodyAsString())
+                    .expectNext("data: 中文 ******\n\ndata: [DONE]\n\n")
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("FILT-009: NDJSON - 分块写入的响应逐块脱敏")
+        void testNdjsonSanitized() {
+            MockServerWebExchange exchange = streamThroughFilter(MediaType.APPLICATION_NDJSON, false,
+                    "{\"a\":\"my se".getBytes(StandardCharsets.UTF_8),
+                    "cret\"}\n{\"b\":\"secret\"}".getBytes(StandardCharsets.UTF_8));
+
+            StepVerifier.create(exchange.getResponse().getBodyAsString())
+                    .expectNext("{\"a\":\"my ******\"}\n{\"b\":\"******\"}")
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("FILT-010: 没有增量脱敏器时原样输出")
+        void testPassThroughWithoutSanitizer() {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/chat/completions"));
+            WebFilterChain chain = mock(WebFilterChain.class);
+            when(chain.filter(any())).thenAnswer(invocation -> {
+                ServerHttpResponse response = ((ServerWebExchange) invocation.getArgument(0)).getResponse();
+                response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+                return response.writeAndFlushWith(Flux.just(Flux.just(
+                        bufferFactory.wrap("data: secret\n\n".getBytes(StandardCharsets.UTF_8)))));
+            });
+
+            StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+            StepVerifier.create(exchange.getResponse().getBodyAsString())
+                    .expectNext("data: secret\n\n")
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("FILT-011: SSE 经真实脱敏服务端到端脱敏，内容类型带 charset 参数")
+        void testSseThroughDefaultSanitizationService() {
+            SecurityProperties properties = new SecurityProperties();
+            properties.getSanitization().getResponse().setSensitiveWords(List.of("secret"));
+            properties.getSanitization().getResponse().setLogSanitization(false);
+            DefaultSanitizationService service =
+                    new DefaultSanitizationService(new AutomatonSanitizationRuleEngine(), properties);
+            service.initializeRules();
+            ResponseSanitizationFilter realFilter = new ResponseSanitizationFilter(service, auditService, properties);
+
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/chat/completions"));
+            WebFilterChain chain = mock(WebFilterChain.class);
+            when(chain.filter(any())).thenAnswer(invocation -> {
+                ServerHttpResponse response = ((ServerWebExchange) invocation.getArgument(0)).getResponse();
+                response.getHeaders().setContentType(MediaType.parseMediaType("text/event-stream;charset=UTF-8"));
+                return response.writeAndFlushWith(Flux.just(
+                        Flux.just(bufferFactory.wrap("data: the sec".getBytes(StandardCharsets.UTF_8))),
+                        Flux.just(bufferFactory.wrap("ret\n\ndata: [DONE]\n\n".getBytes(StandardCharsets.UTF_8)))));
+            });
+
+            StepVerifier.create(realFilter.filter(exchange, chain)).verifyComplete();
+            StepVerifier.create(exchange.getResponse().getBodyAsString())
+                    .expectNext("data: the ******\n\ndata: [DONE]\n\n")
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("FILT-012: 脱敏失败转为放行时先输出保留窗口中的内容")
+        void testFailureFlushesHeldWindow() {
+            IncrementalSanitizer failing = new IncrementalSanitizer() {
+                private String held = "";
+
+                @Override
+                public String feed(final String chunk) {
+                    if (!held.isEmpty()) {
+                        throw new IllegalStateException("boom");
+                    }
+                    held = chunk;
+                    return "";
+                }
+
+                @Override
+                public String finish() {
+                    return held;
+                }
+
+                @Override
+                public String abandon() {
+                    String rest = held;
+                    held = "";
+                    return rest;
+                }
+
+                @Override
+                public boolean isModified() {
+                    return false;
+                }
+            };
+            when(sanitizationService.createResponseSanitizer(anyString())).thenReturn(failing);
+
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/chat/completions"));
+            WebFilterChain chain = mock(WebFilterChain.class);
+            when(chain.filter(any())).thenAnswer(invocation -> {
+                ServerHttpResponse response = ((ServerWebExchange) invocation.getArgument(0)).getResponse();
+                response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+                return response.writeWith(Flux.just("data: a", "b\n\n", "data: c\n\n")
+                        .map(text -> bufferFactory.wrap(text.getBytes(StandardCharsets.UTF_8))));
+            });
+
+            StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+            StepVerifier.create(exchange.getResponse().getBodyAsString())
+                    .expectNext("data: ab\n\ndata: c\n\n")
+                    .verifyComplete();
+        }
+    }
 }
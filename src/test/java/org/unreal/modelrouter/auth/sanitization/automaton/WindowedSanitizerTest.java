@@ -0,0 +1,137 @@
+package org.unreal.modelrouter.auth.sanitization.automaton;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.auth.security.model.RuleType;
+import org.unreal.modelrouter.auth.security.model.SanitizationRule;
+import org.unreal.modelrouter.auth.security.model.SanitizationStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WindowedSanitizer 测试，以整段脱敏的结果为基准
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class WindowedSanitizerTest {
+
+    private static final List<SanitizationRule> RULES = List.of(
+            rule("phone", RuleType.PII_PATTERN, "\\d{11}", SanitizationStrategy.MASK, 1),
+            rule("email", RuleType.PII_PATTERN, "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}",
+                    SanitizationStrategy.REPLACE, 2),
+            rule("secret", RuleType.SENSITIVE_WORD, "secret", SanitizationStrategy.MASK, 3),
+            rule("token", RuleType.SENSITIVE_WORD, "access token", SanitizationStrategy.HASH, 4));
+
+    private final SanitizationPlan plan = SanitizationPlan.compile(RULES, "text/event-stream");
+
+    private static SanitizationRule rule(final String id, final RuleType type, final String pattern,
+                                         final SanitizationStrategy strategy, final int priority) {
+        return SanitizationRule.builder()
+                .ruleId(id)
+                .type(type)
+                .pattern(pattern)
+                .strategy(strategy)
+                .enabled(true)
+                .priority(priority)
+                .build();
+    }
+
+    private WindowedSanitizer sanitizer(final String separator) {
+        return new WindowedSanitizer(plan, plan.carryWindow(64), separator, rule -> { });
+    }
+
+    private static String stream(final WindowedSanitizer sanitizer, final List<String> chunks) {
+        StringBuilder output = new StringBuilder();
+        for (String chunk : chunks) {
+            output.append(sanitizer.feed(chunk));
+        }
+        return output.append(sanitizer.finish()).toString();
+    }
+
+    @Test
+    @DisplayName("跨数据块的命中被捕获")
+    void shouldCatchMatchesSpanningChunks() {
+        WindowedSanitizer sanitizer = sanitizer(null);
+
+        String output = stream(sanitizer, List.of("my sec", "ret is 1380", "0138000 and access ", "token"));
+
+        assertEquals(plan.apply("my secret is 13800138000 and access token", rule -> { }), output);
+        assertTrue(output.startsWith("my ****** is *********** and [HASH:"));
+        assertTrue(sanitizer.isModified());
+    }
+
+    @Test
+    @DisplayName("任意切分方式的输出与整段脱敏一致")
+    void shouldMatchWholeBodyForRandomSplits() {
+        Random random = new Random(7);
+        String[] parts = {"secret", "a.b@example.com", "13800138000", "access token", "secrets", "plain", "中文"};
+        String[] separators = {" ", ", ", "\n", "，", ""};
+        for (int round = 0; round < 200; round++) {
+            // 正则命中长度不超过窗口时，流式输出与整段脱敏完全一致
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < 60; i++) {
+                body.append(parts[random.nextInt(parts.length)]);
+                body.append(separators[i % 2 == 0 ? random.nextInt(separators.length - 1) : random.nextInt(
+                        separators.length)]);
+            }
+            List<String> chunks = new ArrayList<>();
+            for (int position = 0; position < body.length(); ) {
+                int next = Math.min(body.length(), position + 1 + random.nextInt(40));
+                chunks.add(body.substring(position, next));
+                position = next;
+            }
+
+            assertEquals(plan.apply(body.toString(), rule -> { }), stream(sanitizer(null), chunks));
+        }
+    }
+
+    @Test
+    @DisplayName("保留窗口有界，大部分内容在流结束前输出")
+    void shouldKeepCarryBounded() {
+        WindowedSanitizer sanitizer = sanitizer(null);
+        int window = plan.carryWindow(64);
+        int emitted = 0;
+        for (int i = 0; i < 1_000; i++) {
+            emitted += sanitizer.feed("chunk " + i + " with secret data; ").length();
+            assertTrue(sanitizer.carried() <= window * 2, "carry " + sanitizer.carried());
+        }
+        assertTrue(emitted > 0);
+
+        WindowedSanitizer digits = sanitizer(null);
+        for (int i = 0; i < 1_000; i++) {
+            digits.feed("1234567890");
+            assertTrue(digits.carried() <= window * 4 + 10, "carry " + digits.carried());
+        }
+    }
+
+    @Test
+    @DisplayName("完整的 SSE 事件到达即输出")
+    void shouldEmitCompleteEventsImmediately() {
+        WindowedSanitizer sanitizer = sanitizer("\n\n");
+
+        assertEquals("data: {\"content\":\"the ******\"}\n\n", sanitizer.feed("data: {\"content\":\"the secret\"}\n\n"));
+        assertEquals("", sanitizer.feed("data: {\"content\":\"call 1380"));
+        assertEquals("data: {\"content\":\"call ***********\"}\n\n", sanitizer.feed("0138000\"}\n\n"));
+        assertEquals(0, sanitizer.carried());
+        assertEquals("data: [DONE]", sanitizer.feed("data: [DONE]") + sanitizer.finish());
+    }
+
+    @Test
+    @DisplayName("跨越记录分隔符的命中既不丢失也不重复")
+    void shouldKeepMatchSpanningRecordSeparator() {
+        SanitizationPlan cardPlan = SanitizationPlan.compile(List.of(
+                rule("card", RuleType.PII_PATTERN, "\\d{4}[\\s-]?\\d{4}", SanitizationStrategy.MASK, 1)),
+                "application/x-ndjson");
+        WindowedSanitizer sanitizer = new WindowedSanitizer(cardPlan, cardPlan.carryWindow(64), "\n", rule -> { });
+
+        String output = stream(sanitizer, List.of("{\"a\":1}\ncard 1234\n5678", " end\n"));
+
+        assertEquals(cardPlan.apply("{\"a\":1}\ncard 1234\n5678 end\n", rule -> { }), output);
+        assertEquals("{\"a\":1}\ncard ********* end\n", output);
+    }
+}
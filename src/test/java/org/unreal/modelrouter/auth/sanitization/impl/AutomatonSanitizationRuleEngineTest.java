@@ -0,0 +1,146 @@
+package org.unreal.modelrouter.auth.sanitization.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.auth.security.model.RuleType;
+import org.unreal.modelrouter.auth.security.model.SanitizationRule;
+import org.unreal.modelrouter.auth.security.model.SanitizationStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AutomatonSanitizationRuleEngine 单元测试，以逐条正则引擎的结果为基准
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class AutomatonSanitizationRuleEngineTest {
+
+    private final AutomatonSanitizationRuleEngine engine = new AutomatonSanitizationRuleEngine();
+    private final OptimizedSanitizationRuleEngine regexEngine = new OptimizedSanitizationRuleEngine();
+
+    private static SanitizationRule rule(final String id, final RuleType type, final String pattern,
+                                         final SanitizationStrategy strategy, final int priority) {
+        return SanitizationRule.builder()
+                .ruleId(id)
+                .type(type)
+                .pattern(pattern)
+                .strategy(strategy)
+                .enabled(true)
+                .priority(priority)
+                .build();
+    }
+
+    private static SanitizationRule word(final String word, final int priority) {
+        return rule("word-" + word, RuleType.SENSITIVE_WORD, word, SanitizationStrategy.MASK, priority);
+    }
+
+    private void assertSameAsRegexEngine(final String content, final List<SanitizationRule> rules) {
+        String expected = regexEngine.applySanitizationRules(content, rules, "application/json").block();
+        String actual = engine.applySanitizationRules(content, rules, "application/json").block();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("敏感词按词边界和 ASCII 忽略大小写匹配")
+    void shouldMatchWholeWordsIgnoringCase() {
+        List<SanitizationRule> rules = List.of(word("secret", 1), word("key", 2), word("@token", 3));
+
+        String result = engine.sanitize("My SECRET key, secrets, keys, monkey, api_key, a@token,@token",
+                rules, "text/plain");
+
+        assertEquals("My ****** ***, secrets, keys, monkey, api_key, a******,@token", result);
+        assertSameAsRegexEngine("My SECRET key, secrets, keys, monkey, api_key, a@token,@token", rules);
+    }
+
+    @Test
+    @DisplayName("四种策略与正则引擎输出一致")
+    void shouldApplyAllStrategies() {
+        List<SanitizationRule> rules = List.of(
+                rule("phone", RuleType.PII_PATTERN, "\\d{11}", SanitizationStrategy.MASK, 1),
+                rule("email", RuleType.PII_PATTERN, "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}",
+                        SanitizationStrategy.REPLACE, 2),
+                rule("card", RuleType.CUSTOM_REGEX, "\\b\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}\\b",
+                        SanitizationStrategy.HASH, 3),
+                rule("pwd", RuleType.SENSITIVE_WORD, "password", SanitizationStrategy.REMOVE, 4));
+
+        String content = "{\"phone\":\"13800138000\",\"mail\":\"a.b@example.com\",\"card\":\"6222 0212 3456 7890\","
+                + "\"note\":\"password reset\"}";
+
+        String result = engine.sanitize(content, rules, "application/json");
+        assertTrue(result.contains("\"***********\""));
+        assertTrue(result.contains("[REDACTED]"));
+        assertTrue(result.contains("[HASH:"));
+        assertTrue(result.contains("\" reset\""));
+        assertSameAsRegexEngine(content, rules);
+    }
+
+    @Test
+    @DisplayName("重叠命中由优先级更高的规则处理")
+    void shouldResolveOverlapsByPriority() {
+        SanitizationRule phrase = rule("phrase", RuleType.SENSITIVE_WORD, "secret key",
+                SanitizationStrategy.REPLACE, 1);
+        SanitizationRule key = rule("key", RuleType.SENSITIVE_WORD, "key", SanitizationStrategy.MASK, 2);
+
+        assertEquals("the [REDACTED] and ***", engine.sanitize("the secret key and key", List.of(key, phrase), "t"));
+        assertSameAsRegexEngine("the secret key and key", List.of(key, phrase));
+    }
+
+    @Test
+    @DisplayName("带反向引用的表达式单独扫描，未启用和不适用的规则被忽略")
+    void shouldHandleNonFusableAndInactiveRules() {
+        SanitizationRule repeated = rule("repeat", RuleType.CUSTOM_REGEX, "(\\w)\\1{3}", SanitizationStrategy.MASK, 1);
+        SanitizationRule disabled = word("hello", 2);
+        disabled.setEnabled(false);
+        SanitizationRule otherType = word("world", 3);
+        otherType.setApplicableContentTypes(List.of("text/html"));
+
+        List<SanitizationRule> rules = List.of(repeated, disabled, otherType);
+        assertEquals("hello world ****", engine.sanitize("hello world aaaa", rules, "application/json"));
+        assertSameAsRegexEngine("hello world aaaa", rules);
+    }
+
+    @Test
+    @DisplayName("大量敏感词与正则引擎输出一致，命中计数按规则累计")
+    void shouldMatchRegexEngineWithManyWords() {
+        Random random = new Random(42);
+        List<SanitizationRule> rules = new ArrayList<>();
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String w = "w" + Integer.toString(random.nextInt(1_000_000), 36);
+            vocabulary.add(w);
+            rules.add(word(w + i, i));
+        }
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append(i % 7 == 0 ? rules.get(random.nextInt(rules.size())).getPattern().toUpperCase()
+                    : vocabulary.get(random.nextInt(vocabulary.size()))).append(i % 5 == 0 ? ", " : " ");
+        }
+
+        assertSameAsRegexEngine(content.toString(), rules);
+
+        AutomatonSanitizationRuleEngine fresh = new AutomatonSanitizationRuleEngine();
+        String hit = rules.get(7).getPattern();
+        fresh.sanitize(hit + " " + hit, rules, "application/json");
+        fresh.sanitize(hit, rules, "application/json");
+        assertEquals(2L, fresh.getRuleMatchCount(rules.get(7).getRuleId()).block());
+        assertEquals(0L, fresh.getRuleMatchCount(rules.get(8).getRuleId()).block());
+    }
+
+    @Test
+    @DisplayName("同一组规则复用编译结果，compileRules 后重新编译")
+    void shouldCachePlans() {
+        List<SanitizationRule> rules = List.of(word("secret", 1), word("token", 2));
+
+        var first = engine.getPlan(rules, "application/json");
+        assertSame(first, engine.getPlan(new ArrayList<>(List.of(rules.get(1), rules.get(0))), "application/json"));
+        assertNotSame(first, engine.getPlan(rules, "text/plain"));
+
+        engine.compileRules(rules).block();
+        assertNotSame(first, engine.getPlan(rules, "application/json"));
+    }
+}
@@ -0,0 +1,273 @@
+package org.unreal.modelrouter.auth.security.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.unreal.modelrouter.auth.security.config.properties.AuditConfig;
+import org.unreal.modelrouter.common.dto.AuditEventType;
+import org.unreal.modelrouter.persistence.jpa.entity.SecurityAuditEventEntity;
+import org.unreal.modelrouter.persistence.jpa.entity.SecurityAuditEventEntity.RiskLevel;
+import org.unreal.modelrouter.persistence.jpa.repository.SecurityAuditEventRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuditIngestionPipeline 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class AuditIngestionPipelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SecurityAuditEventRepository auditRepository;
+    private AuditConfig auditConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private List<SecurityAuditEventEntity> persisted;
+    private AuditIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        auditRepository = mock(SecurityAuditEventRepository.class);
+        persisted = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            List<SecurityAuditEventEntity> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        }).when(auditRepository).saveAll(anyList());
+
+        auditConfig = new AuditConfig();
+        AuditConfig.IngestionConfig ingestion = auditConfig.getIngestion();
+        ingestion.setBatchSize(10);
+        ingestion.setFlushIntervalMs(20);
+        ingestion.setAggregationFlushSeconds(3600);
+        ingestion.setSpillPath(tempDir.resolve("spill.jsonl").toString());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    private AuditIngestionPipeline newPipeline() {
+        pipeline = new AuditIngestionPipeline(auditRepository, auditConfig,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        return pipeline;
+    }
+
+    private static SecurityAuditEventEntity event(final AuditEventType type, final boolean success) {
+        return SecurityAuditEventEntity.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(type)
+                .resourceId("key-1")
+                .resource("/v1/chat/completions")
+                .success(success)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private double events(final String result) {
+        return meterRegistry.get("jairouter.security.audit.ingestion.events").tag("result", result)
+                .counter().count();
+    }
+
+    private void awaitEvents(final String result, final double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events(result) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, events(result));
+    }
+
+    @Test
+    @DisplayName("逐条写入策略的事件应批量 saveAll")
+    void submit_shouldWriteInBatches() {
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+
+        for (int i = 0; i < 25; i++) {
+            p.submit(event(AuditEventType.API_KEY_CREATED, true));
+        }
+        p.shutdown();
+
+        assertEquals(25, persisted.size());
+        verify(auditRepository, never()).save(any());
+        verify(auditRepository, atMost(25 / 2)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("成功的 API_KEY_USED 应聚合为一条汇总事件")
+    void apiKeyUsed_shouldBeAggregated() {
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(p.tryAggregate(AuditEventType.API_KEY_USED, true, null,
+                    "key-1", "/v1/chat/completions", "10.0.0.1"));
+        }
+        p.submit(event(AuditEventType.API_KEY_USED, true));
+        assertEquals(1, p.getAggregateKeyCount());
+
+        p.flushAggregates();
+
+        assertEquals(1, persisted.size());
+        SecurityAuditEventEntity summary = persisted.get(0);
+        assertEquals(AuditEventType.API_KEY_USED, summary.getEventType());
+        assertEquals("key-1", summary.getResourceId());
+        assertEquals("10.0.0.1", summary.getClientIp());
+        assertTrue(summary.getMetadata().contains("\"count\":101"));
+        assertEquals(0, p.getAggregateKeyCount());
+        assertEquals(101.0, events("aggregated"));
+    }
+
+    @Test
+    @DisplayName("失败和中风险事件不受聚合策略影响，始终逐条写入")
+    void securityRelevantEvents_shouldAlwaysPersist() {
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+
+        assertFalse(p.tryAggregate(AuditEventType.API_KEY_USED, false, null, "key-1", "/v1/chat", null));
+        p.submit(event(AuditEventType.API_KEY_USED, false));
+        SecurityAuditEventEntity revoked = event(AuditEventType.API_KEY_USED, true);
+        revoked.setRiskLevel(RiskLevel.MEDIUM);
+        p.submit(revoked);
+        p.shutdown();
+
+        assertEquals(2, persisted.size());
+        assertEquals(0.0, events("aggregated"));
+    }
+
+    @Test
+    @DisplayName("采样策略按采样率丢弃成功事件")
+    void samplePolicy_shouldDropUnsampledEvents() {
+        auditConfig.getIngestion().getEventPolicies()
+                .put(AuditEventType.JWT_TOKEN_VALIDATED, AuditConfig.EventPolicy.SAMPLE);
+        auditConfig.getIngestion().setSampleRate(0.0);
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+
+        for (int i = 0; i < 10; i++) {
+            p.submit(event(AuditEventType.JWT_TOKEN_VALIDATED, true));
+        }
+        p.submit(event(AuditEventType.JWT_TOKEN_VALIDATED, false));
+        p.shutdown();
+
+        assertEquals(1, persisted.size());
+        assertEquals(10.0, events("sampled_out"));
+    }
+
+    @Test
+    @DisplayName("缓冲区满时由写线程溢写到文件，溢出队列也满时丢弃，回放后写入数据库")
+    void overflow_shouldSpillAndReplay() throws Exception {
+        auditConfig.getIngestion().setQueueCapacity(2);
+        auditConfig.getIngestion().setBatchSize(100);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        doAnswer(invocation -> {
+            assertNotSame(caller, Thread.currentThread(), "提交线程不应写库");
+            writing.countDown();
+            assertTrue(resume.await(5, TimeUnit.SECONDS));
+            List<SecurityAuditEventEntity> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        }).when(auditRepository).saveAll(anyList());
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+
+        // 写线程阻塞在写库上时缓冲区写满，之后的事件进入同样容量的溢出队列，由写线程恢复后溢写，
+        // 溢出队列也满时丢弃
+        p.submit(event(AuditEventType.API_KEY_CREATED, true));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            p.submit(event(AuditEventType.API_KEY_CREATED, true));
+        }
+        assertEquals(0.0, events("spilled"));
+        assertEquals(1.0, events("dropped"));
+        resume.countDown();
+
+        awaitEvents("spilled", 2.0);
+        assertEquals(2, Files.readAllLines(tempDir.resolve("spill.jsonl")).size());
+        awaitEvents("written", 3.0);
+
+        doAnswer(invocation -> {
+            List<SecurityAuditEventEntity> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        }).when(auditRepository).saveAll(anyList());
+        p.replaySpill();
+
+        assertEquals(5, persisted.size());
+        assertTrue(persisted.stream().allMatch(e -> e.getEventType() == AuditEventType.API_KEY_CREATED));
+        assertFalse(Files.exists(tempDir.resolve("spill.jsonl.replay")));
+        assertEquals(2.0, events("replayed"));
+    }
+
+    @Test
+    @DisplayName("写库失败的批次应溢写，未开启溢写时计为丢弃")
+    void writeFailure_withoutSpill_shouldDrop() {
+        auditConfig.getIngestion().setSpillEnabled(false);
+        auditConfig.getIngestion().setFlushIntervalMs(60_000);
+        doThrow(new RuntimeException("db down")).when(auditRepository).saveAll(anyList());
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+
+        p.submit(event(AuditEventType.API_KEY_CREATED, true));
+        p.submit(event(AuditEventType.API_KEY_CREATED, true));
+        p.shutdown();
+
+        assertEquals(2.0, events("failed"));
+        assertEquals(2.0, events("dropped"));
+    }
+
+    @Test
+    @DisplayName("管道停止后到达的事件丢弃并计数，不在调用线程写库")
+    void submitAfterShutdown_shouldDrop() {
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+        p.shutdown();
+
+        p.submit(event(AuditEventType.API_KEY_CREATED, true));
+
+        assertTrue(p.isEnabled());
+        assertEquals(1.0, events("dropped"));
+        verify(auditRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("未启用管道时直接写库")
+    void disabled_shouldSaveDirectly() {
+        auditConfig.getIngestion().setEnabled(false);
+        AuditIngestionPipeline p = newPipeline();
+        p.start();
+
+        SecurityAuditEventEntity entity = event(AuditEventType.API_KEY_USED, true);
+        assertFalse(p.tryAggregate(AuditEventType.API_KEY_USED, true, null, "key-1", "/v1/chat", null));
+        p.submit(entity);
+
+        assertFalse(p.isRunning());
+        verify(auditRepository).save(entity);
+    }
+}
@@ -13,9 +13,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.security.core.Authentication;
 import org.unreal.modelrouter.auth.security.config.properties.JwtConfig;
 import org.unreal.modelrouter.auth.security.config.properties.SecurityProperties;
 import org.unreal.modelrouter.auth.security.service.EnhancedJwtBlacklistService;
+import org.unreal.modelrouter.common.exception.AuthenticationException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -205,6 +208,81 @@ class DefaultJwtTokenValidatorTest {
         }
     }
 
+    @Nested
+    @DisplayName("验证缓存测试")
+    class VerifiedCacheTests {
+
+        @BeforeEach
+        void enableCache() {
+            when(jwtProperties.getVerifiedCacheSize()).thenReturn(100);
+            when(jwtProperties.isBlacklistEnabled()).thenReturn(true);
+            when(jwtProperties.getBlacklistRecheckSeconds()).thenReturn(60L);
+            when(redisTemplate.hasKey(anyString())).thenReturn(Mono.just(false));
+        }
+
+        @Test
+        @DisplayName("重复验证复用验签结果，复查间隔内只查询一次 Redis")
+        void shouldReuseVerifiedToken() {
+            String token = generateTestToken("user123", Arrays.asList("USER"));
+
+            Authentication first = validator.validateToken(token).block();
+            Authentication second = validator.validateToken(token).block();
+
+            assertNotNull(first);
+            assertNotNull(second);
+            assertNotSame(first, second);
+            assertSame(first.getDetails(), second.getDetails());
+            assertEquals("user123", second.getName());
+            verify(redisTemplate, times(1)).hasKey(anyString());
+        }
+
+        @Test
+        @DisplayName("复查间隔为 0 时每次都查询 Redis")
+        void shouldCheckRedisEveryTimeWhenRecheckDisabled() {
+            when(jwtProperties.getBlacklistRecheckSeconds()).thenReturn(0L);
+            String token = generateTestToken("user123", Arrays.asList("USER"));
+
+            validator.validateToken(token).block();
+            validator.validateToken(token).block();
+
+            verify(redisTemplate, times(2)).hasKey(anyString());
+        }
+
+        @Test
+        @DisplayName("密钥变更后缓存失效，旧密钥签发的令牌验证失败")
+        void shouldInvalidateOnKeyChange() {
+            String token = generateTestToken("user123", Arrays.asList("USER"));
+            StepVerifier.create(validator.validateToken(token)).expectNextCount(1).verifyComplete();
+
+            when(jwtProperties.getSecret()).thenReturn("another-secret-key-for-jwt-validation-min-32-chars");
+
+            StepVerifier.create(validator.validateToken(token))
+                .expectErrorMatches(e -> e instanceof AuthenticationException
+                    && "JWT_INVALID".equals(((AuthenticationException) e).getErrorCode()))
+                .verify();
+        }
+
+        @Test
+        @DisplayName("本实例拉黑的令牌立即被拒绝，无需再查询 Redis")
+        @SuppressWarnings("unchecked")
+        void shouldRejectLocallyRevokedToken() {
+            ReactiveValueOperations<String, String> ops = mock(ReactiveValueOperations.class);
+            when(redisTemplate.opsForValue()).thenReturn(ops);
+            when(ops.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+            String token = generateTestToken("user123", Arrays.asList("USER"));
+            validator.validateToken(token).block();
+
+            StepVerifier.create(validator.blacklistToken(token)).verifyComplete();
+
+            StepVerifier.create(validator.validateToken(token))
+                .expectErrorMatches(e -> e instanceof AuthenticationException
+                    && "JWT_BLACKLISTED".equals(((AuthenticationException) e).getErrorCode()))
+                .verify();
+            StepVerifier.create(validator.isTokenBlacklisted(token)).expectNext(true).verifyComplete();
+            verify(redisTemplate, times(1)).hasKey(anyString());
+        }
+    }
+
     // Helper method
     private String generateTestToken(String subject, List<String> roles) {
         Date now = new Date();
@@ -0,0 +1,207 @@
+package org.unreal.modelrouter.auth.security.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.unreal.modelrouter.auth.security.service.EnhancedJwtBlacklistService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * JwtRevocationFilter 测试
+ *
+ * 两个节点共享一个进程内 Redis 替身（键值 + 发布订阅），验证撤销广播、过滤器放行和重建淘汰。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class JwtRevocationFilterTest {
+
+    private InMemoryRedis redis;
+    private JwtRevocationFilter filterA;
+    private JwtRevocationFilter filterB;
+
+    @BeforeEach
+    void setUp() {
+        redis = new InMemoryRedis();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (filterA != null) {
+            filterA.stop();
+        }
+        if (filterB != null) {
+            filterB.stop();
+        }
+    }
+
+    private JwtRevocationFilter startFilter() {
+        JwtRevocationFilter filter = new JwtRevocationFilter(redis.template);
+        filter.start();
+        await(filter::isReady);
+        return filter;
+    }
+
+    private EnhancedJwtBlacklistService service(final JwtRevocationFilter filter) {
+        EnhancedJwtBlacklistService service = new EnhancedJwtBlacklistService(redis.template);
+        ReflectionTestUtils.setField(service, "revocationFilter", filter);
+        ReflectionTestUtils.invokeMethod(service, "registerRemovalListener");
+        return service;
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 1s");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("未就绪时所有令牌都回落到 Redis 确认")
+    void shouldFallBackBeforeReady() {
+        JwtRevocationFilter filter = new JwtRevocationFilter(redis.template);
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightBeRevoked("any"));
+    }
+
+    @Test
+    @DisplayName("启动时从 Redis 黑名单键重建，包括备份键")
+    void shouldBootstrapFromRedis() {
+        redis.store("jwt:blacklist:t1", Duration.ofMinutes(5));
+        redis.store("jwt:blacklist:backup:t2", Duration.ofMinutes(5));
+
+        filterA = startFilter();
+
+        assertTrue(filterA.mightBeRevoked("t1"));
+        assertTrue(filterA.mightBeRevoked("t2"));
+        assertFalse(filterA.mightBeRevoked("clean"));
+        assertEquals(2, filterA.size());
+    }
+
+    @Test
+    @DisplayName("一个节点撤销后其他节点一秒内生效，未撤销令牌不访问 Redis")
+    void shouldPropagateRevocationAcrossReplicas() {
+        filterA = startFilter();
+        filterB = startFilter();
+        EnhancedJwtBlacklistService serviceA = service(filterA);
+        EnhancedJwtBlacklistService serviceB = service(filterB);
+
+        assertEquals(Boolean.TRUE, serviceA.addToBlacklist("t3", 60).block());
+        await(() -> filterB.mightBeRevoked("t3"));
+        assertEquals(Boolean.TRUE, serviceB.isBlacklisted("t3").block());
+
+        int lookups = redis.hasKeyCalls.get();
+        assertEquals(Boolean.FALSE, serviceB.isBlacklisted("clean").block());
+        assertEquals(lookups, redis.hasKeyCalls.get());
+    }
+
+    @Test
+    @DisplayName("移除事件清理其他节点的本地缓存")
+    void shouldPropagateRemoval() {
+        filterA = startFilter();
+        filterB = startFilter();
+        EnhancedJwtBlacklistService serviceA = service(filterA);
+        EnhancedJwtBlacklistService serviceB = service(filterB);
+        serviceA.addToBlacklist("t4", 60).block();
+        await(() -> filterB.mightBeRevoked("t4"));
+        assertEquals(Boolean.TRUE, serviceB.isBlacklisted("t4").block());
+
+        serviceA.removeFromBlacklist("t4").block();
+
+        await(() -> Boolean.FALSE.equals(serviceB.isBlacklisted("t4").block()));
+    }
+
+    @Test
+    @DisplayName("重建淘汰已在 Redis 中过期的令牌")
+    void shouldEvictExpiredOnRebuild() throws InterruptedException {
+        redis.store("jwt:blacklist:short", Duration.ofMillis(20));
+        redis.store("jwt:blacklist:long", Duration.ofMinutes(5));
+        filterA = startFilter();
+        assertEquals(2, filterA.size());
+
+        Thread.sleep(40);
+        filterA.rebuild().block();
+
+        assertEquals(1, filterA.size());
+        assertTrue(filterA.mightBeRevoked("long"));
+    }
+
+    /**
+     * 进程内 Redis 替身：带过期时间的键值存储和单频道发布订阅
+     */
+    @SuppressWarnings("unchecked")
+    private static final class InMemoryRedis {
+        private final Map<String, Long> expiresAt = new ConcurrentHashMap<>();
+        private final Sinks.Many<ReactiveSubscription.Message<String, String>> channel =
+                Sinks.many().multicast().directBestEffort();
+        private final AtomicInteger hasKeyCalls = new AtomicInteger();
+        private final ReactiveStringRedisTemplate template = mock(ReactiveStringRedisTemplate.class);
+
+        InMemoryRedis() {
+            ReactiveValueOperations<String, String> values = mock(ReactiveValueOperations.class);
+            doAnswer(invocation -> values).when(template).opsForValue();
+            doAnswer(invocation -> {
+                store(invocation.getArgument(0), invocation.getArgument(2));
+                return Mono.just(true);
+            }).when(values).set(anyString(), anyString(), any(Duration.class));
+            doAnswer(invocation -> {
+                hasKeyCalls.incrementAndGet();
+                return Mono.just(exists(invocation.getArgument(0)));
+            }).when(template).hasKey(anyString());
+            doAnswer(invocation -> {
+                long deleted = 0;
+                for (Object key : invocation.getArguments()) {
+                    deleted += expiresAt.remove((String) key) != null ? 1 : 0;
+                }
+                return Mono.just(deleted);
+            }).when(template).delete(anyString());
+            doAnswer(invocation -> {
+                String pattern = ((ScanOptions) invocation.getArgument(0)).getPattern();
+                String prefix = pattern.substring(0, pattern.indexOf('*'));
+                return Flux.fromIterable(expiresAt.keySet()).filter(key -> key.startsWith(prefix) && exists(key));
+            }).when(template).scan(any(ScanOptions.class));
+            doAnswer(invocation -> {
+                Sinks.EmitResult result = channel.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(
+                        invocation.getArgument(0), invocation.getArgument(1)));
+                return Mono.just(result.isSuccess() ? (long) channel.currentSubscriberCount() : 0L);
+            }).when(template).convertAndSend(anyString(), anyString());
+            doAnswer(invocation -> Mono.just(channel.asFlux())).when(template).listenToChannelLater(anyString());
+        }
+
+        void store(final String key, final Duration ttl) {
+            expiresAt.put(key, System.currentTimeMillis() + ttl.toMillis());
+        }
+
+        boolean exists(final String key) {
+            Long expiry = expiresAt.get(key);
+            return expiry != null && expiry > System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.unreal.modelrouter.auth.security.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ScalableBloomFilter 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("已加入的元素一定命中，未加入元素的误判率不超过设定值")
+    void shouldHaveNoFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("超出容量时追加新层，原有元素仍然命中")
+    void shouldGrowBeyondCapacity() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("token-" + i);
+        }
+
+        assertTrue(filter.layerCount() > 1);
+        assertTrue(filter.size() <= 1_000);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("重复加入不占用容量")
+    void shouldIgnoreDuplicates() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, 0.01);
+        for (int i = 0; i < 100; i++) {
+            filter.put("same");
+        }
+
+        assertEquals(1, filter.size());
+        assertEquals(1, filter.layerCount());
+    }
+
+    @Test
+    @DisplayName("非法参数抛出 IllegalArgumentException")
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(10, 1.0));
+    }
+}
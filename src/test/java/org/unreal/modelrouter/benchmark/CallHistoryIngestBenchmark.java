@@ -0,0 +1,96 @@
+package org.unreal.modelrouter.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.unreal.modelrouter.monitor.callhistory.ApiCallHistoryBulkWriter;
+import org.unreal.modelrouter.monitor.callhistory.ApiCallHistoryService;
+import org.unreal.modelrouter.monitor.callhistory.config.CallHistoryProperties;
+import org.unreal.modelrouter.monitor.callhistory.dto.CallHistoryRecordDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 基准测试 - API 调用历史批量写入吞吐量
+ *
+ * 测试内容：
+ * 1. saveAll：IDENTITY 主键下 Hibernate 逐条 INSERT 并取回主键
+ * 2. bulk：ApiCallHistoryBulkWriter 的 JDBC 批量插入，主键由数据库分配
+ *
+ * 两种方式都经过 ApiCallHistoryService.batchRecord（同一事务、同样的摘要和默认值处理），
+ * 写入内存 H2 中由 Hibernate 按实体建出的表。每次调用写入一个批次，结果单位为记录数/秒。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallHistoryIngestBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"saveAll", "bulk"})
+    String mode;
+
+    AnnotationConfigApplicationContext context;
+    ApiCallHistoryService service;
+    JdbcTemplate jdbcTemplate;
+    List<CallHistoryRecordDTO> batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = JpaBenchmarkContext.start(CallHistoryProperties.class, ApiCallHistoryBulkWriter.class,
+                ApiCallHistoryService.class);
+        context.getBean(CallHistoryProperties.class).setBulkInsertEnabled("bulk".equals(mode));
+        service = context.getBean(ApiCallHistoryService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(CallHistoryRecordDTO.builder()
+                    .traceId("trace-" + i)
+                    .requestId("req-" + i)
+                    .requestMethod("POST")
+                    .requestPath("/v1/chat/completions")
+                    .requestBody("{\"model\":\"qwen2.5\",\"messages\":[{\"role\":\"user\",\"content\":\"hello\"}]}")
+                    .contentType("application/json")
+                    .serviceType("chat")
+                    .modelName("qwen2.5")
+                    .provider("vllm")
+                    .instanceName("vllm-" + (i % 3))
+                    .instanceUrl("http://10.0.0." + (i % 3) + ":8000")
+                    .httpStatusCode(i % 20 == 0 ? 502 : 200)
+                    .isSuccess(i % 20 != 0)
+                    .promptTokens(120L)
+                    .completionTokens(80L)
+                    .totalTokens(200L)
+                    .responseTimeMs(350L + i)
+                    .apiKeyId("key-" + (i % 10))
+                    .clientIp("192.168.1." + (i % 250))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        // 控制内存数据库大小，各迭代从空表开始
+        jdbcTemplate.execute("TRUNCATE TABLE api_call_history");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batchRecord() {
+        service.batchRecord(batch);
+    }
+}
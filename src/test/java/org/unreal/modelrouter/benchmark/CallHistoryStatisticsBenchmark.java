@@ -0,0 +1,107 @@
+package org.unreal.modelrouter.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.unreal.modelrouter.monitor.callhistory.ApiCallHistoryBulkWriter;
+import org.unreal.modelrouter.monitor.callhistory.ApiCallHistoryService;
+import org.unreal.modelrouter.monitor.callhistory.CallHistoryRollupService;
+import org.unreal.modelrouter.monitor.callhistory.config.CallHistoryProperties;
+import org.unreal.modelrouter.monitor.callhistory.dto.CallHistoryStatisticsDTO;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryEntity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 基准测试 - API 调用历史统计
+ *
+ * 测试内容：
+ * 1. raw：预聚合未就绪，getStatistics 对原始表执行十个范围聚合查询
+ * 2. rollup：从分钟/小时聚合桶汇总，只有查询区间首尾不足一分钟的部分读取原始表
+ *
+ * 预置最近 7 天内均匀分布的 N 条调用记录（写入时同步累加聚合桶），
+ * 统计区间为仪表盘默认的最近 7 天。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallHistoryStatisticsBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] MODELS = {"qwen2.5", "llama3", "deepseek-v3", "bge-m3"};
+    private static final int[] STATUS_CODES = {200, 200, 200, 200, 200, 200, 200, 429, 502, 504};
+
+    @Param({"raw", "rollup"})
+    String mode;
+
+    @Param({"200000"})
+    int recordCount;
+
+    AnnotationConfigApplicationContext context;
+    ApiCallHistoryService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = JpaBenchmarkContext.start(CallHistoryProperties.class, ApiCallHistoryBulkWriter.class,
+                CallHistoryRollupService.class, ApiCallHistoryService.class);
+        service = context.getBean(ApiCallHistoryService.class);
+        ApiCallHistoryBulkWriter writer = context.getBean(ApiCallHistoryBulkWriter.class);
+        CallHistoryRollupService rollupService = context.getBean(CallHistoryRollupService.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
+        long spanSeconds = ChronoUnit.SECONDS.between(now.minusDays(7), now);
+        for (int written = 0; written < recordCount; written += BATCH_SIZE) {
+            List<ApiCallHistoryEntity> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                int status = STATUS_CODES[random.nextInt(STATUS_CODES.length)];
+                batch.add(ApiCallHistoryEntity.builder()
+                        .traceId("trace-" + (written + i))
+                        .requestId("req-" + (written + i))
+                        .requestMethod("POST")
+                        .requestPath("/v1/chat/completions")
+                        .serviceType(random.nextInt(4) == 0 ? "embedding" : "chat")
+                        .modelName(MODELS[random.nextInt(MODELS.length)])
+                        .httpStatusCode(status)
+                        .isSuccess(status < 400)
+                        .errorCode(status < 400 ? null : "HTTP_" + status)
+                        .totalTokens((long) random.nextInt(2000))
+                        .responseTimeMs((long) random.nextInt(50, 3000))
+                        .createdAt(now.minusSeconds(random.nextLong(spanSeconds)))
+                        .build());
+            }
+            transaction.executeWithoutResult(status -> {
+                writer.write(batch);
+                rollupService.accumulate(batch);
+            });
+        }
+        if ("rollup".equals(mode)) {
+            // 聚合表已覆盖全部记录，就绪时只回填高水位之后的空档
+            rollupService.init();
+            rollupService.onApplicationEvent(null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CallHistoryStatisticsDTO getStatistics() {
+        return service.getStatistics(null, null);
+    }
+}
@@ -0,0 +1,89 @@
+package org.unreal.modelrouter.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.unreal.modelrouter.persistence.jpa.JpaStoreManager;
+import org.unreal.modelrouter.persistence.jpa.repository.ConfigRepository;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 基准测试用的最小 JPA 上下文
+ *
+ * 只装配内存 H2 数据源、Hibernate 和仓库扫描，与应用使用相同的实体和仓库，
+ * 不启动 Web 服务器和其他组件；与 Spring Boot 默认一致使用类代理。每次创建使用独立的内存数据库。
+ * 需要被测的服务类时作为额外组件注册，依赖由上下文注入。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+final class JpaBenchmarkContext {
+
+    private JpaBenchmarkContext() {
+    }
+
+    static AnnotationConfigApplicationContext start(final Class<?>... components) {
+        System.setProperty("jairouter.benchmark.db", "bench-" + UUID.randomUUID());
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(Config.class);
+        if (components.length > 0) {
+            context.register(components);
+        }
+        context.refresh();
+        return context;
+    }
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = ConfigRepository.class)
+    @EnableTransactionManagement(proxyTargetClass = true)
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + System.getProperty("jairouter.benchmark.db")
+                            + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+            dataSource.setDriverClassName("org.h2.Driver");
+            return dataSource;
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(final DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan("org.unreal.modelrouter.persistence.jpa.entity");
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setJpaPropertyMap(Map.of(
+                    "hibernate.hbm2ddl.auto", "create-drop",
+                    "hibernate.show_sql", "false"));
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(final EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(final DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        JpaStoreManager jpaStoreManager(final ConfigRepository configRepository) {
+            return new JpaStoreManager(configRepository);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.unreal.modelrouter.benchmark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.unreal.modelrouter.config.core.MonitoringProperties;
+import org.unreal.modelrouter.monitor.monitoring.collector.BackendCallMeterHandle;
+import org.unreal.modelrouter.monitor.monitoring.collector.DefaultMetricsCollector;
+import org.unreal.modelrouter.monitor.monitoring.collector.RateLimitMeterHandle;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 基准测试 - 预绑定指标句柄 vs 按调用拼接 key 查找 Meter
+ *
+ * 测试内容：
+ * 1. 旧实现：每次调用读取前缀、拼接 key、computeIfAbsent 查找 Counter 和 Timer
+ * 2. 收集器入口：recordBackendCall / recordRateLimit（内部解析缓存句柄）
+ * 3. 预绑定句柄：调用方持有句柄，记录时零分配
+ *
+ * 运行方式：配合 -prof gc 查看每次操作的分配字节数
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MeterHandleBenchmark {
+
+    MeterRegistry registry;
+    MonitoringProperties properties;
+    DefaultMetricsCollector collector;
+
+    BackendCallMeterHandle backendHandle;
+    RateLimitMeterHandle rateLimitHandle;
+
+    // 旧实现使用的缓存
+    ConcurrentHashMap<String, Counter> legacyCounters;
+    ConcurrentHashMap<String, Timer> legacyTimers;
+
+    String adapter = "vllm";
+    String instance = "instance-1";
+    long duration = 42;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        properties = new MonitoringProperties();
+        collector = new DefaultMetricsCollector(registry, properties);
+        backendHandle = collector.backendCallHandle(adapter, instance);
+        rateLimitHandle = collector.rateLimitHandle("chat", "token_bucket");
+        legacyCounters = new ConcurrentHashMap<>();
+        legacyTimers = new ConcurrentHashMap<>();
+    }
+
+    // ==================== 后端调用指标 ====================
+
+    /**
+     * 旧实现：字符串拼接 + 两次 computeIfAbsent + Duration 分配
+     */
+    @Benchmark
+    public void legacyBackendCall() {
+        String prefix = properties.getPrefix();
+        String metricPrefix = (prefix != null && !prefix.isEmpty()) ? prefix + "_" : "";
+        String status = "success";
+        String counterKey = "backend.calls.total." + adapter + "." + instance + "." + status;
+        Counter counter = legacyCounters.computeIfAbsent(counterKey, key ->
+                Counter.builder(metricPrefix + "backend_calls_total")
+                        .tag("adapter", adapter)
+                        .tag("instance", instance)
+                        .tag("status", status)
+                        .register(registry));
+        counter.increment();
+        String timerKey = "backend.call.duration." + adapter + "." + instance;
+        Timer timer = legacyTimers.computeIfAbsent(timerKey, key ->
+                Timer.builder(metricPrefix + "backend_call_duration_seconds")
+                        .tag("adapter", adapter)
+                        .tag("instance", instance)
+                        .register(registry));
+        timer.record(Duration.ofMillis(duration));
+    }
+
+    /**
+     * 收集器入口：每次调用解析一次缓存句柄
+     */
+    @Benchmark
+    public void collectorBackendCall() {
+        collector.recordBackendCall(adapter, instance, duration, true);
+    }
+
+    /**
+     * 预绑定句柄：直接递增 Counter 并记录 Timer
+     */
+    @Benchmark
+    public void handleBackendCall() {
+        backendHandle.record(duration, true);
+    }
+
+    // ==================== 限流指标 ====================
+
+    @Benchmark
+    public void collectorRateLimit() {
+        collector.recordRateLimit("chat", "token_bucket", true);
+    }
+
+    @Benchmark
+    public void handleRateLimit() {
+        rateLimitHandle.record(true);
+    }
+}
@@ -0,0 +1,66 @@
+package org.unreal.modelrouter.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingEvent;
+import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingEventRecorder;
+import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingMonitorConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 基准测试 - 路由事件记录开销
+ *
+ * 测试内容：
+ * 1. 全量采样、无 WebSocket 连接时的记录耗时（环形缓冲区写入）
+ * 2. 默认 10% 采样时的记录耗时
+ *
+ * 多线程运行：-t 4 可观察并发写入时的表现
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutingEventRecorderBenchmark {
+
+    RoutingEventRecorder fullSampling;
+    RoutingEventRecorder defaultSampling;
+    RoutingEvent event;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        RoutingMonitorConfig fullConfig = new RoutingMonitorConfig();
+        fullConfig.setSampleRate(1.0);
+        fullSampling = new RoutingEventRecorder(fullConfig, objectMapper);
+        fullSampling.start();
+
+        defaultSampling = new RoutingEventRecorder(new RoutingMonitorConfig(), objectMapper);
+        defaultSampling.start();
+
+        event = RoutingEvent.of("chat", "qwen2.5:1.5b", "round-robin", "instance-1",
+                "http://localhost:11434", "10.0.0.1", 3, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fullSampling.shutdown();
+        defaultSampling.shutdown();
+    }
+
+    @Benchmark
+    public boolean recordFullSampling() {
+        return fullSampling.record(event);
+    }
+
+    @Benchmark
+    public boolean recordDefaultSampling() {
+        return defaultSampling.record(event);
+    }
+}
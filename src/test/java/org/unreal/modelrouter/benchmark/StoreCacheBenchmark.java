@@ -0,0 +1,137 @@
+package org.unreal.modelrouter.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.unreal.modelrouter.persistence.jpa.JpaStoreManager;
+import org.unreal.modelrouter.persistence.store.FileStoreManager;
+import org.unreal.modelrouter.persistence.store.LogStructuredStoreManager;
+import org.unreal.modelrouter.persistence.store.StoreManager;
+import org.unreal.modelrouter.persistence.store.cache.CachingStoreManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH 基准测试 - 配置读穿透缓存
+ *
+ * 测试内容：
+ * 1. JPA（内存 H2）、文件存储、日志结构存储直接读取
+ * 2. 同一后端外包 CachingStoreManager 后的读取（每次命中仍校验后端版本戳并返回可变副本）
+ *
+ * 预置 N 个键，值为类似路由配置的嵌套 JSON。分别测量单键随机读、16 个键的批量读，
+ * 以及读多写少（每 20 次读取一次写入）的混合负载。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StoreCacheBenchmark {
+
+    private static final int BATCH_SIZE = 16;
+    private static final int READS_PER_WRITE = 20;
+
+    @Param({"jpa", "cached-jpa", "file", "cached-file", "log", "cached-log"})
+    String backend;
+
+    @Param({"1000"})
+    int keyCount;
+
+    Path directory;
+    AnnotationConfigApplicationContext context;
+    StoreManager store;
+    String[] keys;
+    Map<String, Object> config;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("store-cache-benchmark-" + backend);
+        StoreManager base;
+        if (backend.endsWith("jpa")) {
+            context = JpaBenchmarkContext.start();
+            base = context.getBean(JpaStoreManager.class);
+        } else if (backend.endsWith("log")) {
+            base = new LogStructuredStoreManager(directory.toString());
+        } else {
+            base = new FileStoreManager(directory.toString());
+        }
+        store = backend.startsWith("cached-")
+                ? new CachingStoreManager(base, keyCount * 2L, Duration.ofMinutes(5))
+                : base;
+
+        config = new HashMap<>();
+        Map<String, Object> services = new HashMap<>();
+        for (String type : List.of("chat", "embedding", "rerank")) {
+            List<Map<String, Object>> instances = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                instances.add(Map.of("name", type + "-" + i, "baseUrl", "http://10.0.0." + i + ":8000",
+                        "path", "/v1/" + type, "weight", i + 1));
+            }
+            services.put(type, Map.of("loadBalance", Map.of("type", "round-robin"), "instances", instances));
+        }
+        config.put("services", services);
+
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "model-router-config-" + i;
+            store.saveConfig(keys[i], config);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (store instanceof Closeable closeable) {
+            closeable.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    public Map<String, Object> getConfig() {
+        return store.getConfig(randomKey());
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Object>> getConfigs() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(randomKey());
+        }
+        return store.getConfigs(batch);
+    }
+
+    @Benchmark
+    public Map<String, Object> readMostly() {
+        String key = randomKey();
+        if (ThreadLocalRandom.current().nextInt(READS_PER_WRITE) == 0) {
+            store.saveConfig(key, config);
+        }
+        return store.getConfig(key);
+    }
+}
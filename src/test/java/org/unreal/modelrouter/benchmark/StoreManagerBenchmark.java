@@ -0,0 +1,115 @@
+package org.unreal.modelrouter.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.unreal.modelrouter.persistence.store.FileStoreManager;
+import org.unreal.modelrouter.persistence.store.LogStructuredStoreManager;
+import org.unreal.modelrouter.persistence.store.StoreManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * JMH 基准测试 - 配置存储后端
+ *
+ * 测试内容：
+ * 1. 文件存储（FileStoreManager，每个键一个 JSON 文件，每个版本一份快照文件）
+ * 2. 日志结构存储（LogStructuredStoreManager，追加写段文件 + 内存索引）
+ *
+ * 预置 N 个键，每个键 20 个历史版本；值为类似令牌持久化记录的小 JSON。
+ * 分别测量覆盖写、随机读、保存新版本和列出版本号的吞吐。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StoreManagerBenchmark {
+
+    private static final int VERSIONS_PER_KEY = 20;
+
+    @Param({"file", "log"})
+    String backend;
+
+    @Param({"1000"})
+    int keyCount;
+
+    Path directory;
+    StoreManager store;
+    String[] keys;
+    Map<String, Object> config;
+    final AtomicInteger nextVersion = new AtomicInteger(VERSIONS_PER_KEY);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("store-benchmark-" + backend);
+        store = "log".equals(backend)
+                ? new LogStructuredStoreManager(directory.toString())
+                : new FileStoreManager(directory.toString());
+
+        config = new HashMap<>();
+        config.put("tokenId", "tok-0123456789abcdef");
+        config.put("userId", "user-42");
+        config.put("status", "ACTIVE");
+        config.put("expiresAt", "2030-01-01T00:00:00");
+        config.put("scopes", List.of("chat", "embedding", "rerank"));
+
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "jwt_token_" + i;
+            store.saveConfig(keys[i], config);
+            for (int v = 1; v <= VERSIONS_PER_KEY; v++) {
+                store.saveConfigVersion(keys[i], config, v);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (store instanceof Closeable closeable) {
+            closeable.close();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    public void saveConfig() {
+        store.saveConfig(randomKey(), config);
+    }
+
+    @Benchmark
+    public Map<String, Object> getConfig() {
+        return store.getConfig(randomKey());
+    }
+
+    @Benchmark
+    public void saveConfigVersion() {
+        store.saveConfigVersion(randomKey(), config, nextVersion.incrementAndGet());
+    }
+
+    @Benchmark
+    public List<Integer> getConfigVersions() {
+        return store.getConfigVersions(randomKey());
+    }
+}
@@ -0,0 +1,106 @@
+package org.unreal.modelrouter.benchmark.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压测期间的 JVM 采样：分配字节数与 GC 停顿
+ *
+ * 分配量按线程累加 {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long[])} 的增量，
+ * 统计的是整个进程（路由器、模拟后端和负载生成器共用一个 JVM），窗口内已退出的线程不计入。
+ * GC 停顿来自 GC 通知，并发收集阶段（名称含 Concurrent）不是停顿，跳过。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+final class JvmSampler {
+
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final AtomicLong pauseCount = new AtomicLong();
+    private final AtomicLong pauseTotalMs = new AtomicLong();
+    private final AtomicLong pauseMaxMs = new AtomicLong();
+    private final NotificationListener listener = (notification, handback) -> {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (info.getGcName().contains("Concurrent")) {
+            return;
+        }
+        long duration = info.getGcInfo().getDuration();
+        pauseCount.incrementAndGet();
+        pauseTotalMs.addAndGet(duration);
+        pauseMaxMs.accumulateAndGet(duration, Math::max);
+    };
+
+    private Map<Long, Long> allocatedAtStart = Map.of();
+
+    /**
+     * 开始采样：记录各线程当前分配量并注册 GC 通知
+     */
+    void start() {
+        allocatedAtStart = allocatedPerThread();
+        pauseCount.set(0);
+        pauseTotalMs.set(0);
+        pauseMaxMs.set(0);
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+            }
+        }
+    }
+
+    /**
+     * 结束采样并返回窗口内的统计
+     */
+    Sample stop() {
+        long allocated = 0;
+        for (Map.Entry<Long, Long> entry : allocatedPerThread().entrySet()) {
+            allocated += entry.getValue() - allocatedAtStart.getOrDefault(entry.getKey(), 0L);
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (ListenerNotFoundException ignored) {
+                    // 未注册成功的收集器无需移除
+                }
+            }
+        }
+        return new Sample(allocated, pauseCount.get(), pauseTotalMs.get(), pauseMaxMs.get());
+    }
+
+    private Map<Long, Long> allocatedPerThread() {
+        long[] ids = threadBean.getAllThreadIds();
+        long[] bytes = threadBean.getThreadAllocatedBytes(ids);
+        Map<Long, Long> result = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                result.put(ids[i], bytes[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 采样窗口统计
+     *
+     * @param allocatedBytes 窗口内进程分配的字节数
+     * @param gcPauses       GC 停顿次数
+     * @param gcPauseTotalMs GC 停顿总时长
+     * @param gcPauseMaxMs   最长一次 GC 停顿
+     */
+    record Sample(long allocatedBytes, long gcPauses, long gcPauseTotalMs, long gcPauseMaxMs) {
+    }
+}
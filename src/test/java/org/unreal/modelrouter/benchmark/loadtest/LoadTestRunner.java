@@ -0,0 +1,340 @@
+package org.unreal.modelrouter.benchmark.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.unreal.modelrouter.ModelRouterApplication;
+import org.unreal.modelrouter.auth.security.dto.ApiKeyCreateRequest;
+import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 端到端压测运行器
+ *
+ * 在同一进程内启动 OpenAI 兼容的模拟后端和完整的 JAiRouter（内存 H2、随机端口、启用 API Key 认证），
+ * 再用开环负载生成器依次压测 chat 流式、embeddings、rerank 和 multipart 语音转写四个场景，
+ * 输出吞吐、p50/p99/p999 延迟、首字节时间（TTFT）、分配速率和 GC 停顿，并把结果写入 target/loadtest/。
+ * 全程不访问外部网络。
+ *
+ * 运行方式（类名不匹配 surefire 默认规则，常规 mvn test 不会执行）：
+ * 1. Maven: mvn test -Dtest=LoadTestRunner -Dloadtest.rate=100 -Dloadtest.duration=30
+ * 2. IDE 中直接运行 main 方法
+ *
+ * 可用系统属性：
+ * loadtest.scenarios（chat-stream,embeddings,rerank,multipart）、loadtest.rate（每秒请求数）、
+ * loadtest.duration / loadtest.warmup（秒）、loadtest.maxOutstanding（未完成请求上限），
+ * 以及 {@link MockOpenAiBackend.Config#fromSystemProperties()} 中的 loadtest.backend.* 后端参数。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public class LoadTestRunner {
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+    private static final byte[] AUDIO = new byte[32 * 1024];
+
+    public static void main(final String[] args) throws Exception {
+        new LoadTestRunner().run();
+    }
+
+    @Test
+    void runLoadTest() throws Exception {
+        List<ScenarioReport> reports = run();
+        for (ScenarioReport report : reports) {
+            assertTrue(report.completed() > 0, report.scenario() + " 没有成功完成的请求");
+        }
+    }
+
+    /**
+     * 依次执行选中的场景并输出报告
+     */
+    public List<ScenarioReport> run() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "20"));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 10));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 3));
+        int maxOutstanding = Integer.getInteger("loadtest.maxOutstanding", 2000);
+        List<Scenario> scenarios = Arrays.stream(System.getProperty("loadtest.scenarios",
+                        "chat-stream,embeddings,rerank,multipart").split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(Scenario::fromName)
+                .toList();
+        MockOpenAiBackend.Config backendConfig = MockOpenAiBackend.Config.fromSystemProperties();
+
+        List<ScenarioReport> reports = new ArrayList<>();
+        try (MockOpenAiBackend backend = MockOpenAiBackend.start(backendConfig);
+             ConfigurableApplicationContext router = startRouter(backend.baseUrl())) {
+            String apiKey = createApiKey(router);
+            ConnectionProvider provider = ConnectionProvider.builder("loadtest")
+                    .maxConnections(maxOutstanding)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            HttpClient client = HttpClient.create(provider)
+                    .baseUrl("http://127.0.0.1:" + router.getEnvironment().getProperty("local.server.port"))
+                    .headers(headers -> headers.set(API_KEY_HEADER, apiKey))
+                    .responseTimeout(Duration.ofSeconds(60));
+
+            OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(rate, maxOutstanding);
+            for (Scenario scenario : scenarios) {
+                generator.run(() -> scenario.call(client), warmup, Duration.ofSeconds(30));
+                System.gc();
+
+                JvmSampler sampler = new JvmSampler();
+                sampler.start();
+                OpenLoopLoadGenerator.Result result = generator.run(
+                        () -> scenario.call(client), duration, Duration.ofSeconds(30));
+                JvmSampler.Sample jvm = sampler.stop();
+                reports.add(ScenarioReport.of(scenario, rate, result, jvm));
+            }
+            provider.disposeLater().block(Duration.ofSeconds(10));
+
+            printReport(reports, backendConfig, backend);
+            writeReport(reports, backendConfig, rate, duration);
+        }
+        return reports;
+    }
+
+    private static ConfigurableApplicationContext startRouter(final String backendUrl) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=" + freePort(),
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_UPPER=FALSE",
+                "--jairouter.security.api-key.enabled=true",
+                "--model.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.unreal.modelrouter=WARN"));
+        for (Scenario scenario : Scenario.values()) {
+            String prefix = "--model.services." + scenario.serviceType;
+            args.add(prefix + ".adapter=" + scenario.adapter);
+            args.add(prefix + ".rate-limit.enabled=false");
+            args.add(prefix + ".circuit-breaker.enabled=false");
+            args.add(prefix + ".instances[0].name=" + scenario.model);
+            args.add(prefix + ".instances[0].instance-id=loadtest-" + scenario.serviceType);
+            args.add(prefix + ".instances[0].base-url=" + backendUrl);
+            args.add(prefix + ".instances[0].path=" + scenario.backendPath);
+            args.add(prefix + ".instances[0].adapter=" + scenario.adapter);
+            args.add(prefix + ".instances[0].weight=1");
+        }
+        return new SpringApplicationBuilder(ModelRouterApplication.class)
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("loadTestTypeExcludeFilter", new BenchmarkTypeExcludeFilter()))
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * 启动时的配置校验不接受 server.port=0，先向系统借一个空闲端口
+     */
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String createApiKey(final ConfigurableApplicationContext router) {
+        ApiKeyCreateRequest request = ApiKeyCreateRequest.builder()
+                .keyId("loadtest")
+                .description("load test")
+                .permissions(Arrays.stream(Scenario.values()).map(s -> s.serviceType).distinct().toList())
+                .build();
+        return router.getBean(ApiKeyService.class).createApiKey(request).block().getKeyValue();
+    }
+
+    private static void printReport(final List<ScenarioReport> reports, final MockOpenAiBackend.Config config,
+                                    final MockOpenAiBackend backend) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%n后端: latency=%dms tokens/s=%.0f completionTokens=%d "
+                        + "chunkTokens=%d errorRate=%.3f，共收到 %d 个请求，注入错误 %d 个%n",
+                config.latencyMs(), config.tokensPerSecond(), config.completionTokens(), config.chunkTokens(),
+                config.errorRate(), backend.getRequests(), backend.getInjectedErrors()));
+        out.append(String.format(Locale.ROOT, "%-12s %8s %8s %6s %6s %8s %8s %8s %8s %8s %9s %9s %6s %8s%n",
+                "scenario", "rate", "rps", "err", "drop", "p50ms", "p99ms", "p999ms",
+                "ttft50", "ttft99", "allocMB/s", "KB/req", "gc", "gcMaxMs"));
+        for (ScenarioReport r : reports) {
+            out.append(String.format(Locale.ROOT,
+                    "%-12s %8.1f %8.1f %6d %6d %8.2f %8.2f %8.2f %8.2f %8.2f %9.1f %9.1f %6d %8d%n",
+                    r.scenario(), r.targetRate(), r.throughput(), r.errors(), r.dropped(),
+                    r.p50Ms(), r.p99Ms(), r.p999Ms(), r.ttftP50Ms(), r.ttftP99Ms(),
+                    r.allocatedMbPerSecond(), r.allocatedKbPerRequest(), r.gcPauses(), r.gcPauseMaxMs()));
+        }
+        out.append("分配量为整个进程（路由器 + 模拟后端 + 负载生成器）的合计。");
+        System.out.println(out);
+    }
+
+    private static void writeReport(final List<ScenarioReport> reports, final MockOpenAiBackend.Config config,
+                                    final double rate, final Duration duration) throws Exception {
+        Path dir = Path.of("target", "loadtest");
+        Files.createDirectories(dir);
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("timestamp", LocalDateTime.now().toString());
+        document.put("rate", rate);
+        document.put("durationSeconds", duration.toSeconds());
+        document.put("backend", config);
+        document.put("scenarios", reports);
+        Path file = dir.resolve("loadtest-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+        System.out.println("报告已写入 " + file.toAbsolutePath());
+    }
+
+    /**
+     * 测试源码与主代码同在 org.unreal.modelrouter 包下，排除基准测试包中的配置类，避免被应用的组件扫描装配
+     */
+    private static final class BenchmarkTypeExcludeFilter extends TypeExcludeFilter {
+
+        private static final String BENCHMARK_PACKAGE = "org.unreal.modelrouter.benchmark.";
+
+        @Override
+        public boolean match(final MetadataReader metadataReader, final MetadataReaderFactory factory) {
+            return metadataReader.getClassMetadata().getClassName().startsWith(BENCHMARK_PACKAGE);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj != null && getClass() == obj.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+
+    /**
+     * 压测场景：对应路由器上的一个接口和模拟后端上的一个路径
+     */
+    enum Scenario {
+        CHAT_STREAM("chat-stream", "chat", "normal", "mock-chat",
+                "/v1/chat/completions", "/api/v1/chat/completions"),
+        EMBEDDINGS("embeddings", "embedding", "normal", "mock-embedding",
+                "/v1/embeddings", "/api/v1/embeddings"),
+        RERANK("rerank", "rerank", "normal", "mock-rerank",
+                "/v1/rerank", "/api/v1/rerank"),
+        // normal 适配器把 STT 请求转成 JSON，转发 multipart 文件需使用 gpustack 适配器
+        MULTIPART("multipart", "stt", "gpustack", "mock-stt",
+                "/v1/audio/transcriptions", "/api/v1/audio/transcriptions");
+
+        private final String displayName;
+        private final String serviceType;
+        private final String adapter;
+        private final String model;
+        private final String backendPath;
+        private final String routerPath;
+
+        Scenario(final String displayName, final String serviceType, final String adapter, final String model,
+                 final String backendPath, final String routerPath) {
+            this.displayName = displayName;
+            this.serviceType = serviceType;
+            this.adapter = adapter;
+            this.model = model;
+            this.backendPath = backendPath;
+            this.routerPath = routerPath;
+        }
+
+        static Scenario fromName(final String name) {
+            for (Scenario scenario : values()) {
+                if (scenario.displayName.equalsIgnoreCase(name)) {
+                    return scenario;
+                }
+            }
+            throw new IllegalArgumentException("未知的压测场景: " + name);
+        }
+
+        /**
+         * 发出一次请求，返回首个响应体分块到达的时刻；非 2xx 响应以 error 结束
+         */
+        Mono<Long> call(final HttpClient client) {
+            if (this == MULTIPART) {
+                return receive(client.post().uri(routerPath).sendForm((request, form) -> form
+                        .multipart(true)
+                        .attr("model", model)
+                        .attr("language", "zh")
+                        .file("file", "sample.wav", new ByteArrayInputStream(AUDIO), "audio/wav")));
+            }
+            String json = switch (this) {
+                case CHAT_STREAM -> ("{\"model\":\"" + model + "\",\"stream\":true,\"messages\":["
+                        + "{\"role\":\"user\",\"content\":\"Summarize the load test results in one paragraph.\"}]}");
+                case EMBEDDINGS -> ("{\"model\":\"" + model + "\",\"input\":["
+                        + "\"first sentence to embed\",\"second sentence to embed\"]}");
+                default -> ("{\"model\":\"" + model + "\",\"query\":\"what is a router\",\"documents\":["
+                        + "\"a router forwards requests\",\"a cat sleeps\",\"load balancers spread traffic\"]}");
+            };
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            return receive(client
+                    .headers(headers -> headers.set("Content-Type", "application/json"))
+                    .post()
+                    .uri(routerPath)
+                    .send(ByteBufFlux.fromInbound(Mono.just(Unpooled.wrappedBuffer(body)))));
+        }
+
+        private static Mono<Long> receive(final HttpClient.ResponseReceiver<?> receiver) {
+            return receiver.response((response, content) -> {
+                int status = response.status().code();
+                AtomicLong firstChunkAt = new AtomicLong();
+                return content
+                        .doOnNext(buffer -> firstChunkAt.compareAndSet(0, System.nanoTime()))
+                        .then(Mono.defer(() -> status >= 400
+                                ? Mono.error(new IllegalStateException("HTTP " + status))
+                                : Mono.just(firstChunkAt.get() == 0 ? System.nanoTime() : firstChunkAt.get())));
+            }).next();
+        }
+    }
+
+    /**
+     * 单个场景的汇总结果，也是 JSON 报告中的一项
+     */
+    public record ScenarioReport(String scenario, double targetRate, double throughput, long completed,
+                                 long errors, long dropped, long unfinished,
+                                 double p50Ms, double p99Ms, double p999Ms, double maxMs,
+                                 double ttftP50Ms, double ttftP99Ms,
+                                 double allocatedMbPerSecond, double allocatedKbPerRequest,
+                                 long gcPauses, long gcPauseTotalMs, long gcPauseMaxMs) {
+
+        static ScenarioReport of(final Scenario scenario, final double rate,
+                                 final OpenLoopLoadGenerator.Result result, final JvmSampler.Sample jvm) {
+            long[] latency = result.latencyNanos();
+            long[] firstByte = result.firstByteNanos();
+            long requests = Math.max(1, result.completed() + result.errors());
+            return new ScenarioReport(scenario.displayName, rate, result.throughput(), result.completed(),
+                    result.errors(), result.dropped(), result.unfinished(),
+                    OpenLoopLoadGenerator.Result.percentileMillis(latency, 50),
+                    OpenLoopLoadGenerator.Result.percentileMillis(latency, 99),
+                    OpenLoopLoadGenerator.Result.percentileMillis(latency, 99.9),
+                    OpenLoopLoadGenerator.Result.percentileMillis(latency, 100),
+                    OpenLoopLoadGenerator.Result.percentileMillis(firstByte, 50),
+                    OpenLoopLoadGenerator.Result.percentileMillis(firstByte, 99),
+                    jvm.allocatedBytes() / 1048576.0 / result.elapsedSeconds(),
+                    jvm.allocatedBytes() / 1024.0 / requests,
+                    jvm.gcPauses(), jvm.gcPauseTotalMs(), jvm.gcPauseMaxMs());
+        }
+    }
+}
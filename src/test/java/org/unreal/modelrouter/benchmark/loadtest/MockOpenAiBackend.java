@@ -0,0 +1,271 @@
+package org.unreal.modelrouter.benchmark.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内的 OpenAI 兼容模拟后端
+ *
+ * 基于 Reactor Netty，提供 chat/completions（含 SSE 流式）、embeddings、rerank 和
+ * audio/transcriptions（multipart）四个接口。延迟、生成速度、SSE 分块大小和错误注入比例由
+ * {@link Config} 控制，不依赖网络和真实模型，可在笔记本上离线运行。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+public final class MockOpenAiBackend implements AutoCloseable {
+
+    private static final byte[] DONE = "data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Config config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final DisposableServer server;
+
+    private MockOpenAiBackend(final Config config) {
+        this.config = config;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/v1/chat/completions", (request, response) -> request.receive().aggregate()
+                                .asByteArray().flatMap(body -> chat(body, response)))
+                        .post("/v1/embeddings", (request, response) -> request.receive().aggregate()
+                                .asByteArray().flatMap(body -> embeddings(body, response)))
+                        .post("/v1/rerank", (request, response) -> request.receive().aggregate()
+                                .asByteArray().flatMap(body -> rerank(body, response)))
+                        .post("/v1/audio/transcriptions", (request, response) -> request.receive().then(
+                                Mono.defer(() -> transcription(response)))))
+                .bindNow();
+    }
+
+    /**
+     * 启动模拟后端，监听本机随机端口
+     */
+    public static MockOpenAiBackend start(final Config config) {
+        return new MockOpenAiBackend(config);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> chat(final byte[] body, final HttpServerResponse response) {
+        JsonNode json = parse(body);
+        if (shouldFail()) {
+            return error(response);
+        }
+        String model = json.path("model").asText("mock");
+        int tokens = config.completionTokens();
+        if (!json.path("stream").asBoolean(false)) {
+            long generationMs = (long) (tokens * 1000.0 / config.tokensPerSecond());
+            Map<String, Object> message = Map.of("role", "assistant", "content", "tok ".repeat(tokens).trim());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("id", "chatcmpl-mock");
+            result.put("object", "chat.completion");
+            result.put("model", model);
+            result.put("choices", List.of(Map.of("index", 0, "message", message, "finish_reason", "stop")));
+            result.put("usage", usage(promptTokens(json), tokens));
+            return Mono.delay(Duration.ofMillis(config.latencyMs() + generationMs))
+                    .then(sendJson(response, result));
+        }
+
+        int chunkTokens = Math.max(1, config.chunkTokens());
+        int chunks = (tokens + chunkTokens - 1) / chunkTokens;
+        long chunkIntervalNanos = (long) (chunkTokens * 1_000_000_000.0 / config.tokensPerSecond());
+        Flux<byte[]> events = Flux.range(0, chunks)
+                .concatMap(i -> Mono.delay(Duration.ofNanos(i == 0 ? 0 : chunkIntervalNanos))
+                        .thenReturn(sse(chunk(model, "tok ".repeat(Math.min(chunkTokens, tokens - i * chunkTokens)),
+                                null, null))))
+                .concatWith(Mono.fromCallable(() -> sse(chunk(model, "", "stop",
+                        usage(promptTokens(json), tokens)))))
+                .concatWith(Mono.just(DONE));
+        return Mono.delay(Duration.ofMillis(config.latencyMs())).then(response
+                .status(HttpResponseStatus.OK)
+                .header("Content-Type", "text/event-stream")
+                .send(events.map(bytes -> wrap(response.alloc(), bytes)), buffer -> true)
+                .then());
+    }
+
+    private Mono<Void> embeddings(final byte[] body, final HttpServerResponse response) {
+        JsonNode json = parse(body);
+        if (shouldFail()) {
+            return error(response);
+        }
+        JsonNode input = json.path("input");
+        int count = input.isArray() ? input.size() : 1;
+        List<Map<String, Object>> data = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double[] vector = new double[config.embeddingDimensions()];
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] = (i + d) % 7 / 7.0;
+            }
+            data.add(Map.of("object", "embedding", "index", i, "embedding", vector));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("object", "list");
+        result.put("model", json.path("model").asText("mock"));
+        result.put("data", data);
+        result.put("usage", usage(promptTokens(json), 0));
+        return Mono.delay(Duration.ofMillis(config.latencyMs())).then(sendJson(response, result));
+    }
+
+    private Mono<Void> rerank(final byte[] body, final HttpServerResponse response) {
+        JsonNode json = parse(body);
+        if (shouldFail()) {
+            return error(response);
+        }
+        int documents = json.path("documents").size();
+        List<Map<String, Object>> results = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            results.add(Map.of("index", i, "relevance_score", 1.0 - (double) i / Math.max(1, documents)));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("model", json.path("model").asText("mock"));
+        result.put("results", results);
+        result.put("usage", Map.of("total_tokens", promptTokens(json)));
+        return Mono.delay(Duration.ofMillis(config.latencyMs())).then(sendJson(response, result));
+    }
+
+    private Mono<Void> transcription(final HttpServerResponse response) {
+        requests.incrementAndGet();
+        if (shouldFail()) {
+            return error(response);
+        }
+        return Mono.delay(Duration.ofMillis(config.latencyMs()))
+                .then(sendJson(response, Map.of("text", "mock transcription")));
+    }
+
+    private JsonNode parse(final byte[] body) {
+        requests.incrementAndGet();
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private boolean shouldFail() {
+        if (config.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.errorRate()) {
+            injectedErrors.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private Mono<Void> error(final HttpServerResponse response) {
+        Map<String, Object> error = Map.of("error", Map.of("message", "injected failure", "type", "server_error"));
+        return Mono.delay(Duration.ofMillis(config.latencyMs())).then(Mono.defer(() -> response
+                .status(HttpResponseStatus.INTERNAL_SERVER_ERROR)
+                .header("Content-Type", "application/json")
+                .sendByteArray(Mono.fromCallable(() -> objectMapper.writeValueAsBytes(error)))
+                .then()));
+    }
+
+    private Mono<Void> sendJson(final HttpServerResponse response, final Object body) {
+        return Mono.defer(() -> response
+                .status(HttpResponseStatus.OK)
+                .header("Content-Type", "application/json")
+                .sendByteArray(Mono.fromCallable(() -> objectMapper.writeValueAsBytes(body)))
+                .then());
+    }
+
+    private Map<String, Object> chunk(final String model, final String content, final String finishReason,
+                                      final Map<String, Object> usage) {
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", Map.of("content", content));
+        choice.put("finish_reason", finishReason);
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("id", "chatcmpl-mock");
+        chunk.put("object", "chat.completion.chunk");
+        chunk.put("model", model);
+        chunk.put("choices", List.of(choice));
+        if (usage != null) {
+            chunk.put("usage", usage);
+        }
+        return chunk;
+    }
+
+    private byte[] sse(final Map<String, Object> chunk) {
+        try {
+            return ("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ByteBuf wrap(final ByteBufAllocator allocator, final byte[] bytes) {
+        return allocator.buffer(bytes.length).writeBytes(bytes);
+    }
+
+    private static Map<String, Object> usage(final int promptTokens, final int completionTokens) {
+        return Map.of("prompt_tokens", promptTokens, "completion_tokens", completionTokens,
+                "total_tokens", promptTokens + completionTokens);
+    }
+
+    /**
+     * 粗略估计 prompt token 数：请求体字符数 / 4
+     */
+    private static int promptTokens(final JsonNode json) {
+        return Math.max(1, json.toString().length() / 4);
+    }
+
+    /**
+     * 模拟后端参数
+     *
+     * @param latencyMs           每个请求的基础延迟（流式请求为首个分块前的延迟）
+     * @param tokensPerSecond     chat 生成速度
+     * @param completionTokens    每个 chat 回复的 token 数
+     * @param chunkTokens         每个 SSE 分块包含的 token 数
+     * @param errorRate           返回 500 的请求比例（0-1）
+     * @param embeddingDimensions embedding 向量维度
+     */
+    public record Config(long latencyMs, double tokensPerSecond, int completionTokens, int chunkTokens,
+                         double errorRate, int embeddingDimensions) {
+
+        /**
+         * 从系统属性读取参数，未设置时使用默认值
+         */
+        public static Config fromSystemProperties() {
+            return new Config(
+                    Long.getLong("loadtest.backend.latencyMs", 20),
+                    Double.parseDouble(System.getProperty("loadtest.backend.tokensPerSecond", "200")),
+                    Integer.getInteger("loadtest.backend.completionTokens", 64),
+                    Integer.getInteger("loadtest.backend.chunkTokens", 4),
+                    Double.parseDouble(System.getProperty("loadtest.backend.errorRate", "0")),
+                    Integer.getInteger("loadtest.backend.embeddingDimensions", 384));
+        }
+    }
+}
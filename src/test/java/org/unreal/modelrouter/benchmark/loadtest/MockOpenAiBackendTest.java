@@ -0,0 +1,102 @@
+package org.unreal.modelrouter.benchmark.loadtest;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MockOpenAiBackend 与 OpenLoopLoadGenerator 测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class MockOpenAiBackendTest {
+
+    private static Mono<String> post(final HttpClient client, final String path, final String body) {
+        return client.post()
+                .uri(path)
+                .send(ByteBufFlux.fromInbound(Mono.just(Unpooled.wrappedBuffer(body.getBytes(StandardCharsets.UTF_8)))))
+                .responseSingle((response, content) -> content.asString()
+                        .map(text -> response.status().code() + " " + text));
+    }
+
+    @Test
+    @DisplayName("流式 chat 按分块输出 SSE，最后是带 usage 的分块和 [DONE]")
+    void chatStream_shouldEmitChunksUsageAndDone() {
+        try (MockOpenAiBackend backend = MockOpenAiBackend.start(
+                new MockOpenAiBackend.Config(0, 1000, 10, 4, 0, 8))) {
+            List<String> events = HttpClient.create().baseUrl(backend.baseUrl())
+                    .post()
+                    .uri("/v1/chat/completions")
+                    .send(ByteBufFlux.fromString(Mono.just("{\"model\":\"m\",\"stream\":true}")))
+                    .response((response, content) -> content.asString())
+                    .collectList()
+                    .block(Duration.ofSeconds(5));
+
+            String body = String.join("", events);
+            assertEquals(3, body.split("\"finish_reason\":null", -1).length - 1, "10 个 token 每块 4 个，共 3 块");
+            assertTrue(body.contains("\"completion_tokens\":10"));
+            assertTrue(body.endsWith("data: [DONE]\n\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("embeddings、rerank 和 multipart 转写返回 OpenAI 兼容格式，错误注入返回 500")
+    void nonStreamingEndpoints_shouldRespondAndInjectErrors() {
+        try (MockOpenAiBackend backend = MockOpenAiBackend.start(
+                new MockOpenAiBackend.Config(0, 1000, 10, 4, 0, 8))) {
+            HttpClient client = HttpClient.create().baseUrl(backend.baseUrl());
+
+            String embeddings = post(client, "/v1/embeddings", "{\"model\":\"e\",\"input\":[\"a\",\"b\"]}").block();
+            assertTrue(embeddings.startsWith("200 "));
+            assertTrue(embeddings.contains("\"index\":1"));
+
+            String rerank = post(client, "/v1/rerank", "{\"query\":\"q\",\"documents\":[\"a\",\"b\",\"c\"]}").block();
+            assertTrue(rerank.contains("\"index\":2"));
+
+            String transcription = client.post()
+                    .uri("/v1/audio/transcriptions")
+                    .sendForm((request, form) -> form.multipart(true).attr("model", "s")
+                            .file("file", "a.wav", new ByteArrayInputStream(new byte[1024]), "audio/wav"))
+                    .responseSingle((response, content) -> content.asString())
+                    .block();
+            assertTrue(transcription.contains("mock transcription"));
+            assertEquals(3, backend.getRequests());
+        }
+
+        try (MockOpenAiBackend failing = MockOpenAiBackend.start(
+                new MockOpenAiBackend.Config(0, 1000, 10, 4, 1, 8))) {
+            String result = post(HttpClient.create().baseUrl(failing.baseUrl()), "/v1/embeddings", "{}").block();
+            assertTrue(result.startsWith("500 "));
+            assertEquals(1, failing.getInjectedErrors());
+        }
+    }
+
+    @Test
+    @DisplayName("开环生成器按计划速率发送，延迟从计划发送时刻起算")
+    void generator_shouldMeasureFromIntendedStart() {
+        try (MockOpenAiBackend backend = MockOpenAiBackend.start(
+                new MockOpenAiBackend.Config(50, 1000, 10, 4, 0, 8))) {
+            HttpClient client = HttpClient.create().baseUrl(backend.baseUrl());
+            OpenLoopLoadGenerator.Result result = new OpenLoopLoadGenerator(50, 100).run(
+                    () -> post(client, "/v1/embeddings", "{\"input\":\"a\"}").map(body -> System.nanoTime()),
+                    Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+            assertEquals(50, result.planned());
+            assertEquals(50, result.completed());
+            assertEquals(0, result.errors() + result.dropped() + result.unfinished());
+            assertTrue(OpenLoopLoadGenerator.Result.percentileMillis(result.latencyNanos(), 50) >= 50,
+                    "延迟不应小于后端固定延迟");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.unreal.modelrouter.benchmark.loadtest;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 开环（open-loop）负载生成器
+ *
+ * 按固定速率发出请求，发送时刻不受前一个请求是否完成的影响；延迟从“计划发送时刻”而不是实际发送时刻开始计算，
+ * 避免闭环压测中常见的协调遗漏（coordinated omission）把排队时间藏起来。未完成请求数超过上限时新请求直接记为丢弃，
+ * 防止被压垮的路由器拖垮生成器本身。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+final class OpenLoopLoadGenerator {
+
+    private final double ratePerSecond;
+    private final int maxOutstanding;
+
+    OpenLoopLoadGenerator(final double ratePerSecond, final int maxOutstanding) {
+        this.ratePerSecond = ratePerSecond;
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    /**
+     * 以配置的速率持续发出请求，结束后等待未完成请求收尾
+     *
+     * @param call     每次调用返回首字节到达时刻（System.nanoTime），出错时以 error 结束
+     * @param duration 发送持续时间
+     * @param drainTimeout 发送结束后等待未完成请求的最长时间
+     */
+    Result run(final Supplier<Mono<Long>> call, final Duration duration, final Duration drainTimeout) {
+        long periodNanos = (long) (1_000_000_000L / ratePerSecond);
+        int planned = (int) Math.max(1, duration.toNanos() / periodNanos);
+        LatencyRecorder latency = new LatencyRecorder(planned);
+        LatencyRecorder firstByte = new LatencyRecorder(planned);
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        long dropped = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < planned; i++) {
+            long intended = start + i * periodNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (outstanding.get() >= maxOutstanding) {
+                dropped++;
+                continue;
+            }
+            outstanding.incrementAndGet();
+            Mono.defer(call).subscribe(
+                    firstByteAt -> {
+                        long now = System.nanoTime();
+                        latency.record(now - intended);
+                        firstByte.record(Math.max(0, firstByteAt - intended));
+                    },
+                    error -> {
+                        errors.incrementAndGet();
+                        outstanding.decrementAndGet();
+                    },
+                    outstanding::decrementAndGet);
+        }
+        long sendEnd = System.nanoTime();
+
+        long drainDeadline = sendEnd + drainTimeout.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        long end = System.nanoTime();
+        return new Result(planned, latency.count(), errors.get(), dropped, outstanding.get(),
+                (end - start) / 1e9, latency.sorted(), firstByte.sorted());
+    }
+
+    /**
+     * 一次运行的原始结果，延迟数组已排序，单位纳秒
+     */
+    record Result(long planned, long completed, long errors, long dropped, long unfinished,
+                  double elapsedSeconds, long[] latencyNanos, long[] firstByteNanos) {
+
+        double throughput() {
+            return completed / elapsedSeconds;
+        }
+
+        static double percentileMillis(final long[] sorted, final double percentile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+
+    /**
+     * 预分配数组的延迟记录器，记录过程中不产生额外分配，避免干扰被测进程的分配率统计
+     */
+    private static final class LatencyRecorder {
+
+        private final long[] values;
+        private final AtomicInteger size = new AtomicInteger();
+
+        LatencyRecorder(final int capacity) {
+            this.values = new long[capacity];
+        }
+
+        void record(final long nanos) {
+            int index = size.getAndIncrement();
+            if (index < values.length) {
+                values[index] = nanos;
+            }
+        }
+
+        long count() {
+            return Math.min(size.get(), values.length);
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, (int) count());
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.unreal.modelrouter.common.buffer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CoalescingEventPublisher 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class CoalescingEventPublisherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CoalescingEventPublisher<String> publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    private List<String> events(final String frame) throws Exception {
+        JsonNode node = objectMapper.readTree(frame);
+        assertEquals(CoalescingEventPublisher.FRAME_TYPE, node.get("type").asText());
+        List<String> result = new ArrayList<>();
+        node.get("events").forEach(e -> result.add(e.asText()));
+        return result;
+    }
+
+    @Test
+    @DisplayName("没有订阅者时不缓存也不推送事件")
+    void publish_withoutSubscribers_shouldSkip() {
+        publisher = new CoalescingEventPublisher<>("test", objectMapper, 64, 10, 10, 8);
+        publisher.start();
+
+        for (int i = 0; i < 100; i++) {
+            publisher.publish("e" + i);
+        }
+
+        assertEquals(0, publisher.getSubscriberCount());
+        assertEquals(0, publisher.getPublishedFrames());
+    }
+
+    @Test
+    @DisplayName("事件应按批合并为一帧推送")
+    void publish_shouldCoalesceIntoFrames() {
+        publisher = new CoalescingEventPublisher<>("test", objectMapper, 64, 3, 20, 8);
+        publisher.start();
+
+        StepVerifier.create(publisher.subscribe())
+                .then(() -> {
+                    for (int i = 0; i < 5; i++) {
+                        publisher.publish("e" + i);
+                    }
+                })
+                .assertNext(frame -> assertDoesNotThrow(() ->
+                        assertEquals(List.of("e0", "e1", "e2"), events(frame))))
+                .assertNext(frame -> assertDoesNotThrow(() ->
+                        assertEquals(List.of("e3", "e4"), events(frame))))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(5, publisher.getPublishedEvents());
+        assertEquals(2, publisher.getPublishedFrames());
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("订阅者消费过慢时丢弃最旧的帧")
+    void slowSubscriber_shouldDropOldestFrames() throws Exception {
+        publisher = new CoalescingEventPublisher<>("test", objectMapper, 64, 1, 60_000, 2);
+        List<String> received = new ArrayList<>();
+        StepVerifier.create(publisher.subscribe(), 0)
+                .then(() -> {
+                    for (int i = 0; i < 5; i++) {
+                        publisher.publish("e" + i);
+                        publisher.flush();
+                    }
+                })
+                .thenRequest(2)
+                .recordWith(() -> received)
+                .expectNextCount(2)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(List.of("e3"), events(received.get(0)));
+        assertEquals(List.of("e4"), events(received.get(1)));
+        assertEquals(3, publisher.getDroppedFrames());
+    }
+
+    @Test
+    @DisplayName("关闭时应推送剩余事件并结束订阅")
+    void shutdown_shouldFlushAndComplete() {
+        publisher = new CoalescingEventPublisher<>("test", objectMapper, 64, 100, 60_000, 8);
+        publisher.start();
+        List<String> frames = new ArrayList<>();
+        Disposable subscription = publisher.subscribe().subscribe(frames::add);
+
+        publisher.publish("a");
+        publisher.publish("b");
+        publisher.shutdown();
+
+        assertEquals(1, frames.size());
+        assertDoesNotThrow(() -> assertEquals(List.of("a", "b"), events(frames.get(0))));
+        assertTrue(subscription.isDisposed());
+    }
+}
@@ -0,0 +1,98 @@
+package org.unreal.modelrouter.common.buffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventRingBuffer 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class EventRingBufferTest {
+
+    @Test
+    @DisplayName("快照按最新在前返回，超出容量时覆盖最旧元素")
+    void snapshot_shouldReturnNewestFirst() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(5);
+
+        for (int i = 0; i < 12; i++) {
+            buffer.offer(i);
+        }
+
+        assertEquals(5, buffer.size());
+        assertEquals(12, buffer.cursor());
+        assertEquals(List.of(11, 10, 9, 8, 7), buffer.snapshot(100));
+        assertEquals(List.of(11, 10), buffer.snapshot(2));
+        assertTrue(new EventRingBuffer<Integer>(3).snapshot(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("顺序消费应从给定序号继续，落后超过容量时跳过")
+    void drain_shouldResumeFromSequence() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(4);
+        List<Integer> consumed = new ArrayList<>();
+
+        buffer.offer(0);
+        buffer.offer(1);
+        buffer.offer(2);
+        long next = buffer.drain(0, 2, consumed::add);
+        assertEquals(2, next);
+        assertEquals(List.of(0, 1), consumed);
+
+        for (int i = 3; i < 10; i++) {
+            buffer.offer(i);
+        }
+        consumed.clear();
+        next = buffer.drain(next, 100, consumed::add);
+
+        assertEquals(10, next);
+        assertEquals(List.of(6, 7, 8, 9), consumed);
+    }
+
+    @Test
+    @DisplayName("并发写入不丢失序号且快照不包含错位元素")
+    void concurrentOffer_shouldKeepLatestElements() throws Exception {
+        int threads = 4;
+        int perThread = 10_000;
+        EventRingBuffer<Long> buffer = new EventRingBuffer<>(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            long base = (long) t * perThread;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    buffer.offer(base + i);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * perThread, buffer.cursor());
+        List<Long> snapshot = buffer.snapshot(1000);
+        assertEquals(1000, snapshot.size());
+        Set<Long> unique = new HashSet<>(snapshot);
+        assertEquals(1000, unique.size());
+    }
+
+    @Test
+    @DisplayName("容量必须为正数")
+    void constructor_shouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer<>(0));
+    }
+}
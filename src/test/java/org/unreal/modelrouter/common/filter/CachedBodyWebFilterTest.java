@@ -154,6 +154,8 @@ class CachedBodyWebFilterTest {
             StepVerifier.create(result)
                 .verifyComplete();
             verify(filterChain).filter(any(ServerWebExchange.class));
+            assertArrayEquals(body.getBytes(StandardCharsets.UTF_8),
+                (byte[]) exchange.getAttribute(CachedBodyWebFilter.CACHED_BODY_ATTRIBUTE));
         }
 
         @Test
@@ -0,0 +1,96 @@
+package org.unreal.modelrouter.monitor.callhistory;
+
+import jakarta.persistence.Column;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ApiCallHistoryBulkWriter 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+@DisplayName("ApiCallHistoryBulkWriter 测试")
+class ApiCallHistoryBulkWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ApiCallHistoryBulkWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE api_call_history (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + ApiCallHistoryBulkWriter.COLUMNS.stream()
+                        .map(column -> column + ("created_at".equals(column) ? " TIMESTAMP" : " VARCHAR(1000)"))
+                        .collect(Collectors.joining(", "))
+                + ")");
+        writer = new ApiCallHistoryBulkWriter(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("插入列与实体映射的列一致（主键除外）")
+    void testColumnsMatchEntity() {
+        Set<String> entityColumns = Arrays.stream(ApiCallHistoryEntity.class.getDeclaredFields())
+                .map(field -> field.getAnnotation(Column.class))
+                .filter(column -> column != null)
+                .map(Column::name)
+                .collect(Collectors.toSet());
+
+        assertEquals(entityColumns, Set.copyOf(ApiCallHistoryBulkWriter.COLUMNS));
+        assertEquals(entityColumns.size(), ApiCallHistoryBulkWriter.COLUMNS.size());
+    }
+
+    @Test
+    @DisplayName("批量插入由数据库分配主键并补齐时间字段")
+    void testWrite() {
+        List<ApiCallHistoryEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            entities.add(ApiCallHistoryEntity.builder()
+                    .traceId("trace-" + i)
+                    .requestId("req-" + i)
+                    .requestMethod("POST")
+                    .requestPath("/v1/chat/completions")
+                    .serviceType("chat")
+                    .modelName("gpt-4")
+                    .httpStatusCode(i % 10 == 0 ? 502 : 200)
+                    .isSuccess(i % 10 != 0)
+                    .build());
+        }
+
+        assertEquals(250, writer.write(entities));
+        assertEquals(0, writer.write(List.of()));
+
+        assertEquals(250, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM api_call_history", Long.class));
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT * FROM api_call_history WHERE trace_id = 'trace-10'");
+        assertEquals("502", row.get("HTTP_STATUS_CODE"));
+        assertEquals("FALSE", row.get("IS_SUCCESS"));
+        assertEquals("0", row.get("TOTAL_TOKENS"));
+        assertNull(row.get("RESPONSE_TIME_MS"));
+        assertEquals(entities.get(10).getCreatedAt().toLocalDate().toString(), row.get("REQUEST_DATE"));
+        assertNotNull(row.get("CREATED_AT"));
+        assertNotNull(entities.get(10).getRequestHour());
+    }
+}
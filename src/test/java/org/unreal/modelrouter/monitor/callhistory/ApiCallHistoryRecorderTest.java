@@ -12,7 +12,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.unreal.modelrouter.monitor.callhistory.config.CallHistoryProperties;
 import org.unreal.modelrouter.monitor.callhistory.dto.CallHistoryRecordDTO;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 
 /**
  * ApiCallHistoryRecorder 单元测试
@@ -202,4 +207,76 @@ class ApiCallHistoryRecorderTest {
             assertEquals(2, recorder.getTotalRecords());
         }
     }
+
+    @Nested
+    @DisplayName("背压测试")
+    class BackpressureTests {
+
+        @Test
+        @DisplayName("批次大小随积压深度增大，不超过上限")
+        void testTargetBatchSize() {
+            properties.setBatchSize(10);
+            properties.setMaxBatchSize(50);
+
+            assertEquals(10, recorder.targetBatchSize(1));
+            assertEquals(10, recorder.targetBatchSize(10));
+            assertEquals(30, recorder.targetBatchSize(30));
+            assertEquals(50, recorder.targetBatchSize(500));
+        }
+
+        @Test
+        @DisplayName("高水位时采样成功调用，保留失败调用，缓冲区满才丢弃")
+        void testSampleSuccessBeforeDroppingFailures() throws InterruptedException {
+            properties.setBufferSize(10);
+            properties.setBatchSize(1);
+            properties.setMaxBatchSize(1);
+            properties.setSamplingThreshold(0.5);
+            properties.setSuccessSampleRate(0.0);
+
+            // 写入线程阻塞在第一批，缓冲区不再被消费
+            CountDownLatch writing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                writing.countDown();
+                release.await();
+                return null;
+            }).when(service).batchRecord(anyList());
+            recorder.init();
+            recorder.record(createTestRecord());
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 8; i++) {
+                recorder.record(createTestRecord());
+            }
+            assertEquals(5, recorder.getBufferSize());
+            assertEquals(3, recorder.getSampledRecords());
+
+            CallHistoryRecordDTO failure = createTestRecord();
+            failure.setIsSuccess(false);
+            failure.setHttpStatusCode(502);
+            for (int i = 0; i < 7; i++) {
+                recorder.record(failure);
+            }
+            assertEquals(10, recorder.getBufferSize());
+            assertEquals(3, recorder.getSampledRecords());
+            assertEquals(2, recorder.getDroppedRecords());
+            assertEquals(16, recorder.getTotalRecords());
+
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("失败、限流和熔断调用不参与采样")
+        void testIsFailure() {
+            CallHistoryRecordDTO record = createTestRecord();
+            assertFalse(ApiCallHistoryRecorder.isFailure(record));
+
+            record.setHttpStatusCode(429);
+            assertTrue(ApiCallHistoryRecorder.isFailure(record));
+
+            record = createTestRecord();
+            record.setCircuitBroken(true);
+            assertTrue(ApiCallHistoryRecorder.isFailure(record));
+        }
+    }
 }
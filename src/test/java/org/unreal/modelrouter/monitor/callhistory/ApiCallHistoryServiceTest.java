@@ -128,6 +128,41 @@ class ApiCallHistoryServiceTest {
             verify(repository).saveAll(anyList());
         }
 
+        @Test
+        @DisplayName("批量记录优先使用 JDBC 批量写入")
+        void testBatchRecordBulkInsert() throws Exception {
+            ApiCallHistoryBulkWriter bulkWriter = mock(ApiCallHistoryBulkWriter.class);
+            var field = ApiCallHistoryService.class.getDeclaredField("bulkWriter");
+            field.setAccessible(true);
+            field.set(service, bulkWriter);
+
+            service.batchRecord(List.of(createTestRecord(), createTestRecord()));
+            verify(bulkWriter).write(argThat(entities -> entities.size() == 2));
+            verify(repository, never()).saveAll(anyList());
+
+            // 关闭批量写入时回退为 saveAll
+            properties.setBulkInsertEnabled(false);
+            service.batchRecord(List.of(createTestRecord()));
+            verify(repository).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("预聚合失败不影响原始记录写入，并暂停预聚合")
+        void testBatchRecordRollupFailure() throws Exception {
+            CallHistoryRollupService rollupService = mock(CallHistoryRollupService.class);
+            var field = ApiCallHistoryService.class.getDeclaredField("rollupService");
+            field.setAccessible(true);
+            field.set(service, rollupService);
+            properties.setBulkInsertEnabled(false);
+            RuntimeException failure = new RuntimeException("rollup table locked");
+            doThrow(failure).when(rollupService).accumulate(anyList());
+
+            assertDoesNotThrow(() -> service.batchRecord(List.of(createTestRecord())));
+
+            verify(repository).saveAll(anyList());
+            verify(rollupService).suspend(failure);
+        }
+
         @Test
         @DisplayName("批量记录空列表")
         void testBatchRecordEmpty() {
@@ -0,0 +1,281 @@
+package org.unreal.modelrouter.monitor.callhistory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.monitor.callhistory.config.CallHistoryProperties;
+import org.unreal.modelrouter.monitor.callhistory.dto.CallHistoryStatisticsDTO;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryEntity;
+import org.unreal.modelrouter.persistence.jpa.entity.ApiCallHistoryRollupEntity;
+import org.unreal.modelrouter.persistence.jpa.repository.ApiCallHistoryRepository;
+import org.unreal.modelrouter.persistence.jpa.repository.ApiCallHistoryRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * CallHistoryRollupService 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class CallHistoryRollupServiceTest {
+
+    private ApiCallHistoryRollupRepository rollupRepository;
+    private ApiCallHistoryRepository callHistoryRepository;
+    private CallHistoryProperties properties;
+    private CallHistoryRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(ApiCallHistoryRollupRepository.class);
+        callHistoryRepository = mock(ApiCallHistoryRepository.class);
+        properties = new CallHistoryProperties();
+        service = new CallHistoryRollupService(rollupRepository, callHistoryRepository, properties);
+    }
+
+    private static ApiCallHistoryEntity call(final String createdAt, final Integer status, final String errorCode,
+                                             final long tokens, final Long responseTimeMs) {
+        return ApiCallHistoryEntity.builder()
+                .modelName("gpt-4")
+                .serviceType("chat")
+                .httpStatusCode(status)
+                .errorCode(errorCode)
+                .isSuccess(status != null && status < 400)
+                .totalTokens(tokens)
+                .responseTimeMs(responseTimeMs)
+                .createdAt(LocalDateTime.parse(createdAt))
+                .build();
+    }
+
+    private static ApiCallHistoryRollupEntity bucket(final String granularity, final String bucketStart,
+                                                     final String model, final int status, final String errorCode,
+                                                     final long requests, final long successes) {
+        return ApiCallHistoryRollupEntity.builder()
+                .granularity(granularity)
+                .bucketStart(LocalDateTime.parse(bucketStart))
+                .modelName(model)
+                .serviceType("chat")
+                .httpStatusCode(status)
+                .errorCode(errorCode)
+                .requestCount(requests)
+                .successCount(successes)
+                .totalTokens(requests * 100)
+                .responseTimeSum(requests * 200)
+                .responseTimeCount(requests)
+                .build();
+    }
+
+    @Test
+    @DisplayName("批内同一个桶的记录应合并后只执行一次 MERGE")
+    void accumulate_shouldMergeBatchPerBucket() {
+        service.accumulate(List.of(
+                call("2026-10-10T08:15:10", 200, null, 100, 200L),
+                call("2026-10-10T08:15:40", 200, null, 50, null),
+                call("2026-10-10T08:16:05", 200, null, 10, 100L),
+                call("2026-10-10T08:16:30", 502, "UPSTREAM_ERROR", 0, 30L)));
+
+        // 分钟：08:15、08:16 两个成功桶和 08:16 一个失败桶；小时：成功、失败各一个桶
+        verify(rollupRepository, times(5)).upsert(anyString(), any(), anyString(), anyString(), anyInt(),
+                anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(rollupRepository).upsert(ApiCallHistoryRollupEntity.MINUTE, LocalDateTime.parse("2026-10-10T08:15"),
+                "gpt-4", "chat", 200, "", 2L, 2L, 150L, 200L, 1L);
+        verify(rollupRepository).upsert(ApiCallHistoryRollupEntity.HOUR, LocalDateTime.parse("2026-10-10T08:00"),
+                "gpt-4", "chat", 200, "", 3L, 3L, 160L, 300L, 2L);
+        verify(rollupRepository).upsert(ApiCallHistoryRollupEntity.HOUR, LocalDateTime.parse("2026-10-10T08:00"),
+                "gpt-4", "chat", 502, "UPSTREAM_ERROR", 1L, 0L, 0L, 30L, 1L);
+    }
+
+    @Test
+    @DisplayName("关闭预聚合时不写入聚合表")
+    void accumulate_whenDisabled_shouldSkip() {
+        properties.setRollupEnabled(false);
+
+        service.accumulate(List.of(call("2026-10-10T08:15:10", 200, null, 100, 200L)));
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("暂停后不再累加，统计回退到原始查询")
+    void suspend_shouldStopAccumulatingAndMarkNotReady() {
+        service.init();
+        service.onApplicationEvent(null);
+        assertTrue(service.isReady());
+
+        service.suspend(new RuntimeException("rollup table locked"));
+        service.accumulate(List.of(call("2026-10-10T08:15:10", 200, null, 100, 200L)));
+
+        assertFalse(service.isReady());
+        verify(rollupRepository, never()).upsert(anyString(), any(), anyString(), anyString(), anyInt(),
+                anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("汇总应合并小时/分钟聚合桶与首尾原始记录，天粒度的段读取小时桶")
+    void aggregate_shouldCombineSegments() {
+        // 不限制保留期，规划结果与当前时间无关
+        properties.setRetentionDays(0);
+        properties.setMinuteRollupRetentionDays(0);
+        LocalDateTime from = LocalDateTime.parse("2026-10-10T08:15:30");
+        LocalDateTime to = LocalDateTime.parse("2026-10-12T09:30:00");
+        when(rollupRepository.findBuckets(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(callHistoryRepository.aggregateByDimensions(any(), any())).thenReturn(Collections.emptyList());
+
+        when(rollupRepository.findBuckets(ApiCallHistoryRollupEntity.HOUR,
+                LocalDateTime.parse("2026-10-11T00:00"), LocalDateTime.parse("2026-10-12T00:00")))
+                .thenReturn(List.of(
+                        bucket(ApiCallHistoryRollupEntity.HOUR, "2026-10-11T13:00", "gpt-4", 200, "", 10, 10),
+                        bucket(ApiCallHistoryRollupEntity.HOUR, "2026-10-11T14:00", "gpt-4", 429, "RATE_LIMITED", 3, 0)));
+        when(rollupRepository.findBuckets(ApiCallHistoryRollupEntity.MINUTE,
+                LocalDateTime.parse("2026-10-12T09:00"), LocalDateTime.parse("2026-10-12T09:30")))
+                .thenReturn(List.of(
+                        bucket(ApiCallHistoryRollupEntity.MINUTE, "2026-10-12T09:10", "qwen", 200, "", 4, 4)));
+        when(callHistoryRepository.aggregateByDimensions(from, LocalDateTime.parse("2026-10-10T08:16")))
+                .thenReturn(List.<Object[]>of(new Object[]{"gpt-4", "chat", null, null, 1L, 1L, 10L, 300L, 1L}));
+
+        CallHistoryAggregate aggregate = service.aggregate(from, to);
+
+        assertEquals(18, aggregate.getRequestCount());
+        assertEquals(15, aggregate.getSuccessCount());
+        assertEquals(1710, aggregate.getTotalTokens());
+        assertEquals((3400.0 + 300) / 18, aggregate.getAvgResponseTimeMs(), 0.001);
+
+        List<Object[]> byModel = aggregate.countByModel();
+        assertEquals("gpt-4", byModel.get(0)[0]);
+        assertEquals(14L, byModel.get(0)[1]);
+        assertEquals(11L, byModel.get(0)[4]);
+
+        // 原始记录缺失的状态码按 0 统计
+        assertEquals(List.of(0, 200, 429), aggregate.countByStatusCode().stream().map(row -> row[0]).toList());
+
+        List<Object[]> byErrorCode = aggregate.countByErrorCode();
+        assertEquals(1, byErrorCode.size());
+        assertArrayEquals(new Object[]{"RATE_LIMITED", 3L}, byErrorCode.get(0));
+
+        assertEquals(List.of("2026-10-10", "2026-10-11", "2026-10-12"),
+                aggregate.countByDay().stream().map(row -> row[0]).toList());
+
+        verify(rollupRepository, never()).findBuckets(eq(ApiCallHistoryRollupEntity.MINUTE),
+                eq(LocalDateTime.parse("2026-10-11T00:00")), any());
+    }
+
+    @Test
+    @DisplayName("统计服务在预聚合就绪后不再执行原始范围查询")
+    void getStatistics_whenReady_shouldReadRollups() throws Exception {
+        properties.setRetentionDays(0);
+        properties.setMinuteRollupRetentionDays(0);
+        service.init();
+        service.onApplicationEvent(null);
+        when(rollupRepository.findBuckets(any(), any(), any())).thenReturn(List.of(
+                bucket(ApiCallHistoryRollupEntity.HOUR, "2026-10-11T13:00", "gpt-4", 200, "", 10, 10)));
+        when(callHistoryRepository.aggregateByDimensions(any(), any())).thenReturn(Collections.emptyList());
+
+        ApiCallHistoryService statisticsService = new ApiCallHistoryService(callHistoryRepository, properties, null);
+        var field = ApiCallHistoryService.class.getDeclaredField("rollupService");
+        field.setAccessible(true);
+        field.set(statisticsService, service);
+
+        CallHistoryStatisticsDTO dto = statisticsService.getStatistics(
+                LocalDateTime.parse("2026-10-11T13:00"), LocalDateTime.parse("2026-10-11T14:00"));
+
+        assertEquals(10L, dto.getTotalRequests());
+        assertEquals(100.0, dto.getSuccessRate());
+        assertEquals(1, dto.getByModel().size());
+        assertEquals(13, dto.getByHour().get(0).getHour());
+        verify(callHistoryRepository, never()).countAllInRange(any(), any());
+        verify(callHistoryRepository, never()).countByModel(any(), any());
+    }
+
+    @Test
+    @DisplayName("启动时删除最新聚合桶前一分钟所在整点之后的聚合桶，应用就绪后从该整点重新计算，聚合表为空时全量回填")
+    void onApplicationReady_shouldRecomputeFromBoundaryHour() {
+        when(rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.MINUTE))
+                .thenReturn(LocalDateTime.parse("2026-10-10T08:15"));
+        service.init();
+        assertFalse(service.isReady());
+        verify(rollupRepository).deleteBucketsFrom(LocalDateTime.parse("2026-10-10T08:00"));
+
+        service.onApplicationEvent(null);
+
+        verify(rollupRepository).backfillMinutes(eq(LocalDateTime.parse("2026-10-10T08:00")), any());
+        verify(rollupRepository).backfillHours(eq(LocalDateTime.parse("2026-10-10T08:00")), any());
+        assertTrue(service.isReady());
+
+        // 最新分钟桶在整点时退回上一个小时，跨整点同时提交的批次也会重新计算
+        CallHistoryRollupService onTheHour = new CallHistoryRollupService(rollupRepository, callHistoryRepository,
+                properties);
+        when(rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.MINUTE))
+                .thenReturn(LocalDateTime.parse("2026-10-10T09:00"));
+        onTheHour.init();
+        onTheHour.onApplicationEvent(null);
+        verify(rollupRepository, times(2)).backfillMinutes(eq(LocalDateTime.parse("2026-10-10T08:00")), any());
+        verify(rollupRepository, times(2)).deleteBucketsFrom(LocalDateTime.parse("2026-10-10T08:00"));
+
+        // 分钟桶已全部过期时按最新小时桶计算
+        CallHistoryRollupService hourOnly = new CallHistoryRollupService(rollupRepository, callHistoryRepository,
+                properties);
+        when(rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.MINUTE)).thenReturn(null);
+        when(rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.HOUR))
+                .thenReturn(LocalDateTime.parse("2026-10-10T06:00"));
+        hourOnly.init();
+        hourOnly.onApplicationEvent(null);
+        verify(rollupRepository).backfillMinutes(eq(LocalDateTime.parse("2026-10-10T05:00")), any());
+
+        CallHistoryRollupService empty = new CallHistoryRollupService(rollupRepository, callHistoryRepository,
+                properties);
+        when(rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.HOUR)).thenReturn(null);
+        empty.init();
+        empty.onApplicationEvent(null);
+        verify(rollupRepository).backfillMinutes(eq(LocalDateTime.parse("1970-01-01T00:00")), any());
+        verify(rollupRepository, never()).deleteBucketsFrom(LocalDateTime.parse("1970-01-01T00:00"));
+    }
+
+    @Test
+    @DisplayName("已有聚合桶的分钟内累加失败后，重启时该分钟的聚合桶按原始记录重建而不是在其后继续累加")
+    void accumulateFailureInsideExistingMinute_shouldBeRecomputedOnRestart() {
+        service.init();
+        service.onApplicationEvent(null);
+        // 08:15:10 的批次已累加，08:15:40 的批次累加失败，预聚合暂停
+        service.accumulate(List.of(call("2026-10-10T08:15:10", 200, null, 100, 200L)));
+        doThrow(new RuntimeException("rollup table locked")).when(rollupRepository).upsert(anyString(), any(),
+                anyString(), anyString(), anyInt(), anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        RuntimeException failure = assertThrows(RuntimeException.class,
+                () -> service.accumulate(List.of(call("2026-10-10T08:15:40", 200, null, 50, 100L))));
+        service.suspend(failure);
+
+        // 重启：最新分钟桶仍是 08:15，漏掉的 08:15:40 记录在这个桶里
+        when(rollupRepository.findLatestBucketStart(ApiCallHistoryRollupEntity.MINUTE))
+                .thenReturn(LocalDateTime.parse("2026-10-10T08:15"));
+        CallHistoryRollupService restarted = new CallHistoryRollupService(rollupRepository, callHistoryRepository,
+                properties);
+        restarted.init();
+        restarted.onApplicationEvent(null);
+
+        var inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).deleteBucketsFrom(LocalDateTime.parse("2026-10-10T08:00"));
+        inOrder.verify(rollupRepository).backfillMinutes(eq(LocalDateTime.parse("2026-10-10T08:00")), any());
+        inOrder.verify(rollupRepository).backfillHours(eq(LocalDateTime.parse("2026-10-10T08:00")), any());
+        assertTrue(restarted.isReady());
+    }
+
+    @Test
+    @DisplayName("清理应按各粒度保留期删除")
+    void cleanupExpired_shouldRespectRetention() {
+        properties.setHourRollupRetentionDays(0);
+
+        service.cleanupExpired();
+
+        verify(rollupRepository).deleteByGranularityBefore(eq(ApiCallHistoryRollupEntity.MINUTE), any());
+        verify(rollupRepository, never()).deleteByGranularityBefore(eq(ApiCallHistoryRollupEntity.HOUR), any());
+    }
+}
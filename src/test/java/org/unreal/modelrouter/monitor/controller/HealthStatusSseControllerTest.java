@@ -5,15 +5,16 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.unreal.modelrouter.persistence.jpa.repository.ServiceConfigRepository;
-import org.unreal.modelrouter.persistence.jpa.repository.ServiceInstanceRepository;
+import org.unreal.modelrouter.monitor.service.HealthSnapshotPublisher;
 import org.unreal.modelrouter.router.checker.ServiceStateManager;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
 
 /**
  * HealthStatusSseController 单元测试
@@ -22,14 +23,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @MockitoSettings(strictness = Strictness.LENIENT)
 class HealthStatusSseControllerTest {
 
-    @Mock
-    private ServiceStateManager serviceStateManager;
-
-    @Mock
-    private ServiceInstanceRepository serviceInstanceRepository;
-
-    @Mock
-    private ServiceConfigRepository serviceConfigRepository;
+    @Spy
+    private HealthSnapshotPublisher healthSnapshotPublisher = new HealthSnapshotPublisher(new ServiceStateManager(), 10);
 
     @InjectMocks
     private HealthStatusSseController controller;
@@ -77,6 +72,7 @@ class HealthStatusSseControllerTest {
                 controller.notifyHealthStatusChange();
                 controller.notifyHealthStatusChange();
             });
+            verify(healthSnapshotPublisher, atLeast(2)).markChanged();
         }
     }
 }
@@ -0,0 +1,124 @@
+package org.unreal.modelrouter.monitor.monitoring.collector;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.config.core.MonitoringProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DefaultMetricsCollector 预绑定句柄单元测试
+ */
+class DefaultMetricsCollectorTest {
+
+    private SimpleMeterRegistry registry;
+    private MonitoringProperties properties;
+    private DefaultMetricsCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new MonitoringProperties();
+        properties.setPrefix("jairouter");
+        properties.getPerformance().setMaxMeterHandles(4);
+        collector = new DefaultMetricsCollector(registry, properties);
+    }
+
+    @Test
+    @DisplayName("同一标签组合应返回同一个句柄")
+    void handles_shouldBeCachedPerTagCombination() {
+        assertSame(collector.requestHandle("chat", "POST", "200"),
+                collector.requestHandle("chat", "POST", "200"));
+        assertSame(collector.backendCallHandle("vllm", "i1"), collector.backendCallHandle("vllm", "i1"));
+        assertSame(collector.rateLimitHandle("chat", "token_bucket"),
+                collector.rateLimitHandle("chat", "token_bucket"));
+        assertSame(collector.circuitBreakerHandle("i1"), collector.circuitBreakerHandle("i1"));
+        assertNotSame(collector.requestHandle("chat", "POST", "200"),
+                collector.requestHandle("chat", "POST", "500"));
+    }
+
+    @Test
+    @DisplayName("句柄与原有 record 方法应写入同一组 Meter")
+    void requestHandle_shouldShareMetersWithLegacyPath() {
+        collector.requestHandle("chat", "POST", "200").record(100);
+        collector.recordRequest("chat", "POST", 300, "200");
+
+        Counter counter = registry.get("jairouter_requests_total")
+                .tags("service", "chat", "method", "POST", "status", "200").counter();
+        Timer timer = registry.get("jairouter_request_duration_seconds")
+                .tags("service", "chat", "method", "POST").timer();
+        assertEquals(2.0, counter.count());
+        assertEquals(2, timer.count());
+        assertEquals(400.0, timer.totalTime(java.util.concurrent.TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    @DisplayName("后端调用句柄应按成功/失败分别计数")
+    void backendCallHandle_shouldSplitBySuccess() {
+        BackendCallMeterHandle handle = collector.backendCallHandle("vllm", "i1");
+        handle.record(10, true);
+        handle.record(20, true);
+        handle.record(30, false);
+
+        assertEquals(2.0, registry.get("jairouter_backend_calls_total")
+                .tags("adapter", "vllm", "instance", "i1", "status", "success").counter().count());
+        assertEquals(1.0, registry.get("jairouter_backend_calls_total")
+                .tags("adapter", "vllm", "instance", "i1", "status", "failure").counter().count());
+        assertEquals(3, registry.get("jairouter_backend_call_duration_seconds")
+                .tags("adapter", "vllm", "instance", "i1").timer().count());
+    }
+
+    @Test
+    @DisplayName("限流句柄应按 allowed/rejected 分别计数")
+    void rateLimitHandle_shouldSplitByResult() {
+        RateLimitMeterHandle handle = collector.rateLimitHandle("chat", "token_bucket");
+        handle.record(true);
+        handle.record(false);
+        handle.record(false);
+
+        assertEquals(1.0, registry.get("jairouter_rate_limit_events_total")
+                .tags("result", "allowed").counter().count());
+        assertEquals(2.0, registry.get("jairouter_rate_limit_events_total")
+                .tags("result", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("熔断器句柄应更新状态 Gauge 并按事件计数")
+    void circuitBreakerHandle_shouldUpdateStateGauge() {
+        CircuitBreakerMeterHandle handle = collector.circuitBreakerHandle("i1");
+        handle.record("OPEN", "state_change");
+        handle.record("OPEN", "state_change");
+
+        Gauge gauge = registry.get("jairouter_circuit_breaker_state").tags("service", "i1").gauge();
+        assertEquals(1.0, gauge.value());
+        assertEquals(2.0, registry.get("jairouter_circuit_breaker_events_total")
+                .tags("event", "state_change").counter().count());
+
+        collector.recordCircuitBreaker("i1", "HALF_OPEN", "success");
+        assertEquals(2.0, gauge.value());
+    }
+
+    @Test
+    @DisplayName("超过句柄上限的标签组合应归入溢出句柄")
+    void handleCache_shouldBeBounded() {
+        for (int i = 0; i < 10; i++) {
+            collector.backendCallHandle("vllm", "instance-" + i).record(1, true);
+        }
+
+        assertEquals(4, registry.find("jairouter_backend_call_duration_seconds").timers().size() - 1);
+        Timer overflow = registry.get("jairouter_backend_call_duration_seconds")
+                .tags("instance", MeterHandleCache.OVERFLOW_TAG).timer();
+        assertEquals(6, overflow.count());
+        FunctionCounter overflowCounter = registry.get("jairouter_meter_handle_overflow_total")
+                .tags("cache", "backend_call").functionCounter();
+        assertEquals(6.0, overflowCounter.count());
+        assertSame(collector.backendCallHandle("vllm", "instance-8"),
+                collector.backendCallHandle("vllm", "instance-9"));
+    }
+}
@@ -0,0 +1,126 @@
+package org.unreal.modelrouter.monitor.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.unreal.modelrouter.common.util.JacksonHelper;
+import org.unreal.modelrouter.router.checker.ServiceStateManager;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * HealthSnapshotPublisher 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class HealthSnapshotPublisherTest {
+
+    private final Map<String, Boolean> health = new ConcurrentHashMap<>();
+    private ServiceStateManager stateManager;
+    private HealthSnapshotPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        stateManager = mock(ServiceStateManager.class);
+        when(stateManager.getAllInstanceHealthStatus()).thenAnswer(invocation -> new ConcurrentHashMap<>(health));
+        health.put("chat:a", true);
+        health.put("chat:b", true);
+        publisher = new HealthSnapshotPublisher(stateManager, 10);
+    }
+
+    private static JsonNode data(final ServerSentEvent<String> event) {
+        try {
+            assertEquals("health-update", event.event());
+            return JacksonHelper.getObjectMapper().readTree(event.data());
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    @DisplayName("新订阅者先收到完整快照，之后只收到变化和移除的实例")
+    void shouldSendFullSnapshotThenDeltas() {
+        StepVerifier.create(publisher.stream().map(HealthSnapshotPublisherTest::data).take(2))
+                .assertNext(full -> {
+                    assertEquals("full", full.get("mode").asText());
+                    assertEquals(2, full.get("instanceHealth").size());
+                })
+                .then(() -> {
+                    health.put("chat:a", false);
+                    health.remove("chat:b");
+                    assertTrue(publisher.refresh());
+                })
+                .assertNext(delta -> {
+                    assertEquals("delta", delta.get("mode").asText());
+                    assertEquals(1, delta.get("instanceHealth").size());
+                    assertFalse(delta.get("instanceHealth").get("chat:a").asBoolean());
+                    assertEquals("chat:b", delta.get("removed").get(0).asText());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(publisher.stream().map(HealthSnapshotPublisherTest::data).take(1))
+                .assertNext(late -> {
+                    assertEquals("full", late.get("mode").asText());
+                    assertEquals(1, late.get("instanceHealth").size());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("多次变化合并为一次快照计算，所有订阅者共享同一事件且不访问状态源")
+    void shouldCoalesceChangesAndShareEvents() throws InterruptedException {
+        List<ServerSentEvent<String>> first = new CopyOnWriteArrayList<>();
+        List<ServerSentEvent<String>> second = new CopyOnWriteArrayList<>();
+        Disposable a = publisher.stream().subscribe(first::add);
+        Disposable b = publisher.stream().subscribe(second::add);
+        clearInvocations(stateManager);
+
+        for (int i = 0; i < 50; i++) {
+            health.put("chat:n" + i, i % 2 == 0);
+            publisher.markChanged();
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (first.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+
+        assertEquals(2, first.size());
+        assertSame(first.get(1), second.get(1));
+        assertEquals(50, data(first.get(1)).get("instanceHealth").size());
+        verify(stateManager, atMost(2)).getAllInstanceHealthStatus();
+        assertFalse(publisher.refresh());
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    @DisplayName("定期校正向订阅者发送完整快照，无订阅者时跳过")
+    void shouldResyncWithFullSnapshot() {
+        publisher.resync();
+        clearInvocations(stateManager);
+        publisher.resync();
+        verifyNoInteractions(stateManager);
+
+        StepVerifier.create(publisher.stream().map(HealthSnapshotPublisherTest::data).take(2))
+                .assertNext(full -> assertEquals("full", full.get("mode").asText()))
+                .then(publisher::resync)
+                .assertNext(resync -> {
+                    assertEquals("full", resync.get("mode").asText());
+                    assertEquals(2, resync.get("instanceHealth").size());
+                })
+                .verifyComplete();
+    }
+}
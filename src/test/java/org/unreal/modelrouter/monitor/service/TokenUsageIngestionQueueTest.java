@@ -0,0 +1,221 @@
+package org.unreal.modelrouter.monitor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.unreal.modelrouter.config.core.TokenUsageIngestionProperties;
+import org.unreal.modelrouter.monitor.dto.TokenUsageRecordDTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenUsageIngestionQueue 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class TokenUsageIngestionQueueTest {
+
+    private TokenUsageService tokenUsageService;
+    private TokenUsageIngestionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private List<TokenUsageRecordDTO> persisted;
+    private TokenUsageIngestionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        tokenUsageService = mock(TokenUsageService.class);
+        persisted = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            List<TokenUsageRecordDTO> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            return null;
+        }).when(tokenUsageService).saveBatch(anyList());
+
+        properties = new TokenUsageIngestionProperties();
+        properties.setBatchSize(10);
+        properties.setFlushIntervalMs(20);
+        properties.setQueueCapacity(1000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    private TokenUsageIngestionQueue newQueue() {
+        queue = new TokenUsageIngestionQueue(tokenUsageService, properties, meterRegistry);
+        return queue;
+    }
+
+    private static TokenUsageRecordDTO record(final int i) {
+        return TokenUsageRecordDTO.builder()
+                .modelName("model-" + i)
+                .serviceType("chat")
+                .totalTokens(10L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("多线程提交的记录应全部批量写入")
+    void submit_shouldPersistAllRecordsInBatches() throws InterruptedException {
+        TokenUsageIngestionQueue q = newQueue();
+        q.start();
+
+        int threads = 4;
+        int perThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(q.submit(record(i)));
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (persisted.size() < threads * perThread && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(threads * perThread, persisted.size());
+        assertEquals(threads * perThread, q.getWrittenCount());
+        assertEquals(0, q.getQueueSize());
+        verify(tokenUsageService, never()).recordTokenUsage(any());
+        verify(tokenUsageService, atMost(threads * perThread / 2)).saveBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("队列满时按 DROP_NEWEST 丢弃新记录并计数")
+    void submit_whenFull_shouldDropNewest() {
+        properties.setQueueCapacity(3);
+        properties.setBatchSize(100);
+        properties.setFlushIntervalMs(60_000);
+        TokenUsageIngestionQueue q = newQueue();
+        q.start();
+
+        for (int i = 0; i < 5; i++) {
+            q.submit(record(i));
+        }
+
+        assertEquals(3, q.getQueueSize());
+        assertEquals(2, q.getDroppedCount());
+        assertEquals(2.0, meterRegistry.get("jairouter.token.usage.ingestion.records")
+                .tag("result", "dropped").counter().count());
+
+        q.shutdown();
+        assertEquals(List.of("model-0", "model-1", "model-2"),
+                persisted.stream().map(TokenUsageRecordDTO::getModelName).toList());
+    }
+
+    @Test
+    @DisplayName("队列满时按 DROP_OLDEST 淘汰最旧记录")
+    void submit_whenFull_shouldDropOldest() {
+        properties.setQueueCapacity(3);
+        properties.setBatchSize(100);
+        properties.setFlushIntervalMs(60_000);
+        properties.setOverflowPolicy(TokenUsageIngestionProperties.OverflowPolicy.DROP_OLDEST);
+        TokenUsageIngestionQueue q = newQueue();
+        q.start();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(q.submit(record(i)));
+        }
+        q.shutdown();
+
+        assertEquals(2, q.getDroppedCount());
+        assertEquals(List.of("model-2", "model-3", "model-4"),
+                persisted.stream().map(TokenUsageRecordDTO::getModelName).toList());
+    }
+
+    @Test
+    @DisplayName("写入失败应计数且不影响后续批次")
+    void flush_failure_shouldBeCounted() {
+        properties.setBatchSize(100);
+        properties.setFlushIntervalMs(60_000);
+        doThrow(new RuntimeException("db down")).when(tokenUsageService).saveBatch(anyList());
+        TokenUsageIngestionQueue q = newQueue();
+        q.start();
+
+        q.submit(record(1));
+        q.submit(record(2));
+        q.shutdown();
+
+        assertEquals(2.0, meterRegistry.get("jairouter.token.usage.ingestion.records")
+                .tag("result", "failed").counter().count());
+        assertEquals(0, q.getQueueSize());
+    }
+
+    @Test
+    @DisplayName("未启用异步写入时应同步写入")
+    void submit_whenDisabled_shouldWriteSynchronously() {
+        properties.setEnabled(false);
+        TokenUsageIngestionQueue q = newQueue();
+        q.start();
+
+        TokenUsageRecordDTO record = record(1);
+        assertTrue(q.submit(record));
+        verify(tokenUsageService).recordTokenUsage(record);
+
+        List<TokenUsageRecordDTO> records = List.of(record(2), record(3));
+        assertEquals(2, q.submitAll(records));
+        verify(tokenUsageService).recordTokenUsageBatch(records);
+    }
+
+    @Test
+    @DisplayName("关闭后提交的记录计为丢弃，不再同步写入")
+    void submit_afterShutdown_shouldDrop() {
+        TokenUsageIngestionQueue q = newQueue();
+        q.start();
+        q.shutdown();
+
+        assertFalse(q.submit(record(1)));
+        assertEquals(0, q.submitAll(List.of(record(2), record(3))));
+
+        assertEquals(3, q.getDroppedCount());
+        verify(tokenUsageService, never()).recordTokenUsage(any());
+        verify(tokenUsageService, never()).recordTokenUsageBatch(anyList());
+        assertEquals(0, q.getQueueSize());
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST 下队列暂时腾不出容量时丢弃新记录，不在调用线程上自旋")
+    void submit_whenDropOldestCannotEvict_shouldGiveUp() {
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(100);
+        properties.setFlushIntervalMs(60_000);
+        properties.setOverflowPolicy(TokenUsageIngestionProperties.OverflowPolicy.DROP_OLDEST);
+        TokenUsageIngestionQueue q = newQueue();
+        q.start();
+
+        // 模拟其他提交线程已预留容量、记录尚未入队：容量已满但队列为空，没有可淘汰的记录
+        AtomicInteger size = (AtomicInteger) ReflectionTestUtils.getField(q, "size");
+        size.set(2);
+
+        assertFalse(assertTimeoutPreemptively(Duration.ofSeconds(1), () -> q.submit(record(1))));
+        assertEquals(1, q.getDroppedCount());
+        size.set(0);
+    }
+}
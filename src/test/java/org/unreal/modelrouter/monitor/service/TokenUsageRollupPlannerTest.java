@@ -0,0 +1,119 @@
+package org.unreal.modelrouter.monitor.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.monitor.service.TokenUsageRollupPlanner.Segment;
+import org.unreal.modelrouter.monitor.service.TokenUsageRollupPlanner.Source;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenUsageRollupPlanner 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class TokenUsageRollupPlannerTest {
+
+    private static LocalDateTime t(final String value) {
+        return LocalDateTime.parse(value);
+    }
+
+    private static void assertContiguous(final List<Segment> segments, final LocalDateTime from,
+                                         final LocalDateTime to) {
+        assertFalse(segments.isEmpty());
+        assertEquals(from, segments.get(0).from());
+        assertEquals(to, segments.get(segments.size() - 1).to());
+        for (int i = 1; i < segments.size(); i++) {
+            assertEquals(segments.get(i - 1).to(), segments.get(i).from());
+        }
+    }
+
+    @Test
+    @DisplayName("跨多天的区间应使用天聚合，首尾逐级细化到原始记录")
+    void plan_multiDayRange() {
+        LocalDateTime from = t("2026-10-10T08:15:30");
+        LocalDateTime to = t("2026-10-17T14:42:10");
+
+        List<Segment> segments = TokenUsageRollupPlanner.plan(from, to, null, null, null);
+
+        assertContiguous(segments, from, to);
+        assertEquals(List.of(
+                new Segment(Source.RAW, from, t("2026-10-10T08:16")),
+                new Segment(Source.MINUTE, t("2026-10-10T08:16"), t("2026-10-10T09:00")),
+                new Segment(Source.HOUR, t("2026-10-10T09:00"), t("2026-10-11T00:00")),
+                new Segment(Source.DAY, t("2026-10-11T00:00"), t("2026-10-17T00:00")),
+                new Segment(Source.HOUR, t("2026-10-17T00:00"), t("2026-10-17T14:00")),
+                new Segment(Source.MINUTE, t("2026-10-17T14:00"), t("2026-10-17T14:42")),
+                new Segment(Source.RAW, t("2026-10-17T14:42"), to)), segments);
+    }
+
+    @Test
+    @DisplayName("对齐的区间不应产生原始记录段")
+    void plan_alignedRange() {
+        List<Segment> segments = TokenUsageRollupPlanner.plan(
+                t("2026-10-01T00:00"), t("2026-10-03T00:00"), null, null, null);
+
+        assertEquals(List.of(new Segment(Source.DAY, t("2026-10-01T00:00"), t("2026-10-03T00:00"))), segments);
+    }
+
+    @Test
+    @DisplayName("同一分钟内的区间只读取原始记录")
+    void plan_withinOneMinute() {
+        LocalDateTime from = t("2026-10-10T08:15:10");
+        LocalDateTime to = t("2026-10-10T08:15:50");
+
+        assertEquals(List.of(new Segment(Source.RAW, from, to)),
+                TokenUsageRollupPlanner.plan(from, to, null, null, null));
+    }
+
+    @Test
+    @DisplayName("跨整点的短区间每个原始段都应落在同一分钟内")
+    void plan_acrossHourBoundary() {
+        LocalDateTime from = t("2026-10-10T08:59:30");
+        LocalDateTime to = t("2026-10-10T09:00:20");
+
+        assertEquals(List.of(
+                new Segment(Source.RAW, from, t("2026-10-10T09:00")),
+                new Segment(Source.RAW, t("2026-10-10T09:00"), to)),
+                TokenUsageRollupPlanner.plan(from, to, null, null, null));
+    }
+
+    @Test
+    @DisplayName("不足一天的区间应使用小时和分钟聚合")
+    void plan_withinOneDay() {
+        LocalDateTime from = t("2026-10-10T08:15:00");
+        LocalDateTime to = t("2026-10-10T11:30:00");
+
+        assertEquals(List.of(
+                new Segment(Source.MINUTE, from, t("2026-10-10T09:00")),
+                new Segment(Source.HOUR, t("2026-10-10T09:00"), t("2026-10-10T11:00")),
+                new Segment(Source.MINUTE, t("2026-10-10T11:00"), to)),
+                TokenUsageRollupPlanner.plan(from, to, null, null, null));
+    }
+
+    @Test
+    @DisplayName("区间开始超出原始记录和分钟聚合保留期时应对齐到小时")
+    void plan_beyondRetention_shouldCoarsenStart() {
+        LocalDateTime from = t("2026-10-01T08:15:30");
+        LocalDateTime to = t("2026-10-17T14:42:10");
+
+        List<Segment> segments = TokenUsageRollupPlanner.plan(from, to,
+                t("2026-10-16T00:00"), t("2026-10-09T00:00"), null);
+
+        assertContiguous(segments, t("2026-10-01T08:00"), to);
+        assertEquals(new Segment(Source.HOUR, t("2026-10-01T08:00"), t("2026-10-02T00:00")), segments.get(0));
+        assertEquals(Source.RAW, segments.get(segments.size() - 1).source());
+    }
+
+    @Test
+    @DisplayName("无效区间返回空规划")
+    void plan_invalidRange() {
+        assertTrue(TokenUsageRollupPlanner.plan(t("2026-10-10T00:00"), t("2026-10-10T00:00"),
+                null, null, null).isEmpty());
+        assertTrue(TokenUsageRollupPlanner.plan(null, t("2026-10-10T00:00"), null, null, null).isEmpty());
+    }
+}
@@ -0,0 +1,227 @@
+package org.unreal.modelrouter.monitor.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.config.core.TokenUsageRollupProperties;
+import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageEntity;
+import org.unreal.modelrouter.persistence.jpa.entity.TokenUsageRollupEntity;
+import org.unreal.modelrouter.persistence.jpa.repository.TokenUsageRepository;
+import org.unreal.modelrouter.persistence.jpa.repository.TokenUsageRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenUsageRollupService 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class TokenUsageRollupServiceTest {
+
+    private TokenUsageRollupRepository rollupRepository;
+    private TokenUsageRepository tokenUsageRepository;
+    private TokenUsageRollupProperties properties;
+    private TokenUsageRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(TokenUsageRollupRepository.class);
+        tokenUsageRepository = mock(TokenUsageRepository.class);
+        properties = new TokenUsageRollupProperties();
+        service = new TokenUsageRollupService(rollupRepository, tokenUsageRepository, properties);
+    }
+
+    private static TokenUsageEntity usage(final String model, final String occurredAt, final long tokens,
+                                          final Boolean success, final Long responseTimeMs) {
+        return TokenUsageEntity.builder()
+                .modelName(model)
+                .serviceType("chat")
+                .provider("openai")
+                .promptTokens(tokens / 2)
+                .completionTokens(tokens - tokens / 2)
+                .totalTokens(tokens)
+                .isSuccess(success)
+                .responseTimeMs(responseTimeMs)
+                .occurredAt(LocalDateTime.parse(occurredAt))
+                .build();
+    }
+
+    private static TokenUsageRollupEntity bucket(final String granularity, final String bucketStart,
+                                                 final String model, final String apiKeyId,
+                                                 final long requests, final long tokens) {
+        return TokenUsageRollupEntity.builder()
+                .granularity(granularity)
+                .bucketStart(LocalDateTime.parse(bucketStart))
+                .modelName(model)
+                .serviceType("chat")
+                .provider("openai")
+                .apiKeyId(apiKeyId)
+                .userId("")
+                .instanceName("")
+                .requestCount(requests)
+                .successCount(requests)
+                .failureCount(0L)
+                .promptTokens(tokens / 2)
+                .completionTokens(tokens - tokens / 2)
+                .totalTokens(tokens)
+                .responseTimeSum(requests * 100)
+                .responseTimeCount(requests)
+                .build();
+    }
+
+    @Test
+    @DisplayName("批内同一个桶的记录应合并后只执行一次 MERGE")
+    void accumulate_shouldMergeBatchPerBucket() {
+        service.accumulate(List.of(
+                usage("gpt-4", "2026-10-10T08:15:10", 100, true, 200L),
+                usage("gpt-4", "2026-10-10T08:15:40", 50, false, null),
+                usage("gpt-4", "2026-10-10T08:16:05", 10, true, 100L)));
+
+        // 分钟：08:15 与 08:16 两个桶；小时、天和小时合计各一个桶
+        verify(rollupRepository, times(5)).upsert(anyString(), any(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong());
+        verify(rollupRepository).upsert(TokenUsageRollupEntity.MINUTE, LocalDateTime.parse("2026-10-10T08:15"),
+                "gpt-4", "chat", "openai", "", "", "", 2L, 1L, 1L, 75L, 75L, 150L, 200L, 1L);
+        verify(rollupRepository).upsert(TokenUsageRollupEntity.HOUR, LocalDateTime.parse("2026-10-10T08:00"),
+                "gpt-4", "chat", "openai", "", "", "", 3L, 2L, 1L, 80L, 80L, 160L, 300L, 2L);
+        verify(rollupRepository).upsert(TokenUsageRollupEntity.DAY, LocalDateTime.parse("2026-10-10T00:00"),
+                "gpt-4", "chat", "openai", "", "", "", 3L, 2L, 1L, 80L, 80L, 160L, 300L, 2L);
+        verify(rollupRepository).upsert(TokenUsageRollupEntity.HOUR_TOTAL, LocalDateTime.parse("2026-10-10T08:00"),
+                "", "", "", "", "", "", 3L, 2L, 1L, 80L, 80L, 160L, 300L, 2L);
+    }
+
+    @Test
+    @DisplayName("暂停后不再累加且统计不可用")
+    void suspend_shouldStopAccumulatingAndMarkNotReady() {
+        service.init();
+        service.onApplicationEvent(null);
+        assertTrue(service.isReady());
+
+        service.suspend(new RuntimeException("rollup table locked"));
+        service.accumulate(List.of(usage("gpt-4", "2026-10-10T08:15:10", 100, true, 200L)));
+
+        assertFalse(service.isReady());
+        verify(rollupRepository, never()).upsert(anyString(), any(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("关闭预聚合时不写入聚合表")
+    void accumulate_whenDisabled_shouldSkip() {
+        properties.setEnabled(false);
+
+        service.accumulate(List.of(usage("gpt-4", "2026-10-10T08:15:10", 100, true, 200L)));
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("汇总应合并各粒度聚合桶与首尾原始记录")
+    void aggregate_shouldCombineSegments() {
+        // 不限制保留期，规划结果与当前时间无关
+        properties.setMinuteRetentionDays(0);
+        properties.setHourRetentionDays(0);
+        LocalDateTime from = LocalDateTime.parse("2026-10-10T08:15:30");
+        LocalDateTime to = LocalDateTime.parse("2026-10-12T09:30:00");
+        when(rollupRepository.findBuckets(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(rollupRepository.sumByHourOfDay(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(tokenUsageRepository.aggregateByDimensions(any(), any())).thenReturn(Collections.emptyList());
+
+        when(rollupRepository.findBuckets(TokenUsageRollupEntity.DAY,
+                LocalDateTime.parse("2026-10-11T00:00"), LocalDateTime.parse("2026-10-12T00:00")))
+                .thenReturn(List.of(bucket(TokenUsageRollupEntity.DAY, "2026-10-11T00:00", "gpt-4", "key-1", 10, 1000)));
+        when(rollupRepository.sumByHourOfDay(TokenUsageRollupEntity.HOUR_TOTAL,
+                LocalDateTime.parse("2026-10-11T00:00"), LocalDateTime.parse("2026-10-12T00:00")))
+                .thenReturn(List.<Object[]>of(new Object[]{13, 1000L, 10L}));
+        when(rollupRepository.findBuckets(TokenUsageRollupEntity.HOUR,
+                LocalDateTime.parse("2026-10-12T00:00"), LocalDateTime.parse("2026-10-12T09:00")))
+                .thenReturn(List.of(bucket(TokenUsageRollupEntity.HOUR, "2026-10-12T03:00", "qwen", "", 4, 400)));
+        when(tokenUsageRepository.aggregateByDimensions(from, LocalDateTime.parse("2026-10-10T08:16")))
+                .thenReturn(List.<Object[]>of(new Object[]{"gpt-4", "chat", "openai", "key-1", null, null,
+                        1L, 1L, 0L, 5L, 5L, 10L, 300L, 1L}));
+
+        TokenUsageAggregate aggregate = service.aggregate(from, to);
+
+        assertEquals(15, aggregate.getRequestCount());
+        assertEquals(1410, aggregate.getTotalTokens());
+        assertEquals(15, aggregate.getSuccessCount());
+        assertEquals((1000.0 + 400 + 300) / 15, aggregate.getAvgResponseTimeMs(), 0.001);
+
+        List<Object[]> byModel = aggregate.countTokensByModel();
+        assertEquals("gpt-4", byModel.get(0)[0]);
+        assertEquals(1010L, byModel.get(0)[1]);
+        assertEquals(11L, byModel.get(0)[4]);
+
+        // 空字符串表示维度缺失，不出现在按 API Key 统计中
+        List<Object[]> byApiKey = aggregate.countTokensByApiKey();
+        assertEquals(1, byApiKey.size());
+        assertEquals("key-1", byApiKey.get(0)[0]);
+
+        List<Object[]> byDay = aggregate.countTokensByDay();
+        assertEquals(List.of("2026-10-10", "2026-10-11", "2026-10-12"),
+                byDay.stream().map(row -> row[0]).toList());
+
+        List<Object[]> byHour = aggregate.countTokensByHour();
+        assertEquals(List.of(3, 8, 13), byHour.stream().map(row -> row[0]).toList());
+
+        verify(rollupRepository, never()).findBuckets(eq(TokenUsageRollupEntity.MINUTE),
+                eq(LocalDateTime.parse("2026-10-11T00:00")), any());
+    }
+
+    @Test
+    @DisplayName("应用就绪后从最新聚合桶的结束时间回填，没有分钟桶时依次退到小时桶、天桶")
+    void onApplicationReady_shouldBackfillFromLatestBucket() {
+        when(rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.MINUTE))
+                .thenReturn(LocalDateTime.parse("2026-10-10T08:15"));
+        service.init();
+        assertFalse(service.isReady());
+
+        service.onApplicationEvent(null);
+
+        LocalDateTime from = LocalDateTime.parse("2026-10-10T08:16");
+        verify(rollupRepository).backfillMinutes(eq(from), any());
+        verify(rollupRepository).backfillHours(eq(from), any());
+        verify(rollupRepository).backfillDays(eq(from), any());
+        verify(rollupRepository).backfillHourTotals(eq(from), any());
+        assertTrue(service.isReady());
+
+        when(rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.MINUTE)).thenReturn(null);
+        when(rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.HOUR)).thenReturn(null);
+        when(rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.DAY))
+                .thenReturn(LocalDateTime.parse("2026-10-09T00:00"));
+        service.init();
+        service.onApplicationEvent(null);
+        verify(rollupRepository).backfillMinutes(eq(LocalDateTime.parse("2026-10-10T00:00")), any());
+
+        when(rollupRepository.findLatestBucketStart(TokenUsageRollupEntity.DAY)).thenReturn(null);
+        service.init();
+        service.onApplicationEvent(null);
+        verify(rollupRepository).backfillMinutes(eq(LocalDateTime.parse("1970-01-01T00:00")), any());
+    }
+
+    @Test
+    @DisplayName("清理应按各粒度保留期删除，未配置保留期的数据不删除")
+    void cleanupExpired_shouldRespectRetention() {
+        properties.setRawRetentionDays(3);
+
+        service.cleanupExpired();
+
+        verify(rollupRepository).deleteByGranularityBefore(eq(TokenUsageRollupEntity.MINUTE), any());
+        verify(rollupRepository).deleteByGranularityBefore(eq(TokenUsageRollupEntity.HOUR), any());
+        verify(rollupRepository, never()).deleteByGranularityBefore(eq(TokenUsageRollupEntity.DAY), any());
+        verify(rollupRepository, never()).deleteByGranularityBefore(eq(TokenUsageRollupEntity.HOUR_TOTAL), any());
+        verify(tokenUsageRepository).deleteByOccurredAtBefore(any());
+    }
+}
@@ -21,6 +21,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -105,12 +107,35 @@ class TokenUsageServiceTest {
 
             List<TokenUsageRecordDTO> records = List.of(record1, record2);
 
-            when(tokenUsageRepository.save(any(TokenUsageEntity.class)))
-                    .thenReturn(new TokenUsageEntity());
-
             tokenUsageService.recordTokenUsageBatch(records);
 
-            verify(tokenUsageRepository, times(2)).save(any(TokenUsageEntity.class));
+            // 批量记录应合并为一次 saveAll，而不是逐条 save
+            verify(tokenUsageRepository).saveAll(argThat(entities -> entities instanceof List<?> list
+                    && list.size() == 2));
+            verify(tokenUsageRepository, never()).save(any(TokenUsageEntity.class));
+        }
+
+        @Test
+        @DisplayName("批量记录失败时异常不应抛出")
+        void testRecordTokenUsageBatchException() {
+            when(tokenUsageRepository.saveAll(anyList())).thenThrow(new RuntimeException("Database error"));
+
+            assertDoesNotThrow(() -> tokenUsageService.recordTokenUsageBatch(List.of(createTestRecord())));
+            assertThrows(RuntimeException.class, () -> tokenUsageService.saveBatch(List.of(createTestRecord())));
+        }
+
+        @Test
+        @DisplayName("预聚合失败时原始记录照常保存，预聚合暂停")
+        void testSaveBatchRollupFailure() {
+            TokenUsageRollupService rollupService = mock(TokenUsageRollupService.class);
+            ReflectionTestUtils.setField(tokenUsageService, "rollupService", rollupService);
+            RuntimeException failure = new RuntimeException("rollup table locked");
+            doThrow(failure).when(rollupService).accumulate(anyList());
+
+            assertDoesNotThrow(() -> tokenUsageService.saveBatch(List.of(createTestRecord())));
+
+            verify(tokenUsageRepository).saveAll(anyList());
+            verify(rollupService).suspend(failure);
         }
     }
 
@@ -218,7 +243,7 @@ class TokenUsageServiceTest {
             LocalDateTime endTime = LocalDateTime.now();
 
             // Mock 所有统计查询
-            when(tokenUsageRepository.countAllUsage()).thenReturn(100L);
+            when(tokenUsageRepository.countByTimeRange(startTime, endTime)).thenReturn(100L);
             when(tokenUsageRepository.countTotalTokensByTimeRange(any(), any())).thenReturn(1000L);
             when(tokenUsageRepository.countSuccessByTimeRange(any(), any())).thenReturn(95L);
             when(tokenUsageRepository.countFailedByTimeRange(any(), any())).thenReturn(5L);
@@ -246,7 +271,7 @@ class TokenUsageServiceTest {
         @Test
         @DisplayName("获取统计信息使用默认时间范围")
         void testGetTokenUsageStatisticsDefaultTimeRange() {
-            when(tokenUsageRepository.countAllUsage()).thenReturn(0L);
+            when(tokenUsageRepository.countByTimeRange(any(), any())).thenReturn(0L);
             when(tokenUsageRepository.countTotalTokensByTimeRange(any(), any())).thenReturn(0L);
             when(tokenUsageRepository.countSuccessByTimeRange(any(), any())).thenReturn(0L);
             when(tokenUsageRepository.countFailedByTimeRange(any(), any())).thenReturn(0L);
@@ -269,4 +294,42 @@ class TokenUsageServiceTest {
             assertNotNull(result.getEndTime());
         }
     }
+
+    @Nested
+    @DisplayName("SVC-TOKEN-006: 预聚合统计测试")
+    class RollupStatisticsTests {
+
+        @Mock
+        private TokenUsageRollupService rollupService;
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(tokenUsageService, "rollupService", rollupService);
+        }
+
+        @Test
+        @DisplayName("预聚合就绪时统计不查询原始表")
+        void testStatisticsFromRollup() {
+            LocalDateTime startTime = LocalDateTime.now().minusDays(1);
+            LocalDateTime endTime = LocalDateTime.now();
+            TokenUsageAggregate aggregate = new TokenUsageAggregate();
+            when(rollupService.isReady()).thenReturn(true);
+            when(rollupService.aggregate(startTime, endTime)).thenReturn(aggregate);
+
+            TokenUsageStatisticsDTO result = tokenUsageService.getTokenUsageStatistics(startTime, endTime);
+
+            assertEquals(0L, result.getTotalRequests());
+            assertEquals(0.0, result.getSuccessRate());
+            verifyNoInteractions(tokenUsageRepository);
+        }
+
+        @Test
+        @DisplayName("批量写入应在同一事务内累加预聚合")
+        void testSaveBatchAccumulatesRollup() {
+            tokenUsageService.saveBatch(List.of(createTestRecord()));
+
+            verify(tokenUsageRepository).saveAll(anyList());
+            verify(rollupService).accumulate(argThat(entities -> entities.size() == 1));
+        }
+    }
 }
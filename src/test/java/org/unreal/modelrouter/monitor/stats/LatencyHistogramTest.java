@@ -0,0 +1,114 @@
+package org.unreal.modelrouter.monitor.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram / SlidingWindowHistogram 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("桶下标与桶下界应一一对应")
+    void bucketIndex_shouldRoundTrip() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long lower = LatencyHistogram.bucketLowerBound(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(lower), "index " + i);
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1,
+                LatencyHistogram.bucketIndex(LatencyHistogram.MAX_TRACKABLE_VALUE));
+    }
+
+    @Test
+    @DisplayName("百分位的相对误差应不超过 1/16")
+    void percentiles_shouldBeWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5000.5, histogram.getMean(), 0.001);
+        assertWithin(5000, histogram.getValueAtPercentile(50));
+        assertWithin(9000, histogram.getValueAtPercentile(90));
+        assertWithin(9900, histogram.getValueAtPercentile(99));
+        assertEquals(10_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    @DisplayName("小值应精确计数，负值按 0 记录，超大值截断")
+    void record_shouldHandleEdgeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtPercentile(10));
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_VALUE, histogram.getMax());
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("并发记录不应丢失样本")
+    void record_shouldBeThreadSafe() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals((long) threads * perThread, histogram.getCount());
+        assertEquals(perThread - 1, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("滑动窗口应在分片过期后丢弃旧样本")
+    void slidingWindow_shouldExpireOldSlots() {
+        AtomicLong now = new AtomicLong(0);
+        SlidingWindowHistogram window = new SlidingWindowHistogram(1000, 5, now::get);
+
+        window.record(100);
+        now.set(450);
+        window.record(200);
+        assertEquals(2, window.snapshot().getCount());
+
+        now.set(1050);
+        assertEquals(1, window.snapshot().getCount());
+        assertEquals(200, window.snapshot().getMax());
+
+        // 同一下标的分片被新纪元复用时应先清空
+        now.set(2450);
+        window.record(300);
+        LatencyHistogram snapshot = window.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(300, snapshot.getMax());
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
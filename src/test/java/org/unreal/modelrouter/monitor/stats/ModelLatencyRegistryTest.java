@@ -0,0 +1,103 @@
+package org.unreal.modelrouter.monitor.stats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.config.core.MonitoringProperties;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ModelLatencyRegistry 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class ModelLatencyRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ModelLatencyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.setPrefix("jairouter");
+        properties.getPerformance().setMaxLatencyStatsKeys(3);
+        registry = new ModelLatencyRegistry(meterRegistry, properties);
+    }
+
+    @Test
+    @DisplayName("流式请求应记录 TTFT、ITL 与输出吞吐")
+    void recordStreaming_shouldDeriveTokenMetrics() {
+        // 总耗时 2.2s，首 token 200ms，之后 2s 内输出 101 个 token
+        registry.recordStreaming("chat", "qwen", "i1",
+                TimeUnit.MILLISECONDS.toNanos(2200), TimeUnit.MILLISECONDS.toNanos(200), 101);
+
+        ModelLatencyStats stats = registry.getStats("chat", "qwen", "i1");
+        assertNotNull(stats);
+        assertEquals(200.0, stats.getTimeToFirstTokenMillis(50), 200.0 / 16);
+        assertEquals(2200.0, stats.getLatencyMillis(99), 2200.0 / 16);
+
+        Map<String, Object> snapshot = stats.snapshot();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> itl = (Map<String, Object>) snapshot.get("interTokenLatencyMs");
+        assertEquals(20.0, (double) itl.get("p50"), 20.0 / 16);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> tps = (Map<String, Object>) snapshot.get("tokensPerSecond");
+        assertEquals(50.5, (double) tps.get("p50"), 50.5 / 16);
+
+        Timer ttftTimer = meterRegistry.get("jairouter_model_time_to_first_token_seconds")
+                .tags("service", "chat", "model", "qwen", "instance", "i1").timer();
+        assertEquals(1, ttftTimer.count());
+        DistributionSummary summary = meterRegistry.get("jairouter_model_output_tokens_per_second").summary();
+        assertEquals(50.5, summary.totalAmount(), 0.01);
+    }
+
+    @Test
+    @DisplayName("未收到数据块的流式请求只记录端到端延迟")
+    void recordStreaming_withoutChunks_shouldOnlyRecordLatency() {
+        registry.recordStreaming("chat", "qwen", "i1", TimeUnit.MILLISECONDS.toNanos(50), -1, 0);
+
+        ModelLatencyStats stats = registry.getStats("chat", "qwen", "i1");
+        assertEquals(-1, stats.getTimeToFirstTokenMillis(50));
+        assertTrue(stats.getLatencyMillis(50) > 0);
+    }
+
+    @Test
+    @DisplayName("快照应支持按服务类型和模型过滤")
+    void getSnapshots_shouldFilter() {
+        registry.recordRequest("chat", "qwen", "i1", 1_000_000);
+        registry.recordRequest("chat", "qwen", "i2", 1_000_000);
+        registry.recordRequest("embedding", "bge", "i1", 1_000_000);
+
+        assertEquals(3, registry.getSnapshots(null).size());
+        assertEquals(2, registry.getSnapshots("CHAT").size());
+        List<Map<String, Object>> qwen = registry.getSnapshots("chat", "qwen");
+        assertEquals(2, qwen.size());
+        assertEquals("i1", qwen.get(0).get("instanceName"));
+        assertTrue(registry.getSnapshots("chat", "missing").isEmpty());
+    }
+
+    @Test
+    @DisplayName("超过组合上限后应归入溢出统计")
+    void getOrCreate_shouldBeBounded() {
+        for (int i = 0; i < 10; i++) {
+            registry.recordRequest("chat", "model-" + i, "i1", 1_000_000);
+        }
+
+        assertEquals(4, registry.size());
+        ModelLatencyStats overflow = registry.getStats(ModelLatencyRegistry.OVERFLOW_TAG,
+                ModelLatencyRegistry.OVERFLOW_TAG, ModelLatencyRegistry.OVERFLOW_TAG);
+        assertNotNull(overflow);
+        assertEquals(7, meterRegistry.get("jairouter_model_request_duration_seconds")
+                .tags("model", ModelLatencyRegistry.OVERFLOW_TAG).timer().count());
+    }
+}
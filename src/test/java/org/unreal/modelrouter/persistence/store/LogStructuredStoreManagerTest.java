@@ -0,0 +1,84 @@
+package org.unreal.modelrouter.persistence.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LogStructuredStoreManager 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class LogStructuredStoreManagerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("配置与版本的读写语义与文件存储一致，重启后版本列表由索引恢复")
+    void shouldStoreConfigsAndVersions() throws IOException {
+        try (LogStructuredStoreManager manager = new LogStructuredStoreManager(dir.toString())) {
+            manager.saveConfig("model-router", Map.of("services", Map.of("chat", List.of("a", "b"))));
+            manager.saveConfig("other@key", Map.of("enabled", true));
+            manager.saveConfigVersion("model-router", Map.of("v", 1), 1);
+            manager.saveConfigVersion("model-router", Map.of("v", 3), 3);
+            manager.saveConfigVersion("model-router", Map.of("v", 2), 2);
+            manager.saveConfigVersion("model-router", Map.of(), 4);
+            manager.deleteConfigVersion("model-router", 2);
+
+            assertEquals(Map.of("services", Map.of("chat", List.of("a", "b"))), manager.getConfig("model-router"));
+            assertEquals(List.of(1, 3), manager.getConfigVersions("model-router"));
+            assertEquals(Map.of("v", 3), manager.getLatestConfig("model-router"));
+            assertFalse(manager.versionExists("model-router", 2));
+            assertNotNull(manager.getVersionCreatedTime("model-router", 1));
+            assertTrue(manager.getVersionFilePath("model-router", 1).startsWith(dir.toString()));
+        }
+
+        try (LogStructuredStoreManager manager = new LogStructuredStoreManager(dir.toString())) {
+            Set<String> keys = new HashSet<>();
+            manager.getAllKeys().forEach(keys::add);
+            assertEquals(Set.of("model-router", "other@key"), keys);
+            assertEquals(List.of(1, 3), manager.getConfigVersions("model-router"));
+            assertEquals(Map.of("v", 1), manager.getConfigByVersion("model-router", 1));
+
+            manager.deleteConfig("other@key");
+            manager.compact();
+            assertFalse(manager.exists("other@key"));
+            assertNull(manager.getConfig("other@key"));
+            assertTrue(manager.getConfigVersions("missing").isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> manager.getConfig(""));
+        }
+    }
+
+    @Test
+    @DisplayName("响应式包装与工厂按类型创建日志结构存储")
+    void shouldExposeReactiveAndFactoryVariants() throws IOException {
+        assertInstanceOf(LogStructuredStoreManager.class,
+                StoreManagerFactory.createStoreManager("log", dir.resolve("sync").toString()));
+
+        try (ReactiveLogStructuredStoreManager manager =
+                     new ReactiveLogStructuredStoreManager(dir.resolve("reactive").toString())) {
+            StepVerifier.create(manager.saveConfig("k", Map.of("a", 1))
+                            .then(manager.saveConfigVersion("k", Map.of("a", 1), 1))
+                            .then(manager.getConfig("k")))
+                    .expectNext(Map.of("a", 1))
+                    .verifyComplete();
+            StepVerifier.create(manager.getConfigVersions("k")).expectNext(1).verifyComplete();
+            StepVerifier.create(manager.getConfig("missing")).verifyComplete();
+            StepVerifier.create(manager.deleteConfig("k").then(manager.exists("k")))
+                    .expectNext(false)
+                    .verifyComplete();
+        }
+    }
+}
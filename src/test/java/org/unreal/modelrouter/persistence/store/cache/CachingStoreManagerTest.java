@@ -0,0 +1,166 @@
+package org.unreal.modelrouter.persistence.store.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.unreal.modelrouter.persistence.jpa.JpaStoreManager;
+import org.unreal.modelrouter.persistence.jpa.entity.ConfigEntity;
+import org.unreal.modelrouter.persistence.jpa.repository.ConfigRepository;
+import org.unreal.modelrouter.persistence.store.FileStoreManager;
+import org.unreal.modelrouter.persistence.store.ReactiveMemoryStoreManager;
+import org.unreal.modelrouter.persistence.store.StoreManager;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachingStoreManager / CachingReactiveStoreManager 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class CachingStoreManagerTest {
+
+    @TempDir
+    Path dir;
+
+    private static CachingStoreManager caching(final StoreManager delegate) {
+        return new CachingStoreManager(delegate, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("重复读取命中缓存，返回可修改的副本，经装饰器写入后重新加载")
+    void shouldServeRepeatedReadsFromCache() {
+        FileStoreManager file = spy(new FileStoreManager(dir.toString()));
+        CachingStoreManager store = caching(file);
+        store.saveConfig("model-router", Map.of("services", Map.of("chat", List.of("a"))));
+
+        Map<String, Object> first = store.getConfig("model-router");
+        first.put("mutated", true);
+        Map<String, Object> second = store.getConfig("model-router");
+
+        assertFalse(second.containsKey("mutated"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> store.getConfigSnapshot("model-router").put("x", 1));
+        verify(file, times(1)).getConfig("model-router");
+        assertTrue(store.exists("model-router"));
+        verify(file, never()).exists("model-router");
+
+        store.saveConfig("model-router", Map.of("services", Map.of()));
+        assertEquals(Map.of("services", Map.of()), store.getConfig("model-router"));
+        verify(file, times(2)).getConfig("model-router");
+
+        CachingStoreManager.Stats stats = store.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    @DisplayName("绕过装饰器直接写后端或外部修改文件时，版本戳变化使快照失效")
+    void shouldDetectWritesThatBypassTheDecorator() throws IOException {
+        FileStoreManager file = new FileStoreManager(dir.toString());
+        CachingStoreManager store = caching(file);
+        file.saveConfig("k", Map.of("v", 1));
+        assertEquals(Map.of("v", 1), store.getConfig("k"));
+
+        file.saveConfig("k", Map.of("v", 2));
+        assertEquals(Map.of("v", 2), store.getConfig("k"));
+
+        Path configFile = dir.resolve("k.json");
+        Files.writeString(configFile, "{\"v\":333}");
+        Files.setLastModifiedTime(configFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        assertEquals(Map.of("v", 333), store.getConfig("k"));
+        assertEquals(2, store.getStats().stale());
+    }
+
+    @Test
+    @DisplayName("不存在的结果和版本列表同样被缓存，保存版本后失效")
+    void shouldCacheMissesAndVersionLists() {
+        FileStoreManager file = spy(new FileStoreManager(dir.toString()));
+        CachingStoreManager store = caching(file);
+
+        assertNull(store.getConfig("missing"));
+        assertNull(store.getConfig("missing"));
+        assertFalse(store.exists("missing"));
+        verify(file, times(1)).getConfig("missing");
+
+        store.saveConfigVersion("k", Map.of("v", 1), 1);
+        assertEquals(List.of(1), store.getConfigVersions("k"));
+        assertEquals(List.of(1), store.getConfigVersions("k"));
+        verify(file, times(1)).getConfigVersions("k");
+
+        store.saveConfigVersion("k", Map.of("v", 2), 2);
+        assertEquals(List.of(1, 2), store.getConfigVersions("k"));
+        assertEquals(Map.of("v", 2), store.getLatestConfig("k"));
+    }
+
+    @Test
+    @DisplayName("JPA 后端：批量读取只查询未命中的键，事务外写入立即递增版本戳")
+    void shouldBulkLoadMissesFromJpa() {
+        ConfigRepository repository = mock(ConfigRepository.class);
+        when(repository.findAllByConfigKeyInAndIsLatestTrue(anyCollection())).thenAnswer(invocation -> {
+            List<ConfigEntity> entities = new ArrayList<>();
+            for (Object key : (Collection<?>) invocation.getArgument(0)) {
+                if (!"absent".equals(key)) {
+                    entities.add(ConfigEntity.builder().configKey((String) key)
+                            .configValue("{\"name\":\"" + key + "\"}").version(1).isLatest(true).build());
+                }
+            }
+            return entities;
+        });
+        when(repository.findFirstByConfigKeyAndIsLatestTrue(anyString())).thenReturn(Optional.empty());
+        JpaStoreManager jpa = new JpaStoreManager(repository);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CachingStoreManager store = caching(jpa).bindMetrics(registry, "jpa");
+
+        Map<String, Map<String, Object>> first = store.getConfigs(List.of("a", "absent", "b"));
+        assertEquals(List.of("a", "b"), List.copyOf(first.keySet()));
+        Map<String, Map<String, Object>> second = store.getConfigs(List.of("b", "c", "a"));
+        assertEquals(Map.of("name", "c"), second.get("c"));
+        verify(repository).findAllByConfigKeyInAndIsLatestTrue(List.of("a", "absent", "b"));
+        verify(repository).findAllByConfigKeyInAndIsLatestTrue(List.of("c"));
+
+        Object before = jpa.getVersionStamp("a");
+        jpa.deleteConfig("a");
+        assertNotEquals(before, jpa.getVersionStamp("a"));
+        assertEquals(2.0, registry.get("jairouter.store.cache.requests").tag("result", "hit").functionCounter()
+                .count());
+    }
+
+    @Test
+    @DisplayName("响应式装饰器缓存结果和不存在的键，写入完成后失效")
+    void shouldCacheReactiveReads() {
+        ReactiveMemoryStoreManager memory = spy(new ReactiveMemoryStoreManager());
+        CachingReactiveStoreManager store = new CachingReactiveStoreManager(memory, 100, Duration.ofMinutes(5));
+
+        StepVerifier.create(store.saveConfig("k", Map.of("v", 1)).then(store.getConfig("k")))
+                .expectNext(Map.of("v", 1))
+                .verifyComplete();
+        StepVerifier.create(store.getConfig("k")).expectNext(Map.of("v", 1)).verifyComplete();
+        StepVerifier.create(store.getConfig("none").then(store.getConfig("none"))).verifyComplete();
+        StepVerifier.create(store.getConfigs(List.of("none", "k")))
+                .expectNext(Map.of("k", Map.of("v", 1)))
+                .verifyComplete();
+        verify(memory, times(1)).getConfig("k");
+
+        StepVerifier.create(store.saveConfig("k", Map.of("v", 2)).then(store.getConfig("k")))
+                .expectNext(Map.of("v", 2))
+                .verifyComplete();
+        assertEquals(4, store.getStats().hits());
+    }
+}
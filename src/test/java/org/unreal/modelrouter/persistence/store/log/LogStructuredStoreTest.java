@@ -0,0 +1,235 @@
+package org.unreal.modelrouter.persistence.store.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LogStructuredStore 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class LogStructuredStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(final byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static LogStructuredStore.Options smallSegments(final boolean mmap) {
+        return LogStructuredStore.Options.builder()
+                .maxSegmentBytes(256)
+                .mmapReads(mmap)
+                .compactionThreshold(1.1)
+                .build();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("写入、覆盖、删除后读取最新值，重新打开后由日志重建索引")
+    void shouldPutGetDeleteAndReopen() throws IOException {
+        try (LogStructuredStore store = new LogStructuredStore(dir)) {
+            store.put("a", bytes("1"));
+            store.put("b", bytes("2"));
+            store.put("a", bytes("3"));
+            assertTrue(store.delete("b"));
+            assertFalse(store.delete("missing"));
+
+            assertEquals("3", text(store.get("a")));
+            assertNull(store.get("b"));
+            assertEquals(1, store.keys().size());
+            assertTrue(store.timestamp("a") > 0);
+        }
+
+        try (LogStructuredStore store = new LogStructuredStore(dir)) {
+            assertEquals("3", text(store.get("a")));
+            assertNull(store.get("b"));
+            assertEquals(List.of("a"), List.copyOf(store.keys()));
+        }
+    }
+
+    @Test
+    @DisplayName("活动段超过上限后滚动，封存段以内存映射和定位读读取结果一致")
+    void shouldRollSegmentsAndReadSealedOnes() throws IOException {
+        for (boolean mmap : new boolean[] {true, false}) {
+            Path sub = dir.resolve("mmap-" + mmap);
+            try (LogStructuredStore store = new LogStructuredStore(sub, smallSegments(mmap))) {
+                for (int i = 0; i < 40; i++) {
+                    store.put("key-" + i, bytes("value-" + i + "-" + "x".repeat(i)));
+                }
+                assertTrue(store.stats().segments() > 3);
+                for (int i = 0; i < 40; i++) {
+                    assertEquals("value-" + i + "-" + "x".repeat(i), text(store.get("key-" + i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("崩溃留下的不完整尾记录和校验失败的记录在恢复时被截断")
+    void shouldTruncateTornTail() throws IOException {
+        try (LogStructuredStore store = new LogStructuredStore(dir)) {
+            store.put("a", bytes("alpha"));
+            store.put("b", bytes("beta"));
+        }
+        Path segment = segmentFiles().get(0);
+        long intact = Files.size(segment);
+
+        // 半条记录：只写入了记录头和部分键
+        ByteBuffer torn = LogStructuredStore.encode(LogStructuredStore.TYPE_PUT, 1L, bytes("c"), bytes("gamma"));
+        torn.limit(LogStructuredStore.HEADER_SIZE + 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(torn);
+        }
+        try (LogStructuredStore store = new LogStructuredStore(dir)) {
+            assertEquals("beta", text(store.get("b")));
+            assertNull(store.get("c"));
+            assertEquals(intact, Files.size(segment));
+            store.put("c", bytes("gamma"));
+        }
+
+        // 完整长度但内容被破坏的尾记录
+        long beforeCorrupt = Files.size(segment);
+        ByteBuffer corrupt = LogStructuredStore.encode(LogStructuredStore.TYPE_PUT, 1L, bytes("d"), bytes("delta"));
+        corrupt.put(corrupt.limit() - 1, (byte) 'X');
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(corrupt);
+        }
+        try (LogStructuredStore store = new LogStructuredStore(dir)) {
+            assertEquals("gamma", text(store.get("c")));
+            assertNull(store.get("d"));
+            assertEquals(beforeCorrupt, Files.size(segment));
+        }
+    }
+
+    @Test
+    @DisplayName("压缩回收覆盖和删除的记录，已删除的键重启后不会复活")
+    void shouldCompactAndKeepDeletesAfterRestart() throws IOException {
+        try (LogStructuredStore store = new LogStructuredStore(dir, smallSegments(true))) {
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < 5; i++) {
+                    store.put("key-" + i, bytes("round-" + round));
+                }
+            }
+            store.put("gone", bytes("soon deleted"));
+            store.delete("gone");
+            store.rollover();
+
+            LogStructuredStore.Stats before = store.stats();
+            store.compact();
+            LogStructuredStore.Stats after = store.stats();
+
+            assertTrue(after.totalBytes() < before.totalBytes() / 3, before + " -> " + after);
+            assertEquals(2, after.segments());
+            assertEquals(5, after.keys());
+            assertEquals("round-9", text(store.get("key-3")));
+            assertNull(store.get("gone"));
+
+            store.put("key-0", bytes("after compaction"));
+        }
+
+        assertEquals(2, segmentFiles().size());
+        try (LogStructuredStore store = new LogStructuredStore(dir, smallSegments(true))) {
+            assertEquals("after compaction", text(store.get("key-0")));
+            assertEquals("round-9", text(store.get("key-4")));
+            assertNull(store.get("gone"));
+        }
+    }
+
+    @Test
+    @DisplayName("压缩段已就位但旧段未删除时，恢复时删除被合并的旧段")
+    void shouldRemoveMergedSegmentsLeftByInterruptedCompaction() throws IOException {
+        try (LogStructuredStore store = new LogStructuredStore(dir, smallSegments(true))) {
+            store.put("k", bytes("old"));
+            store.rollover();
+            store.delete("k");
+            store.put("other", bytes("x"));
+            store.rollover();
+        }
+        List<Path> segments = segmentFiles();
+        Path first = segments.get(0);
+        byte[] firstContent = Files.readAllBytes(first);
+
+        try (LogStructuredStore store = new LogStructuredStore(dir, smallSegments(true))) {
+            store.compact();
+        }
+        assertFalse(Files.exists(first));
+        // 模拟在删除旧段之前崩溃
+        Files.write(first, firstContent);
+
+        try (LogStructuredStore store = new LogStructuredStore(dir, smallSegments(true))) {
+            assertNull(store.get("k"));
+            assertEquals("x", text(store.get("other")));
+        }
+        assertFalse(Files.exists(first));
+    }
+
+    @Test
+    @DisplayName("段滚动后垃圾比例超过阈值时自动压缩，并发读写结果一致")
+    void shouldAutoCompactUnderConcurrentAccess() throws Exception {
+        LogStructuredStore.Options options = LogStructuredStore.Options.builder()
+                .maxSegmentBytes(4096)
+                .compactionThreshold(0.5)
+                .build();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (LogStructuredStore store = new LogStructuredStore(dir, options)) {
+            Thread[] writers = new Thread[4];
+            for (int t = 0; t < writers.length; t++) {
+                int writer = t;
+                writers[t] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 2_000; i++) {
+                            String key = "w" + writer + "-" + (i % 10);
+                            store.put(key, bytes(key + ":" + i));
+                            String read = text(store.get(key));
+                            assertNotNull(read);
+                            assertTrue(read.startsWith(key + ":"), read);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertNull(failure.get());
+
+            assertEquals(40, store.keys().size());
+            assertTrue(store.stats().totalBytes() < 40 * 4096, store.stats().toString());
+            for (int t = 0; t < writers.length; t++) {
+                assertEquals("w" + t + "-9:1999", text(store.get("w" + t + "-9")));
+            }
+        }
+        try (LogStructuredStore store = new LogStructuredStore(dir, options)) {
+            assertEquals("w0-9:1999", text(store.get("w0-9")));
+            assertEquals(40, store.keys().size());
+        }
+    }
+}
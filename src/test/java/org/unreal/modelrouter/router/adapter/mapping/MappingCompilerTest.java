@@ -0,0 +1,214 @@
+package org.unreal.modelrouter.router.adapter.mapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.router.adapter.config.AdapterDefinitionProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MappingCompiler / AdapterMapping 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class MappingCompilerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static AdapterDefinitionProperties.MappingRuleConfig rule(final String op, final String from,
+                                                                      final String to) {
+        AdapterDefinitionProperties.MappingRuleConfig rule = new AdapterDefinitionProperties.MappingRuleConfig();
+        rule.setOp(op);
+        rule.setFrom(from);
+        rule.setTo(to);
+        return rule;
+    }
+
+    private static AdapterDefinitionProperties.MappingRuleConfig constant(final String to, final Object value) {
+        AdapterDefinitionProperties.MappingRuleConfig rule = rule("constant", null, to);
+        rule.setValue(value);
+        return rule;
+    }
+
+    private static AdapterDefinitionProperties.MappingConfig requestMapping(
+            final AdapterDefinitionProperties.MappingRuleConfig... rules) {
+        AdapterDefinitionProperties.MappingConfig config = new AdapterDefinitionProperties.MappingConfig();
+        config.setRequest(new ArrayList<>(List.of(rules)));
+        return config;
+    }
+
+    private JsonNode mapRequest(final AdapterMapping mapping, final String json) throws Exception {
+        byte[] mapped = mapping.mapRequest(json.getBytes(StandardCharsets.UTF_8));
+        assertNotNull(mapped);
+        return objectMapper.readTree(mapped);
+    }
+
+    @Nested
+    @DisplayName("请求映射")
+    class RequestTests {
+
+        @Test
+        @DisplayName("改名、移动、常量和删除组合执行，未命中的字段原样保留")
+        void shouldApplyRules() throws Exception {
+            AdapterMapping mapping = MappingCompiler.compile(requestMapping(
+                    rule("rename", "max_tokens", "max_output_tokens"),
+                    rule("move", "temperature", "generation.temperature"),
+                    rule("move", "top_p", "generation.sampling.top_p"),
+                    constant("response_mode", "standard"),
+                    constant("stream", "true"),
+                    rule("remove", "user", null)));
+
+            JsonNode result = mapRequest(mapping, "{\"model\":\"m\",\"max_tokens\":128,\"temperature\":0.5,"
+                    + "\"top_p\":0.9,\"user\":\"u\",\"stream\":false,\"tools\":[{\"type\":\"function\"}]}");
+
+            JsonNode expected = objectMapper.readTree("{\"model\":\"m\",\"tools\":[{\"type\":\"function\"}],"
+                    + "\"max_output_tokens\":128,\"generation\":{\"temperature\":0.5,\"sampling\":{\"top_p\":0.9}},"
+                    + "\"response_mode\":\"standard\",\"stream\":true}");
+            assertEquals(expected, result);
+        }
+
+        @Test
+        @DisplayName("目标路径与输入中的同名对象合并")
+        void shouldMergeIntoExistingObject() throws Exception {
+            AdapterMapping mapping = MappingCompiler.compile(requestMapping(
+                    rule("move", "temperature", "options.temperature"),
+                    rule("rename", "options.stop_words", "stop")));
+
+            JsonNode result = mapRequest(mapping,
+                    "{\"options\":{\"seed\":1,\"stop_words\":[\"a\"]},\"temperature\":0.2}");
+
+            assertEquals(objectMapper.readTree("{\"options\":{\"seed\":1,\"stop\":[\"a\"],\"temperature\":0.2}}"),
+                    result);
+        }
+
+        @Test
+        @DisplayName("嵌套字段上提到父级位置")
+        void shouldHoistNestedField() throws Exception {
+            AdapterMapping mapping = MappingCompiler.compile(requestMapping(rule("move", "input.text", "input")));
+
+            JsonNode result = mapRequest(mapping, "{\"input\":{\"text\":\"hello\",\"extra\":1},\"model\":\"m\"}");
+
+            assertEquals(objectMapper.readTree("{\"input\":\"hello\",\"model\":\"m\"}"), result);
+        }
+
+        @Test
+        @DisplayName("数组投影对每个对象元素执行子规则")
+        void shouldProjectArray() throws Exception {
+            AdapterDefinitionProperties.MappingRuleConfig project = rule("project", "messages", "contents");
+            project.setRules(new ArrayList<>(List.of(
+                    rule("move", "content", "parts.text"),
+                    rule("remove", "name", null))));
+            AdapterMapping mapping = MappingCompiler.compile(requestMapping(project));
+
+            JsonNode result = mapRequest(mapping, "{\"messages\":[{\"role\":\"user\",\"content\":\"hi\",\"name\":\"n\"},"
+                    + "{\"role\":\"assistant\",\"content\":\"ok\"},\"raw\"]}");
+
+            assertEquals(objectMapper.readTree("{\"contents\":[{\"role\":\"user\",\"parts\":{\"text\":\"hi\"}},"
+                    + "{\"role\":\"assistant\",\"parts\":{\"text\":\"ok\"}},\"raw\"]}"), result);
+        }
+
+        @Test
+        @DisplayName("非 JSON 对象或格式错误时返回 null")
+        void shouldReturnNullForInvalidBody() {
+            AdapterMapping mapping = MappingCompiler.compile(requestMapping(rule("remove", "user", null)));
+
+            assertNull(mapping.mapRequest("[1]".getBytes(StandardCharsets.UTF_8)));
+            assertNull(mapping.mapRequest("{\"user\":".getBytes(StandardCharsets.UTF_8)));
+            assertNull(mapping.mapRequest(new byte[0]));
+        }
+    }
+
+    @Nested
+    @DisplayName("响应与流式映射")
+    class ResponseTests {
+
+        @Test
+        @DisplayName("已反序列化的响应按规则映射")
+        void shouldMapResponseValue() {
+            AdapterDefinitionProperties.MappingConfig config = new AdapterDefinitionProperties.MappingConfig();
+            config.setResponse(new ArrayList<>(List.of(
+                    rule("move", "result.output", "choices"),
+                    rule("rename", "token_usage", "usage"))));
+            AdapterMapping mapping = MappingCompiler.compile(config);
+
+            Object mapped = mapping.mapResponse(Map.of(
+                    "result", Map.of("output", List.of(Map.of("text", "hi"))),
+                    "token_usage", Map.of("total_tokens", 3)));
+
+            assertEquals(Map.of("result", Map.of(), "choices", List.of(Map.of("text", "hi")),
+                    "usage", Map.of("total_tokens", 3)), mapped);
+            assertEquals("plain", mapping.mapResponse("plain"));
+        }
+
+        @Test
+        @DisplayName("按事件类型选择 SSE 规则，非 JSON 事件原样返回")
+        void shouldMapStreamEventsByType() throws Exception {
+            AdapterDefinitionProperties.StreamMappingConfig stream = new AdapterDefinitionProperties.StreamMappingConfig();
+            stream.setEventField("type");
+            stream.setEvents(Map.of("content_block_delta",
+                    new ArrayList<>(List.of(rule("move", "delta.text", "choices.delta.content")))));
+            stream.setRules(new ArrayList<>(List.of(rule("remove", "type", null))));
+            AdapterDefinitionProperties.MappingConfig config = new AdapterDefinitionProperties.MappingConfig();
+            config.setStream(stream);
+            AdapterMapping mapping = MappingCompiler.compile(config);
+
+            String delta = mapping.mapStreamChunk(
+                    "{\"type\":\"content_block_delta\",\"delta\":{\"type\":\"text_delta\",\"text\":\"Hi\"}}");
+            assertEquals(objectMapper.readTree("{\"type\":\"content_block_delta\",\"delta\":{\"type\":\"text_delta\"},"
+                    + "\"choices\":{\"delta\":{\"content\":\"Hi\"}}}"), objectMapper.readTree(delta));
+
+            assertEquals("data: {\"index\":0}", mapping.mapStreamChunk("data: {\"type\":\"ping\",\"index\":0}"));
+            assertEquals("[DONE]", mapping.mapStreamChunk("[DONE]"));
+        }
+    }
+
+    @Nested
+    @DisplayName("配置校验")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("未配置规则时编译结果为 null")
+        void shouldReturnNullWhenEmpty() {
+            assertNull(MappingCompiler.compile(null));
+            assertNull(MappingCompiler.compile(new AdapterDefinitionProperties.MappingConfig()));
+        }
+
+        @Test
+        @DisplayName("报告未知操作、缺失参数和路径冲突")
+        void shouldReportErrors() {
+            List<String> errors = MappingCompiler.validate(requestMapping(
+                    rule("copy", "a", "b"),
+                    rule("rename", "x", "y.z"),
+                    rule("move", "c", "out.value"),
+                    rule("move", "d", "out"),
+                    rule("remove", "e", null),
+                    rule("remove", "e.f", null),
+                    constant("g", null),
+                    rule("move", "h..i", "j")));
+
+            assertEquals(6, errors.size(), errors.toString());
+            assertTrue(errors.get(0).contains("unsupported op"));
+            assertTrue(errors.get(1).contains("use move"));
+            assertTrue(errors.get(2).contains("request[3]"));
+            assertTrue(errors.get(3).contains("request[5]"));
+            assertTrue(errors.get(4).contains("value is required"));
+            assertTrue(errors.get(5).contains("invalid from path"));
+        }
+
+        @Test
+        @DisplayName("编译失败时抛出 IllegalArgumentException")
+        void compileShouldThrowOnInvalidConfig() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> MappingCompiler.compile(requestMapping(rule("move", "a", null))));
+        }
+    }
+}
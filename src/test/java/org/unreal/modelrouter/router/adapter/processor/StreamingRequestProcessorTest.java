@@ -11,7 +11,12 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.unreal.modelrouter.monitor.monitoring.collector.BackendCallMeterHandle;
+import org.unreal.modelrouter.monitor.monitoring.collector.MetricsCollector;
+import org.unreal.modelrouter.monitor.monitoring.collector.RequestMeterHandle;
 import org.unreal.modelrouter.router.adapter.transformer.ResponseTransformer;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry;
 
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
@@ -269,4 +274,38 @@ class StreamingRequestProcessorTest {
             verify(responseTransformer).transformStreamChunk("original");
         }
     }
+
+    @Nested
+    @DisplayName("指标句柄测试")
+    class MeterHandleTests {
+        @Test
+        @DisplayName("同一服务和实例的句柄只解析一次，之后直接复用")
+        void shouldResolveHandlesOnce() throws Exception {
+            MetricsCollector metricsCollector = mock(MetricsCollector.class);
+            RequestMeterHandle requestHandle = mock(RequestMeterHandle.class);
+            BackendCallMeterHandle backendHandle = mock(BackendCallMeterHandle.class);
+            when(metricsCollector.requestHandle("chat", "STREAM", "200")).thenReturn(requestHandle);
+            when(metricsCollector.backendCallHandle("openai", "instance-1")).thenReturn(backendHandle);
+            ReflectionTestUtils.setField(processor, "metricsCollector", metricsCollector);
+
+            var complete = StreamingRequestProcessor.class.getDeclaredMethod("recordStreamingComplete",
+                    ModelServiceRegistry.ServiceType.class, String.class, String.class, long.class);
+            complete.setAccessible(true);
+            var error = StreamingRequestProcessor.class.getDeclaredMethod("recordStreamingError",
+                    ModelServiceRegistry.ServiceType.class, String.class, String.class, long.class, Throwable.class);
+            error.setAccessible(true);
+
+            long start = System.currentTimeMillis();
+            complete.invoke(processor, ModelServiceRegistry.ServiceType.chat, "openai", "instance-1", start);
+            complete.invoke(processor, ModelServiceRegistry.ServiceType.chat, "openai", "instance-1", start);
+            error.invoke(processor, ModelServiceRegistry.ServiceType.chat, "openai", "instance-1", start,
+                    new RuntimeException("boom"));
+
+            verify(metricsCollector, times(1)).requestHandle("chat", "STREAM", "200");
+            verify(metricsCollector, times(1)).backendCallHandle("openai", "instance-1");
+            verify(requestHandle, times(2)).record(anyLong());
+            verify(backendHandle, times(2)).record(anyLong(), eq(true));
+            verify(backendHandle).record(anyLong(), eq(false));
+        }
+    }
 }
@@ -0,0 +1,173 @@
+package org.unreal.modelrouter.router.adapter.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.unreal.modelrouter.router.adapter.processor.StreamingRequestProcessor;
+import org.unreal.modelrouter.router.adapter.transformer.ResponseTransformer;
+import org.unreal.modelrouter.router.model.ModelRouterProperties;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 流式翻译器回放测试
+ *
+ * 本地桩服务按事件逐个回放录制的 Claude / Gemini SSE 记录，经 StreamingRequestProcessor 翻译后校验输出的 OpenAI 数据块。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class StreamTranslatorReplayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DisposableServer server;
+    private StreamingRequestProcessor processor;
+    private ModelRouterProperties.ModelInstance instance;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/claude", (request, response) -> response
+                                .header("Content-Type", "text/event-stream")
+                                .sendString(replay("/sse/claude-messages-stream.txt")))
+                        .post("/gemini", (request, response) -> response
+                                .header("Content-Type", "text/event-stream")
+                                .sendString(replay("/sse/gemini-stream.txt"))))
+                .bindNow();
+        processor = new StreamingRequestProcessor(mock(ResponseTransformer.class));
+        instance = new ModelRouterProperties.ModelInstance();
+        instance.setName("stub");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    /**
+     * 按空行切分录制记录，逐个事件间隔发送，模拟后端增量输出
+     */
+    private static Flux<String> replay(final String resource) {
+        String transcript;
+        try (InputStream in = StreamTranslatorReplayTest.class.getResourceAsStream(resource)) {
+            transcript = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return Flux.fromArray(transcript.split("\n\n"))
+                .filter(event -> !event.isBlank())
+                .map(event -> event + "\n\n")
+                .delayElements(Duration.ofMillis(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> stream(final String path, final StreamTranslator translator) {
+        ResponseEntity<?> response = processor.processStreamingRequest(Map.of("stream", true), "Bearer test",
+                WebClient.create("http://localhost:" + server.port()), path, instance,
+                ModelServiceRegistry.ServiceType.chat, "stub", null, translator, null).block(Duration.ofSeconds(10));
+        assertNotNull(response);
+        Flux<ServerSentEvent<String>> body = (Flux<ServerSentEvent<String>>) response.getBody();
+        return body.map(ServerSentEvent::data).collectList().block(Duration.ofSeconds(10));
+    }
+
+    private JsonNode json(final String chunk) throws Exception {
+        JsonNode node = objectMapper.readTree(chunk);
+        assertEquals("chat.completion.chunk", node.get("object").asText());
+        return node;
+    }
+
+    @Test
+    @DisplayName("Claude 类型化事件翻译为 OpenAI 数据块，最后一帧携带用量")
+    void shouldTranslateClaudeTranscript() throws Exception {
+        List<String> chunks = stream("/claude", new ClaudeStreamTranslator(objectMapper, "claude"));
+
+        assertEquals(9, chunks.size(), chunks.toString());
+        JsonNode role = json(chunks.get(0));
+        assertEquals("chatcmpl-msg_01XFDUDYJgAACzvnptvVoYEL", role.get("id").asText());
+        assertEquals("claude-sonnet-4-20250514", role.get("model").asText());
+        assertEquals("assistant", role.at("/choices/0/delta/role").asText());
+
+        assertEquals("Okay, let's check", json(chunks.get(1)).at("/choices/0/delta/content").asText());
+        assertEquals(" the weather.", json(chunks.get(2)).at("/choices/0/delta/content").asText());
+
+        JsonNode toolStart = json(chunks.get(3)).at("/choices/0/delta/tool_calls/0");
+        assertEquals(0, toolStart.get("index").asInt());
+        assertEquals("toolu_01T1x1fJ34qAmk2tNTrN7Up6", toolStart.get("id").asText());
+        assertEquals("get_weather", toolStart.at("/function/name").asText());
+        String arguments = json(chunks.get(4)).at("/choices/0/delta/tool_calls/0/function/arguments").asText()
+                + json(chunks.get(5)).at("/choices/0/delta/tool_calls/0/function/arguments").asText();
+        assertEquals("San Francisco, CA", objectMapper.readTree(arguments).get("location").asText());
+
+        assertEquals("tool_calls", json(chunks.get(6)).at("/choices/0/finish_reason").asText());
+
+        JsonNode usage = json(chunks.get(7));
+        assertEquals(0, usage.get("choices").size());
+        assertEquals(500, usage.at("/usage/prompt_tokens").asLong());
+        assertEquals(89, usage.at("/usage/completion_tokens").asLong());
+        assertEquals(589, usage.at("/usage/total_tokens").asLong());
+        assertEquals(StreamTranslator.DONE, chunks.get(8));
+        // 所有数据块共享同一个 id
+        for (int i = 1; i < 8; i++) {
+            assertEquals(role.get("id"), json(chunks.get(i)).get("id"));
+        }
+    }
+
+    @Test
+    @DisplayName("Gemini 响应片段翻译为增量数据块，流结束时补发用量和 [DONE]")
+    void shouldTranslateGeminiTranscript() throws Exception {
+        List<String> chunks = stream("/gemini", new GeminiStreamTranslator(objectMapper, "gemini"));
+
+        assertEquals(7, chunks.size(), chunks.toString());
+        JsonNode role = json(chunks.get(0));
+        assertEquals("chatcmpl-mJ1SaPq0Gb6Sz7IP", role.get("id").asText());
+        assertEquals("gemini-2.0-flash", role.get("model").asText());
+        assertEquals("Once upon", json(chunks.get(1)).at("/choices/0/delta/content").asText());
+        assertEquals(" a time, a tiny robot", json(chunks.get(2)).at("/choices/0/delta/content").asText());
+        assertEquals(" woke up.", json(chunks.get(3)).at("/choices/0/delta/content").asText());
+        assertEquals("stop", json(chunks.get(4)).at("/choices/0/finish_reason").asText());
+
+        JsonNode usage = json(chunks.get(5));
+        assertEquals(9, usage.at("/usage/prompt_tokens").asLong());
+        assertEquals(12, usage.at("/usage/completion_tokens").asLong());
+        assertEquals(21, usage.at("/usage/total_tokens").asLong());
+        assertEquals(StreamTranslator.DONE, chunks.get(6));
+    }
+
+    @Test
+    @DisplayName("Claude 流未收到 message_stop 就结束时补发结束块、用量和 [DONE]")
+    void claudeShouldFinishTruncatedStream() throws Exception {
+        ClaudeStreamTranslator translator = new ClaudeStreamTranslator(objectMapper, "claude");
+        translator.onEvent("{\"type\":\"message_start\",\"message\":{\"id\":\"msg_1\",\"model\":\"m\","
+                + "\"usage\":{\"input_tokens\":3,\"output_tokens\":1}}}");
+        assertEquals("hi", json(translator.onEvent("{\"type\":\"content_block_delta\",\"index\":0,"
+                + "\"delta\":{\"type\":\"text_delta\",\"text\":\"hi\"}}").get(0)).at("/choices/0/delta/content").asText());
+
+        List<String> tail = translator.onComplete();
+
+        assertEquals(3, tail.size());
+        assertEquals("stop", json(tail.get(0)).at("/choices/0/finish_reason").asText());
+        assertEquals(4, json(tail.get(1)).at("/usage/total_tokens").asLong());
+        assertEquals(StreamTranslator.DONE, tail.get(2));
+        assertTrue(translator.onComplete().isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+package org.unreal.modelrouter.router.adapter.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonBodyRewriter 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class JsonBodyRewriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static byte[] bytes(final String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("只替换顶层 model，嵌套的同名字段和其余内容原样保留")
+    void rewrite_shouldOnlyReplaceTopLevelModel() throws Exception {
+        String body = "{\"messages\":[{\"role\":\"user\",\"content\":\"你好\",\"model\":\"inner\"}],"
+                + "\"model\":\"qwen\",\"temperature\":0.25,\"seed\":12345678901234,"
+                + "\"tools\":[{\"type\":\"function\",\"function\":{\"name\":\"f\",\"parameters\":{}}}],"
+                + "\"stream\":true,\"metadata\":null}";
+
+        byte[] result = JsonBodyRewriter.rewrite(bytes(body), model -> "vendor/" + model, Map.of(), Set.of());
+
+        assertNotNull(result);
+        JsonNode expected = objectMapper.readTree(body.replace("\"model\":\"qwen\"", "\"model\":\"vendor/qwen\""));
+        assertEquals(expected, objectMapper.readTree(result));
+    }
+
+    @Test
+    @DisplayName("强制字段已存在时替换，不存在时追加")
+    void rewrite_shouldApplyOverrides() throws Exception {
+        String body = "{\"model\":\"m\",\"stream\":false,\"messages\":[]}";
+
+        byte[] result = JsonBodyRewriter.rewrite(bytes(body), model -> model,
+                Map.of("stream", true, "stream_options", Map.of("include_usage", true)), Set.of());
+
+        JsonNode node = objectMapper.readTree(result);
+        assertTrue(node.get("stream").asBoolean());
+        assertTrue(node.get("stream_options").get("include_usage").asBoolean());
+        assertEquals(3 + 1, node.size());
+    }
+
+    @Test
+    @DisplayName("包含回退字段、非对象或格式错误时返回 null")
+    void rewrite_shouldReturnNullWhenNotRewritable() {
+        assertNull(JsonBodyRewriter.rewrite(bytes("{\"model\":\"m\",\"options\":{}}"),
+                model -> model, Map.of(), Set.of("options")));
+        assertNull(JsonBodyRewriter.rewrite(bytes("[1,2]"), model -> model, Map.of(), Set.of()));
+        assertNull(JsonBodyRewriter.rewrite(bytes("{\"model\":\"m\""), model -> model, Map.of(), Set.of()));
+        assertNull(JsonBodyRewriter.rewrite(bytes("{\"model\":\"m\"} trailing"), model -> model, Map.of(), Set.of()));
+        assertNull(JsonBodyRewriter.rewrite(new byte[0], model -> model, Map.of(), Set.of()));
+    }
+}
@@ -1,5 +1,6 @@
 package org.unreal.modelrouter.router.adapter.transformer;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +11,7 @@ import org.unreal.modelrouter.common.dto.EmbeddingDTO;
 import org.unreal.modelrouter.common.dto.RerankDTO;
 import org.unreal.modelrouter.common.dto.TtsDTO;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -160,6 +162,34 @@ class OpenAiRequestTransformerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Raw Chat Body Rewrite Tests")
+    class RawChatBodyTests {
+
+        @Test
+        @DisplayName("Should rewrite model and keep unknown fields")
+        void rewriteChatBodyKeepsUnknownFields() throws Exception {
+            String body = "{\"model\":\"gpt-4\",\"messages\":[{\"role\":\"user\",\"content\":\"Hi\"}],"
+                + "\"response_format\":{\"type\":\"json_object\"},\"tools\":[{\"type\":\"function\"}]}";
+
+            byte[] result = transformer.rewriteChatBody(body.getBytes(StandardCharsets.UTF_8), model -> "prefix-" + model);
+
+            assertNotNull(result);
+            JsonNode node = new ObjectMapper().readTree(result);
+            assertEquals("prefix-gpt-4", node.get("model").asText());
+            assertEquals("json_object", node.get("response_format").get("type").asText());
+            assertEquals("function", node.get("tools").get(0).get("type").asText());
+        }
+
+        @Test
+        @DisplayName("Should fall back to DTO transformation when options are present")
+        void rewriteChatBodyFallsBackForOptions() {
+            String body = "{\"model\":\"gpt-4\",\"messages\":[],\"options\":{\"top_k\":5}}";
+
+            assertNull(transformer.rewriteChatBody(body.getBytes(StandardCharsets.UTF_8), modelNameAdapter));
+        }
+    }
+
     @Nested
     @DisplayName("Model Name Adapter Tests")
     class ModelNameAdapterTests {
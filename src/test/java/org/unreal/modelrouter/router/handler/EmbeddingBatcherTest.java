@@ -0,0 +1,344 @@
+package org.unreal.modelrouter.router.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import org.unreal.modelrouter.common.controller.response.RouterResponse;
+import org.unreal.modelrouter.common.dto.EmbeddingDTO;
+import org.unreal.modelrouter.config.core.EmbeddingBatchingProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * EmbeddingBatcher 测试
+ *
+ * 本地桩服务模拟 OpenAI 兼容的 embeddings 接口：每条输入的向量为 [输入长度, 序号]，
+ * prompt_tokens 为输入长度之和；输入包含 "bad" 时返回 400，model 为 "broken" 时返回 502，model 为 "throttled" 时返回 429。
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class EmbeddingBatcherTest {
+
+    private static final String AUTH = "Bearer test-key";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private final List<ServerHttpRequest> sentRequests = new CopyOnWriteArrayList<>();
+
+    private DisposableServer server;
+    private WebClient client;
+    private EmbeddingBatchingProperties properties;
+    private ApiKeyService apiKeyService;
+    private EmbeddingBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/v1/embeddings", (request, response) -> request.receive()
+                        .aggregate().asString()
+                        .flatMap(body -> {
+                            backendCalls.incrementAndGet();
+                            return Mono.fromCallable(() -> embed(body));
+                        })
+                        .flatMap(result -> response.status(result.getStatusCode().value())
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(result.getBody()))
+                                .then())))
+                .bindNow();
+        client = WebClient.create("http://localhost:" + server.port());
+
+        properties = new EmbeddingBatchingProperties();
+        properties.setEnabled(true);
+        properties.setModels(List.of("bge-m3", "broken", "throttled"));
+        properties.setMaxWaitMs(50);
+        apiKeyService = mock(ApiKeyService.class);
+        batcher = new EmbeddingBatcher(properties, apiKeyService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<String> embed(final String body) throws Exception {
+        Map<String, Object> request = objectMapper.readValue(body, Map.class);
+        if ("broken".equals(request.get("model"))) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("{}");
+        }
+        if ("throttled".equals(request.get("model"))) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("{}");
+        }
+        Object input = request.get("input");
+        List<String> inputs = input instanceof List<?> list ? (List<String>) list : List.of((String) input);
+        if (inputs.contains("bad")) {
+            return ResponseEntity.badRequest().body("{\"error\":{\"message\":\"invalid input\"}}");
+        }
+        List<Map<String, Object>> data = new ArrayList<>();
+        int tokens = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            data.add(Map.of("object", "embedding", "index", i, "embedding", List.of(inputs.get(i).length(), i)));
+            tokens += inputs.get(i).length();
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("object", "list");
+        response.put("data", data);
+        response.put("model", request.get("model"));
+        response.put("usage", Map.of("prompt_tokens", tokens, "total_tokens", tokens));
+        return ResponseEntity.ok(objectMapper.writeValueAsString(response));
+    }
+
+    /**
+     * 与 NonStreamingRequestProcessor 一致：4xx/5xx 转为 ResponseStatusException，成功响应包装为 RouterResponse
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<ResponseEntity<?>> send(final EmbeddingDTO.Request request, final ServerHttpRequest httpRequest) {
+        sentRequests.add(httpRequest);
+        return client.post().uri("/v1/embeddings")
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(status -> status.isError(),
+                        response -> Mono.error(new ResponseStatusException(response.statusCode())))
+                .bodyToMono(String.class)
+                .map(body -> {
+                    try {
+                        Object data = objectMapper.readValue(body, Map.class);
+                        return ResponseEntity.ok(RouterResponse.success(data, "请求成功"));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+
+    private Mono<ResponseEntity<?>> submit(final String model, final Object input) {
+        return submit(model, input, AUTH, null);
+    }
+
+    private Mono<ResponseEntity<?>> submit(final String model, final Object input, final String authorization,
+                                           final String apiKeyId) {
+        EmbeddingDTO.Request request = new EmbeddingDTO.Request(model, input, null, null, null, null);
+        Map<String, Object> attributes = new HashMap<>();
+        if (apiKeyId != null) {
+            attributes.put(ServiceRequestHandler.API_KEY_ID_ATTRIBUTE, apiKeyId);
+        }
+        ServerHttpRequest httpRequest = new ServerHttpRequestDecorator(
+                MockServerHttpRequest.post("/v1/embeddings").build()) {
+            @Override
+            public Map<String, Object> getAttributes() {
+                return attributes;
+            }
+        };
+        return batcher.submit(request, authorization, httpRequest, this::send);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> payload(final ResponseEntity<?> response) {
+        return (Map<String, Object>) ((RouterResponse<Object>) response.getBody()).getData();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<Integer>> vectors(final ResponseEntity<?> response) {
+        return ((List<Map<String, Object>>) payload(response).get("data")).stream()
+                .map(item -> (List<Integer>) item.get("embedding"))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> indexes(final ResponseEntity<?> response) {
+        return ((List<Map<String, Object>>) payload(response).get("data")).stream()
+                .map(item -> (Integer) item.get("index"))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int promptTokens(final ResponseEntity<?> response) {
+        return ((Number) ((Map<String, Object>) payload(response).get("usage")).get("prompt_tokens")).intValue();
+    }
+
+    @Test
+    @DisplayName("并发的小请求合并为一次下游调用，data 按顺序切分回各请求")
+    void concurrentRequests_shouldShareOneBackendCall() {
+        List<ResponseEntity<?>> responses = Flux.merge(
+                        submit("bge-m3", "a"),
+                        submit("bge-m3", List.of("bb", "ccc")),
+                        submit("bge-m3", "dddd"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(responses);
+        assertEquals(1, backendCalls.get());
+        assertEquals(3, batcher.getBatchedRequests());
+        assertEquals(1, batcher.getBatchCalls());
+
+        responses = new ArrayList<>(responses);
+        responses.sort((x, y) -> Integer.compare(vectors(x).get(0).get(0), vectors(y).get(0).get(0)));
+        assertEquals(List.of(List.of(1, 0)), vectors(responses.get(0)));
+        assertEquals(List.of(List.of(2, 1), List.of(3, 2)), vectors(responses.get(1)));
+        assertEquals(List.of(0, 1), indexes(responses.get(1)));
+        assertEquals(List.of(List.of(4, 3)), vectors(responses.get(2)));
+        assertEquals(List.of(0), indexes(responses.get(2)));
+
+        // usage 按估算 token 分摊，总和与下游一致
+        assertEquals(10, responses.stream().mapToInt(EmbeddingBatcherTest::promptTokens).sum());
+    }
+
+    @Test
+    @DisplayName("合并请求被拒绝时各请求单独发送，错误只影响非法输入的请求")
+    void invalidInput_shouldOnlyFailItsOwnRequest() {
+        Mono<ResponseEntity<?>> good = submit("bge-m3", "fine");
+        Mono<ResponseEntity<?>> bad = submit("bge-m3", "bad");
+
+        List<Object> results = Flux.merge(
+                        good.map(response -> (Object) response),
+                        bad.map(response -> (Object) response).onErrorResume(error -> Mono.just(error)))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(results);
+        assertEquals(1, results.stream().filter(ResponseStatusException.class::isInstance).count());
+        ResponseEntity<?> ok = (ResponseEntity<?>) results.stream()
+                .filter(ResponseEntity.class::isInstance).findFirst().orElseThrow();
+        assertEquals(List.of(List.of(4, 0)), vectors(ok));
+        // 一次合并调用 + 两次单独调用
+        assertEquals(3, backendCalls.get());
+    }
+
+    @Test
+    @DisplayName("下游 5xx 直接返回给整批请求，不再逐个重发")
+    void serverError_shouldFailWholeBatch() {
+        List<Throwable> errors = Flux.merge(
+                        submit("broken", "x").then(Mono.<Throwable>empty()).onErrorResume(Mono::just),
+                        submit("broken", "y").then(Mono.<Throwable>empty()).onErrorResume(Mono::just))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(errors);
+        assertEquals(2, errors.size());
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    @DisplayName("下游 429 等与输入无关的 4xx 直接返回给整批请求，不再逐个重发")
+    void throttled_shouldFailWholeBatch() {
+        List<Throwable> errors = Flux.merge(
+                        submit("throttled", "x").then(Mono.<Throwable>empty()).onErrorResume(Mono::just),
+                        submit("throttled", "y").then(Mono.<Throwable>empty()).onErrorResume(Mono::just))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(errors);
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().allMatch(error -> error instanceof ResponseStatusException e
+                && e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()));
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    @DisplayName("没有 Authorization 头时，不同 API Key 的请求不合并")
+    void differentApiKeys_shouldNotShareBatch() {
+        List<ResponseEntity<?>> responses = Flux.merge(
+                        submit("bge-m3", "a", null, "key-a"),
+                        submit("bge-m3", "b", null, "key-b"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(responses);
+        assertEquals(2, backendCalls.get());
+        assertEquals(0, batcher.getBatchCalls());
+        // 单独发送的请求由处理器按各自的 API Key 计费，合并器不重复计入
+        verify(apiKeyService, never()).updateTokenUsage(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("合并调用不带 API Key ID，各请求按分摊的 total_tokens 计入自己的 API Key")
+    void mergedCall_shouldChargeEachCallerItsShare() {
+        List<ResponseEntity<?>> responses = Flux.merge(
+                        submit("bge-m3", "aaaa", null, "key-a"),
+                        submit("bge-m3", "bbbbbbbb", null, "key-a"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(responses);
+        assertEquals(1, backendCalls.get());
+        assertEquals(1, sentRequests.size());
+        assertNull(sentRequests.get(0).getAttributes().get(ServiceRequestHandler.API_KEY_ID_ATTRIBUTE));
+        verify(apiKeyService).updateTokenUsage(eq("key-a"), eq(4L));
+        verify(apiKeyService).updateTokenUsage(eq("key-a"), eq(8L));
+        verifyNoMoreInteractions(apiKeyService);
+    }
+
+    @Test
+    @DisplayName("达到最大条数时立即发送，不等待合并窗口")
+    void fullBatch_shouldFlushWithoutWaiting() {
+        properties.setMaxWaitMs(60_000);
+        properties.setMaxBatchSize(3);
+
+        List<ResponseEntity<?>> responses = Flux.merge(
+                        submit("bge-m3", "a"),
+                        submit("bge-m3", List.of("b", "c")))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(responses);
+        assertEquals(2, responses.size());
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    @DisplayName("加入后超出 token 上限的请求进入下一批")
+    void tokenLimit_shouldStartNewBatch() {
+        properties.setMaxBatchTokens(3);
+
+        List<ResponseEntity<?>> responses = Flux.merge(
+                        submit("bge-m3", "aaaa aaaa"),
+                        submit("bge-m3", "bbbb bbbb"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(responses);
+        assertEquals(2, backendCalls.get());
+        assertEquals(0, batcher.getBatchCalls());
+    }
+
+    @Test
+    @DisplayName("未启用的模型、带扩展选项或 token 数组输入的请求不合并")
+    void isBatchable_shouldRespectOptIn() {
+        assertTrue(batcher.isBatchable(new EmbeddingDTO.Request("bge-m3", "a", null, null, null, null)));
+        assertFalse(batcher.isBatchable(new EmbeddingDTO.Request("other", "a", null, null, null, null)));
+        assertFalse(batcher.isBatchable(new EmbeddingDTO.Request("bge-m3", List.of(1, 2), null, null, null, null)));
+        assertFalse(batcher.isBatchable(new EmbeddingDTO.Request("bge-m3", "a", null, null, null,
+                EmbeddingDTO.Options.builder().requestId("r").build())));
+
+        properties.setEnabled(false);
+        assertFalse(batcher.isBatchable(new EmbeddingDTO.Request("bge-m3", "a", null, null, null, null)));
+    }
+}
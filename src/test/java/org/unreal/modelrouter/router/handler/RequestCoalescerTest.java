@@ -0,0 +1,210 @@
+package org.unreal.modelrouter.router.handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import org.unreal.modelrouter.common.controller.response.RouterResponse;
+import org.unreal.modelrouter.common.filter.CachedBodyWebFilter;
+import org.unreal.modelrouter.config.core.RequestCoalescingProperties;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry.ServiceType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RequestCoalescer 单元测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class RequestCoalescerTest {
+
+    private static final String CALLER = "Bearer sk-a\nkey:a";
+
+    private RequestCoalescingProperties properties;
+    private ApiKeyService apiKeyService;
+    private RequestCoalescer coalescer;
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new RequestCoalescingProperties();
+        apiKeyService = mock(ApiKeyService.class);
+        coalescer = new RequestCoalescer(properties, apiKeyService);
+    }
+
+    private static ServerHttpRequest request(final String body) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(CachedBodyWebFilter.CACHED_BODY_ATTRIBUTE, body.getBytes(StandardCharsets.UTF_8));
+        ServerHttpRequest request = mock(ServerHttpRequest.class);
+        when(request.getAttributes()).thenReturn(attributes);
+        return request;
+    }
+
+    private static ResponseEntity<?> embeddingResponse() {
+        return ResponseEntity.ok(RouterResponse.success(Map.of(
+                "data", List.of(Map.of("index", 0, "embedding", List.of(0.1))),
+                "usage", Map.of("prompt_tokens", 7, "total_tokens", 7)), "请求成功"));
+    }
+
+    @Test
+    @DisplayName("字段顺序和空白不同的相同请求体得到相同的合并键")
+    void keyFor_shouldCanonicalizeBody() {
+        String a = coalescer.keyFor(ServiceType.embedding, "bge-m3", CALLER,
+                request("{\"model\":\"bge-m3\",\"input\":[\"a\",\"b\"]}"));
+        String b = coalescer.keyFor(ServiceType.embedding, "bge-m3", CALLER,
+                request("{ \"input\": [\"a\", \"b\"], \"model\": \"bge-m3\" }"));
+        String c = coalescer.keyFor(ServiceType.embedding, "bge-m3", CALLER,
+                request("{\"model\":\"bge-m3\",\"input\":[\"b\",\"a\"]}"));
+
+        assertNotNull(a);
+        assertEquals(a, b);
+        assertNotEquals(a, c);
+        assertNotEquals(a, coalescer.keyFor(ServiceType.rerank, "bge-m3", CALLER,
+                request("{\"model\":\"bge-m3\",\"input\":[\"a\",\"b\"]}")));
+    }
+
+    @Test
+    @DisplayName("凭证或 API Key 不同的调用方得到不同的合并键")
+    void keyFor_shouldSeparateCallers() {
+        String body = "{\"model\":\"bge-m3\",\"input\":\"a\"}";
+        String a = coalescer.keyFor(ServiceType.embedding, "bge-m3", CALLER, request(body));
+
+        assertEquals(a, coalescer.keyFor(ServiceType.embedding, "bge-m3", CALLER, request(body)));
+        assertNotEquals(a, coalescer.keyFor(ServiceType.embedding, "bge-m3", "Bearer sk-b\nkey:a", request(body)));
+        assertNotEquals(a, coalescer.keyFor(ServiceType.embedding, "bge-m3", "Bearer sk-a\nkey:b", request(body)));
+        assertFalse(a.contains("sk-a"), "凭证不以明文出现在合并键中");
+    }
+
+    @Test
+    @DisplayName("只合并 temperature 为 0 的 chat 请求，未启用的服务类型不合并")
+    void keyFor_shouldOnlyCoalesceDeterministicRequests() {
+        assertNotNull(coalescer.keyFor(ServiceType.chat, "qwen", CALLER,
+                request("{\"model\":\"qwen\",\"temperature\":0,\"messages\":[]}")));
+        assertNull(coalescer.keyFor(ServiceType.chat, "qwen", CALLER,
+                request("{\"model\":\"qwen\",\"temperature\":0.7,\"messages\":[]}")));
+        assertNull(coalescer.keyFor(ServiceType.chat, "qwen", CALLER,
+                request("{\"model\":\"qwen\",\"messages\":[]}")));
+        assertNull(coalescer.keyFor(ServiceType.imgGen, "sd", CALLER,
+                request("{\"model\":\"sd\",\"prompt\":\"cat\"}")));
+        assertNull(coalescer.keyFor(ServiceType.embedding, "bge-m3", CALLER, request("not json")));
+
+        properties.setEnabled(false);
+        assertNull(coalescer.keyFor(ServiceType.embedding, "bge-m3", CALLER,
+                request("{\"model\":\"bge-m3\",\"input\":\"a\"}")));
+    }
+
+    @Test
+    @DisplayName("并发的相同请求共享一次下游调用，follower 累加自己 API Key 的 Token 配额")
+    void execute_shouldShareInFlightCall() {
+        Sinks.One<ResponseEntity<?>> backend = Sinks.one();
+        Mono<ResponseEntity<?>> leader = coalescer.execute("k", "key-a", () -> {
+            backendCalls.incrementAndGet();
+            return backend.asMono();
+        });
+        Mono<ResponseEntity<?>> follower = coalescer.execute("k", "key-b", () -> {
+            backendCalls.incrementAndGet();
+            return Mono.error(new IllegalStateException("should not be called"));
+        });
+
+        Mono<List<ResponseEntity<?>>> both = Flux.merge(leader, follower).collectList().cache();
+        both.subscribe();
+        assertEquals(1, coalescer.getInFlightCount());
+        backend.tryEmitValue(embeddingResponse());
+
+        List<ResponseEntity<?>> responses = both.block(Duration.ofSeconds(5));
+        assertNotNull(responses);
+        assertEquals(2, responses.size());
+        assertEquals(1, backendCalls.get());
+        assertEquals(1, coalescer.getCoalescedRequests());
+        assertEquals(0, coalescer.getInFlightCount());
+        // leader 的用量由处理器记录，这里只为 follower 累加
+        verify(apiKeyService).updateTokenUsage("key-b", 7L);
+        verify(apiKeyService, never()).updateTokenUsage(eq("key-a"), anyLong());
+    }
+
+    @Test
+    @DisplayName("调用结束后相同请求重新调用下游")
+    void execute_afterCompletion_shouldCallAgain() {
+        for (int i = 0; i < 2; i++) {
+            coalescer.execute("k", "key-a", () -> {
+                backendCalls.incrementAndGet();
+                return Mono.just(embeddingResponse());
+            }).block(Duration.ofSeconds(5));
+        }
+
+        assertEquals(2, backendCalls.get());
+        assertEquals(0, coalescer.getCoalescedRequests());
+    }
+
+    @Test
+    @DisplayName("下游失败时所有等待的请求收到同一个错误，并释放合并键")
+    void execute_onError_shouldFailAllAndRelease() {
+        Sinks.One<ResponseEntity<?>> backend = Sinks.one();
+        Mono<ResponseEntity<?>> leader = coalescer.execute("k", null, backend::asMono);
+        Mono<ResponseEntity<?>> follower = coalescer.execute("k", null, Mono::empty);
+
+        Mono<List<Throwable>> errors = Flux.merge(
+                        leader.then(Mono.<Throwable>empty()).onErrorResume(Mono::just),
+                        follower.then(Mono.<Throwable>empty()).onErrorResume(Mono::just))
+                .collectList()
+                .cache();
+        errors.subscribe();
+        backend.tryEmitError(new ResponseStatusException(HttpStatus.BAD_GATEWAY));
+
+        List<Throwable> result = errors.block(Duration.ofSeconds(5));
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("流式响应对每个订阅者从头重放，流结束后释放")
+    @SuppressWarnings("unchecked")
+    void execute_streaming_shouldReplayFromStart() {
+        Flux<ServerSentEvent<String>> upstream = Flux.just("{\"id\":1}", "{\"id\":2}",
+                        "{\"id\":3,\"usage\":{\"prompt_tokens\":3,\"total_tokens\":9}}", "[DONE]")
+                .delayElements(Duration.ofMillis(20))
+                .map(data -> ServerSentEvent.builder(data).build());
+        Mono<ResponseEntity<?>> leader = coalescer.execute("s", "key-a", () -> {
+            backendCalls.incrementAndGet();
+            return Mono.just(ResponseEntity.ok(upstream));
+        });
+
+        ResponseEntity<?> first = leader.block(Duration.ofSeconds(5));
+        assertNotNull(first);
+        // 上游已开始消费，中途加入的请求仍从第一个事件开始
+        ResponseEntity<?> second = coalescer.execute("s", "key-b", () -> {
+            backendCalls.incrementAndGet();
+            return Mono.empty();
+        }).block(Duration.ofSeconds(5));
+        assertNotNull(second);
+
+        List<String> firstEvents = ((Flux<ServerSentEvent<String>>) first.getBody())
+                .map(ServerSentEvent::data).collectList().block(Duration.ofSeconds(5));
+        List<String> secondEvents = ((Flux<ServerSentEvent<String>>) second.getBody())
+                .map(ServerSentEvent::data).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(4, firstEvents.size());
+        assertEquals(firstEvents, secondEvents);
+        assertEquals(1, backendCalls.get());
+        assertEquals(0, coalescer.getInFlightCount());
+        verify(apiKeyService).updateTokenUsage("key-b", 9L);
+    }
+}
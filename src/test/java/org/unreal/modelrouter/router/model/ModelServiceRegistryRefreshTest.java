@@ -0,0 +1,152 @@
+package org.unreal.modelrouter.router.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.unreal.modelrouter.config.core.ConfigMergeService;
+import org.unreal.modelrouter.config.core.helper.ConfigConverterHelper;
+import org.unreal.modelrouter.config.core.helper.ServiceTypeResolver;
+import org.unreal.modelrouter.router.checker.ServiceStateManager;
+import org.unreal.modelrouter.router.circuitbreaker.CircuitBreakerManager;
+import org.unreal.modelrouter.router.fallback.FallbackManager;
+import org.unreal.modelrouter.router.loadbalancer.LoadBalancer;
+import org.unreal.modelrouter.router.loadbalancer.LoadBalancerManager;
+import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingMonitorService;
+import org.unreal.modelrouter.router.ratelimit.RateLimitManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ModelServiceRegistry 增量刷新测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class ModelServiceRegistryRefreshTest {
+
+    private ConfigMergeService configMergeService;
+    private LoadBalancerManager loadBalancerManager;
+    private RateLimitManager rateLimitManager;
+    private CircuitBreakerManager circuitBreakerManager;
+    private LoadBalancer loadBalancer;
+    private ModelServiceRegistry registry;
+
+    private final Map<String, Object> services = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        configMergeService = mock(ConfigMergeService.class);
+        loadBalancerManager = mock(LoadBalancerManager.class);
+        rateLimitManager = mock(RateLimitManager.class);
+        circuitBreakerManager = mock(CircuitBreakerManager.class);
+        loadBalancer = mock(LoadBalancer.class);
+        when(loadBalancerManager.getLoadBalancer(any())).thenReturn(loadBalancer);
+        when(configMergeService.getPersistedConfig()).thenAnswer(invocation -> Map.of("services", services));
+
+        registry = new ModelServiceRegistry(new ModelRouterProperties(), mock(ServiceStateManager.class),
+                rateLimitManager, loadBalancerManager, circuitBreakerManager, mock(FallbackManager.class),
+                configMergeService, new ServiceTypeResolver(), new ConfigConverterHelper(),
+                mock(WebClientCacheManager.class), mock(RoutingMonitorService.class));
+    }
+
+    private static Map<String, Object> instance(final String id, final int weight) {
+        Map<String, Object> instance = new HashMap<>();
+        instance.put("instanceId", id);
+        instance.put("name", "model-" + id);
+        instance.put("baseUrl", "http://" + id);
+        instance.put("path", "/v1");
+        instance.put("weight", weight);
+        return instance;
+    }
+
+    @SafeVarargs
+    private void setService(final String key, final String lbType, final Map<String, Object>... instances) {
+        Map<String, Object> service = new HashMap<>();
+        service.put("loadBalance", Map.of("type", lbType));
+        service.put("instances", new ArrayList<>(List.of(instances)));
+        services.put(key, service);
+    }
+
+    private List<ModelRouterProperties.ModelInstance> chatInstances() {
+        return registry.getAllInstances().get(ModelServiceRegistry.ServiceType.chat);
+    }
+
+    @Test
+    @DisplayName("配置未变化时保留全部实例对象，不重建负载均衡器")
+    void shouldKeepEverythingWhenUnchanged() {
+        setService("chat", "least-connections", instance("a", 1), instance("b", 1));
+        registry.refreshFromMergedConfig();
+        List<ModelRouterProperties.ModelInstance> before = chatInstances();
+
+        registry.refreshFromMergedConfig();
+
+        List<ModelRouterProperties.ModelInstance> after = chatInstances();
+        assertSame(before.get(0), after.get(0));
+        assertSame(before.get(1), after.get(1));
+        verify(loadBalancerManager, times(1)).reinitializeLoadBalancer(eq(ModelServiceRegistry.ServiceType.chat), any());
+    }
+
+    @Test
+    @DisplayName("新增实例只构建新实例，其余实例和负载均衡器状态保留")
+    void shouldReuseUnchangedInstancesOnAdd() {
+        setService("chat", "least-connections", instance("a", 1), instance("b", 1));
+        setService("embedding", "random", instance("e", 1));
+        registry.refreshFromMergedConfig();
+        List<ModelRouterProperties.ModelInstance> before = chatInstances();
+        clearInvocations(loadBalancerManager);
+
+        setService("chat", "least-connections", instance("a", 1), instance("b", 1), instance("c", 1));
+        registry.refreshFromMergedConfig();
+
+        List<ModelRouterProperties.ModelInstance> after = chatInstances();
+        assertEquals(3, after.size());
+        assertSame(before.get(0), after.get(0));
+        assertSame(before.get(1), after.get(1));
+        assertEquals("c", after.get(2).getInstanceId());
+        verify(loadBalancerManager, never()).reinitializeLoadBalancer(any(), any());
+        verify(rateLimitManager, never()).removeInstanceRateLimiter(any(), any());
+    }
+
+    @Test
+    @DisplayName("负载均衡配置变化只重建该服务的负载均衡器")
+    void shouldReinitializeOnlyChangedLoadBalancer() {
+        setService("chat", "least-connections", instance("a", 1));
+        setService("embedding", "random", instance("e", 1));
+        registry.refreshFromMergedConfig();
+        clearInvocations(loadBalancerManager);
+
+        setService("embedding", "round-robin", instance("e", 1));
+        registry.refreshFromMergedConfig();
+
+        verify(loadBalancerManager).reinitializeLoadBalancer(eq(ModelServiceRegistry.ServiceType.embedding), any());
+        verify(loadBalancerManager, never()).reinitializeLoadBalancer(eq(ModelServiceRegistry.ServiceType.chat), any());
+    }
+
+    @Test
+    @DisplayName("删除的实例释放限流器、熔断器和负载均衡状态，更新的实例换成新对象")
+    void shouldReleaseRemovedInstances() {
+        setService("chat", "least-connections", instance("a", 1), instance("b", 1));
+        registry.refreshFromMergedConfig();
+        ModelRouterProperties.ModelInstance removed = chatInstances().get(1);
+        ModelRouterProperties.ModelInstance updatedBefore = chatInstances().get(0);
+
+        setService("chat", "least-connections", instance("a", 3));
+        registry.refreshFromMergedConfig();
+
+        ModelRouterProperties.ModelInstance updated = chatInstances().get(0);
+        assertNotSame(updatedBefore, updated);
+        assertEquals(3, updated.getWeight());
+        verify(rateLimitManager).removeInstanceRateLimiter(ModelServiceRegistry.ServiceType.chat, removed);
+        verify(circuitBreakerManager).resetCircuitBreaker("b", "http://b");
+        verify(loadBalancer).onInstanceRemoved(removed);
+        verify(circuitBreakerManager, never()).resetCircuitBreaker(eq("a"), any());
+    }
+}
@@ -0,0 +1,107 @@
+package org.unreal.modelrouter.router.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RoutingTableDiff 测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class RoutingTableDiffTest {
+
+    private static Map<String, Object> instance(final String id, final String url, final int weight) {
+        Map<String, Object> instance = new HashMap<>();
+        instance.put("instanceId", id);
+        instance.put("name", "model");
+        instance.put("baseUrl", url);
+        instance.put("weight", weight);
+        return instance;
+    }
+
+    private static Map<String, Object> service(final String lbType, final List<Map<String, Object>> instances) {
+        Map<String, Object> service = new HashMap<>();
+        service.put("loadBalance", new HashMap<>(Map.of("type", lbType)));
+        service.put("instances", new ArrayList<>(instances));
+        return service;
+    }
+
+    private static Map<String, Map<String, Object>> services(final Object... keyAndService) {
+        Map<String, Object> services = new HashMap<>();
+        for (int i = 0; i < keyAndService.length; i += 2) {
+            services.put((String) keyAndService[i], keyAndService[i + 1]);
+        }
+        return RoutingTableDiff.snapshot(services);
+    }
+
+    @Test
+    @DisplayName("内容相同的配置没有变化")
+    void shouldReportNoChangeForEqualConfigs() {
+        var before = services("chat", service("random", List.of(instance("a", "http://a", 1))));
+        var after = services("chat", service("random", List.of(instance("a", "http://a", 1))));
+
+        RoutingTableDiff diff = RoutingTableDiff.compute(before, after);
+
+        assertTrue(diff.isEmpty());
+        assertEquals(RoutingTableDiff.Status.UNCHANGED, diff.getChange("chat").status());
+    }
+
+    @Test
+    @DisplayName("实例按内容和标识区分未变化、更新、新增和删除")
+    void shouldClassifyInstanceChanges() {
+        var before = services("chat", service("random", List.of(
+                instance("a", "http://a", 1), instance("b", "http://b", 1), instance("c", "http://c", 1))));
+        var after = services("chat", service("random", List.of(
+                instance("a", "http://a", 1), instance("b", "http://b", 5), instance("d", "http://d", 1))));
+
+        RoutingTableDiff.ServiceChange change = RoutingTableDiff.compute(before, after).getChange("chat");
+
+        assertEquals(RoutingTableDiff.Status.MODIFIED, change.status());
+        assertFalse(change.settingsChanged());
+        assertFalse(change.loadBalanceChanged());
+        assertEquals(1, change.unchangedInstances());
+        assertEquals(1, change.updated().size());
+        assertEquals(5, change.updated().get(0).current().get("weight"));
+        assertEquals("d", change.added().get(0).get("instanceId"));
+        assertEquals("c", change.removed().get(0).get("instanceId"));
+    }
+
+    @Test
+    @DisplayName("服务级配置变化和服务增删")
+    void shouldDetectServiceLevelChanges() {
+        var before = services("chat", service("random", List.of(instance("a", "http://a", 1))),
+                "embedding", service("random", List.of(instance("e", "http://e", 1))));
+        var after = services("chat", service("least-connections", List.of(instance("a", "http://a", 1))),
+                "rerank", service("random", List.of()));
+
+        RoutingTableDiff diff = RoutingTableDiff.compute(before, after);
+
+        assertTrue(diff.getChange("chat").loadBalanceChanged());
+        assertEquals(0, diff.getChange("chat").added().size());
+        assertEquals(RoutingTableDiff.Status.REMOVED, diff.getChange("embedding").status());
+        assertEquals(1, diff.getChange("embedding").removed().size());
+        assertEquals(RoutingTableDiff.Status.ADDED, diff.getChange("rerank").status());
+        assertEquals(1, diff.changedInstanceCount());
+    }
+
+    @Test
+    @DisplayName("快照与原配置隔离，原地修改不影响对比基准")
+    void shouldIsolateSnapshotFromSource() {
+        Map<String, Object> instance = instance("a", "http://a", 1);
+        Map<String, Object> source = new HashMap<>(Map.of("chat", service("random", List.of(instance))));
+
+        var snapshot = RoutingTableDiff.snapshot(source);
+        instance.put("weight", 9);
+
+        assertEquals(1, RoutingTableDiff.instancesOf(snapshot.get("chat")).get(0).get("weight"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.get("chat").put("adapter", "gpustack"));
+    }
+}
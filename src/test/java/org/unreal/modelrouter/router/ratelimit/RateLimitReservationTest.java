@@ -0,0 +1,256 @@
+package org.unreal.modelrouter.router.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.unreal.modelrouter.router.checker.ServiceStateManager;
+import org.unreal.modelrouter.router.circuitbreaker.CircuitBreakerManager;
+import org.unreal.modelrouter.config.core.helper.ConfigConverterHelper;
+import org.unreal.modelrouter.config.core.helper.ServiceTypeResolver;
+import org.unreal.modelrouter.router.factory.ComponentFactory;
+import org.unreal.modelrouter.router.loadbalancer.LoadBalancer;
+import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingMonitorService;
+import org.unreal.modelrouter.router.model.ModelRouterProperties;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry;
+import org.unreal.modelrouter.router.model.ServiceInstanceSelector;
+import org.unreal.modelrouter.router.ratelimit.impl.LeakyBucketRateLimiter;
+import org.unreal.modelrouter.router.ratelimit.impl.SlidingWindowRateLimiter;
+import org.unreal.modelrouter.router.ratelimit.impl.TokenBucketRateLimiter;
+import org.unreal.modelrouter.router.ratelimit.impl.WarmUpRateLimiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 限流预留/确认/撤销及多级原子限流测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class RateLimitReservationTest {
+
+    private static final ModelServiceRegistry.ServiceType CHAT = ModelServiceRegistry.ServiceType.chat;
+    private static final int THREADS = 8;
+
+    private static RateLimitContext context(final String clientIp) {
+        return new RateLimitContext(CHAT, "model", clientIp, 1, "inst-1", "http://inst-1");
+    }
+
+    private static RateLimiter create(final String algorithm, final RateLimitConfig config) {
+        return switch (algorithm) {
+            case "leaky-bucket" -> new LeakyBucketRateLimiter(config);
+            case "sliding-window" -> new SlidingWindowRateLimiter(config);
+            case "warm-up" -> new WarmUpRateLimiter(config);
+            default -> new TokenBucketRateLimiter(config);
+        };
+    }
+
+    /**
+     * 并发执行任务，线程内的断言失败在所有线程结束后抛出
+     */
+    private static void runConcurrently(final int threads, final Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"token-bucket", "leaky-bucket", "sliding-window", "warm-up"})
+    @DisplayName("并发预留后全部撤销，限流器容量完全恢复")
+    void rollbackRestoresCapacityUnderContention(final String algorithm) throws InterruptedException {
+        RateLimitConfig config = new RateLimitConfig(algorithm, 50, 50, "service");
+        RateLimiter limiter = create(algorithm, config);
+        RateLimitContext ctx = context("127.0.0.1");
+        AtomicInteger granted = new AtomicInteger();
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < 2_000; i++) {
+                RateLimitReservation reservation = limiter.reserve(ctx);
+                if (reservation.isGranted()) {
+                    granted.incrementAndGet();
+                    reservation.rollback();
+                    // 重复撤销无效
+                    reservation.rollback();
+                }
+            }
+        });
+
+        assertTrue(granted.get() > 0);
+        assertEquals(50, limiter.getRemainingCapacity());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"token-bucket", "leaky-bucket", "sliding-window", "warm-up"})
+    @DisplayName("并发预留不超过容量，拒绝时给出重试等待时间")
+    void reservationsNeverExceedCapacity(final String algorithm) throws InterruptedException {
+        // 速率足够低，测试期间补充的名额可以忽略
+        RateLimitConfig config = new RateLimitConfig(algorithm, 20, 20, "service");
+        if ("warm-up".equals(algorithm)) {
+            config.setWarmUpPeriod(3600);
+        }
+        RateLimiter limiter = create(algorithm, config);
+        RateLimitContext ctx = context("127.0.0.1");
+        AtomicInteger granted = new AtomicInteger();
+        AtomicReference<RateLimitReservation> denied = new AtomicReference<>();
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < 10; i++) {
+                RateLimitReservation reservation = limiter.reserve(ctx);
+                if (reservation.isGranted()) {
+                    granted.incrementAndGet();
+                    reservation.commit();
+                    reservation.rollback();
+                } else {
+                    denied.set(reservation);
+                }
+            }
+        });
+
+        assertTrue(granted.get() <= 21, algorithm + " granted " + granted.get());
+        assertNotNull(denied.get());
+        Duration retryAfter = denied.get().getRetryAfter();
+        assertNotNull(retryAfter);
+        assertTrue(retryAfter.compareTo(Duration.ofSeconds(2)) <= 0, retryAfter.toString());
+    }
+
+    @Test
+    @DisplayName("下级拒绝时归还上级已扣除的令牌，被拒绝的请求不消耗实例和服务名额")
+    void deniedRequestsDoNotDrainEarlierLevels() throws InterruptedException {
+        ComponentFactory componentFactory = mock(ComponentFactory.class);
+        when(componentFactory.createScopedRateLimiter(any()))
+                .thenAnswer(invocation -> new ScopedRateLimiterWrapper(invocation.getArgument(0),
+                        TokenBucketRateLimiter::new));
+        ModelRouterProperties properties = new ModelRouterProperties();
+        RateLimitManager manager = new RateLimitManager(componentFactory, mock(ServiceTypeResolver.class),
+                mock(ConfigConverterHelper.class), properties);
+
+        ModelRouterProperties.ModelInstance instance = new ModelRouterProperties.ModelInstance();
+        instance.setInstanceId("inst-1");
+        instance.setBaseUrl("http://inst-1");
+        ModelRouterProperties.RateLimitConfig instanceConfig = new ModelRouterProperties.RateLimitConfig();
+        instanceConfig.setEnabled(true);
+        instanceConfig.setCapacity(1_000L);
+        instanceConfig.setRate(1L);
+        instanceConfig.setScope("instance");
+        manager.setInstanceRateLimiter(CHAT, instance, instanceConfig);
+        manager.setRateLimiter(CHAT, new RateLimitConfig("token-bucket", 500, 1, "service"));
+
+        // 全局限流器只允许 10 个请求，其余请求在第三级被拒绝
+        ModelRouterProperties.RateLimitConfig globalConfig = new ModelRouterProperties.RateLimitConfig();
+        globalConfig.setEnabled(true);
+        globalConfig.setCapacity(10L);
+        globalConfig.setRate(1L);
+        globalConfig.setScope("service");
+        manager.updateGlobalRateLimiter(globalConfig);
+
+        AtomicInteger allowed = new AtomicInteger();
+        AtomicInteger deniedByGlobal = new AtomicInteger();
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < 100; i++) {
+                RateLimitDecision decision = manager.acquire(context("10.0.0." + (i % 5)));
+                if (decision.allowed()) {
+                    allowed.incrementAndGet();
+                } else if (decision.deniedLevel() == RateLimitDecision.Level.GLOBAL) {
+                    deniedByGlobal.incrementAndGet();
+                }
+            }
+        });
+
+        int consumed = allowed.get();
+        assertTrue(consumed >= 10 && consumed <= 11, "allowed " + consumed);
+        assertEquals(THREADS * 100 - consumed, deniedByGlobal.get());
+        for (RateLimitManager.RateLimiterMetrics metrics : manager.getRateLimiterMetrics()) {
+            long expected = metrics.getCapacity() - consumed;
+            if (!"global".equals(metrics.getScope())) {
+                assertTrue(metrics.getRemainingCapacity() >= expected
+                                && metrics.getRemainingCapacity() <= expected + 1,
+                        metrics.getScope() + " remaining " + metrics.getRemainingCapacity());
+            }
+        }
+        assertEquals((long) deniedByGlobal.get(), manager.getDenialCounts().get("global"));
+        assertEquals(0L, manager.getDenialCounts().get("instance"));
+    }
+
+    @Test
+    @DisplayName("拒绝结果包含拒绝级别和 Retry-After 秒数")
+    void decisionCarriesLevelAndRetryAfter() {
+        ComponentFactory componentFactory = mock(ComponentFactory.class);
+        when(componentFactory.createScopedRateLimiter(any()))
+                .thenAnswer(invocation -> new ScopedRateLimiterWrapper(invocation.getArgument(0),
+                        TokenBucketRateLimiter::new));
+        RateLimitManager manager = new RateLimitManager(componentFactory, mock(ServiceTypeResolver.class),
+                mock(ConfigConverterHelper.class), new ModelRouterProperties());
+        manager.setRateLimiter(CHAT, new RateLimitConfig("token-bucket", 1, 2, "service"));
+
+        assertTrue(manager.acquire(context("127.0.0.1")).allowed());
+        RateLimitDecision decision = manager.acquire(context("127.0.0.1"));
+
+        assertFalse(decision.allowed());
+        assertEquals(RateLimitDecision.Level.SERVICE, decision.deniedLevel());
+        assertTrue(decision.retryAfter().compareTo(Duration.ofMillis(500)) <= 0);
+        assertEquals(1, decision.retryAfterSeconds());
+        assertFalse(manager.tryAcquireWithPriority(context("127.0.0.1")));
+        assertEquals(2L, manager.getDenialCounts().get("service"));
+    }
+
+    @Test
+    @DisplayName("选择实例时执行多级限流，服务级拒绝返回 429 和 Retry-After")
+    void selectorMapsDenialTo429WithRetryAfter() {
+        ComponentFactory componentFactory = mock(ComponentFactory.class);
+        when(componentFactory.createScopedRateLimiter(any()))
+                .thenAnswer(invocation -> new ScopedRateLimiterWrapper(invocation.getArgument(0),
+                        TokenBucketRateLimiter::new));
+        RateLimitManager manager = new RateLimitManager(componentFactory, mock(ServiceTypeResolver.class),
+                mock(ConfigConverterHelper.class), new ModelRouterProperties());
+        manager.setRateLimiter(CHAT, new RateLimitConfig("token-bucket", 1, 1, "service"));
+        ModelRouterProperties.ModelInstance instance = new ModelRouterProperties.ModelInstance();
+        instance.setInstanceId("inst-1");
+        instance.setBaseUrl("http://inst-1");
+        LoadBalancer loadBalancer = mock(LoadBalancer.class);
+        when(loadBalancer.selectInstance(anyList(), any(), anyString())).thenReturn(instance);
+        ServiceInstanceSelector selector = new ServiceInstanceSelector(mock(ServiceStateManager.class),
+                manager, mock(CircuitBreakerManager.class), mock(RoutingMonitorService.class));
+
+        assertSame(instance, selector.selectWithRateLimit(List.of(instance), loadBalancer,
+                "127.0.0.1", CHAT, "model"));
+        RateLimitExceededException denied = assertThrows(RateLimitExceededException.class,
+                () -> selector.selectWithRateLimit(List.of(instance), loadBalancer, "127.0.0.1", CHAT, "model"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, denied.getStatusCode());
+        assertEquals(RateLimitDecision.Level.SERVICE, denied.getDeniedLevel());
+        assertEquals("1", denied.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
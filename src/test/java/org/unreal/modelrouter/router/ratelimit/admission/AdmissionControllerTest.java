@@ -0,0 +1,188 @@
+package org.unreal.modelrouter.router.ratelimit.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.unreal.modelrouter.config.core.AdmissionControlProperties;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry.ServiceType;
+import org.unreal.modelrouter.router.ratelimit.RateLimitContext;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdmissionController 测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class AdmissionControllerTest {
+
+    private static final RateLimitContext CHAT = new RateLimitContext(
+            ServiceType.chat, "qwen", "127.0.0.1", 1, null, null);
+
+    private AdmissionControlProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionController controller;
+    private final List<String> order = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionControlProperties();
+        properties.setEnabled(true);
+        properties.setMaxConcurrent(1);
+        properties.setMaxQueueWaitMs(5000);
+        meterRegistry = new SimpleMeterRegistry();
+        controller = new AdmissionController(properties, meterRegistry);
+    }
+
+    private static PriorityLaneClassifier.AdmissionClass lane(final int lane, final String flow, final double weight) {
+        return new PriorityLaneClassifier.AdmissionClass(lane, String.valueOf(lane), flow, weight);
+    }
+
+    /**
+     * 占用唯一的放行名额，返回用于结束该调用的 sink
+     */
+    private Sinks.One<ResponseEntity<?>> occupy() {
+        Sinks.One<ResponseEntity<?>> holder = Sinks.one();
+        controller.admit(CHAT, lane(1, "holder", 1), holder::asMono).subscribe();
+        return holder;
+    }
+
+    private Mono<ResponseEntity<?>> request(final PriorityLaneClassifier.AdmissionClass admissionClass,
+                                            final String name) {
+        return controller.admit(CHAT, admissionClass, () -> {
+            order.add(name);
+            return Mono.just(ResponseEntity.ok(name));
+        });
+    }
+
+    private double depth(final String lane) {
+        return meterRegistry.get("jairouter.admission.queue.depth").tag("lane", lane).gauge().value();
+    }
+
+    @Test
+    @DisplayName("高优先级通道先于低优先级通道放行")
+    void dispatch_shouldPreferHigherPriorityLane() {
+        properties.setLanes(List.of("interactive", "standard", "batch"));
+        Sinks.One<ResponseEntity<?>> holder = occupy();
+
+        request(lane(2, "key:batch", 1), "batch").subscribe();
+        request(lane(1, "key:std", 1), "standard").subscribe();
+        request(lane(0, "key:ui", 1), "interactive").subscribe();
+        assertEquals(1, depth("batch"));
+        assertEquals(1, depth("interactive"));
+
+        holder.tryEmitValue(ResponseEntity.ok("done"));
+
+        assertEquals(List.of("interactive", "standard", "batch"), order);
+        assertEquals(0, depth("batch"));
+        assertEquals(0, controller.getSnapshot().get("chat").get("inFlight"));
+    }
+
+    @Test
+    @DisplayName("通道内按 API Key 公平轮转，突发的 Key 不会饿死其它 Key")
+    void dispatch_shouldInterleaveFlowsWithinLane() {
+        Sinks.One<ResponseEntity<?>> holder = occupy();
+        for (int i = 1; i <= 4; i++) {
+            request(lane(1, "key:a", 1), "a" + i).subscribe();
+        }
+        request(lane(1, "key:b", 1), "b1").subscribe();
+        request(lane(1, "key:b", 1), "b2").subscribe();
+
+        holder.tryEmitValue(ResponseEntity.ok("done"));
+
+        assertEquals(List.of("a1", "b1", "a2", "b2", "a3", "a4"), order);
+    }
+
+    @Test
+    @DisplayName("权重高的 Key 按比例获得更多放行")
+    void dispatch_shouldHonourFlowWeights() {
+        Sinks.One<ResponseEntity<?>> holder = occupy();
+        for (int i = 1; i <= 4; i++) {
+            request(lane(1, "key:heavy", 2), "h" + i).subscribe();
+        }
+        request(lane(1, "key:light", 1), "l1").subscribe();
+        request(lane(1, "key:light", 1), "l2").subscribe();
+
+        holder.tryEmitValue(ResponseEntity.ok("done"));
+
+        assertEquals(List.of("h1", "h2", "l1", "h3", "h4", "l2"), order);
+    }
+
+    @Test
+    @DisplayName("队列已满时高优先级请求挤掉最低通道最后入队的请求，同级请求被拒绝")
+    void enqueue_whenFull_shouldShedLowerPriorityFirst() {
+        properties.setMaxQueueLength(2);
+        Sinks.One<ResponseEntity<?>> holder = occupy();
+        AtomicReference<Throwable> shed = new AtomicReference<>();
+        request(lane(2, "key:batch", 1), "batch1").subscribe();
+        request(lane(2, "key:batch", 1), "batch2").subscribe(v -> { }, shed::set);
+
+        request(lane(0, "key:ui", 1), "interactive").subscribe();
+        assertInstanceOf(AdmissionRejectedException.class, shed.get());
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                () -> request(lane(2, "key:batch", 1), "batch3").block());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("5", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        holder.tryEmitValue(ResponseEntity.ok("done"));
+        assertEquals(List.of("interactive", "batch1"), order);
+    }
+
+    @Test
+    @DisplayName("排队超时或已取消的请求被移除，不会再调用下游")
+    void queuedRequests_timedOutOrCancelled_shouldNeverReachBackend() {
+        properties.setMaxQueueWaitMs(50);
+        Sinks.One<ResponseEntity<?>> holder = occupy();
+
+        Disposable cancelled = request(lane(1, "key:a", 1), "cancelled").subscribe();
+        cancelled.dispose();
+        assertEquals(0, depth("standard"));
+
+        assertThrows(AdmissionRejectedException.class,
+                () -> request(lane(1, "key:a", 1), "timedOut").block(Duration.ofSeconds(5)));
+        assertEquals(0, depth("standard"));
+
+        holder.tryEmitValue(ResponseEntity.ok("done"));
+        assertTrue(order.isEmpty());
+        assertEquals(1, meterRegistry.get("jairouter.admission.queue.wait")
+                .tags("lane", "standard", "outcome", "timeout").timer().count());
+        assertEquals(1, meterRegistry.get("jairouter.admission.queue.wait")
+                .tags("lane", "standard", "outcome", "cancelled").timer().count());
+    }
+
+    @Test
+    @DisplayName("流式响应在流结束时才归还放行名额")
+    @SuppressWarnings("unchecked")
+    void streamingResponse_shouldHoldSlotUntilStreamEnds() {
+        Sinks.Many<String> events = Sinks.many().unicast().onBackpressureBuffer();
+        ResponseEntity<?> response = controller.admit(CHAT, lane(1, "key:a", 1),
+                () -> Mono.just(ResponseEntity.ok(events.asFlux()))).block();
+        assertNotNull(response);
+        AtomicInteger received = new AtomicInteger();
+        ((Flux<String>) response.getBody()).subscribe(event -> received.incrementAndGet());
+
+        request(lane(1, "key:b", 1), "next").subscribe();
+        events.tryEmitNext("chunk");
+        assertTrue(order.isEmpty(), "流未结束时名额仍被占用");
+
+        events.tryEmitComplete();
+        assertEquals(1, received.get());
+        assertEquals(List.of("next"), order);
+    }
+}
@@ -0,0 +1,74 @@
+package org.unreal.modelrouter.router.ratelimit.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.unreal.modelrouter.auth.security.config.properties.ApiKey;
+import org.unreal.modelrouter.auth.security.service.ApiKeyService;
+import org.unreal.modelrouter.config.core.AdmissionControlProperties;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * PriorityLaneClassifier 测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class PriorityLaneClassifierTest {
+
+    private AdmissionControlProperties properties;
+    private ApiKeyService apiKeyService;
+    private PriorityLaneClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionControlProperties();
+        properties.getPathLanes().put("/v1/embeddings", "batch");
+        apiKeyService = mock(ApiKeyService.class);
+        when(apiKeyService.findCachedApiKey("vip")).thenReturn(ApiKey.builder()
+                .keyId("vip")
+                .metadata(Map.of(PriorityLaneClassifier.LANE_METADATA_KEY, "interactive",
+                        PriorityLaneClassifier.WEIGHT_METADATA_KEY, "3"))
+                .build());
+        classifier = new PriorityLaneClassifier(properties, apiKeyService);
+    }
+
+    @Test
+    @DisplayName("API Key 元数据优先于路径规则，并提供通道内权重")
+    void classify_shouldUseApiKeyMetadata() {
+        PriorityLaneClassifier.AdmissionClass result = classifier.classify(
+                MockServerHttpRequest.post("/v1/embeddings").build(), "vip", "10.0.0.1");
+
+        assertEquals(0, result.lane());
+        assertEquals("interactive", result.laneName());
+        assertEquals("key:vip", result.flow());
+        assertEquals(3.0, result.weight());
+    }
+
+    @Test
+    @DisplayName("没有 API Key 通道时按路径规则，其次是默认通道")
+    void classify_shouldFallBackToPathThenDefault() {
+        assertEquals("batch", classifier.classify(
+                MockServerHttpRequest.post("/v1/embeddings").build(), "other", "10.0.0.1").laneName());
+
+        PriorityLaneClassifier.AdmissionClass result = classifier.classify(
+                MockServerHttpRequest.post("/v1/chat/completions").build(), null, "10.0.0.1");
+        assertEquals("standard", result.laneName());
+        assertEquals("ip:10.0.0.1", result.flow());
+        assertEquals(1.0, result.weight());
+    }
+
+    @Test
+    @DisplayName("请求头只能降低通道优先级")
+    void classify_headerShouldOnlyDowngrade() {
+        assertEquals("batch", classifier.classify(MockServerHttpRequest.post("/v1/chat/completions")
+                .header("X-Priority-Lane", "batch").build(), "vip", "10.0.0.1").laneName());
+        assertEquals("standard", classifier.classify(MockServerHttpRequest.post("/v1/chat/completions")
+                .header("X-Priority-Lane", "interactive").build(), null, "10.0.0.1").laneName());
+    }
+}
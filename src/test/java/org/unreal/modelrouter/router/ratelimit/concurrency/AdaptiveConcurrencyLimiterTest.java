@@ -0,0 +1,253 @@
+package org.unreal.modelrouter.router.ratelimit.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.unreal.modelrouter.config.core.AdaptiveConcurrencyProperties;
+import org.unreal.modelrouter.router.checker.ServiceStateManager;
+import org.unreal.modelrouter.router.circuitbreaker.CircuitBreakerManager;
+import org.unreal.modelrouter.router.loadbalancer.LoadBalancer;
+import org.unreal.modelrouter.router.loadbalancer.monitor.RoutingMonitorService;
+import org.unreal.modelrouter.router.model.ModelRouterProperties;
+import org.unreal.modelrouter.router.model.ModelServiceRegistry.ServiceType;
+import org.unreal.modelrouter.router.model.ServiceInstanceSelector;
+import org.unreal.modelrouter.router.ratelimit.RateLimitDecision;
+import org.unreal.modelrouter.router.ratelimit.RateLimitManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AdaptiveConcurrencyLimiter 测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+    private ModelRouterProperties.ModelInstance instance;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveConcurrencyProperties();
+        properties.setEnabled(true);
+        properties.setAlgorithm(AdaptiveConcurrencyProperties.Algorithm.AIMD);
+        properties.setInitialLimit(2);
+        properties.setMaxLimit(2);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+        instance = instance("gpu-1", "http://gpu-1:8000");
+    }
+
+    private static ModelRouterProperties.ModelInstance instance(final String id, final String baseUrl) {
+        ModelRouterProperties.ModelInstance modelInstance = new ModelRouterProperties.ModelInstance();
+        modelInstance.setInstanceId(id);
+        modelInstance.setName(id);
+        modelInstance.setBaseUrl(baseUrl);
+        return modelInstance;
+    }
+
+    private double chatGauge(final String name) {
+        return meterRegistry.get("jairouter.instance.concurrency." + name).tag("service", "chat").gauge().value();
+    }
+
+    @Test
+    @DisplayName("饱和时请求排队，名额释放后依次获得")
+    void acquire_whenSaturated_shouldQueueUntilRelease() {
+        properties.setQueueTimeoutMs(5000);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire(ServiceType.chat, instance).block();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.acquire(ServiceType.chat, instance).block();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertFalse(limiter.hasCapacity(ServiceType.chat, instance));
+        assertTrue(limiter.hasCapacity(ServiceType.embedding, instance), "不同服务类型分别计数");
+
+        Mono<AdaptiveConcurrencyLimiter.Permit> waiting = limiter.acquire(ServiceType.chat, instance).cache();
+        waiting.subscribe();
+        assertEquals(1, chatGauge("queued"));
+
+        first.release();
+        first.release();
+
+        assertNotNull(waiting.block(Duration.ofSeconds(5)));
+        assertEquals(2, chatGauge("inflight"), "重复释放只生效一次");
+        assertEquals(0, chatGauge("queued"));
+    }
+
+    @Test
+    @DisplayName("不排队或排队超时时返回 503 和 Retry-After")
+    void acquire_whenQueueTimesOut_shouldRejectWithRetryAfter() {
+        limiter.acquire(ServiceType.chat, instance).block();
+        limiter.acquire(ServiceType.chat, instance).block();
+
+        properties.setQueueTimeoutMs(0);
+        ConcurrencyLimitExceededException immediate = assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.acquire(ServiceType.chat, instance).block());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, immediate.getStatusCode());
+        assertEquals("1", immediate.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        properties.setQueueTimeoutMs(30);
+        assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.acquire(ServiceType.chat, instance).block(Duration.ofSeconds(5)));
+        assertEquals(0, chatGauge("queued"));
+        assertEquals(2, meterRegistry.get("jairouter.instance.concurrency.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("流式响应在流结束时释放名额，下游 5xx 计为过载")
+    @SuppressWarnings("unchecked")
+    void track_shouldReleaseAtStreamEndAndBackOffOnServerError() {
+        properties.setMaxLimit(10);
+        properties.setInitialLimit(4);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(ServiceType.chat, instance).block();
+        Sinks.Many<String> events = Sinks.many().unicast().onBackpressureBuffer();
+        ResponseEntity<?> response = limiter.track(permit,
+                Mono.just(ResponseEntity.ok(events.asFlux()))).block();
+        assertNotNull(response);
+
+        List<String> received = new java.util.concurrent.CopyOnWriteArrayList<>();
+        ((Flux<String>) response.getBody()).subscribe(received::add);
+        events.tryEmitNext("a");
+        assertEquals(1, chatGauge("inflight"), "流未结束时名额仍被占用");
+        events.tryEmitComplete();
+        assertEquals(List.of("a"), received);
+        assertEquals(0, chatGauge("inflight"));
+
+        AdaptiveConcurrencyLimiter.Permit failing = limiter.acquire(ServiceType.chat, instance).block();
+        assertThrows(ResponseStatusException.class, () -> limiter.track(failing,
+                Mono.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY))).block());
+        assertEquals(3, limiter.getSnapshot().get("chat:gpu-1").get("limit"), "5xx 后上限按比例缩减");
+
+        AdaptiveConcurrencyLimiter.Permit badRequest = limiter.acquire(ServiceType.chat, instance).block();
+        assertThrows(ResponseStatusException.class, () -> limiter.track(badRequest,
+                Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST))).block());
+        assertEquals(3, limiter.getSnapshot().get("chat:gpu-1").get("limit"), "4xx 与负载无关，不计入样本");
+        assertEquals(0, limiter.getSnapshot().get("chat:gpu-1").get("inFlight"));
+    }
+
+    @Test
+    @DisplayName("实例选择优先跳过已饱和的实例，全部饱和时仍返回实例")
+    void selector_shouldSkipSaturatedInstances() {
+        RateLimitManager rateLimitManager = mock(RateLimitManager.class);
+        when(rateLimitManager.acquire(any())).thenReturn(RateLimitDecision.allow());
+        LoadBalancer loadBalancer = mock(LoadBalancer.class);
+        when(loadBalancer.selectInstance(anyList(), any(), anyString()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).get(0));
+        ServiceInstanceSelector selector = new ServiceInstanceSelector(mock(ServiceStateManager.class),
+                rateLimitManager, mock(CircuitBreakerManager.class), mock(RoutingMonitorService.class));
+        selector.setConcurrencyLimiter(limiter);
+        ModelRouterProperties.ModelInstance other = instance("gpu-2", "http://gpu-2:8000");
+
+        limiter.acquire(ServiceType.chat, instance).block();
+        assertSame(instance, selector.selectWithRateLimit(List.of(instance, other), loadBalancer,
+                "127.0.0.1", ServiceType.chat, "qwen"));
+        limiter.acquire(ServiceType.chat, instance).block();
+        assertSame(other, selector.selectWithRateLimit(List.of(instance, other), loadBalancer,
+                "127.0.0.1", ServiceType.chat, "qwen"));
+
+        limiter.acquire(ServiceType.chat, other).block();
+        limiter.acquire(ServiceType.chat, other).block();
+        assertSame(instance, selector.selectWithRateLimit(List.of(instance, other), loadBalancer,
+                "127.0.0.1", ServiceType.chat, "qwen"));
+    }
+
+    @Test
+    @DisplayName("模拟：后端超过容量后延迟线性上升、超过硬上限返回 503，梯度上限收敛到容量附近")
+    void simulation_gradientLimitShouldConvergeNearBackendCapacity() {
+        int capacity = 8;
+        int hardLimit = 40;
+        int clients = 64;
+        int requests = 800;
+        // 离散事件模拟：虚拟时钟只在处理完成事件时前进，样本与机器负载和调度抖动无关
+        AtomicLong clock = new AtomicLong();
+        PriorityQueue<long[]> completions = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(event -> event[0]).thenComparingLong(event -> event[1]));
+        Map<Long, AdaptiveConcurrencyLimiter.Permit> permits = new HashMap<>();
+        AtomicInteger serverInFlight = new AtomicInteger();
+        AtomicInteger serverMaxInFlight = new AtomicInteger();
+        AtomicInteger overloaded = new AtomicInteger();
+        AtomicInteger issued = new AtomicInteger();
+        AtomicLong sequence = new AtomicLong();
+        double limitTime = 0;
+        long steadyStart = -1;
+
+        properties.setAlgorithm(AdaptiveConcurrencyProperties.Algorithm.GRADIENT);
+        properties.setInitialLimit(30);
+        properties.setMaxLimit(200);
+        properties.setQueueTimeoutMs(60_000);
+        properties.setMaxQueueSize(1000);
+        limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry, clock::get);
+
+        Runnable[] issue = new Runnable[1];
+        issue[0] = () -> {
+            if (issued.incrementAndGet() > requests) {
+                return;
+            }
+            limiter.acquire(ServiceType.chat, instance).subscribe(permit -> {
+                int current = serverInFlight.incrementAndGet();
+                serverMaxInFlight.accumulateAndGet(current, Math::max);
+                boolean rejected = current > hardLimit;
+                // 超过容量后请求在后端排队，延迟随在途请求数线性上升；超过硬上限立即返回 503
+                long latencyMs = rejected ? 1 : 30L * Math.max(capacity, current) / capacity;
+                long id = sequence.incrementAndGet();
+                permits.put(id, permit);
+                completions.add(new long[]{clock.get() + TimeUnit.MILLISECONDS.toNanos(latencyMs), id,
+                        rejected ? 1 : 0});
+            }, error -> issue[0].run());
+        };
+        for (int i = 0; i < clients; i++) {
+            issue[0].run();
+        }
+        while (!completions.isEmpty()) {
+            long[] completion = completions.poll();
+            if (steadyStart >= 0) {
+                limitTime += (int) limiter.getSnapshot().get("chat:gpu-1").get("limit")
+                        * (double) (completion[0] - clock.get());
+            } else if (sequence.get() >= requests / 2) {
+                steadyStart = completion[0];
+            }
+            clock.set(completion[0]);
+            serverInFlight.decrementAndGet();
+            boolean rejected = completion[2] == 1;
+            if (rejected) {
+                overloaded.incrementAndGet();
+            }
+            AdaptiveConcurrencyLimiter.Permit permit = permits.remove(completion[1]);
+            permit.record(rejected);
+            permit.release();
+            issue[0].run();
+        }
+
+        assertEquals(requests, sequence.get(), "所有请求都应拿到名额并完成");
+        // 样本滞后一个响应时间，上限围绕工作点振荡，取后半程按时间加权的平均值
+        double limit = limitTime / (clock.get() - steadyStart);
+        assertTrue(limit >= capacity / 2.0 && limit <= capacity * 3,
+                "limit should settle near backend capacity, was " + limit);
+        assertTrue(serverMaxInFlight.get() <= hardLimit,
+                "limiter should keep the backend under its hard limit, max in flight was "
+                        + serverMaxInFlight.get());
+        assertEquals(0, overloaded.get());
+    }
+}
@@ -0,0 +1,87 @@
+package org.unreal.modelrouter.router.ratelimit.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AIMD 与梯度并发上限算法测试
+ *
+ * @author JAiRouter Team
+ * @since v2.29.0
+ */
+class ConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    @DisplayName("AIMD：在途请求接近上限时成功加一，出错按比例缩减且不低于下界")
+    void aimd_shouldIncreaseAdditivelyAndDecreaseMultiplicatively() {
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10, 2, 12, 0.5, 1000);
+
+        limit.onSample(RTT, 10, false);
+        assertEquals(11, limit.getLimit());
+        // 在途请求远低于上限时不增长
+        limit.onSample(RTT, 1, false);
+        assertEquals(11, limit.getLimit());
+        limit.onSample(RTT, 11, false);
+        limit.onSample(RTT, 12, false);
+        assertEquals(12, limit.getLimit(), "不超过上界");
+
+        limit.onSample(RTT, 12, true);
+        assertEquals(6, limit.getLimit());
+        limit.onSample(RTT, 6, true);
+        limit.onSample(RTT, 3, true);
+        assertEquals(2, limit.getLimit(), "不低于下界");
+    }
+
+    @Test
+    @DisplayName("AIMD：响应时间超过超时阈值视为过载")
+    void aimd_slowResponse_shouldBackOff() {
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10, 1, 100, 0.9, 100);
+
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(150), 10, false);
+
+        assertEquals(9, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("梯度：响应时间稳定时缓慢增长，响应时间上升时收缩")
+    void gradient_shouldFollowLatency() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 1, 200, 1.5, 0.2, 600);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(RTT, limit.getLimit(), false);
+        }
+        int grown = limit.getLimit();
+        assertTrue(grown > 20, "稳定响应时间下上限应增长: " + grown);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(RTT * 4, limit.getLimit(), false);
+        }
+        int shrunk = limit.getLimit();
+        assertTrue(shrunk < grown, "响应时间上升后上限应收缩: " + grown + " -> " + shrunk);
+        assertTrue(limit.getRttNanos() > RTT * 2);
+    }
+
+    @Test
+    @DisplayName("梯度：在途请求不足上限一半时不增长，出错时缩减")
+    void gradient_shouldNotGrowWhenIdleAndShrinkOnDrop() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 200, 1.5, 0.2, 600);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(RTT, 2, false);
+        }
+        assertEquals(20, limit.getLimit());
+
+        limit.onSample(RTT, 20, true);
+        assertEquals(18, limit.getLimit());
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(RTT, 20, true);
+        }
+        assertEquals(5, limit.getLimit(), "不低于下界");
+    }
+}